@@ -0,0 +1,50 @@
+/*
+ * SearchFilter.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.apple.foundationdb.async.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.tuple.Tuple;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A predicate over the items of a vector structure that a k-nearest neighbors search can evaluate while it traverses
+ * the structure, as opposed to filtering the results it returns. Only items that match the filter are returned, so a
+ * search asking for {@code k} results returns {@code k} matching items if there are that many, no matter how
+ * selective the filter is.
+ * <p>
+ * A filter can only look at the primary key of an item and at the additional values that are stored together with its
+ * vector, as these are available during the search without any further reads. Filters should be cheap to evaluate,
+ * as they may be called for many more items than are returned.
+ */
+@API(API.Status.EXPERIMENTAL)
+@FunctionalInterface
+public interface SearchFilter {
+    /**
+     * Determines if an item may be returned by a search.
+     * @param primaryKey the primary key of the item
+     * @param additionalValues the additional values stored with the item, or {@code null} if there are none
+     * @return {@code true} if the item matches this filter, {@code false} otherwise
+     */
+    boolean matches(@Nonnull Tuple primaryKey, @Nullable Tuple additionalValues);
+}
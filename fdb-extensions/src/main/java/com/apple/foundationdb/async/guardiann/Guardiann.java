@@ -24,6 +24,7 @@ import com.apple.foundationdb.ReadTransaction;
 import com.apple.foundationdb.Transaction;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.Tuple;
@@ -224,6 +225,34 @@ public class Guardiann {
         return search().kNearestNeighborsSearch(readTransaction, k, searchConfig, includeVectors, queryVector);
     }
 
+    /**
+     * Performs a search for the k-nearest neighbors for a given query vector among the vectors that match a filter.
+     * The filter is evaluated on the primary key and the covering values of each candidate while the clusters are
+     * probed (see {@link SearchFilter}).
+     *
+     * @param readTransaction the transaction to use for reading from the database
+     * @param k the number of nearest neighbors to return
+     * @param searchConfig the performance/recall tuning knobs for this search (see {@link SearchConfig})
+     * @param includeVectors indicator if the caller would like the search to also include vectors in the result set
+     * @param queryVector the vector to find the nearest neighbors of
+     * @param filter a filter the returned vectors must match, or {@code null} if all vectors can be returned
+     *
+     * @return a {@link CompletableFuture} that will complete with a list of the {@code k} nearest neighbors matching
+     *         the filter, sorted by distance in ascending order.
+     */
+    @SuppressWarnings("checkstyle:MethodName") // method name normally used in literature
+    @Nonnull
+    public CompletableFuture<List<? extends ResultEntry>>
+            kNearestNeighborsSearch(@Nonnull final ReadTransaction readTransaction,
+                                    final int k,
+                                    @Nonnull final SearchConfig searchConfig,
+                                    final boolean includeVectors,
+                                    @Nonnull final RealVector queryVector,
+                                    @Nullable final SearchFilter filter) {
+        return search().kNearestNeighborsSearch(readTransaction, k, searchConfig, includeVectors, queryVector,
+                filter);
+    }
+
     /**
      * Performs a distance-ordered k-nearest-neighbor search — the streaming, paginatable sibling of
      * {@link #kNearestNeighborsSearch}. Probes up to {@code searchMaxClusters} clusters and returns up to
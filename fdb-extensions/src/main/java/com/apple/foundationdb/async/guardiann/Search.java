@@ -26,6 +26,7 @@ import com.apple.foundationdb.async.AsyncUtil;
 import com.apple.foundationdb.async.MoreAsyncUtil;
 import com.apple.foundationdb.async.common.DistinctTopK;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.async.common.StorageTransform;
 import com.apple.foundationdb.linear.DistanceEstimator;
 import com.apple.foundationdb.linear.RealVector;
@@ -166,7 +167,42 @@ class Search {
                                     @Nonnull final SearchConfig searchConfig,
                                     final boolean includeVectors,
                                     @Nonnull final RealVector queryVector) {
-        return search(readTransaction, k, searchConfig, queryVector)
+        return kNearestNeighborsSearch(readTransaction, k, searchConfig, includeVectors, queryVector, null);
+    }
+
+    /**
+     * Performs a k-nearest neighbor search among the vectors that match a filter and returns the results as
+     * {@link ResultEntry} instances, optionally including the reconstructed vectors.
+     * <p>
+     * The filter is evaluated on the covering values of the vector metadata, which is read for every candidate
+     * anyway to discard stale references. As a fixed-size candidate pool may not hold {@code k} matching vectors if
+     * the filter is selective, a filtered search uses the streaming pipeline of {@link #searchOrderedByDistance}
+     * instead, which keeps on probing clusters (up to {@link SearchConfig#searchMaxClusters()}) until it has found
+     * {@code k} matching vectors.
+     *
+     * @param readTransaction the read transaction context
+     * @param k the number of nearest neighbors to return
+     * @param searchConfig the performance/recall tuning knobs for this search (see {@link SearchConfig})
+     * @param includeVectors whether to include reconstructed vector data in the results
+     * @param queryVector the query vector to search for
+     * @param filter a filter the returned vectors must match, or {@code null} if all vectors can be returned
+     * @return a future completing with up to {@code k} nearest neighbors matching the filter sorted by distance
+     */
+    @Nonnull
+    @SuppressWarnings("checkstyle:MethodName")
+    public CompletableFuture<List<? extends ResultEntry>>
+            kNearestNeighborsSearch(@Nonnull final ReadTransaction readTransaction,
+                                    final int k,
+                                    @Nonnull final SearchConfig searchConfig,
+                                    final boolean includeVectors,
+                                    @Nonnull final RealVector queryVector,
+                                    @Nullable final SearchFilter filter) {
+        final CompletableFuture<SearchResult> searchResultFuture =
+                filter == null
+                ? search(readTransaction, k, searchConfig, queryVector)
+                : searchOrderedByDistance(readTransaction, k, searchConfig, queryVector,
+                        0.0d, Double.NEGATIVE_INFINITY, null, filter);
+        return searchResultFuture
                 .thenApply(searchResult ->
                         searchResult == null
                         ? ImmutableList.of()
@@ -472,6 +508,19 @@ class Search {
                                                             final double minimumRadiusCluster,
                                                             final double minimumRadius,
                                                             @Nullable final Tuple minimumPrimaryKey) {
+        return searchOrderedByDistance(readTransaction, k, searchConfig, queryVector, minimumRadiusCluster,
+                minimumRadius, minimumPrimaryKey, null);
+    }
+
+    @Nonnull
+    CompletableFuture<SearchResult> searchOrderedByDistance(@Nonnull final ReadTransaction readTransaction,
+                                                            final int k,
+                                                            @Nonnull final SearchConfig searchConfig,
+                                                            @Nonnull final RealVector queryVector,
+                                                            final double minimumRadiusCluster,
+                                                            final double minimumRadius,
+                                                            @Nullable final Tuple minimumPrimaryKey,
+                                                            @Nullable final SearchFilter filter) {
         final Primitives primitives = primitives();
 
         return primitives.fetchAccessInfo(readTransaction)
@@ -518,7 +567,8 @@ class Search {
                                     });
 
                     return collectNearestKOrderedByDistance(readTransaction, primitives,
-                            vectorReferenceAndDistancesIterable, k, searchConfig, minimumRadius, minimumPrimaryKey)
+                            vectorReferenceAndDistancesIterable, k, searchConfig, minimumRadius, minimumPrimaryKey,
+                            filter)
                             .thenApply(nearestVectorRecords ->
                                     new SearchResult(accessInfo, storageTransform, nearestVectorRecords));
                 });
@@ -562,8 +612,8 @@ class Search {
     /**
      * Tail of {@link #searchOrderedByDistance}: from the per-cluster {@link VectorReferenceAndDistance} stream,
      * expands collapsed references, applies the minimum-radius / minimum-primary-key cutoff, reorders into
-     * (approximate) distance order, drops references whose metadata is stale, de-duplicates by primary key, then
-     * takes the nearest {@code k} and enriches each with its full metadata.
+     * (approximate) distance order, drops references whose metadata is stale or does not match the filter (if
+     * any), de-duplicates by primary key, then takes the nearest {@code k} and enriches each with its full metadata.
      */
     @Nonnull
     private CompletableFuture<List<VectorRecord>> collectNearestKOrderedByDistance(
@@ -573,7 +623,8 @@ class Search {
             final int k,
             @Nonnull final SearchConfig searchConfig,
             final double minimumRadius,
-            @Nullable final Tuple minimumPrimaryKey) {
+            @Nullable final Tuple minimumPrimaryKey,
+            @Nullable final SearchFilter filter) {
         // Expand collapsed references inline: a collapsed reference becomes one entry
         // per vector ID behind the signature, all sharing the same distance.
         final AsyncIterable<VectorReferenceAndDistance> expandedVectorReferenceAndDistancesIterable =
@@ -625,7 +676,10 @@ class Search {
                                                     primitives.fetchVectorMetadata(readTransaction, primaryKey));
                             return vectorMetadataFuture.thenApply(vectorMetadata ->
                                     vectorMetadata != null
-                                            && vectorMetadata.vectorId().uuid().equals(vectorReferenceId.uuid()));
+                                            && vectorMetadata.vectorId().uuid().equals(vectorReferenceId.uuid())
+                                            && (filter == null
+                                                        || filter.matches(vectorReferenceId.primaryKey(),
+                                                                vectorMetadata.additionalValues())));
                         }, searchConfig.searchConcurrency());
 
         final Set<Tuple> seenPrimaryKeys = Sets.newHashSet();
@@ -222,6 +222,9 @@ abstract class AbstractStorageAdapter<N extends NodeReference> implements Storag
                           final int layer, @Nonnull final AbstractNode<N> node,
                           @Nonnull final NeighborsChangeSet<N> changeSet) {
         writeNodeInternal(transaction, quantizer, layer, node, changeSet);
+        if (layer > 0) {
+            StorageAdapter.writeUpperLayersVersion(transaction, getSubspace(), layer, getOnWriteListener());
+        }
         if (logger.isTraceEnabled()) {
             logger.trace("written node with key={} at layer={}", node.getPrimaryKey(), layer);
         }
@@ -249,6 +252,9 @@ abstract class AbstractStorageAdapter<N extends NodeReference> implements Storag
     @Override
     public void deleteNode(@Nonnull final Transaction transaction, final int layer, @Nonnull final Tuple primaryKey) {
         deleteNodeInternal(transaction, layer, primaryKey);
+        if (layer > 0) {
+            StorageAdapter.writeUpperLayersVersion(transaction, getSubspace(), layer, getOnWriteListener());
+        }
         if (logger.isTraceEnabled()) {
             logger.trace("deleted node with key={} at layer={}", primaryKey, layer);
         }
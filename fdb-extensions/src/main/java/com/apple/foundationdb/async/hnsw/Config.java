@@ -38,6 +38,8 @@ import javax.annotation.Nonnull;
  * @param mMax0 the maximum connectivity for nodes on layer 0 (M_max0 in the paper)
  * @param efConstruction the search queue size during insertion (higher = more accurate but slower)
  * @param efRepair the candidate set size during delete repair
+ * @param filteredSearchVisitFactor the maximum number of nodes a filtered search visits on layer 0, as a multiple of
+ *        its {@code efSearch}
  * @param extendCandidates whether to extend the candidate set with neighbors-of-neighbors during insert
  * @param keepPrunedConnections whether to re-add pruned candidates to pad underconnected nodes
  * @param sampleVectorStatsProbability probability of sampling a vector write for statistics computation
@@ -58,6 +60,7 @@ public record Config(@Nonnull Metric metric,
                      int mMax0,
                      int efConstruction,
                      int efRepair,
+                     int filteredSearchVisitFactor,
                      boolean extendCandidates,
                      boolean keepPrunedConnections,
                      double sampleVectorStatsProbability,
@@ -76,6 +79,7 @@ public record Config(@Nonnull Metric metric,
     public static final int DEFAULT_M_MAX = DEFAULT_M;
     public static final int DEFAULT_EF_CONSTRUCTION = 200;
     public static final int DEFAULT_EF_REPAIR = 64;
+    public static final int DEFAULT_FILTERED_SEARCH_VISIT_FACTOR = 20;
     public static final boolean DEFAULT_EXTEND_CANDIDATES = false;
     public static final boolean DEFAULT_KEEP_PRUNED_CONNECTIONS = false;
     // stats
@@ -101,6 +105,8 @@ public record Config(@Nonnull Metric metric,
                 "efConstruction must be [100, 400]");
         Preconditions.checkArgument(efRepair >= m && efRepair <= 400,
                 "efRepair must be [m, 400]");
+        Preconditions.checkArgument(filteredSearchVisitFactor >= 1 && filteredSearchVisitFactor <= 1000,
+                "filteredSearchVisitFactor must be [1, 1000]");
         Preconditions.checkArgument(!useRaBitQ ||
                 (sampleVectorStatsProbability > 0.0d && sampleVectorStatsProbability <= 1.0d),
                 "sampleVectorStatsProbability out of range");
@@ -123,7 +129,8 @@ public record Config(@Nonnull Metric metric,
     @Nonnull
     public ConfigBuilder toBuilder() {
         return new ConfigBuilder(metric(), useInlining(), m(), mMax(), mMax0(),
-                efConstruction(), efRepair(), extendCandidates(), keepPrunedConnections(),
+                efConstruction(), efRepair(), filteredSearchVisitFactor(), extendCandidates(),
+                keepPrunedConnections(),
                 sampleVectorStatsProbability(), maintainStatsProbability(), statsThreshold(),
                 useRaBitQ(), raBitQNumExBits(), maxNumConcurrentNodeFetches(),
                 maxNumConcurrentNeighborhoodFetches(), maxNumConcurrentDeleteFromLayer());
@@ -135,7 +142,8 @@ public record Config(@Nonnull Metric metric,
         return "Config[metric=" + metric() + ", numDimensions=" + numDimensions() +
                 ", useInlining=" + useInlining() + ", m=" + m() + ", mMax=" + mMax() +
                 ", mMax0=" + mMax0() + ", efConstruction=" + efConstruction() +
-                ", efRepair=" + efRepair() + ", extendCandidates=" + extendCandidates() +
+                ", efRepair=" + efRepair() + ", filteredSearchVisitFactor=" + filteredSearchVisitFactor() +
+                ", extendCandidates=" + extendCandidates() +
                 ", keepPrunedConnections=" + keepPrunedConnections() +
                 ", sampleVectorStatsProbability=" + sampleVectorStatsProbability() +
                 ", maintainStatsProbability=" + maintainStatsProbability() +
@@ -163,6 +171,7 @@ public record Config(@Nonnull Metric metric,
         private int mMax0 = DEFAULT_M_MAX_0;
         private int efConstruction = DEFAULT_EF_CONSTRUCTION;
         private int efRepair = DEFAULT_EF_REPAIR;
+        private int filteredSearchVisitFactor = DEFAULT_FILTERED_SEARCH_VISIT_FACTOR;
         private boolean extendCandidates = DEFAULT_EXTEND_CANDIDATES;
         private boolean keepPrunedConnections = DEFAULT_KEEP_PRUNED_CONNECTIONS;
 
@@ -182,7 +191,8 @@ public record Config(@Nonnull Metric metric,
 
         public ConfigBuilder(@Nonnull final Metric metric, final boolean useInlining, final int m, final int mMax,
                              final int mMax0, final int efConstruction, final int efRepair,
-                             final boolean extendCandidates, final boolean keepPrunedConnections,
+                             final int filteredSearchVisitFactor, final boolean extendCandidates,
+                             final boolean keepPrunedConnections,
                              final double sampleVectorStatsProbability, final double maintainStatsProbability,
                              final int statsThreshold, final boolean useRaBitQ, final int raBitQNumExBits,
                              final int maxNumConcurrentNodeFetches, final int maxNumConcurrentNeighborhoodFetches,
@@ -194,6 +204,7 @@ public record Config(@Nonnull Metric metric,
             this.mMax0 = mMax0;
             this.efConstruction = efConstruction;
             this.efRepair = efRepair;
+            this.filteredSearchVisitFactor = filteredSearchVisitFactor;
             this.extendCandidates = extendCandidates;
             this.keepPrunedConnections = keepPrunedConnections;
             this.sampleVectorStatsProbability = sampleVectorStatsProbability;
@@ -277,6 +288,16 @@ public record Config(@Nonnull Metric metric,
             return this;
         }
 
+        public int getFilteredSearchVisitFactor() {
+            return filteredSearchVisitFactor;
+        }
+
+        @Nonnull
+        public ConfigBuilder setFilteredSearchVisitFactor(final int filteredSearchVisitFactor) {
+            this.filteredSearchVisitFactor = filteredSearchVisitFactor;
+            return this;
+        }
+
         public boolean isExtendCandidates() {
             return extendCandidates;
         }
@@ -376,7 +397,8 @@ public record Config(@Nonnull Metric metric,
 
         public Config build(final int numDimensions) {
             return new Config(getMetric(), numDimensions, isUseInlining(), getM(), getMMax(),
-                    getMMax0(), getEfConstruction(), getEfRepair(), isExtendCandidates(), isKeepPrunedConnections(),
+                    getMMax0(), getEfConstruction(), getEfRepair(), getFilteredSearchVisitFactor(),
+                    isExtendCandidates(), isKeepPrunedConnections(),
                     getSampleVectorStatsProbability(), getMaintainStatsProbability(), getStatsThreshold(),
                     isUseRaBitQ(), getRaBitQNumExBits(), getMaxNumConcurrentNodeFetches(),
                     getMaxNumConcurrentNeighborhoodFetches(), getMaxNumConcurrentDeleteFromLayer());
@@ -26,6 +26,7 @@ import com.apple.foundationdb.Transaction;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.AsyncIterator;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.Tuple;
@@ -100,7 +101,33 @@ public class HNSW {
                 @Nonnull final Config config,
                 @Nonnull final OnWriteListener onWriteListener,
                 @Nonnull final OnReadListener onReadListener) {
-        this.locator = new Locator(subspace, executor, config, onWriteListener, onReadListener);
+        this(subspace, executor, config, onWriteListener, onReadListener, null);
+    }
+
+    /**
+     * Constructs a new HNSW graph instance whose searches serve the nodes on the layers above layer 0 from a cache.
+     * <p>
+     * Every search descends greedily through the upper layers, which are small and rarely change, so with a cache
+     * that is kept across transactions most searches only read the access info and the upper layers version before
+     * reaching layer 0. Insertions and deletions do not use the cache.
+     *
+     * @param subspace the {@link Subspace} where the graph data is stored.
+     * @param executor the {@link Executor} service to use for concurrent operations.
+     * @param config the {@link Config} object containing HNSW algorithm parameters.
+     * @param onWriteListener a listener to be notified of write events on the graph.
+     * @param onReadListener a listener to be notified of read events on the graph.
+     * @param upperLayerNodeCache the cache for the nodes above layer 0, which must only be used for this graph, or
+     *        {@code null} to read them every time
+     *
+     * @throws NullPointerException if any of the non-nullable parameters are {@code null}.
+     */
+    public HNSW(@Nonnull final Subspace subspace,
+                @Nonnull final Executor executor,
+                @Nonnull final Config config,
+                @Nonnull final OnWriteListener onWriteListener,
+                @Nonnull final OnReadListener onReadListener,
+                @Nullable final UpperLayerNodeCache upperLayerNodeCache) {
+        this.locator = new Locator(subspace, executor, config, onWriteListener, onReadListener, upperLayerNodeCache);
     }
 
     @Nonnull
@@ -154,6 +181,15 @@ public class HNSW {
         return getLocator().getOnReadListener();
     }
 
+    /**
+     * Get the cache for the nodes on the layers above layer 0.
+     * @return the cache, or {@code null} if searches read these nodes every time
+     */
+    @Nullable
+    public UpperLayerNodeCache getUpperLayerNodeCache() {
+        return getLocator().getUpperLayerNodeCache();
+    }
+
     @Nonnull
     private Primitives primitives() {
         return getLocator().primitives();
@@ -230,6 +266,35 @@ public class HNSW {
         return search().kNearestNeighborsSearch(readTransaction, k, efSearch, includeVectors, queryVector);
     }
 
+    /**
+     * Performs a search for the k-nearest neighbors for a given query vector among the items that match a filter.
+     * The filter is evaluated on the primary key and the additional values of each node while the graph is traversed
+     * (see {@link SearchFilter}). The number of nodes visited on layer 0 is bounded by
+     * {@link Config#filteredSearchVisitFactor()} times {@code efSearch}.
+     *
+     * @param readTransaction the transaction to use for reading from the database
+     * @param k the number of nearest neighbors to return
+     * @param efSearch the size of the dynamic candidate list for the search. A larger value increases accuracy
+     *        at the cost of performance.
+     * @param includeVectors indicator if the caller would like the search to also include vectors in the result set
+     * @param queryVector the vector to find the nearest neighbors for
+     * @param filter a filter the returned items must match, or {@code null} if all items can be returned
+     *
+     * @return a {@link CompletableFuture} that will complete with a list of the {@code k} nearest neighbors matching
+     *         the filter, sorted by distance in ascending order.
+     */
+    @SuppressWarnings("checkstyle:MethodName") // method name introduced by paper
+    @Nonnull
+    public CompletableFuture<List<? extends ResultEntry>>
+            kNearestNeighborsSearch(@Nonnull final ReadTransaction readTransaction,
+                                    final int k,
+                                    final int efSearch,
+                                    final boolean includeVectors,
+                                    @Nonnull final RealVector queryVector,
+                                    @Nullable final SearchFilter filter) {
+        return search().kNearestNeighborsSearch(readTransaction, k, efSearch, includeVectors, queryVector, filter);
+    }
+
     /**
      * Performs a search for the k-nearest neighbors of a ring around a given query vector at a given radius.
      *
@@ -281,6 +346,27 @@ public class HNSW {
         return insert().insert(transaction, newPrimaryKey, newVector, additionalValues);
     }
 
+    /**
+     * Inserts a batch of new vectors with their associated primary keys into the HNSW graph.
+     * <p>
+     * The graph is walked one layer at a time for all entries together, the searches of the entries run in parallel,
+     * and each node that gains new neighbors is pruned and written once per layer rather than once per entry. The
+     * resulting graph is not identical to the one built by calling {@link #insert(Transaction, Tuple, RealVector, Tuple)}
+     * for each entry, as the new nodes of a batch are linked to each other based on their distances rather than by
+     * searching the graph, but it is of comparable quality. This makes bulk loading considerably faster, at the cost of
+     * larger transactions. The batch should be sized so that the transaction stays within the limits of the database.
+     *
+     * @param transaction the {@link Transaction} context for all database operations
+     * @param entries the entries to be inserted; entries whose primary key already exists are ignored
+     *
+     * @return a {@link CompletableFuture} that completes when all entries have been inserted
+     */
+    @Nonnull
+    public CompletableFuture<Void> insertBatch(@Nonnull final Transaction transaction,
+                                               @Nonnull final List<InsertEntry> entries) {
+        return insert().insertBatch(transaction, entries);
+    }
+
     /**
      * Deletes a record using its associated primary key from the HNSW graph.
      * <p>
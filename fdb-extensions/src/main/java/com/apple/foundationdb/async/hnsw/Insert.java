@@ -37,7 +37,10 @@ import com.apple.foundationdb.rabitq.RaBitQuantizer;
 import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.Tuple;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,10 +49,12 @@ import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.SplittableRandom;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
 
 import static com.apple.foundationdb.async.MoreAsyncUtil.forEach;
 import static com.apple.foundationdb.async.MoreAsyncUtil.forLoop;
@@ -259,6 +264,388 @@ public class Insert {
                 }).thenCompose(ignored -> AsyncUtil.DONE);
     }
 
+    /**
+     * Inserts a batch of new vectors with their associated primary keys into the HNSW graph.
+     * <p>
+     * This is equivalent to calling {@link #insert(Transaction, Tuple, RealVector, Tuple)} for each entry, but it does
+     * not walk the graph independently for each of them. Instead, it proceeds one layer at a time from the top of the
+     * graph down to layer 0. On each layer, the candidate neighbors of all new nodes that reach the layer are searched
+     * in parallel in the graph as it was before the batch, sharing one node cache, and the other new nodes on the layer
+     * are added to these candidates. Once all neighbors have been selected, the new neighbors of each existing node are
+     * merged into a single change set, so that each node is pruned and written at most once per layer instead of once
+     * for every new node that links to it.
+     * <p>
+     * Entries whose primary key already exists, or repeats an earlier entry of the batch, are ignored. A few inserts
+     * cannot be batched and are performed one by one: the first insert into an empty graph, inserts of nodes that
+     * reach above the current entry node as they change the entry node, and all inserts while the statistics needed
+     * for RaBitQ are still being gathered.
+     *
+     * @param transaction the {@link Transaction} context for all database operations
+     * @param entries the entries to be inserted
+     *
+     * @return a {@link CompletableFuture} that completes when all entries have been inserted
+     */
+    @Nonnull
+    public CompletableFuture<Void> insertBatch(@Nonnull final Transaction transaction,
+                                               @Nonnull final List<InsertEntry> entries) {
+        final Map<Tuple, InsertEntry> distinctEntriesMap = Maps.newLinkedHashMap();
+        for (final InsertEntry entry : entries) {
+            distinctEntriesMap.putIfAbsent(entry.primaryKey(), entry);
+        }
+        if (distinctEntriesMap.isEmpty()) {
+            return AsyncUtil.DONE;
+        }
+        final List<InsertEntry> distinctEntries = ImmutableList.copyOf(distinctEntriesMap.values());
+        final Primitives primitives = primitives();
+
+        return StorageAdapter.fetchAccessInfo(getConfig(), transaction, getSubspace(), getOnReadListener())
+                .thenCombine(forEach(distinctEntries, entry -> primitives.exists(transaction, entry.primaryKey()),
+                                getConfig().maxNumConcurrentNodeFetches(), getExecutor()),
+                        (accessInfo, nodesExist) -> {
+                            final ImmutableList.Builder<InsertEntry> newEntriesBuilder = ImmutableList.builder();
+                            for (int i = 0; i < distinctEntries.size(); i++) {
+                                if (nodesExist.get(i)) {
+                                    if (logger.isDebugEnabled()) {
+                                        logger.debug("new record already exists in HNSW with key={}",
+                                                distinctEntries.get(i).primaryKey());
+                                    }
+                                } else {
+                                    newEntriesBuilder.add(distinctEntries.get(i));
+                                }
+                            }
+                            return new AccessInfoAndNewEntries(accessInfo, newEntriesBuilder.build());
+                        })
+                .thenCompose(accessInfoAndNewEntries -> {
+                    final AccessInfo accessInfo = accessInfoAndNewEntries.getAccessInfo();
+                    final List<InsertEntry> newEntries = accessInfoAndNewEntries.getNewEntries();
+                    if (newEntries.isEmpty()) {
+                        return AsyncUtil.DONE;
+                    }
+
+                    if (accessInfo == null) {
+                        // the first node determines the entry node, all others can then be batched
+                        final InsertEntry firstEntry = newEntries.get(0);
+                        return insert(transaction, firstEntry.primaryKey(), firstEntry.vector(),
+                                firstEntry.additionalValues())
+                                .thenCompose(ignored ->
+                                        insertBatch(transaction, newEntries.subList(1, newEntries.size())));
+                    }
+
+                    if (getConfig().useRaBitQ() && !accessInfo.canUseRaBitQ()) {
+                        // every insert may sample its vector and change the access info
+                        return insertOneByOne(transaction, newEntries);
+                    }
+
+                    final int lMax = accessInfo.getEntryNodeReference().getLayer();
+                    final ImmutableList.Builder<InsertEntry> higherEntriesBuilder = ImmutableList.builder();
+                    final ImmutableList.Builder<InsertEntry> batchableEntriesBuilder = ImmutableList.builder();
+                    for (final InsertEntry entry : newEntries) {
+                        if (primitives.topLayer(entry.primaryKey()) > lMax) {
+                            higherEntriesBuilder.add(entry);
+                        } else {
+                            batchableEntriesBuilder.add(entry);
+                        }
+                    }
+                    final List<InsertEntry> higherEntries = higherEntriesBuilder.build();
+                    if (!higherEntries.isEmpty()) {
+                        // these change the entry node, so the access info needs to be read again afterward
+                        return insertOneByOne(transaction, higherEntries)
+                                .thenCompose(ignored -> insertBatch(transaction, batchableEntriesBuilder.build()));
+                    }
+
+                    return insertBatchIntoLayers(transaction, accessInfo, newEntries);
+                });
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> insertOneByOne(@Nonnull final Transaction transaction,
+                                                   @Nonnull final List<InsertEntry> entries) {
+        return forEach(entries,
+                entry -> insert(transaction, entry.primaryKey(), entry.vector(), entry.additionalValues()),
+                1, getExecutor())
+                .thenCompose(ignored -> AsyncUtil.DONE);
+    }
+
+    /**
+     * Inserts a batch of new nodes, none of which reaches above the entry node, into all layers of the graph.
+     *
+     * @param transaction the transaction to use for database operations
+     * @param accessInfo the access info of the graph
+     * @param entries the entries to insert, which must not exist in the graph yet
+     *
+     * @return a {@link CompletableFuture} that completes when all new nodes have been inserted into all their layers
+     */
+    @Nonnull
+    private CompletableFuture<Void> insertBatchIntoLayers(@Nonnull final Transaction transaction,
+                                                          @Nonnull final AccessInfo accessInfo,
+                                                          @Nonnull final List<InsertEntry> entries) {
+        final Primitives primitives = primitives();
+        final StorageTransform storageTransform = primitives.storageTransform(accessInfo);
+        final Quantizer quantizer = primitives.quantizer(accessInfo);
+        final DistanceEstimator distanceEstimator = quantizer.estimator();
+        final EntryNodeReference entryNodeReference = accessInfo.getEntryNodeReference();
+        final int lMax = entryNodeReference.getLayer();
+
+        final ImmutableList.Builder<BatchedInsert> batchedInsertsBuilder = ImmutableList.builder();
+        for (final InsertEntry entry : entries) {
+            final Transformed<RealVector> transformedVector = storageTransform.transform(entry.vector());
+            final ToDoubleFunction<Transformed<RealVector>> objectiveFunction =
+                    Search.distanceToTargetVector(distanceEstimator, transformedVector);
+            final NodeReferenceWithDistance initialNodeReference =
+                    new NodeReferenceWithDistance(entryNodeReference.getPrimaryKey(),
+                            entryNodeReference.getVector(),
+                            objectiveFunction.applyAsDouble(entryNodeReference.getVector()));
+            batchedInsertsBuilder.add(new BatchedInsert(entry, primitives.topLayer(entry.primaryKey()),
+                    transformedVector, objectiveFunction, initialNodeReference));
+        }
+        final List<BatchedInsert> batchedInserts = batchedInsertsBuilder.build();
+
+        return MoreAsyncUtil.<Void>forLoop(lMax, null,
+                layer -> layer >= 0,
+                layer -> layer - 1,
+                (layer, ignored) ->
+                        insertBatchIntoLayer(primitives.storageAdapterForLayer(layer), transaction, storageTransform,
+                                quantizer, batchedInserts, layer),
+                getExecutor());
+    }
+
+    /**
+     * Performs one layer of a batch insert.
+     * <p>
+     * New nodes that do not reach this layer only descend greedily towards their vector, as in
+     * {@link #insert(Transaction, Tuple, RealVector, Tuple)}. For all other new nodes, this method first searches the
+     * candidate neighbors in the graph as it was before the batch, then adds the other new nodes of the layer to the
+     * candidates and selects the neighbors from them. All new links to a node, whether new or existing, are then
+     * merged into one change set, which is pruned if the node has too many neighbors, and finally written. No node is
+     * written before all reads of the layer have completed.
+     *
+     * @param <N> the type of the node reference, extending {@link NodeReference}
+     * @param storageAdapter the storage adapter of the layer
+     * @param transaction the transaction to use for database operations
+     * @param storageTransform an affine transformation operator that is used to transform the fetched vector into the
+     *        storage space that is currently being used
+     * @param quantizer the quantizer for this insert
+     * @param batchedInserts the state of all inserts of the batch, which is advanced to the next lower layer
+     * @param layer the layer
+     *
+     * @return a {@link CompletableFuture} that completes when the layer has been written
+     */
+    @Nonnull
+    private <N extends NodeReference> CompletableFuture<Void>
+            insertBatchIntoLayer(@Nonnull final StorageAdapter<N> storageAdapter,
+                                 @Nonnull final Transaction transaction,
+                                 @Nonnull final StorageTransform storageTransform,
+                                 @Nonnull final Quantizer quantizer,
+                                 @Nonnull final List<BatchedInsert> batchedInserts,
+                                 final int layer) {
+        final Primitives primitives = primitives();
+        final Search search = searcher();
+        final DistanceEstimator distanceEstimator = quantizer.estimator();
+        final Map<Tuple, AbstractNode<N>> nodeCache = Maps.newConcurrentMap();
+
+        return forEach(batchedInserts,
+                batchedInsert -> {
+                    if (batchedInsert.getInsertionLayer() < layer) {
+                        return search.greedySearchLayer(storageAdapter, transaction, storageTransform,
+                                        Iterables.getOnlyElement(batchedInsert.getEntryPoints()), layer,
+                                        batchedInsert.getObjectiveFunction())
+                                .thenApply(nodeReference -> {
+                                    batchedInsert.setEntryPoints(ImmutableList.of(nodeReference));
+                                    return ImmutableList.<NodeReferenceWithDistance>of();
+                                });
+                    }
+                    return search.beamSearchLayer(storageAdapter, transaction, storageTransform,
+                                    batchedInsert.getEntryPoints(), layer, getConfig().efConstruction(),
+                                    batchedInsert.getObjectiveFunction(), nodeCache)
+                            .thenCompose(searchResult -> {
+                                batchedInsert.setEntryPoints(NodeReferenceAndNode.references(searchResult));
+                                return primitives.extendCandidatesIfNecessary(storageAdapter, transaction,
+                                        storageTransform, distanceEstimator, searchResult, layer,
+                                        getConfig().extendCandidates(), nodeCache, batchedInsert.getVector());
+                            });
+                }, batchedInserts.size(), getExecutor())
+                .thenCompose(candidatesList -> {
+                    final ImmutableList.Builder<BatchedInsert> layerInsertsBuilder = ImmutableList.builder();
+                    final ImmutableList.Builder<List<NodeReferenceWithDistance>> layerCandidatesBuilder =
+                            ImmutableList.builder();
+                    for (int i = 0; i < batchedInserts.size(); i++) {
+                        if (batchedInserts.get(i).getInsertionLayer() >= layer) {
+                            layerInsertsBuilder.add(batchedInserts.get(i));
+                            layerCandidatesBuilder.add(candidatesList.get(i));
+                        }
+                    }
+                    final List<BatchedInsert> layerInserts = layerInsertsBuilder.build();
+                    final List<List<NodeReferenceWithDistance>> layerCandidates = layerCandidatesBuilder.build();
+                    if (layerInserts.isEmpty()) {
+                        return AsyncUtil.DONE;
+                    }
+
+                    //
+                    // The new nodes of this layer have not been written yet. Seed the node cache with them (without
+                    // neighbors) so that they can be selected as neighbors and their vectors can be used for pruning.
+                    // The search on this layer is over, so the cache is not used to traverse the graph anymore.
+                    //
+                    final NodeFactory<N> nodeFactory = storageAdapter.getNodeFactory();
+                    for (final BatchedInsert layerInsert : layerInserts) {
+                        nodeCache.put(layerInsert.getPrimaryKey(),
+                                nodeFactory.create(layerInsert.getPrimaryKey(), layerInsert.getVector(),
+                                        layer == 0 ? layerInsert.getAdditionalValues() : null, ImmutableList.of()));
+                    }
+
+                    return forEach(IntStream.range(0, layerInserts.size()).boxed().collect(ImmutableList.toImmutableList()),
+                            index -> CompletableFuture.supplyAsync(() ->
+                                                    withBatchCandidates(layerInserts, index, layerCandidates.get(index)),
+                                            getExecutor())
+                                    .thenCompose(candidates ->
+                                            primitives.selectCandidates(storageAdapter, transaction, storageTransform,
+                                                    distanceEstimator, candidates, layer, getConfig().m(), nodeCache)),
+                            layerInserts.size(), getExecutor())
+                            .thenCompose(selectedNeighborsList ->
+                                    linkBatchIntoLayer(storageAdapter, transaction, storageTransform, quantizer,
+                                            layerInserts, selectedNeighborsList, layer, nodeCache));
+                });
+    }
+
+    /**
+     * Adds the other new nodes of a layer to the candidate neighbors of a new node that were found in the graph.
+     *
+     * @param layerInserts the inserts of all new nodes on the layer
+     * @param index the index of the new node in {@code layerInserts}
+     * @param candidates the candidates found in the graph
+     *
+     * @return the candidates together with the nearest {@code efConstruction} other new nodes
+     */
+    @Nonnull
+    private List<NodeReferenceWithDistance> withBatchCandidates(@Nonnull final List<BatchedInsert> layerInserts,
+                                                                final int index,
+                                                                @Nonnull final List<NodeReferenceWithDistance> candidates) {
+        final BatchedInsert batchedInsert = layerInserts.get(index);
+        final List<NodeReferenceWithDistance> batchCandidates =
+                Lists.newArrayListWithExpectedSize(layerInserts.size() - 1);
+        for (int i = 0; i < layerInserts.size(); i++) {
+            if (i != index) {
+                final BatchedInsert otherInsert = layerInserts.get(i);
+                batchCandidates.add(new NodeReferenceWithDistance(otherInsert.getPrimaryKey(), otherInsert.getVector(),
+                        batchedInsert.getObjectiveFunction().applyAsDouble(otherInsert.getVector())));
+            }
+        }
+        batchCandidates.sort(NodeReferenceWithDistance.comparator());
+        return ImmutableList.<NodeReferenceWithDistance>builder()
+                .addAll(candidates)
+                .addAll(batchCandidates.subList(0, Math.min(batchCandidates.size(), getConfig().efConstruction())))
+                .build();
+    }
+
+    /**
+     * Writes the new nodes of a layer with their selected neighbors and links the selected neighbors back to them.
+     *
+     * @param <N> the type of the node reference, extending {@link NodeReference}
+     * @param storageAdapter the storage adapter of the layer
+     * @param transaction the transaction to use for database operations
+     * @param storageTransform an affine transformation operator that is used to transform the fetched vector into the
+     *        storage space that is currently being used
+     * @param quantizer the quantizer for this insert
+     * @param layerInserts the inserts of all new nodes on the layer
+     * @param selectedNeighborsList the selected neighbors of each new node in {@code layerInserts}
+     * @param layer the layer
+     * @param nodeCache the node cache of the layer, which also contains the new nodes
+     *
+     * @return a {@link CompletableFuture} that completes when all nodes of the layer have been written
+     */
+    @Nonnull
+    private <N extends NodeReference> CompletableFuture<Void>
+            linkBatchIntoLayer(@Nonnull final StorageAdapter<N> storageAdapter,
+                               @Nonnull final Transaction transaction,
+                               @Nonnull final StorageTransform storageTransform,
+                               @Nonnull final Quantizer quantizer,
+                               @Nonnull final List<BatchedInsert> layerInserts,
+                               @Nonnull final List<List<NodeReferenceAndNode<NodeReferenceWithDistance, N>>> selectedNeighborsList,
+                               final int layer,
+                               @Nonnull final Map<Tuple, AbstractNode<N>> nodeCache) {
+        final Primitives primitives = primitives();
+        final NodeFactory<N> nodeFactory = storageAdapter.getNodeFactory();
+
+        // the nodes to write, their references for pruning, and the new neighbors of each of them
+        final Map<Tuple, AbstractNode<N>> nodesMap = Maps.newLinkedHashMap();
+        final Map<Tuple, NodeReferenceWithVector> nodeReferencesMap = Maps.newHashMap();
+        final Map<Tuple, Map<Tuple, N>> insertedNeighborsMap = Maps.newHashMap();
+
+        final List<AbstractNode<N>> newNodes = Lists.newArrayListWithExpectedSize(layerInserts.size());
+        final Set<Tuple> newPrimaryKeys = Sets.newHashSetWithExpectedSize(layerInserts.size());
+        for (int i = 0; i < layerInserts.size(); i++) {
+            final BatchedInsert layerInsert = layerInserts.get(i);
+            final AbstractNode<N> newNode =
+                    nodeFactory.create(layerInsert.getPrimaryKey(), layerInsert.getVector(),
+                            layer == 0 ? layerInsert.getAdditionalValues() : null,
+                            NodeReferenceAndNode.references(selectedNeighborsList.get(i)));
+            newNodes.add(newNode);
+            newPrimaryKeys.add(newNode.getPrimaryKey());
+            nodesMap.put(newNode.getPrimaryKey(), newNode);
+            nodeReferencesMap.put(newNode.getPrimaryKey(),
+                    new NodeReferenceWithVector(newNode.getPrimaryKey(), layerInsert.getVector()));
+            final Map<Tuple, N> insertedNeighbors =
+                    insertedNeighborsMap.computeIfAbsent(newNode.getPrimaryKey(), key -> Maps.newLinkedHashMap());
+            for (final N neighbor : newNode.getNeighbors()) {
+                insertedNeighbors.put(neighbor.getPrimaryKey(), neighbor);
+            }
+        }
+
+        for (int i = 0; i < layerInserts.size(); i++) {
+            final AbstractNode<N> newNode = newNodes.get(i);
+            final N selfReference = newNode.getSelfReference(layerInserts.get(i).getVector());
+            for (final NodeReferenceAndNode<NodeReferenceWithDistance, N> selectedNeighbor : selectedNeighborsList.get(i)) {
+                final Tuple neighborPrimaryKey = selectedNeighbor.getNode().getPrimaryKey();
+                // new nodes are already in the map, with their neighbors
+                nodesMap.putIfAbsent(neighborPrimaryKey, selectedNeighbor.getNode());
+                nodeReferencesMap.putIfAbsent(neighborPrimaryKey, selectedNeighbor.getNodeReference());
+                insertedNeighborsMap.computeIfAbsent(neighborPrimaryKey, key -> Maps.newLinkedHashMap())
+                        .put(newNode.getPrimaryKey(), selfReference);
+            }
+        }
+
+        final Map<Tuple, NeighborsChangeSet<N>> changeSetMap = Maps.newLinkedHashMap();
+        for (final Map.Entry<Tuple, AbstractNode<N>> nodeEntry : nodesMap.entrySet()) {
+            final Tuple primaryKey = nodeEntry.getKey();
+            final NeighborsChangeSet<N> baseSet =
+                    new BaseNeighborsChangeSet<>(newPrimaryKeys.contains(primaryKey)
+                                                 ? ImmutableList.of() : nodeEntry.getValue().getNeighbors());
+            changeSetMap.put(primaryKey, new InsertNeighborsChangeSet<>(baseSet,
+                    ImmutableList.copyOf(Objects.requireNonNull(insertedNeighborsMap.get(primaryKey)).values())));
+        }
+
+        final DistanceEstimator distanceEstimator = quantizer.estimator();
+        final int currentMMax = layer == 0 ? getConfig().mMax0() : getConfig().mMax();
+        final List<Tuple> primaryKeys = ImmutableList.copyOf(nodesMap.keySet());
+
+        return forEach(primaryKeys,
+                primaryKey -> {
+                    final NeighborsChangeSet<N> changeSet = Objects.requireNonNull(changeSetMap.get(primaryKey));
+                    return primitives.pruneNeighborsIfNecessary(storageAdapter, transaction, storageTransform,
+                                    distanceEstimator, layer, Objects.requireNonNull(nodeReferencesMap.get(primaryKey)),
+                                    currentMMax, changeSet, nodeCache)
+                            .thenApply(nodeReferencesAndNodes -> {
+                                if (nodeReferencesAndNodes == null) {
+                                    return changeSet;
+                                }
+                                return primitives.resolveChangeSetFromNewNeighbors(changeSet, nodeReferencesAndNodes);
+                            });
+                }, getConfig().maxNumConcurrentNeighborhoodFetches(), getExecutor())
+                .thenApply(changeSets -> {
+                    for (int i = 0; i < primaryKeys.size(); i++) {
+                        final NeighborsChangeSet<N> changeSet = changeSets.get(i);
+                        if (changeSet.hasChanges()) {
+                            storageAdapter.writeNode(transaction, quantizer, layer,
+                                    Objects.requireNonNull(nodesMap.get(primaryKeys.get(i))), changeSet);
+                        }
+                    }
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("inserted batch of numNodes={} at layer={}, written numNodes={}",
+                                layerInserts.size(), layer, primaryKeys.size());
+                    }
+                    return null;
+                });
+    }
+
     private void firstInsert(@Nonnull final Transaction transaction,
                              @Nonnull final Tuple newPrimaryKey,
                              @Nonnull final RealVector newVector,
@@ -595,4 +982,90 @@ public class Insert {
     private boolean shouldMaintainStats(@Nonnull final SplittableRandom random) {
         return random.nextDouble() < getConfig().maintainStatsProbability();
     }
+
+    /**
+     * The state of the insert of one new node of a batch, see {@link #insertBatch(Transaction, List)}.
+     */
+    private static final class BatchedInsert {
+        @Nonnull
+        private final InsertEntry entry;
+        private final int insertionLayer;
+        @Nonnull
+        private final Transformed<RealVector> vector;
+        @Nonnull
+        private final ToDoubleFunction<Transformed<RealVector>> objectiveFunction;
+        @Nonnull
+        private List<NodeReferenceWithDistance> entryPoints;
+
+        private BatchedInsert(@Nonnull final InsertEntry entry,
+                              final int insertionLayer,
+                              @Nonnull final Transformed<RealVector> vector,
+                              @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                              @Nonnull final NodeReferenceWithDistance entryPoint) {
+            this.entry = entry;
+            this.insertionLayer = insertionLayer;
+            this.vector = vector;
+            this.objectiveFunction = objectiveFunction;
+            this.entryPoints = ImmutableList.of(entryPoint);
+        }
+
+        @Nonnull
+        Tuple getPrimaryKey() {
+            return entry.primaryKey();
+        }
+
+        @Nullable
+        Tuple getAdditionalValues() {
+            return entry.additionalValues();
+        }
+
+        int getInsertionLayer() {
+            return insertionLayer;
+        }
+
+        @Nonnull
+        Transformed<RealVector> getVector() {
+            return vector;
+        }
+
+        @Nonnull
+        ToDoubleFunction<Transformed<RealVector>> getObjectiveFunction() {
+            return objectiveFunction;
+        }
+
+        /**
+         * Gets the nearest nodes found on the last layer searched, which are the entry points for the next layer.
+         * @return the entry points
+         */
+        @Nonnull
+        List<NodeReferenceWithDistance> getEntryPoints() {
+            return entryPoints;
+        }
+
+        void setEntryPoints(@Nonnull final List<NodeReferenceWithDistance> entryPoints) {
+            this.entryPoints = entryPoints;
+        }
+    }
+
+    private static final class AccessInfoAndNewEntries {
+        @Nullable
+        private final AccessInfo accessInfo;
+        @Nonnull
+        private final List<InsertEntry> newEntries;
+
+        private AccessInfoAndNewEntries(@Nullable final AccessInfo accessInfo, @Nonnull final List<InsertEntry> newEntries) {
+            this.accessInfo = accessInfo;
+            this.newEntries = newEntries;
+        }
+
+        @Nullable
+        AccessInfo getAccessInfo() {
+            return accessInfo;
+        }
+
+        @Nonnull
+        List<InsertEntry> getNewEntries() {
+            return newEntries;
+        }
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * InsertEntry.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.async.hnsw;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.linear.RealVector;
+import com.apple.foundationdb.tuple.Tuple;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Record class that wraps one item of a batch of inserts into an HNSW, see {@link HNSW#insertBatch}.
+ *
+ * @param primaryKey the unique primary key of the new node
+ * @param vector the vector of the new node, in the client's coordinate system
+ * @param additionalValues additional values that are stored together with the primary key and the vector for faster
+ *        retrieval
+ */
+@API(API.Status.EXPERIMENTAL)
+public record InsertEntry(@Nonnull Tuple primaryKey, @Nonnull RealVector vector, @Nullable Tuple additionalValues) {
+}
@@ -25,6 +25,7 @@ import com.apple.foundationdb.subspace.Subspace;
 import com.google.common.base.Suppliers;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
@@ -44,6 +45,8 @@ public class Locator {
     private final OnWriteListener onWriteListener;
     @Nonnull
     private final OnReadListener onReadListener;
+    @Nullable
+    private final UpperLayerNodeCache upperLayerNodeCache;
 
     @Nonnull
     @SuppressWarnings("this-escape")
@@ -77,12 +80,32 @@ public class Locator {
                    @Nonnull final Config config,
                    @Nonnull final OnWriteListener onWriteListener,
                    @Nonnull final OnReadListener onReadListener) {
+        this(subspace, executor, config, onWriteListener, onReadListener, null);
+    }
+
+    /**
+     * Constructs a new HNSW graph instance that serves the nodes on the layers above layer 0 from a cache shared
+     * across transactions.
+     *
+     * @param subspace the {@link Subspace} where the graph data is stored.
+     * @param executor the {@link Executor} service to use for concurrent operations.
+     * @param config the {@link Config} object containing HNSW algorithm parameters.
+     * @param onWriteListener a listener to be notified of write events on the graph.
+     * @param onReadListener a listener to be notified of read events on the graph.
+     * @param upperLayerNodeCache the cache for the nodes above layer 0, or {@code null} to read them every time
+     */
+    public Locator(@Nonnull final Subspace subspace,
+                   @Nonnull final Executor executor,
+                   @Nonnull final Config config,
+                   @Nonnull final OnWriteListener onWriteListener,
+                   @Nonnull final OnReadListener onReadListener,
+                   @Nullable final UpperLayerNodeCache upperLayerNodeCache) {
         this.subspace = subspace;
         this.executor = executor;
         this.config = config;
         this.onWriteListener = onWriteListener;
         this.onReadListener = onReadListener;
-
+        this.upperLayerNodeCache = upperLayerNodeCache;
     }
 
     /**
@@ -131,6 +154,15 @@ public class Locator {
         return onReadListener;
     }
 
+    /**
+     * Get the cache for the nodes on the layers above layer 0.
+     * @return the cache, or {@code null} if searches read these nodes every time
+     */
+    @Nullable
+    public UpperLayerNodeCache getUpperLayerNodeCache() {
+        return upperLayerNodeCache;
+    }
+
     @Nonnull
     Primitives primitives() {
         return primitivesSupplier.get();
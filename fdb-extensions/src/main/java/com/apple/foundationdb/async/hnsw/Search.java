@@ -20,21 +20,28 @@
 
 package com.apple.foundationdb.async.hnsw;
 
+import com.apple.foundationdb.FDBError;
+import com.apple.foundationdb.FDBException;
 import com.apple.foundationdb.ReadTransaction;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.AsyncIterator;
 import com.apple.foundationdb.async.AsyncUtil;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.async.common.StorageTransform;
 import com.apple.foundationdb.linear.DistanceEstimator;
 import com.apple.foundationdb.linear.Quantizer;
 import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.linear.Transformed;
+import com.apple.foundationdb.rabitq.EncodedRealVector;
+import com.apple.foundationdb.rabitq.RaBitDistanceEstimator;
 import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.common.base.Suppliers;
 import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.slf4j.Logger;
@@ -50,10 +57,12 @@ import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
 import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
@@ -151,9 +160,43 @@ public class Search {
                                     final int efSearch,
                                     final boolean includeVectors,
                                     @Nonnull final RealVector queryVector) {
+        return kNearestNeighborsSearch(readTransaction, k, efSearch, includeVectors, queryVector, null);
+    }
+
+    /**
+     * Performs a search for the k-nearest neighbors for a given query vector among the nodes that match a filter.
+     * <p>
+     * The filter is evaluated while layer 0 is traversed, using the additional values stored with each node, which
+     * are read together with the node's vector anyway. Nodes that do not match the filter are still traversed to
+     * reach the nodes beyond them, but they do not take up any of the {@code efSearch} slots for results. Therefore,
+     * the search returns {@code k} matching nodes (if there are that many) without having to raise {@code efSearch}
+     * to make up for the nodes the filter rejects. The number of nodes visited on layer 0 is bounded by
+     * {@link Config#filteredSearchVisitFactor()} times {@code efSearch}, so a filter that rejects (almost) all nodes
+     * may result in fewer than {@code k} nodes being returned.
+     *
+     * @param readTransaction the transaction to use for reading from the database
+     * @param k the number of nearest neighbors to return
+     * @param efSearch the size of the dynamic candidate list for the search. A larger value increases accuracy
+     *        at the cost of performance.
+     * @param includeVectors indicator if the caller would like the search to also include vectors in the result set
+     * @param queryVector the vector to find the nearest neighbors for
+     * @param filter a filter the returned nodes must match, or {@code null} if all nodes can be returned
+     *
+     * @return a {@link CompletableFuture} that will complete with a list of the {@code k} nearest neighbors matching
+     *         the filter, sorted by distance in ascending order.
+     */
+    @SuppressWarnings("checkstyle:MethodName") // method name introduced by paper
+    @Nonnull
+    public CompletableFuture<List<? extends ResultEntry>>
+            kNearestNeighborsSearch(@Nonnull final ReadTransaction readTransaction,
+                                    final int k,
+                                    final int efSearch,
+                                    final boolean includeVectors,
+                                    @Nonnull final RealVector queryVector,
+                                    @Nullable final SearchFilter filter) {
         return search(readTransaction, queryVector,
                 layer -> layer > 0 ? 1 : efSearch,
-                Search::distanceToTargetVector)
+                Search::distanceToTargetVector, filter)
                 .thenApply(searchResult ->
                         postProcessSearchResult(searchResult.getStorageTransform(), k,
                                 searchResult.getNearestReferenceAndNodes(),
@@ -221,6 +264,31 @@ public class Search {
                                            @Nonnull final RealVector queryVector,
                                            @Nonnull final IntUnaryOperator efSearchFunction,
                                            @Nonnull final ObjectiveFunctionCreator objectiveFunctionCreator) {
+        return search(readTransaction, queryVector, efSearchFunction, objectiveFunctionCreator, null);
+    }
+
+    /**
+     * Performs a k-nearest neighbors (k-NN) search for a given query vector, only returning nodes of layer 0 that
+     * match a filter. The layers above layer 0 are searched as usual, as they only serve to find a good entry point
+     * for layer 0.
+     *
+     * @param readTransaction the transaction to use for reading from the database
+     * @param queryVector the vector to find the nearest neighbors for
+     * @param efSearchFunction a function that returns the exploration factor for a layer that is passed in
+     * @param objectiveFunctionCreator a functional that creates the objective function for this search
+     * @param filter a filter the nodes in the result must match, or {@code null} if all nodes can be returned
+     *
+     * @return a {@link CompletableFuture} that will complete with a list of the nearest neighbors matching the
+     *         filter, sorted by distance in ascending order.
+     */
+    @SuppressWarnings("checkstyle:MethodName") // method name introduced by paper
+    @Nonnull
+    CompletableFuture<SearchResult> search(@Nonnull final ReadTransaction readTransaction,
+                                           @Nonnull final RealVector queryVector,
+                                           @Nonnull final IntUnaryOperator efSearchFunction,
+                                           @Nonnull final ObjectiveFunctionCreator objectiveFunctionCreator,
+                                           @Nullable final SearchFilter filter) {
+        final CompletableFuture<UpperLayerNodeCache.Scope> cacheScopeFuture = fetchUpperLayerCacheScope(readTransaction);
         return StorageAdapter.fetchAccessInfo(getConfig(), readTransaction, getSubspace(), getOnReadListener())
                 .thenCompose(accessInfo -> {
                     if (accessInfo == null) {
@@ -244,22 +312,27 @@ public class Search {
                                     objectiveFunction.applyAsDouble(entryNodeReference.getVector())));
 
                     final int topLayer = entryNodeReference.getLayer();
-                    return forLoop(topLayer, entryState,
+                    return cacheScopeFuture.thenCompose(cacheScope -> forLoop(topLayer, entryState,
                             layer -> layer > 0,
                             layer -> layer - 1,
                             (layer, previousNodeReferences) -> {
                                 final int efSearchForLayer = efSearchFunction.applyAsInt(layer);
                                 final StorageAdapter<?> storageAdapter = primitives.storageAdapterForLayer(layer);
                                 return searchLayer(storageAdapter, readTransaction, storageTransform,
-                                        previousNodeReferences, layer, efSearchForLayer, objectiveFunction);
-                            }, getExecutor())
+                                        previousNodeReferences, layer, efSearchForLayer, objectiveFunction,
+                                        cacheScope);
+                            }, getExecutor()))
                             .thenCompose(previousNodeReferences -> {
                                 final int efSearchForLayer = efSearchFunction.applyAsInt(0);
                                 final CompactStorageAdapter storageAdapter =
                                         primitives.storageAdapterForLayer(0).asCompactStorageAdapter();
                                 final ConcurrentMap<Tuple, AbstractNode<NodeReference>> nodeCache = Maps.newConcurrentMap();
-                                return beamSearchLayer(storageAdapter, readTransaction, storageTransform,
-                                        previousNodeReferences, 0, efSearchForLayer, objectiveFunction, nodeCache)
+                                return (filter == null
+                                        ? beamSearchLayer(storageAdapter, readTransaction, storageTransform,
+                                                previousNodeReferences, 0, efSearchForLayer, objectiveFunction, nodeCache)
+                                        : filteredBeamSearchLayer(storageAdapter, readTransaction, storageTransform,
+                                                previousNodeReferences, efSearchForLayer, objectiveFunction, filter,
+                                                nodeCache))
                                         .thenApply(nearestNodeReferenceAndNodes ->
                                                 new SearchResult(accessInfo, storageTransform,
                                                         nearestNodeReferenceAndNodes, nodeCache));
@@ -267,6 +340,39 @@ public class Search {
                 });
     }
 
+    /**
+     * Gets the scope of the {@link UpperLayerNodeCache} that a search can use, if this HNSW has one.
+     * <p>
+     * A transaction that has itself changed the upper layers cannot read the upper layers version, as it is written
+     * with a versionstamp. Such a transaction also cannot use the cache, as it needs to see its own changes, so it
+     * gets no scope.
+     *
+     * @param readTransaction the transaction the search uses
+     * @return a future that completes with the scope, or with {@code null} if the search cannot use a cache
+     */
+    @Nonnull
+    private CompletableFuture<UpperLayerNodeCache.Scope> fetchUpperLayerCacheScope(@Nonnull final ReadTransaction readTransaction) {
+        final UpperLayerNodeCache upperLayerNodeCache = getLocator().getUpperLayerNodeCache();
+        if (upperLayerNodeCache == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return StorageAdapter.fetchUpperLayersVersion(readTransaction, getSubspace(), getOnReadListener())
+                .handle((version, err) -> {
+                    if (err == null) {
+                        return upperLayerNodeCache.scope(version);
+                    }
+                    Throwable cause = err;
+                    while (cause instanceof CompletionException && cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    if (cause instanceof FDBException &&
+                            ((FDBException)cause).getCode() == FDBError.ACCESSED_UNREADABLE.code()) {
+                        return null;
+                    }
+                    throw err instanceof CompletionException ? (CompletionException)err : new CompletionException(err);
+                });
+    }
+
     @Nonnull
     private <N extends NodeReference> CompletableFuture<List<NodeReferenceWithDistance>>
             searchLayer(@Nonnull final StorageAdapter<N> storageAdapter,
@@ -275,15 +381,16 @@ public class Search {
                         @Nonnull final List<NodeReferenceWithDistance> nodeReferenceWithDistances,
                         final int layer,
                         final int efSearch,
-                        @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction) {
+                        @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                        @Nullable final UpperLayerNodeCache.Scope cacheScope) {
         if (efSearch == 1 && nodeReferenceWithDistances.size() == 1) {
             return greedySearchLayer(storageAdapter, readTransaction, storageTransform,
                     Iterables.getOnlyElement(nodeReferenceWithDistances),
-                    layer, objectiveFunction).thenApply(ImmutableList::of);
+                    layer, objectiveFunction, cacheScope).thenApply(ImmutableList::of);
         } else {
             return beamSearchLayer(storageAdapter, readTransaction, storageTransform,
                     nodeReferenceWithDistances, layer, efSearch, objectiveFunction,
-                    Maps.newConcurrentMap())
+                    cacheScope == null ? Maps.newConcurrentMap() : cacheScope.nodesForLayer(layer))
                     .thenApply(NodeReferenceAndNode::references);
         }
     }
@@ -343,13 +450,26 @@ public class Search {
                               @Nonnull final NodeReferenceWithDistance nodeReferenceWithDistance,
                               final int layer,
                               @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction) {
+        return greedySearchLayer(storageAdapter, readTransaction, storageTransform, nodeReferenceWithDistance, layer,
+                objectiveFunction, null);
+    }
+
+    @Nonnull
+    private <N extends NodeReference> CompletableFuture<NodeReferenceWithDistance>
+            greedySearchLayer(@Nonnull final StorageAdapter<N> storageAdapter,
+                              @Nonnull final ReadTransaction readTransaction,
+                              @Nonnull final StorageTransform storageTransform,
+                              @Nonnull final NodeReferenceWithDistance nodeReferenceWithDistance,
+                              final int layer,
+                              @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                              @Nullable final UpperLayerNodeCache.Scope cacheScope) {
         if (storageAdapter.isInliningStorageAdapter()) {
             return greedySearchInliningLayer(storageAdapter.asInliningStorageAdapter(), readTransaction,
-                    storageTransform, nodeReferenceWithDistance, layer, objectiveFunction);
+                    storageTransform, nodeReferenceWithDistance, layer, objectiveFunction, cacheScope);
         } else {
             return beamSearchLayer(storageAdapter, readTransaction, storageTransform,
                     ImmutableList.of(nodeReferenceWithDistance), layer, 1, objectiveFunction,
-                    Maps.newConcurrentMap())
+                    cacheScope == null ? Maps.newConcurrentMap() : cacheScope.nodesForLayer(layer))
                     .thenApply(searchResult ->
                             Iterables.getOnlyElement(searchResult).getNodeReference());
         }
@@ -367,6 +487,7 @@ public class Search {
      *        the query vector
      * @param layer the zero-based index of the layer to search within
      * @param objectiveFunction the objective function that is to be minimized
+     * @param cacheScope the scope of the shared cache to take nodes from, or {@code null} to read all nodes
      * @return a {@link CompletableFuture} that, upon completion, will contain the closest node found on the layer,
      *         represented as a {@link NodeReferenceWithDistance}
      */
@@ -377,11 +498,14 @@ public class Search {
                                       @Nonnull final StorageTransform storageTransform,
                                       @Nonnull final NodeReferenceWithDistance nodeReferenceWithDistance,
                                       final int layer,
-                                      @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction) {
+                                      @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                                      @Nullable final UpperLayerNodeCache.Scope cacheScope) {
         final Primitives primitives = primitives();
         final NodeFactory<NodeReferenceWithVector> nodeFactory = storageAdapter.getNodeFactory();
-        final Map<Tuple, AbstractNode<NodeReferenceWithVector>> nodeCache = Maps.newHashMap();
-        final Map<Tuple, AbstractNode<NodeReferenceWithVector>> updatedNodes = Maps.newHashMap();
+        final Map<Tuple, AbstractNode<NodeReferenceWithVector>> nodeCache =
+                cacheScope == null ? Maps.newHashMap() : cacheScope.nodesForLayer(layer);
+        final Map<Tuple, AbstractNode<NodeReferenceWithVector>> updatedNodes =
+                cacheScope == null ? Maps.newHashMap() : cacheScope.baseVectorNodesForLayer(layer);
 
         final AtomicReference<NodeReferenceWithDistance> nearestNodeReferenceAtomic =
                 new AtomicReference<>(null);
@@ -559,12 +683,18 @@ public class Search {
                                 .thenCompose(neighborReferences -> primitives.fetchNeighborhoodReferences(storageAdapter, readTransaction,
                                         storageTransform, layer, neighborReferences, nodeCache))
                                 .thenApply(neighborReferences -> {
-                                    for (final NodeReferenceWithVector current : neighborReferences) {
+                                    final double[] distances =
+                                            objectiveValues(objectiveFunction, neighborReferences,
+                                                    nearestNeighbors.size() < efSearch
+                                                    ? Double.POSITIVE_INFINITY
+                                                    : Objects.requireNonNull(nearestNeighbors.peek()).getDistance());
+                                    for (int i = 0; i < neighborReferences.size(); i++) {
+                                        final NodeReferenceWithVector current = neighborReferences.get(i);
                                         visited.add(current.getPrimaryKey());
                                         final double furthestDistance =
                                                 Objects.requireNonNull(nearestNeighbors.peek()).getDistance();
 
-                                        final double currentDistance = objectiveFunction.applyAsDouble(current.getVector());
+                                        final double currentDistance = distances[i];
                                         if (currentDistance < furthestDistance || nearestNeighbors.size() < efSearch) {
                                             final NodeReferenceWithDistance currentWithDistance =
                                                     new NodeReferenceWithDistance(current.getPrimaryKey(), current.getVector(),
@@ -598,6 +728,159 @@ public class Search {
                 });
     }
 
+    /**
+     * Searches layer 0 of the graph to find the nearest neighbors to a query vector that match a filter.
+     * <p>
+     * This works like {@link #beamSearchLayer}, except that only nodes matching the filter are admitted to the
+     * {@code efSearch} nearest neighbors. All nodes, matching or not, are admitted to the candidates to visit as long
+     * as they are closer than the furthest of the nearest neighbors (or there are fewer than {@code efSearch} of
+     * them), so that the search can get past regions of the graph the filter rejects. The filter is evaluated on the
+     * additional values that are fetched together with each node's vector, so it does not cause any additional reads.
+     * <p>
+     * If the filter is very selective, there may be fewer than {@code efSearch} matching nodes near the query vector,
+     * in which case this search visits many more nodes than an unfiltered one before it has filled its result set.
+     * In order to not end up traversing all of layer 0, the search stops once it has visited
+     * {@link Config#filteredSearchVisitFactor()} times {@code efSearch} nodes, and returns the matching nodes it has
+     * found up to that point, which may be fewer than {@code efSearch} (or even none at all).
+     *
+     * @param storageAdapter the storage adapter for layer 0
+     * @param readTransaction the transaction context for all database read operations
+     * @param storageTransform an affine transformation operator that is used to transform the fetched vector into the
+     *        storage space that is currently being used
+     * @param nodeReferences the starting node references for the search on layer 0
+     * @param efSearch the number of matching nodes to find
+     * @param objectiveFunction the objective function that is to be minimized
+     * @param filter the filter the nodes in the result must match
+     * @param nodeCache a cache of nodes that have already been fetched from storage to avoid redundant I/O
+     *
+     * @return a {@link CompletableFuture} that, upon completion, will contain a list of the best matching nodes found
+     *         on layer 0, paired with their full node data
+     */
+    @Nonnull
+    private CompletableFuture<List<NodeReferenceAndNode<NodeReferenceWithDistance, NodeReference>>>
+            filteredBeamSearchLayer(@Nonnull final CompactStorageAdapter storageAdapter,
+                                    @Nonnull final ReadTransaction readTransaction,
+                                    @Nonnull final StorageTransform storageTransform,
+                                    @Nonnull final Collection<NodeReferenceWithDistance> nodeReferences,
+                                    final int efSearch,
+                                    @Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                                    @Nonnull final SearchFilter filter,
+                                    @Nonnull final Map<Tuple, AbstractNode<NodeReference>> nodeCache) {
+        final Primitives primitives = primitives();
+        final Queue<NodeReferenceWithDistance> candidates =
+                new PriorityQueue<>(getConfig().m(), NodeReferenceWithDistance.comparator());
+        final Set<Tuple> visited = Sets.newConcurrentHashSet();
+        final Queue<NodeReferenceWithDistance> nearestNeighbors =
+                new PriorityQueue<>(efSearch + 1, // prevent reallocation further down
+                        NodeReferenceWithDistance.reversedComparator());
+        final long maxNumVisited = (long)efSearch * getConfig().filteredSearchVisitFactor();
+
+        return primitives.fetchNeighborhoodReferences(storageAdapter, readTransaction, storageTransform, 0,
+                        nodeReferences, nodeCache)
+                .thenCompose(refetchedNodeReferences -> {
+                    for (final NodeReferenceWithVectorAndAdditionalValues refetchedNodeReference : refetchedNodeReferences) {
+                        visited.add(refetchedNodeReference.getPrimaryKey());
+                        final NodeReferenceWithDistance nodeReferenceWithDistance =
+                                new NodeReferenceWithDistance(refetchedNodeReference.getPrimaryKey(),
+                                        refetchedNodeReference.getVector(),
+                                        objectiveFunction.applyAsDouble(refetchedNodeReference.getVector()));
+                        candidates.add(nodeReferenceWithDistance);
+                        if (filter.matches(refetchedNodeReference.getPrimaryKey(),
+                                refetchedNodeReference.getAdditionalValues())) {
+                            addToNearestNeighbors(nearestNeighbors, nodeReferenceWithDistance, efSearch);
+                        }
+                    }
+
+                    return AsyncUtil.whileTrue(() -> {
+                        if (candidates.isEmpty() || visited.size() >= maxNumVisited) {
+                            // out of candidates or out of budget; return what has been found so far
+                            return AsyncUtil.READY_FALSE;
+                        }
+
+                        final NodeReferenceWithDistance candidate = candidates.poll();
+                        if (nearestNeighbors.size() >= efSearch &&
+                                candidate.getDistance() > Objects.requireNonNull(nearestNeighbors.peek()).getDistance()) {
+                            return AsyncUtil.READY_FALSE;
+                        }
+
+                        return primitives.fetchNodeIfNotCached(storageAdapter, readTransaction, storageTransform, 0, candidate, nodeCache)
+                                .thenApply(candidateNode ->
+                                        candidateNode == null
+                                        ? ImmutableList.<NodeReference>of()
+                                        : Iterables.filter(candidateNode.getNeighbors(),
+                                                neighbor -> !visited.contains(Objects.requireNonNull(neighbor).getPrimaryKey())))
+                                .thenCompose(neighborReferences -> primitives.fetchNeighborhoodReferences(storageAdapter, readTransaction,
+                                        storageTransform, 0, neighborReferences, nodeCache))
+                                .thenApply(neighborReferences -> {
+                                    final double[] distances =
+                                            objectiveValues(objectiveFunction, neighborReferences,
+                                                    nearestNeighbors.size() < efSearch
+                                                    ? Double.POSITIVE_INFINITY
+                                                    : Objects.requireNonNull(nearestNeighbors.peek()).getDistance());
+                                    for (int i = 0; i < neighborReferences.size(); i++) {
+                                        final NodeReferenceWithVectorAndAdditionalValues current = neighborReferences.get(i);
+                                        visited.add(current.getPrimaryKey());
+                                        final double currentDistance = distances[i];
+                                        if (nearestNeighbors.size() < efSearch ||
+                                                currentDistance < Objects.requireNonNull(nearestNeighbors.peek()).getDistance()) {
+                                            final NodeReferenceWithDistance currentWithDistance =
+                                                    new NodeReferenceWithDistance(current.getPrimaryKey(), current.getVector(),
+                                                            currentDistance);
+                                            candidates.add(currentWithDistance);
+                                            if (filter.matches(current.getPrimaryKey(), current.getAdditionalValues())) {
+                                                addToNearestNeighbors(nearestNeighbors, currentWithDistance, efSearch);
+                                            }
+                                        }
+                                    }
+                                    return true;
+                                });
+                    });
+                })
+                .thenCompose(ignored ->
+                        primitives.fetchSomeNodesIfNotCached(storageAdapter, readTransaction, storageTransform, 0,
+                                Primitives.drain(nearestNeighbors), nodeCache))
+                .thenApply(searchResult -> {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("searched layer=0 with filter for efSearch={} visiting numNodes={} with numResults={}",
+                                efSearch, visited.size(), searchResult.size());
+                    }
+                    return searchResult;
+                });
+    }
+
+    /**
+     * Computes the values of the objective function for the vectors of some node references. If the objective
+     * function is a {@link BatchObjectiveFunction}, the values of vectors that are known to be greater than
+     * {@code threshold} may only be bounded from below, as they are of no interest to the caller.
+     *
+     * @param objectiveFunction the objective function
+     * @param nodeReferences the node references
+     * @param threshold the value of the objective function beyond which a node reference is of no interest
+     * @return an array holding the value of the objective function for each node reference
+     */
+    @Nonnull
+    private static double[] objectiveValues(@Nonnull final ToDoubleFunction<Transformed<RealVector>> objectiveFunction,
+                                            @Nonnull final List<? extends NodeReferenceWithVector> nodeReferences,
+                                            final double threshold) {
+        if (objectiveFunction instanceof BatchObjectiveFunction) {
+            return ((BatchObjectiveFunction)objectiveFunction).applyAsDoubles(nodeReferences, threshold);
+        }
+        final double[] values = new double[nodeReferences.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = objectiveFunction.applyAsDouble(nodeReferences.get(i).getVector());
+        }
+        return values;
+    }
+
+    private static void addToNearestNeighbors(@Nonnull final Queue<NodeReferenceWithDistance> nearestNeighbors,
+                                              @Nonnull final NodeReferenceWithDistance nodeReferenceWithDistance,
+                                              final int efSearch) {
+        nearestNeighbors.add(nodeReferenceWithDistance);
+        if (nearestNeighbors.size() > efSearch) {
+            nearestNeighbors.poll();
+        }
+    }
+
     /**
      * Returns an async iterator that returns results ordered by their distance from a given center vector.
      * <p>
@@ -683,6 +966,10 @@ public class Search {
     @Nonnull
     static ToDoubleFunction<Transformed<RealVector>> distanceToTargetVector(@Nonnull final DistanceEstimator distanceEstimator,
                                                                             @Nonnull final Transformed<RealVector> targetVector) {
+        if (distanceEstimator instanceof RaBitDistanceEstimator &&
+                !(targetVector.getUnderlyingVector() instanceof EncodedRealVector)) {
+            return new QuantizedDistanceToTargetVector((RaBitDistanceEstimator)distanceEstimator, targetVector);
+        }
         return vector -> distanceEstimator.distance(targetVector, vector);
     }
 
@@ -734,6 +1021,80 @@ public class Search {
         }
     }
 
+    /**
+     * An objective function that can also be evaluated for many vectors at once, which allows it to skip most of the
+     * work for vectors that the caller is not interested in.
+     */
+    interface BatchObjectiveFunction extends ToDoubleFunction<Transformed<RealVector>> {
+        /**
+         * Evaluates this objective function for the vectors of some node references.
+         *
+         * @param nodeReferences the node references
+         * @param threshold the value beyond which the exact value for a vector is of no interest to the caller
+         * @return an array holding, for each node reference, the value of the objective function for its vector if
+         *         that value is at most {@code threshold}, and a lower bound of that value that is greater than
+         *         {@code threshold} otherwise
+         */
+        @Nonnull
+        double[] applyAsDoubles(@Nonnull List<? extends NodeReferenceWithVector> nodeReferences, double threshold);
+    }
+
+    /**
+     * The distance to a target vector that is not encoded for a {@link RaBitDistanceEstimator}. Batches of encoded
+     * vectors are scored with {@link RaBitDistanceEstimator#estimateDistances(RaBitDistanceEstimator.QuantizedQuery, List, double)},
+     * which only computes the exact estimate for the vectors that may be closer than the threshold. The values this
+     * returns for those vectors are identical to the values {@link #applyAsDouble(Transformed)} returns.
+     */
+    private static final class QuantizedDistanceToTargetVector implements BatchObjectiveFunction {
+        @Nonnull
+        private final RaBitDistanceEstimator distanceEstimator;
+        @Nonnull
+        private final Transformed<RealVector> targetVector;
+        @Nonnull
+        private final Supplier<RaBitDistanceEstimator.QuantizedQuery> quantizedTargetVectorSupplier;
+
+        private QuantizedDistanceToTargetVector(@Nonnull final RaBitDistanceEstimator distanceEstimator,
+                                                @Nonnull final Transformed<RealVector> targetVector) {
+            this.distanceEstimator = distanceEstimator;
+            this.targetVector = targetVector;
+            this.quantizedTargetVectorSupplier =
+                    Suppliers.memoize(() -> distanceEstimator.quantizeQuery(targetVector.getUnderlyingVector()));
+        }
+
+        @Override
+        public double applyAsDouble(@Nonnull final Transformed<RealVector> vector) {
+            return distanceEstimator.distance(targetVector, vector);
+        }
+
+        @Nonnull
+        @Override
+        public double[] applyAsDoubles(@Nonnull final List<? extends NodeReferenceWithVector> nodeReferences,
+                                       final double threshold) {
+            final double[] values = new double[nodeReferences.size()];
+            final List<EncodedRealVector> encodedVectors = Lists.newArrayListWithCapacity(values.length);
+            final int[] encodedIndexes = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                final RealVector vector = nodeReferences.get(i).getVector().getUnderlyingVector();
+                if (threshold < Double.POSITIVE_INFINITY && vector instanceof EncodedRealVector) {
+                    encodedIndexes[encodedVectors.size()] = i;
+                    encodedVectors.add((EncodedRealVector)vector);
+                } else {
+                    values[i] = applyAsDouble(nodeReferences.get(i).getVector());
+                }
+            }
+            if (encodedVectors.isEmpty()) {
+                return values;
+            }
+
+            final double[] distances =
+                    distanceEstimator.estimateDistances(quantizedTargetVectorSupplier.get(), encodedVectors, threshold);
+            for (int j = 0; j < distances.length; j++) {
+                values[encodedIndexes[j]] = distances[j];
+            }
+            return values;
+        }
+    }
+
     @FunctionalInterface
     private interface ObjectiveFunctionCreator {
         @Nonnull
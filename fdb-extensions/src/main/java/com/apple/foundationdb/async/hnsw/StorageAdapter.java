@@ -20,6 +20,7 @@
 
 package com.apple.foundationdb.async.hnsw;
 
+import com.apple.foundationdb.MutationType;
 import com.apple.foundationdb.ReadTransaction;
 import com.apple.foundationdb.Transaction;
 import com.apple.foundationdb.async.AsyncIterable;
@@ -31,6 +32,7 @@ import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.linear.Transformed;
 import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.Tuple;
+import com.apple.foundationdb.tuple.Versionstamp;
 import com.google.common.annotations.VisibleForTesting;
 
 import javax.annotation.Nonnull;
@@ -64,6 +66,12 @@ interface StorageAdapter<N extends NodeReference> {
      */
     long SUBSPACE_PREFIX_SAMPLES = 0x02;
 
+    /**
+     * Subspace for the versionstamp of the last change to the layers above layer 0 or to the access info. It tells
+     * searches whether what an {@link UpperLayerNodeCache} holds is still current.
+     */
+    long SUBSPACE_PREFIX_UPPER_LAYERS_VERSION = 0x03;
+
     /**
      * Returns the configuration of the HNSW graph.
      * <p>
@@ -286,6 +294,7 @@ interface StorageAdapter<N extends NodeReference> {
                 centroid == null ? null : StorageHelpers.tupleFromVector(centroid)).pack();
         transaction.set(key, value);
         onWriteListener.onKeyValueWritten(entryNodeReference.getLayer(), key, value);
+        writeUpperLayersVersion(transaction, subspace, -1, onWriteListener);
     }
 
     /**
@@ -301,6 +310,47 @@ interface StorageAdapter<N extends NodeReference> {
         final byte[] key = entryNodeSubspace.pack();
         transaction.clear(key);
         onWriteListener.onKeyDeleted(-1, key);
+        writeUpperLayersVersion(transaction, subspace, -1, onWriteListener);
+    }
+
+    /**
+     * Fetches the versionstamp of the last change to the layers above layer 0 or to the access info.
+     * @param readTransaction the transaction to use for the read
+     * @param subspace the subspace of the HNSW
+     * @param onReadListener the listener to be notified of the read
+     * @return a future that completes with the versionstamp, or with {@code null} if there has not been such a change
+     *         since the versionstamp was introduced. As with any key written with a versionstamp, the future fails if
+     *         the transaction itself has changed the upper layers.
+     */
+    @Nonnull
+    static CompletableFuture<Versionstamp> fetchUpperLayersVersion(@Nonnull final ReadTransaction readTransaction,
+                                                                   @Nonnull final Subspace subspace,
+                                                                   @Nonnull final OnReadListener onReadListener) {
+        final byte[] key = upperLayersVersionSubspace(subspace).pack();
+        return readTransaction.get(key)
+                .thenApply(valueBytes -> {
+                    onReadListener.onKeyValueRead(-1, key, valueBytes);
+                    return valueBytes == null ? null : Tuple.fromBytes(valueBytes).getVersionstamp(0);
+                });
+    }
+
+    /**
+     * Records that the layers above layer 0 or the access info are changed by the given transaction by setting the
+     * upper layers version to the transaction's versionstamp. This invalidates what any {@link UpperLayerNodeCache}
+     * has cached for the HNSW once the transaction commits.
+     * @param transaction the transaction making the change
+     * @param subspace the subspace of the HNSW
+     * @param layer the layer that is changed, or {@code -1} for the access info
+     * @param onWriteListener the listener to be notified after the key-value pair is written
+     */
+    static void writeUpperLayersVersion(@Nonnull final Transaction transaction,
+                                        @Nonnull final Subspace subspace,
+                                        final int layer,
+                                        @Nonnull final OnWriteListener onWriteListener) {
+        final byte[] key = upperLayersVersionSubspace(subspace).pack();
+        final byte[] value = Tuple.from(Versionstamp.incomplete()).packWithVersionstamp();
+        transaction.mutate(MutationType.SET_VERSIONSTAMPED_VALUE, key, value);
+        onWriteListener.onKeyValueWritten(layer, key, value);
     }
 
     @Nonnull
@@ -312,4 +362,9 @@ interface StorageAdapter<N extends NodeReference> {
     static Subspace samplesSubspace(@Nonnull final Subspace rootSubspace) {
         return rootSubspace.subspace(Tuple.from(SUBSPACE_PREFIX_SAMPLES));
     }
+
+    @Nonnull
+    static Subspace upperLayersVersionSubspace(@Nonnull final Subspace rootSubspace) {
+        return rootSubspace.subspace(Tuple.from(SUBSPACE_PREFIX_UPPER_LAYERS_VERSION));
+    }
 }
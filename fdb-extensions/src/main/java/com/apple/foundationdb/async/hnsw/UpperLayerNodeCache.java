@@ -0,0 +1,298 @@
+/*
+ * UpperLayerNodeCache.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.async.hnsw;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.linear.RealVector;
+import com.apple.foundationdb.linear.Transformed;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.foundationdb.tuple.Versionstamp;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A cache of the nodes on the layers above layer 0 of an {@link HNSW} that is shared by searches across
+ * transactions.
+ * <p>
+ * The upper layers of an HNSW hold only a small fraction of its nodes, but every search descends through them
+ * greedily, one round trip per hop. As they change only when a node that reaches above layer 0 is inserted or
+ * deleted, they can be served from memory most of the time. Every write to an upper layer (or to the access info)
+ * also sets a versionstamped value in a dedicated key of the HNSW's subspace. A search reads that key together with
+ * the access info and only uses cached nodes that were read under the same versionstamp, so it sees the same graph as
+ * if it had read the nodes itself. Reading the key also puts a read conflict on it in place of the conflicts on the
+ * nodes that are not read.
+ * <p>
+ * The cache is bounded by an estimate of the number of bytes the cached nodes occupy. It is not tied to a particular
+ * {@link HNSW} instance, so it can be kept around and handed to each new instance over the same graph. A cache must
+ * only ever be used for one graph. Writers that predate the versionstamped key do not set it, so a cache should only
+ * be used once every writer of the graph does.
+ */
+@API(API.Status.EXPERIMENTAL)
+public class UpperLayerNodeCache {
+    /**
+     * The default maximum number of bytes of nodes to keep in the cache.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private static final Comparator<Versionstamp> VERSION_COMPARATOR =
+            Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final long maxBytes;
+    @Nonnull
+    private final Cache<Key, Entry> cache;
+    @Nonnull
+    private final AtomicReference<Versionstamp> latestVersion;
+
+    /**
+     * Create a new cache with the {@linkplain #DEFAULT_MAX_BYTES default} maximum size.
+     */
+    public UpperLayerNodeCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Create a new cache.
+     * @param maxBytes the maximum estimated number of bytes of nodes to keep in the cache
+     */
+    public UpperLayerNodeCache(final long maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive");
+        this.maxBytes = maxBytes;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Key, Entry>weigher((key, entry) -> (int)Math.min(Integer.MAX_VALUE, entry.getEstimatedSize()))
+                .build();
+        this.latestVersion = new AtomicReference<>(null);
+    }
+
+    /**
+     * Get the maximum estimated number of bytes of nodes kept in the cache.
+     * @return the maximum number of bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Get the number of nodes currently in the cache.
+     * @return the number of cached nodes
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all nodes from the cache.
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get a view of this cache for a search that has read the given version of the upper layers. If the version is
+     * newer than any seen before, every node read under an older version is dropped.
+     * @param version the versionstamp of the last change to the upper layers, or {@code null} if they have never been
+     *        changed since the key was introduced
+     * @return a view of the nodes cached under {@code version}
+     */
+    @Nonnull
+    Scope scope(@Nullable final Versionstamp version) {
+        while (true) {
+            final Versionstamp latest = latestVersion.get();
+            if (VERSION_COMPARATOR.compare(version, latest) <= 0) {
+                break;
+            }
+            if (latestVersion.compareAndSet(latest, version)) {
+                cache.invalidateAll();
+                break;
+            }
+        }
+        return new Scope(version);
+    }
+
+    @Nullable
+    private AbstractNode<?> get(@Nonnull final Key key, @Nullable final Versionstamp version) {
+        final Entry entry = cache.getIfPresent(key);
+        if (entry == null || !Objects.equals(entry.getVersion(), version)) {
+            return null;
+        }
+        return entry.getNode();
+    }
+
+    private void put(@Nonnull final Key key, @Nullable final Versionstamp version, @Nonnull final AbstractNode<?> node) {
+        // A search that started before the latest change must not overwrite what newer searches have cached.
+        if (Objects.equals(latestVersion.get(), version)) {
+            cache.put(key, new Entry(version, node));
+        }
+    }
+
+    /**
+     * Estimate the number of bytes a node occupies in memory. The vectors, whose components are stored as
+     * {@code double}s, dominate this estimate.
+     * @param node the node
+     * @return the estimated size in bytes
+     */
+    static long estimateSize(@Nonnull final AbstractNode<?> node) {
+        long size = 64L + node.getPrimaryKey().getPackedSize();
+        if (node.isCompactNode()) {
+            size += estimateSize(node.asCompactNode().getVector());
+        }
+        for (final NodeReference neighbor : node.getNeighbors()) {
+            size += 32L + neighbor.getPrimaryKey().getPackedSize();
+            if (neighbor.isNodeReferenceWithVector()) {
+                size += estimateSize(neighbor.asNodeReferenceWithVector().getVector());
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(@Nonnull final Transformed<RealVector> vector) {
+        return 32L + 8L * vector.getUnderlyingVector().getNumDimensions();
+    }
+
+    /**
+     * The cached nodes that a single search can use, which are those read under the same version of the upper layers.
+     */
+    class Scope {
+        @Nullable
+        private final Versionstamp version;
+
+        private Scope(@Nullable final Versionstamp version) {
+            this.version = version;
+        }
+
+        /**
+         * Get a node cache for one layer for use in place of a fresh map. Nodes not found in it are looked up in the
+         * shared cache, and nodes put into it are also put into the shared cache.
+         * @param <N> the type of node reference of the layer
+         * @param layer the layer, which must be above layer 0
+         * @return a new node cache for the layer
+         */
+        @Nonnull
+        <N extends NodeReference> Map<Tuple, AbstractNode<N>> nodesForLayer(final int layer) {
+            return new LayerView<>(layer, false);
+        }
+
+        /**
+         * Get a cache of the nodes of one layer with their vector replaced by the one on layer 0, as built by the
+         * greedy search over inlining layers. This only depends on nodes that reach above layer 0, which are
+         * always written together with their upper layer nodes, so it can be cached in the same way.
+         * @param <N> the type of node reference of the layer
+         * @param layer the layer, which must be above layer 0
+         * @return a new node cache for the layer
+         */
+        @Nonnull
+        <N extends NodeReference> Map<Tuple, AbstractNode<N>> baseVectorNodesForLayer(final int layer) {
+            return new LayerView<>(layer, true);
+        }
+
+        /**
+         * A map for one search of one layer that is backed by the shared cache.
+         * @param <N> the type of node reference of the layer
+         */
+        private class LayerView<N extends NodeReference> extends ForwardingMap<Tuple, AbstractNode<N>> {
+            @Nonnull
+            private final Map<Tuple, AbstractNode<N>> local = Maps.newConcurrentMap();
+            private final int layer;
+            private final boolean baseVector;
+
+            private LayerView(final int layer, final boolean baseVector) {
+                Preconditions.checkArgument(layer > 0, "only layers above 0 can be cached");
+                this.layer = layer;
+                this.baseVector = baseVector;
+            }
+
+            @Nonnull
+            @Override
+            protected Map<Tuple, AbstractNode<N>> delegate() {
+                return local;
+            }
+
+            @Nullable
+            @Override
+            @SuppressWarnings("unchecked")
+            public AbstractNode<N> get(@Nullable final Object primaryKey) {
+                final AbstractNode<N> node = local.get(primaryKey);
+                if (node != null || !(primaryKey instanceof Tuple)) {
+                    return node;
+                }
+                final AbstractNode<N> cachedNode =
+                        (AbstractNode<N>)UpperLayerNodeCache.this.get(new Key(layer, baseVector, (Tuple)primaryKey), version);
+                if (cachedNode != null) {
+                    local.put((Tuple)primaryKey, cachedNode);
+                }
+                return cachedNode;
+            }
+
+            @Override
+            public boolean containsKey(@Nullable final Object primaryKey) {
+                return get(primaryKey) != null;
+            }
+
+            @Nullable
+            @Override
+            public AbstractNode<N> put(@Nonnull final Tuple primaryKey, @Nonnull final AbstractNode<N> node) {
+                UpperLayerNodeCache.this.put(new Key(layer, baseVector, primaryKey), version, node);
+                return local.put(primaryKey, node);
+            }
+        }
+    }
+
+    private record Key(int layer, boolean baseVector, @Nonnull Tuple primaryKey) {
+    }
+
+    private static final class Entry {
+        @Nullable
+        private final Versionstamp version;
+        @Nonnull
+        private final AbstractNode<?> node;
+        private final long estimatedSize;
+
+        private Entry(@Nullable final Versionstamp version, @Nonnull final AbstractNode<?> node) {
+            this.version = version;
+            this.node = node;
+            this.estimatedSize = estimateSize(node);
+        }
+
+        @Nullable
+        Versionstamp getVersion() {
+            return version;
+        }
+
+        @Nonnull
+        AbstractNode<?> getNode() {
+            return node;
+        }
+
+        long getEstimatedSize() {
+            return estimatedSize;
+        }
+    }
+}
@@ -24,14 +24,14 @@ import com.google.common.base.Suppliers;
 import com.google.common.base.Verify;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
-import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Common implementation skeleton for every {@link RealVector} subtype in this package. Holds
- * the canonical {@code double[]} storage, memoizes the three derived values that are pure
+ * the canonical {@code double[]} view of the components, memoizes the three derived values that are pure
  * functions of the data ({@link #hashCode()}, {@link #getRawData()}, {@link #l2SquaredNorm()}),
  * and delegates the precision-specific bits (raw-byte format, conversions to other vector
  * representations) to concrete subclasses.
@@ -39,13 +39,17 @@ import java.util.stream.Collectors;
  * The class is intentionally precision-agnostic at this level — every accessor returns
  * {@code double}, and subclasses only differ in <em>storage</em> resolution (which they truncate
  * to in their constructors) and in the wire format produced by {@link #computeRawData()}.
+ * Reduced-precision subclasses may keep their components in a compact array of their own and
+ * use {@link #AbstractRealVector(int)}, in which case the {@code double[]} is only widened by
+ * {@link #computeData()} once something asks for it.
  * Mutable storage is the special case modeled by {@link MutableDoubleRealVector}; everything
  * else inheriting from this class is treated as immutable for the lifetime of the instance
  * (per the {@link #AbstractRealVector(double[]) constructor contract}).
  */
 public abstract class AbstractRealVector implements RealVector {
-    @Nonnull
-    protected final double[] data;
+    private final int numDimensions;
+    @Nullable
+    private volatile double[] data;
 
     @Nonnull
     @SuppressWarnings("this-escape")
@@ -70,16 +74,28 @@ public abstract class AbstractRealVector implements RealVector {
      * @throws NullPointerException if the provided {@code data} array is null.
      */
     protected AbstractRealVector(@Nonnull final double[] data) {
+        this.numDimensions = data.length;
         this.data = data;
     }
 
+    /**
+     * Constructs a new RealVector whose {@code double[]} components are computed lazily by
+     * {@link #computeData()} the first time {@link #getData()} is called. Subclasses using this constructor must
+     * override {@link #computeData()} and {@link #getComponent(int)}.
+     * @param numDimensions the number of dimensions of this vector
+     */
+    protected AbstractRealVector(final int numDimensions) {
+        this.numDimensions = numDimensions;
+        this.data = null;
+    }
+
     /**
      * Returns the number of elements in the vector.
      * @return the number of elements
      */
     @Override
     public int getNumDimensions() {
-        return data.length;
+        return numDimensions;
     }
 
     /**
@@ -95,7 +111,7 @@ public abstract class AbstractRealVector implements RealVector {
      */
     @Override
     public double getComponent(int dimension) {
-        return data[dimension];
+        return getData()[dimension];
     }
 
     /**
@@ -103,13 +119,29 @@ public abstract class AbstractRealVector implements RealVector {
      * <p>
      * The returned array is guaranteed to be non-null. Note that this method
      * returns a direct reference to the internal array, not a copy — callers must not mutate it
-     * unless the concrete subtype is {@link MutableDoubleRealVector}.
+     * unless the concrete subtype is {@link MutableDoubleRealVector}. If the vector was created
+     * through {@link #AbstractRealVector(int)}, the array is computed on the first call and kept.
      * @return the data array, never {@code null}.
      */
     @Nonnull
     @Override
     public double[] getData() {
-        return data;
+        double[] result = data;
+        if (result == null) {
+            // Racing threads compute equal arrays; any of them may be kept.
+            result = computeData();
+            data = result;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the {@code double[]} components of a vector created through {@link #AbstractRealVector(int)}.
+     * @return a new array holding the components of this vector
+     */
+    @Nonnull
+    protected double[] computeData() {
+        throw new IllegalStateException("vector was created without double data");
     }
 
     /**
@@ -140,7 +172,7 @@ public abstract class AbstractRealVector implements RealVector {
      * <p>
      * The result is {@code true} if and only if the argument is not {@code null} and is a {@code RealVector} object that
      * has the same data elements as this object. This method performs a deep equality check on the underlying data
-     * elements using {@link Objects#deepEquals(Object, Object)}.
+     * elements, component by component, with the semantics of {@link Arrays#equals(double[], double[])}.
      * @param o the object to compare with this {@code RealVector} for equality.
      * @return {@code true} if the given object is a {@code RealVector} equivalent to this vector, {@code false} otherwise.
      */
@@ -149,7 +181,15 @@ public abstract class AbstractRealVector implements RealVector {
         if (!(o instanceof final AbstractRealVector vector)) {
             return false;
         }
-        return Arrays.equals(data, vector.data);
+        if (numDimensions != vector.numDimensions) {
+            return false;
+        }
+        for (int i = 0; i < numDimensions; i++) {
+            if (Double.doubleToLongBits(getComponent(i)) != Double.doubleToLongBits(vector.getComponent(i))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -162,11 +202,16 @@ public abstract class AbstractRealVector implements RealVector {
     }
 
     /**
-     * Computes a hash code based on the internal {@code data} array.
+     * Computes a hash code based on the components of this vector. The result is the same as
+     * {@link Arrays#hashCode(double[])} of {@link #getData()}.
      * @return the computed hash code for this object.
      */
     protected int computeHashCode() {
-        return Arrays.hashCode(data);
+        int result = 1;
+        for (int i = 0; i < numDimensions; i++) {
+            result = 31 * result + Double.hashCode(getComponent(i));
+        }
+        return result;
     }
 
     /**
@@ -195,6 +240,7 @@ public abstract class AbstractRealVector implements RealVector {
      */
     public String toString(final int limitDimensions) {
         Verify.verify(limitDimensions > 0);
+        final double[] data = getData();
         if (limitDimensions < data.length) {
             return "[" + Arrays.stream(Arrays.copyOfRange(data, 0, limitDimensions))
                     .mapToObj(String::valueOf)
@@ -216,4 +216,76 @@ public interface Backend {
      * @return the squared Euclidean distance between {@code a} and {@code b}
      */
     double euclideanSquared(@Nonnull double[] a, @Nonnull double[] b);
+
+    //
+    // Reductions over single- and half-precision storage. {@link FloatRealVector} and
+    // {@link HalfRealVector} keep a compact copy of their components so that distance computations
+    // read 4 or 2 bytes per component rather than 8, and SIMD implementations fit twice as many
+    // lanes in a vector register as they do for {@code double[]}.
+    //
+
+    /**
+     * Returns the dot product {@code Σ a[i] * b[i]} of two single-precision arrays.
+     * <p>
+     * SIMD implementations accumulate in {@code float} lanes, so besides the reduction-order caveat of
+     * {@link #dot(double[], double[])} the result carries single-precision rounding error, which is
+     * well below what distinguishes neighbours in a similarity search. The scalar implementation
+     * accumulates in {@code double} and returns the same value as {@link #dot(double[], double[])}
+     * on the widened arrays.
+     *
+     * @param a left operand
+     * @param b right operand; must have the same length as {@code a}
+     * @return the dot product of {@code a} and {@code b}
+     */
+    double dot(@Nonnull float[] a, @Nonnull float[] b);
+
+    /**
+     * Returns the squared L2 norm {@code Σ a[i] * a[i]} of a single-precision array. Same precision
+     * caveat as {@link #dot(float[], float[])}.
+     *
+     * @param a vector to take the norm of
+     * @return the squared L2 norm of {@code a}
+     */
+    double l2SquaredNorm(@Nonnull float[] a);
+
+    /**
+     * Returns the squared Euclidean distance {@code Σ (a[i] - b[i])^2} of two single-precision
+     * arrays. Same precision caveat as {@link #dot(float[], float[])}.
+     *
+     * @param a left operand
+     * @param b right operand; must have the same length as {@code a}
+     * @return the squared Euclidean distance between {@code a} and {@code b}
+     */
+    double euclideanSquared(@Nonnull float[] a, @Nonnull float[] b);
+
+    /**
+     * Returns the dot product {@code Σ a[i] * b[i]} of two arrays of IEEE 754 half-precision values,
+     * given as their raw bits (see {@link com.apple.foundationdb.half.Half#halfShortToFloat(short)}).
+     * Each component is widened to {@code float} exactly; the same precision caveat as
+     * {@link #dot(float[], float[])} applies to the accumulation.
+     *
+     * @param a left operand, as half-precision bits
+     * @param b right operand, as half-precision bits; must have the same length as {@code a}
+     * @return the dot product of {@code a} and {@code b}
+     */
+    double dotHalf(@Nonnull short[] a, @Nonnull short[] b);
+
+    /**
+     * Returns the squared L2 norm {@code Σ a[i] * a[i]} of an array of half-precision values. See
+     * {@link #dotHalf(short[], short[])}.
+     *
+     * @param a vector to take the norm of, as half-precision bits
+     * @return the squared L2 norm of {@code a}
+     */
+    double l2SquaredNormHalf(@Nonnull short[] a);
+
+    /**
+     * Returns the squared Euclidean distance {@code Σ (a[i] - b[i])^2} of two arrays of
+     * half-precision values. See {@link #dotHalf(short[], short[])}.
+     *
+     * @param a left operand, as half-precision bits
+     * @param b right operand, as half-precision bits; must have the same length as {@code a}
+     * @return the squared Euclidean distance between {@code a} and {@code b}
+     */
+    double euclideanSquaredHalf(@Nonnull short[] a, @Nonnull short[] b);
 }
@@ -105,7 +105,7 @@ public class DoubleRealVector extends AbstractRealVector {
      */
     @Nonnull
     protected HalfRealVector computeHalfRealVector() {
-        return new HalfRealVector(data);
+        return new HalfRealVector(getData());
     }
 
     /**
@@ -126,7 +126,7 @@ public class DoubleRealVector extends AbstractRealVector {
      */
     @Nonnull
     protected FloatRealVector computeFloatRealVector() {
-        return new FloatRealVector(data);
+        return new FloatRealVector(getData());
     }
 
     /**
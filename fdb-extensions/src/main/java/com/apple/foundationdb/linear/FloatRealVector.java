@@ -29,54 +29,56 @@ import java.nio.ByteOrder;
 import java.util.function.Supplier;
 
 /**
- * Immutable vector storing 32-bit single-precision (float) components. Internally the data is
- * widened to a {@code double[]} for arithmetic compatibility with the rest of the
- * {@link RealVector} hierarchy, but every value is first truncated to {@code float} precision so
- * the storage cost and round-trip behaviour match a true float vector. Conversion to
- * {@link HalfRealVector} is memoized; conversion to {@link DoubleRealVector} is cheap and not
- * memoized (it simply wraps the existing array).
+ * Immutable vector storing 32-bit single-precision (float) components. The components are kept
+ * in a {@code float[]}, which {@link Metric} uses for distance computations. The widened
+ * {@code double[]} that the rest of the {@link RealVector} hierarchy works on is only computed
+ * (and then kept) the first time {@link #getData()} is called, so vectors that are decoded and
+ * only compared against other single-precision vectors never allocate it. Conversion to
+ * {@link HalfRealVector} is memoized; conversion to {@link DoubleRealVector} is not memoized (it
+ * wraps the widened array).
  */
 public class FloatRealVector extends AbstractRealVector {
     @Nonnull
     @SuppressWarnings("this-escape")
     private final Supplier<HalfRealVector> toHalfRealVectorSupplier = Suppliers.memoize(this::computeHalfRealVector);
+    @Nonnull
+    private final float[] floatData;
 
     /**
      * Constructs a single-precision vector from a boxed {@code Float[]}. The input is unboxed
-     * and widened into a fresh {@code double[]} backing store; subsequent changes to
-     * {@code floatData} do not affect the returned vector.
+     * into a fresh {@code float[]} backing store; subsequent changes to {@code floatData} do not
+     * affect the returned vector.
      *
      * @param floatData the components of the new vector
      */
     public FloatRealVector(@Nonnull final Float[] floatData) {
-        this(computeDoubleData(floatData));
+        this(unboxFloatData(floatData), false);
     }
 
     /**
      * Constructs a single-precision vector from a primitive {@code float[]}. The input is
-     * widened into a fresh {@code double[]} backing store; subsequent changes to
+     * copied into a fresh {@code float[]} backing store; subsequent changes to
      * {@code floatData} do not affect the returned vector.
      *
      * @param floatData the components of the new vector
      */
     public FloatRealVector(@Nonnull final float[] floatData) {
-        this(computeDoubleData(floatData));
+        this(floatData.clone(), false);
     }
 
     /**
      * Constructs a single-precision vector from a primitive {@code double[]}. The input is
-     * truncated component-wise to {@code float} precision (and re-widened to {@code double}) so
-     * round-trip behaviour matches a native float vector. The original {@code data} array is
-     * read but not retained.
+     * truncated component-wise to {@code float} precision so round-trip behaviour matches a
+     * native float vector. The original {@code data} array is read but not retained.
      *
      * @param data the components of the new vector, in {@code double} precision
      */
     public FloatRealVector(@Nonnull final double[] data) {
-        super(truncateDoubleData(data));
+        this(truncateDoubleData(data), false);
     }
 
     /**
-     * Constructs a single-precision vector by widening each int component. The new vector owns
+     * Constructs a single-precision vector by converting each int component. The new vector owns
      * its backing array — the input is read but not retained.
      *
      * @param intData the components of the new vector
@@ -86,7 +88,7 @@ public class FloatRealVector extends AbstractRealVector {
     }
 
     /**
-     * Constructs a single-precision vector by widening each long component. The new vector owns
+     * Constructs a single-precision vector by converting each long component. The new vector owns
      * its backing array — the input is read but not retained. {@code long} values outside the
      * 24-bit float mantissa lose precision; values outside the 53-bit double mantissa lose
      * precision in the intermediate widening as well.
@@ -97,6 +99,41 @@ public class FloatRealVector extends AbstractRealVector {
         this(fromLongs(longData));
     }
 
+    /**
+     * Constructs a single-precision vector that takes ownership of {@code floatData}.
+     *
+     * @param floatData the components of the new vector; must not be modified afterwards
+     * @param ignored distinguishes this constructor from {@link #FloatRealVector(float[])}
+     */
+    private FloatRealVector(@Nonnull final float[] floatData, final boolean ignored) {
+        super(floatData.length);
+        this.floatData = floatData;
+    }
+
+    /**
+     * Returns the component at {@code dimension}, read from the {@code float[]} storage.
+     */
+    @Override
+    public double getComponent(final int dimension) {
+        return floatData[dimension];
+    }
+
+    /**
+     * Widens the {@code float[]} storage into the {@code double[]} returned by {@link #getData()}.
+     *
+     * @return a new {@code double[]} of the same length, each element widened from the
+     *         corresponding single-precision component
+     */
+    @Nonnull
+    @Override
+    protected double[] computeData() {
+        final double[] result = new double[floatData.length];
+        for (int i = 0; i < floatData.length; i++) {
+            result[i] = floatData[i];
+        }
+        return result;
+    }
+
     /**
      * Returns the memoized half-precision projection of this vector.
      */
@@ -114,7 +151,20 @@ public class FloatRealVector extends AbstractRealVector {
      */
     @Nonnull
     public HalfRealVector computeHalfRealVector() {
-        return new HalfRealVector(data);
+        return HalfRealVector.fromFloatData(floatData);
+    }
+
+    /**
+     * Returns the components of this vector as a {@code float[]}. {@link Metric} computes
+     * distances between single-precision vectors on these rather than on the widened
+     * {@link #getData()}, reading half as many bytes. The array is the backing store of this
+     * vector and must not be modified.
+     *
+     * @return the components of this vector in single precision
+     */
+    @Nonnull
+    float[] getFloatData() {
+        return floatData;
     }
 
     /**
@@ -127,14 +177,14 @@ public class FloatRealVector extends AbstractRealVector {
     }
 
     /**
-     * Returns a fresh {@link DoubleRealVector} carrying this vector's already-widened components.
+     * Returns a fresh {@link DoubleRealVector} carrying this vector's widened components.
      * Note that the underlying values are still float-truncated; the conversion only changes the
      * runtime type, not the precision of the data.
      */
     @Nonnull
     @Override
     public DoubleRealVector toDoubleRealVector() {
-        return new DoubleRealVector(data);
+        return new DoubleRealVector(getData());
     }
 
     /**
@@ -173,7 +223,7 @@ public class FloatRealVector extends AbstractRealVector {
         final ByteBuffer buffer = ByteBuffer.wrap(vectorBytes).order(ByteOrder.BIG_ENDIAN);
         buffer.put((byte)VectorType.SINGLE.ordinal());
         for (int i = 0; i < getNumDimensions(); i ++) {
-            buffer.putFloat((float)data[i]);
+            buffer.putFloat(floatData[i]);
         }
         return vectorBytes;
     }
@@ -255,33 +305,16 @@ public class FloatRealVector extends AbstractRealVector {
     }
 
     /**
-     * Unboxes a {@code Float[]} into a freshly allocated {@code double[]} (widening each
-     * component). Used by the boxed-array constructor.
+     * Unboxes a {@code Float[]} into a freshly allocated {@code float[]}. Used by the boxed-array
+     * constructor.
      *
      * @param floatData the boxed components
-     * @return a new {@code double[]} of the same length, each element widened from the
-     *         corresponding {@code floatData[i]}
-     */
-    @Nonnull
-    private static double[] computeDoubleData(@Nonnull Float[] floatData) {
-        double[] result = new double[floatData.length];
-        for (int i = 0; i < floatData.length; i++) {
-            result[i] = floatData[i];
-        }
-        return result;
-    }
-
-    /**
-     * Widens a {@code float[]} into a freshly allocated {@code double[]}. Used by the primitive
-     * float-array constructor.
-     *
-     * @param floatData the source components
-     * @return a new {@code double[]} of the same length, each element widened from the
+     * @return a new {@code float[]} of the same length, each element unboxed from the
      *         corresponding {@code floatData[i]}
      */
     @Nonnull
-    private static double[] computeDoubleData(@Nonnull float[] floatData) {
-        double[] result = new double[floatData.length];
+    private static float[] unboxFloatData(@Nonnull Float[] floatData) {
+        float[] result = new float[floatData.length];
         for (int i = 0; i < floatData.length; i++) {
             result[i] = floatData[i];
         }
@@ -289,18 +322,15 @@ public class FloatRealVector extends AbstractRealVector {
     }
 
     /**
-     * Truncates each component of {@code doubleData} to float precision and re-widens to
-     * {@code double}, so the resulting backing array faithfully represents what a true
-     * {@code float[]} would hold. Used by the double-array constructor to enforce
-     * single-precision storage semantics.
+     * Truncates each component of {@code doubleData} to float precision. Used by the
+     * double-array constructor to enforce single-precision storage semantics.
      *
      * @param doubleData the source components in double precision
-     * @return a new {@code double[]} of the same length, each element truncated through
-     *         {@code float}
+     * @return a new {@code float[]} of the same length, each element truncated to {@code float}
      */
     @Nonnull
-    private static double[] truncateDoubleData(@Nonnull double[] doubleData) {
-        double[] result = new double[doubleData.length];
+    private static float[] truncateDoubleData(@Nonnull double[] doubleData) {
+        float[] result = new float[doubleData.length];
         for (int i = 0; i < doubleData.length; i++) {
             result[i] = (float)doubleData[i];
         }
@@ -312,7 +342,8 @@ public class FloatRealVector extends AbstractRealVector {
      * <p>
      * The input is interpreted as a leading type byte (which must match
      * {@link VectorType#SINGLE}) followed by a sequence of big-endian 32-bit IEEE-754 floats,
-     * one per component.
+     * one per component. The floats are decoded straight into the {@code float[]} storage of
+     * the new vector.
      * @param vectorBytes the non-null byte array to convert
      * @return a new {@link FloatRealVector} instance created from the byte array
      */
@@ -321,10 +352,8 @@ public class FloatRealVector extends AbstractRealVector {
         final ByteBuffer buffer = ByteBuffer.wrap(vectorBytes).order(ByteOrder.BIG_ENDIAN);
         Verify.verify(buffer.get() == VectorType.SINGLE.ordinal());
         final int numDimensions = vectorBytes.length >> 2;
-        final double[] vectorComponents = new double[numDimensions];
-        for (int i = 0; i < numDimensions; i ++) {
-            vectorComponents[i] = buffer.getFloat();
-        }
-        return new FloatRealVector(vectorComponents);
+        final float[] vectorComponents = new float[numDimensions];
+        buffer.asFloatBuffer().get(vectorComponents);
+        return new FloatRealVector(vectorComponents, false);
     }
 }
@@ -28,36 +28,41 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 /**
- * Immutable vector storing 16-bit {@link Half}-precision components. Internally the data is
- * widened to a {@code double[]} for arithmetic compatibility with the rest of the
- * {@link RealVector} hierarchy, but every value is first truncated through
- * {@link Half#valueOf(double)} so storage cost and round-trip behaviour match a true half-precision
- * vector. Conversions to the higher-precision {@link FloatRealVector} and {@link DoubleRealVector}
- * are not memoized (each call wraps the already-widened backing array in a fresh instance —
- * cheap enough that caching wouldn't pay off).
+ * Immutable vector storing 16-bit {@link Half}-precision components. The components are kept as
+ * raw half-precision bits in a {@code short[]}, exactly as they are serialized, which
+ * {@link Metric} uses for distance computations. Every value is truncated through
+ * {@link Half#valueOf(double)} on the way in so round-trip behaviour matches a true
+ * half-precision vector. The widened {@code double[]} that the rest of the {@link RealVector}
+ * hierarchy works on is only computed (and then kept) the first time {@link #getData()} is
+ * called. Conversions to the higher-precision {@link FloatRealVector} and
+ * {@link DoubleRealVector} are not memoized (each call wraps the widened array in a fresh
+ * instance — cheap enough that caching wouldn't pay off).
  */
 public class HalfRealVector extends AbstractRealVector {
+    @Nonnull
+    private final short[] halfData;
+
     /**
      * Constructs a half-precision vector from a boxed {@link Half}{@code []}. The input is
-     * unboxed and widened into a fresh {@code double[]} backing store; subsequent changes to
+     * unboxed into a fresh {@code short[]} backing store; subsequent changes to
      * {@code halfData} do not affect the returned vector.
      *
      * @param halfData the components of the new vector
      */
     public HalfRealVector(@Nonnull final Half[] halfData) {
-        this(computeDoubleData(halfData));
+        this(computeHalfData(halfData));
     }
 
     /**
      * Constructs a half-precision vector from a primitive {@code double[]}. The input is
-     * truncated component-wise through {@link Half#valueOf(double)} (and re-widened to
-     * {@code double}) so round-trip behaviour matches a native half-precision vector. The
-     * original {@code data} array is read but not retained.
+     * truncated component-wise through {@link Half#valueOf(double)} so round-trip behaviour
+     * matches a native half-precision vector. The original {@code data} array is read but not
+     * retained.
      *
      * @param data the components of the new vector, in {@code double} precision
      */
     public HalfRealVector(@Nonnull final double[] data) {
-        super(truncateDoubleData(data));
+        this(truncateDoubleData(data));
     }
 
     /**
@@ -83,6 +88,54 @@ public class HalfRealVector extends AbstractRealVector {
         this(fromLongs(longData));
     }
 
+    /**
+     * Constructs a half-precision vector that takes ownership of {@code halfData}.
+     *
+     * @param halfData the components of the new vector as half-precision bits; must not be
+     *        modified afterwards
+     */
+    private HalfRealVector(@Nonnull final short[] halfData) {
+        super(halfData.length);
+        this.halfData = halfData;
+    }
+
+    /**
+     * Returns the component at {@code dimension}, widened from the half-precision storage.
+     */
+    @Override
+    public double getComponent(final int dimension) {
+        return Half.halfShortToFloat(halfData[dimension]);
+    }
+
+    /**
+     * Widens the half-precision storage into the {@code double[]} returned by {@link #getData()}.
+     *
+     * @return a new {@code double[]} of the same length, each element widened from the
+     *         corresponding half-precision component
+     */
+    @Nonnull
+    @Override
+    protected double[] computeData() {
+        final double[] result = new double[halfData.length];
+        for (int i = 0; i < halfData.length; i++) {
+            result[i] = Half.halfShortToFloat(halfData[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the components of this vector as raw {@link Half} bits, as they are serialized.
+     * {@link Metric} computes distances between two half-precision vectors on these rather than
+     * on the widened {@link #getData()}, reading a quarter as many bytes. The array is the
+     * backing store of this vector and must not be modified.
+     *
+     * @return the components of this vector as half-precision bits
+     */
+    @Nonnull
+    short[] getHalfData() {
+        return halfData;
+    }
+
     /**
      * Returns {@code this} — already a half-precision vector, so no conversion is needed.
      */
@@ -93,25 +146,25 @@ public class HalfRealVector extends AbstractRealVector {
     }
 
     /**
-     * Returns a fresh {@link FloatRealVector} carrying this vector's already-widened components.
+     * Returns a fresh {@link FloatRealVector} carrying this vector's widened components.
      * Note that the underlying values are still half-truncated; the conversion only changes the
      * runtime type, not the precision of the data.
      */
     @Nonnull
     @Override
     public FloatRealVector toFloatRealVector() {
-        return new FloatRealVector(data);
+        return new FloatRealVector(getData());
     }
 
     /**
-     * Returns a fresh {@link DoubleRealVector} carrying this vector's already-widened components.
+     * Returns a fresh {@link DoubleRealVector} carrying this vector's widened components.
      * Note that the underlying values are still half-truncated; the conversion only changes the
      * runtime type, not the precision of the data.
      */
     @Nonnull
     @Override
     public DoubleRealVector toDoubleRealVector() {
-        return new DoubleRealVector(data);
+        return new DoubleRealVector(getData());
     }
 
     /**
@@ -142,7 +195,7 @@ public class HalfRealVector extends AbstractRealVector {
         final ByteBuffer buffer = ByteBuffer.wrap(vectorBytes).order(ByteOrder.BIG_ENDIAN);
         buffer.put((byte)VectorType.HALF.ordinal());
         for (int i = 0; i < getNumDimensions(); i ++) {
-            buffer.putShort(Half.floatToShortBitsCollapseNaN(Half.quantizeFloat((float)getComponent(i))));
+            buffer.putShort(halfData[i]);
         }
         return vectorBytes;
     }
@@ -224,41 +277,61 @@ public class HalfRealVector extends AbstractRealVector {
     }
 
     /**
-     * Unboxes a {@link Half}{@code []} into a freshly allocated {@code double[]} (widening each
-     * component via {@link Half#doubleValue()}). Used by the boxed-array constructor.
+     * Unboxes a {@link Half}{@code []} into a freshly allocated {@code short[]} of half-precision
+     * bits. Used by the boxed-array constructor.
      *
      * @param halfData the boxed components
-     * @return a new {@code double[]} of the same length, each element widened from the
+     * @return a new {@code short[]} of the same length, each element holding the bits of the
      *         corresponding {@code halfData[i]}
      */
     @Nonnull
-    private static double[] computeDoubleData(@Nonnull Half[] halfData) {
-        double[] result = new double[halfData.length];
+    private static short[] computeHalfData(@Nonnull Half[] halfData) {
+        short[] result = new short[halfData.length];
         for (int i = 0; i < halfData.length; i++) {
-            result[i] = halfData[i].doubleValue();
+            result[i] = toHalfBits(halfData[i].floatValue());
         }
         return result;
     }
 
     /**
-     * Truncates each component of {@code doubleData} through {@link Half#valueOf(double)} and
-     * re-widens to {@code double}, so the resulting backing array faithfully represents what a
-     * true {@link Half}{@code []} would hold. Used by the double-array constructor to enforce
-     * half-precision storage semantics.
+     * Truncates each component of {@code doubleData} through {@link Half#valueOf(double)} into
+     * half-precision bits. Used by the double-array constructor to enforce half-precision
+     * storage semantics.
      *
      * @param doubleData the source components in double precision
-     * @return a new {@code double[]} of the same length, each element truncated through
+     * @return a new {@code short[]} of the same length, each element truncated through
      *         {@link Half}
      */
     @Nonnull
-    private static double[] truncateDoubleData(@Nonnull double[] doubleData) {
-        double[] result = new double[doubleData.length];
+    private static short[] truncateDoubleData(@Nonnull double[] doubleData) {
+        short[] result = new short[doubleData.length];
         for (int i = 0; i < doubleData.length; i++) {
-            result[i] = Half.valueOf(doubleData[i]).doubleValue();
+            result[i] = toHalfBits((float)doubleData[i]);
         }
         return result;
     }
 
+    /**
+     * Creates a {@link HalfRealVector} by truncating single-precision components through
+     * {@link Half#valueOf(float)}. Used by {@link FloatRealVector#computeHalfRealVector()}, which
+     * thereby avoids widening its components to {@code double} first.
+     *
+     * @param floatData the source components in single precision
+     * @return a new {@link HalfRealVector} with the truncated components
+     */
+    @Nonnull
+    static HalfRealVector fromFloatData(@Nonnull float[] floatData) {
+        short[] result = new short[floatData.length];
+        for (int i = 0; i < floatData.length; i++) {
+            result[i] = toHalfBits(floatData[i]);
+        }
+        return new HalfRealVector(result);
+    }
+
+    private static short toHalfBits(final float value) {
+        return Half.floatToShortBitsCollapseNaN(Half.quantizeFloat(value));
+    }
+
     /**
      * Returns {@code this} — instances of this class are already immutable.
      */
@@ -273,7 +346,8 @@ public class HalfRealVector extends AbstractRealVector {
      * <p>
      * The input is interpreted as a leading type byte (which must match {@link VectorType#HALF})
      * followed by a sequence of big-endian 16-bit {@link Half}-encoded components, one per
-     * dimension.
+     * dimension. The components are decoded straight into the {@code short[]} storage of the
+     * new vector.
      * @param vectorBytes the non-null byte array to convert
      * @return a new {@link HalfRealVector} instance created from the byte array
      */
@@ -282,10 +356,8 @@ public class HalfRealVector extends AbstractRealVector {
         final ByteBuffer buffer = ByteBuffer.wrap(vectorBytes).order(ByteOrder.BIG_ENDIAN);
         Verify.verify(buffer.get() == VectorType.HALF.ordinal());
         final int numDimensions = vectorBytes.length >> 1;
-        final double[] vectorComponents = new double[numDimensions];
-        for (int i = 0; i < numDimensions; i ++) {
-            vectorComponents[i] = Half.halfShortToFloat(buffer.getShort());
-        }
+        final short[] vectorComponents = new short[numDimensions];
+        buffer.asShortBuffer().get(vectorComponents);
         return new HalfRealVector(vectorComponents);
     }
 }
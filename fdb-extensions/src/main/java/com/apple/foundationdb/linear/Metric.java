@@ -120,6 +120,16 @@ public enum Metric implements MetricDefinition {
         return metricDefinition.distance(vectorData1, vectorData2);
     }
 
+    @Override
+    public double distance(@Nonnull final float[] vectorData1, @Nonnull final float[] vectorData2) {
+        return metricDefinition.distance(vectorData1, vectorData2);
+    }
+
+    @Override
+    public double distanceHalf(@Nonnull final short[] vectorData1, @Nonnull final short[] vectorData2) {
+        return metricDefinition.distanceHalf(vectorData1, vectorData2);
+    }
+
     /**
      * Calculates a distance between two n-dimensional vectors.
      * <p>
@@ -136,9 +146,30 @@ public enum Metric implements MetricDefinition {
      * @throws NullPointerException if either {@code vector1} or {@code vector2} is null.
      */
     public double distance(@Nonnull RealVector vector1, @Nonnull RealVector vector2) {
+        // Two vectors of the same reduced precision are compared on their compact storage, which
+        // halves (or quarters) the bytes read and doubles the SIMD lanes.
+        if (vector1 instanceof FloatRealVector && vector2 instanceof FloatRealVector) {
+            return distance(((FloatRealVector)vector1).getFloatData(), ((FloatRealVector)vector2).getFloatData());
+        }
+        if (vector1 instanceof HalfRealVector && vector2 instanceof HalfRealVector) {
+            return distanceHalf(((HalfRealVector)vector1).getHalfData(), ((HalfRealVector)vector2).getHalfData());
+        }
+        // A double-precision query against single-precision vectors is converted once (the
+        // conversion is memoized by the immutable query vector) and then takes the float path too.
+        if (vector1 instanceof FloatRealVector && isImmutableDoubleVector(vector2)) {
+            return distance(((FloatRealVector)vector1).getFloatData(), vector2.toFloatRealVector().getFloatData());
+        }
+        if (isImmutableDoubleVector(vector1) && vector2 instanceof FloatRealVector) {
+            return distance(vector1.toFloatRealVector().getFloatData(), ((FloatRealVector)vector2).getFloatData());
+        }
         return distance(vector1.getData(), vector2.getData());
     }
 
+    private static boolean isImmutableDoubleVector(@Nonnull RealVector vector) {
+        // a mutable vector recomputes its conversions on every call, so it is better off on the double path
+        return vector instanceof DoubleRealVector && !(vector instanceof MutableDoubleRealVector);
+    }
+
     @Override
     public String toString() {
         return metricDefinition.toString();
@@ -106,6 +106,32 @@ interface MetricDefinition {
      */
     double distance(@Nonnull double[] vector1, @Nonnull double[] vector2);
 
+    /**
+     * Calculates a distance between two n-dimensional vectors stored in single precision, as
+     * {@link #distance(double[], double[])} does for the widened vectors. The result may differ from
+     * that in the low-order bits, see {@link Backend#dot(float[], float[])}.
+     *
+     * @param vector1 the first vector. Must not be null.
+     * @param vector2 the second vector. Must not be null and must have the same
+     * length as {@code vector1}.
+     *
+     * @return the calculated distance as a {@code double}.
+     */
+    double distance(@Nonnull float[] vector1, @Nonnull float[] vector2);
+
+    /**
+     * Calculates a distance between two n-dimensional vectors stored as raw half-precision bits, as
+     * {@link #distance(double[], double[])} does for the widened vectors. The result may differ from
+     * that in the low-order bits, see {@link Backend#dotHalf(short[], short[])}.
+     *
+     * @param vector1 the first vector. Must not be null.
+     * @param vector2 the second vector. Must not be null and must have the same
+     * length as {@code vector1}.
+     *
+     * @return the calculated distance as a {@code double}.
+     */
+    double distanceHalf(@Nonnull short[] vector1, @Nonnull short[] vector2);
+
     /**
      * A helper method to validate that vectors can be compared.
      * @param vector1 The first vector.
@@ -115,16 +141,54 @@ interface MetricDefinition {
         if (vector1 == null || vector2 == null) {
             throw new IllegalArgumentException("Vectors cannot be null");
         }
-        if (vector1.length != vector2.length) {
+        validateLengths(vector1.length, vector2.length);
+    }
+
+    private static void validate(float[] vector1, float[] vector2) {
+        if (vector1 == null || vector2 == null) {
+            throw new IllegalArgumentException("Vectors cannot be null");
+        }
+        validateLengths(vector1.length, vector2.length);
+    }
+
+    private static void validate(short[] vector1, short[] vector2) {
+        if (vector1 == null || vector2 == null) {
+            throw new IllegalArgumentException("Vectors cannot be null");
+        }
+        validateLengths(vector1.length, vector2.length);
+    }
+
+    private static void validateLengths(int length1, int length2) {
+        if (length1 != length2) {
             throw new IllegalArgumentException(
-                    "Vectors must have the same dimensionality. Got " + vector1.length + " and " + vector2.length
+                    "Vectors must have the same dimensionality. Got " + length1 + " and " + length2
             );
         }
-        if (vector1.length == 0) {
+        if (length1 == 0) {
             throw new IllegalArgumentException("Vectors cannot be empty.");
         }
     }
 
+    /**
+     * Computes the cosine distance from the squared norms and dot product of two vectors.
+     * @param normA squared L2 norm of the first vector
+     * @param normB squared L2 norm of the second vector
+     * @param dotProduct dot product of the two vectors
+     * @return the cosine distance
+     */
+    private static double cosineDistance(final double normA, final double normB, final double dotProduct) {
+        // Handle the case of zero-vectors to avoid division by zero
+        if (normA == 0.0 || normB == 0.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        if (!Double.isFinite(normA) || !Double.isFinite(normB) || !Double.isFinite(dotProduct)) {
+            return Double.NaN;
+        }
+
+        return 1.0d - dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
     /**
      * Represents the Euclidean distance metric.
      * <p>
@@ -140,6 +204,18 @@ interface MetricDefinition {
             return Math.sqrt(RealVectorPrimitives.euclideanSquared(vector1, vector2));
         }
 
+        @Override
+        public double distance(@Nonnull final float[] vector1, @Nonnull final float[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return Math.sqrt(RealVectorPrimitives.euclideanSquared(vector1, vector2));
+        }
+
+        @Override
+        public double distanceHalf(@Nonnull final short[] vector1, @Nonnull final short[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return Math.sqrt(RealVectorPrimitives.euclideanSquaredHalf(vector1, vector2));
+        }
+
         @Override
         @Nonnull
         public String toString() {
@@ -172,6 +248,18 @@ interface MetricDefinition {
             return RealVectorPrimitives.euclideanSquared(vector1, vector2);
         }
 
+        @Override
+        public double distance(@Nonnull final float[] vector1, @Nonnull final float[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return RealVectorPrimitives.euclideanSquared(vector1, vector2);
+        }
+
+        @Override
+        public double distanceHalf(@Nonnull final short[] vector1, @Nonnull final short[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return RealVectorPrimitives.euclideanSquaredHalf(vector1, vector2);
+        }
+
         @Override
         @Nonnull
         public String toString() {
@@ -202,22 +290,22 @@ interface MetricDefinition {
         @Override
         public double distance(@Nonnull final double[] vector1, @Nonnull final double[] vector2) {
             MetricDefinition.validate(vector1, vector2);
+            return MetricDefinition.cosineDistance(RealVectorPrimitives.l2SquaredNorm(vector1),
+                    RealVectorPrimitives.l2SquaredNorm(vector2), RealVectorPrimitives.dot(vector1, vector2));
+        }
 
-            final double normA = RealVectorPrimitives.l2SquaredNorm(vector1);
-            final double normB = RealVectorPrimitives.l2SquaredNorm(vector2);
-
-            // Handle the case of zero-vectors to avoid division by zero
-            if (normA == 0.0 || normB == 0.0) {
-                return Double.POSITIVE_INFINITY;
-            }
-
-            final double dotProduct = RealVectorPrimitives.dot(vector1, vector2);
-
-            if (!Double.isFinite(normA) || !Double.isFinite(normB) || !Double.isFinite(dotProduct)) {
-                return Double.NaN;
-            }
+        @Override
+        public double distance(@Nonnull final float[] vector1, @Nonnull final float[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return MetricDefinition.cosineDistance(RealVectorPrimitives.l2SquaredNorm(vector1),
+                    RealVectorPrimitives.l2SquaredNorm(vector2), RealVectorPrimitives.dot(vector1, vector2));
+        }
 
-            return 1.0d - dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+        @Override
+        public double distanceHalf(@Nonnull final short[] vector1, @Nonnull final short[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return MetricDefinition.cosineDistance(RealVectorPrimitives.l2SquaredNormHalf(vector1),
+                    RealVectorPrimitives.l2SquaredNormHalf(vector2), RealVectorPrimitives.dotHalf(vector1, vector2));
         }
 
         @Override
@@ -268,6 +356,18 @@ interface MetricDefinition {
             return RealVectorPrimitives.dot(vector1, vector2);
         }
 
+        @Override
+        public double distance(@Nonnull final float[] vector1, @Nonnull final float[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return -RealVectorPrimitives.dot(vector1, vector2);
+        }
+
+        @Override
+        public double distanceHalf(@Nonnull final short[] vector1, @Nonnull final short[] vector2) {
+            MetricDefinition.validate(vector1, vector2);
+            return -RealVectorPrimitives.dotHalf(vector1, vector2);
+        }
+
         @Override
         @Nonnull
         public String toString() {
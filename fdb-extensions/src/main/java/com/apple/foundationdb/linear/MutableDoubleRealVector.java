@@ -62,7 +62,7 @@ import java.util.Arrays;
  *       {@code DoubleRealVector} reference is still pointing at this mutable buffer; subsequent
  *       mutations will be visible through that reference.</li>
  *   <li>Underlying storage is the same {@code double[]} held by
- *       {@link AbstractRealVector#data}; the {@code double[]} constructor stores the array
+ *       {@link AbstractRealVector#getData()}; the {@code double[]} constructor stores the array
  *       <em>by reference</em>, and {@link #getData()} returns the live array. Mutation methods
  *       write directly through it, so any external alias of that array sees the changes.</li>
  * </ul>
@@ -184,8 +184,9 @@ public class MutableDoubleRealVector extends DoubleRealVector {
      */
     @Nonnull
     public MutableDoubleRealVector setData(@Nonnull final double[] data) {
-        Preconditions.checkArgument(this.data.length == data.length);
-        System.arraycopy(data, 0, this.data, 0, this.data.length);
+        final double[] thisData = getData();
+        Preconditions.checkArgument(thisData.length == data.length);
+        System.arraycopy(data, 0, thisData, 0, thisData.length);
         return this;
     }
 
@@ -245,6 +245,34 @@ public final class RealVectorPrimitives {
         return backend.euclideanSquared(a, b);
     }
 
+    static double dot(@Nonnull final float[] a, @Nonnull final float[] b) {
+        Preconditions.checkArgument(a.length == b.length);
+        return backend.dot(a, b);
+    }
+
+    static double l2SquaredNorm(@Nonnull final float[] a) {
+        return backend.l2SquaredNorm(a);
+    }
+
+    static double euclideanSquared(@Nonnull final float[] a, @Nonnull final float[] b) {
+        Preconditions.checkArgument(a.length == b.length);
+        return backend.euclideanSquared(a, b);
+    }
+
+    static double dotHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        Preconditions.checkArgument(a.length == b.length);
+        return backend.dotHalf(a, b);
+    }
+
+    static double l2SquaredNormHalf(@Nonnull final short[] a) {
+        return backend.l2SquaredNormHalf(a);
+    }
+
+    static double euclideanSquaredHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        Preconditions.checkArgument(a.length == b.length);
+        return backend.euclideanSquaredHalf(a, b);
+    }
+
     //
     // Scalar-forced ("exact") reduction variants. These bypass the ambient backend and always
     // compute on {@link #scalarBackend}, so the result is bit-reproducible across machines and
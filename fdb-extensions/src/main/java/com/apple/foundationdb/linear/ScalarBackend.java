@@ -20,6 +20,8 @@
 
 package com.apple.foundationdb.linear;
 
+import com.apple.foundationdb.half.Half;
+
 import javax.annotation.Nonnull;
 
 /**
@@ -118,4 +120,67 @@ final class ScalarBackend implements Backend {
         }
         return sum;
     }
+
+    //
+    // The single- and half-precision reductions widen each component to double before doing the
+    // arithmetic, so they return exactly what the double[] reductions return for the widened data.
+    //
+
+    @Override
+    public double dot(@Nonnull final float[] a, @Nonnull final float[] b) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            sum += (double)a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double l2SquaredNorm(@Nonnull final float[] a) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            final double v = a[i];
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    @Override
+    public double euclideanSquared(@Nonnull final float[] a, @Nonnull final float[] b) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            final double diff = (double)a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    @Override
+    public double dotHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            sum += (double)Half.halfShortToFloat(a[i]) * Half.halfShortToFloat(b[i]);
+        }
+        return sum;
+    }
+
+    @Override
+    public double l2SquaredNormHalf(@Nonnull final short[] a) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            final double v = Half.halfShortToFloat(a[i]);
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    @Override
+    public double euclideanSquaredHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        double sum = 0.0d;
+        for (int i = 0; i < a.length; i++) {
+            final double diff = (double)Half.halfShortToFloat(a[i]) - Half.halfShortToFloat(b[i]);
+            sum += diff * diff;
+        }
+        return sum;
+    }
 }
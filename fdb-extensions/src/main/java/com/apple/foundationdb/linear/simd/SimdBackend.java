@@ -20,9 +20,14 @@
 
 package com.apple.foundationdb.linear.simd;
 
+import com.apple.foundationdb.half.Half;
 import com.apple.foundationdb.linear.Backend;
 import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
 import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
 import jdk.incubator.vector.VectorSpecies;
 
 import javax.annotation.Nonnull;
@@ -39,9 +44,29 @@ import javax.annotation.Nonnull;
  * {@link DoubleVector} via {@link DoubleVector#fma fused multiply-add} and reduce horizontally at
  * the end. The vectorized loop body is a no-op when the input is shorter than one vector lane,
  * so small vectors fall through to the scalar tail without any explicit threshold check.
+ * <p>
+ * The single- and half-precision reductions use {@link FloatVector} with
+ * {@link FloatVector#SPECIES_PREFERRED}; half-precision values are widened to float in registers.
  */
 public final class SimdBackend implements Backend {
     private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    /**
+     * Half-precision values are loaded at half the preferred width, so that, once widened, they fill
+     * exactly one {@link #FLOAT_SPECIES} vector.
+     */
+    private static final VectorSpecies<Short> HALF_SPECIES =
+            VectorSpecies.of(short.class, VectorShape.forBitSize(FLOAT_SPECIES.vectorBitSize() / 2));
+    /**
+     * The difference between the float and half exponent biases ({@code 127 - 15}), in the exponent
+     * bits of a float.
+     */
+    private static final int HALF_EXPONENT_REBIAS = (127 - 15) << 23;
+    /**
+     * {@code 2^-14}, the smallest normal half, which is subtracted to turn half subnormals into floats.
+     */
+    private static final float HALF_SUBNORMAL_MAGIC = 0x1.0p-14f;
 
     @Nonnull
     @Override
@@ -65,7 +90,11 @@ public final class SimdBackend implements Backend {
      * @return the number of leading elements covered by full unrolled iterations
      */
     private static int unrolledLoopBound(final int length, final int accCount) {
-        final int chunk = accCount * SPECIES.length();
+        return unrolledLoopBound(SPECIES, length, accCount);
+    }
+
+    private static int unrolledLoopBound(@Nonnull final VectorSpecies<?> species, final int length, final int accCount) {
+        final int chunk = accCount * species.length();
         return (length / chunk) * chunk;
     }
 
@@ -280,4 +309,210 @@ public final class SimdBackend implements Backend {
         }
         return sum;
     }
+
+    //
+    // Single-precision reductions: the same unrolled FMA loops as above on FloatVector, which has
+    // twice the lanes of DoubleVector at the same width. The accumulators are float; the final
+    // horizontal sum and the scalar tail are done in double.
+    //
+
+    @Override
+    public double dot(@Nonnull final float[] a, @Nonnull final float[] b) {
+        final int len = a.length;
+        final int laneCount = FLOAT_SPECIES.length();
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc0 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc1 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc2 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc3 = FloatVector.zero(FLOAT_SPECIES);
+
+        final int unrolledBound = unrolledLoopBound(FLOAT_SPECIES, len, 4);
+        int i = 0;
+        for (; i < unrolledBound; i += 4 * laneCount) {
+            acc0 = FloatVector.fromArray(FLOAT_SPECIES, a, i)
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES, b, i), acc0);
+            acc1 = FloatVector.fromArray(FLOAT_SPECIES, a, i + laneCount)
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES, b, i + laneCount), acc1);
+            acc2 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 2 * laneCount)
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES, b, i + 2 * laneCount), acc2);
+            acc3 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 3 * laneCount)
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES, b, i + 3 * laneCount), acc3);
+        }
+        for (; i < bound; i += laneCount) {
+            acc0 = FloatVector.fromArray(FLOAT_SPECIES, a, i)
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES, b, i), acc0);
+        }
+        double sum = acc0.add(acc1).add(acc2).add(acc3).reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            sum += (double)a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double l2SquaredNorm(@Nonnull final float[] a) {
+        final int len = a.length;
+        final int laneCount = FLOAT_SPECIES.length();
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc0 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc1 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc2 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc3 = FloatVector.zero(FLOAT_SPECIES);
+
+        final int unrolledBound = unrolledLoopBound(FLOAT_SPECIES, len, 4);
+        int i = 0;
+        for (; i < unrolledBound; i += 4 * laneCount) {
+            final FloatVector v0 = FloatVector.fromArray(FLOAT_SPECIES, a, i);
+            final FloatVector v1 = FloatVector.fromArray(FLOAT_SPECIES, a, i + laneCount);
+            final FloatVector v2 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 2 * laneCount);
+            final FloatVector v3 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 3 * laneCount);
+            acc0 = v0.fma(v0, acc0);
+            acc1 = v1.fma(v1, acc1);
+            acc2 = v2.fma(v2, acc2);
+            acc3 = v3.fma(v3, acc3);
+        }
+        for (; i < bound; i += laneCount) {
+            final FloatVector va = FloatVector.fromArray(FLOAT_SPECIES, a, i);
+            acc0 = va.fma(va, acc0);
+        }
+        double sum = acc0.add(acc1).add(acc2).add(acc3).reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            final double v = a[i];
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    @Override
+    public double euclideanSquared(@Nonnull final float[] a, @Nonnull final float[] b) {
+        final int len = a.length;
+        final int laneCount = FLOAT_SPECIES.length();
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc0 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc1 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc2 = FloatVector.zero(FLOAT_SPECIES);
+        FloatVector acc3 = FloatVector.zero(FLOAT_SPECIES);
+
+        final int unrolledBound = unrolledLoopBound(FLOAT_SPECIES, len, 4);
+        int i = 0;
+        for (; i < unrolledBound; i += 4 * laneCount) {
+            final FloatVector d0 = FloatVector.fromArray(FLOAT_SPECIES, a, i)
+                    .sub(FloatVector.fromArray(FLOAT_SPECIES, b, i));
+            final FloatVector d1 = FloatVector.fromArray(FLOAT_SPECIES, a, i + laneCount)
+                    .sub(FloatVector.fromArray(FLOAT_SPECIES, b, i + laneCount));
+            final FloatVector d2 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 2 * laneCount)
+                    .sub(FloatVector.fromArray(FLOAT_SPECIES, b, i + 2 * laneCount));
+            final FloatVector d3 = FloatVector.fromArray(FLOAT_SPECIES, a, i + 3 * laneCount)
+                    .sub(FloatVector.fromArray(FLOAT_SPECIES, b, i + 3 * laneCount));
+            acc0 = d0.fma(d0, acc0);
+            acc1 = d1.fma(d1, acc1);
+            acc2 = d2.fma(d2, acc2);
+            acc3 = d3.fma(d3, acc3);
+        }
+        for (; i < bound; i += laneCount) {
+            final FloatVector diff = FloatVector.fromArray(FLOAT_SPECIES, a, i)
+                    .sub(FloatVector.fromArray(FLOAT_SPECIES, b, i));
+            acc0 = diff.fma(diff, acc0);
+        }
+        double sum = acc0.add(acc1).add(acc2).add(acc3).reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            final double diff = (double)a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    //
+    // Half-precision reductions: each chunk of half bits is widened into one FloatVector by
+    // halfToFloat and then reduced as in the single-precision loops. These are deliberately not
+    // unrolled: widening already gives each iteration enough independent work, and more call sites
+    // of halfToFloat in one loop can exceed the JIT's inlining budget, at which point the vectors
+    // get boxed and the loop is many times slower.
+    //
+
+    /**
+     * Loads {@link #FLOAT_SPECIES FLOAT_SPECIES.length()} half-precision values starting at
+     * {@code offset} and widens them to {@code float}, with the same result as
+     * {@link Half#halfShortToFloat(short)} on each. Shifting the exponent and significand bits of a
+     * half into place in a float and adding the bias difference to the exponent gives the right
+     * float for normal halves. Subnormals are made normal by treating them as having the smallest
+     * normal exponent and then subtracting the implied leading one, and infinities and NaNs get an
+     * all-ones exponent. This stays in integer arithmetic apart from that one subtraction, whose
+     * operands are normal floats, so it never runs into the slow path that many processors take for
+     * subnormal floating-point operands.
+     *
+     * @param a half-precision bits
+     * @param offset index of the first value to load
+     * @return the widened values
+     */
+    @Nonnull
+    private static FloatVector halfToFloat(@Nonnull final short[] a, final int offset) {
+        final IntVector bits = (IntVector)ShortVector.fromArray(HALF_SPECIES, a, offset)
+                .convertShape(VectorOperators.S2I, INT_SPECIES, 0);
+        final IntVector sign = bits.and(0x8000).lanewise(VectorOperators.LSHL, 16);
+        final IntVector magnitude = bits.and(0x7fff);
+        final IntVector shifted = magnitude.lanewise(VectorOperators.LSHL, 13);
+        final IntVector normal = shifted.add(HALF_EXPONENT_REBIAS);
+        final IntVector subnormal = normal.add(1 << 23).reinterpretAsFloats().sub(HALF_SUBNORMAL_MAGIC).reinterpretAsInts();
+        final IntVector special = shifted.or(0x7f800000);
+        final IntVector unsigned = normal
+                .blend(subnormal, magnitude.compare(VectorOperators.LT, 0x0400))
+                .blend(special, magnitude.compare(VectorOperators.GE, 0x7c00));
+        return unsigned.or(sign).reinterpretAsFloats();
+    }
+
+    @Override
+    public double dotHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        final int len = a.length;
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+
+        int i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            acc = halfToFloat(a, i).fma(halfToFloat(b, i), acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            sum += (double)Half.halfShortToFloat(a[i]) * Half.halfShortToFloat(b[i]);
+        }
+        return sum;
+    }
+
+    @Override
+    public double l2SquaredNormHalf(@Nonnull final short[] a) {
+        final int len = a.length;
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+
+        int i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            final FloatVector va = halfToFloat(a, i);
+            acc = va.fma(va, acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            final double v = Half.halfShortToFloat(a[i]);
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    @Override
+    public double euclideanSquaredHalf(@Nonnull final short[] a, @Nonnull final short[] b) {
+        final int len = a.length;
+        final int bound = FLOAT_SPECIES.loopBound(len);
+        FloatVector acc = FloatVector.zero(FLOAT_SPECIES);
+
+        int i = 0;
+        for (; i < bound; i += FLOAT_SPECIES.length()) {
+            final FloatVector diff = halfToFloat(a, i).sub(halfToFloat(b, i));
+            acc = diff.fma(diff, acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            final double diff = (double)Half.halfShortToFloat(a[i]) - Half.halfShortToFloat(b[i]);
+            sum += diff * diff;
+        }
+        return sum;
+    }
 }
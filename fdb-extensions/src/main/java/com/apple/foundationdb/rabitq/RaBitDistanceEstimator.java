@@ -24,10 +24,30 @@ import com.apple.foundationdb.linear.DoubleRealVector;
 import com.apple.foundationdb.linear.DistanceEstimator;
 import com.apple.foundationdb.linear.Metric;
 import com.apple.foundationdb.linear.RealVector;
+import com.google.common.base.Preconditions;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 
 public class RaBitDistanceEstimator implements DistanceEstimator {
+    /**
+     * Number of bits each component of a query is quantized to by {@link #quantizeQuery(RealVector)}.
+     */
+    static final int QUERY_BITS = 8;
+
+    /**
+     * Relative slack added to the error of a batch estimate to account for floating point rounding, which can make
+     * the exact estimate differ from its value in exact arithmetic by a few ULPs.
+     */
+    private static final double ROUNDING_SLACK = 1e-9;
+
+    /**
+     * Number of dimensions over which the inner product of a quantized query and the codes of a vector can be
+     * accumulated in an {@code int}. Query components are below {@code 2^QUERY_BITS} and codes are below
+     * {@code 2^(numExBits + 1) <= 2^9}, so each product is below {@code 2^17}.
+     */
+    private static final int INT_ACCUMULATION_DIMENSIONS = 1 << 13;
+
     @Nonnull
     private final Metric metric;
     private final int numExBits;
@@ -139,6 +159,225 @@ public class RaBitDistanceEstimator implements DistanceEstimator {
         }
     }
 
+    /**
+     * Quantizes a query for use with {@link #estimateDistances(QuantizedQuery, List, double)}. The result only depends
+     * on the query, so it should be computed once and then be used for all batches of a search.
+     *
+     * @param query the (unencoded) query vector
+     * @return the quantized query
+     */
+    @Nonnull
+    public QuantizedQuery quantizeQuery(@Nonnull final RealVector query) {
+        return new QuantizedQuery(query);
+    }
+
+    /**
+     * Estimates the distances of a query to a batch of encoded vectors, computing the exact estimate only for those
+     * vectors that may be within a threshold distance of the query.
+     * <p>
+     * For every vector, a cheap estimate is computed first as the inner product of the integer codes of the vector
+     * and the integer components of the quantized query, which needs neither floating point arithmetic nor any
+     * allocation. Its deviation from the exact estimate is bounded by the quantization error of the query, so it
+     * yields a lower bound of the distance {@link #distance(RealVector, RealVector)} would return. Only if that lower
+     * bound does not exceed {@code threshold}, the vector is re-ranked using {@link #distance(RealVector, RealVector)}.
+     * A search that is only interested in vectors closer than its current {@code k}-th nearest neighbor can therefore
+     * pass that distance as {@code threshold} and skip the exact estimate for most candidates.
+     *
+     * @param query the quantized query
+     * @param encodedVectors the vectors to estimate the distances to
+     * @param threshold the distance beyond which the exact distance of a vector is not needed
+     * @return an array holding, for each vector, the distance {@link #distance(RealVector, RealVector)} returns for
+     *         it if that distance is at most {@code threshold}, and a lower bound of that distance that is greater
+     *         than {@code threshold} otherwise
+     */
+    @Nonnull
+    public double[] estimateDistances(@Nonnull final QuantizedQuery query,
+                                      @Nonnull final List<EncodedRealVector> encodedVectors,
+                                      final double threshold) {
+        final double[] distances = new double[encodedVectors.size()];
+        for (int i = 0; i < distances.length; i++) {
+            final EncodedRealVector encodedVector = encodedVectors.get(i);
+            Preconditions.checkArgument(encodedVector.getNumDimensions() == query.getNumDimensions(),
+                    "number of dimensions of vector does not match query");
+            if (query.isQuantized() && threshold < Double.POSITIVE_INFINITY) {
+                final double lowerBound = lowerBoundDistance(query, encodedVector);
+                if (lowerBound > threshold) {
+                    distances[i] = lowerBound;
+                    continue;
+                }
+            }
+            distances[i] = distance(query.getQuery(), encodedVector);
+        }
+        return distances;
+    }
+
+    private double lowerBoundDistance(@Nonnull final QuantizedQuery query,
+                                      @Nonnull final EncodedRealVector encodedVector) {
+        final int[] levels = query.getLevels();
+        final int[] codes = encodedVector.getEncodedData();
+
+        //
+        // Accumulate in ints, which lets the JIT vectorize the loop, but only over as many dimensions at a time as
+        // cannot overflow.
+        //
+        long ip = 0L;
+        long codeSum = 0L;
+        for (int from = 0; from < codes.length; from += INT_ACCUMULATION_DIMENSIONS) {
+            final int to = Math.min(from + INT_ACCUMULATION_DIMENSIONS, codes.length);
+            int partialIp = 0;
+            int partialCodeSum = 0;
+            for (int d = from; d < to; d++) {
+                partialIp += levels[d] * codes[d];
+                partialCodeSum += codes[d];
+            }
+            ip += partialIp;
+            codeSum += partialCodeSum;
+        }
+
+        final double cb = (1 << numExBits) - 0.5;
+        final double addEx = encodedVector.getAddEx();
+        final double rescaleEx = encodedVector.getRescaleEx();
+
+        // q * (c - cb) with each q_j approximated by min + delta * u_j, which is off by at most maxError
+        final double dot = query.getMin() * codeSum + query.getDelta() * ip - cb * query.getSum();
+        final double euclideanSquareRaw = addEx + query.getNormSqr() + rescaleEx * dot;
+        final double absDotBound =
+                (Math.abs(query.getMin()) + query.getMaxError()) * codeSum + query.getDelta() * ip +
+                        cb * query.getAbsSum();
+        final double euclideanSquareRawError =
+                Math.abs(rescaleEx) * query.getMaxError() * codeSum +
+                        ROUNDING_SLACK * (Math.abs(addEx) + query.getNormSqr() + Math.abs(rescaleEx) * absDotBound);
+        final double euclideanSquareRawLowerBound = euclideanSquareRaw - euclideanSquareRawError;
+
+        // these are the same monotonic mappings estimateDistanceAndErrorBound() applies
+        switch (metric) {
+            case COSINE_METRIC:
+                return 0.5 * euclideanSquareRawLowerBound;
+            case DOT_PRODUCT_METRIC:
+                return 0.5 * euclideanSquareRawLowerBound - 1;
+            case EUCLIDEAN_SQUARE_METRIC:
+                return Math.max(0.0, euclideanSquareRawLowerBound);
+            case EUCLIDEAN_METRIC:
+                return Math.sqrt(Math.max(0.0, euclideanSquareRawLowerBound));
+            default:
+                throw new UnsupportedOperationException("metric not supported by quantizer");
+        }
+    }
+
+    /**
+     * A query vector whose components are quantized to {@link #QUERY_BITS} bits. Component {@code j} of the query
+     * is approximated by {@code min + delta * u_j} where {@code u_j} is an integer in
+     * {@code [0, 2^QUERY_BITS - 1]}.
+     */
+    public static final class QuantizedQuery {
+        @Nonnull
+        private final RealVector query;
+        private final int numDimensions;
+        private final boolean quantized;
+        private final double normSqr;
+        private final double sum;
+        private final double absSum;
+        private final double min;
+        private final double delta;
+        private final double maxError;
+        @Nonnull
+        private final int[] levels;
+
+        private QuantizedQuery(@Nonnull final RealVector query) {
+            this.query = query;
+            this.numDimensions = query.getNumDimensions();
+            this.normSqr = query.l2SquaredNorm();
+
+            final double[] data = query.getData();
+            double sum = 0.0d;
+            double absSum = 0.0d;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (final double component : data) {
+                sum += component;
+                absSum += Math.abs(component);
+                min = Math.min(min, component);
+                max = Math.max(max, component);
+            }
+            this.sum = sum;
+            this.absSum = absSum;
+            this.levels = new int[numDimensions];
+
+            //
+            // A query that is the zero vector (which has no distance under the cosine metric) or that is not finite
+            // is not quantized; the exact estimate is always computed for it.
+            //
+            this.quantized = numDimensions > 0 && Double.isFinite(absSum) && Double.isFinite(normSqr) &&
+                    normSqr > 0.0;
+            if (!quantized) {
+                this.min = 0.0d;
+                this.delta = 0.0d;
+                this.maxError = 0.0d;
+                return;
+            }
+
+            final int maxLevel = (1 << QUERY_BITS) - 1;
+            this.min = min;
+            this.delta = (max - min) / maxLevel;
+            double maxError = 0.0d;
+            for (int d = 0; d < numDimensions; d++) {
+                levels[d] =
+                        delta > 0.0d
+                        ? (int)Math.max(0L, Math.min(maxLevel, Math.round((data[d] - min) / delta)))
+                        : 0;
+                maxError = Math.max(maxError, Math.abs(data[d] - (min + delta * levels[d])));
+            }
+            this.maxError = maxError;
+        }
+
+        @Nonnull
+        public RealVector getQuery() {
+            return query;
+        }
+
+        public int getNumDimensions() {
+            return numDimensions;
+        }
+
+        /**
+         * Returns whether the query could be quantized. If it could not, batch estimates always compute the exact
+         * estimate.
+         * @return {@code true} if the query is quantized
+         */
+        public boolean isQuantized() {
+            return quantized;
+        }
+
+        double getNormSqr() {
+            return normSqr;
+        }
+
+        double getSum() {
+            return sum;
+        }
+
+        double getAbsSum() {
+            return absSum;
+        }
+
+        double getMin() {
+            return min;
+        }
+
+        double getDelta() {
+            return delta;
+        }
+
+        double getMaxError() {
+            return maxError;
+        }
+
+        @Nonnull
+        int[] getLevels() {
+            return levels;
+        }
+    }
+
     public static class Result {
         private final double distance;
         private final double err;
@@ -24,6 +24,7 @@ import com.apple.foundationdb.Database;
 import com.apple.foundationdb.async.common.BaseTest;
 import com.apple.foundationdb.async.common.PrimaryKeyAndVector;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.async.hnsw.HNSW;
 import com.apple.foundationdb.linear.DoubleRealVector;
 import com.apple.foundationdb.linear.Metric;
@@ -88,6 +89,9 @@ import static org.assertj.core.api.Assertions.assertThat;
  * nightly builds, hence {@link SuperSlow}). The subsampled and delete-driven tests are parameterized over seeds
  * via {@link RandomSeedSource} so the reservoir sample and the random batch schedule are reproducible.
  *
+ * <p>{@link #filteredSearchSiftSmall} additionally checks k-nearest neighbors searches that filter on the covering
+ * values stored with each vector.
+ *
  * <h2>Why dynamic ground truth</h2>
  * Recall is evaluated everywhere via {@link TestHelpers#assertRecallAtKAtLeastDynamic}, which computes
  * brute-force squared-L2 top-k from the live active set on the fly. The static SIFT ground-truth files are
@@ -268,6 +272,62 @@ public class SiftTest implements BaseTest {
         runInsertThenDeleteAll(seed, startup, queries);
     }
 
+    // ---------------------------------------------------------------------------------------------------------
+    // Filtered search
+    // ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Insert a prefix of SIFT-small with a category stored as the covering value of each vector, then verify that a
+     * search filtering on one category only returns (and returns {@code k} of) vectors of that category, with a
+     * recall measured against the brute-force top-k of that category.
+     */
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.MINUTES)
+    void filteredSearchSiftSmall() throws Exception {
+        final int numCategories = 10;
+        final int k = 10;
+        final List<PrimaryKeyAndVector> dataset =
+                TestHelpers.loadVectors(SiftTestHelpers.SIFT_SMALL_BASE_PATH, 2_000);
+        final Guardiann guardiann = newGuardiann();
+        for (final PrimaryKeyAndVector record : dataset) {
+            getDb().run(tr -> {
+                guardiann.insert(tr, record.primaryKey(), record.vector(),
+                        Tuple.from(record.primaryKey().getLong(0) % numCategories)).join();
+                return null;
+            });
+        }
+        TestHelpers.runToQuiescence(getDb(), guardiann);
+
+        final long category = 3L;
+        final SearchFilter filter =
+                (primaryKey, additionalValues) -> additionalValues != null && additionalValues.getLong(0) == category;
+        final Map<Tuple, RealVector> matching = new HashMap<>();
+        for (final PrimaryKeyAndVector record : dataset) {
+            if (record.primaryKey().getLong(0) % numCategories == category) {
+                matching.put(record.primaryKey(), record.vector());
+            }
+        }
+
+        final List<DoubleRealVector> queries = loadQueries(SiftTestHelpers.SIFT_SMALL_QUERY_PATH).subList(0, 10);
+        double sumRecall = 0.0d;
+        for (final DoubleRealVector query : queries) {
+            final List<? extends ResultEntry> results =
+                    getDb().run(tr -> guardiann.kNearestNeighborsSearch(tr, k, TestHelpers.recallSearchConfig(),
+                            false, query, filter).join());
+            assertThat(results).hasSize(k);
+            assertThat(results).allSatisfy(resultEntry ->
+                    assertThat(resultEntry.additionalValues()).isEqualTo(Tuple.from(category)));
+
+            final Set<Integer> truth = TestHelpers.bruteForceTopKByEuclidean(query, matching, k);
+            sumRecall += (double)results.stream()
+                    .filter(resultEntry -> truth.contains((int)resultEntry.primaryKey().getLong(0)))
+                    .count() / k;
+        }
+        final double meanRecall = sumRecall / queries.size();
+        logger.info("filtered search mean recall@{} = {}", k, meanRecall);
+        assertThat(meanRecall).isGreaterThanOrEqualTo(MIN_RECALL);
+    }
+
     // ---------------------------------------------------------------------------------------------------------
     // Workload bodies
     // ---------------------------------------------------------------------------------------------------------
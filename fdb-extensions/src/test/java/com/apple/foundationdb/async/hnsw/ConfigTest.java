@@ -39,6 +39,7 @@ class ConfigTest {
         final int mMax0 = Config.DEFAULT_M_MAX_0 + 1;
         final int efConstruction = Config.DEFAULT_EF_CONSTRUCTION + 1;
         final int efRepair = Config.DEFAULT_EF_REPAIR + 1;
+        final int filteredSearchVisitFactor = Config.DEFAULT_FILTERED_SEARCH_VISIT_FACTOR + 1;
         final boolean extendCandidates = true;
         final boolean keepPrunedConnections = true;
         final int statsThreshold = 5000;
@@ -59,6 +60,7 @@ class ConfigTest {
         Assertions.assertThat(defaultConfig.mMax0()).isNotEqualTo(mMax0);
         Assertions.assertThat(defaultConfig.efConstruction()).isNotEqualTo(efConstruction);
         Assertions.assertThat(defaultConfig.efRepair()).isNotEqualTo(efRepair);
+        Assertions.assertThat(defaultConfig.filteredSearchVisitFactor()).isNotEqualTo(filteredSearchVisitFactor);
         Assertions.assertThat(defaultConfig.extendCandidates()).isNotEqualTo(extendCandidates);
         Assertions.assertThat(defaultConfig.keepPrunedConnections()).isNotEqualTo(keepPrunedConnections);
 
@@ -82,6 +84,7 @@ class ConfigTest {
                         .setMMax0(mMax0)
                         .setEfConstruction(efConstruction)
                         .setEfRepair(efRepair)
+                        .setFilteredSearchVisitFactor(filteredSearchVisitFactor)
                         .setExtendCandidates(extendCandidates)
                         .setKeepPrunedConnections(keepPrunedConnections)
                         .setSampleVectorStatsProbability(sampleVectorStatsProbability)
@@ -101,6 +104,7 @@ class ConfigTest {
         Assertions.assertThat(newConfig.mMax0()).isEqualTo(mMax0);
         Assertions.assertThat(newConfig.efConstruction()).isEqualTo(efConstruction);
         Assertions.assertThat(newConfig.efRepair()).isEqualTo(efRepair);
+        Assertions.assertThat(newConfig.filteredSearchVisitFactor()).isEqualTo(filteredSearchVisitFactor);
         Assertions.assertThat(newConfig.extendCandidates()).isEqualTo(extendCandidates);
         Assertions.assertThat(newConfig.keepPrunedConnections()).isEqualTo(keepPrunedConnections);
 
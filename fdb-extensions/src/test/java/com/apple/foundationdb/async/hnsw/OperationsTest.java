@@ -21,12 +21,14 @@
 package com.apple.foundationdb.async.hnsw;
 
 import com.apple.foundationdb.Database;
+import com.apple.foundationdb.Transaction;
 import com.apple.foundationdb.async.AsyncIterator;
 import com.apple.foundationdb.async.common.BaseTest;
 import com.apple.foundationdb.async.common.CommonTestHelpers;
 import com.apple.foundationdb.async.common.PrimaryKeyAndVector;
 import com.apple.foundationdb.async.common.PrimaryKeyVectorAndDistance;
 import com.apple.foundationdb.async.common.ResultEntry;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.async.common.StorageTransform;
 import com.apple.foundationdb.async.hnsw.TestHelpers.TestOnReadListener;
 import com.apple.foundationdb.async.hnsw.TestHelpers.TestOnWriteListener;
@@ -405,6 +407,145 @@ class OperationsTest implements BaseTest {
         assertThat(readIds.size()).isBetween(10, 100);
     }
 
+    @ExtendWith(TestHelpers.DumpLayersIfFailure.class)
+    @ParameterizedTest
+    @MethodSource("differentConfigsAndMetrics")
+    void testBatchInsert(final long seed, final Config config) {
+        final Random random = new Random(seed);
+        final int size = 1000;
+        final int batchSize = 100;
+        final TestOnWriteListener onWriteListener = new TestOnWriteListener();
+        final TestOnReadListener onReadListener = new TestOnReadListener();
+
+        final HNSW hnsw = new HNSW(subspaceExtension.getSubspace(), TestExecutors.defaultThreadPool(), config,
+                onWriteListener, onReadListener);
+
+        final int k = 50;
+        final List<PrimaryKeyAndVector> insertedData = randomVectors(random, config.numDimensions(), size);
+
+        for (int i = 0; i < size; i += batchSize) {
+            final List<InsertEntry> entries = Lists.newArrayList();
+            for (final PrimaryKeyAndVector record : insertedData.subList(i, i + batchSize)) {
+                entries.add(new InsertEntry(record.primaryKey(), record.vector(), null));
+            }
+            // an entry repeated within the batch and one that already exists are both ignored
+            entries.add(new InsertEntry(insertedData.get(i).primaryKey(),
+                    createRandomHalfVector(random, config.numDimensions()), null));
+            if (i > 0) {
+                entries.add(new InsertEntry(insertedData.get(i - 1).primaryKey(),
+                        createRandomHalfVector(random, config.numDimensions()), null));
+            }
+            final long beginTs = System.nanoTime();
+            db.run(tr -> hnsw.insertBatch(tr, entries).join());
+            logger.info("inserted batch of batchSize={} starting at nodeId={} took elapsedTime={}ms", batchSize, i,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - beginTs));
+        }
+
+        final HalfRealVector queryVector = createRandomHalfVector(random, config.numDimensions());
+        final List<? extends ResultEntry> results =
+                db.run(tr ->
+                        hnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join());
+
+        final ImmutableSet<Tuple> trueNN =
+                orderedByDistances(config.metric(), insertedData, queryVector).stream()
+                        .limit(k)
+                        .map(PrimaryKeyVectorAndDistance::primaryKey)
+                        .collect(ImmutableSet.toImmutableSet());
+
+        int recallCount = 0;
+        for (ResultEntry resultEntry : results) {
+            if (trueNN.contains(resultEntry.primaryKey())) {
+                recallCount++;
+            }
+        }
+        final double recall = (double)recallCount / (double)k;
+        logger.info("search after batch inserts recall={}", String.format(Locale.ROOT, "%.2f", recall * 100.0d));
+        assertThat(recall).isGreaterThan(0.9);
+
+        final Set<Long> insertedIds =
+                LongStream.range(0, size)
+                        .boxed()
+                        .collect(Collectors.toSet());
+
+        final Set<Long> readIds = Sets.newHashSet();
+        TestHelpers.scanLayer(getDb(), getSubspace(), config, 0, 100,
+                node -> {
+                    assertThat(readIds.add(node.getPrimaryKey().getLong(0))).isTrue();
+                    assertThat(node.getNeighbors().size()).isLessThanOrEqualTo(config.mMax0());
+                });
+        assertThat(readIds).isEqualTo(insertedIds);
+    }
+
+    @ExtendWith(TestHelpers.DumpLayersIfFailure.class)
+    @ParameterizedTest
+    @MethodSource("differentMetrics")
+    void testFilteredSearch(final long seed, final Config config) {
+        final Random random = new Random(seed);
+        final int size = 1000;
+        final int numCategories = 10;
+        final TestOnReadListener onReadListener = new TestOnReadListener();
+
+        final HNSW hnsw = new HNSW(subspaceExtension.getSubspace(), TestExecutors.defaultThreadPool(), config,
+                OnWriteListener.NOOP, onReadListener);
+
+        final int k = 20;
+        final List<PrimaryKeyAndVector> insertedData = randomVectors(random, config.numDimensions(), size);
+
+        for (int i = 0; i < size; i += 100) {
+            final List<InsertEntry> entries = Lists.newArrayList();
+            for (final PrimaryKeyAndVector record : insertedData.subList(i, i + 100)) {
+                entries.add(new InsertEntry(record.primaryKey(), record.vector(),
+                        Tuple.from(record.primaryKey().getLong(0) % numCategories)));
+            }
+            db.run(tr -> hnsw.insertBatch(tr, entries).join());
+        }
+
+        final long category = random.nextInt(numCategories);
+        final SearchFilter filter =
+                (primaryKey, additionalValues) ->
+                        additionalValues != null && additionalValues.getLong(0) == category;
+
+        final HalfRealVector queryVector = createRandomHalfVector(random, config.numDimensions());
+        onReadListener.reset();
+        final List<? extends ResultEntry> results =
+                db.run(tr ->
+                        hnsw.kNearestNeighborsSearch(tr, k, 40, true, queryVector, filter).join());
+
+        final ImmutableSet<Tuple> trueNN =
+                orderedByDistances(config.metric(),
+                        insertedData.stream()
+                                .filter(record -> record.primaryKey().getLong(0) % numCategories == category)
+                                .collect(Collectors.toList()),
+                        queryVector).stream()
+                        .limit(k)
+                        .map(PrimaryKeyVectorAndDistance::primaryKey)
+                        .collect(ImmutableSet.toImmutableSet());
+
+        assertThat(results).hasSize(k);
+        int recallCount = 0;
+        for (ResultEntry resultEntry : results) {
+            assertThat(resultEntry.additionalValues()).isEqualTo(Tuple.from(category));
+            if (trueNN.contains(resultEntry.primaryKey())) {
+                recallCount++;
+            }
+        }
+        final double recall = (double)recallCount / (double)k;
+        logger.info("filtered search read nodes={}, recall={}", onReadListener.getNodeCountByLayer(),
+                String.format(Locale.ROOT, "%.2f", recall * 100.0d));
+        assertThat(recall).isGreaterThan(0.9);
+
+        // a filter no node matches must not make the search traverse all of layer 0
+        final HNSW budgetedHnsw = new HNSW(subspaceExtension.getSubspace(), TestExecutors.defaultThreadPool(),
+                config.toBuilder().setFilteredSearchVisitFactor(2).build(config.numDimensions()),
+                OnWriteListener.NOOP, onReadListener);
+        onReadListener.reset();
+        assertThat(db.run(tr ->
+                budgetedHnsw.kNearestNeighborsSearch(tr, k, 40, true, queryVector,
+                        (primaryKey, additionalValues) -> false).join()))
+                .isEmpty();
+        assertThat(onReadListener.getNodeCountByLayer().getOrDefault(0, 0L)).isLessThan(size / 2);
+    }
+
     @ExtendWith(TestHelpers.DumpLayersIfFailure.class)
     @ParameterizedTest
     @MethodSource("differentMetrics")
@@ -456,6 +597,62 @@ class OperationsTest implements BaseTest {
         assertThat(recall).isGreaterThan(0.8);
     }
 
+    @ExtendWith(TestHelpers.DumpLayersIfFailure.class)
+    @ParameterizedTest
+    @MethodSource("differentConfigs")
+    void testUpperLayerNodeCache(final long seed, final Config config) throws ExecutionException, InterruptedException, TimeoutException {
+        final Random random = new Random(seed);
+        final int size = 500;
+        final TestOnReadListener onReadListener = new TestOnReadListener();
+        final UpperLayerNodeCache upperLayerNodeCache = new UpperLayerNodeCache();
+
+        final HNSW hnsw = new HNSW(subspaceExtension.getSubspace(), TestExecutors.defaultThreadPool(), config,
+                OnWriteListener.NOOP, OnReadListener.NOOP);
+        final HNSW cachedHnsw = new HNSW(subspaceExtension.getSubspace(), TestExecutors.defaultThreadPool(), config,
+                OnWriteListener.NOOP, onReadListener, upperLayerNodeCache);
+
+        final int k = 10;
+        final List<PrimaryKeyAndVector> insertedData = randomVectors(random, config.numDimensions(), 2 * size);
+
+        for (int i = 0; i < size;) {
+            i += TestHelpers.basicInsertBatch(getDb(), hnsw, 100, i,
+                    (tr, nextId) -> insertedData.get(Math.toIntExact(nextId))).size();
+        }
+
+        final HalfRealVector queryVector = createRandomHalfVector(random, config.numDimensions());
+        final List<? extends ResultEntry> expectedResults =
+                db.run(tr -> hnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join());
+
+        // the first search fills the cache, the second one must not read any node above layer 0
+        assertThat(db.run(tr -> cachedHnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join()))
+                .isEqualTo(expectedResults);
+        assertThat(upperLayerNodeCache.size()).isPositive();
+        onReadListener.reset();
+        assertThat(db.run(tr -> cachedHnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join()))
+                .isEqualTo(expectedResults);
+        assertThat(onReadListener.getNodeCountByLayer())
+                .allSatisfy((layer, count) -> assertThat(layer).isZero());
+
+        // a search in a transaction that changes the graph itself bypasses the cache
+        final PrimaryKeyAndVector extraData = insertedData.get(size);
+        try (Transaction tr = db.createTransaction()) {
+            cachedHnsw.insert(tr, extraData.primaryKey(), extraData.vector(), null).join();
+            assertThat(cachedHnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join())
+                    .isEqualTo(hnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join());
+        }
+
+        // once the upper layers change, the cached nodes are no longer used
+        for (int i = size; i < 2 * size;) {
+            i += TestHelpers.basicInsertBatch(getDb(), hnsw, 100, i,
+                    (tr, nextId) -> insertedData.get(Math.toIntExact(nextId))).size();
+        }
+        onReadListener.reset();
+        final List<? extends ResultEntry> newResults =
+                db.run(tr -> cachedHnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join());
+        assertThat(onReadListener.getNodeCountByLayer()).containsKey(1);
+        assertThat(newResults).isEqualTo(db.run(tr -> hnsw.kNearestNeighborsSearch(tr, k, 100, true, queryVector).join()));
+    }
+
     @ParameterizedTest
     @MethodSource("differentConfigsAndMetrics")
     void testBasicInsertDelete(final long seed, final Config config) throws ExecutionException, InterruptedException, TimeoutException {
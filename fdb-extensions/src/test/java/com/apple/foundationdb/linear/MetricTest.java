@@ -137,6 +137,31 @@ class MetricTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("randomSeedsWithMetrics")
+    void reducedPrecisionDistanceTest(final long seed, @Nonnull final Metric metric, final int numDimensions) {
+        final Random random = new Random(seed);
+
+        for (int i = 0; i < 100; i ++) {
+            final RealVector x = randomV(random, numDimensions);
+            final RealVector y = randomV(random, numDimensions);
+
+            // Distances between two float or two half vectors, or between a float and a double vector, use the
+            // reduced-precision kernels, but must agree with the distance between the same single-precision
+            // components, widened.
+            for (final RealVector[] pair : new RealVector[][] {
+                    {x.toFloatRealVector(), y.toFloatRealVector()},
+                    {x.toHalfRealVector(), y.toHalfRealVector()},
+                    {x.toFloatRealVector(), y},
+                    {x, FloatRealVector.fromBytes(y.toFloatRealVector().getRawData())}}) {
+                final double expected = metric.distance(pair[0].toFloatRealVector().getData(),
+                        pair[1].toFloatRealVector().getData());
+                Assertions.assertThat(metric.distance(pair[0], pair[1]))
+                        .isCloseTo(expected, Offset.offset(1E-5d * Math.max(1.0d, Math.abs(expected))));
+            }
+        }
+    }
+
     static boolean triangleHolds(double distanceXY, double distanceYZ, double distanceXZ, int numOperations) {
         double u = 0x1p-53;                                           // relative error ~1.11e-16
         double gamma = (numOperations * u) / (1 - numOperations * u); // ~ n*u
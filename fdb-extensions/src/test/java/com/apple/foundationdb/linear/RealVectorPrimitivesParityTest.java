@@ -20,18 +20,21 @@
 
 package com.apple.foundationdb.linear;
 
+import com.apple.foundationdb.half.Half;
 import com.apple.test.RandomSeedSource;
 import com.apple.test.RandomizedTestUtils;
 import com.apple.test.Tags;
 import com.google.common.collect.ImmutableList;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Stream;
@@ -340,6 +343,107 @@ class RealVectorPrimitivesParityTest {
         return result;
     }
 
+    @ParameterizedTest(name = "seed={0}, len={1}")
+    @MethodSource("randomSeedsWithLengths")
+    @DisplayName("dot/l2SquaredNorm/euclideanSquared on float[]")
+    void singlePrecisionReductions(final long seed, final int len) {
+        final Random rnd = new Random(seed);
+        final double[] a = toDoubles(toFloats(randomVector(rnd, len)));
+        final double[] b = toDoubles(toFloats(randomVector(rnd, len)));
+        final ScalarBackend scalar = new ScalarBackend();
+        final double tol = singlePrecisionTol(len, scalar.l2SquaredNorm(a) + scalar.l2SquaredNorm(b));
+
+        assertThat(RealVectorPrimitives.dot(toFloats(a), toFloats(b)))
+                .isCloseTo(scalar.dot(a, b), within(tol));
+        assertThat(RealVectorPrimitives.l2SquaredNorm(toFloats(a)))
+                .isCloseTo(scalar.l2SquaredNorm(a), within(tol));
+        assertThat(RealVectorPrimitives.euclideanSquared(toFloats(a), toFloats(b)))
+                .isCloseTo(scalar.euclideanSquared(a, b), within(tol));
+    }
+
+    @ParameterizedTest(name = "seed={0}, len={1}")
+    @MethodSource("randomSeedsWithLengths")
+    @DisplayName("dot/l2SquaredNorm/euclideanSquared on half-precision bits")
+    void halfPrecisionReductions(final long seed, final int len) {
+        final Random rnd = new Random(seed);
+        final short[] a = toHalves(randomVector(rnd, len));
+        final short[] b = toHalves(randomVector(rnd, len));
+        final ScalarBackend scalar = new ScalarBackend();
+        final double[] aWide = toDoubles(a);
+        final double[] bWide = toDoubles(b);
+        final double tol = singlePrecisionTol(len, scalar.l2SquaredNorm(aWide) + scalar.l2SquaredNorm(bWide));
+
+        assertThat(RealVectorPrimitives.dotHalf(a, b))
+                .isCloseTo(scalar.dot(aWide, bWide), within(tol));
+        assertThat(RealVectorPrimitives.l2SquaredNormHalf(a))
+                .isCloseTo(scalar.l2SquaredNorm(aWide), within(tol));
+        assertThat(RealVectorPrimitives.euclideanSquaredHalf(a, b))
+                .isCloseTo(scalar.euclideanSquared(aWide, bWide), within(tol));
+    }
+
+    /**
+     * Checks that every half-precision bit pattern, including subnormals, infinities and NaNs, is
+     * widened exactly as {@link Half#halfShortToFloat(short)} does. The vectors are long enough to go
+     * through the vectorized loop of the SIMD backend.
+     */
+    @Test
+    void halfPrecisionWidening() {
+        final short[] b = new short[64];
+        b[0] = Half.floatToShortBitsCollapseNaN(1.0f);
+        final short[] a = new short[64];
+        for (int bits = 0; bits <= 0xffff; bits++) {
+            Arrays.fill(a, (short)bits);
+            final double expected = Half.halfShortToFloat((short)bits);
+            final double actual = RealVectorPrimitives.dotHalf(a, b);
+            if (Double.isNaN(expected)) {
+                assertThat(actual).as("bits %04x", bits).isNaN();
+            } else {
+                assertThat(actual).as("bits %04x", bits).isEqualTo(expected);
+            }
+        }
+    }
+
+    /** Tolerance for reductions accumulated in {@code float}, relative to the magnitude of the inputs. */
+    private static double singlePrecisionTol(final int len, final double magnitude) {
+        return Math.max(1.0e-6d, magnitude * 1.0e-7d * len);
+    }
+
+    @Nonnull
+    private static float[] toFloats(@Nonnull final double[] v) {
+        final float[] result = new float[v.length];
+        for (int i = 0; i < v.length; i++) {
+            result[i] = (float)v[i];
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static double[] toDoubles(@Nonnull final float[] v) {
+        final double[] result = new double[v.length];
+        for (int i = 0; i < v.length; i++) {
+            result[i] = v[i];
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static short[] toHalves(@Nonnull final double[] v) {
+        final short[] result = new short[v.length];
+        for (int i = 0; i < v.length; i++) {
+            result[i] = Half.floatToShortBitsCollapseNaN((float)v[i]);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static double[] toDoubles(@Nonnull final short[] v) {
+        final double[] result = new double[v.length];
+        for (int i = 0; i < v.length; i++) {
+            result[i] = Half.halfShortToFloat(v[i]);
+        }
+        return result;
+    }
+
     private static void assertVectorClose(@Nonnull final double[] expected, @Nonnull final double[] actual) {
         assertThat(actual).hasSize(expected.length);
         for (int i = 0; i < expected.length; i++) {
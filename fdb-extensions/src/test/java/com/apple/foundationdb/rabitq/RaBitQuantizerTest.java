@@ -28,7 +28,9 @@ import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.linear.RealVectorTest;
 import com.apple.foundationdb.linear.Transformed;
 import com.apple.test.RandomizedTestUtils;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.data.Offset;
@@ -39,6 +41,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Random;
@@ -459,6 +463,47 @@ public class RaBitQuantizerTest {
         Assertions.assertThat(sumRelativeError / numRounds).isLessThan(0.3d);
     }
 
+    @ParameterizedTest
+    @MethodSource("randomSeedsWithNumDimensionsAndNumExBits")
+    void batchEstimationTest(final long seed, final int numDimensions, final int numExBits) {
+        final Random random = new Random(seed);
+        final int numVectors = 200;
+        for (final Metric metric : ImmutableList.of(Metric.EUCLIDEAN_METRIC, Metric.EUCLIDEAN_SQUARE_METRIC,
+                Metric.DOT_PRODUCT_METRIC, Metric.COSINE_METRIC)) {
+            final RaBitQuantizer quantizer = new RaBitQuantizer(metric, numExBits);
+            final RaBitDistanceEstimator estimator = quantizer.estimator();
+            final List<EncodedRealVector> encodedVectors = Lists.newArrayList();
+            for (int i = 0; i < numVectors; i++) {
+                encodedVectors.add(quantizer.encode(createRandomDoubleVector(random, numDimensions)));
+            }
+            final RealVector q = createRandomDoubleVector(random, numDimensions);
+            final double[] distances = new double[numVectors];
+            for (int i = 0; i < numVectors; i++) {
+                distances[i] = estimator.distance(q, encodedVectors.get(i));
+            }
+            final double threshold = Arrays.stream(distances).sorted().skip(numVectors / 10).findFirst().orElseThrow();
+
+            final RaBitDistanceEstimator.QuantizedQuery quantizedQuery = estimator.quantizeQuery(q);
+            final double[] batchDistances = estimator.estimateDistances(quantizedQuery, encodedVectors, threshold);
+            int numSkipped = 0;
+            for (int i = 0; i < numVectors; i++) {
+                if (distances[i] <= threshold) {
+                    Assertions.assertThat(batchDistances[i]).isEqualTo(distances[i]);
+                } else if (batchDistances[i] != distances[i]) {
+                    // a lower bound that is still beyond the threshold
+                    Assertions.assertThat(batchDistances[i]).isGreaterThan(threshold)
+                            .isLessThanOrEqualTo(distances[i] + 1e-9d);
+                    numSkipped++;
+                }
+            }
+            logger.info("metric={}; skipped {} of {} exact estimates", metric, numSkipped, numVectors);
+
+            // without a threshold every vector is estimated exactly
+            Assertions.assertThat(estimator.estimateDistances(quantizedQuery, encodedVectors, Double.POSITIVE_INFINITY))
+                    .containsExactly(distances);
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("randomSeedsWithNumDimensionsAndNumExBits")
     void serializationRoundTripTest(final long seed, final int numDimensions, final int numExBits) {
@@ -75,9 +75,13 @@ public class ExecuteProperties {
 
     private final CursorStreamingMode defaultCursorStreamingMode;
 
+    // how many segments of a range scan split at shard boundaries are read concurrently; 1 for a single sequential scan
+    private final int scanParallelism;
+
     @SuppressWarnings("java:S107")
     private ExecuteProperties(int skip, int rowLimit, @Nonnull IsolationLevel isolationLevel, long timeLimit,
-                              @Nonnull ExecuteState state, boolean failOnScanLimitReached, @Nonnull CursorStreamingMode defaultCursorStreamingMode, boolean isDryRun) {
+                              @Nonnull ExecuteState state, boolean failOnScanLimitReached, @Nonnull CursorStreamingMode defaultCursorStreamingMode, boolean isDryRun,
+                              int scanParallelism) {
         this.skip = skip;
         this.rowLimit = rowLimit;
         this.isolationLevel = isolationLevel;
@@ -86,6 +90,7 @@ public class ExecuteProperties {
         this.failOnScanLimitReached = failOnScanLimitReached;
         this.defaultCursorStreamingMode = defaultCursorStreamingMode;
         this.isDryRun = isDryRun;
+        this.scanParallelism = scanParallelism;
     }
 
     @Nonnull
@@ -102,7 +107,7 @@ public class ExecuteProperties {
         if (skip == this.skip) {
             return this;
         }
-        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     public boolean isDryRun() {
@@ -114,7 +119,7 @@ public class ExecuteProperties {
         if (isDryRun == this.isDryRun) {
             return this;
         }
-        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
 
@@ -137,7 +142,7 @@ public class ExecuteProperties {
         if (newLimit == this.rowLimit) {
             return this;
         }
-        return copy(skip, newLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, newLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -184,7 +189,7 @@ public class ExecuteProperties {
      */
     @Nonnull
     public ExecuteProperties setState(@Nonnull ExecuteState newState) {
-        return copy(skip, rowLimit, timeLimit, isolationLevel, newState, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, newState, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -193,7 +198,7 @@ public class ExecuteProperties {
      */
     @Nonnull
     public ExecuteProperties clearState() {
-        return copy(skip, rowLimit, timeLimit, isolationLevel, new ExecuteState(), failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, new ExecuteState(), failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -209,7 +214,7 @@ public class ExecuteProperties {
         if (failOnScanLimitReached == this.failOnScanLimitReached) {
             return this;
         }
-        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     @Nonnull
@@ -217,7 +222,7 @@ public class ExecuteProperties {
         if (getReturnedRowLimit() == ReadTransaction.ROW_LIMIT_UNLIMITED) {
             return this;
         }
-        return copy(skip, ReadTransaction.ROW_LIMIT_UNLIMITED, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, ReadTransaction.ROW_LIMIT_UNLIMITED, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -229,7 +234,7 @@ public class ExecuteProperties {
         if (getTimeLimit() == UNLIMITED_TIME && getReturnedRowLimit() == ReadTransaction.ROW_LIMIT_UNLIMITED) {
             return this;
         }
-        return copy(skip, ReadTransaction.ROW_LIMIT_UNLIMITED, UNLIMITED_TIME, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, ReadTransaction.ROW_LIMIT_UNLIMITED, UNLIMITED_TIME, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -241,7 +246,7 @@ public class ExecuteProperties {
         if (skip == 0 && rowLimit == ReadTransaction.ROW_LIMIT_UNLIMITED) {
             return this;
         }
-        return copy(0, ReadTransaction.ROW_LIMIT_UNLIMITED, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(0, ReadTransaction.ROW_LIMIT_UNLIMITED, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -254,7 +259,7 @@ public class ExecuteProperties {
             return this;
         }
         return copy(0, rowLimit == ReadTransaction.ROW_LIMIT_UNLIMITED ? ReadTransaction.ROW_LIMIT_UNLIMITED : rowLimit + skip,
-                timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+                timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -305,7 +310,33 @@ public class ExecuteProperties {
         if (defaultCursorStreamingMode == this.defaultCursorStreamingMode) {
             return this;
         }
-        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
+    }
+
+    /**
+     * Get the number of segments of a range scan that are read concurrently.
+     * When greater than one, record scans and value index scans are split at the boundaries of the shards
+     * that store them and those segments are read by a {@link com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor}.
+     * Continuations of a scan executed with parallelism are not compatible with those of one executed without.
+     * @return the number of segments read concurrently
+     */
+    public int getScanParallelism() {
+        return scanParallelism;
+    }
+
+    /**
+     * Set the number of segments of a range scan that are read concurrently.
+     * @param scanParallelism the number of segments read concurrently or {@code 1} to scan sequentially
+     * @return a new <code>ExecuteProperties</code> with the given scan parallelism
+     * @see #getScanParallelism()
+     */
+    @Nonnull
+    public ExecuteProperties setScanParallelism(int scanParallelism) {
+        final int newParallelism = validateScanParallelism(scanParallelism);
+        if (newParallelism == this.scanParallelism) {
+            return this;
+        }
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, newParallelism);
     }
 
     /**
@@ -315,7 +346,7 @@ public class ExecuteProperties {
      */
     @Nonnull
     public ExecuteProperties resetState() {
-        return copy(skip, rowLimit, timeLimit, isolationLevel, state.reset(), failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+        return copy(skip, rowLimit, timeLimit, isolationLevel, state.reset(), failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     /**
@@ -328,13 +359,15 @@ public class ExecuteProperties {
      * @param failOnScanLimitReached fail on scan limit reached
      * @param defaultCursorStreamingMode default streaming mode
      * @param isDryRun whether it is dry run
+     * @param scanParallelism number of segments of a range scan to read concurrently
      * @return a new properties with the given fields changed and other fields copied from this properties
      */
     @SuppressWarnings("java:S107")
     @Nonnull
     protected ExecuteProperties copy(int skip, int rowLimit, long timeLimit, @Nonnull IsolationLevel isolationLevel,
-                                     @Nonnull ExecuteState state, boolean failOnScanLimitReached, CursorStreamingMode defaultCursorStreamingMode, boolean isDryRun) {
-        return new ExecuteProperties(skip, rowLimit, isolationLevel, timeLimit, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+                                     @Nonnull ExecuteState state, boolean failOnScanLimitReached, CursorStreamingMode defaultCursorStreamingMode, boolean isDryRun,
+                                     int scanParallelism) {
+        return new ExecuteProperties(skip, rowLimit, isolationLevel, timeLimit, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
     }
 
     @Nonnull
@@ -349,6 +382,13 @@ public class ExecuteProperties {
         return rowLimit == Integer.MAX_VALUE ? ReadTransaction.ROW_LIMIT_UNLIMITED : rowLimit;
     }
 
+    private static int validateScanParallelism(final int scanParallelism) {
+        if (scanParallelism < 1) {
+            throw new RecordCoreException("Invalid scan parallelism specified: " + scanParallelism);
+        }
+        return scanParallelism;
+    }
+
     private static long validateAndNormalizeTimeLimit(final long timeLimit) {
         if (timeLimit < 0L) {
             throw new RecordCoreException("Invalid time limit specified: " + timeLimit);
@@ -388,6 +428,9 @@ public class ExecuteProperties {
         if (failOnScanLimitReached) {
             components.add("fail on scan limit");
         }
+        if (scanParallelism != 1) {
+            components.add("scanParallelism " + scanParallelism);
+        }
         components.add(state.toString());
         return "ExecuteProperties(" + String.join(", ", components) + ")";
     }
@@ -409,6 +452,7 @@ public class ExecuteProperties {
         private boolean failOnScanLimitReached = false;
         private boolean isDryRun = false;
         private CursorStreamingMode defaultCursorStreamingMode = CursorStreamingMode.ITERATOR;
+        private int scanParallelism = 1;
 
         private Builder() {
         }
@@ -422,6 +466,7 @@ public class ExecuteProperties {
             this.failOnScanLimitReached = executeProperties.failOnScanLimitReached;
             this.defaultCursorStreamingMode = executeProperties.defaultCursorStreamingMode;
             this.isDryRun = executeProperties.isDryRun;
+            this.scanParallelism = executeProperties.scanParallelism;
         }
 
         @Nonnull
@@ -593,6 +638,21 @@ public class ExecuteProperties {
             return this;
         }
 
+        /**
+         * Set the number of segments of a range scan that are read concurrently.
+         * @param scanParallelism the number of segments read concurrently or {@code 1} to scan sequentially
+         * @return an updated builder
+         * @see ExecuteProperties#getScanParallelism()
+         */
+        public Builder setScanParallelism(int scanParallelism) {
+            this.scanParallelism = validateScanParallelism(scanParallelism);
+            return this;
+        }
+
+        public int getScanParallelism() {
+            return scanParallelism;
+        }
+
         @Nonnull
         public ExecuteProperties build() {
             final ExecuteState state;
@@ -607,7 +667,7 @@ public class ExecuteProperties {
             } else {
                 state = new ExecuteState(RecordScanLimiterFactory.enforce(scannedRecordsLimit), ByteScanLimiterFactory.enforce(scannedBytesLimit));
             }
-            return new ExecuteProperties(skip, rowLimit, isolationLevel, timeLimit, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun);
+            return new ExecuteProperties(skip, rowLimit, isolationLevel, timeLimit, state, failOnScanLimitReached, defaultCursorStreamingMode, isDryRun, scanParallelism);
         }
     }
 }
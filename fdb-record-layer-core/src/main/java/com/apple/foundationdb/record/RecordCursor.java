@@ -23,6 +23,7 @@ package com.apple.foundationdb.record;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.AsyncIterator;
 import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.cursors.AdaptivePipelineSize;
 import com.apple.foundationdb.record.cursors.AsyncIteratorCursor;
 import com.apple.foundationdb.record.cursors.EmptyCursor;
 import com.apple.foundationdb.record.cursors.FilterCursor;
@@ -247,6 +248,28 @@ public interface RecordCursor<T> extends AutoCloseable {
         }
     }
 
+    /**
+     * Asynchronously return up to {@code maxBatchSize} values from this cursor as a single {@link RecordCursorBatch}.
+     * The batch has one continuation, positioned after its last value, so this avoids allocating a result and a
+     * continuation for every element. If the cursor stops while filling the batch, the batch is terminal and
+     * carries the {@link NoNextReason} and continuation that {@link #onNext()} would have returned.
+     *
+     * <p>
+     * Calls to {@code onNextBatch} and {@link #onNext()} can be freely interleaved. The default implementation
+     * builds the batch from {@link #onNext()}; cursors that can produce many values at once, such as scans and
+     * simple per-element transformations, override it to do so without going through individual results.
+     * </p>
+     *
+     * @param maxBatchSize the maximum number of values to return, which must be positive
+     * @return a future for the next batch of values from this cursor
+     * @see RecordCursorBatch
+     */
+    @Nonnull
+    @API(API.Status.EXPERIMENTAL)
+    default CompletableFuture<RecordCursorBatch<T>> onNextBatch(int maxBatchSize) {
+        return RecordCursorBatch.fromCursor(this, maxBatchSize);
+    }
+
     /**
      * Return a view of this cursor as a {@link RecordCursorIterator}. This allows the cursor to be consumed by
      * methods that take {@link Iterator}s or {@link com.apple.foundationdb.async.AsyncIterator AsyncIterator}s.
@@ -566,6 +589,21 @@ public interface RecordCursor<T> extends AutoCloseable {
         return new MapPipelinedCursor<>(this, func, pipelineSize);
     }
 
+    /**
+     * Get a new cursor by applying the given asynchronous function to the records in this cursor, keeping a number
+     * of futures in flight that adapts to how long they take.
+     * @param func the function to apply to each record
+     * @param pipelineSize the adaptive number of futures from applications of the mapping function to start ahead of time
+     * @param <V> the result type of the mapping function
+     * @return a new cursor that applies the given function to each record
+     * @see AdaptivePipelineSize
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default <V> RecordCursor<V> mapPipelined(@Nonnull Function<T, CompletableFuture<V>> func, @Nonnull AdaptivePipelineSize pipelineSize) {
+        return new MapPipelinedCursor<>(this, func, pipelineSize);
+    }
+
     /**
      * Apply a given cursor generating function to each result from an outer cursor and chain the results together.
      * Users should typically supply a {@code checker} function for safety. For more details, see
@@ -0,0 +1,291 @@
+/*
+ * RecordCursorBatch.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A group of consecutive values obtained when a {@link RecordCursor} advances by more than one element at a time.
+ *
+ * <p>
+ * Where a {@link RecordCursorResult} carries exactly one value together with its continuation, a batch carries
+ * a list of values and a <em>single</em> continuation, which is positioned after the last value in the batch. This
+ * lets scan-heavy pipelines amortize the cost of a future completion, a continuation object and a result wrapper
+ * over many rows. Because there is no continuation for values in the middle of the batch, consumers that need to stop
+ * at a precise position should not request more values than they are prepared to consume.
+ * </p>
+ *
+ * <p>
+ * A batch is either <em>open</em>, in which case it contains at least one value and the cursor may produce more, or
+ * <em>terminal</em>, in which case it may contain any number of values (including none) and the cursor has stopped
+ * for the {@link RecordCursor.NoNextReason} returned by {@link #getNoNextReason()}. The continuation of a terminal
+ * batch is the continuation of the result that stopped the cursor and follows the same rules as the continuation of
+ * a {@link RecordCursorResult} without a next value.
+ * </p>
+ *
+ * @param <T> the type of values in the batch
+ * @see RecordCursor#onNextBatch(int)
+ */
+@API(API.Status.EXPERIMENTAL)
+public class RecordCursorBatch<T> {
+    @Nonnull
+    private final List<T> values;
+    @Nonnull
+    private final RecordCursorContinuation continuation;
+    @Nullable
+    private final RecordCursor.NoNextReason noNextReason;
+
+    private RecordCursorBatch(@Nonnull List<T> values, @Nonnull RecordCursorContinuation continuation,
+                              @Nullable RecordCursor.NoNextReason noNextReason) {
+        this.values = values;
+        this.continuation = continuation;
+        this.noNextReason = noNextReason;
+    }
+
+    /**
+     * Get the values in this batch, in cursor order.
+     * @return an unmodifiable list of the values in this batch
+     */
+    @Nonnull
+    public List<T> getValues() {
+        return values;
+    }
+
+    /**
+     * Get the number of values in this batch.
+     * @return the number of values in this batch
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get whether this batch has no values. Only terminal batches can be empty.
+     * @return {@code true} if this batch has no values
+     */
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Get whether the cursor stopped while producing this batch. If so, calling
+     * {@link RecordCursor#onNextBatch(int)} again will return an empty terminal batch with the same
+     * no-next-reason and continuation.
+     * @return {@code true} if no more values will be produced by the cursor
+     */
+    public boolean isTerminal() {
+        return noNextReason != null;
+    }
+
+    /**
+     * Get the continuation of this batch. For an open batch, this is the continuation after the last value. For a
+     * terminal batch, this is the continuation of the result that stopped the cursor.
+     * @return the continuation of this batch
+     */
+    @Nonnull
+    public RecordCursorContinuation getContinuation() {
+        return continuation;
+    }
+
+    /**
+     * Get the reason that the cursor stopped.
+     * @return the no-next-reason of this batch
+     * @throws RecordCoreException if this batch is not terminal
+     */
+    @Nonnull
+    public RecordCursor.NoNextReason getNoNextReason() {
+        if (noNextReason == null) {
+            throw new RecordCoreException("tried to get no next reason of an open batch");
+        }
+        return noNextReason;
+    }
+
+    /**
+     * Get the result that stopped the cursor while producing this batch.
+     * @param <U> the value type of the returned result
+     * @return a result without a next value for this batch's continuation and no-next-reason
+     * @throws RecordCoreException if this batch is not terminal
+     */
+    @Nonnull
+    public <U> RecordCursorResult<U> getTerminalResult() {
+        return RecordCursorResult.withoutNextValue(continuation, getNoNextReason());
+    }
+
+    /**
+     * Apply a function to each value in this batch, keeping the same continuation and no-next-reason.
+     * @param func the function to apply to each value
+     * @param <U> the type of values in the returned batch
+     * @return a new batch with the mapped values
+     */
+    @Nonnull
+    public <U> RecordCursorBatch<U> map(@Nonnull Function<? super T, ? extends U> func) {
+        final List<U> mapped = new ArrayList<>(values.size());
+        for (T value : values) {
+            mapped.add(func.apply(value));
+        }
+        return new RecordCursorBatch<>(Collections.unmodifiableList(mapped), continuation, noNextReason);
+    }
+
+    /**
+     * Retain only the values in this batch that match the given predicate, keeping the same continuation and
+     * no-next-reason. Note that this can produce an empty open batch, which must not be returned from a cursor
+     * as is.
+     * @param pred the predicate to test values with
+     * @return a new batch with only the matching values
+     */
+    @Nonnull
+    public RecordCursorBatch<T> filter(@Nonnull Predicate<? super T> pred) {
+        final List<T> filtered = new ArrayList<>(values.size());
+        for (T value : values) {
+            if (pred.test(value)) {
+                filtered.add(value);
+            }
+        }
+        return new RecordCursorBatch<>(Collections.unmodifiableList(filtered), continuation, noNextReason);
+    }
+
+    @Override
+    public String toString() {
+        if (isTerminal()) {
+            return "Batch(size=" + values.size() + ", cont=" + continuation + ", reason=" + noNextReason + ")";
+        } else {
+            return "Batch(size=" + values.size() + ", cont=" + continuation + ")";
+        }
+    }
+
+    /**
+     * Create a new open batch.
+     * @param values the values of the batch, which must not be empty
+     * @param continuation the continuation after the last value
+     * @param <T> the type of values in the batch
+     * @return a new open batch
+     * @throws RecordCoreException if there are no values or the continuation is an end continuation
+     */
+    @Nonnull
+    public static <T> RecordCursorBatch<T> open(@Nonnull List<T> values, @Nonnull RecordCursorContinuation continuation) {
+        if (values.isEmpty()) {
+            throw new RecordCoreException("cannot return an open batch without values");
+        }
+        if (continuation.isEnd()) {
+            throw new RecordCoreException("cannot return end continuation with an open batch");
+        }
+        return new RecordCursorBatch<>(Collections.unmodifiableList(values), continuation, null);
+    }
+
+    /**
+     * Create a new terminal batch.
+     * @param values the values produced before the cursor stopped, which may be empty
+     * @param terminalResult the result that stopped the cursor
+     * @param <T> the type of values in the batch
+     * @return a new terminal batch
+     * @throws RecordCoreException if the given result has a next value
+     */
+    @Nonnull
+    public static <T> RecordCursorBatch<T> terminal(@Nonnull List<T> values, @Nonnull RecordCursorResult<?> terminalResult) {
+        if (terminalResult.hasNext()) {
+            throw new RecordCoreException("cannot end a batch with a result that has a next value");
+        }
+        return new RecordCursorBatch<>(Collections.unmodifiableList(values), terminalResult.getContinuation(), terminalResult.getNoNextReason());
+    }
+
+    /**
+     * Build a batch by repeatedly calling {@link RecordCursor#onNext()} on the given cursor. This is the adapter
+     * through which cursors that do not produce batches natively still compose with ones that do. Results that
+     * are already available are drained in a loop instead of chaining a new future for each one.
+     * @param cursor the cursor to read from
+     * @param maxBatchSize the maximum number of values to read
+     * @param <T> the type of values in the cursor
+     * @return a future that completes to a batch of at most {@code maxBatchSize} values
+     */
+    @Nonnull
+    public static <T> CompletableFuture<RecordCursorBatch<T>> fromCursor(@Nonnull RecordCursor<T> cursor, int maxBatchSize) {
+        checkBatchSize(maxBatchSize);
+        final Accumulator<T> accumulator = new Accumulator<>(maxBatchSize);
+        return AsyncUtil.whileTrue(() -> {
+            CompletableFuture<RecordCursorResult<T>> nextFuture = cursor.onNext();
+            while (nextFuture.isDone() && !nextFuture.isCompletedExceptionally()) {
+                if (!accumulator.add(nextFuture.join())) {
+                    return AsyncUtil.READY_FALSE;
+                }
+                nextFuture = cursor.onNext();
+            }
+            return nextFuture.thenApply(accumulator::add);
+        }, cursor.getExecutor()).thenApply(vignore -> accumulator.build());
+    }
+
+    /**
+     * Check the batch size passed to {@link RecordCursor#onNextBatch(int)}. Cursors that override that method should
+     * call this before doing anything else, so that an invalid size fails the same way for every cursor.
+     * @param maxBatchSize the maximum number of values requested
+     * @throws RecordCoreArgumentException if the batch size is not positive
+     */
+    public static void checkBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new RecordCoreArgumentException("batch size must be positive")
+                    .addLogInfo("maxBatchSize", maxBatchSize);
+        }
+    }
+
+    /**
+     * Collects results one at a time into a batch.
+     * @param <T> the type of values in the batch
+     */
+    private static class Accumulator<T> {
+        private final int maxBatchSize;
+        @Nonnull
+        private final List<T> values;
+        @Nullable
+        private RecordCursorResult<T> lastResult;
+
+        Accumulator(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            this.values = new ArrayList<>(Math.min(maxBatchSize, 256));
+        }
+
+        boolean add(@Nonnull RecordCursorResult<T> result) {
+            lastResult = result;
+            if (!result.hasNext()) {
+                return false;
+            }
+            values.add(result.get());
+            return values.size() < maxBatchSize;
+        }
+
+        @Nonnull
+        RecordCursorBatch<T> build() {
+            final RecordCursorResult<T> result = lastResult;
+            if (result == null) {
+                throw new RecordCoreException("batch completed without any result");
+            }
+            return result.hasNext() ? open(values, result.getContinuation()) : terminal(values, result);
+        }
+    }
+}
@@ -23,6 +23,8 @@ package com.apple.foundationdb.record;
 import com.apple.foundationdb.annotation.API;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -51,6 +53,10 @@ public class ScanProperties {
     @Nonnull
     private final CursorStreamingMode cursorStreamingMode;
 
+    // top-level record fields that the consumer of a record scan will look at, or null for all of them
+    @Nullable
+    private final Set<String> projectedFields;
+
     /**
      * Creates scan properties.
      * @param executeProperties the execution properties (such as isolation level and row limit) associated with this scan
@@ -75,9 +81,24 @@ public class ScanProperties {
      * @param cursorStreamingMode streaming mode to use if opening an FDB cursor
      */
     public ScanProperties(@Nonnull ExecuteProperties executeProperties, boolean reverse, @Nonnull CursorStreamingMode cursorStreamingMode) {
+        this(executeProperties, reverse, cursorStreamingMode, null);
+    }
+
+    /**
+     * Creates scan properties.
+     * @param executeProperties the execution properties (such as isolation level and row limit) associated with this scan
+     * @param reverse if true, the scan direction will be reversed
+     * @param cursorStreamingMode streaming mode to use if opening an FDB cursor
+     * @param projectedFields the names of the only top-level fields that will be looked at in records returned by a
+     * record scan or {@code null} if any may be
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public ScanProperties(@Nonnull ExecuteProperties executeProperties, boolean reverse, @Nonnull CursorStreamingMode cursorStreamingMode,
+                          @Nullable Set<String> projectedFields) {
         this.executeProperties = executeProperties;
         this.reverse = reverse;
         this.cursorStreamingMode = cursorStreamingMode;
+        this.projectedFields = projectedFields;
     }
 
     /**
@@ -104,7 +125,7 @@ public class ScanProperties {
      */
     @Nonnull
     public ScanProperties with(@Nonnull Function<ExecuteProperties, ExecuteProperties> modifier) {
-        return new ScanProperties(modifier.apply(executeProperties), reverse, cursorStreamingMode);
+        return new ScanProperties(modifier.apply(executeProperties), reverse, cursorStreamingMode, projectedFields);
     }
 
     /**
@@ -117,7 +138,7 @@ public class ScanProperties {
         if (reverse == isReverse()) {
             return this;
         }
-        return new ScanProperties(executeProperties, reverse, cursorStreamingMode);
+        return new ScanProperties(executeProperties, reverse, cursorStreamingMode, projectedFields);
     }
 
     /**
@@ -139,7 +160,31 @@ public class ScanProperties {
         if (cursorStreamingMode == getCursorStreamingMode()) {
             return this;
         }
-        return new ScanProperties(executeProperties, reverse, cursorStreamingMode);
+        return new ScanProperties(executeProperties, reverse, cursorStreamingMode, projectedFields);
+    }
+
+    /**
+     * Get the top-level fields that will be looked at in scanned records.
+     * @return the names of the projected fields or {@code null} if all fields may be looked at
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nullable
+    public Set<String> getProjectedFields() {
+        return projectedFields;
+    }
+
+    /**
+     * Set the top-level fields that will be looked at in scanned records. A record scan only needs to decode these
+     * fields up front, leaving the rest to be decoded if they are needed after all, if the store's
+     * {@link com.apple.foundationdb.record.provider.common.RecordSerializer} supports that.
+     * @param projectedFields the names of the projected fields or {@code null} if all fields may be looked at
+     * @return a new scan properties with the given projected fields
+     * @see com.apple.foundationdb.record.provider.common.LazyDynamicMessage
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    public ScanProperties setProjectedFields(@Nullable Set<String> projectedFields) {
+        return new ScanProperties(executeProperties, reverse, cursorStreamingMode, projectedFields);
     }
 
     @Override
@@ -147,6 +192,7 @@ public class ScanProperties {
         return "ScanProperties(" + executeProperties
                 + ", direction: " + (reverse ? "reverse" : "forward")
                 + ", streaming mode: " + cursorStreamingMode
+                + (projectedFields == null ? "" : ", projected fields: " + projectedFields)
                 + ")";
     }
 }
@@ -0,0 +1,356 @@
+/*
+ * AdaptivePipelineSize.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.provider.common.StoreTimer;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A pipeline size for {@link MapPipelinedCursor} and {@link FlatMapPipelinedCursor} that adapts to the observed
+ * latency and size of the pipelined operations.
+ *
+ * <p>
+ * The pipeline size is reconsidered after every window of completed operations (as many as the pipeline size).
+ * It doubles at first, and then grows by one, as long as the average latency of the window stays within
+ * {@link Config#getLatencyTolerance()} times the lowest latency seen recently. If the latency goes beyond that, the
+ * pipeline size is reduced by a quarter. Independently, if a timer is given, the bytes read per operation are estimated
+ * from the change in {@link Config#getBytesCount()} over the window, and the pipeline size is kept small enough
+ * that the bytes of a full pipeline do not exceed {@link Config#getMaxBytesInFlight()}. The pipeline size always stays
+ * between {@link Config#getMinPipelineSize()} and {@link Config#getMaxPipelineSize()}.
+ * </p>
+ *
+ * <p>
+ * Since the timer is usually shared by everything done in a transaction, the byte estimate also includes reads done
+ * concurrently by other operations. This errs on the side of a smaller pipeline.
+ * </p>
+ *
+ * <p>
+ * Each instance holds the state of a single cursor and should not be shared between cursors. Changes to the pipeline
+ * size are counted as {@link FDBStoreTimer.Counts#ADAPTIVE_PIPELINE_GROW} and {@link FDBStoreTimer.Counts#ADAPTIVE_PIPELINE_SHRINK}.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class AdaptivePipelineSize {
+    // how many windows the lowest latency is remembered for before being measured again
+    private static final int BASELINE_WINDOWS = 16;
+    private static final double SMOOTHING = 0.2;
+
+    @Nonnull
+    private final Config config;
+    @Nullable
+    private final StoreTimer timer;
+
+    private int pipelineSize;
+    private boolean slowStart = true;
+
+    private int windowCompletions;
+    private long windowLatencyNanos;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private int windowStartBytes;
+    private int windowsSinceBaseline;
+
+    private long baselineLatencyNanos = Long.MAX_VALUE;
+    private double smoothedLatencyNanos;
+    private double bytesPerOperation;
+
+    public AdaptivePipelineSize(@Nonnull Config config, @Nullable StoreTimer timer) {
+        this.config = config;
+        this.timer = timer;
+        this.pipelineSize = config.getInitialPipelineSize();
+        this.windowStartBytes = currentBytes();
+    }
+
+    /**
+     * Get the current number of operations to keep in flight.
+     * @return the current pipeline size
+     */
+    public synchronized int getPipelineSize() {
+        return pipelineSize;
+    }
+
+    /**
+     * Get the smoothed average latency of the operations.
+     * @return the smoothed latency in nanoseconds
+     */
+    public synchronized long getSmoothedLatencyNanos() {
+        return (long)smoothedLatencyNanos;
+    }
+
+    /**
+     * Get the lowest latency of recent operations, which is the reference for deciding whether the pipeline is too deep.
+     * @return the baseline latency in nanoseconds or {@link Long#MAX_VALUE} if nothing has completed yet
+     */
+    public synchronized long getBaselineLatencyNanos() {
+        return baselineLatencyNanos;
+    }
+
+    /**
+     * Get the estimated number of bytes read by each operation.
+     * @return the estimated bytes per operation or {@code 0} if not measured
+     */
+    public synchronized long getBytesPerOperation() {
+        return (long)bytesPerOperation;
+    }
+
+    /**
+     * Note the start of an operation.
+     * @return a start time to pass to {@link #complete(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Note the completion of an operation and adjust the pipeline size at the end of a window.
+     * @param startNanos the value returned by {@link #start()} for the operation
+     */
+    public void complete(long startNanos) {
+        final long latencyNanos = System.nanoTime() - startNanos;
+        final int delta;
+        synchronized (this) {
+            windowCompletions++;
+            windowLatencyNanos += latencyNanos;
+            windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+            smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos : smoothedLatencyNanos + SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+            if (windowCompletions < pipelineSize) {
+                return;
+            }
+            final int oldSize = pipelineSize;
+            pipelineSize = adjust();
+            delta = pipelineSize - oldSize;
+        }
+        if (timer != null && delta != 0) {
+            timer.increment(delta > 0 ? FDBStoreTimer.Counts.ADAPTIVE_PIPELINE_GROW : FDBStoreTimer.Counts.ADAPTIVE_PIPELINE_SHRINK);
+        }
+    }
+
+    // Called with the monitor held at the end of each window.
+    private int adjust() {
+        final long averageLatencyNanos = windowLatencyNanos / windowCompletions;
+        if (++windowsSinceBaseline >= BASELINE_WINDOWS) {
+            // Forget the old baseline, in case the operations themselves have become more expensive.
+            baselineLatencyNanos = windowMinLatencyNanos;
+            windowsSinceBaseline = 0;
+        } else {
+            baselineLatencyNanos = Math.min(baselineLatencyNanos, windowMinLatencyNanos);
+        }
+        final int endBytes = currentBytes();
+        final int windowBytes = endBytes - windowStartBytes;
+        if (timer != null && windowBytes > 0) {
+            bytesPerOperation = (double)windowBytes / windowCompletions;
+        }
+        windowStartBytes = endBytes;
+        windowCompletions = 0;
+        windowLatencyNanos = 0;
+        windowMinLatencyNanos = Long.MAX_VALUE;
+
+        final int maxForBytes = bytesPerOperation > 0
+                                ? (int)Math.min(Integer.MAX_VALUE, config.getMaxBytesInFlight() / bytesPerOperation)
+                                : Integer.MAX_VALUE;
+        int newSize;
+        if (pipelineSize > maxForBytes) {
+            newSize = maxForBytes;
+            slowStart = false;
+        } else if (averageLatencyNanos > config.getLatencyTolerance() * baselineLatencyNanos) {
+            newSize = pipelineSize - Math.max(1, pipelineSize / 4);
+            slowStart = false;
+        } else {
+            newSize = slowStart ? pipelineSize * 2 : pipelineSize + 1;
+            newSize = Math.min(newSize, maxForBytes);
+        }
+        return Math.max(config.getMinPipelineSize(), Math.min(config.getMaxPipelineSize(), newSize));
+    }
+
+    private int currentBytes() {
+        final StoreTimer.Count bytesCount = config.getBytesCount();
+        return timer == null || bytesCount == null ? 0 : timer.getCount(bytesCount);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePipelineSize(" + getPipelineSize() + ")";
+    }
+
+    /**
+     * The bounds and targets of an {@link AdaptivePipelineSize}. The same configuration can be used for any number of
+     * cursors.
+     */
+    public static class Config {
+        /**
+         * The default configuration.
+         */
+        @Nonnull
+        public static final Config DEFAULT = newBuilder().build();
+
+        private final int initialPipelineSize;
+        private final int minPipelineSize;
+        private final int maxPipelineSize;
+        private final double latencyTolerance;
+        private final long maxBytesInFlight;
+        @Nullable
+        private final StoreTimer.Count bytesCount;
+
+        private Config(@Nonnull Builder builder) {
+            this.initialPipelineSize = builder.initialPipelineSize;
+            this.minPipelineSize = builder.minPipelineSize;
+            this.maxPipelineSize = builder.maxPipelineSize;
+            this.latencyTolerance = builder.latencyTolerance;
+            this.maxBytesInFlight = builder.maxBytesInFlight;
+            this.bytesCount = builder.bytesCount;
+        }
+
+        public int getInitialPipelineSize() {
+            return initialPipelineSize;
+        }
+
+        public int getMinPipelineSize() {
+            return minPipelineSize;
+        }
+
+        public int getMaxPipelineSize() {
+            return maxPipelineSize;
+        }
+
+        /**
+         * Get how many times the baseline latency the average latency can reach before the pipeline is shrunk.
+         * @return the latency tolerance
+         */
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        /**
+         * Get the maximum number of bytes that a full pipeline is expected to read.
+         * @return the byte budget of the pipeline
+         */
+        public long getMaxBytesInFlight() {
+            return maxBytesInFlight;
+        }
+
+        /**
+         * Get the timer count used to measure the bytes read by the operations.
+         * @return the count of bytes read or {@code null} to ignore sizes
+         */
+        @Nullable
+        public StoreTimer.Count getBytesCount() {
+            return bytesCount;
+        }
+
+        @Nonnull
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public Builder toBuilder() {
+            return new Builder(this);
+        }
+
+        @Override
+        public String toString() {
+            return "AdaptivePipelineSize.Config(" + initialPipelineSize + " in [" + minPipelineSize + ", " + maxPipelineSize + "], " +
+                   "latencyTolerance " + latencyTolerance + ", maxBytesInFlight " + maxBytesInFlight + ")";
+        }
+
+        /**
+         * A builder for {@link Config}.
+         */
+        public static class Builder {
+            private int initialPipelineSize = 10;
+            private int minPipelineSize = 1;
+            private int maxPipelineSize = 100;
+            private double latencyTolerance = 2.0;
+            private long maxBytesInFlight = 4L * 1024 * 1024;
+            @Nullable
+            private StoreTimer.Count bytesCount = FDBStoreTimer.Counts.BYTES_READ;
+
+            private Builder() {
+            }
+
+            private Builder(@Nonnull Config config) {
+                this.initialPipelineSize = config.initialPipelineSize;
+                this.minPipelineSize = config.minPipelineSize;
+                this.maxPipelineSize = config.maxPipelineSize;
+                this.latencyTolerance = config.latencyTolerance;
+                this.maxBytesInFlight = config.maxBytesInFlight;
+                this.bytesCount = config.bytesCount;
+            }
+
+            @Nonnull
+            public Builder setInitialPipelineSize(int initialPipelineSize) {
+                this.initialPipelineSize = initialPipelineSize;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setMinPipelineSize(int minPipelineSize) {
+                this.minPipelineSize = minPipelineSize;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setMaxPipelineSize(int maxPipelineSize) {
+                this.maxPipelineSize = maxPipelineSize;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setLatencyTolerance(double latencyTolerance) {
+                this.latencyTolerance = latencyTolerance;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setMaxBytesInFlight(long maxBytesInFlight) {
+                this.maxBytesInFlight = maxBytesInFlight;
+                return this;
+            }
+
+            @Nonnull
+            public Builder setBytesCount(@Nullable StoreTimer.Count bytesCount) {
+                this.bytesCount = bytesCount;
+                return this;
+            }
+
+            @Nonnull
+            public Config build() {
+                if (minPipelineSize < 1 || maxPipelineSize < minPipelineSize ||
+                        initialPipelineSize < minPipelineSize || initialPipelineSize > maxPipelineSize) {
+                    throw new RecordCoreArgumentException("pipeline sizes must satisfy 1 <= min <= initial <= max")
+                            .addLogInfo("initial", initialPipelineSize)
+                            .addLogInfo("min", minPipelineSize)
+                            .addLogInfo("max", maxPipelineSize);
+                }
+                if (latencyTolerance < 1.0 || maxBytesInFlight <= 0) {
+                    throw new RecordCoreArgumentException("latency tolerance must be at least one and byte budget positive")
+                            .addLogInfo("latencyTolerance", latencyTolerance)
+                            .addLogInfo("maxBytesInFlight", maxBytesInFlight);
+                }
+                return new Config(this);
+            }
+        }
+    }
+}
@@ -23,13 +23,18 @@ package com.apple.foundationdb.record.cursors;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.AsyncUtil;
 import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorBatch;
 import com.apple.foundationdb.record.RecordCursorResult;
 import com.apple.foundationdb.record.RecordCursorVisitor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -64,6 +69,36 @@ public class FilterCursor<T> implements RecordCursor<T> {
         }), getExecutor()).thenApply(vignore -> nextResult);
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorBatch<T>> onNextBatch(int maxBatchSize) {
+        RecordCursorBatch.checkBatchSize(maxBatchSize);
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(RecordCursorBatch.terminal(Collections.emptyList(), nextResult));
+        }
+        final List<T> values = new ArrayList<>();
+        final AtomicReference<RecordCursorBatch<T>> lastInnerBatch = new AtomicReference<>();
+        // Only ask the inner cursor for as many values as could still fit, so that the continuation of the last
+        // inner batch is also the continuation after the last value that passed the filter.
+        return AsyncUtil.whileTrue(() -> inner.onNextBatch(maxBatchSize - values.size()).thenApply(innerBatch -> {
+            lastInnerBatch.set(innerBatch);
+            for (T value : innerBatch.getValues()) {
+                if (Boolean.TRUE.equals(pred.apply(value))) {
+                    values.add(value);
+                }
+            }
+            return !innerBatch.isTerminal() && values.size() < maxBatchSize;
+        }), getExecutor()).thenApply(vignore -> {
+            final RecordCursorBatch<T> innerBatch = lastInnerBatch.get();
+            if (innerBatch.isTerminal()) {
+                nextResult = innerBatch.getTerminalResult();
+                return RecordCursorBatch.terminal(values, nextResult);
+            } else {
+                return RecordCursorBatch.open(values, innerBatch.getContinuation());
+            }
+        });
+    }
+
     @Override
     public void close() {
         inner.close();
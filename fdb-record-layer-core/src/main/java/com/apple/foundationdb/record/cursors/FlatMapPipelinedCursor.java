@@ -51,6 +51,9 @@ import java.util.function.Function;
  * <p>
  * The cursor is <i>pipelined</i>, that is, it maintains up to a specified number of open cursors ahead of what it has returned,
  * so that work is done in parallel.
+ * The number of open cursors is either fixed or given by an {@link AdaptivePipelineSize}, which adjusts it according to how
+ * long the cursors take to produce their first element. In the latter case, the first element of every open cursor is
+ * requested as soon as the cursor is opened.
  * </p>
  * @param <T> the type of elements of the source cursor
  * @param <V> the type of elements of the cursor produced by the function
@@ -73,6 +76,8 @@ public class FlatMapPipelinedCursor<T, V> implements RecordCursor<V> {
     @Nullable
     private byte[] initialInnerContinuation;
     private final int pipelineSize;
+    @Nullable
+    private final AdaptivePipelineSize adaptivePipelineSize;
     /**
      * The pipeline used to add some parallelism to reads. Note this queue is not thread safe, so access
      * should generally be mediated through one of the {@code synchronized} methods.
@@ -100,6 +105,31 @@ public class FlatMapPipelinedCursor<T, V> implements RecordCursor<V> {
                                   @Nullable byte[] initialCheckValue,
                                   @Nullable byte[] initialInnerContinuation,
                                   int pipelineSize) {
+        this(outerCursor, innerCursorFunction, checkValueFunction, outerContinuation, initialCheckValue,
+                initialInnerContinuation, pipelineSize, null);
+    }
+
+    @API(API.Status.EXPERIMENTAL)
+    public FlatMapPipelinedCursor(@Nonnull RecordCursor<T> outerCursor,
+                                  @Nonnull BiFunction<T, byte[], ? extends RecordCursor<V>> innerCursorFunction,
+                                  @Nullable Function<T, byte[]> checkValueFunction,
+                                  @Nullable byte[] outerContinuation,
+                                  @Nullable byte[] initialCheckValue,
+                                  @Nullable byte[] initialInnerContinuation,
+                                  @Nonnull AdaptivePipelineSize adaptivePipelineSize) {
+        this(outerCursor, innerCursorFunction, checkValueFunction, outerContinuation, initialCheckValue,
+                initialInnerContinuation, adaptivePipelineSize.getPipelineSize(), adaptivePipelineSize);
+    }
+
+    @SpotBugsSuppressWarnings("EI_EXPOSE_REP2")
+    private FlatMapPipelinedCursor(@Nonnull RecordCursor<T> outerCursor,
+                                   @Nonnull BiFunction<T, byte[], ? extends RecordCursor<V>> innerCursorFunction,
+                                   @Nullable Function<T, byte[]> checkValueFunction,
+                                   @Nullable byte[] outerContinuation,
+                                   @Nullable byte[] initialCheckValue,
+                                   @Nullable byte[] initialInnerContinuation,
+                                   int pipelineSize,
+                                   @Nullable AdaptivePipelineSize adaptivePipelineSize) {
         this.outerCursor = outerCursor;
         this.innerCursorFunction = innerCursorFunction;
         this.checkValueFunction = checkValueFunction;
@@ -114,6 +144,7 @@ public class FlatMapPipelinedCursor<T, V> implements RecordCursor<V> {
         this.initialInnerContinuation = initialInnerContinuation;
         this.initialCheckValue = initialCheckValue;
         this.pipelineSize = pipelineSize;
+        this.adaptivePipelineSize = adaptivePipelineSize;
         this.pipeline = new ArrayDeque<>(pipelineSize);
     }
 
@@ -266,12 +297,15 @@ public class FlatMapPipelinedCursor<T, V> implements RecordCursor<V> {
     private synchronized void addEntryToPipeline(PipelineQueueEntry pipelineQueueEntry) {
         if (closed) {
             pipelineQueueEntry.close();
+        } else if (adaptivePipelineSize != null && pipelineQueueEntry.innerCursor != null) {
+            pipelineQueueEntry.startTimed(adaptivePipelineSize);
         }
         pipeline.add(pipelineQueueEntry);
     }
 
     private synchronized boolean continueFillingPipeline() {
-        return !closed && !outerExhausted && pipeline.size() < pipelineSize;
+        final int currentPipelineSize = adaptivePipelineSize == null ? pipelineSize : adaptivePipelineSize.getPipelineSize();
+        return !closed && !outerExhausted && pipeline.size() < currentPipelineSize;
     }
 
     private synchronized PipelineQueueEntry peekPipeline() {
@@ -313,6 +347,19 @@ public class FlatMapPipelinedCursor<T, V> implements RecordCursor<V> {
             return innerFuture.thenApply(vignore -> this);
         }
 
+        /**
+         * Start getting the first result from the inner cursor, reporting how long it takes to the given pipeline size.
+         * @param adaptivePipelineSize the pipeline size to adjust
+         */
+        public void startTimed(@Nonnull AdaptivePipelineSize adaptivePipelineSize) {
+            final long startNanos = adaptivePipelineSize.start();
+            getNextInnerPipelineFuture().whenComplete((entry, err) -> {
+                if (err == null) {
+                    adaptivePipelineSize.complete(startNanos);
+                }
+            });
+        }
+
         public boolean doesNotHaveReturnableResult() {
             final CompletableFuture<RecordCursorResult<V>> future = innerFuture;
             if (innerCursor == null ||       // Hit sentinel, so we have a returnable result
@@ -0,0 +1,361 @@
+/*
+ * HashJoinCursor.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorBatch;
+import com.apple.foundationdb.record.RecordCursorContinuation;
+import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.RecordCursorVisitor;
+import com.apple.foundationdb.tuple.ByteArrayUtil2;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A cursor that joins each element of an outer cursor with the elements of an inner cursor that have an equal join key.
+ *
+ * <p>
+ * The inner cursor must not depend on the outer element. It is read once, from the beginning, into an in-memory
+ * hash table keyed by its join key (the <em>build</em> side). Each outer element is then looked up in that table
+ * (the <em>probe</em> side), so the inner cursor is executed once per execution of this cursor instead of once per
+ * outer element. Elements whose join key is {@code null} never match anything.
+ * </p>
+ *
+ * <p>
+ * The size of the hash table is bounded by a maximum number of build side elements. If the inner cursor has more
+ * elements than that, or if it stops for an out-of-band reason before it is exhausted, this cursor falls back to
+ * executing the inner cursor again for each outer element and filtering on the join key, i.e., to a nested loop join.
+ * The chosen strategy is recorded in the continuation, so a resumed cursor does not attempt to build the table again
+ * once it has given up on it.
+ * </p>
+ *
+ * <p>
+ * Because the build side is read again whenever the cursor is resumed, the position within the matches of a single
+ * outer element is recorded by index. This means that a hash join is not guaranteed to be continued without duplicates
+ * if the inner elements change between transactions.
+ * </p>
+ *
+ * @param <O> the type of elements of the outer cursor
+ * @param <I> the type of elements of the inner cursor
+ * @param <K> the type of the join key
+ * @param <V> the type of elements of this cursor
+ */
+@API(API.Status.EXPERIMENTAL)
+public class HashJoinCursor<O, I, K, V> implements RecordCursor<V> {
+    private static final int BUILD_BATCH_SIZE = 100;
+
+    @Nonnull
+    private final Function<byte[], ? extends RecordCursor<O>> outerFunc;
+    @Nonnull
+    private final Function<byte[], ? extends RecordCursor<I>> innerFunc;
+    @Nonnull
+    private final Function<O, K> probeKeyFunction;
+    @Nonnull
+    private final Function<I, K> buildKeyFunction;
+    @Nonnull
+    private final BiFunction<O, I, V> combineFunction;
+    private final int maxBuildSideRows;
+    private final int pipelineSize;
+    @Nonnull
+    private final Executor executor;
+    @Nullable
+    private final byte[] joinContinuation;
+    private boolean nestedLoop;
+    // set if the cursor was resumed from a hash join continuation but has to fall back to a nested loop join
+    private boolean positionalInnerContinuation;
+
+    @Nullable
+    private RecordCursor<I> buildCursor;
+    @Nullable
+    private CompletableFuture<RecordCursor<V>> joinCursorFuture;
+    @Nullable
+    private RecordCursor<V> joinCursor;
+    @Nullable
+    private RecordCursorResult<V> nextResult;
+    private boolean closed;
+
+    /**
+     * Create a new hash join cursor.
+     * @param outerFunc a function that takes the outer continuation and returns the outer (probe side) cursor
+     * @param innerFunc a function that takes the inner continuation and returns the inner (build side) cursor
+     * @param probeKeyFunction a function that computes the join key of an outer element
+     * @param buildKeyFunction a function that computes the join key of an inner element
+     * @param combineFunction a function that combines an outer element with a matching inner element
+     * @param maxBuildSideRows the maximum number of inner elements to hold in memory
+     * @param pipelineSize the number of outer elements to work ahead
+     * @param executor the executor to use when reading the build side
+     * @param continuation the continuation returned from a previous instance of this cursor or {@code null} at start
+     */
+    public HashJoinCursor(@Nonnull Function<byte[], ? extends RecordCursor<O>> outerFunc,
+                          @Nonnull Function<byte[], ? extends RecordCursor<I>> innerFunc,
+                          @Nonnull Function<O, K> probeKeyFunction,
+                          @Nonnull Function<I, K> buildKeyFunction,
+                          @Nonnull BiFunction<O, I, V> combineFunction,
+                          int maxBuildSideRows,
+                          int pipelineSize,
+                          @Nonnull Executor executor,
+                          @Nullable byte[] continuation) {
+        if (maxBuildSideRows <= 0) {
+            throw new RecordCoreArgumentException("maximum number of build side rows must be positive")
+                    .addLogInfo("maxBuildSideRows", maxBuildSideRows);
+        }
+        this.outerFunc = outerFunc;
+        this.innerFunc = innerFunc;
+        this.probeKeyFunction = probeKeyFunction;
+        this.buildKeyFunction = buildKeyFunction;
+        this.combineFunction = combineFunction;
+        this.maxBuildSideRows = maxBuildSideRows;
+        this.pipelineSize = pipelineSize;
+        this.executor = executor;
+        if (continuation == null) {
+            this.nestedLoop = false;
+            this.joinContinuation = null;
+        } else {
+            final RecordCursorProto.HashJoinContinuation parsed;
+            try {
+                parsed = RecordCursorProto.HashJoinContinuation.parseFrom(continuation);
+            } catch (InvalidProtocolBufferException ex) {
+                throw new RecordCoreException("error parsing continuation", ex)
+                        .addLogInfo("raw_bytes", ByteArrayUtil2.loggable(continuation));
+            }
+            this.nestedLoop = parsed.getNestedLoop();
+            this.joinContinuation = parsed.hasContinuation() ? parsed.getContinuation().toByteArray() : null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorResult<V>> onNext() {
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(nextResult);
+        }
+        return getJoinCursor().thenCompose(RecordCursor::onNext).thenApply(result -> {
+            nextResult = result.withContinuation(new Continuation(nestedLoop, result.getContinuation()));
+            return nextResult;
+        });
+    }
+
+    /**
+     * Get whether this cursor has given up on holding the build side in memory and is executing as a nested loop join.
+     * This is only meaningful once the cursor has returned its first result.
+     * @return {@code true} if the inner cursor is executed once per outer element
+     */
+    public boolean isNestedLoop() {
+        return nestedLoop;
+    }
+
+    @Nonnull
+    private CompletableFuture<RecordCursor<V>> getJoinCursor() {
+        if (joinCursor != null) {
+            return CompletableFuture.completedFuture(joinCursor);
+        }
+        if (joinCursorFuture == null) {
+            if (nestedLoop) {
+                joinCursorFuture = CompletableFuture.completedFuture(nestedLoopCursor());
+            } else {
+                joinCursorFuture = loadBuildSide().thenApply(hashTable -> {
+                    if (hashTable != null) {
+                        return hashCursor(hashTable);
+                    }
+                    nestedLoop = true;
+                    positionalInnerContinuation = joinContinuation != null;
+                    return nestedLoopCursor();
+                });
+            }
+        }
+        return joinCursorFuture.thenApply(cursor -> {
+            joinCursor = cursor;
+            if (closed) {
+                cursor.close();
+            }
+            return cursor;
+        });
+    }
+
+    /**
+     * Read the whole build side into a hash table.
+     * @return a future that completes to the hash table or to {@code null} if the build side could not be read
+     * completely within the memory budget
+     */
+    @Nonnull
+    private CompletableFuture<Map<K, List<I>>> loadBuildSide() {
+        final RecordCursor<I> cursor = innerFunc.apply(null);
+        buildCursor = cursor;
+        final Map<K, List<I>> hashTable = new HashMap<>();
+        final int[] rowCount = {0};
+        final AtomicReference<RecordCursorBatch<I>> lastBatch = new AtomicReference<>();
+        return AsyncUtil.whileTrue(() -> cursor.onNextBatch(nextBuildBatchSize(rowCount[0])).thenApply(batch -> {
+            for (I value : batch.getValues()) {
+                final K key = buildKeyFunction.apply(value);
+                if (key != null) {
+                    hashTable.computeIfAbsent(key, ignore -> new ArrayList<>()).add(value);
+                }
+            }
+            rowCount[0] += batch.size();
+            lastBatch.set(batch);
+            return !batch.isTerminal() && rowCount[0] <= maxBuildSideRows;
+        }), executor).thenApply(vignore -> {
+            cursor.close();
+            buildCursor = null;
+            final RecordCursorBatch<I> batch = lastBatch.get();
+            if (rowCount[0] > maxBuildSideRows || !batch.isTerminal() || batch.getNoNextReason() != NoNextReason.SOURCE_EXHAUSTED) {
+                return null;
+            }
+            return hashTable;
+        });
+    }
+
+    private int nextBuildBatchSize(int rowCount) {
+        // read at most one element past the budget so that going over it can be detected
+        return (int)Math.min(BUILD_BATCH_SIZE, (long)maxBuildSideRows + 1 - rowCount);
+    }
+
+    @Nonnull
+    private RecordCursor<V> hashCursor(@Nonnull Map<K, List<I>> hashTable) {
+        return RecordCursor.flatMapPipelined(outerFunc,
+                (outer, innerContinuation) -> {
+                    final K key = probeKeyFunction.apply(outer);
+                    final List<I> matches = key == null ? null : hashTable.get(key);
+                    if (matches == null) {
+                        return RecordCursor.empty(executor);
+                    }
+                    return RecordCursor.fromList(executor, matches, innerContinuation)
+                            .map(inner -> combineFunction.apply(outer, inner));
+                },
+                joinContinuation,
+                pipelineSize);
+    }
+
+    @Nonnull
+    private RecordCursor<V> nestedLoopCursor() {
+        return RecordCursor.flatMapPipelined(outerFunc,
+                (outer, innerContinuation) -> {
+                    final K key = probeKeyFunction.apply(outer);
+                    if (key == null) {
+                        return RecordCursor.empty(executor);
+                    }
+                    RecordCursor<I> innerCursor;
+                    if (positionalInnerContinuation && innerContinuation != null) {
+                        // The continuation was produced by the hash join, which records the position within the
+                        // matches. The matches are in the order of the inner cursor, so skip that many of them.
+                        innerCursor = innerFunc.apply(null)
+                                .filter(inner -> key.equals(buildKeyFunction.apply(inner)))
+                                .skip(ByteBuffer.wrap(innerContinuation).getInt());
+                    } else {
+                        innerCursor = innerFunc.apply(innerContinuation)
+                                .filter(inner -> key.equals(buildKeyFunction.apply(inner)));
+                    }
+                    positionalInnerContinuation = false;
+                    return innerCursor.map(inner -> combineFunction.apply(outer, inner));
+                },
+                joinContinuation,
+                pipelineSize);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (buildCursor != null) {
+            buildCursor.close();
+        }
+        if (joinCursor != null) {
+            joinCursor.close();
+        }
+        if (joinCursorFuture != null) {
+            joinCursorFuture.cancel(false);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Nonnull
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public boolean accept(@Nonnull RecordCursorVisitor visitor) {
+        if (visitor.visitEnter(this) && joinCursor != null) {
+            joinCursor.accept(visitor);
+        }
+        return visitor.visitLeave(this);
+    }
+
+    private static class Continuation implements RecordCursorContinuation {
+        private final boolean nestedLoop;
+        @Nonnull
+        private final RecordCursorContinuation joinContinuation;
+
+        public Continuation(boolean nestedLoop, @Nonnull RecordCursorContinuation joinContinuation) {
+            this.nestedLoop = nestedLoop;
+            this.joinContinuation = joinContinuation;
+        }
+
+        @Override
+        public boolean isEnd() {
+            return joinContinuation.isEnd();
+        }
+
+        @Nonnull
+        @Override
+        public ByteString toByteString() {
+            if (isEnd()) {
+                return ByteString.EMPTY;
+            }
+            final RecordCursorProto.HashJoinContinuation.Builder builder = RecordCursorProto.HashJoinContinuation.newBuilder()
+                    .setNestedLoop(nestedLoop);
+            final ByteString bytes = joinContinuation.toByteString();
+            if (!bytes.isEmpty()) {
+                builder.setContinuation(bytes);
+            }
+            return builder.build().toByteString();
+        }
+
+        @Nullable
+        @Override
+        public byte[] toBytes() {
+            ByteString byteString = toByteString();
+            return byteString.isEmpty() ? null : byteString.toByteArray();
+        }
+    }
+}
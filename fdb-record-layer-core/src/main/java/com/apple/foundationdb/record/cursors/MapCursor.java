@@ -22,11 +22,13 @@ package com.apple.foundationdb.record.cursors;
 
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorBatch;
 import com.apple.foundationdb.record.RecordCursorResult;
 import com.apple.foundationdb.record.RecordCursorVisitor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
@@ -66,6 +68,22 @@ public class MapCursor<T, V> implements RecordCursor<V> {
                 });
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorBatch<V>> onNextBatch(int maxBatchSize) {
+        RecordCursorBatch.checkBatchSize(maxBatchSize);
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(RecordCursorBatch.terminal(Collections.emptyList(), nextResult));
+        }
+        return inner.onNextBatch(maxBatchSize).thenApply(batch -> {
+            final RecordCursorBatch<V> mapped = batch.map(func);
+            if (mapped.isTerminal()) {
+                nextResult = mapped.getTerminalResult();
+            }
+            return mapped;
+        });
+    }
+
     @Override
     public void close() {
         inner.close();
@@ -43,6 +43,8 @@ import java.util.function.Function;
  * <p>
  * The cursor is <i>pipelined</i>, that is, it maintains up to a specified number of pending futures ahead of what it has returned,
  * so that work is done in parallel.
+ * The number of pending futures is either fixed or given by an {@link AdaptivePipelineSize}, which adjusts it according to how
+ * long the futures take to complete.
  * </p>
  * @param <T> the type of elements of the source cursor
  * @param <V> the type of elements of the cursor after applying the function and completing the future it returns
@@ -56,6 +58,8 @@ public class MapPipelinedCursor<T, V> implements RecordCursor<V> {
     @Nonnull
     private final Function<T, CompletableFuture<V>> func;
     private final int pipelineSize;
+    @Nullable
+    private final AdaptivePipelineSize adaptivePipelineSize;
     /**
      * The pipeline, note this queue is not thread safe, so interactions must be in the same future pipeline.
      */
@@ -74,9 +78,37 @@ public class MapPipelinedCursor<T, V> implements RecordCursor<V> {
         this.inner = inner;
         this.func = func;
         this.pipelineSize = pipelineSize;
+        this.adaptivePipelineSize = null;
+        this.pipeline = new ArrayDeque<>(pipelineSize);
+    }
+
+    @API(API.Status.EXPERIMENTAL)
+    public MapPipelinedCursor(@Nonnull RecordCursor<T> inner, @Nonnull Function<T, CompletableFuture<V>> func,
+                              @Nonnull AdaptivePipelineSize adaptivePipelineSize) {
+        this.inner = inner;
+        this.func = func;
+        this.pipelineSize = adaptivePipelineSize.getPipelineSize();
+        this.adaptivePipelineSize = adaptivePipelineSize;
         this.pipeline = new ArrayDeque<>(pipelineSize);
     }
 
+    private int currentPipelineSize() {
+        return adaptivePipelineSize == null ? pipelineSize : adaptivePipelineSize.getPipelineSize();
+    }
+
+    @Nonnull
+    private CompletableFuture<RecordCursorResult<V>> startMapping(@Nonnull RecordCursorResult<T> innerResult) {
+        if (adaptivePipelineSize == null || !innerResult.hasNext()) {
+            return innerResult.mapAsync(func);
+        }
+        final long startNanos = adaptivePipelineSize.start();
+        return innerResult.mapAsync(func).whenComplete((result, err) -> {
+            if (err == null) {
+                adaptivePipelineSize.complete(startNanos);
+            }
+        });
+    }
+
     @Nonnull
     @Override
     public CompletableFuture<RecordCursorResult<V>> onNext() {
@@ -134,7 +166,7 @@ public class MapPipelinedCursor<T, V> implements RecordCursor<V> {
         if (closed) {
             return cancellAll();
         }
-        while (!innerExhausted && pipeline.size() < pipelineSize) {
+        while (!innerExhausted && pipeline.size() < currentPipelineSize()) {
             if (closed) {
                 return cancellAll();
             }
@@ -155,7 +187,7 @@ public class MapPipelinedCursor<T, V> implements RecordCursor<V> {
             }
 
             final RecordCursorResult<T> innerResult = waitInnerFuture.join(); // future is ready, doesn't block
-            pipeline.add(innerResult.mapAsync(func));
+            pipeline.add(startMapping(innerResult));
 
             if (innerResult.hasNext()) { // just added something to the pipeline, so pipeline will contain an entry
                 waitInnerFuture = null; // done with this future, should advanced cursor next time
@@ -25,6 +25,7 @@ import com.apple.foundationdb.async.AsyncUtil;
 import com.apple.foundationdb.record.ByteArrayContinuation;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorBatch;
 import com.apple.foundationdb.record.RecordCursorContinuation;
 import com.apple.foundationdb.record.RecordCursorProto;
 import com.apple.foundationdb.record.RecordCursorResult;
@@ -39,9 +40,12 @@ import com.google.protobuf.Message;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A cursor that groups incoming records by the given grouping criteria.
@@ -166,6 +170,68 @@ public class AggregateCursor<M extends Message> implements RecordCursor<QueryRes
     }
 
 
+    /**
+     * Return a batch of aggregated groups. Rows are pulled from the inner cursor in batches and fed to the
+     * {@link StreamGrouping} directly; each group break adds the completed group to the batch. When the batch is full
+     * before the inner cursor stops, its continuation carries the inner continuation together with the partial
+     * aggregation state of the group in progress, so this is only done natively for
+     * {@link RecordQueryStreamingAggregationPlan.SerializationMode#TO_NEW} continuations. Otherwise, the default
+     * row-at-a-time adapter is used.
+     * @param maxBatchSize the maximum number of groups to return
+     * @return a future for the next batch of groups
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorBatch<QueryResult>> onNextBatch(int maxBatchSize) {
+        if (serializationMode != RecordQueryStreamingAggregationPlan.SerializationMode.TO_NEW || maxBatchSize < 2 ||
+                (previousResult != null && !previousResult.hasNext())) {
+            return RecordCursor.super.onNextBatch(maxBatchSize);
+        }
+        final List<QueryResult> groups = new ArrayList<>();
+        final AtomicReference<RecordCursorBatch<QueryResult>> lastInnerBatch = new AtomicReference<>();
+        // Each inner row can complete at most one group, and the end of the inner cursor can complete one more, so
+        // leaving room for one group beyond the number of requested rows keeps the batch within its bound.
+        return AsyncUtil.whileTrue(() -> inner.onNextBatch(maxBatchSize - groups.size() - 1).thenApply(innerBatch -> {
+            lastInnerBatch.set(innerBatch);
+            for (QueryResult queryResult : innerBatch.getValues()) {
+                if (streamGrouping.apply(Objects.requireNonNull(queryResult))) {
+                    groups.add(QueryResult.ofComputed(streamGrouping.getCompletedGroupResult()));
+                }
+            }
+            if (!innerBatch.isTerminal()) {
+                // Keep the state used by onNext consistent: the rows read so far end in a group which is still in
+                // progress, so the continuation of the inner batch is the latest continuation in that group.
+                previousValidResult = RecordCursorResult.withNextValue(innerBatch.getValues().get(innerBatch.size() - 1), innerBatch.getContinuation());
+                previousResult = previousValidResult;
+                previousContinuationInGroup = innerBatch.getContinuation();
+            }
+            return !innerBatch.isTerminal() && groups.size() < maxBatchSize - 1;
+        }), getExecutor()).thenApply(vignore -> {
+            final RecordCursorBatch<QueryResult> innerBatch = Verify.verifyNotNull(lastInnerBatch.get());
+            if (!innerBatch.isTerminal()) {
+                return RecordCursorBatch.open(groups, new AggregateCursorContinuation(innerBatch.getContinuation(),
+                        streamGrouping.getPartialAggregationResult(), serializationMode));
+            }
+            previousResult = innerBatch.getTerminalResult();
+            final boolean hasRecords = !innerBatch.isEmpty() || !isNoRecords();
+            if (innerBatch.getNoNextReason() == NoNextReason.SOURCE_EXHAUSTED) {
+                if (hasRecords) {
+                    streamGrouping.finalizeGroup();
+                    groups.add(QueryResult.ofComputed(streamGrouping.getCompletedGroupResult()));
+                }
+                return RecordCursorBatch.terminal(groups, RecordCursorResult.exhausted());
+            }
+            // stopped in the middle of a group
+            if (hasRecords) {
+                partialAggregationResult = streamGrouping.finalizeGroup();
+            }
+            return RecordCursorBatch.terminal(groups, RecordCursorResult.withoutNextValue(
+                    new AggregateCursorContinuation(innerBatch.getContinuation(), partialAggregationResult, serializationMode),
+                    innerBatch.getNoNextReason()));
+        });
+    }
+
+
     private boolean isNoRecords() {
         return ((previousValidResult == null) && (!Verify.verifyNotNull(previousResult).hasNext()) && (streamGrouping.getPartialAggregationResult() == null));
     }
@@ -26,7 +26,9 @@ import javax.annotation.Nullable;
  * Accumulator state for Float types.
  * The implementation of the state classes is using primitive types in order to minimize Boxing/Unboxing and object
  * garbage collection. These classes are mutable and perform the accumulation using primitive math operators.
- * Once {@link #finish} is called, this instance should be recycled and the accumulation started with a new instance.
+ * Callers that have the unboxed value at hand can use {@link #accumulateFloat} so that no allocation happens per
+ * accumulated value. Once {@link #finish} is called, this instance should either be {@link #reset} or recycled and the
+ * accumulation started with a new instance.
  */
 public class FloatState implements AccumulatorState<Float, Float> {
     private float currentState;
@@ -35,52 +37,71 @@ public class FloatState implements AccumulatorState<Float, Float> {
 
     public FloatState(PrimitiveAccumulatorOperation operation) {
         this.operation = operation;
-        resetState(operation);
     }
 
     @Override
     public void accumulate(@Nullable final Float value) {
         if (value != null) {
-            switch (operation) {
-                case SUM:
-                    currentState = currentState + value;
-                    break;
-                case MIN:
-                    currentState = Math.min(currentState, value);
-                    break;
-                case MAX:
-                    currentState = Math.max(currentState, value);
-                    break;
-                default:
-                    break;
-            }
-            hasValue = true;
+            accumulateFloat(value);
         }
     }
 
-    @Override
-    @Nullable
-    public Float finish() {
-        if (hasValue) {
-            return currentState;
-        } else {
-            return null;
+    /**
+     * Add an unboxed value to the state.
+     * @param value the value to accumulate
+     */
+    public void accumulateFloat(final float value) {
+        if (!hasValue) {
+            currentState = value;
+            hasValue = true;
+            return;
         }
-    }
-
-    private void resetState(final PrimitiveAccumulatorOperation operation) {
         switch (operation) {
             case SUM:
-                currentState = 0.0f;
+                currentState = currentState + value;
                 break;
             case MIN:
-                currentState = Float.MAX_VALUE;
+                currentState = Math.min(currentState, value);
                 break;
             case MAX:
-                currentState = Float.MIN_VALUE;
+                currentState = Math.max(currentState, value);
                 break;
             default:
                 break;
         }
     }
+
+    @Override
+    @Nullable
+    public Float finish() {
+        if (hasValue) {
+            return currentState;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get whether any (non-null) value has been accumulated.
+     * @return {@code true} if a value has been accumulated since this state was created or last reset
+     */
+    public boolean hasValue() {
+        return hasValue;
+    }
+
+    /**
+     * Get the accumulated value without boxing it. This is only meaningful if {@link #hasValue()}.
+     * @return the accumulated value
+     */
+    public float getFloat() {
+        return currentState;
+    }
+
+    /**
+     * Discard the accumulated value, so that this instance can be used to accumulate another group.
+     */
+    public void reset() {
+        currentState = 0;
+        hasValue = false;
+    }
 }
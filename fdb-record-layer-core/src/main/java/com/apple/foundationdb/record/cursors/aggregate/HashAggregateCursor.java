@@ -0,0 +1,321 @@
+/*
+ * HashAggregateCursor.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors.aggregate;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.ByteArrayContinuation;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorContinuation;
+import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.RecordCursorVisitor;
+import com.apple.foundationdb.record.provider.common.StoreTimer;
+import com.apple.foundationdb.record.query.plan.plans.QueryResult;
+import com.apple.foundationdb.record.sorting.FileSortCursor;
+import com.apple.foundationdb.tuple.ByteArrayUtil2;
+import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A cursor that groups incoming records by the given grouping criteria without requiring them to be ordered by it.
+ *
+ * <p>
+ * All records of the inner cursor are consumed before the first group is returned, keeping the state of up to a given
+ * number of groups in memory (see {@link HashGrouping}). Records of any further groups are spilled into a
+ * {@link FileSortCursor}, which keeps them in memory while they are few and writes them to files otherwise, sorted by
+ * group key. Once the inner cursor is exhausted, the spilled groups are aggregated one at a time as they come out of
+ * the sort, and then the groups held in memory are returned.
+ * </p>
+ *
+ * <p>
+ * If the inner cursor stops for an out-of-band reason before it is exhausted, this cursor stops as well, and its
+ * continuation holds the partial state of every group held in memory, along with the continuation of the spill
+ * cursor, which holds its own state and the continuation of the inner cursor. After each spilled group, the
+ * continuation holds the position in the spilled records and the state of the groups held in memory; after each of
+ * the latter, it holds the state of the groups that remain to be returned. Continuations are therefore proportional in
+ * size to the number of groups held in memory, which is why that number is bounded.
+ * </p>
+ *
+ * @param <M> the record type that holds the actual data
+ */
+@API(API.Status.EXPERIMENTAL)
+public class HashAggregateCursor<M extends Message> implements RecordCursor<QueryResult> {
+    // Sorts the records of the groups that do not fit in memory, and drains the inner cursor while loading them
+    @Nonnull
+    private final RecordCursor<Tuple> spillCursor;
+    // group aggregator to place incoming records into groups held in memory
+    @Nonnull
+    private final HashGrouping<M> hashGrouping;
+    // group aggregator for the spilled records of a single group at a time
+    @Nonnull
+    private final HashGrouping<M> spilledGrouping;
+    @Nonnull
+    private final HashAggregateSpillAdapter spillAdapter;
+    private final int maxGroups;
+    @Nullable
+    private byte[] spilledGroupKey;
+    @Nullable
+    private RecordCursorContinuation spilledGroupContinuation;
+    @Nullable
+    private RecordCursorResult<Tuple> pendingSpilledRecord;
+    @Nullable
+    private List<Object> completedGroupResults;
+    @Nullable
+    private List<RecordCursorProto.PartialAggregationResult> remainingGroups;
+    private int position;
+    @Nullable
+    private RecordCursorResult<QueryResult> nextResult;
+
+    /**
+     * Create a new hash aggregate cursor.
+     * @param innerCursorFunction a function to create the cursor providing the records to aggregate from its continuation
+     * @param hashGrouping the group aggregator, restored from {@code continuation} if resuming
+     * @param spilledGrouping a group aggregator without any groups, used for the groups that do not fit in memory
+     * @param maxGroups the maximum number of groups to hold in memory
+     * @param spillAdapter the adapter for sorting the records of the groups that do not fit in memory
+     * @param timer the timer for the spill cursor
+     * @param continuation the continuation returned from a previous instance of this cursor or {@code null} at start
+     */
+    public HashAggregateCursor(@Nonnull Function<byte[], RecordCursor<QueryResult>> innerCursorFunction,
+                               @Nonnull HashGrouping<M> hashGrouping,
+                               @Nonnull HashGrouping<M> spilledGrouping,
+                               int maxGroups,
+                               @Nonnull HashAggregateSpillAdapter spillAdapter,
+                               @Nullable StoreTimer timer,
+                               @Nullable HashAggregateCursorContinuation continuation) {
+        this.hashGrouping = hashGrouping;
+        this.spilledGrouping = spilledGrouping;
+        this.spillAdapter = spillAdapter;
+        this.maxGroups = maxGroups;
+        this.spillCursor = FileSortCursor.create(spillAdapter,
+                innerContinuation -> innerCursorFunction.apply(innerContinuation)
+                        .map(this::applyOrSpill)
+                        .filter(Objects::nonNull),
+                timer, continuation == null ? null : continuation.getInnerContinuation(), 0, Integer.MAX_VALUE);
+    }
+
+    @Nullable
+    private Tuple applyOrSpill(@Nonnull QueryResult queryResult) {
+        final Message groupKey = hashGrouping.applyIfRoom(queryResult, maxGroups);
+        return groupKey == null ? null : spillAdapter.toSpilledRecord(groupKey, queryResult);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorResult<QueryResult>> onNext() {
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(nextResult);
+        }
+        if (completedGroupResults != null) {
+            return CompletableFuture.completedFuture(nextCompletedGroup());
+        }
+        final AtomicReference<RecordCursorResult<QueryResult>> spilledGroupResult = new AtomicReference<>();
+        return AsyncUtil.whileTrue(() -> nextSpilledRecord().thenApply(spilledRecord -> {
+            if (!spilledRecord.hasNext()) {
+                if (spilledRecord.getNoNextReason().isOutOfBand()) {
+                    // stopped while loading, before all groups are known, so remember all of those held in memory
+                    nextResult = RecordCursorResult.withoutNextValue(
+                            new HashAggregateCursorContinuation(spilledRecord.getContinuation(), false, hashGrouping.getPartialAggregationResults()),
+                            spilledRecord.getNoNextReason());
+                    spilledGroupResult.set(nextResult);
+                } else if (spilledGroupKey != null) {
+                    spilledGroupResult.set(completeSpilledGroup());
+                }
+                return false;
+            }
+            final Tuple record = spilledRecord.get();
+            final byte[] groupKey = spillAdapter.getGroupKey(Objects.requireNonNull(record));
+            if (spilledGroupKey != null && !Arrays.equals(spilledGroupKey, groupKey)) {
+                pendingSpilledRecord = spilledRecord;
+                spilledGroupResult.set(completeSpilledGroup());
+                return false;
+            }
+            spilledGrouping.apply(spillAdapter.getQueryResult(record));
+            spilledGroupKey = groupKey;
+            spilledGroupContinuation = spilledRecord.getContinuation();
+            return true;
+        }), getExecutor()).thenApply(vignore -> {
+            final RecordCursorResult<QueryResult> result = spilledGroupResult.get();
+            return result == null ? nextCompletedGroup() : result;
+        });
+    }
+
+    @Nonnull
+    private CompletableFuture<RecordCursorResult<Tuple>> nextSpilledRecord() {
+        if (pendingSpilledRecord != null) {
+            final RecordCursorResult<Tuple> spilledRecord = pendingSpilledRecord;
+            pendingSpilledRecord = null;
+            return CompletableFuture.completedFuture(spilledRecord);
+        }
+        return spillCursor.onNext();
+    }
+
+    @Nonnull
+    private RecordCursorResult<QueryResult> completeSpilledGroup() {
+        final Object completedGroupResult = spilledGrouping.getCompletedGroupResults().get(0);
+        spilledGrouping.clear();
+        spilledGroupKey = null;
+        // resuming from after the last record of this group starts with the first record of the next one
+        nextResult = RecordCursorResult.withNextValue(QueryResult.ofComputed(completedGroupResult),
+                new HashAggregateCursorContinuation(spilledGroupContinuation, true, hashGrouping.getPartialAggregationResults()));
+        return nextResult;
+    }
+
+    @Nonnull
+    private RecordCursorResult<QueryResult> nextCompletedGroup() {
+        if (completedGroupResults == null) {
+            completedGroupResults = hashGrouping.getCompletedGroupResults();
+            remainingGroups = hashGrouping.getPartialAggregationResults();
+        }
+        if (position < completedGroupResults.size()) {
+            final Object completedGroupResult = completedGroupResults.get(position);
+            position++;
+            nextResult = RecordCursorResult.withNextValue(QueryResult.ofComputed(completedGroupResult),
+                    new HashAggregateCursorContinuation(null, true,
+                            Objects.requireNonNull(remainingGroups).subList(position, remainingGroups.size())));
+        } else {
+            nextResult = RecordCursorResult.exhausted();
+        }
+        return nextResult;
+    }
+
+    @Override
+    public void close() {
+        spillCursor.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return spillCursor.isClosed();
+    }
+
+    @Nonnull
+    @Override
+    public Executor getExecutor() {
+        return spillCursor.getExecutor();
+    }
+
+    @Override
+    public boolean accept(@Nonnull RecordCursorVisitor visitor) {
+        if (visitor.visitEnter(this)) {
+            spillCursor.accept(visitor);
+        }
+        return visitor.visitLeave(this);
+    }
+
+    /**
+     * Continuation of a {@link HashAggregateCursor}. It is either positioned within the inner cursor or the spilled
+     * records, in which case it holds the continuation of the spill cursor and the partial state of all groups held in
+     * memory, or after both, in which case it holds the state of the groups that have not been returned yet.
+     */
+    public static class HashAggregateCursorContinuation implements RecordCursorContinuation {
+        @Nullable
+        private final RecordCursorContinuation innerContinuation;
+        private final boolean innerExhausted;
+        @Nonnull
+        private final List<RecordCursorProto.PartialAggregationResult> partialAggregationResults;
+        @Nullable
+        private RecordCursorProto.HashAggregateCursorContinuation cachedProto;
+
+        public HashAggregateCursorContinuation(@Nullable RecordCursorContinuation innerContinuation,
+                                               boolean innerExhausted,
+                                               @Nonnull List<RecordCursorProto.PartialAggregationResult> partialAggregationResults) {
+            this.innerContinuation = innerContinuation;
+            this.innerExhausted = innerExhausted;
+            this.partialAggregationResults = partialAggregationResults;
+        }
+
+        @Nonnull
+        @Override
+        public ByteString toByteString() {
+            return toProto().toByteString();
+        }
+
+        @Nullable
+        @Override
+        public byte[] toBytes() {
+            return toByteString().toByteArray();
+        }
+
+        @Override
+        public boolean isEnd() {
+            // the end is only ever reached through RecordCursorResult.exhausted()
+            return false;
+        }
+
+        @Nullable
+        public byte[] getInnerContinuation() {
+            return innerContinuation == null ? null : innerContinuation.toBytes();
+        }
+
+        public boolean isInnerExhausted() {
+            return innerExhausted;
+        }
+
+        @Nonnull
+        public List<RecordCursorProto.PartialAggregationResult> getPartialAggregationResults() {
+            return partialAggregationResults;
+        }
+
+        @Nonnull
+        private RecordCursorProto.HashAggregateCursorContinuation toProto() {
+            if (cachedProto == null) {
+                final RecordCursorProto.HashAggregateCursorContinuation.Builder builder = RecordCursorProto.HashAggregateCursorContinuation.newBuilder()
+                        .setInnerExhausted(innerExhausted)
+                        .addAllPartialAggregationResults(partialAggregationResults);
+                if (innerContinuation != null && !innerContinuation.toByteString().isEmpty()) {
+                    builder.setContinuation(innerContinuation.toByteString());
+                }
+                cachedProto = builder.build();
+            }
+            return cachedProto;
+        }
+
+        @Nonnull
+        public static HashAggregateCursorContinuation fromRawBytes(@Nonnull byte[] rawBytes) {
+            try {
+                final RecordCursorProto.HashAggregateCursorContinuation continuationProto = RecordCursorProto.HashAggregateCursorContinuation.parseFrom(rawBytes);
+                return new HashAggregateCursorContinuation(
+                        continuationProto.hasContinuation() ? ByteArrayContinuation.fromNullable(continuationProto.getContinuation().toByteArray()) : null,
+                        continuationProto.getInnerExhausted(),
+                        Collections.unmodifiableList(continuationProto.getPartialAggregationResultsList()));
+            } catch (InvalidProtocolBufferException ipbe) {
+                throw new RecordCoreException("error parsing continuation", ipbe)
+                        .addLogInfo("raw_bytes", ByteArrayUtil2.loggable(rawBytes));
+            }
+        }
+    }
+}
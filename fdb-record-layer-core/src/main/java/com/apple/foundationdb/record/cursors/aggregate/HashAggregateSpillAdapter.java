@@ -0,0 +1,238 @@
+/*
+ * HashAggregateSpillAdapter.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors.aggregate;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.provider.common.CipherPool;
+import com.apple.foundationdb.record.query.plan.plans.QueryResult;
+import com.apple.foundationdb.record.sorting.FileSortAdapter;
+import com.apple.foundationdb.record.sorting.MemorySorter;
+import com.apple.foundationdb.tuple.Tuple;
+import com.google.common.base.Suppliers;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.crypto.KeyGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A {@link FileSortAdapter} for the records that a {@link HashAggregateCursor} cannot place into a group held in
+ * memory. Each spilled record is a {@link Tuple} of its serialized group key, a random {@link UUID} and the serialized
+ * record itself. Records are sorted by group key and then by the UUID, which keeps records of the same group, even
+ * identical ones, apart in the sorter while bringing all records of a group together.
+ */
+@API(API.Status.EXPERIMENTAL)
+public class HashAggregateSpillAdapter implements FileSortAdapter<Tuple, Tuple> {
+    // To use different values, override the associated methods.
+    public static final int DEFAULT_MAX_RECORD_COUNT_IN_MEMORY = 1000;
+    public static final int DEFAULT_MAX_FILE_COUNT = 10;
+    public static final int DEFAULT_RECORD_COUNT_PER_SECTION = 100;
+
+    private static final Supplier<SecureRandom> RANDOM = Suppliers.memoize(SecureRandom::new);
+
+    @Nullable
+    private Descriptors.Descriptor recordDescriptor;
+    private final int metaDataVersion;
+    @Nullable
+    private Key encryptionKey;
+
+    /**
+     * Create a new spill adapter.
+     * @param recordDescriptor the descriptor of the aggregated records, if they are messages and the descriptor is known
+     * @param metaDataVersion the version of the meta-data of the store being queried
+     */
+    public HashAggregateSpillAdapter(@Nullable Descriptors.Descriptor recordDescriptor, int metaDataVersion) {
+        this.recordDescriptor = recordDescriptor;
+        this.metaDataVersion = metaDataVersion;
+    }
+
+    /**
+     * Convert a record to its spilled form.
+     * @param groupKey the group key of the record
+     * @param queryResult the record
+     * @return the spilled record
+     */
+    @Nonnull
+    public Tuple toSpilledRecord(@Nonnull Message groupKey, @Nonnull QueryResult queryResult) {
+        final Object datum = queryResult.getDatum();
+        if (recordDescriptor == null && datum instanceof Message) {
+            recordDescriptor = ((Message)datum).getDescriptorForType();
+        }
+        return Tuple.from(groupKey.toByteArray(), UUID.randomUUID(), queryResult.toProto().toByteArray());
+    }
+
+    /**
+     * Get the serialized group key of a spilled record.
+     * @param spilledRecord the spilled record
+     * @return the serialized group key
+     */
+    @Nonnull
+    public byte[] getGroupKey(@Nonnull Tuple spilledRecord) {
+        return spilledRecord.getBytes(0);
+    }
+
+    /**
+     * Get the record back from its spilled form.
+     * @param spilledRecord the spilled record
+     * @return the record
+     */
+    @Nonnull
+    public QueryResult getQueryResult(@Nonnull Tuple spilledRecord) {
+        return QueryResult.from(recordDescriptor, spilledRecord.getBytes(2));
+    }
+
+    @Override
+    public int compare(@Nonnull Tuple o1, @Nonnull Tuple o2) {
+        return o1.compareTo(o2);
+    }
+
+    @Nonnull
+    @Override
+    public Tuple generateKey(@Nonnull Tuple value) {
+        return value.popBack();
+    }
+
+    @Nonnull
+    @Override
+    public byte[] serializeKey(@Nonnull Tuple key) {
+        return key.pack();
+    }
+
+    @Override
+    public boolean isSerializedOrderReversed() {
+        return false;
+    }
+
+    @Nonnull
+    @Override
+    public Tuple deserializeKey(@Nonnull byte[] key) {
+        return Tuple.fromBytes(key);
+    }
+
+    @Nonnull
+    @Override
+    public byte[] serializeValue(@Nonnull Tuple value) {
+        return value.pack();
+    }
+
+    @Nonnull
+    @Override
+    public Tuple deserializeValue(@Nonnull byte[] value) {
+        return Tuple.fromBytes(value);
+    }
+
+    @Override
+    public int getMaxRecordCountInMemory() {
+        return DEFAULT_MAX_RECORD_COUNT_IN_MEMORY;
+    }
+
+    @Nonnull
+    @Override
+    public MemorySorter.RecordCountInMemoryLimitMode getRecordCountInMemoryLimitMode() {
+        return MemorySorter.RecordCountInMemoryLimitMode.STOP;
+    }
+
+    @Nonnull
+    @Override
+    public File generateFilename() throws IOException {
+        return File.createTempFile("fdb", ".bin");
+    }
+
+    @Override
+    public int getMetaDataVersion() {
+        return metaDataVersion;
+    }
+
+    @Override
+    public void writeValue(@Nonnull Tuple value, @Nonnull CodedOutputStream stream) throws IOException {
+        stream.writeByteArrayNoTag(value.pack());
+    }
+
+    @Nonnull
+    @Override
+    public Tuple readValue(@Nonnull CodedInputStream stream) throws IOException {
+        return Tuple.fromBytes(stream.readByteArray());
+    }
+
+    @Override
+    public int getMinFileRecordCount() {
+        return DEFAULT_MAX_RECORD_COUNT_IN_MEMORY;
+    }
+
+    @Override
+    public int getMaxFileCount() {
+        return DEFAULT_MAX_FILE_COUNT;
+    }
+
+    @Override
+    public int getRecordCountPerSection() {
+        return DEFAULT_RECORD_COUNT_PER_SECTION;
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public String getEncryptionCipherName() {
+        return CipherPool.DEFAULT_CIPHER;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Key getEncryptionKey() {
+        if (encryptionKey == null) {
+            try {
+                final KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+                keyGen.init(128, RANDOM.get());
+                encryptionKey = keyGen.generateKey();
+            } catch (GeneralSecurityException ex) {
+                throw new RecordCoreException(ex);
+            }
+        }
+        return encryptionKey;
+    }
+
+    @Nullable
+    @Override
+    public SecureRandom getSecureRandom() {
+        return RANDOM.get();
+    }
+
+    @Nonnull
+    @Override
+    public MemorySortComparator<Tuple> getComparator(@Nullable Tuple minimumKey) {
+        return new OrderComparator<>(this, minimumKey);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * HashGrouping.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors.aggregate;
+
+import com.apple.foundationdb.record.Bindings;
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStoreBase;
+import com.apple.foundationdb.record.query.plan.cascades.CorrelationIdentifier;
+import com.apple.foundationdb.record.query.plan.cascades.values.Accumulator;
+import com.apple.foundationdb.record.query.plan.cascades.values.AggregateValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.Value;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HashGrouping places records into groups based on grouping criteria, like {@link StreamGrouping}, but without
+ * requiring the records to be ordered by the grouping criteria. Instead, an {@link Accumulator} is kept in memory for
+ * every group that has been seen so far, and all groups are only completed once all records have been provided
+ * through {@link #apply}.
+ * <p>
+ * Groups are completed in the order in which their first record was seen. Unlike {@link StreamGrouping}, there must
+ * be grouping criteria, as without them there is only a single group, for which streaming is always possible.
+ * </p>
+ *
+ * @param <M> the type of content (message) that is in the store
+ */
+public class HashGrouping<M extends Message> {
+    @Nonnull
+    private final Value groupingKeyValue;
+    @Nonnull
+    private final AggregateValue aggregateValue;
+    @Nonnull
+    private final Value completeResultValue;
+    @Nonnull
+    private final CorrelationIdentifier groupingKeyAlias;
+    @Nonnull
+    private final CorrelationIdentifier aggregateAlias;
+    @Nonnull
+    private final FDBRecordStoreBase<M> store;
+    @Nonnull
+    private final EvaluationContext context;
+    @Nonnull
+    private final CorrelationIdentifier alias;
+    // The accumulators of all groups, by (evaluated) group key, in the order in which the groups were first seen
+    @Nonnull
+    private final Map<Object, Accumulator> groups;
+
+    /**
+     * Create a new hash group aggregator.
+     *
+     * @param groupingKeyValue the grouping key
+     * @param aggregateValue the aggregate values that will accumulate the fields
+     * @param completeResultValue the {@link Value} of the aggregate results
+     * @param groupingKeyAlias the identifier of {@code groupingKeyValue}
+     * @param aggregateAlias the identifier of {@code aggregateValue}
+     * @param store record store from which to fetch records
+     * @param context evaluation context containing parameter bindings
+     * @param alias the quantifier alias for the value evaluation
+     * @param partialAggregationResults the state of the groups when aggregation was last stopped
+     */
+    public HashGrouping(@Nonnull final Value groupingKeyValue,
+                        @Nonnull final AggregateValue aggregateValue,
+                        @Nonnull final Value completeResultValue,
+                        @Nonnull final CorrelationIdentifier groupingKeyAlias,
+                        @Nonnull final CorrelationIdentifier aggregateAlias,
+                        @Nonnull final FDBRecordStoreBase<M> store,
+                        @Nonnull final EvaluationContext context,
+                        @Nonnull final CorrelationIdentifier alias,
+                        @Nonnull final List<RecordCursorProto.PartialAggregationResult> partialAggregationResults) {
+        this.groupingKeyValue = groupingKeyValue;
+        this.aggregateValue = aggregateValue;
+        this.completeResultValue = completeResultValue;
+        this.groupingKeyAlias = groupingKeyAlias;
+        this.aggregateAlias = aggregateAlias;
+        this.store = store;
+        this.context = context;
+        this.alias = alias;
+        this.groups = new LinkedHashMap<>();
+
+        if (!partialAggregationResults.isEmpty()) {
+            final Descriptors.Descriptor groupKeyDescriptor =
+                    context.getTypeRepository().newMessageBuilder(groupingKeyValue.getResultType()).getDescriptorForType();
+            for (RecordCursorProto.PartialAggregationResult partialAggregationResult : partialAggregationResults) {
+                final Object groupKey;
+                try {
+                    groupKey = DynamicMessage.parseFrom(groupKeyDescriptor, partialAggregationResult.getGroupKey());
+                } catch (InvalidProtocolBufferException e) {
+                    throw new RecordCoreException("unable to parse group key of partial aggregation result", e);
+                }
+                groups.put(groupKey, aggregateValue.createAccumulatorWithInitialState(context.getTypeRepository(),
+                        partialAggregationResult.getAccumulatorStatesList()));
+            }
+        }
+    }
+
+    /**
+     * Accept the next record and add it to its group.
+     *
+     * @param currentObject the next object to process
+     * @return true if and only if the object is the first of its group
+     */
+    public boolean apply(@Nullable Object currentObject) {
+        final EvaluationContext nestedContext = context.withBinding(Bindings.Internal.CORRELATION, alias, currentObject);
+        final Object groupKey = groupingKeyValue.eval(store, nestedContext);
+        Accumulator accumulator = groups.get(groupKey);
+        final boolean newGroup = accumulator == null;
+        if (newGroup) {
+            accumulator = aggregateValue.createAccumulatorWithInitialState(context.getTypeRepository(), null);
+            groups.put(groupKey, accumulator);
+        }
+        aggregateValue.evalAndAccumulate(store, nestedContext, accumulator);
+        return newGroup;
+    }
+
+    /**
+     * Accept the next record and add it to its group, unless that group is not held yet and there is no room for
+     * another one.
+     *
+     * @param currentObject the next object to process
+     * @param maxGroups the maximum number of groups to hold
+     * @return {@code null} if the object was added to its group, or its group key if it was not
+     */
+    @Nullable
+    public Message applyIfRoom(@Nullable Object currentObject, int maxGroups) {
+        final EvaluationContext nestedContext = context.withBinding(Bindings.Internal.CORRELATION, alias, currentObject);
+        final Object groupKey = groupingKeyValue.eval(store, nestedContext);
+        Accumulator accumulator = groups.get(groupKey);
+        if (accumulator == null) {
+            if (groups.size() >= maxGroups) {
+                return (Message)groupKey;
+            }
+            accumulator = aggregateValue.createAccumulatorWithInitialState(context.getTypeRepository(), null);
+            groups.put(groupKey, accumulator);
+        }
+        aggregateValue.evalAndAccumulate(store, nestedContext, accumulator);
+        return null;
+    }
+
+    /**
+     * Forget all groups, so that this instance can be used to aggregate other records.
+     */
+    public void clear() {
+        groups.clear();
+    }
+
+    /**
+     * Get the number of groups seen so far.
+     *
+     * @return the number of groups
+     */
+    public int getGroupCount() {
+        return groups.size();
+    }
+
+    /**
+     * Get the state of all groups, so that aggregation can be resumed later.
+     *
+     * @return a partial aggregation result for each group, in the order in which the groups were first seen
+     */
+    @Nonnull
+    public List<RecordCursorProto.PartialAggregationResult> getPartialAggregationResults() {
+        final List<RecordCursorProto.PartialAggregationResult> results = new ArrayList<>(groups.size());
+        for (Map.Entry<Object, Accumulator> group : groups.entrySet()) {
+            results.add(RecordCursorProto.PartialAggregationResult.newBuilder()
+                    .setGroupKey(((Message)group.getKey()).toByteString())
+                    .addAllAccumulatorStates(group.getValue().getAccumulatorStates())
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Complete all groups.
+     *
+     * @return the complete result, with both grouping criteria and accumulated values, of each group, in the order in
+     * which the groups were first seen
+     */
+    @Nonnull
+    public List<Object> getCompletedGroupResults() {
+        final List<Object> results = new ArrayList<>(groups.size());
+        for (Map.Entry<Object, Accumulator> group : groups.entrySet()) {
+            final EvaluationContext nestedContext = context.childBuilder()
+                    .setBinding(groupingKeyAlias, group.getKey())
+                    .setBinding(aggregateAlias, group.getValue().finish())
+                    .build(context.getTypeRepository());
+            results.add(completeResultValue.eval(store, nestedContext));
+        }
+        return results;
+    }
+}
@@ -150,9 +150,11 @@ public class StreamGrouping<M extends Message> {
      * @return true if and only if the next object provided constitutes a group break
      */
     public boolean apply(@Nullable Object currentObject) {
+        // the same binding is used to evaluate both the grouping key and the aggregate
+        final EvaluationContext nestedContext = context.withBinding(Bindings.Internal.CORRELATION, alias, currentObject);
         final boolean groupBreak;
         if (groupingKeyValue != null) {
-            Object nextGroup = evalGroupingKey(currentObject);
+            Object nextGroup = groupingKeyValue.eval(store, nestedContext);
             groupBreak = isGroupBreak(currentGroup, nextGroup);
             if (groupBreak) {
                 finalizeGroup(nextGroup);
@@ -164,7 +166,7 @@ public class StreamGrouping<M extends Message> {
             groupBreak = false;
             currentGroup = null;
         }
-        accumulate(currentObject);
+        aggregateValue.evalAndAccumulate(store, nestedContext, accumulator);
         return groupBreak;
     }
 
@@ -205,17 +207,6 @@ public class StreamGrouping<M extends Message> {
         return result;
     }
 
-    private void accumulate(@Nullable Object currentObject) {
-        EvaluationContext nestedContext = context.withBinding(Bindings.Internal.CORRELATION, alias, currentObject);
-        final Object partial = aggregateValue.evalToPartial(store, nestedContext);
-        accumulator.accumulate(partial);
-    }
-
-    private Object evalGroupingKey(@Nullable final Object currentObject) {
-        final EvaluationContext nestedContext = context.withBinding(Bindings.Internal.CORRELATION, alias, currentObject);
-        return Objects.requireNonNull(groupingKeyValue).eval(store, nestedContext);
-    }
-
     @Nullable
     public RecordCursorProto.PartialAggregationResult getPartialAggregationResult() {
         List<RecordCursorProto.AccumulatorState> accumulatorStates = accumulator.getAccumulatorStates();
@@ -0,0 +1,121 @@
+/*
+ * DeflateRecordCompressionCodec.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.logging.LogMessageKeys;
+import com.apple.foundationdb.record.metadata.RecordType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link RecordCompressionCodec} using {@link Deflater}, optionally with a preset dictionary for each record type.
+ *
+ * <p>
+ * Without dictionaries, this is compression version {@value RecordCompressionCodec#DEFLATE_VERSION}, which is what
+ * {@link TransformedRecordSerializer} has always written. With dictionaries, it is compression version
+ * {@value RecordCompressionCodec#DEFLATE_DICTIONARY_VERSION}. The compressed stream identifies its dictionary by
+ * checksum, so records compressed with an older dictionary can still be read as long as that dictionary is still
+ * among the {@link RecordCompressionDictionaries} given.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class DeflateRecordCompressionCodec implements RecordCompressionCodec {
+    private final int compressionLevel;
+    @Nullable
+    private final RecordCompressionDictionaries dictionaries;
+
+    public DeflateRecordCompressionCodec(int compressionLevel) {
+        this(compressionLevel, null);
+    }
+
+    public DeflateRecordCompressionCodec(int compressionLevel, @Nullable RecordCompressionDictionaries dictionaries) {
+        this.compressionLevel = compressionLevel;
+        this.dictionaries = dictionaries;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    @Nullable
+    public RecordCompressionDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
+    @Override
+    public int getCompressionVersion() {
+        return dictionaries == null ? DEFLATE_VERSION : DEFLATE_DICTIONARY_VERSION;
+    }
+
+    @Override
+    public int compress(@Nonnull RecordType recordType, @Nonnull byte[] data, int offset, int length,
+                        @Nonnull byte[] dest, int destOffset, int maxLength) {
+        Deflater compressor = new Deflater(compressionLevel);
+        try {
+            if (dictionaries != null) {
+                final byte[] dictionary = dictionaries.getDictionary(recordType.getName());
+                if (dictionary != null) {
+                    compressor.setDictionary(dictionary);
+                }
+            }
+            compressor.setInput(data, offset, length);
+            compressor.finish(); // necessary to include checksum
+            int compressedLength = compressor.deflate(dest, destOffset, maxLength, Deflater.FULL_FLUSH);
+            // If we end up filling the buffer, then it's pointless to compress.
+            return compressedLength == maxLength ? -1 : compressedLength;
+        } finally {
+            compressor.end();
+        }
+    }
+
+    @Override
+    public void decompress(@Nonnull byte[] data, int offset, int length, @Nonnull byte[] dest) throws DataFormatException {
+        Inflater decompressor = new Inflater();
+        try {
+            decompressor.setInput(data, offset, length);
+            int actualDecompressedSize = decompressor.inflate(dest);
+            if (actualDecompressedSize == 0 && decompressor.needsDictionary()) {
+                final byte[] dictionary = dictionaries == null ? null : dictionaries.getDictionaryById(decompressor.getAdler());
+                if (dictionary == null) {
+                    throw new RecordSerializationException("missing compression dictionary")
+                            .addLogInfo("dictionaryId", decompressor.getAdler());
+                }
+                decompressor.setDictionary(dictionary);
+                actualDecompressedSize = decompressor.inflate(dest);
+            }
+            if (actualDecompressedSize < dest.length) {
+                throw new RecordSerializationException("decompressed record too small")
+                        .addLogInfo(LogMessageKeys.EXPECTED, dest.length)
+                        .addLogInfo(LogMessageKeys.ACTUAL, actualDecompressedSize);
+            } else if (decompressor.getRemaining() > 0) {
+                throw new RecordSerializationException("decompressed record too large")
+                        .addLogInfo(LogMessageKeys.EXPECTED, dest.length);
+            }
+        } finally {
+            decompressor.end();
+        }
+    }
+}
@@ -28,18 +28,23 @@ import com.apple.foundationdb.record.logging.LogMessageKeys;
 import com.apple.foundationdb.record.metadata.RecordType;
 import com.apple.foundationdb.record.util.pair.Pair;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
-import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.WireFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -115,14 +120,149 @@ public class DynamicMessageRecordSerializer implements RecordSerializer<Message>
         }
     }
 
+    /**
+     * Convert bytes to a Protobuf record, parsing directly from the given {@link ByteString}, which may be
+     * the unjoined pieces of a split record. Subclasses that override the {@code byte[]} versions of
+     * {@link #deserializeUnion(Descriptors.Descriptor, Tuple, byte[], int) deserializeUnion} or
+     * {@link #deserializeFromBytes(Descriptors.Descriptor, byte[]) deserializeFromBytes} should also
+     * override the {@code ByteString} versions.
+     *
+     * @param metaData the store's meta-data
+     * @param primaryKey the primary key of the record
+     * @param serialized the serialized bytes
+     * @param timer a timer used to instrument deserialization
+     * @return the deserialized record
+     */
+    @Nonnull
+    @Override
+    public Message deserialize(@Nonnull final RecordMetaData metaData,
+                               @Nonnull final Tuple primaryKey,
+                               @Nonnull final ByteString serialized,
+                               @Nullable StoreTimer timer) {
+        final long startTime = System.nanoTime();
+        try {
+            final Descriptors.Descriptor unionDescriptor = metaData.getUnionDescriptor();
+            final DynamicMessage unionMessage = deserializeUnion(unionDescriptor, primaryKey, serialized, metaData.getVersion());
+            return getUnionField(unionMessage, primaryKey).getValue();
+        } finally {
+            if (timer != null) {
+                timer.recordSinceNanoTime(Events.DESERIALIZE_PROTOBUF_RECORD, startTime);
+            }
+        }
+    }
+
+    /**
+     * Convert bytes to a Protobuf record, decoding only the projected fields up front. The record is returned as a
+     * {@link LazyDynamicMessage}, which decodes the rest of its fields if they are asked for. The union message is
+     * validated in the same way as by a full parse, without decoding the record in it.
+     * Subclasses that override {@link #deserializeUnion(Descriptors.Descriptor, Tuple, ByteString, int) deserializeUnion}
+     * or {@link #deserializeFromBytes(Descriptors.Descriptor, ByteString) deserializeFromBytes} to parse differently
+     * should also override this.
+     *
+     * @param metaData the store's meta-data
+     * @param primaryKey the primary key of the record
+     * @param serialized the serialized bytes
+     * @param projectedFields the names of the top-level fields to decode up front or {@code null} to decode all of them
+     * @param timer a timer used to instrument deserialization
+     * @return the deserialized record
+     */
+    @Nonnull
+    @Override
+    public Message deserialize(@Nonnull final RecordMetaData metaData,
+                               @Nonnull final Tuple primaryKey,
+                               @Nonnull final ByteString serialized,
+                               @Nullable final Set<String> projectedFields,
+                               @Nullable StoreTimer timer) {
+        if (projectedFields == null) {
+            return deserialize(metaData, primaryKey, serialized, timer);
+        }
+        final long startTime = System.nanoTime();
+        final Message lazyRecord;
+        try {
+            lazyRecord = deserializeLazily(metaData.getUnionDescriptor(), primaryKey, serialized, projectedFields, metaData.getVersion());
+        } finally {
+            if (timer != null) {
+                timer.recordSinceNanoTime(Events.DESERIALIZE_PROTOBUF_RECORD, startTime);
+            }
+        }
+        if (lazyRecord == null) {
+            return deserialize(metaData, primaryKey, serialized, timer);
+        }
+        return lazyRecord;
+    }
+
+    @Nullable
+    private Message deserializeLazily(@Nonnull final Descriptors.Descriptor unionDescriptor,
+                                      @Nonnull final Tuple primaryKey,
+                                      @Nonnull final ByteString serialized,
+                                      @Nonnull final Set<String> projectedFields,
+                                      int metaDataVersion) {
+        // Go through the union's fields as the full parse would, but without decoding the record itself.
+        final Set<Descriptors.FieldDescriptor> fields = new HashSet<>();
+        final Set<Integer> unknownFields = new TreeSet<>();
+        Descriptors.FieldDescriptor unionField = null;
+        ByteString recordBytes = null;
+        try {
+            final CodedInputStream input = serialized.newCodedInput();
+            while (true) {
+                final int tag = input.readTag();
+                if (tag == 0) {
+                    break;
+                }
+                final Descriptors.FieldDescriptor field = unionDescriptor.findFieldByNumber(WireFormat.getTagFieldNumber(tag));
+                if (field == null) {
+                    unknownFields.add(WireFormat.getTagFieldNumber(tag));
+                    input.skipField(tag);
+                } else if (field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE &&
+                           WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED && fields.add(field)) {
+                    unionField = field;
+                    recordBytes = input.readBytes();
+                } else {
+                    // Not a record field, or one whose parts need merging, which is left to the full parse.
+                    return null;
+                }
+            }
+        } catch (IOException ex) {
+            // Leave it to the full parse to report.
+            return null;
+        }
+        validateUnion(fields, unknownFields, primaryKey, metaDataVersion);
+        final Message lazyRecord = LazyDynamicMessage.parseFrom(unionField.getMessageType(), recordBytes, projectedFields);
+        final Set<Integer> recordUnknownFields = lazyRecord instanceof LazyDynamicMessage
+                                                 ? ((LazyDynamicMessage)lazyRecord).getUnknownFieldNumbers()
+                                                 : lazyRecord.getUnknownFields().asMap().keySet();
+        warnIfUnknownFields(primaryKey, lazyRecord.getDescriptorForType(), recordUnknownFields);
+        return lazyRecord;
+    }
+
     @Nonnull
     protected DynamicMessage deserializeUnion(@Nonnull final Descriptors.Descriptor unionDescriptor,
                                               @Nonnull final Tuple primaryKey,
                                               @Nonnull final byte[] serialized,
                                               int metaDataVersion) {
-        final DynamicMessage unionMessage = deserializeFromBytes(unionDescriptor, serialized);
-        final Map<Descriptors.FieldDescriptor, Object> allFields = unionMessage.getAllFields();
-        final Map<Integer, UnknownFieldSet.Field> unknownFields = unionMessage.getUnknownFields().asMap();
+        return validateUnion(deserializeFromBytes(unionDescriptor, serialized), primaryKey, metaDataVersion);
+    }
+
+    @Nonnull
+    protected DynamicMessage deserializeUnion(@Nonnull final Descriptors.Descriptor unionDescriptor,
+                                              @Nonnull final Tuple primaryKey,
+                                              @Nonnull final ByteString serialized,
+                                              int metaDataVersion) {
+        return validateUnion(deserializeFromBytes(unionDescriptor, serialized), primaryKey, metaDataVersion);
+    }
+
+    @Nonnull
+    private DynamicMessage validateUnion(@Nonnull final DynamicMessage unionMessage,
+                                         @Nonnull final Tuple primaryKey,
+                                         int metaDataVersion) {
+        validateUnion(unionMessage.getAllFields().keySet(), unionMessage.getUnknownFields().asMap().keySet(), primaryKey, metaDataVersion);
+        return unionMessage;
+    }
+
+    private void validateUnion(@Nonnull final Set<Descriptors.FieldDescriptor> allFields,
+                               @Nonnull final Set<Integer> unknownFields,
+                               @Nonnull final Tuple primaryKey,
+                               int metaDataVersion) {
         if (!(allFields.size() == 1 && unknownFields.isEmpty())) {
             final String detailedMessage;
             if (!unknownFields.isEmpty()) {
@@ -134,13 +274,12 @@ public class DynamicMessageRecordSerializer implements RecordSerializer<Message>
             }
             final String message = "Could not deserialize union message" + detailedMessage;
             final RecordSerializationException ex = new RecordSerializationException(message)
-                    .addLogInfo("unknownFields", unknownFields.keySet())
-                    .addLogInfo("fields", getFieldNames(allFields.keySet()))
+                    .addLogInfo("unknownFields", unknownFields)
+                    .addLogInfo("fields", getFieldNames(allFields))
                     .addLogInfo("primaryKey", primaryKey)
                     .addLogInfo("metaDataVersion", metaDataVersion);
             throw ex;
         }
-        return unionMessage;
     }
 
     @Nonnull
@@ -154,20 +293,37 @@ public class DynamicMessageRecordSerializer implements RecordSerializer<Message>
         }
     }
 
+    @Nonnull
+    protected DynamicMessage deserializeFromBytes(@Nonnull Descriptors.Descriptor storedDescriptor,
+                                                  @Nonnull ByteString serialized) {
+        try {
+            return DynamicMessage.parseFrom(storedDescriptor, serialized);
+        } catch (InvalidProtocolBufferException ex) {
+            throw new RecordSerializationException("Error reading from byte array", ex)
+                    .addLogInfo("recordType", storedDescriptor.getName());
+        }
+    }
+
     @Nonnull
     protected Map.Entry<Descriptors.FieldDescriptor, DynamicMessage> getUnionField(@Nonnull final DynamicMessage unionMessage,
                                                                                    @Nonnull final Tuple primaryKey) {
         final Map.Entry<Descriptors.FieldDescriptor, Object> entry = unionMessage.getAllFields().entrySet().iterator().next();
         final DynamicMessage message = (DynamicMessage)entry.getValue();
-        if (!message.getUnknownFields().asMap().isEmpty()) {
+        warnIfUnknownFields(primaryKey, message.getDescriptorForType(), message.getUnknownFields().asMap().keySet());
+        return Pair.of(entry.getKey(), message);
+    }
+
+    private static void warnIfUnknownFields(@Nonnull final Tuple primaryKey,
+                                            @Nonnull final Descriptors.Descriptor recordDescriptor,
+                                            @Nonnull final Set<Integer> unknownFields) {
+        if (!unknownFields.isEmpty()) {
             if (LOGGER.isWarnEnabled()) {
                 LOGGER.warn(KeyValueLogMessage.of("Deserialized message has unknown fields",
                         LogMessageKeys.PRIMARY_KEY, primaryKey,
-                        LogMessageKeys.RECORD_TYPE, message.getDescriptorForType().getName(),
-                        LogMessageKeys.UNKNOWN_FIELDS, message.getUnknownFields().asMap().keySet()));
+                        LogMessageKeys.RECORD_TYPE, recordDescriptor.getName(),
+                        LogMessageKeys.UNKNOWN_FIELDS, unknownFields));
             }
         }
-        return Pair.of(entry.getKey(), message);
     }
 
     @Nonnull
@@ -0,0 +1,254 @@
+/*
+ * LatencyHistogram.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCoreException;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of non-negative values, such as the nanosecond durations of a {@link StoreTimer.Event}.
+ * <p>
+ * The buckets are log-linear: each power of two is divided into {@value #SUB_BUCKETS} equal buckets, so a value
+ * is known to within one eighth of its magnitude, whatever that magnitude is. Values of {@code 2^40} or more
+ * (about 18 minutes, in nanoseconds) all go into the last bucket. The histogram therefore takes the same
+ * memory however many values are recorded, and histograms can be added to and subtracted from one another,
+ * which is how they are combined across timers and snapshots.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    /**
+     * The number of buckets into which each power of two is divided.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    /**
+     * The total number of buckets.
+     */
+    public static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    @Nonnull
+    private final AtomicLongArray buckets;
+    private boolean immutable;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    private LatencyHistogram(@Nonnull LatencyHistogram histogram, boolean immutable) {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, histogram.buckets.get(i));
+        }
+        this.immutable = immutable;
+    }
+
+    /**
+     * Get the index of the bucket holding the given value.
+     *
+     * @param value a non-negative value
+     * @return the index of the bucket for {@code value}
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)Math.max(value, 0L);
+        }
+        final int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT) {
+            return (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+        }
+        final int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Get the smallest value that goes into the given bucket.
+     *
+     * @param index the index of a bucket
+     * @return the lower bound of the bucket
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        return (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    /**
+     * Get a representative value for the given bucket, which is the middle of its range.
+     *
+     * @param index the index of a bucket
+     * @return the middle value of the bucket
+     */
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKETS || index == BUCKET_COUNT - 1) {
+            return bucketLowerBound(index);
+        }
+        return (bucketLowerBound(index) + bucketLowerBound(index + 1)) / 2;
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value the value to record
+     */
+    public void record(long value) {
+        checkImmutable();
+        buckets.incrementAndGet(bucketIndex(value));
+    }
+
+    /**
+     * Add the values recorded in another histogram to this one.
+     *
+     * @param histogram the histogram to add
+     */
+    public void add(@Nonnull LatencyHistogram histogram) {
+        checkImmutable();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long count = histogram.buckets.get(i);
+            if (count != 0) {
+                buckets.addAndGet(i, count);
+            }
+        }
+    }
+
+    /**
+     * Remove the values recorded in another histogram, such as an earlier copy of this one, from this one.
+     *
+     * @param histogram the histogram to subtract
+     */
+    public void subtract(@Nonnull LatencyHistogram histogram) {
+        checkImmutable();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long count = histogram.buckets.get(i);
+            if (count != 0) {
+                buckets.addAndGet(i, -count);
+            }
+        }
+    }
+
+    /**
+     * Get the number of values recorded.
+     *
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of values recorded in the given bucket.
+     *
+     * @param index the index of a bucket
+     * @return the number of values in the bucket
+     */
+    public long getBucketCount(int index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * Get an estimate of the value below which the given percentage of recorded values fall.
+     *
+     * @param percentile the percentage, between {@code 0} and {@code 100}
+     * @return the estimated value at the percentile or {@code 0} if no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new RecordCoreArgumentException("percentile must be between 0 and 100")
+                    .addLogInfo("percentile", percentile);
+        }
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long)Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketMidpoint(i);
+            }
+        }
+        return bucketMidpoint(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Get an estimate of the largest value recorded.
+     *
+     * @return the estimated largest value or {@code 0} if no values have been recorded
+     */
+    public long getMaxValue() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (buckets.get(i) != 0) {
+                return bucketMidpoint(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Get a copy of this histogram.
+     *
+     * @return a new mutable histogram with the same values
+     */
+    @Nonnull
+    public LatencyHistogram copy() {
+        return new LatencyHistogram(this, false);
+    }
+
+    /**
+     * Get a copy of this histogram that cannot be changed.
+     *
+     * @return a new immutable histogram with the same values
+     */
+    @Nonnull
+    public LatencyHistogram immutableCopy() {
+        return new LatencyHistogram(this, true);
+    }
+
+    private void checkImmutable() {
+        if (immutable) {
+            throw new RecordCoreException("immutable histogram");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram(count=" + getCount() + ", p50=" + getValueAtPercentile(50.0) +
+               ", p99=" + getValueAtPercentile(99.0) + ", max=" + getMaxValue() + ")";
+    }
+}
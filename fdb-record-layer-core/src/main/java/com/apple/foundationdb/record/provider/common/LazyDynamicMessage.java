@@ -0,0 +1,342 @@
+/*
+ * LazyDynamicMessage.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.protobuf.AbstractMessage;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.WireFormat;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A record message that decodes only some of its fields up front and the rest only if they are asked for.
+ *
+ * <p>
+ * A query that only looks at a couple of fields of each record, for example to filter on them, need not pay for
+ * decoding all the others. When created, this message goes through the serialized record once, skipping over
+ * the wire format of all but the projected top-level fields, and decodes just those. Asking for one of those fields
+ * is then as cheap as for an ordinary {@link DynamicMessage}. Asking for any other field, or for anything that
+ * depends on all of them, such as {@link #getAllFields()}, {@link #equals(Object)} or {@link #toBuilder()}, parses the
+ * whole record once and answers from that.
+ * </p>
+ *
+ * <p>
+ * Since the unprojected fields are only decoded on demand, corruption in them is only reported then, as a
+ * {@link RecordSerializationException}. Likewise, missing required fields that are not projected are only noticed by
+ * {@link #isInitialized()}, which parses the whole record if needed.
+ * Serializing this message gives back exactly the bytes it was created from.
+ * Note that this is not a {@link DynamicMessage}, so code that needs one should use {@link #getFullMessage()}.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class LazyDynamicMessage extends AbstractMessage {
+    @Nonnull
+    private final Descriptors.Descriptor descriptor;
+    @Nonnull
+    private final ByteString serialized;
+    @Nonnull
+    private final BitSet projectedFieldNumbers;
+    @Nonnull
+    private final DynamicMessage projectedMessage;
+    @Nonnull
+    private final Set<Integer> unknownFieldNumbers;
+    @Nonnull
+    private final Supplier<DynamicMessage> fullMessageSupplier;
+
+    private LazyDynamicMessage(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized,
+                               @Nonnull BitSet projectedFieldNumbers, @Nonnull DynamicMessage projectedMessage,
+                               @Nonnull Set<Integer> unknownFieldNumbers) {
+        this.descriptor = descriptor;
+        this.serialized = serialized;
+        this.projectedFieldNumbers = projectedFieldNumbers;
+        this.projectedMessage = projectedMessage;
+        this.unknownFieldNumbers = unknownFieldNumbers;
+        // Built partially so that isInitialized() can report missing required fields rather than failing.
+        this.fullMessageSupplier = Suppliers.memoize(() -> parsePartially(descriptor, serialized, "Error reading from byte array"));
+    }
+
+    /**
+     * Parse a message, decoding only the given fields until any others are needed.
+     * @param descriptor the type of the message
+     * @param serialized the serialized message
+     * @param projectedFieldNames the names of the top-level fields to decode now; names that are not fields of
+     * {@code descriptor} are ignored
+     * @return a message with the projected fields decoded, which is an ordinary {@link DynamicMessage} if those are
+     * all of its fields
+     * @throws RecordSerializationException if the projected fields cannot be decoded
+     */
+    @Nonnull
+    public static Message parseFrom(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized,
+                                    @Nonnull Collection<String> projectedFieldNames) {
+        final BitSet projectedFieldNumbers = new BitSet();
+        for (String fieldName : projectedFieldNames) {
+            final Descriptors.FieldDescriptor field = descriptor.findFieldByName(fieldName);
+            if (field != null) {
+                projectedFieldNumbers.set(field.getNumber());
+            }
+        }
+        return parseFrom(descriptor, serialized, projectedFieldNumbers);
+    }
+
+    /**
+     * Get this message as one of another type with compatibly numbered fields, such as the type that a query plan
+     * flows for records of this type, again decoding only the projected fields until any others are needed.
+     * @param otherDescriptor the type of the message to return
+     * @return a message of the given type with the same serialized form
+     * @throws RecordSerializationException if the projected fields cannot be decoded as the other type
+     */
+    @Nonnull
+    public Message asType(@Nonnull Descriptors.Descriptor otherDescriptor) {
+        if (otherDescriptor == descriptor) {
+            return this;
+        }
+        final BitSet otherProjectedFieldNumbers = new BitSet();
+        for (Descriptors.FieldDescriptor field : otherDescriptor.getFields()) {
+            if (projectedFieldNumbers.get(field.getNumber())) {
+                otherProjectedFieldNumbers.set(field.getNumber());
+            }
+        }
+        return parseFrom(otherDescriptor, serialized, otherProjectedFieldNumbers);
+    }
+
+    @Nonnull
+    private static Message parseFrom(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized,
+                                     @Nonnull BitSet projectedFieldNumbers) {
+        if (projectedFieldNumbers.cardinality() == descriptor.getFields().size()) {
+            return parseFully(descriptor, serialized);
+        }
+        final Set<Integer> unknownFieldNumbers = new TreeSet<>();
+        final ByteString selected = selectFields(descriptor, serialized, projectedFieldNumbers, unknownFieldNumbers);
+        // Required fields that are not projected are missing, so this message is not expected to be initialized.
+        return new LazyDynamicMessage(descriptor, serialized, projectedFieldNumbers,
+                parsePartially(descriptor, selected, "Error reading projected fields"), unknownFieldNumbers);
+    }
+
+    /**
+     * Copy the wire format of the projected fields, skipping over that of the others without decoding them.
+     * The numbers of fields that are not in {@code descriptor} are added to {@code unknownFieldNumbers}.
+     */
+    @Nonnull
+    private static ByteString selectFields(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized,
+                                           @Nonnull BitSet projectedFieldNumbers, @Nonnull Set<Integer> unknownFieldNumbers) {
+        try {
+            final CodedInputStream input = serialized.newCodedInput();
+            final ByteString.Output selected = ByteString.newOutput();
+            final CodedOutputStream output = CodedOutputStream.newInstance(selected);
+            while (true) {
+                final int tag = input.readTag();
+                if (tag == 0) {
+                    break;
+                }
+                final int fieldNumber = WireFormat.getTagFieldNumber(tag);
+                if (descriptor.findFieldByNumber(fieldNumber) == null) {
+                    unknownFieldNumbers.add(fieldNumber);
+                }
+                final boolean more;
+                if (projectedFieldNumbers.get(fieldNumber)) {
+                    more = input.skipField(tag, output);
+                } else {
+                    more = input.skipField(tag);
+                }
+                if (!more) {
+                    break;
+                }
+            }
+            output.flush();
+            return selected.toByteString();
+        } catch (IOException ex) {
+            throw new RecordSerializationException("Error reading projected fields", ex)
+                    .addLogInfo("recordType", descriptor.getName());
+        }
+    }
+
+    @Nonnull
+    private static DynamicMessage parsePartially(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized,
+                                                 @Nonnull String errorMessage) {
+        try {
+            return DynamicMessage.newBuilder(descriptor).mergeFrom(serialized).buildPartial();
+        } catch (InvalidProtocolBufferException ex) {
+            throw new RecordSerializationException(errorMessage, ex)
+                    .addLogInfo("recordType", descriptor.getName());
+        }
+    }
+
+    @Nonnull
+    private static DynamicMessage parseFully(@Nonnull Descriptors.Descriptor descriptor, @Nonnull ByteString serialized) {
+        try {
+            return DynamicMessage.parseFrom(descriptor, serialized);
+        } catch (InvalidProtocolBufferException ex) {
+            throw new RecordSerializationException("Error reading from byte array", ex)
+                    .addLogInfo("recordType", descriptor.getName());
+        }
+    }
+
+    /**
+     * Get whether the given field was decoded up front.
+     * @param field a field of this message's type
+     * @return {@code true} if getting the field does not require parsing the whole message
+     */
+    public boolean isProjected(@Nonnull Descriptors.FieldDescriptor field) {
+        return field.getContainingType() == descriptor && !field.isExtension() && projectedFieldNumbers.get(field.getNumber());
+    }
+
+    private boolean isProjected(@Nonnull Descriptors.OneofDescriptor oneof) {
+        for (Descriptors.FieldDescriptor field : oneof.getFields()) {
+            if (!isProjected(field)) {
+                return false;
+            }
+        }
+        return oneof.getContainingType() == descriptor;
+    }
+
+    /**
+     * Get the numbers of the top-level fields in the serialized message that are not fields of its type.
+     * Unlike {@link #getUnknownFields()}, this does not require parsing the whole message.
+     * @return the numbers of the unknown fields
+     */
+    @Nonnull
+    public Set<Integer> getUnknownFieldNumbers() {
+        return Collections.unmodifiableSet(unknownFieldNumbers);
+    }
+
+    /**
+     * Get the whole message, parsing all its fields if that has not been done already.
+     * If required fields are missing, the message returned is not initialized.
+     * @return the fully parsed message
+     */
+    @Nonnull
+    public DynamicMessage getFullMessage() {
+        return fullMessageSupplier.get();
+    }
+
+    @Nonnull
+    @Override
+    public Descriptors.Descriptor getDescriptorForType() {
+        return descriptor;
+    }
+
+    @Nonnull
+    @Override
+    public Map<Descriptors.FieldDescriptor, Object> getAllFields() {
+        return getFullMessage().getAllFields();
+    }
+
+    @Override
+    public boolean hasOneof(@Nonnull Descriptors.OneofDescriptor oneof) {
+        return isProjected(oneof) ? projectedMessage.hasOneof(oneof) : getFullMessage().hasOneof(oneof);
+    }
+
+    @Override
+    public Descriptors.FieldDescriptor getOneofFieldDescriptor(@Nonnull Descriptors.OneofDescriptor oneof) {
+        return isProjected(oneof) ? projectedMessage.getOneofFieldDescriptor(oneof) : getFullMessage().getOneofFieldDescriptor(oneof);
+    }
+
+    @Override
+    public boolean hasField(@Nonnull Descriptors.FieldDescriptor field) {
+        return isProjected(field) ? projectedMessage.hasField(field) : getFullMessage().hasField(field);
+    }
+
+    @Override
+    public Object getField(@Nonnull Descriptors.FieldDescriptor field) {
+        return isProjected(field) ? projectedMessage.getField(field) : getFullMessage().getField(field);
+    }
+
+    @Override
+    public int getRepeatedFieldCount(@Nonnull Descriptors.FieldDescriptor field) {
+        return isProjected(field) ? projectedMessage.getRepeatedFieldCount(field) : getFullMessage().getRepeatedFieldCount(field);
+    }
+
+    @Override
+    public Object getRepeatedField(@Nonnull Descriptors.FieldDescriptor field, int index) {
+        return isProjected(field) ? projectedMessage.getRepeatedField(field, index) : getFullMessage().getRepeatedField(field, index);
+    }
+
+    @Nonnull
+    @Override
+    public UnknownFieldSet getUnknownFields() {
+        return getFullMessage().getUnknownFields();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        // The projected message only lacks required fields that are missing or not projected, and in the latter case
+        // only the whole message can tell.
+        return projectedMessage.isInitialized() || getFullMessage().isInitialized();
+    }
+
+    @Override
+    public void writeTo(@Nonnull CodedOutputStream output) throws IOException {
+        output.writeRawBytes(serialized);
+    }
+
+    @Override
+    public int getSerializedSize() {
+        return serialized.size();
+    }
+
+    @Nonnull
+    @Override
+    public ByteString toByteString() {
+        return serialized;
+    }
+
+    @Nonnull
+    @Override
+    public Parser<DynamicMessage> getParserForType() {
+        return getDefaultInstanceForType().getParserForType();
+    }
+
+    @Nonnull
+    @Override
+    public DynamicMessage getDefaultInstanceForType() {
+        return DynamicMessage.getDefaultInstance(descriptor);
+    }
+
+    @Nonnull
+    @Override
+    public DynamicMessage.Builder newBuilderForType() {
+        return DynamicMessage.newBuilder(descriptor);
+    }
+
+    @Nonnull
+    @Override
+    public DynamicMessage.Builder toBuilder() {
+        return getFullMessage().toBuilder();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Lz4RecordCompressionCodec.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.logging.LogMessageKeys;
+import com.apple.foundationdb.record.metadata.RecordType;
+
+import javax.annotation.Nonnull;
+import java.util.zip.DataFormatException;
+
+/**
+ * A {@link RecordCompressionCodec} producing the LZ4 block format, which is compression version
+ * {@value RecordCompressionCodec#LZ4_VERSION}.
+ *
+ * <p>
+ * The compressor is the simple greedy single-pass one from the reference implementation: each position is looked
+ * up in a hash table of recent four byte sequences and any match found is extended as far as it goes. It compresses
+ * less than {@link DeflateRecordCompressionCodec Deflate}, but both compression and decompression are much cheaper.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class Lz4RecordCompressionCodec implements RecordCompressionCodec {
+    /**
+     * The only instance, since the codec has no state.
+     */
+    public static final Lz4RecordCompressionCodec INSTANCE = new Lz4RecordCompressionCodec();
+
+    private static final int MIN_MATCH = 4;
+    // The format requires the last five bytes to be literals and the last match to start twelve bytes from the end.
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int HASH_LOG = 12;
+    private static final int RUN_MASK = 0x0F;
+
+    private Lz4RecordCompressionCodec() {
+    }
+
+    @Override
+    public int getCompressionVersion() {
+        return LZ4_VERSION;
+    }
+
+    private static int readInt(@Nonnull byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    @Override
+    public int compress(@Nonnull RecordType recordType, @Nonnull byte[] data, int offset, int length,
+                        @Nonnull byte[] dest, int destOffset, int maxLength) {
+        final int end = offset + length;
+        final int destEnd = destOffset + maxLength;
+        int anchor = offset;
+        int op = destOffset;
+        if (length >= MF_LIMIT) {
+            // Positions are stored plus one, so that zero means empty.
+            final int[] table = new int[1 << HASH_LOG];
+            final int matchFindLimit = end - MF_LIMIT;
+            final int matchLimit = end - LAST_LITERALS;
+            int ip = offset;
+            while (ip < matchFindLimit) {
+                final int sequence = readInt(data, ip);
+                final int h = hash(sequence);
+                final int ref = table[h] - 1;
+                table[h] = ip + 1;
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(data, ref) != sequence) {
+                    ip++;
+                    continue;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && data[ref + matchLength] == data[ip + matchLength]) {
+                    matchLength++;
+                }
+                op = writeSequence(data, anchor, ip - anchor, ip - ref, matchLength, dest, op, destEnd);
+                if (op < 0) {
+                    return -1;
+                }
+                ip += matchLength;
+                anchor = ip;
+            }
+        }
+        op = writeSequence(data, anchor, end - anchor, 0, 0, dest, op, destEnd);
+        if (op < 0 || op == destEnd) {
+            return -1;
+        }
+        return op - destOffset;
+    }
+
+    /**
+     * Write a sequence of literals, optionally followed by a match.
+     * @return the new output position or {@code -1} if it would go past {@code destEnd}
+     */
+    private static int writeSequence(@Nonnull byte[] data, int literalStart, int literalLength, int matchOffset, int matchLength,
+                                     @Nonnull byte[] dest, int op, int destEnd) {
+        final int matchExtra = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+        final int needed = 1 + literalLength + literalLength / 255 + 1 + (matchLength == 0 ? 0 : 2 + matchExtra / 255 + 1);
+        if (op + needed > destEnd) {
+            return -1;
+        }
+        final int tokenPos = op++;
+        int token;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            op = writeLength(literalLength - RUN_MASK, dest, op);
+        } else {
+            token = literalLength << 4;
+        }
+        System.arraycopy(data, literalStart, dest, op, literalLength);
+        op += literalLength;
+        if (matchLength != 0) {
+            dest[op++] = (byte)matchOffset;
+            dest[op++] = (byte)(matchOffset >>> 8);
+            if (matchExtra >= RUN_MASK) {
+                token |= RUN_MASK;
+                op = writeLength(matchExtra - RUN_MASK, dest, op);
+            } else {
+                token |= matchExtra;
+            }
+        }
+        dest[tokenPos] = (byte)token;
+        return op;
+    }
+
+    private static int writeLength(int length, @Nonnull byte[] dest, int op) {
+        int remaining = length;
+        while (remaining >= 255) {
+            dest[op++] = (byte)255;
+            remaining -= 255;
+        }
+        dest[op++] = (byte)remaining;
+        return op;
+    }
+
+    @Override
+    public void decompress(@Nonnull byte[] data, int offset, int length, @Nonnull byte[] dest) throws DataFormatException {
+        final int end = offset + length;
+        int ip = offset;
+        int op = 0;
+        while (ip < end) {
+            final int token = data[ip++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new DataFormatException("truncated literal length");
+                    }
+                    b = data[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > end - ip) {
+                throw new DataFormatException("literals past end of input");
+            }
+            if (literalLength > dest.length - op) {
+                throw tooLarge(dest);
+            }
+            System.arraycopy(data, ip, dest, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+            if (ip == end) {
+                break; // the last sequence has no match
+            }
+            if (end - ip < 2) {
+                throw new DataFormatException("truncated match offset");
+            }
+            final int matchOffset = (data[ip] & 0xFF) | (data[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (matchOffset == 0 || matchOffset > op) {
+                throw new DataFormatException("invalid match offset");
+            }
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw new DataFormatException("truncated match length");
+                    }
+                    b = data[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > dest.length - op) {
+                throw tooLarge(dest);
+            }
+            // The match may overlap what it is copying, so copy one byte at a time.
+            int ref = op - matchOffset;
+            for (int i = 0; i < matchLength; i++) {
+                dest[op++] = dest[ref++];
+            }
+        }
+        if (op < dest.length) {
+            throw new RecordSerializationException("decompressed record too small")
+                    .addLogInfo(LogMessageKeys.EXPECTED, dest.length)
+                    .addLogInfo(LogMessageKeys.ACTUAL, op);
+        }
+    }
+
+    @Nonnull
+    private static RecordCoreException tooLarge(@Nonnull byte[] dest) {
+        return new RecordSerializationException("decompressed record too large")
+                .addLogInfo(LogMessageKeys.EXPECTED, dest.length);
+    }
+}
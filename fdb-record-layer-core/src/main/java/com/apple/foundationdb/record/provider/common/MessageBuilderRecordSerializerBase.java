@@ -25,10 +25,12 @@ import com.apple.foundationdb.record.RecordMetaData;
 import com.apple.foundationdb.record.logging.LogMessageKeys;
 import com.apple.foundationdb.record.metadata.RecordType;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.UninitializedMessageException;
+import com.google.protobuf.ZeroCopyByteString;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -83,13 +85,22 @@ public abstract class MessageBuilderRecordSerializerBase<M extends Message, U ex
                                           @Nonnull B unionBuilder,
                                           @Nonnull M rec);
 
+    @Nonnull
+    @Override
+    public M deserialize(@Nonnull RecordMetaData metaData,
+                         @Nonnull Tuple primaryKey,
+                         @Nonnull byte[] serialized,
+                         @Nullable StoreTimer timer) {
+        return deserialize(metaData, primaryKey, ZeroCopyByteString.wrap(serialized), timer);
+    }
+
     @Nonnull
     @Override
     @SuppressWarnings({"unchecked", "squid:S1193", "PMD.AvoidInstanceofChecksInCatchClause", // exception type checking is less clunky
                        "PMD.PreserveStackTrace", "PMD.CompareObjectsWithEquals"})
     public M deserialize(@Nonnull RecordMetaData metaData,
                          @Nonnull Tuple primaryKey,
-                         @Nonnull byte[] serialized,
+                         @Nonnull ByteString serialized,
                          @Nullable StoreTimer timer) {
         long startTime = System.nanoTime();
         try {
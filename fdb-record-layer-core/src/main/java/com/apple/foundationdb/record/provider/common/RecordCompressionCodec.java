@@ -0,0 +1,99 @@
+/*
+ * RecordCompressionCodec.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.metadata.RecordType;
+
+import javax.annotation.Nonnull;
+import java.util.zip.DataFormatException;
+
+/**
+ * A compression algorithm used by {@link TransformedRecordSerializer}.
+ *
+ * <p>
+ * Compressed records begin with a byte giving the {@linkplain #getCompressionVersion() compression version}, followed
+ * by the uncompressed length as a four byte big-endian integer, followed by whatever the codec produced. The version
+ * determines which codec is used to decompress a record, so a serializer can read records written with any
+ * of the codecs it knows about, whichever one it uses to write new records. The built-in versions are:
+ * </p>
+ * <ol>
+ *     <li>{@link DeflateRecordCompressionCodec Deflate}, which is the default and the only version written by older serializers</li>
+ *     <li>{@link Lz4RecordCompressionCodec LZ4}, which compresses less but is several times faster</li>
+ *     <li>{@link DeflateRecordCompressionCodec Deflate} with a preset dictionary for each record type
+ *     (see {@link RecordCompressionDictionaries}), which helps with small records</li>
+ * </ol>
+ * <p>
+ * Other codecs, such as one based on a native Zstandard library, can be added by implementing this interface with
+ * an unused version between {@code 4} and {@code 127}.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public interface RecordCompressionCodec {
+    /**
+     * The compression version of {@link DeflateRecordCompressionCodec} without dictionaries.
+     */
+    int DEFLATE_VERSION = 1;
+    /**
+     * The compression version of {@link Lz4RecordCompressionCodec}.
+     */
+    int LZ4_VERSION = 2;
+    /**
+     * The compression version of {@link DeflateRecordCompressionCodec} with dictionaries.
+     */
+    int DEFLATE_DICTIONARY_VERSION = 3;
+    /**
+     * The largest compression version that fits in the serialized header.
+     */
+    int MAX_VERSION = Byte.MAX_VALUE;
+
+    /**
+     * Get the version that identifies records compressed by this codec.
+     * @return the compression version, between {@code 1} and {@value #MAX_VERSION}
+     */
+    int getCompressionVersion();
+
+    /**
+     * Compress serialized record bytes.
+     * @param recordType the type of the record being compressed
+     * @param data the array holding the bytes to compress
+     * @param offset the offset of the bytes to compress
+     * @param length the number of bytes to compress
+     * @param dest the array into which to write the compressed bytes
+     * @param destOffset the offset at which to start writing
+     * @param maxLength the maximum number of bytes to write
+     * @return the number of compressed bytes written or {@code -1} if they would not fit in {@code maxLength}, in
+     * which case the record is saved uncompressed
+     */
+    int compress(@Nonnull RecordType recordType, @Nonnull byte[] data, int offset, int length,
+                 @Nonnull byte[] dest, int destOffset, int maxLength);
+
+    /**
+     * Decompress bytes written by {@link #compress}.
+     * @param data the array holding the compressed bytes
+     * @param offset the offset of the compressed bytes
+     * @param length the number of compressed bytes
+     * @param dest an array exactly as long as the uncompressed bytes, into which to decompress
+     * @throws DataFormatException if the compressed bytes are corrupt
+     * @throws RecordSerializationException if they decompress to more or fewer bytes than {@code dest} holds
+     */
+    void decompress(@Nonnull byte[] data, int offset, int length, @Nonnull byte[] dest) throws DataFormatException;
+}
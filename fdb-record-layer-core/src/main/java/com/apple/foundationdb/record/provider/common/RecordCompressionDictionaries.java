@@ -0,0 +1,306 @@
+/*
+ * RecordCompressionDictionaries.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.google.protobuf.ByteString;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Adler32;
+
+/**
+ * Preset dictionaries for {@link DeflateRecordCompressionCodec}, one for each record type that has one.
+ *
+ * <p>
+ * Small records barely compress on their own, since there is little repetition within a single record. A dictionary
+ * of byte sequences common to records of a type, such as field tags and frequent string values, gives the compressor
+ * something to refer back to from the very first byte. Dictionaries can be produced from sample records with
+ * {@link #train(Collection, int)}.
+ * </p>
+ *
+ * <p>
+ * A dictionary is identified in compressed records by its Adler-32 checksum, so dictionaries that were used in the
+ * past must be kept (see {@link #withRetired(Collection)}) for as long as records compressed with them may exist. The
+ * dictionaries are meant to be kept with the store they are used for, for example in a store header user field
+ * (see {@link com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore#setHeaderUserField(String, ByteString)}
+ * and {@link #HEADER_USER_FIELD}) using {@link #toByteString()} and {@link #fromByteString(ByteString)}.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class RecordCompressionDictionaries {
+    /**
+     * A suggested name for the store header user field holding a store's dictionaries.
+     */
+    public static final String HEADER_USER_FIELD = "recordCompressionDictionaries";
+    /**
+     * The largest useful dictionary, which is the size of the Deflate window.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    // length of the sequences counted when training, and how far apart candidate segments start
+    private static final int GRAM_LENGTH = 8;
+    private static final int SEGMENT_LENGTH = 64;
+
+    @Nonnull
+    private final Map<String, byte[]> byRecordType;
+    @Nonnull
+    private final Map<Integer, byte[]> byId;
+
+    public RecordCompressionDictionaries(@Nonnull Map<String, byte[]> byRecordType) {
+        this(byRecordType, Collections.emptyList());
+    }
+
+    private RecordCompressionDictionaries(@Nonnull Map<String, byte[]> byRecordType, @Nonnull Collection<byte[]> retired) {
+        this.byRecordType = new LinkedHashMap<>();
+        this.byId = new HashMap<>();
+        for (byte[] dictionary : retired) {
+            byId.put(dictionaryId(dictionary), dictionary.clone());
+        }
+        for (Map.Entry<String, byte[]> entry : byRecordType.entrySet()) {
+            final byte[] dictionary = entry.getValue();
+            if (dictionary.length == 0 || dictionary.length > MAX_DICTIONARY_SIZE) {
+                throw new RecordCoreArgumentException("invalid compression dictionary size")
+                        .addLogInfo("recordType", entry.getKey())
+                        .addLogInfo("size", dictionary.length);
+            }
+            final byte[] copy = dictionary.clone();
+            this.byRecordType.put(entry.getKey(), copy);
+            byId.put(dictionaryId(copy), copy);
+        }
+    }
+
+    /**
+     * Get the identifier of a dictionary, which is what the compressed data records.
+     * @param dictionary the dictionary
+     * @return the Adler-32 checksum of the dictionary
+     */
+    public static int dictionaryId(@Nonnull byte[] dictionary) {
+        final Adler32 adler = new Adler32();
+        adler.update(dictionary);
+        return (int)adler.getValue();
+    }
+
+    /**
+     * Get the dictionary to use for compressing records of the given type.
+     * @param recordTypeName the name of the record type
+     * @return the dictionary or {@code null} if records of that type should be compressed without one
+     */
+    @Nullable
+    public byte[] getDictionary(@Nonnull String recordTypeName) {
+        return byRecordType.get(recordTypeName);
+    }
+
+    /**
+     * Get a dictionary, either current or retired, by its identifier.
+     * @param dictionaryId the identifier from {@link #dictionaryId(byte[])}
+     * @return the dictionary or {@code null} if there is none with that identifier
+     */
+    @Nullable
+    public byte[] getDictionaryById(int dictionaryId) {
+        return byId.get(dictionaryId);
+    }
+
+    /**
+     * Get a copy of these dictionaries that can also decompress records compressed with the given older
+     * dictionaries.
+     * @param retired dictionaries that are no longer used to compress
+     * @return new dictionaries including the retired ones
+     */
+    @Nonnull
+    public RecordCompressionDictionaries withRetired(@Nonnull Collection<byte[]> retired) {
+        final List<byte[]> allRetired = new ArrayList<>(retired);
+        for (byte[] dictionary : byId.values()) {
+            if (!byRecordType.containsValue(dictionary)) {
+                allRetired.add(dictionary);
+            }
+        }
+        return new RecordCompressionDictionaries(byRecordType, allRetired);
+    }
+
+    /**
+     * Serialize these dictionaries, including retired ones.
+     * @return the serialized form
+     * @see #fromByteString(ByteString)
+     */
+    @Nonnull
+    public ByteString toByteString() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(byRecordType.size());
+            for (Map.Entry<String, byte[]> entry : byRecordType.entrySet()) {
+                final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            final List<byte[]> retired = new ArrayList<>();
+            for (byte[] dictionary : byId.values()) {
+                if (!byRecordType.containsValue(dictionary)) {
+                    retired.add(dictionary);
+                }
+            }
+            out.writeInt(retired.size());
+            for (byte[] dictionary : retired) {
+                out.writeInt(dictionary.length);
+                out.write(dictionary);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return ByteString.copyFrom(bytes.toByteArray());
+    }
+
+    /**
+     * Deserialize dictionaries written by {@link #toByteString()}.
+     * @param serialized the serialized form
+     * @return the deserialized dictionaries
+     */
+    @Nonnull
+    public static RecordCompressionDictionaries fromByteString(@Nonnull ByteString serialized) {
+        try (DataInputStream in = new DataInputStream(serialized.newInput())) {
+            final Map<String, byte[]> byRecordType = new LinkedHashMap<>();
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String name = new String(readBytes(in), StandardCharsets.UTF_8);
+                byRecordType.put(name, readBytes(in));
+            }
+            final List<byte[]> retired = new ArrayList<>();
+            final int retiredCount = in.readInt();
+            for (int i = 0; i < retiredCount; i++) {
+                retired.add(readBytes(in));
+            }
+            return new RecordCompressionDictionaries(byRecordType, retired);
+        } catch (IOException ex) {
+            throw new RecordSerializationException("invalid serialized compression dictionaries", ex);
+        }
+    }
+
+    @Nonnull
+    private static byte[] readBytes(@Nonnull DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_DICTIONARY_SIZE) {
+            throw new IOException("invalid length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Build a dictionary from samples of the serialized form of records of a single type.
+     *
+     * <p>
+     * Each sample is divided into segments, and each segment is scored by how many samples share the byte
+     * sequences in it. The best segments are chosen greedily, not counting again sequences already covered by
+     * chosen segments, until the dictionary is full. The best segments go at the end of the dictionary, where
+     * the compressor can refer to them most cheaply. Samples should be the bytes that are actually compressed,
+     * such as the output of {@link DynamicMessageRecordSerializer}, and there should be at least a few dozen.
+     * </p>
+     *
+     * @param samples serialized records
+     * @param maxSize the maximum size of the dictionary, at most {@value #MAX_DICTIONARY_SIZE}
+     * @return the dictionary, which is empty if the samples had nothing in common
+     */
+    @Nonnull
+    public static byte[] train(@Nonnull Collection<byte[]> samples, int maxSize) {
+        if (maxSize <= 0 || maxSize > MAX_DICTIONARY_SIZE) {
+            throw new RecordCoreArgumentException("invalid compression dictionary size")
+                    .addLogInfo("size", maxSize);
+        }
+        // Count the number of samples in which each sequence appears.
+        final Map<Long, Integer> frequencies = new HashMap<>();
+        for (byte[] sample : samples) {
+            final Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= sample.length; i++) {
+                final long gram = gramAt(sample, i);
+                if (seen.add(gram)) {
+                    frequencies.merge(gram, 1, Integer::sum);
+                }
+            }
+        }
+        final List<byte[]> chosen = new ArrayList<>();
+        int size = 0;
+        while (size < maxSize) {
+            byte[] best = null;
+            long bestScore = 0;
+            for (byte[] sample : samples) {
+                for (int start = 0; start + GRAM_LENGTH <= sample.length; start += SEGMENT_LENGTH / 2) {
+                    final int end = Math.min(sample.length, start + SEGMENT_LENGTH);
+                    long score = 0;
+                    for (int i = start; i + GRAM_LENGTH <= end; i++) {
+                        final int frequency = frequencies.getOrDefault(gramAt(sample, i), 0);
+                        // Sequences found in only one sample are not worth anything.
+                        if (frequency > 1) {
+                            score += frequency;
+                        }
+                    }
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = Arrays.copyOfRange(sample, start, end);
+                    }
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            for (int i = 0; i + GRAM_LENGTH <= best.length; i++) {
+                frequencies.remove(gramAt(best, i));
+            }
+            final int length = Math.min(best.length, maxSize - size);
+            chosen.add(Arrays.copyOfRange(best, 0, length));
+            size += length;
+        }
+        final byte[] dictionary = new byte[size];
+        int pos = size;
+        for (byte[] segment : chosen) {
+            pos -= segment.length;
+            System.arraycopy(segment, 0, dictionary, pos, segment.length);
+        }
+        return dictionary;
+    }
+
+    private static long gramAt(@Nonnull byte[] data, int pos) {
+        long gram = 0;
+        for (int i = 0; i < GRAM_LENGTH; i++) {
+            gram = (gram << 8) | (data[pos + i] & 0xFF);
+        }
+        return gram;
+    }
+}
@@ -26,11 +26,14 @@ import com.apple.foundationdb.record.metadata.RecordType;
 import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecord;
 import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecordBuilder;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import com.google.protobuf.ZeroCopyByteString;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A converter between a Protobuf record and a byte string stored in one or more values in the FDB key-value store.
@@ -79,6 +82,49 @@ public interface RecordSerializer<M extends Message> {
     M deserialize(@Nonnull RecordMetaData metaData, @Nonnull Tuple primaryKey,
                   @Nonnull byte[] serialized, @Nullable StoreTimer timer);
 
+    /**
+     * Convert bytes to a Protobuf record without requiring them to be in a single array. The bytes of a
+     * split record are given as the concatenation of its pieces, which serializers that can parse from a
+     * {@link ByteString} directly should do, rather than copy them all. The default implementation gets
+     * the bytes as an array, which is a copy unless {@code serialized} wraps exactly one array, and calls
+     * {@link #deserialize(RecordMetaData, Tuple, byte[], StoreTimer)}.
+     *
+     * @param metaData the store's meta-data
+     * @param primaryKey the primary key of the record
+     * @param serialized the serialized bytes
+     * @param timer a timer used to instrument deserialization
+     * @return the deserialized record
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default M deserialize(@Nonnull RecordMetaData metaData, @Nonnull Tuple primaryKey,
+                          @Nonnull ByteString serialized, @Nullable StoreTimer timer) {
+        return deserialize(metaData, primaryKey, ZeroCopyByteString.getBytes(serialized), timer);
+    }
+
+    /**
+     * Convert bytes to a Protobuf record, decoding only some of its top-level fields if possible. The record
+     * returned must behave exactly as the fully parsed one would, but serializers that can put off decoding
+     * fields until they are asked for, such as {@link DynamicMessageRecordSerializer} with
+     * {@link LazyDynamicMessage}, need only decode the projected ones up front. The default implementation ignores
+     * the projection and calls {@link #deserialize(RecordMetaData, Tuple, ByteString, StoreTimer)}.
+     *
+     * @param metaData the store's meta-data
+     * @param primaryKey the primary key of the record
+     * @param serialized the serialized bytes
+     * @param projectedFields the names of the top-level fields that the caller is going to look at or
+     * {@code null} to decode all of them
+     * @param timer a timer used to instrument deserialization
+     * @return the deserialized record
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default M deserialize(@Nonnull RecordMetaData metaData, @Nonnull Tuple primaryKey,
+                          @Nonnull ByteString serialized, @Nullable Set<String> projectedFields,
+                          @Nullable StoreTimer timer) {
+        return deserialize(metaData, primaryKey, serialized, timer);
+    }
+
     /**
      * Convert this typed record serializer to an untyped one.
      *
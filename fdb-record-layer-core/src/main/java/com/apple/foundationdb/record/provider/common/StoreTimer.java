@@ -44,7 +44,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -66,6 +67,12 @@ public class StoreTimer {
     protected final Map<Event, Counter> counters;
     @Nonnull
     protected final Map<Event, Counter> timeoutCounters;
+    /**
+     * The counters of {@link #counters} indexed by event slot, if this timer uses slots.
+     */
+    @Nullable
+    private final AtomicReferenceArray<Counter> slottedCounters;
+    private final boolean recordHistograms;
     protected long lastReset;
     @Nonnull
     protected final UUID uuid;
@@ -83,6 +90,18 @@ public class StoreTimer {
         }
     }
 
+    /**
+     * Assign slots to the given events ahead of any timer being created, so that timers created afterwards
+     * can find the counters for those events by slot. Events whose slots are only assigned once a timer exists still
+     * work, but that timer looks up their counters by hash.
+     *
+     * @param events the events that are expected to be recorded
+     * @see #StoreTimer(boolean)
+     */
+    protected static void reserveEventSlots(@Nonnull Stream<? extends Event> events) {
+        events.forEach(EventSlots::slotOf);
+    }
+
     /**
      * Subtracts counts and times recorded by a snapshot of a timer returning a new timer representing the difference.
      * <p>
@@ -134,7 +153,14 @@ public class StoreTimer {
 
                 // Do not add events that weren't changed since the snapshot
                 if (count > 0) {
-                    differenceCounters.put(event, new Counter(count, counter.getCumulativeValue() - snapShotCounter.getCumulativeValue()));
+                    @Nullable LatencyHistogram histogram = counter.getHistogram();
+                    if (histogram != null) {
+                        histogram = histogram.copy();
+                        if (snapShotCounter.getHistogram() != null) {
+                            histogram.subtract(snapShotCounter.getHistogram());
+                        }
+                    }
+                    differenceCounters.put(event, new Counter(count, counter.getCumulativeValue() - snapShotCounter.getCumulativeValue(), false, histogram));
                 }
             }
         }
@@ -171,13 +197,35 @@ public class StoreTimer {
             }
             return counter;
         } else {
+            final int slot = slottedCounters == null ? -1 : EventSlots.slotOf(event);
+            if (slot >= 0 && slot < slottedCounters.length()) {
+                @Nullable Counter counter = slottedCounters.get(slot);
+                if (counter == null) {
+                    // The map remains the source of truth; the slot only caches what is there.
+                    counter = createIfNotExists ? MapUtils.computeIfAbsent(counters, event, this::newCounter) : counters.get(event);
+                    if (counter != null && slottedCounters.compareAndSet(slot, null, counter) && counters.get(event) != counter) {
+                        // A concurrent reset() removed the counter from the map before it was cached, and may have
+                        // already cleared the slots, so it must not be left in the slot.
+                        slottedCounters.compareAndSet(slot, counter, null);
+                    }
+                }
+                return counter;
+            }
             if (createIfNotExists) {
-                return MapUtils.computeIfAbsent(counters, event, evignore -> new Counter());
+                return MapUtils.computeIfAbsent(counters, event, this::newCounter);
             }
             return counters.get(event);
         }
     }
 
+    @Nonnull
+    private Counter newCounter(@Nonnull Event event) {
+        if (recordHistograms && !(event instanceof Count) && !(event instanceof SizeEvent)) {
+            return new Counter(0, 0L, false, new LatencyHistogram());
+        }
+        return new Counter();
+    }
+
     /**
      * Return the timeout counter value for a given event type.
      *
@@ -406,8 +454,11 @@ public class StoreTimer {
      * {@link StoreTimer.Event}.
      */
     public static class Counter {
-        private final AtomicLong cumulativeValue;
-        private final AtomicInteger count;
+        // Striped, so that threads recording the same event at the same time do not contend on a single value.
+        private final LongAdder cumulativeValue;
+        private final LongAdder count;
+        @Nullable
+        private final LatencyHistogram histogram;
         private boolean immutable;
 
         private Counter() {
@@ -419,7 +470,8 @@ public class StoreTimer {
         }
 
         private Counter(Counter counter, boolean immutable) {
-            this(counter.getCount(), counter.getCumulativeValue(), immutable);
+            this(counter.getCount(), counter.getCumulativeValue(), immutable,
+                    counter.histogram == null ? null : counter.histogram.copy());
         }
 
         public Counter(boolean immutable) {
@@ -431,8 +483,15 @@ public class StoreTimer {
         }
 
         public Counter(int count, long cumulativeValue, boolean immutable) {
-            this.count = new AtomicInteger(count);
-            this.cumulativeValue = new AtomicLong(cumulativeValue);
+            this(count, cumulativeValue, immutable, null);
+        }
+
+        private Counter(int count, long cumulativeValue, boolean immutable, @Nullable LatencyHistogram histogram) {
+            this.histogram = histogram;
+            this.count = new LongAdder();
+            this.count.add(count);
+            this.cumulativeValue = new LongAdder();
+            this.cumulativeValue.add(cumulativeValue);
             this.immutable = immutable;
         }
 
@@ -442,7 +501,7 @@ public class StoreTimer {
          * @return the number of occurrences of the associated event
          */
         public int getCount() {
-            return count.get();
+            return (int)count.sum();
         }
 
         /**
@@ -462,7 +521,21 @@ public class StoreTimer {
          * @return the cumulative value of the associated event
          */
         public long getCumulativeValue() {
-            return cumulativeValue.get();
+            return cumulativeValue.sum();
+        }
+
+        /**
+         * Get the distribution of the values of the individual occurrences of the associated event. This is only
+         * kept for timed events, and only by timers created to record histograms.
+         *
+         * @return the histogram of occurrence values, which continues to change as occurrences are recorded, or
+         * {@code null} if not kept
+         * @see StoreTimer#StoreTimer(boolean, boolean)
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nullable
+        public LatencyHistogram getHistogram() {
+            return histogram;
         }
 
         /**
@@ -472,8 +545,11 @@ public class StoreTimer {
          */
         public void record(long occurrenceValue) {
             checkImmutable();
-            cumulativeValue.addAndGet(occurrenceValue);
-            count.incrementAndGet();
+            cumulativeValue.add(occurrenceValue);
+            count.increment();
+            if (histogram != null) {
+                histogram.record(occurrenceValue);
+            }
         }
 
         /**
@@ -483,7 +559,7 @@ public class StoreTimer {
          */
         public void increment(int amount) {
             checkImmutable();
-            count.addAndGet(amount);
+            count.add(amount);
         }
 
         /**
@@ -493,8 +569,11 @@ public class StoreTimer {
          */
         public void add(@Nonnull Counter counter) {
             checkImmutable();
-            cumulativeValue.addAndGet(counter.getCumulativeValue());
-            count.addAndGet(counter.getCount());
+            cumulativeValue.add(counter.getCumulativeValue());
+            count.add(counter.getCount());
+            if (histogram != null && counter.histogram != null) {
+                histogram.add(counter.histogram);
+            }
         }
 
         /**
@@ -517,8 +596,47 @@ public class StoreTimer {
     }
 
     public StoreTimer() {
+        this(false);
+    }
+
+    /**
+     * Create a new timer, optionally finding counters by slot.
+     * <p>
+     * With slots, each event that is an {@code enum} constant is assigned a dense integer slot the first time its
+     * {@code enum} class is seen (see {@link #reserveEventSlots(Stream)}), and the timer keeps its counters in an
+     * array indexed by that slot. Recording such an event then costs an array read and a striped add instead of a
+     * hash lookup. The counters are still kept in {@link #counters} as well, so snapshots, aggregates and
+     * {@link #getKeysAndValues()} behave the same either way. The price is an array of one reference per assigned
+     * slot for each timer, so slots are most worthwhile for long-lived timers that see a lot of events.
+     * </p>
+     *
+     * @param useEventSlots whether to find counters by slot
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public StoreTimer(boolean useEventSlots) {
+        this(useEventSlots, false);
+    }
+
+    /**
+     * Create a new timer, optionally finding counters by slot and optionally recording histograms.
+     * <p>
+     * With histograms, the counter of each timed event (that is, neither a {@link Count} nor a {@link SizeEvent})
+     * also keeps a {@link LatencyHistogram} of the individual times recorded, so that percentiles can be reported
+     * and not just averages. Each such counter then takes a few kilobytes more memory, and recording costs one more
+     * atomic increment. The percentiles appear in {@link #getKeysAndValues()} and in {@link StoreTimerSnapshot}s,
+     * and histograms are combined by {@link #add(StoreTimer)} and {@link #getDifference(StoreTimer, StoreTimerSnapshot)}.
+     * </p>
+     *
+     * @param useEventSlots whether to find counters by slot
+     * @param recordHistograms whether to record histograms of timed events
+     * @see #StoreTimer(boolean)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public StoreTimer(boolean useEventSlots, boolean recordHistograms) {
         counters = new ConcurrentHashMap<>();
         timeoutCounters = new ConcurrentHashMap<>();
+        slottedCounters = useEventSlots ? new AtomicReferenceArray<>(EventSlots.size()) : null;
+        this.recordHistograms = recordHistograms;
         lastReset = System.nanoTime();
         uuid = UUID.randomUUID();
     }
@@ -752,11 +870,18 @@ public class StoreTimer {
         for (Map.Entry<Event, Counter> entry : counters.entrySet()) {
             Event event = entry.getKey();
             Counter counter = entry.getValue();
-            result.put(event.logKeyWithSuffix("_count"), counter.count.get());
+            result.put(event.logKeyWithSuffix("_count"), counter.getCount());
             if (event instanceof SizeEvent) {
                 result.put(event.logKeyWithSuffix("_size"), counter.getCumulativeValue());
             } else if (!(event instanceof Count)) {
                 result.put(event.logKeyWithSuffix("_micros"), counter.getTimeNanos() / 1000L);
+                @Nullable LatencyHistogram histogram = counter.getHistogram();
+                if (histogram != null) {
+                    result.put(event.logKeyWithSuffix("_p50_micros"), histogram.getValueAtPercentile(50.0) / 1000L);
+                    result.put(event.logKeyWithSuffix("_p90_micros"), histogram.getValueAtPercentile(90.0) / 1000L);
+                    result.put(event.logKeyWithSuffix("_p99_micros"), histogram.getValueAtPercentile(99.0) / 1000L);
+                    result.put(event.logKeyWithSuffix("_max_micros"), histogram.getMaxValue() / 1000L);
+                }
             }
         }
 
@@ -769,7 +894,7 @@ public class StoreTimer {
         for (Aggregate aggregate : getAggregates()) {
             @Nullable Counter counter = aggregate.compute(this);
             if (counter != null) {
-                result.put(aggregate.logKeyWithSuffix("_count"), counter.count.get());
+                result.put(aggregate.logKeyWithSuffix("_count"), counter.getCount());
                 if (!(aggregate instanceof Count)) {
                     result.put(aggregate.logKeyWithSuffix("_micros"), counter.getTimeNanos() / 1000L);
                 }
@@ -783,8 +908,14 @@ public class StoreTimer {
      * Clear all recorded timing information.
      */
     public void reset() {
+        // The map is cleared first, so that getCounter() can tell whether a counter it is caching was reset.
         counters.clear();
         timeoutCounters.clear();
+        if (slottedCounters != null) {
+            for (int i = 0; i < slottedCounters.length(); i++) {
+                slottedCounters.set(i, null);
+            }
+        }
         lastReset = System.nanoTime();
     }
 
@@ -938,4 +1069,33 @@ public class StoreTimer {
             }
         });
     }
+
+    /**
+     * Assignment of dense slots to events. The constants of an event {@code enum} get consecutive slots, assigned all
+     * at once when the {@code enum} class is first seen. Events that are not {@code enum} constants have no slot.
+     */
+    private static final class EventSlots {
+        private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+        private static final ClassValue<Integer> FIRST_SLOT = new ClassValue<>() {
+            @Override
+            protected Integer computeValue(Class<?> type) {
+                return NEXT_SLOT.getAndAdd(type.getEnumConstants().length);
+            }
+        };
+
+        private EventSlots() {
+        }
+
+        static int slotOf(@Nonnull Event event) {
+            if (event instanceof Enum<?>) {
+                final Enum<?> constant = (Enum<?>)event;
+                return FIRST_SLOT.get(constant.getDeclaringClass()) + constant.ordinal();
+            }
+            return -1;
+        }
+
+        static int size() {
+            return NEXT_SLOT.get();
+        }
+    }
 }
@@ -179,10 +179,13 @@ public final class StoreTimerSnapshot {
     public static class CounterSnapshot {
         private final long cumulativeValue;
         private final int count;
+        @Nullable
+        private final LatencyHistogram histogram;
 
         private CounterSnapshot(@Nonnull StoreTimer.Counter c) {
             cumulativeValue = c.getCumulativeValue();
             count = c.getCount();
+            histogram = c.getHistogram() == null ? null : c.getHistogram().immutableCopy();
         }
 
         /**
@@ -223,5 +226,17 @@ public final class StoreTimerSnapshot {
         public long getCumulativeValue() {
             return cumulativeValue;
         }
+
+        /**
+         * Get the distribution of the values of the individual occurrences of the associated event.
+         *
+         * @return an immutable histogram of occurrence values or {@code null} if the timer did not keep one
+         * @see StoreTimer.Counter#getHistogram()
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nullable
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
     }
 }
@@ -30,18 +30,23 @@ import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecord;
 import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecordBuilder;
 import com.apple.foundationdb.tuple.Tuple;
 import com.google.common.base.Verify;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import com.google.protobuf.ZeroCopyByteString;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 /**
  * A {@link RecordSerializer} implementation that transforms the bytes produced
@@ -69,6 +74,15 @@ import java.util.zip.Inflater;
  * </p>
  *
  * <p>
+ * Compression uses Deflate by default. A different {@link RecordCompressionCodec}, such as
+ * {@link Lz4RecordCompressionCodec LZ4}, can be chosen with {@link Builder#setCompressionCodec(RecordCompressionCodec)}.
+ * Each compressed record says which codec compressed it, and records compressed with Deflate
+ * can always be read. Records compressed with any other codec can only be read by a serializer that
+ * either compresses with that codec or has it as an additional {@link Builder#addDecompressionCodec(RecordCompressionCodec)
+ * decompression codec}, so a store changing from one codec to another should keep the old one for reading.
+ * </p>
+ *
+ * <p>
  * It is designed to be compatible with the {@link DynamicMessageRecordSerializer}
  * insofar as it can deserialize records written by that serializer, though
  * records serialized by this class cannot be read by instances of that class.
@@ -82,7 +96,7 @@ import java.util.zip.Inflater;
 public class TransformedRecordSerializer<M extends Message> implements RecordSerializer<M> {
     protected static final int DEFAULT_COMPRESSION_LEVEL = Deflater.BEST_COMPRESSION;
     protected static final int MIN_COMPRESSION_VERSION = 1;
-    protected static final int MAX_COMPRESSION_VERSION = 1;
+    protected static final int MAX_COMPRESSION_VERSION = RecordCompressionCodec.MAX_VERSION;
 
     @Nonnull
     protected final RecordSerializer<M> inner;
@@ -93,6 +107,13 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
     protected final double writeEncryptionValidationRatio;
     protected final boolean failOnDeserializeReattempt;
     protected final int deserializeReattemptCount;
+    @Nonnull
+    protected final RecordCompressionCodec compressionCodec;
+    @Nonnull
+    protected final List<RecordCompressionCodec> decompressionCodecs;
+    // indexed by compression version
+    @Nonnull
+    private final RecordCompressionCodec[] codecsByVersion;
 
     protected TransformedRecordSerializer(@Nonnull RecordSerializer<M> inner,
                                           boolean compressWhenSerializing,
@@ -102,6 +123,23 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
                                           double writeEncryptionValidationRatio,
                                           boolean failOnDeserializeReattempt,
                                           int deserializeReattemptCount) {
+        this(inner, compressWhenSerializing, compressionLevel, encryptWhenSerializing, writeValidationRatio,
+                writeEncryptionValidationRatio, failOnDeserializeReattempt, deserializeReattemptCount,
+                new DeflateRecordCompressionCodec(compressionLevel), Collections.emptyList());
+    }
+
+    @API(API.Status.EXPERIMENTAL)
+    @SuppressWarnings("squid:S00107") // too many parameters
+    protected TransformedRecordSerializer(@Nonnull RecordSerializer<M> inner,
+                                          boolean compressWhenSerializing,
+                                          int compressionLevel,
+                                          boolean encryptWhenSerializing,
+                                          double writeValidationRatio,
+                                          double writeEncryptionValidationRatio,
+                                          boolean failOnDeserializeReattempt,
+                                          int deserializeReattemptCount,
+                                          @Nonnull RecordCompressionCodec compressionCodec,
+                                          @Nonnull List<RecordCompressionCodec> decompressionCodecs) {
         this.inner = inner;
         this.compressWhenSerializing = compressWhenSerializing;
         this.compressionLevel = compressionLevel;
@@ -110,9 +148,27 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
         this.writeEncryptionValidationRatio = writeEncryptionValidationRatio;
         this.failOnDeserializeReattempt = failOnDeserializeReattempt;
         this.deserializeReattemptCount = deserializeReattemptCount;
+        this.compressionCodec = compressionCodec;
+        this.decompressionCodecs = List.copyOf(decompressionCodecs);
+        this.codecsByVersion = new RecordCompressionCodec[RecordCompressionCodec.MAX_VERSION + 1];
+        // Later codecs win, so the one used for compressing is always the one used for its own records.
+        addCodec(new DeflateRecordCompressionCodec(compressionLevel));
+        for (RecordCompressionCodec codec : decompressionCodecs) {
+            addCodec(codec);
+        }
+        addCodec(compressionCodec);
     }
 
-    protected void compress(@Nonnull TransformedRecordSerializerState state, @Nullable StoreTimer timer) {
+    private void addCodec(@Nonnull RecordCompressionCodec codec) {
+        final int version = codec.getCompressionVersion();
+        if (version < MIN_COMPRESSION_VERSION || version > MAX_COMPRESSION_VERSION) {
+            throw new RecordCoreArgumentException("invalid compression version")
+                    .addLogInfo("compressionVersion", version);
+        }
+        codecsByVersion[version] = codec;
+    }
+
+    protected void compress(@Nonnull TransformedRecordSerializerState state, @Nonnull RecordType recordType, @Nullable StoreTimer timer) {
         long startTime = System.nanoTime();
 
         increment(timer, Counts.RECORD_BYTES_BEFORE_COMPRESSION, state.getLength());
@@ -123,25 +179,18 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
             // Compressed bytes have 5 bytes of prefixed information about the compression state.
             byte[] compressed = new byte[state.getLength()];
 
-            // Actually compress. If we end up filling the buffer, then just
+            // Actually compress. If the result does not fit, then just
             // return the uncompressed value because it's pointless to compress
             // if we actually increase the amount of data.
-            Deflater compressor = new Deflater(compressionLevel);
-            int compressedLength;
-            try {
-                compressor.setInput(state.getData(), state.getOffset(), state.getLength());
-                compressor.finish(); // necessary to include checksum
-                compressedLength = compressor.deflate(compressed, 5, compressed.length - 5, Deflater.FULL_FLUSH);
-            } finally {
-                compressor.end();
-            }
-            if (compressedLength == compressed.length - 5) {
+            int compressedLength = compressionCodec.compress(recordType, state.getData(), state.getOffset(), state.getLength(),
+                    compressed, 5, compressed.length - 5);
+            if (compressedLength < 0) {
                 increment(timer, Counts.RECORD_BYTES_AFTER_COMPRESSION, state.getLength());
                 state.setCompressed(false);
             } else {
                 // Write compression version number and uncompressed size as these
                 // meta-data are needed when decompressing.
-                compressed[0] = (byte)MAX_COMPRESSION_VERSION;
+                compressed[0] = (byte)compressionCodec.getCompressionVersion();
                 ByteBuffer.wrap(compressed, 1, 4).order(ByteOrder.BIG_ENDIAN).putInt(state.getLength());
                 state.setCompressed(true);
                 increment(timer, Counts.RECORD_BYTES_AFTER_COMPRESSION, compressedLength + 5);
@@ -212,7 +261,7 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
         TransformedRecordSerializerState state = new TransformedRecordSerializerState(innerSerialized);
 
         if (compressWhenSerializing) {
-            compress(state, timer);
+            compress(state, recordType, timer);
         }
 
         if (encryptWhenSerializing) {
@@ -241,12 +290,12 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
     protected void decompress(@Nonnull TransformedRecordSerializerState state, @Nullable StoreTimer timer) throws DataFormatException {
         final long startTime = System.nanoTime();
 
-        // At the moment, there is only one compression version, so
-        // we after we've verified it is in the right range, we
-        // can just move on. If we ever introduce a new format version,
-        // we will need to make this code more complicated.
+        // The version says which codec compressed the record. Only versions
+        // whose codec this serializer was given can be read.
         int compressionVersion = state.getData()[state.getOffset()];
-        if (compressionVersion < MIN_COMPRESSION_VERSION || compressionVersion > MAX_COMPRESSION_VERSION) {
+        final RecordCompressionCodec codec = compressionVersion < MIN_COMPRESSION_VERSION || compressionVersion > MAX_COMPRESSION_VERSION
+                                             ? null : codecsByVersion[compressionVersion];
+        if (codec == null) {
             throw new RecordSerializationException("unknown compression version")
                     .addLogInfo("compressionVersion", compressionVersion);
         }
@@ -257,22 +306,7 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
                     .addLogInfo("decompressedLength", decompressedLength);
         }
         byte[] decompressed = new byte[decompressedLength];
-
-        Inflater decompressor = new Inflater();
-        try {
-            decompressor.setInput(state.getData(), state.getOffset() + 5, state.getLength() - 5);
-            int actualDecompressedSize = decompressor.inflate(decompressed);
-            if (actualDecompressedSize < decompressedLength) {
-                throw new RecordSerializationException("decompressed record too small")
-                        .addLogInfo(LogMessageKeys.EXPECTED, decompressedLength)
-                        .addLogInfo(LogMessageKeys.ACTUAL, actualDecompressedSize);
-            } else if (decompressor.getRemaining() > 0) {
-                throw new RecordSerializationException("decompressed record too large")
-                        .addLogInfo(LogMessageKeys.EXPECTED, decompressedLength);
-            }
-        } finally {
-            decompressor.end();
-        }
+        codec.decompress(state.getData(), state.getOffset() + 5, state.getLength() - 5, decompressed);
 
         state.setDataArray(decompressed);
 
@@ -325,12 +359,48 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
                          @Nonnull Tuple primaryKey,
                          @Nonnull byte[] serialized,
                          @Nullable StoreTimer timer) {
+        return deserialize(metaData, primaryKey, serialized, null, timer);
+    }
+
+    @Nonnull
+    private M deserialize(@Nonnull RecordMetaData metaData,
+                          @Nonnull Tuple primaryKey,
+                          @Nonnull byte[] serialized,
+                          @Nullable Set<String> projectedFields,
+                          @Nullable StoreTimer timer) {
         TransformedRecordSerializerState state = new TransformedRecordSerializerState(serialized);
         if (!TransformedRecordSerializerPrefix.decodePrefix(state, primaryKey)) {
-            return inner.deserialize(metaData, primaryKey, serialized, timer);
+            return inner.deserialize(metaData, primaryKey, ZeroCopyByteString.wrap(serialized), projectedFields, timer);
         }
         decryptAndDecompressWithRetries(metaData, primaryKey, serialized, state, timer);
-        return inner.deserialize(metaData, primaryKey, state.getDataArray(), timer);
+        // Pass on a view rather than a copy of what follows the prefix, which matters when nothing was transformed.
+        return inner.deserialize(metaData, primaryKey, ZeroCopyByteString.wrap(state.getData(), state.getOffset(), state.getLength()),
+                projectedFields, timer);
+    }
+
+    @Nonnull
+    @Override
+    public M deserialize(@Nonnull RecordMetaData metaData,
+                         @Nonnull Tuple primaryKey,
+                         @Nonnull ByteString serialized,
+                         @Nullable StoreTimer timer) {
+        return deserialize(metaData, primaryKey, serialized, null, timer);
+    }
+
+    @Nonnull
+    @Override
+    public M deserialize(@Nonnull RecordMetaData metaData,
+                         @Nonnull Tuple primaryKey,
+                         @Nonnull ByteString serialized,
+                         @Nullable Set<String> projectedFields,
+                         @Nullable StoreTimer timer) {
+        if (serialized.isEmpty() || serialized.byteAt(0) != TransformedRecordSerializerPrefix.PREFIX_CLEAR) {
+            // Decompression and decryption need the bytes in a single array.
+            return deserialize(metaData, primaryKey, ZeroCopyByteString.getBytes(serialized), projectedFields, timer);
+        }
+        // An untransformed record has just a one byte prefix, so the rest can be passed on without joining the
+        // pieces of a split record.
+        return inner.deserialize(metaData, primaryKey, serialized.substring(1), projectedFields, timer);
     }
 
     private void decryptAndDecompressWithRetries(@Nonnull RecordMetaData metaData,
@@ -387,7 +457,7 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
     public RecordSerializer<Message> widen() {
         return new TransformedRecordSerializer<>(inner.widen(), compressWhenSerializing, compressionLevel,
                 encryptWhenSerializing, writeValidationRatio, writeEncryptionValidationRatio, failOnDeserializeReattempt,
-                deserializeReattemptCount);
+                deserializeReattemptCount, compressionCodec, decompressionCodecs);
     }
 
     @Nonnull
@@ -441,6 +511,10 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
         protected double writeEncryptionValidationRatio;
         protected boolean failOnDeserializeReattempt;
         protected int deserializeReattemptCount;
+        @Nullable
+        protected RecordCompressionCodec compressionCodec;
+        @Nonnull
+        protected final List<RecordCompressionCodec> decompressionCodecs = new ArrayList<>();
 
         protected Builder(@Nonnull RecordSerializer<M> inner) {
             this.inner = inner;
@@ -480,6 +554,42 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
             return this;
         }
 
+        /**
+         * Codec to use if compressing. By default, records are compressed with Deflate at the
+         * {@linkplain #setCompressionLevel(int) compression level}. Records already compressed with
+         * Deflate can still be read after setting this, as can records compressed with this codec,
+         * but not records compressed with some other codec unless that is
+         * {@linkplain #addDecompressionCodec(RecordCompressionCodec) added}. Setting
+         * this does <i>not</i> automatically enable compression when serializing.
+         * @param compressionCodec the codec to compress with or {@code null} for the default
+         * @return this <code>Builder</code>
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nonnull
+        public Builder<M> setCompressionCodec(@Nullable RecordCompressionCodec compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
+        /**
+         * Add a codec that can be used to read records, but which is not used to compress new ones.
+         * This is needed when switching a store from one codec to another while records
+         * compressed with the old one remain.
+         * @param decompressionCodec an additional codec for reading
+         * @return this <code>Builder</code>
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nonnull
+        public Builder<M> addDecompressionCodec(@Nonnull RecordCompressionCodec decompressionCodec) {
+            this.decompressionCodecs.add(decompressionCodec);
+            return this;
+        }
+
+        @Nonnull
+        protected RecordCompressionCodec getCompressionCodec() {
+            return compressionCodec == null ? new DeflateRecordCompressionCodec(compressionLevel) : compressionCodec;
+        }
+
         /**
          * Whether to encrypt records after serializing. Should
          * compression and encryption both be set, then data
@@ -577,7 +687,9 @@ public class TransformedRecordSerializer<M extends Message> implements RecordSer
                     writeValidationRatio,
                     writeEncryptionValidationRatio,
                     failOnDeserializeReattempt,
-                    deserializeReattemptCount);
+                    deserializeReattemptCount,
+                    getCompressionCodec(),
+                    decompressionCodecs);
         }
     }
 }
@@ -31,6 +31,8 @@ import javax.crypto.spec.IvParameterSpec;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * An extension of {@link TransformedRecordSerializer} to use JCE to encrypt and decrypt records.
@@ -50,7 +52,25 @@ public class TransformedRecordSerializerJCE<M extends Message> extends Transform
                                              boolean failOnDeserializeReattempt,
                                              int deserializeReattemptCount,
                                              @Nullable SerializationKeyManager keyManager) {
-        super(inner, compressWhenSerializing, compressionLevel, encryptWhenSerializing, writeValidationRatio, writeEncryptionValidationRatio, failOnDeserializeReattempt, deserializeReattemptCount);
+        this(inner, compressWhenSerializing, compressionLevel, encryptWhenSerializing, writeValidationRatio, writeEncryptionValidationRatio, failOnDeserializeReattempt, deserializeReattemptCount,
+                new DeflateRecordCompressionCodec(compressionLevel), Collections.emptyList(), keyManager);
+    }
+
+    @API(API.Status.EXPERIMENTAL)
+    @SuppressWarnings("squid:S00107") // too many parameters
+    protected TransformedRecordSerializerJCE(@Nonnull RecordSerializer<M> inner,
+                                             boolean compressWhenSerializing,
+                                             int compressionLevel,
+                                             boolean encryptWhenSerializing,
+                                             double writeValidationRatio,
+                                             double writeEncryptionValidationRatio,
+                                             boolean failOnDeserializeReattempt,
+                                             int deserializeReattemptCount,
+                                             @Nonnull RecordCompressionCodec compressionCodec,
+                                             @Nonnull List<RecordCompressionCodec> decompressionCodecs,
+                                             @Nullable SerializationKeyManager keyManager) {
+        super(inner, compressWhenSerializing, compressionLevel, encryptWhenSerializing, writeValidationRatio, writeEncryptionValidationRatio, failOnDeserializeReattempt, deserializeReattemptCount,
+                compressionCodec, decompressionCodecs);
         this.keyManager = keyManager;
     }
 
@@ -95,17 +115,13 @@ public class TransformedRecordSerializerJCE<M extends Message> extends Transform
         }
         long startTime = System.nanoTime();
 
-        byte[] ivData = new byte[CipherPool.IV_SIZE];
-        System.arraycopy(state.getData(), state.getOffset(), ivData, 0, CipherPool.IV_SIZE);
-        IvParameterSpec iv = new IvParameterSpec(ivData);
-
-        byte[] cipherText = new byte[state.getLength() - CipherPool.IV_SIZE];
-        System.arraycopy(state.getData(), state.getOffset() + CipherPool.IV_SIZE, cipherText, 0, cipherText.length);
+        IvParameterSpec iv = new IvParameterSpec(state.getData(), state.getOffset(), CipherPool.IV_SIZE);
         Cipher cipher = CipherPool.borrowCipher(keyManager.getCipher(state.getKeyNumber()));
         try {
             cipher.init(Cipher.DECRYPT_MODE, keyManager.getKey(state.getKeyNumber()), iv);
 
-            byte[] plainText = cipher.doFinal(cipherText);
+            // Decrypt directly from the serialized bytes rather than copying out the cipher text first.
+            byte[] plainText = cipher.doFinal(state.getData(), state.getOffset() + CipherPool.IV_SIZE, state.getLength() - CipherPool.IV_SIZE);
             state.setDataArray(plainText);
         } finally {
             CipherPool.returnCipher(cipher);
@@ -120,7 +136,7 @@ public class TransformedRecordSerializerJCE<M extends Message> extends Transform
     public RecordSerializer<Message> widen() {
         return new TransformedRecordSerializerJCE<>(inner.widen(), compressWhenSerializing, compressionLevel,
                 encryptWhenSerializing, writeValidationRatio, writeEncryptionValidationRatio, failOnDeserializeReattempt,
-                deserializeReattemptCount, keyManager);
+                deserializeReattemptCount, compressionCodec, decompressionCodecs, keyManager);
     }
 
     /**
@@ -187,6 +203,20 @@ public class TransformedRecordSerializerJCE<M extends Message> extends Transform
             return this;
         }
 
+        @Override
+        @Nonnull
+        public Builder<M> setCompressionCodec(@Nullable RecordCompressionCodec compressionCodec) {
+            super.setCompressionCodec(compressionCodec);
+            return this;
+        }
+
+        @Override
+        @Nonnull
+        public Builder<M> addDecompressionCodec(@Nonnull RecordCompressionCodec decompressionCodec) {
+            super.addDecompressionCodec(decompressionCodec);
+            return this;
+        }
+
         /**
          * Whether to encrypt records after serializing. Should
          * compression and encryption both be set, then data
@@ -318,6 +348,8 @@ public class TransformedRecordSerializerJCE<M extends Message> extends Transform
                     writeEncryptionValidationRatio,
                     failOnDeserializeReattempt,
                     deserializeReattemptCount,
+                    getCompressionCodec(),
+                    decompressionCodecs,
                     resolveKeyManager()
             );
         }
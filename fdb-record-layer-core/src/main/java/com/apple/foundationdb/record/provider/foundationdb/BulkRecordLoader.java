@@ -0,0 +1,397 @@
+/*
+ * BulkRecordLoader.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordMetaData;
+import com.apple.foundationdb.record.logging.KeyValueLogMessage;
+import com.apple.foundationdb.record.logging.LogMessageKeys;
+import com.apple.foundationdb.record.metadata.Index;
+import com.apple.foundationdb.record.metadata.RecordType;
+import com.apple.foundationdb.record.metadata.SyntheticRecordType;
+import com.google.protobuf.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a large number of records into a record store, building their indexes afterwards rather than as each record
+ * is saved.
+ *
+ * <p>
+ * Saving records one at a time with {@link FDBRecordStore#saveRecord} reads any existing record and updates every
+ * index for each of them, which for an initial load or a migration is mostly wasted work. Instead, this:
+ * </p>
+ * <ol>
+ *     <li>clears the indexes on the record types being loaded and marks them write-only, so that queries stop using
+ *     them; indexes that are already disabled are left alone,</li>
+ *     <li>writes the records in batches, each in its own transaction bounded by a number of records and of bytes,
+ *     without reading whatever was stored under each primary key before and without updating any indexes,</li>
+ *     <li>builds the cleared indexes with a single {@link OnlineIndexer} that scans the records once for all of
+ *     them, which also marks them readable.</li>
+ * </ol>
+ *
+ * <p>
+ * Since the records are not read before they are written, a loaded record replaces an existing one with the same
+ * primary key without the existing one being passed to any index. The only read is a check of whether a record
+ * exists under the primary key when the meta-data has a record count key (see
+ * {@link RecordMetaData#getRecordCountKey()}), so that a replaced record is not counted twice. Uniqueness violations
+ * are reported by the index build rather than the save. Records saved by other clients while the load is going on
+ * maintain the write-only indexes as usual.
+ * </p>
+ *
+ * <pre><code>
+ * try (BulkRecordLoader loader = BulkRecordLoader.newBuilder()
+ *         .setRecordStoreBuilder(recordStoreBuilder)
+ *         .setDatabase(database)
+ *         .build()) {
+ *     loader.loadRecords(records.iterator());
+ * }
+ * </code></pre>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class BulkRecordLoader implements AutoCloseable {
+    /**
+     * The default maximum number of records written in one transaction.
+     */
+    public static final int DEFAULT_MAX_RECORDS_PER_TRANSACTION = 1_000;
+    /**
+     * The default number of serialized record bytes after which no more records are written in a transaction.
+     */
+    public static final int DEFAULT_MAX_BYTES_PER_TRANSACTION = 1_000_000;
+
+    @Nonnull
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkRecordLoader.class);
+
+    @Nonnull
+    private final FDBDatabaseRunner runner;
+    @Nonnull
+    private final FDBRecordStore.Builder recordStoreBuilder;
+    @Nullable
+    private final Set<String> recordTypeNames;
+    private final int maxRecordsPerTransaction;
+    private final int maxBytesPerTransaction;
+    @Nonnull
+    private final UnaryOperator<OnlineIndexer.Builder> indexerConfigurer;
+
+    private BulkRecordLoader(@Nonnull FDBDatabaseRunner runner,
+                             @Nonnull FDBRecordStore.Builder recordStoreBuilder,
+                             @Nullable Set<String> recordTypeNames,
+                             int maxRecordsPerTransaction, int maxBytesPerTransaction,
+                             @Nonnull UnaryOperator<OnlineIndexer.Builder> indexerConfigurer) {
+        this.runner = runner;
+        this.recordStoreBuilder = recordStoreBuilder;
+        this.recordTypeNames = recordTypeNames;
+        this.maxRecordsPerTransaction = maxRecordsPerTransaction;
+        this.maxBytesPerTransaction = maxBytesPerTransaction;
+        this.indexerConfigurer = indexerConfigurer;
+    }
+
+    /**
+     * Load records and then build the indexes on their record types.
+     * @param records the records to load
+     * @return the number of records loaded
+     */
+    public long loadRecords(@Nonnull Iterator<? extends Message> records) {
+        return runner.asyncToSync(FDBStoreTimer.Waits.WAIT_BULK_LOAD_RECORDS, loadRecordsAsync(records));
+    }
+
+    /**
+     * Load records and then build the indexes on their record types.
+     * This calls {@link #prepareAsync()}, {@link #saveRecordsAsync(Iterator)} and {@link #buildIndexesAsync(List)}
+     * in turn, which can also be called separately, for example to load records from several sources in parallel.
+     * @param records the records to load
+     * @return a future that completes to the number of records loaded
+     */
+    @Nonnull
+    public CompletableFuture<Long> loadRecordsAsync(@Nonnull Iterator<? extends Message> records) {
+        return prepareAsync().thenCompose(indexes -> saveRecordsAsync(records)
+                .thenCompose(count -> buildIndexesAsync(indexes).thenApply(vignore -> count)));
+    }
+
+    /**
+     * Clear the indexes that loading records would otherwise update and mark them write-only. The store is created
+     * if it does not exist yet.
+     * @return a future that completes to the indexes that need to be built once the records are loaded
+     */
+    @Nonnull
+    public CompletableFuture<List<Index>> prepareAsync() {
+        return runner.runAsync(context -> recordStoreBuilder.copyBuilder().setContext(context).createOrOpenAsync().thenCompose(store -> {
+            final List<Index> indexes = getAffectedIndexes(store.getRecordMetaData()).stream()
+                    .filter(index -> !store.isIndexDisabled(index))
+                    .collect(Collectors.toList());
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(indexes.size());
+            for (Index index : indexes) {
+                futures.add(store.clearAndMarkIndexWriteOnly(index));
+            }
+            return AsyncUtil.whenAll(futures).thenApply(vignore -> indexes);
+        })).whenComplete((indexes, err) -> {
+            if (err == null && LOGGER.isInfoEnabled()) {
+                LOGGER.info(KeyValueLogMessage.of("prepared indexes for bulk load",
+                        LogMessageKeys.INDEX_NAME, indexes.stream().map(Index::getName).collect(Collectors.toList())));
+            }
+        });
+    }
+
+    @Nonnull
+    private Collection<Index> getAffectedIndexes(@Nonnull RecordMetaData metaData) {
+        final Set<Index> indexes = new LinkedHashSet<>();
+        for (RecordType recordType : metaData.getRecordTypes().values()) {
+            if (isLoaded(recordType)) {
+                indexes.addAll(recordType.getAllIndexes());
+            }
+        }
+        for (SyntheticRecordType<?> syntheticRecordType : metaData.getSyntheticRecordTypes().values()) {
+            for (SyntheticRecordType.Constituent constituent : syntheticRecordType.getConstituents()) {
+                if (isLoaded(constituent.getRecordType())) {
+                    indexes.addAll(syntheticRecordType.getIndexes());
+                    indexes.addAll(syntheticRecordType.getMultiTypeIndexes());
+                    break;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private boolean isLoaded(@Nonnull RecordType recordType) {
+        return recordTypeNames == null || recordTypeNames.contains(recordType.getName());
+    }
+
+    /**
+     * Write records in batches without updating any indexes. {@link #prepareAsync()} must have been called first.
+     * @param records the records to load
+     * @return a future that completes to the number of records written
+     */
+    @Nonnull
+    public CompletableFuture<Long> saveRecordsAsync(@Nonnull Iterator<? extends Message> records) {
+        final AtomicLong count = new AtomicLong();
+        return AsyncUtil.whileTrue(() -> {
+            // The batch is taken from the iterator before the transaction, so that retries write the same records.
+            final List<Message> batch = nextBatch(records);
+            if (batch.isEmpty()) {
+                return AsyncUtil.READY_FALSE;
+            }
+            return runner.runAsync(context -> recordStoreBuilder.copyBuilder().setContext(context).openAsync().thenCompose(store -> {
+                // The records are saved one after another, so that one that repeats a primary key sees the earlier one.
+                CompletableFuture<Void> saved = AsyncUtil.DONE;
+                for (Message rec : batch) {
+                    saved = saved.thenCompose(vignore -> saveRecord(store, rec));
+                }
+                return saved.thenApply(vignore -> batch.size());
+            })).thenApply(saved -> {
+                count.addAndGet(saved);
+                return true;
+            });
+        }, runner.getExecutor()).thenApply(vignore -> count.get());
+    }
+
+    @Nonnull
+    private List<Message> nextBatch(@Nonnull Iterator<? extends Message> records) {
+        final List<Message> batch = new ArrayList<>();
+        long bytes = 0;
+        while (batch.size() < maxRecordsPerTransaction && bytes < maxBytesPerTransaction && records.hasNext()) {
+            final Message rec = records.next();
+            batch.add(rec);
+            bytes += rec.getSerializedSize();
+        }
+        return batch;
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> saveRecord(@Nonnull FDBRecordStore store, @Nonnull Message rec) {
+        final RecordType recordType = store.getRecordMetaData().getRecordTypeForDescriptor(rec.getDescriptorForType());
+        if (!isLoaded(recordType)) {
+            throw new RecordCoreArgumentException("record type is not being bulk loaded",
+                    LogMessageKeys.RECORD_TYPE, recordType.getName());
+        }
+        return store.saveRecordWithoutIndexesAsync(rec).thenApply(vignore -> null);
+    }
+
+    /**
+     * Build indexes after records have been loaded.
+     * @param indexes the indexes returned by {@link #prepareAsync()}
+     * @return a future that completes when the indexes have been built and marked readable
+     */
+    @Nonnull
+    public CompletableFuture<Void> buildIndexesAsync(@Nonnull List<Index> indexes) {
+        if (indexes.isEmpty()) {
+            return AsyncUtil.DONE;
+        }
+        final OnlineIndexer indexer = indexerConfigurer.apply(OnlineIndexer.newBuilder()
+                        .setDatabase(runner.getDatabase())
+                        .setRecordStoreBuilder(recordStoreBuilder)
+                        .setTargetIndexes(indexes))
+                .build();
+        return indexer.buildIndexAsync().whenComplete((vignore, err) -> indexer.close());
+    }
+
+    @Override
+    public void close() {
+        runner.close();
+    }
+
+    /**
+     * Create a builder for a {@link BulkRecordLoader}.
+     * @return a new builder
+     */
+    @Nonnull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link BulkRecordLoader}.
+     */
+    public static class Builder {
+        @Nullable
+        private FDBDatabaseRunner runner;
+        @Nullable
+        private FDBRecordStore.Builder recordStoreBuilder;
+        @Nullable
+        private Set<String> recordTypeNames;
+        private int maxRecordsPerTransaction = DEFAULT_MAX_RECORDS_PER_TRANSACTION;
+        private int maxBytesPerTransaction = DEFAULT_MAX_BYTES_PER_TRANSACTION;
+        @Nonnull
+        private UnaryOperator<OnlineIndexer.Builder> indexerConfigurer = UnaryOperator.identity();
+
+        private Builder() {
+        }
+
+        /**
+         * Set the runner that will be used to call into the database.
+         * @param runner the runner that connects to the target database
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setRunner(@Nonnull FDBDatabaseRunner runner) {
+            this.runner = runner;
+            return this;
+        }
+
+        /**
+         * Set the database into which to load records.
+         * @param database the target database
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setDatabase(@Nonnull FDBDatabase database) {
+            this.runner = database.newRunner();
+            return this;
+        }
+
+        /**
+         * Set the record store builder that will be used to open record store instances for loading.
+         * @param recordStoreBuilder the record store builder
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setRecordStoreBuilder(@Nonnull FDBRecordStore.Builder recordStoreBuilder) {
+            this.recordStoreBuilder = recordStoreBuilder.copyBuilder().setContext(null);
+            if (runner == null && recordStoreBuilder.getContext() != null) {
+                runner = recordStoreBuilder.getContext().newRunner();
+            }
+            return this;
+        }
+
+        /**
+         * Set the record types of the records to be loaded. Only the indexes on these types are rebuilt, and loading
+         * a record of any other type fails. If not set, all record types may be loaded and all indexes are rebuilt.
+         * @param recordTypes the record types to be loaded
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setRecordTypes(@Nullable Collection<RecordType> recordTypes) {
+            this.recordTypeNames = recordTypes == null ? null : recordTypes.stream().map(RecordType::getName).collect(Collectors.toSet());
+            return this;
+        }
+
+        /**
+         * Set the maximum number of records to write in one transaction.
+         * @param maxRecordsPerTransaction the maximum number of records per transaction
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setMaxRecordsPerTransaction(int maxRecordsPerTransaction) {
+            this.maxRecordsPerTransaction = maxRecordsPerTransaction;
+            return this;
+        }
+
+        /**
+         * Set the number of serialized record bytes after which no more records are written in a transaction.
+         * A transaction can go over this by at most one record.
+         * @param maxBytesPerTransaction the maximum number of bytes per transaction
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setMaxBytesPerTransaction(int maxBytesPerTransaction) {
+            this.maxBytesPerTransaction = maxBytesPerTransaction;
+            return this;
+        }
+
+        /**
+         * Set a function to adjust the {@link OnlineIndexer} that builds the indexes once the records are loaded,
+         * for example to change its limits. It is given a builder with the database, record store builder and target
+         * indexes already set.
+         * @param indexerConfigurer a function that modifies the indexer builder
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setIndexerConfigurer(@Nonnull UnaryOperator<OnlineIndexer.Builder> indexerConfigurer) {
+            this.indexerConfigurer = indexerConfigurer;
+            return this;
+        }
+
+        /**
+         * Build a {@link BulkRecordLoader}.
+         * @return a new bulk record loader
+         */
+        @Nonnull
+        public BulkRecordLoader build() {
+            if (recordStoreBuilder == null) {
+                throw new RecordCoreArgumentException("record store builder must be set");
+            }
+            if (runner == null) {
+                throw new RecordCoreArgumentException("database or runner must be set");
+            }
+            if (maxRecordsPerTransaction <= 0 || maxBytesPerTransaction <= 0) {
+                throw new RecordCoreArgumentException("transaction limits must be positive",
+                        "maxRecordsPerTransaction", maxRecordsPerTransaction,
+                        "maxBytesPerTransaction", maxBytesPerTransaction);
+            }
+            return new BulkRecordLoader(runner, recordStoreBuilder, recordTypeNames,
+                    maxRecordsPerTransaction, maxBytesPerTransaction, indexerConfigurer);
+        }
+    }
+}
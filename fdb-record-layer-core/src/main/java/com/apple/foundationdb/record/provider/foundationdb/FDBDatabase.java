@@ -36,6 +36,8 @@ import com.apple.foundationdb.record.provider.common.StoreTimer;
 import com.apple.foundationdb.record.provider.foundationdb.keyspace.LocatableResolver;
 import com.apple.foundationdb.record.provider.foundationdb.keyspace.ResolverResult;
 import com.apple.foundationdb.record.provider.foundationdb.keyspace.ScopedValue;
+import com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache;
+import com.apple.foundationdb.record.provider.foundationdb.recordcache.PassThroughSharedRecordCache;
 import com.apple.foundationdb.record.provider.foundationdb.storestate.FDBRecordStoreStateCache;
 import com.apple.foundationdb.record.provider.foundationdb.storestate.PassThroughRecordStoreStateCache;
 import com.apple.foundationdb.record.util.pair.Pair;
@@ -137,6 +139,8 @@ public class FDBDatabase {
     private final long reverseDirectoryMaxMillisPerTransaction;
     @Nonnull
     private FDBRecordStoreStateCache storeStateCache = PassThroughRecordStoreStateCache.instance();
+    @Nonnull
+    private FDBSharedRecordCache sharedRecordCache = PassThroughSharedRecordCache.instance();
     private final Supplier<Boolean> transactionIsTracedSupplier;
     private final long warnAndCloseOpenContextsAfterSeconds;
     // The number of cache entries to maintain in memory
@@ -146,6 +150,8 @@ public class FDBDatabase {
 
     private boolean trackLastSeenVersionOnRead = false;
     private boolean trackLastSeenVersionOnCommit = false;
+    @Nullable
+    private volatile FDBReadVersionBatcher readVersionBatcher;
 
     @Nonnull
     private final Supplier<BlockingInAsyncDetection> blockingInAsyncDetectionSupplier;
@@ -288,6 +294,28 @@ public class FDBDatabase {
         return trackLastSeenVersionOnRead || trackLastSeenVersionOnCommit;
     }
 
+    /**
+     * Get the batcher that shares read version requests among contexts opened against this database.
+     * @return the read version batcher, or {@code null} if each context gets its own read version
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nullable
+    public FDBReadVersionBatcher getReadVersionBatcher() {
+        return readVersionBatcher;
+    }
+
+    /**
+     * Set a batcher that shares read version requests among contexts opened against this database at about the
+     * same time. Contexts opened with {@link FDBRecordContextConfig#isShareReadVersion()}, such as those in which a
+     * runner with that config runs functions, then get their read version from it.
+     * @param readVersionBatcher the read version batcher, or {@code null} to have each context get its own read version
+     * @see FDBReadVersionBatcher
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public void setReadVersionBatcher(@Nullable FDBReadVersionBatcher readVersionBatcher) {
+        this.readVersionBatcher = readVersionBatcher;
+    }
+
     /**
      * Get the path to the cluster file that this database was created with. Will return <code>null</code> if using the
      * default cluster file. To get the resolved cluster file path for databases created with the default path, use
@@ -715,6 +743,32 @@ public class FDBDatabase {
         this.storeStateCache = storeStateCache;
     }
 
+    /**
+     * Get the shared record cache for this database. This cache will be used when loading records from record stores
+     * whose records have been marked as cacheable.
+     *
+     * @return the shared record cache for this database
+     * @see FDBSharedRecordCache
+     * @see FDBRecordStore#setRecordsCacheability(boolean)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    public FDBSharedRecordCache getSharedRecordCache() {
+        return sharedRecordCache;
+    }
+
+    /**
+     * Set the shared record cache for this database. Note that the shared record cache should <em>not</em> be set
+     * with a cache that is used by a different database.
+     *
+     * @param sharedRecordCache the shared record cache
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public void setSharedRecordCache(@Nonnull FDBSharedRecordCache sharedRecordCache) {
+        sharedRecordCache.validateDatabase(this);
+        this.sharedRecordCache = sharedRecordCache;
+    }
+
     @VisibleForTesting
     @API(API.Status.INTERNAL)
     public void clearCaches() {
@@ -722,6 +776,7 @@ public class FDBDatabase {
         clearForwardDirectoryCache();
         clearReverseDirectoryCache();
         storeStateCache.clear();
+        sharedRecordCache.clear();
     }
 
     public synchronized void close() {
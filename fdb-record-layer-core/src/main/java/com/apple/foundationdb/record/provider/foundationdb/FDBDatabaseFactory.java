@@ -28,6 +28,8 @@ import com.apple.foundationdb.annotation.SpotBugsSuppressWarnings;
 import com.apple.foundationdb.async.MoreAsyncUtil;
 import com.apple.foundationdb.record.RecordCoreArgumentException;
 import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCacheFactory;
+import com.apple.foundationdb.record.provider.foundationdb.recordcache.PassThroughSharedRecordCacheFactory;
 import com.apple.foundationdb.record.provider.foundationdb.storestate.FDBRecordStoreStateCacheFactory;
 import com.apple.foundationdb.record.provider.foundationdb.storestate.PassThroughRecordStoreStateCacheFactory;
 
@@ -81,6 +83,8 @@ public abstract class FDBDatabaseFactory {
     @Nonnull
     protected FDBRecordStoreStateCacheFactory storeStateCacheFactory = PassThroughRecordStoreStateCacheFactory.instance();
     @Nonnull
+    protected FDBSharedRecordCacheFactory sharedRecordCacheFactory = PassThroughSharedRecordCacheFactory.instance();
+    @Nonnull
     private Executor executor = ForkJoinPool.commonPool();
     @Nonnull
     private Supplier<ScheduledExecutorService> scheduledExecutorSupplier = MoreAsyncUtil::getDefaultScheduledExecutor;
@@ -554,6 +558,37 @@ public abstract class FDBDatabaseFactory {
         this.storeStateCacheFactory = storeStateCacheFactory;
     }
 
+    /**
+     * Get the shared record cache factory. Each {@link FDBDatabase} produced by this {@code FDBDatabaseFactory} will
+     * be initialized with an {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache
+     * FDBSharedRecordCache} from this cache factory. By default, the factory is a
+     * {@link PassThroughSharedRecordCacheFactory} which means that records are never cached across transactions.
+     *
+     * @return the factory of {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache
+     * FDBSharedRecordCache}s used when initializing {@link FDBDatabase}s
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    public FDBSharedRecordCacheFactory getSharedRecordCacheFactory() {
+        return sharedRecordCacheFactory;
+    }
+
+    /**
+     * Set the shared record cache factory. Each {@link FDBDatabase} produced by this {@code FDBDatabaseFactory} will
+     * be initialized with an {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache
+     * FDBSharedRecordCache} from the cache factory provided.
+     *
+     * @param sharedRecordCacheFactory a factory of
+     * {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache FDBSharedRecordCache}s
+     * to use when initializing {@link FDBDatabase}s
+     *
+     * @see com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public void setSharedRecordCacheFactory(@Nonnull FDBSharedRecordCacheFactory sharedRecordCacheFactory) {
+        this.sharedRecordCacheFactory = sharedRecordCacheFactory;
+    }
+
     /**
      * Creates a new {@code Executor} for use by a specific {@code FDBRecordContext}. If {@code mdcContext}
      * is not {@code null}, the executor will ensure that the provided MDC present within the context of the
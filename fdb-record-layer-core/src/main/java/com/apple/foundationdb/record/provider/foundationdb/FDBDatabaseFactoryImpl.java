@@ -265,6 +265,7 @@ public class FDBDatabaseFactoryImpl extends FDBDatabaseFactory {
             database.setResolverStateRefreshTimeMillis(getStateRefreshTimeMillis());
             database.setDatacenterId(getDatacenterId());
             database.setStoreStateCache(storeStateCacheFactory.getCache(database));
+            database.setSharedRecordCache(sharedRecordCacheFactory.getCache(database));
             databases.put(clusterFile, database);
         }
         return database;
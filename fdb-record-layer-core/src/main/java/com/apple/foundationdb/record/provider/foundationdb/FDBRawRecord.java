@@ -22,10 +22,11 @@ package com.apple.foundationdb.record.provider.foundationdb;
 
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.ZeroCopyByteString;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -33,11 +34,19 @@ import java.util.Objects;
  * In particular, this contains the record's primary key, its raw byte-string representation (after
  * any splits have been removed), and its version. It also includes sizing information describing
  * the record's on-disk footprint.
+ *
+ * <p>
+ * The raw record of a split record is kept as the concatenation of its pieces, without copying them into a single
+ * array, until {@link #getRawRecord()} is called. Serializers can read it directly from {@link #getRawRecordBytes()}.
+ * </p>
  */
 @API(API.Status.INTERNAL)
 public class FDBRawRecord implements FDBStoredSizes {
     @Nonnull private final Tuple primaryKey;
-    @Nonnull private final byte[] rawRecord;
+    @Nonnull private final ByteString rawRecordBytes;
+    // Joined lazily, and raw records can be shared between threads through the record cache, so it must be
+    // safely published.
+    @Nullable private volatile byte[] rawRecord;
     @Nullable private final FDBRecordVersion version;
 
     // Size information
@@ -55,8 +64,20 @@ public class FDBRawRecord implements FDBStoredSizes {
     @SuppressWarnings("squid:S00107") // too many parameters
     public FDBRawRecord(@Nonnull Tuple primaryKey, @Nonnull byte[] rawRecord, @Nullable FDBRecordVersion version,
                         int keyCount, int keySize, int valueSize, boolean split, boolean versionedInline) {
-        this.primaryKey = primaryKey;
+        this(primaryKey, ZeroCopyByteString.wrap(rawRecord), version, keyCount, keySize, valueSize, split, versionedInline);
         this.rawRecord = rawRecord;
+    }
+
+    public FDBRawRecord(@Nonnull Tuple primaryKey, @Nonnull ByteString rawRecordBytes, @Nullable FDBRecordVersion version,
+                        @Nonnull FDBStoredSizes size) {
+        this(primaryKey, rawRecordBytes, version, size.getKeyCount(), size.getKeySize(), size.getValueSize(), size.isSplit(), size.isVersionedInline());
+    }
+
+    @SuppressWarnings("squid:S00107") // too many parameters
+    public FDBRawRecord(@Nonnull Tuple primaryKey, @Nonnull ByteString rawRecordBytes, @Nullable FDBRecordVersion version,
+                        int keyCount, int keySize, int valueSize, boolean split, boolean versionedInline) {
+        this.primaryKey = primaryKey;
+        this.rawRecordBytes = rawRecordBytes;
         this.version = version;
         this.keyCount = keyCount;
         this.keySize = keySize;
@@ -78,7 +99,7 @@ public class FDBRawRecord implements FDBStoredSizes {
         if (!primaryKey.equals(that.getPrimaryKey())) {
             return false;
         }
-        if (!Arrays.equals(rawRecord, that.getRawRecord())) {
+        if (!rawRecordBytes.equals(that.rawRecordBytes)) {
             return false;
         }
         if (!Objects.equals(version, that.version)) {
@@ -91,7 +112,7 @@ public class FDBRawRecord implements FDBStoredSizes {
 
     @Override
     public int hashCode() {
-        return 31 * primaryKey.hashCode() + Arrays.hashCode(rawRecord) + (version != null ? 31 * 31 * version.hashCode() : 0);
+        return 31 * primaryKey.hashCode() + rawRecordBytes.hashCode() + (version != null ? 31 * 31 * version.hashCode() : 0);
     }
 
     /**
@@ -107,13 +128,31 @@ public class FDBRawRecord implements FDBStoredSizes {
      * Get the raw representation of the record. Note that this does
      * <i>not</i> make a copy for performance reasons, so any modifications
      * made to the returned array will also affect the array stored
-     * within this object, which should generally be avoided
+     * within this object, which should generally be avoided. If the record
+     * was split, the first call joins its pieces into a single array.
      *
      * @return the raw representation of this record
      */
     @Nonnull
     public byte[] getRawRecord() {
-        return rawRecord;
+        byte[] joined = rawRecord;
+        if (joined == null) {
+            // Concurrent callers may each join the pieces, which is harmless as the results are equal.
+            joined = ZeroCopyByteString.getBytes(rawRecordBytes);
+            rawRecord = joined;
+        }
+        return joined;
+    }
+
+    /**
+     * Get the raw representation of the record without joining the pieces of
+     * a split record. As with {@link #getRawRecord()}, no copy is made.
+     *
+     * @return the raw representation of this record
+     */
+    @Nonnull
+    public ByteString getRawRecordBytes() {
+        return rawRecordBytes;
     }
 
     /**
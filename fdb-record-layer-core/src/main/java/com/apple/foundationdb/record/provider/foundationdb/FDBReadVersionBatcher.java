@@ -0,0 +1,182 @@
+/*
+ * FDBReadVersionBatcher.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.Transaction;
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.MoreAsyncUtil;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out read versions to {@link FDBRecordContext}s, sharing a single read version request among contexts that
+ * ask for one at about the same time.
+ *
+ * <p>
+ * When a context needs a read version and no request is waiting to be made, the batcher starts a group and waits
+ * for the {@linkplain #getBatchWindowMillis() batch window} before requesting a read version from the database.
+ * Every context that asks in the meantime joins the group, and they are all given the same version. Because the
+ * request is only made after the last of them asked, the version is as recent as the one each would have gotten on
+ * its own, so this does not weaken consistency; it trades a little latency for many fewer requests when contexts
+ * are opened at a high rate. A window of zero still shares a request among contexts that ask before it is issued.
+ * </p>
+ *
+ * <p>
+ * With a {@linkplain #getStalenessBoundMillis() staleness bound}, a context is instead given the version from the
+ * last request, if that request was made within the bound, without waiting at all. Like
+ * {@link FDBDatabase.WeakReadSemantics}, this means a context may not see writes committed after that
+ * request, so it should only be used when that is acceptable.
+ * </p>
+ *
+ * <p>
+ * Only contexts at {@link FDBTransactionPriority#DEFAULT} priority that were opened with
+ * {@link FDBRecordContextConfig.Builder#setShareReadVersion(boolean)} share read versions, since the shared version
+ * can only be set on a transaction that has not read anything yet. A {@link FDBDatabaseRunner} whose config has that
+ * set gets the read version of the contexts it runs functions in before calling the function. Other contexts get
+ * their read version from the database as usual.
+ * </p>
+ *
+ * @see FDBDatabase#setReadVersionBatcher(FDBReadVersionBatcher)
+ */
+@API(API.Status.EXPERIMENTAL)
+public class FDBReadVersionBatcher {
+    @Nonnull
+    private final FDBDatabase database;
+    private final long batchWindowMillis;
+    private final long stalenessBoundMillis;
+
+    @Nullable
+    private Group waitingGroup;
+    private long lastVersion = -1L;
+    private long lastVersionMillis;
+
+    /**
+     * Create a new batcher.
+     * @param database the database from which to get read versions
+     * @param batchWindowMillis how long a group waits for other contexts to join before getting a read version
+     * @param stalenessBoundMillis how old a read version may be and still be given out without waiting, or zero to always
+     * get a new one
+     */
+    public FDBReadVersionBatcher(@Nonnull FDBDatabase database, long batchWindowMillis, long stalenessBoundMillis) {
+        if (batchWindowMillis < 0 || stalenessBoundMillis < 0) {
+            throw new RecordCoreArgumentException("read version batch window and staleness bound must not be negative");
+        }
+        this.database = database;
+        this.batchWindowMillis = batchWindowMillis;
+        this.stalenessBoundMillis = stalenessBoundMillis;
+    }
+
+    public long getBatchWindowMillis() {
+        return batchWindowMillis;
+    }
+
+    public long getStalenessBoundMillis() {
+        return stalenessBoundMillis;
+    }
+
+    /**
+     * Get whether the given context should get its read version from this batcher.
+     * @param context the context that needs a read version
+     * @return {@code true} if the context can share a read version
+     */
+    public boolean canShare(@Nonnull FDBRecordContext context) {
+        return FDBTransactionPriority.DEFAULT.equals(context.getPriority());
+    }
+
+    /**
+     * Get a read version for the given context, either shared with other contexts asking at about the same time, or
+     * recent enough to be within the staleness bound.
+     * @param context the context that needs a read version
+     * @return a future that completes with the read version
+     */
+    @Nonnull
+    public CompletableFuture<Long> getReadVersion(@Nonnull FDBRecordContext context) {
+        final Group group;
+        final boolean started;
+        synchronized (this) {
+            if (stalenessBoundMillis > 0 && lastVersion >= 0 &&
+                    System.currentTimeMillis() - lastVersionMillis <= stalenessBoundMillis) {
+                context.increment(FDBStoreTimer.Counts.SHARED_READ_VERSION_REUSED);
+                return CompletableFuture.completedFuture(lastVersion);
+            }
+            started = waitingGroup == null;
+            if (started) {
+                waitingGroup = new Group();
+            }
+            group = waitingGroup;
+        }
+        if (started) {
+            final CompletableFuture<Void> delay = batchWindowMillis == 0 ? CompletableFuture.completedFuture(null) :
+                    MoreAsyncUtil.delayedFuture(batchWindowMillis, TimeUnit.MILLISECONDS, database.getScheduledExecutor());
+            delay.thenRunAsync(() -> request(group, context), database.getExecutor());
+        } else {
+            context.increment(FDBStoreTimer.Counts.SHARED_READ_VERSION_JOINED);
+        }
+        return group.future;
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private void request(@Nonnull Group group, @Nonnull FDBRecordContext starter) {
+        synchronized (this) {
+            // Anyone asking from now on might have seen a write committed after this request is made.
+            if (waitingGroup == group) {
+                waitingGroup = null;
+            }
+        }
+        final long startMillis = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        final Transaction transaction;
+        try {
+            transaction = database.database().createTransaction(database.getExecutor());
+        } catch (RuntimeException ex) {
+            group.future.completeExceptionally(ex);
+            return;
+        }
+        transaction.getReadVersion().whenComplete((version, ex) -> {
+            transaction.close();
+            if (ex != null) {
+                group.future.completeExceptionally(ex);
+                return;
+            }
+            starter.record(FDBStoreTimer.Events.SHARED_GET_READ_VERSION, System.nanoTime() - startNanos);
+            starter.increment(FDBStoreTimer.Counts.SHARED_READ_VERSION_REQUESTS);
+            synchronized (this) {
+                if (version > lastVersion) {
+                    lastVersion = version;
+                    lastVersionMillis = startMillis;
+                }
+            }
+            group.future.complete(version);
+        });
+    }
+
+    /**
+     * Contexts sharing one read version request.
+     */
+    private static class Group {
+        @Nonnull
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+    }
+}
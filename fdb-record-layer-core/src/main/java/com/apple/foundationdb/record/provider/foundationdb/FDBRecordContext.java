@@ -71,6 +71,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
@@ -170,6 +171,8 @@ public class FDBRecordContext extends FDBTransactionContext implements AutoClose
     private final Map<String, PostCommit> postClose = new LinkedHashMap<>();
     private boolean dirtyStoreState;
     private boolean dirtyMetaDataVersionStamp;
+    @Nonnull
+    private final Set<byte[]> dirtyRecordCacheVersionStamps = new ConcurrentSkipListSet<>(ByteArrayUtil::compareUnsigned);
     private long trackOpenTimeNanos;
     @Nonnull
     private final Map<Object, Object> session = new LinkedHashMap<>();
@@ -595,6 +598,13 @@ public class FDBRecordContext extends FDBTransactionContext implements AutoClose
      * called multiple times, then the same future will be returned each time.
      * </p>
      *
+     * <p>
+     * If the database has a {@linkplain FDBDatabase#setReadVersionBatcher(FDBReadVersionBatcher) read version batcher}
+     * and this context was opened with {@link FDBRecordContextConfig#isShareReadVersion()}, the read version may come
+     * from a request shared with other contexts, which is then set on this transaction. In that case, this must be
+     * called before anything is read. Other contexts always get their own read version.
+     * </p>
+     *
      * @return a future that will contain the read version of this transaction
      * @see Transaction#getReadVersion()
      */
@@ -606,9 +616,14 @@ public class FDBRecordContext extends FDBTransactionContext implements AutoClose
         ensureActive(); // call ensure active here so that we don't inject latency on inactive contexts
         long startTimeMillis = System.currentTimeMillis();
         long startTimeNanos = System.nanoTime();
+        final FDBReadVersionBatcher readVersionBatcher = database.getReadVersionBatcher();
+        final boolean shared = readVersionBatcher != null && config.isShareReadVersion() && readVersionBatcher.canShare(this);
         CompletableFuture<Long> localReadVersionFuture = injectLatency(FDBLatencySource.GET_READ_VERSION)
-                .thenCompose(ignore -> ensureActive().getReadVersion())
+                .thenCompose(ignore -> shared ? readVersionBatcher.getReadVersion(this) : ensureActive().getReadVersion())
                 .thenApply(newReadVersion -> {
+                    if (shared) {
+                        ensureActive().setReadVersion(newReadVersion);
+                    }
                     readVersion = newReadVersion;
                     if (database.isTrackLastSeenVersionOnRead()) {
                         database.updateLastSeenFDBVersion(startTimeMillis, newReadVersion);
@@ -1232,6 +1247,78 @@ public class FDBRecordContext extends FDBTransactionContext implements AutoClose
         transaction.mutate(MutationType.SET_VERSIONSTAMPED_VALUE, SystemKeyspace.METADATA_VERSION_KEY, META_DATA_VERSION_STAMP_VALUE);
     }
 
+    /**
+     * Get the current value of a record store's record cache version-stamp key. Like the
+     * {@linkplain #getMetaDataVersionStampAsync(IsolationLevel) meta-data version-stamp}, this key is written with the
+     * commit version-stamp of each transaction that modifies the records of a store whose records are cacheable, and
+     * it is used to validate entries in the
+     * {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache FDBSharedRecordCache}.
+     * The key is always read at {@link IsolationLevel#SNAPSHOT}, so reading it does not add a read conflict.
+     *
+     * <p>
+     * This method is internal to the Record Layer and should not be used by external consumers.
+     * </p>
+     *
+     * @param versionStampKey the record cache version-stamp key of the record store
+     * @return a future that will complete with the current value of the key or {@code null} if it is unset or has
+     *      been updated during the course of this transaction
+     * @see FDBRecordStore#getRecordCacheVersionStampKey()
+     */
+    @API(API.Status.INTERNAL)
+    @Nonnull
+    public CompletableFuture<byte[]> getRecordCacheVersionStampAsync(@Nonnull byte[] versionStampKey) {
+        if (hasDirtyRecordCacheVersionStamp(versionStampKey)) {
+            ensureActive();
+            return CompletableFuture.completedFuture(null);
+        }
+        return readTransaction(true).get(versionStampKey).handle((val, err) -> {
+            if (err == null) {
+                return val;
+            } else {
+                FDBException fdbCause = FDBExceptions.getFDBCause(err);
+                if (fdbCause != null && fdbCause.getCode() == FDBError.ACCESSED_UNREADABLE.code()) {
+                    // The key was written with a version-stamp by this transaction before the read was done.
+                    dirtyRecordCacheVersionStamps.add(versionStampKey);
+                    return null;
+                } else {
+                    throw database.mapAsyncToSyncException(err);
+                }
+            }
+        });
+    }
+
+    /**
+     * Update a record store's record cache version-stamp key. At commit time, the database will write the commit
+     * version-stamp of this transaction to the key, invalidating any cached records of the store. After this method
+     * has been called, {@link #getRecordCacheVersionStampAsync(byte[])} will return {@code null} for the key.
+     *
+     * <p>
+     * This method is internal to the Record Layer and should not be used by external consumers.
+     * </p>
+     *
+     * @param versionStampKey the record cache version-stamp key of the record store
+     * @see FDBRecordStore#getRecordCacheVersionStampKey()
+     */
+    @API(API.Status.INTERNAL)
+    public void setRecordCacheVersionStamp(@Nonnull byte[] versionStampKey) {
+        ensureActive();
+        dirtyRecordCacheVersionStamps.add(versionStampKey);
+        transaction.mutate(MutationType.SET_VERSIONSTAMPED_VALUE, versionStampKey, META_DATA_VERSION_STAMP_VALUE);
+    }
+
+    /**
+     * Return whether a record store's record cache version-stamp key has been updated within this transaction.
+     * If so, reads of that store's records may observe uncommitted changes and must not be shared with other
+     * transactions.
+     *
+     * @param versionStampKey the record cache version-stamp key of the record store
+     * @return whether the key has been updated in the course of this transaction
+     */
+    @API(API.Status.INTERNAL)
+    public boolean hasDirtyRecordCacheVersionStamp(@Nonnull byte[] versionStampKey) {
+        return dirtyRecordCacheVersionStamps.contains(versionStampKey);
+    }
+
     @Nullable
     public <T> T asyncToSync(FDBStoreTimer.Wait event, @Nonnull CompletableFuture<T> async) {
         if (hookForAsyncToSync != null && !MoreAsyncUtil.isCompletedNormally(async)) {
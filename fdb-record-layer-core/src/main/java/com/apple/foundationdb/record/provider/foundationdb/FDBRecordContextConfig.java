@@ -52,6 +52,7 @@ public class FDBRecordContextConfig {
     private final boolean serverRequestTracing;
     private final boolean trackOpen;
     private final boolean saveOpenStackTrace;
+    private final boolean shareReadVersion;
     @Nullable
     private final TransactionListener listener;
     @Nonnull
@@ -74,6 +75,7 @@ public class FDBRecordContextConfig {
         this.serverRequestTracing = builder.serverRequestTracing;
         this.trackOpen = builder.trackOpen;
         this.saveOpenStackTrace = builder.saveOpenStackTrace;
+        this.shareReadVersion = builder.shareReadVersion;
         this.listener = builder.listener;
         this.propertyStorage = builder.recordContextProperties;
         this.tags = builder.tags;
@@ -189,6 +191,15 @@ public class FDBRecordContextConfig {
         return saveOpenStackTrace;
     }
 
+    /**
+     * Get whether the context may get its read version from the database's
+     * {@linkplain FDBDatabase#getReadVersionBatcher() read version batcher}.
+     * @return {@code true} if the read version may be shared with other contexts
+     */
+    public boolean isShareReadVersion() {
+        return shareReadVersion;
+    }
+
     /**
      * Get a new builder for this class.
      *
@@ -276,6 +287,7 @@ public class FDBRecordContextConfig {
         private boolean serverRequestTracing = false;
         private boolean trackOpen = false;
         private boolean saveOpenStackTrace = false;
+        private boolean shareReadVersion = false;
         private TransactionListener listener = null;
         private RecordLayerPropertyStorage recordContextProperties = RecordLayerPropertyStorage.getEmptyInstance();
         @Nonnull
@@ -299,6 +311,7 @@ public class FDBRecordContextConfig {
             this.serverRequestTracing = config.serverRequestTracing;
             this.trackOpen = config.trackOpen;
             this.saveOpenStackTrace = config.saveOpenStackTrace;
+            this.shareReadVersion = config.shareReadVersion;
             this.listener = config.listener;
             this.recordContextProperties = config.propertyStorage;
             this.tags = config.tags;
@@ -318,6 +331,7 @@ public class FDBRecordContextConfig {
             this.serverRequestTracing = config.serverRequestTracing;
             this.trackOpen = config.trackOpen;
             this.saveOpenStackTrace = config.saveOpenStackTrace;
+            this.shareReadVersion = config.shareReadVersion;
             this.listener = config.listener;
             this.recordContextProperties = config.recordContextProperties;
             this.tags = config.tags;
@@ -605,6 +619,32 @@ public class FDBRecordContextConfig {
             return this;
         }
 
+        /**
+         * Get whether the context may get its read version from the database's read version batcher.
+         * @return {@code true} if the read version may be shared with other contexts
+         */
+        public boolean isShareReadVersion() {
+            return shareReadVersion;
+        }
+
+        /**
+         * Set whether the context may get its read version from the database's
+         * {@linkplain FDBDatabase#getReadVersionBatcher() read version batcher}. The shared read version is set on
+         * the transaction when {@link FDBRecordContext#getReadVersionAsync()} is first called, which fails if the
+         * transaction has already read something, and means that a later {@link FDBRecordContext#setReadVersion(long)}
+         * has no effect. So this should only be set for contexts whose read version is gotten before they are used.
+         * When set on the config of a {@link FDBDatabaseRunner}, the contexts in which it runs functions share their
+         * read version, which it gets before calling the function, while those from
+         * {@link FDBDatabaseRunner#openContext()} do not. By default, this is {@code false}.
+         * @param shareReadVersion {@code true} if the read version may be shared with other contexts
+         * @return this builder
+         * @see FDBReadVersionBatcher
+         */
+        public Builder setShareReadVersion(final boolean shareReadVersion) {
+            this.shareReadVersion = shareReadVersion;
+            return this;
+        }
+
         /**
          * Installs a listener to be notified of transaction events, such as creation, commit, and close.
          * This listener is in the path of the completion of every transaction. Implementations should take
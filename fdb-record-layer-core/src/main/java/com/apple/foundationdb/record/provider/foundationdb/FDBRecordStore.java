@@ -258,6 +258,7 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
     protected static final Object RECORD_VERSION_KEY = FDBRecordStoreKeyspace.RECORD_VERSION_SPACE.key();
     protected static final Object INDEX_BUILD_SPACE_KEY = FDBRecordStoreKeyspace.INDEX_BUILD_SPACE.key();
     protected static final Object INDEX_SLIDING_WINDOW_SPACE_KEY = FDBRecordStoreKeyspace.INDEX_SLIDING_WINDOW_SPACE.key();
+    protected static final Object RECORD_CACHE_VERSION_KEY = FDBRecordStoreKeyspace.RECORD_CACHE_VERSION.key();
 
     @SuppressWarnings("squid:S2386")
     @SpotBugsSuppressWarnings("MS_MUTABLE_ARRAY")
@@ -653,16 +654,56 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
         return recordBuilder.build();
     }
 
+    /**
+     * Save a record without reading any existing record with the same primary key or updating any indexes.
+     * Whatever was stored under the primary key before is cleared without being read. The caller is responsible for
+     * making sure that indexes on the record's type are rebuilt afterwards.
+     * If the meta-data has a {@linkplain RecordMetaData#getRecordCountKey() record count key}, whether a record is
+     * already stored under the primary key is checked first, so that replacing it does not count it twice.
+     * @param rec the record to save
+     * @return a future that completes to the stored record
+     * @see BulkRecordLoader
+     */
+    @Nonnull
+    CompletableFuture<FDBStoredRecord<Message>> saveRecordWithoutIndexesAsync(@Nonnull final Message rec) {
+        final RecordMetaData metaData = metaDataProvider.getRecordMetaData();
+        final RecordType recordType = metaData.getRecordTypeForDescriptor(rec.getDescriptorForType());
+        final FDBStoredRecordBuilder<Message> recordBuilder = FDBStoredRecord.newBuilder(rec).setRecordType(recordType);
+        recordBuilder.setVersion(recordVersionForSave(metaData, null, VersionstampSaveBehavior.DEFAULT));
+        final Tuple primaryKey = recordType.getPrimaryKey().evaluateSingleton(recordBuilder).toTuple();
+        recordBuilder.setPrimaryKey(primaryKey);
+        validateRecordUpdateAllowed(getRecordStoreState());
+        final CompletableFuture<Boolean> existsFuture = metaData.getRecordCountKey() == null
+                                                        ? AsyncUtil.READY_FALSE
+                                                        : recordExistsAsync(primaryKey);
+        return existsFuture.thenApply(exists -> {
+            final FDBStoredRecord<Message> newRecord = serializeAndSaveRecord(serializer, recordBuilder, metaData, null, false);
+            if (!exists) {
+                addRecordCount(metaData, newRecord, LITTLE_ENDIAN_INT64_ONE);
+            }
+            return newRecord;
+        });
+    }
+
     @Nonnull
     private <M extends Message> FDBStoredRecord<M> serializeAndSaveRecord(@Nonnull RecordSerializer<M> typedSerializer, @Nonnull final FDBStoredRecordBuilder<M> recordBuilder,
                                                                           @Nonnull final RecordMetaData metaData, @Nullable FDBStoredSizes oldSizeInfo) {
+        return serializeAndSaveRecord(typedSerializer, recordBuilder, metaData, oldSizeInfo, true);
+    }
+
+    @Nonnull
+    private <M extends Message> FDBStoredRecord<M> serializeAndSaveRecord(@Nonnull RecordSerializer<M> typedSerializer, @Nonnull final FDBStoredRecordBuilder<M> recordBuilder,
+                                                                          @Nonnull final RecordMetaData metaData, @Nullable FDBStoredSizes oldSizeInfo,
+                                                                          boolean clearBasedOnPreviousSizeInfo) {
         final Tuple primaryKey = recordBuilder.getPrimaryKey();
         final FDBRecordVersion version = recordBuilder.getVersion();
         final byte[] serialized = typedSerializer.serialize(metaData, recordBuilder.getRecordType(), recordBuilder.getRecord(), getTimer());
         final FDBRecordVersion splitVersion = useOldVersionFormat() ? null : version;
         final SplitHelper.SizeInfo sizeInfo = new SplitHelper.SizeInfo();
         preloadCache.invalidate(primaryKey); // clear out cache of older value if present
-        SplitHelper.saveWithSplit(context, recordsSubspace(), recordBuilder.getPrimaryKey(), serialized, splitVersion, metaData.isSplitLongRecords(), omitUnsplitRecordSuffix, true, oldSizeInfo, sizeInfo);
+        updateRecordCacheVersionStamp();
+        SplitHelper.saveWithSplit(context, recordsSubspace(), recordBuilder.getPrimaryKey(), serialized, splitVersion, metaData.isSplitLongRecords(), omitUnsplitRecordSuffix,
+                clearBasedOnPreviousSizeInfo, oldSizeInfo, sizeInfo);
         countKeysAndValues(FDBStoreTimer.Counts.SAVE_RECORD_KEY, FDBStoreTimer.Counts.SAVE_RECORD_KEY_BYTES, FDBStoreTimer.Counts.SAVE_RECORD_VALUE_BYTES, sizeInfo);
         recordBuilder.setSize(sizeInfo);
 
@@ -1158,11 +1199,17 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
     private <M extends Message> CompletableFuture<FDBStoredRecord<M>> deserializeRecord(@Nonnull RecordSerializer<M> typedSerializer, @Nonnull final FDBRawRecord rawRecord,
                                                                                         @Nonnull final RecordMetaData metaData,
                                                                                         @Nonnull final Optional<CompletableFuture<FDBRecordVersion>> versionFutureOptional) {
+        return deserializeRecord(typedSerializer, rawRecord, metaData, versionFutureOptional, null);
+    }
+
+    private <M extends Message> CompletableFuture<FDBStoredRecord<M>> deserializeRecord(@Nonnull RecordSerializer<M> typedSerializer, @Nonnull final FDBRawRecord rawRecord,
+                                                                                        @Nonnull final RecordMetaData metaData,
+                                                                                        @Nonnull final Optional<CompletableFuture<FDBRecordVersion>> versionFutureOptional,
+                                                                                        @Nullable final Set<String> projectedFields) {
         final Tuple primaryKey = rawRecord.getPrimaryKey();
-        final byte[] serialized = rawRecord.getRawRecord();
 
         try {
-            final M protoRecord = typedSerializer.deserialize(metaData, primaryKey, rawRecord.getRawRecord(), getTimer());
+            final M protoRecord = typedSerializer.deserialize(metaData, primaryKey, rawRecord.getRawRecordBytes(), projectedFields, getTimer());
             final RecordType recordType = metaData.getRecordTypeForDescriptor(protoRecord.getDescriptorForType());
             countKeysAndValues(FDBStoreTimer.Counts.LOAD_RECORD_KEY, FDBStoreTimer.Counts.LOAD_RECORD_KEY_BYTES, FDBStoreTimer.Counts.LOAD_RECORD_VALUE_BYTES,
                     rawRecord);
@@ -1194,7 +1241,7 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
                     LogMessageKeys.PRIMARY_KEY, primaryKey,
                     LogMessageKeys.META_DATA_VERSION, metaData.getVersion());
             if (LOGGER.isDebugEnabled()) {
-                ex2.addLogInfo("serialized", ByteArrayUtil2.loggable(serialized));
+                ex2.addLogInfo("serialized", ByteArrayUtil2.loggable(rawRecord.getRawRecord()));
             }
             if (LOGGER.isTraceEnabled()) {
                 ex2.addLogInfo("descriptor", metaData.getUnionDescriptor().getFile().toProto());
@@ -1288,15 +1335,38 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
                                                                final boolean snapshot) {
         final FDBPreloadRecordCache.Entry entry = preloadCache.get(primaryKey);
         if (entry != null) {
-            return CompletableFuture.completedFuture(entry.orElse(null));
+            return CompletableFuture.completedFuture(withSizeInfo(entry.orElse(null), sizeInfo));
         }
 
         final RecordMetaData metaData = metaDataProvider.getRecordMetaData();
         final ReadTransaction tr = snapshot ? ensureContextActive().snapshot() : ensureContextActive();
+        if (isRecordsCacheableInternal()) {
+            // a cache hit does not go through the loader, so take the sizes from the record itself
+            return context.getDatabase().getSharedRecordCache().load(this, primaryKey, snapshot,
+                    () -> SplitHelper.loadWithSplit(tr, context, recordsSubspace(),
+                            primaryKey, metaData.isSplitLongRecords(), omitUnsplitRecordSuffix, sizeInfo))
+                    .thenApply(rawRecord -> withSizeInfo(rawRecord, sizeInfo));
+        }
         return SplitHelper.loadWithSplit(tr, context, recordsSubspace(),
                 primaryKey, metaData.isSplitLongRecords(), omitUnsplitRecordSuffix, sizeInfo);
     }
 
+    /**
+     * Fill in the sizes of a record that was found in a cache the same way that loading it from the database does, so
+     * that it is charged against scan limits and counted in metrics like any other record.
+     * @param rawRecord the cached record or {@code null} if the cache holds its absence
+     * @param sizeInfo a size info to fill in
+     * @return {@code rawRecord}
+     */
+    @Nullable
+    private static FDBRawRecord withSizeInfo(@Nullable final FDBRawRecord rawRecord,
+                                             @Nullable final SplitHelper.SizeInfo sizeInfo) {
+        if (rawRecord != null && sizeInfo != null) {
+            sizeInfo.set(rawRecord);
+        }
+        return rawRecord;
+    }
+
     @Override
     @Nonnull
     public RecordCursor<FDBStoredRecord<Message>> scanRecords(@Nullable final Tuple low, @Nullable final Tuple high,
@@ -1462,7 +1532,7 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
                 // Newer format versions: the version is either in the record or it is not -- do not do another read.
                 versionFutureOptional = Optional.empty();
             }
-            return deserializeRecord(typedSerializer, rawRecord, metaData, versionFutureOptional);
+            return deserializeRecord(typedSerializer, rawRecord, metaData, versionFutureOptional, scanProperties.getProjectedFields());
         }, pipelineSizer.getPipelineSize(PipelineOperation.KEY_TO_RECORD));
         return context.instrument(FDBStoreTimer.Events.SCAN_RECORDS, result);
     }
@@ -1799,6 +1869,7 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
 
     @API(API.Status.INTERNAL)
     public <M extends Message> void deleteRecordSplits(final @Nonnull Tuple primaryKey, final boolean clearBasedOnPreviousSizeInfo, final @Nullable FDBStoredRecord<M> oldRecord, final @Nonnull RecordMetaData metaData) {
+        updateRecordCacheVersionStamp();
         SplitHelper.deleteSplit(getRecordContext(), recordsSubspace(), primaryKey, metaData.isSplitLongRecords(), omitUnsplitRecordSuffix, clearBasedOnPreviousSizeInfo, oldRecord);
     }
 
@@ -1924,6 +1995,8 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
         Range indexStateRange = indexStateSubspace().range();
         context.clear(new Range(recordsSubspace().getKey(), indexStateRange.begin));
         context.clear(new Range(indexStateRange.end, getSubspace().range().end));
+        // This also cleared the record cache version-stamp key, so it needs to be set again afterwards
+        updateRecordCacheVersionStamp();
     }
 
     @Override
@@ -1933,6 +2006,7 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
         }
         validateRecordUpdateAllowed(recordStoreStateRef.get());
         preloadCache.invalidateAll();
+        updateRecordCacheVersionStamp();
         recordStoreStateRef.get().beginRead();
         boolean async = false;
         try {
@@ -3327,6 +3401,78 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
         return context.asyncToSync(FDBStoreTimer.Waits.WAIT_SET_STATE_CACHEABILITY, setStateCacheabilityAsync(cacheable));
     }
 
+    /**
+     * Set whether the records in this store can be cached across transactions by the database's
+     * {@linkplain FDBDatabase#getSharedRecordCache() shared record cache}. If they are, every transaction that saves
+     * or deletes records in this store also updates the store's
+     * {@linkplain #getRecordCacheVersionStampKey() record cache version-stamp key}, and cached records are only used
+     * while that key is unchanged. By default, records are <em>not</em> cacheable, as any modification of the store
+     * invalidates all of its cached records. This is therefore only useful for stores that are read much more
+     * frequently than they are modified.
+     *
+     * @param cacheable whether the records in this store should be cacheable
+     * @return a future that will complete to {@code true} if the records cacheability has changed
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    public CompletableFuture<Boolean> setRecordsCacheabilityAsync(boolean cacheable) {
+        if (recordStoreStateRef.get() == null) {
+            return preloadRecordStoreStateAsync().thenCompose(vignore -> setRecordsCacheabilityAsync(cacheable));
+        }
+        if (!formatVersion.isAtLeast(FormatVersion.RECORDS_CACHEABLE)) {
+            throw recordCoreException("cannot mark records cacheable at format version " + formatVersion);
+        }
+        if (isRecordsCacheableInternal() == cacheable) {
+            return AsyncUtil.READY_FALSE;
+        } else {
+            return updateStoreHeaderAsync(headerBuilder -> headerBuilder.setRecordsCacheable(cacheable))
+                    .thenApply(ignore -> {
+                        // Make sure that records cached before any previous period of being non-cacheable are
+                        // not used, and that the store can be cached without first having to modify a record.
+                        updateRecordCacheVersionStamp();
+                        return true;
+                    });
+        }
+    }
+
+    /**
+     * Set whether the records in this store can be cached across transactions. This operation might block if the
+     * record store state has not yet been loaded. Use {@link #setRecordsCacheabilityAsync(boolean)} in asynchronous
+     * contexts.
+     *
+     * @param cacheable whether the records in this store should be cacheable
+     * @return whether the records cacheability has changed
+     * @see #setRecordsCacheabilityAsync(boolean)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public boolean setRecordsCacheability(boolean cacheable) {
+        return context.asyncToSync(FDBStoreTimer.Waits.WAIT_SET_RECORDS_CACHEABILITY, setRecordsCacheabilityAsync(cacheable));
+    }
+
+    /**
+     * Get the key whose value is updated with the commit version-stamp of every transaction that modifies records in
+     * this store if the records are {@linkplain #setRecordsCacheability(boolean) cacheable}.
+     *
+     * @return the record cache version-stamp key of this store
+     * @see com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache
+     */
+    @API(API.Status.INTERNAL)
+    @Nonnull
+    public byte[] getRecordCacheVersionStampKey() {
+        return getSubspace().pack(Tuple.from(RECORD_CACHE_VERSION_KEY));
+    }
+
+    private boolean isRecordsCacheableInternal() {
+        final RecordStoreState localStoreState = recordStoreStateRef.get();
+        return localStoreState != null && localStoreState.getStoreHeader().getRecordsCacheable();
+    }
+
+    private void updateRecordCacheVersionStamp() {
+        if (isRecordsCacheableInternal()) {
+            context.setRecordCacheVersionStamp(getRecordCacheVersionStampKey());
+        }
+    }
+
     private boolean isStateCacheableInternal() {
         if (recordStoreStateRef.get() == null) {
             throw uninitializedStoreException("cannot check record store state cacheability on uninitialized store");
@@ -5443,20 +5589,50 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
         return getPrimaryKeyBoundaries(range.begin, range.end);
     }
 
-    @SuppressWarnings("PMD.CloseResource")
     private RecordCursor<Tuple> getPrimaryKeyBoundaries(byte[] rangeStart, byte[] rangeEnd) {
+        final Subspace recordsSubspace = recordsSubspace();
+        final boolean hasSplitRecordSuffix = hasSplitRecordSuffix();
+        return getKeyBoundaries(rangeStart, rangeEnd, key -> {
+            Tuple recordKey = recordsSubspace.unpack(key);
+            return hasSplitRecordSuffix ? recordKey.popBack() : recordKey;
+        });
+    }
+
+    /**
+     * Return a cursor of boundaries separating the key ranges maintained by each FDB server within a range of the
+     * entries of an index. The boundaries are index entry keys, that is, the indexed values followed by the
+     * primary key, which are the first entries of each shard in the range. As with
+     * {@link #getPrimaryKeyBoundaries(TupleRange)}, they are only an estimate of the shard locations.
+     * <p>
+     * This is only meaningful for indexes that store one key-value pair per entry in the index's subspace, such as
+     * {@link com.apple.foundationdb.record.metadata.IndexTypes#VALUE} indexes.
+     *
+     * @param index the index whose entries are to be split
+     * @param tupleRange the range of index entries or {@code null} for the whole index
+     * @return the list of boundary index entry keys
+     * @see #getPrimaryKeyBoundaries(TupleRange)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    public RecordCursor<Tuple> getIndexKeyBoundaries(@Nonnull Index index, @Nullable TupleRange tupleRange) {
+        if (tupleRange == null) {
+            tupleRange = TupleRange.ALL;
+        }
+        final Subspace indexSubspace = indexSubspace(index);
+        Range range = tupleRange.toRange(indexSubspace);
+        return getKeyBoundaries(range.begin, range.end, indexSubspace::unpack);
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private RecordCursor<Tuple> getKeyBoundaries(byte[] rangeStart, byte[] rangeEnd, @Nonnull Function<byte[], Tuple> keyFunction) {
         final Transaction transaction = ensureContextActive();
         CloseableAsyncIterator<byte[]> cursor = context.getDatabase().getLocalityProvider().getBoundaryKeys(transaction, rangeStart, rangeEnd);
-        final boolean hasSplitRecordSuffix = hasSplitRecordSuffix();
         DistinctFilterCursorClosure closure = new DistinctFilterCursorClosure();
         return RecordCursor.flatMapPipelined(ignore -> RecordCursor.fromIterator(getExecutor(), cursor),
                 (result, ignore) -> RecordCursor.fromIterator(getExecutor(),
                         transaction.snapshot().getRange(result, rangeEnd, 1).iterator()),
                 null, DEFAULT_PIPELINE_SIZE)
-                .map(keyValue -> {
-                    Tuple recordKey = recordsSubspace().unpack(keyValue.getKey());
-                    return hasSplitRecordSuffix ? recordKey.popBack() : recordKey;
-                })
+                .map(keyValue -> keyFunction.apply(keyValue.getKey()))
                 // The input stream is expected to be sorted so this filter can work to de-duplicate the data.
                 .filter(closure::pred);
     }
@@ -6110,6 +6286,10 @@ public class FDBRecordStore extends FDBStoreBase implements FDBRecordStoreBase<M
          *             MetaDataVersion will be bumped, ensuring that any other potential instances stop using the cache.
          *         </li>
          *         <li>
+         *             The {@link #setRecordsCacheability recordsCacheability} will be disabled, so no other instance
+         *             will use its shared record cache for the store until it is re-enabled.
+         *         </li>
+         *         <li>
          *             Any Store Lock State (see {@link #setStoreLockStateAsync(RecordMetaDataProto.DataStoreInfo.StoreLockState.State, String)}).<br/>
          *             Unless restored by the user, any previous store lock state will be cleared.
          *         </li>
@@ -45,18 +45,21 @@ import com.apple.foundationdb.record.RecordMetaDataProvider;
 import com.apple.foundationdb.record.RecordStoreState;
 import com.apple.foundationdb.record.ScanProperties;
 import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.record.cursors.AdaptivePipelineSize;
 import com.apple.foundationdb.record.cursors.FallbackCursor;
 import com.apple.foundationdb.record.logging.KeyValueLogMessage;
 import com.apple.foundationdb.record.logging.LogMessageKeys;
 import com.apple.foundationdb.record.metadata.Index;
 import com.apple.foundationdb.record.metadata.IndexAggregateFunction;
 import com.apple.foundationdb.record.metadata.IndexRecordFunction;
+import com.apple.foundationdb.record.metadata.IndexTypes;
 import com.apple.foundationdb.record.metadata.Key;
 import com.apple.foundationdb.record.metadata.RecordType;
 import com.apple.foundationdb.record.metadata.StoreRecordFunction;
 import com.apple.foundationdb.record.metadata.expressions.EmptyKeyExpression;
 import com.apple.foundationdb.record.metadata.expressions.KeyExpression;
 import com.apple.foundationdb.record.provider.common.RecordSerializer;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor;
 import com.apple.foundationdb.record.provider.foundationdb.keyspace.KeySpacePath;
 import com.apple.foundationdb.record.provider.foundationdb.storestate.FDBRecordStoreStateCache;
 import com.apple.foundationdb.record.query.IndexQueryabilityFilter;
@@ -77,12 +80,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -997,6 +1004,74 @@ public interface FDBRecordStoreBase<M extends Message> extends RecordMetaDataPro
         return scanIndex(index, new IndexScanRange(scanType, range), continuation, scanProperties);
     }
 
+    /**
+     * Scan the records in the database in a range, reading segments of it concurrently.
+     * The range is split at the boundaries of the shards that store it (see
+     * {@link FDBRecordStore#getPrimaryKeyBoundaries(TupleRange)}) and up to {@code parallelism} of those segments
+     * are read at a time by a {@link ParallelScanCursor}. The continuation can only be resumed by another parallel
+     * scan, but a continuation from {@link #scanRecords(TupleRange, byte[], ScanProperties)} can be resumed by this one.
+     *
+     * @param range the range to scan
+     * @param continuation any continuation from a previous parallel or serial scan of the same range
+     * @param scanProperties skip, limit and other scan properties
+     * @param parallelism the maximum number of segments to read concurrently
+     * @param ordered whether records must be returned in primary key order; if {@code false}, records are returned
+     * as soon as any segment has read them
+     *
+     * @return a cursor that will scan everything in the range, picking up at continuation, and honoring the given scan properties
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default RecordCursor<FDBStoredRecord<M>> scanRecordsInParallel(@Nonnull TupleRange range, @Nullable byte[] continuation,
+                                                                   @Nonnull ScanProperties scanProperties,
+                                                                   int parallelism, boolean ordered) {
+        final ExecuteProperties executeProperties = scanProperties.getExecuteProperties();
+        final ScanProperties segmentScanProperties = scanProperties.with(ExecuteProperties::clearSkipAndAdjustLimit);
+        return new ParallelScanCursor<>(range,
+                (segment, segmentContinuation) -> scanRecords(segment, segmentContinuation, segmentScanProperties),
+                segment -> getUntypedRecordStore().getPrimaryKeyBoundaries(segment).asList(),
+                scanProperties.isReverse(), ordered, parallelism, ParallelScanCursor.DEFAULT_PREFETCH,
+                getExecutor(), continuation)
+                .skipThenLimit(executeProperties.getSkip(), executeProperties.getReturnedRowLimit());
+    }
+
+    /**
+     * Scan the entries in a range of a value index, reading segments of it concurrently.
+     * The range is split at the boundaries of the shards that store it (see
+     * {@link FDBRecordStore#getIndexKeyBoundaries(Index, TupleRange)}) and up to {@code parallelism} of those segments
+     * are read at a time by a {@link ParallelScanCursor}. The continuation can only be resumed by another parallel
+     * scan, but a continuation from {@link #scanIndex(Index, IndexScanBounds, byte[], ScanProperties)} can be resumed
+     * by this one.
+     *
+     * @param index the index to scan
+     * @param range range to scan
+     * @param continuation any continuation from a previous parallel or serial scan of the same range
+     * @param scanProperties skip, limit and other scan properties
+     * @param parallelism the maximum number of segments to read concurrently
+     * @param ordered whether entries must be returned in index order; if {@code false}, entries are returned
+     * as soon as any segment has read them
+     * @return a cursor that will scan the index, picking up at continuation, and honoring the given scan properties
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default RecordCursor<IndexEntry> scanIndexInParallel(@Nonnull Index index, @Nonnull TupleRange range,
+                                                         @Nullable byte[] continuation, @Nonnull ScanProperties scanProperties,
+                                                         int parallelism, boolean ordered) {
+        if (!IndexTypes.VALUE.equals(index.getType())) {
+            throw new RecordCoreArgumentException("parallel scans are only supported for value indexes")
+                    .addLogInfo(LogMessageKeys.INDEX_NAME, index.getName())
+                    .addLogInfo(LogMessageKeys.INDEX_TYPE, index.getType());
+        }
+        final ExecuteProperties executeProperties = scanProperties.getExecuteProperties();
+        final ScanProperties segmentScanProperties = scanProperties.with(ExecuteProperties::clearSkipAndAdjustLimit);
+        return new ParallelScanCursor<>(range,
+                (segment, segmentContinuation) -> scanIndex(index, IndexScanType.BY_VALUE, segment, segmentContinuation, segmentScanProperties),
+                segment -> getUntypedRecordStore().getIndexKeyBoundaries(index, segment).asList(),
+                scanProperties.isReverse(), ordered, parallelism, ParallelScanCursor.DEFAULT_PREFETCH,
+                getExecutor(), continuation)
+                .skipThenLimit(executeProperties.getSkip(), executeProperties.getReturnedRowLimit());
+    }
+
     /**
      * Scan the records pointed to by an index.
      * @param indexName the name of the index
@@ -1325,8 +1400,8 @@ public interface FDBRecordStoreBase<M extends Message> extends RecordMetaDataPro
     default RecordCursor<FDBIndexedRecord<M>> fetchIndexRecords(@Nonnull RecordCursor<IndexEntry> indexCursor,
                                                                 @Nonnull IndexOrphanBehavior orphanBehavior,
                                                                 @Nonnull ExecuteState executeState) {
-        RecordCursor<FDBIndexedRecord<M>> recordCursor = indexCursor.mapPipelined(entry ->
-                loadIndexEntryRecord(entry, orphanBehavior, executeState), getPipelineSize(PipelineOperation.INDEX_TO_RECORD));
+        RecordCursor<FDBIndexedRecord<M>> recordCursor = mapPipelined(indexCursor, entry ->
+                loadIndexEntryRecord(entry, orphanBehavior, executeState), PipelineOperation.INDEX_TO_RECORD);
         if (orphanBehavior == IndexOrphanBehavior.SKIP) {
             recordCursor = recordCursor.filter(Objects::nonNull);
         }
@@ -1735,6 +1810,45 @@ public interface FDBRecordStoreBase<M extends Message> extends RecordMetaDataPro
      */
     interface PipelineSizer {
         int getPipelineSize(@Nonnull PipelineOperation pipelineOperation);
+
+        /**
+         * Get the configuration for adapting the number of elements in the pipeline for an operation of the given type.
+         * When this returns non-{@code null}, pipelines for the operation start at the configured initial size and
+         * adjust as they go, instead of using {@link #getPipelineSize(PipelineOperation)}.
+         * @param pipelineOperation the operation
+         * @return the adaptive pipeline configuration or {@code null} to use a fixed pipeline size
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nullable
+        default AdaptivePipelineSize.Config getAdaptivePipelineConfig(@Nonnull PipelineOperation pipelineOperation) {
+            return null;
+        }
+
+        /**
+         * Get a pipeline sizer that adapts the pipeline size of the given operations and otherwise uses another sizer.
+         * @param sizer the sizer for fixed pipeline sizes
+         * @param config the configuration for adaptive pipelines
+         * @param adaptiveOperations the operations whose pipelines should adapt
+         * @return a new pipeline sizer
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nonnull
+        static PipelineSizer adaptive(@Nonnull PipelineSizer sizer, @Nonnull AdaptivePipelineSize.Config config,
+                                      @Nonnull PipelineOperation... adaptiveOperations) {
+            final Set<PipelineOperation> operations = new HashSet<>(Arrays.asList(adaptiveOperations));
+            return new PipelineSizer() {
+                @Override
+                public int getPipelineSize(@Nonnull PipelineOperation pipelineOperation) {
+                    return sizer.getPipelineSize(pipelineOperation);
+                }
+
+                @Nullable
+                @Override
+                public AdaptivePipelineSize.Config getAdaptivePipelineConfig(@Nonnull PipelineOperation pipelineOperation) {
+                    return operations.contains(pipelineOperation) ? config : sizer.getAdaptivePipelineConfig(pipelineOperation);
+                }
+            };
+        }
     }
 
     /**
@@ -1754,6 +1868,28 @@ public interface FDBRecordStoreBase<M extends Message> extends RecordMetaDataPro
         return getPipelineSizer().getPipelineSize(pipelineOperation);
     }
 
+    /**
+     * Apply an asynchronous function to the elements of a cursor, pipelined as the {@link PipelineSizer} specifies for
+     * an operation of the given type. If the sizer has an adaptive configuration for the operation, the pipeline size
+     * adapts to the latency of the function and to the bytes read while it runs, as reported by {@link #getTimer()}.
+     * @param cursor the cursor whose elements to map
+     * @param func the function to apply to each element
+     * @param pipelineOperation the operation
+     * @param <T> the type of elements of the cursor
+     * @param <V> the result type of the function
+     * @return a new cursor that applies the given function to each element
+     */
+    @API(API.Status.EXPERIMENTAL)
+    @Nonnull
+    default <T, V> RecordCursor<V> mapPipelined(@Nonnull RecordCursor<T> cursor, @Nonnull Function<T, CompletableFuture<V>> func,
+                                                @Nonnull PipelineOperation pipelineOperation) {
+        final AdaptivePipelineSize.Config config = getPipelineSizer().getAdaptivePipelineConfig(pipelineOperation);
+        if (config == null) {
+            return cursor.mapPipelined(func, getPipelineSize(pipelineOperation));
+        }
+        return cursor.mapPipelined(func, new AdaptivePipelineSize(config, getTimer()));
+    }
+
     /**
      * Compute an estimated size of the store in bytes. The estimate will include all data in the store, including
      * all records and indexes.
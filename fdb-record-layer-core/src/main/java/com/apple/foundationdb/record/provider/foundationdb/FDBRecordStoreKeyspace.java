@@ -41,6 +41,7 @@ public enum FDBRecordStoreKeyspace {
     RECORD_VERSION_SPACE(8L),
     INDEX_BUILD_SPACE(9L),
     INDEX_SLIDING_WINDOW_SPACE(10L),
+    RECORD_CACHE_VERSION(11L),
     ;
 
     private long id;
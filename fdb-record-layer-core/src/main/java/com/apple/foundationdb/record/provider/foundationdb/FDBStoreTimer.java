@@ -78,6 +78,11 @@ public class FDBStoreTimer extends StoreTimer {
          * @see FDBDatabase#getLatencyToInject(FDBLatencySource)
          */
         INJECTED_GET_READ_VERSION_LATENCY("injected get read version latency"),
+        /**
+         * The amount of time taken by a read version request that an {@link FDBReadVersionBatcher} made for a group of
+         * contexts. This is recorded on the timer of the context that started the group.
+         */
+        SHARED_GET_READ_VERSION("shared get read version"),
         /**
          * The amount of time taken committing transactions successfully.
          * This includes any injected latency added before issuing the request and any time spent performing pre-commit checks.
@@ -389,6 +394,8 @@ public class FDBStoreTimer extends StoreTimer {
         WAIT_CHECK_VERSION("wait for check version"),
         /** Wait for {@link OnlineIndexer} to complete building an index. */
         WAIT_ONLINE_BUILD_INDEX("wait for online build index"),
+        /** Wait for {@link BulkRecordLoader} to load records and rebuild their indexes. */
+        WAIT_BULK_LOAD_RECORDS("wait for bulk load records"),
         /** Wait for {@link OnlineIndexer} to stop ongoing online index builds. */
         WAIT_STOP_ONLINE_INDEX_BUILD("wait for stopping ongoing online index builds"),
         /** Wait for {@link OnlineIndexer} to checking ongoing online index builds. */
@@ -460,6 +467,8 @@ public class FDBStoreTimer extends StoreTimer {
         WAIT_GET_BOUNDARY("wait for boundary result from locality api"),
         /** Wait for setting the store state cacheability. */
         WAIT_SET_STATE_CACHEABILITY("wait to set state cacheability"),
+        /** Wait for setting the records cacheability. */
+        WAIT_SET_RECORDS_CACHEABILITY("wait to set records cacheability"),
         /** Wait for initializing a synchronized session. */
         WAIT_INIT_SYNC_SESSION("wait for initializing a synchronized session"),
         /** Wait for checking a synchronized session. */
@@ -520,6 +529,14 @@ public class FDBStoreTimer extends StoreTimer {
         STORE_STATE_CACHE_HIT("store info cache hit", false),
         /** The number of times the store state cache was unable to return a cached result. */
         STORE_STATE_CACHE_MISS("store info cache miss", false),
+        /** The number of times a record was served from the shared record cache. */
+        SHARED_RECORD_CACHE_HIT("shared record cache hit", false),
+        /** The number of times the shared record cache was unable to return a cached record. */
+        SHARED_RECORD_CACHE_MISS("shared record cache miss", false),
+        /** The number of times an adaptive pipeline grew the number of operations it keeps in flight. */
+        ADAPTIVE_PIPELINE_GROW("adaptive pipeline grow", false),
+        /** The number of times an adaptive pipeline shrank the number of operations it keeps in flight. */
+        ADAPTIVE_PIPELINE_SHRINK("adaptive pipeline shrink", false),
         /** The number of record key-value pairs saved. */
         SAVE_RECORD_KEY("number of record keys saved", false, null, true),
         /** The size of keys for record key-value pairs saved. */
@@ -673,6 +690,18 @@ public class FDBStoreTimer extends StoreTimer {
         QUERY_COMPARATOR_COMPARED("number of comparisons", false),
         /** The number of times the read version was taken from the cache of the last seen version. */
         SET_READ_VERSION_TO_LAST_SEEN("set read version to last seen version", false),
+        /** The number of read version requests made by an {@link FDBReadVersionBatcher} for a group of contexts. */
+        SHARED_READ_VERSION_REQUESTS("number of shared read version requests", false),
+        /** The number of contexts that joined a read version request started by another context, saving a request of their own. */
+        SHARED_READ_VERSION_JOINED("number of contexts sharing a read version request", false),
+        /** The number of contexts given a recent read version by an {@link FDBReadVersionBatcher} within its staleness bound. */
+        SHARED_READ_VERSION_REUSED("number of contexts reusing a recent read version", false),
+        /** The number of transactions committed by a {@link com.apple.foundationdb.record.provider.foundationdb.runners.GroupCommitRunner} for a group of callers. */
+        GROUP_COMMIT_TRANSACTIONS("number of group commit transactions", false),
+        /** The number of callers whose work was committed as part of a group. */
+        GROUP_COMMIT_CALLERS("number of callers committed in a group", false),
+        /** The number of callers whose work was retried in a transaction of its own after its group could not commit. */
+        GROUP_COMMIT_CALLERS_RUN_ALONE("number of group commit callers retried alone", false),
         /** The number of records scanned by {@link OnlineIndexer}. */
         ONLINE_INDEX_BUILDER_RECORDS_SCANNED("number of records scanned by online index build", false),
         /** The number of records indexed by {@link OnlineIndexer}. */
@@ -685,6 +714,10 @@ public class FDBStoreTimer extends StoreTimer {
         ONLINE_INDEX_BUILDER_RANGES_BY_TIME("number of indexer iterations terminated by time limit", false),
         /** The number of {@link OnlineIndexer} range scans terminated after hitting the time limit. */
         ONLINE_INDEX_BUILDER_RANGES_BY_DEPLETION("number of indexer iterations terminated by cursor's range depletion", false),
+        /** The number of sorted batches of index entries written by {@link OnlineIndexer}. */
+        ONLINE_INDEX_BUILDER_SORTED_BATCHES("number of sorted batches written by online index build", false),
+        /** The number of index entries written in sorted batches by {@link OnlineIndexer}. */
+        ONLINE_INDEX_BUILDER_SORTED_ENTRIES("number of index entries written in sorted batches by online index build", false),
         /** The number of {@link OnlineIndexer} range scans terminated after hitting the cursor's range depletion. */
         MUTUAL_INDEXER_FULL_START("counter: start indexing a 'FULL' fragment", false),
         /** {@link IndexingMutuallyByRecords} counter: start indexing a 'FULL' fragment. */
@@ -951,12 +984,38 @@ public class FDBStoreTimer extends StoreTimer {
 
     static {
         checkEventNameUniqueness(possibleEvents());
+        reserveEventSlots(possibleEvents());
     }
 
     public FDBStoreTimer() {
         super();
     }
 
+    /**
+     * Create a new timer, optionally finding counters by slot rather than by hash, which lowers the cost of
+     * recording events that are recorded very often from many threads.
+     *
+     * @param useEventSlots whether to find counters by slot
+     * @see StoreTimer#StoreTimer(boolean)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public FDBStoreTimer(boolean useEventSlots) {
+        super(useEventSlots);
+    }
+
+    /**
+     * Create a new timer, optionally finding counters by slot and optionally recording histograms of timed
+     * events, such as {@link Events#COMMIT}, from which percentiles are reported.
+     *
+     * @param useEventSlots whether to find counters by slot
+     * @param recordHistograms whether to record histograms of timed events
+     * @see StoreTimer#StoreTimer(boolean, boolean)
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public FDBStoreTimer(boolean useEventSlots, boolean recordHistograms) {
+        super(useEventSlots, recordHistograms);
+    }
+
     @Override
     @Nonnull
     public Set<Aggregate> getAggregates() {
@@ -176,7 +176,20 @@ public enum FormatVersion implements Comparable<FormatVersion> {
      * In this state, user IO is added to write pending queue, and the indexing process is responsible to drain the queue and update
      * the index. This special indexing mode is designed to prevent conflicts between the indexer and user transactions.
      */
-    WRITE_ONLY_WITH_QUEUE(15)
+    WRITE_ONLY_WITH_QUEUE(15),
+    /**
+     * This FormatVersion allows the records of a store to be cached across transactions.
+     * <p>
+     *     With this version, every time a record is saved or deleted in a store marked as records cacheable, the
+     *     store's record cache version-stamp key is updated, which invalidates the store's entries in any
+     *     {@link com.apple.foundationdb.record.provider.foundationdb.recordcache.FDBSharedRecordCache}. As with
+     *     {@link #CACHEABLE_STATE}, a client that did not know about the flag could modify records without
+     *     updating the key, so other clients would keep serving stale records from their caches.
+     * </p>
+     * @see com.apple.foundationdb.record.provider.foundationdb.recordcache.VersionStampSharedRecordCache
+     * @see FDBRecordStore#setRecordsCacheability
+     */
+    RECORDS_CACHEABLE(16)
     ;
 
     private final int value;
@@ -732,6 +732,9 @@ public abstract class IndexingBase {
         // Copying the state also guards against changes made by other online building from check version.
         AtomicLong recordsScannedCounter = new AtomicLong();
         final AtomicReference<RecordCursorResult<T>> nextResult = new AtomicReference<>(null);
+        final IndexingSortedBatch sortedBatch = policy.getSortedBatchMaxEntries() > 0 ?
+                                                new IndexingSortedBatch(policy.getSortedBatchMaxEntries(), getRunner().getTimer()) :
+                                                null;
         deferAutoMergeDuringCommit(store);
 
         return validateTypeStamp(store)
@@ -741,12 +744,13 @@ public abstract class IndexingBase {
                                         policy.isReverseScanOrder() ?
                                         handleCursorResultReverse(store, result,
                                                 getRecordToIndex, nextResultCont,
-                                                recordsScannedCounter, hasMore, isIdempotent)
+                                                recordsScannedCounter, hasMore, isIdempotent, sortedBatch)
                                         :
                                         handleCursorResult(store, result,
                                                 getRecordToIndex, nextResult, nextResultCont,
-                                                recordsScannedCounter, hasMore, isIdempotent)
+                                                recordsScannedCounter, hasMore, isIdempotent, sortedBatch)
                                 ), cursor.getExecutor()))
+                .thenCompose(vignore -> sortedBatch == null ? AsyncUtil.DONE : sortedBatch.flush())
                 .thenApply(vignore -> {
                     long recordsScannedInTransaction = recordsScannedCounter.get();
                     if (recordsScanned != null) {
@@ -771,7 +775,8 @@ public abstract class IndexingBase {
                                                               @Nonnull AtomicReference<RecordCursorResult<T>> nextResultCont,
                                                               @Nonnull AtomicLong recordsScannedCounter,
                                                               @Nonnull AtomicBoolean hasMore,
-                                                              final boolean isIdempotent) {
+                                                              final boolean isIdempotent,
+                                                              @Nullable IndexingSortedBatch sortedBatch) {
         RecordCursorResult<T> currResult;
         final boolean isExhausted;
         if (cursorResult.hasNext()) {
@@ -822,7 +827,7 @@ public abstract class IndexingBase {
                     }
                     timerIncrement(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RECORDS_INDEXED);
 
-                    final CompletableFuture<Void> updateMaintainer = updateMaintainerBuilder(store, rec);
+                    final CompletableFuture<Void> updateMaintainer = updateMaintainerBuilder(store, rec, sortedBatch);
                     if (isExhausted) {
                         // we've just processed the last item
                         timerIncrement(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RANGES_BY_DEPLETION);
@@ -830,7 +835,7 @@ public abstract class IndexingBase {
                         return updateMaintainer.thenApply(vignore -> false);
                     }
                     return updateMaintainer.thenCompose(vignore ->
-                            hadTransactionReachedLimits(store)
+                            hadTransactionReachedLimits(store, sortedBatch)
                                     .thenApply(shouldCommit -> {
                                         if (shouldCommit) {
                                             nextResultCont.set(nextResult.get());
@@ -850,7 +855,8 @@ public abstract class IndexingBase {
                                                                      @Nonnull AtomicReference<RecordCursorResult<T>> nextResultCont,
                                                                      @Nonnull AtomicLong recordsScannedCounter,
                                                                      @Nonnull AtomicBoolean hasMore,
-                                                                     final boolean isIdempotent) {
+                                                                     final boolean isIdempotent,
+                                                                     @Nullable IndexingSortedBatch sortedBatch) {
         // When setting the rangeSet the first item is inclusive, the last one is exclusive. Hence, if scanning in reverse order (which is rare),
         // the 'lastResultCont' item should also be processed
         if (!cursorResult.hasNext()) {
@@ -880,9 +886,9 @@ public abstract class IndexingBase {
                     }
                     timerIncrement(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RECORDS_INDEXED);
 
-                    final CompletableFuture<Void> updateMaintainer = updateMaintainerBuilder(store, rec);
+                    final CompletableFuture<Void> updateMaintainer = updateMaintainerBuilder(store, rec, sortedBatch);
                     return updateMaintainer.thenCompose(vignore ->
-                            hadTransactionReachedLimits(store)
+                            hadTransactionReachedLimits(store, sortedBatch)
                                     .thenApply(shouldCommit -> {
                                         if (shouldCommit) {
                                             hasMore.set(true);
@@ -894,7 +900,7 @@ public abstract class IndexingBase {
                 });
     }
 
-    private CompletableFuture<Boolean> hadTransactionReachedLimits(FDBRecordStore store) {
+    private CompletableFuture<Boolean> hadTransactionReachedLimits(FDBRecordStore store, @Nullable IndexingSortedBatch sortedBatch) {
         final long transactionTimeLimitMilliseconds = common.config.getTransactionTimeLimitMilliseconds();
         if (transactionTimeLimitMilliseconds > 0 &&
                 transactionTimeLimitMilliseconds < store.getContext().getTransactionAge()) {
@@ -909,7 +915,9 @@ public abstract class IndexingBase {
             // return a transaction write size limit check
             return store.getContext().getApproximateTransactionSize()
                     .thenApply(size -> {
-                        if (size > maxWriteLimit) {
+                        // Buffered index entries are not in the transaction yet, but will be before it commits
+                        final long bufferedSize = sortedBatch == null ? 0 : sortedBatch.getBufferedBytes();
+                        if (size + bufferedSize > maxWriteLimit) {
                             timerIncrement(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RANGES_BY_SIZE);
                             return true;
                         }
@@ -997,7 +1005,8 @@ public abstract class IndexingBase {
     }
 
     private CompletableFuture<Void> updateMaintainerBuilder(@Nonnull FDBRecordStore store,
-                                                            FDBStoredRecord<Message> rec) {
+                                                            FDBStoredRecord<Message> rec,
+                                                            @Nullable IndexingSortedBatch sortedBatch) {
         return forEachTargetIndexContext(indexContext -> {
             if (!indexContext.recordTypes.contains(rec.getRecordType())) {
                 // This particular index is not affected by rec
@@ -1010,7 +1019,12 @@ public abstract class IndexingBase {
                 return syntheticPlan.execute(store, rec).forEachAsync(syntheticRecord -> maintainer.update(null, syntheticRecord), 1);
             }
             // update simple index
-            return store.getIndexMaintainer(indexContext.index).update(null, rec);
+            final IndexMaintainer maintainer = store.getIndexMaintainer(indexContext.index);
+            if (sortedBatch != null && IndexingSortedBatch.canBuffer(maintainer)) {
+                // hold the entries to be written in key order with those of the other records in this transaction
+                return sortedBatch.add(maintainer, rec);
+            }
+            return maintainer.update(null, rec);
         });
     }
 
@@ -0,0 +1,212 @@
+/*
+ * IndexingSortedBatch.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.IndexEntry;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.provider.foundationdb.indexes.StandardIndexMaintainer;
+import com.apple.foundationdb.record.sorting.MemorySortAdapter;
+import com.apple.foundationdb.record.sorting.MemorySorter;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
+import com.google.protobuf.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The index entries for the records scanned by an indexer in one transaction, held sorted by key until they are
+ * written. Entries are only buffered for indexes whose maintainer
+ * {@linkplain StandardIndexMaintainer#canSaveIndexEntriesInAnyOrder() allows it}. Since everything is written before
+ * the transaction commits, this only changes the order of the writes, which then cover a few contiguous ranges of each
+ * index instead of being scattered over it.
+ * @see OnlineIndexer.IndexingPolicy.Builder#setSortedBatchMaxEntries(int)
+ */
+@API(API.Status.INTERNAL)
+class IndexingSortedBatch {
+    @Nonnull
+    private final MemorySorter<byte[], PendingEntry> sorter;
+    private final int maxEntries;
+    @Nullable
+    private final FDBStoreTimer timer;
+    private long bufferedBytes;
+
+    IndexingSortedBatch(int maxEntries, @Nullable FDBStoreTimer timer) {
+        this.sorter = new MemorySorter<>(new Adapter(maxEntries), timer);
+        this.maxEntries = maxEntries;
+        this.timer = timer;
+    }
+
+    /**
+     * Get whether index entries for the given maintainer can be buffered.
+     * @param maintainer an index maintainer
+     * @return {@code true} if the maintainer's entries can be written in sorted order
+     */
+    static boolean canBuffer(@Nonnull IndexMaintainer maintainer) {
+        return maintainer instanceof StandardIndexMaintainer && ((StandardIndexMaintainer)maintainer).canSaveIndexEntriesInAnyOrder();
+    }
+
+    /**
+     * Add the entries for a record, writing the entries buffered so far if the batch is full.
+     * @param maintainer the maintainer of the index, for which {@link #canBuffer} is true
+     * @param rec the record being indexed
+     * @return a future completed when any writes that were needed are done
+     */
+    @Nonnull
+    CompletableFuture<Void> add(@Nonnull IndexMaintainer maintainer, @Nonnull FDBIndexableRecord<Message> rec) {
+        final StandardIndexMaintainer standardMaintainer = (StandardIndexMaintainer)maintainer;
+        final List<IndexEntry> indexEntries = standardMaintainer.filteredIndexEntries(rec);
+        if (indexEntries == null || indexEntries.isEmpty()) {
+            return AsyncUtil.DONE;
+        }
+        CompletableFuture<Void> future = AsyncUtil.DONE;
+        if (sorter.getMap().size() + indexEntries.size() > maxEntries) {
+            future = flush();
+        }
+        for (IndexEntry indexEntry : indexEntries) {
+            final byte[] key = maintainer.getIndexSubspace().pack(
+                    FDBRecordStoreBase.indexEntryKey(maintainer.state.index, indexEntry.getKey(), rec.getPrimaryKey()));
+            sorter.addKeyValue(key, new PendingEntry(standardMaintainer, rec, indexEntry));
+            bufferedBytes += key.length + indexEntry.getValue().pack().length;
+        }
+        return future;
+    }
+
+    /**
+     * Get the approximate number of bytes that writing the buffered entries will add to the transaction.
+     * @return the size of the buffered keys and values
+     */
+    long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * Write all the buffered entries, in key order.
+     * @return a future completed when the entries are written
+     */
+    @Nonnull
+    CompletableFuture<Void> flush() {
+        final int count = sorter.getMap().size();
+        if (count == 0) {
+            return AsyncUtil.DONE;
+        }
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (PendingEntry pending : sorter.getMap().values()) {
+            futures.add(pending.maintainer.saveIndexEntryAsync(pending.rec, pending.indexEntry));
+        }
+        sorter.getMap().clear();
+        bufferedBytes = 0;
+        if (timer != null) {
+            timer.increment(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_SORTED_BATCHES);
+            timer.increment(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_SORTED_ENTRIES, count);
+        }
+        return AsyncUtil.whenAll(futures);
+    }
+
+    private static class PendingEntry {
+        @Nonnull
+        private final StandardIndexMaintainer maintainer;
+        @Nonnull
+        private final FDBIndexableRecord<Message> rec;
+        @Nonnull
+        private final IndexEntry indexEntry;
+
+        PendingEntry(@Nonnull StandardIndexMaintainer maintainer, @Nonnull FDBIndexableRecord<Message> rec,
+                     @Nonnull IndexEntry indexEntry) {
+            this.maintainer = maintainer;
+            this.rec = rec;
+            this.indexEntry = indexEntry;
+        }
+    }
+
+    /**
+     * Sorts entries by their packed key, which is also the order in which they are stored. The batch is bounded by
+     * the transaction, so it is never spilled to a file and its values need not be serialized.
+     */
+    private static class Adapter implements MemorySortAdapter<byte[], PendingEntry> {
+        private final int maxEntries;
+
+        Adapter(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        public int compare(byte[] o1, byte[] o2) {
+            return ByteArrayUtil.compareUnsigned(o1, o2);
+        }
+
+        @Nonnull
+        @Override
+        public byte[] generateKey(PendingEntry value) {
+            throw new RecordCoreException("sorted batch keys are added explicitly");
+        }
+
+        @Nonnull
+        @Override
+        public byte[] serializeKey(byte[] key) {
+            return key;
+        }
+
+        @Override
+        public boolean isSerializedOrderReversed() {
+            return false;
+        }
+
+        @Nonnull
+        @Override
+        public byte[] deserializeKey(@Nonnull byte[] key) {
+            return key;
+        }
+
+        @Nonnull
+        @Override
+        public byte[] serializeValue(PendingEntry value) {
+            throw new RecordCoreException("sorted batch entries cannot be serialized");
+        }
+
+        @Nonnull
+        @Override
+        public PendingEntry deserializeValue(@Nonnull byte[] value) {
+            throw new RecordCoreException("sorted batch entries cannot be serialized");
+        }
+
+        @Override
+        public int getMaxRecordCountInMemory() {
+            return maxEntries;
+        }
+
+        @Nonnull
+        @Override
+        public MemorySorter.RecordCountInMemoryLimitMode getRecordCountInMemoryLimitMode() {
+            return MemorySorter.RecordCountInMemoryLimitMode.STOP;
+        }
+
+        @Nonnull
+        @Override
+        public MemorySortComparator<byte[]> getComparator(@Nullable byte[] minimumKey) {
+            return new OrderComparator<>(this, minimumKey);
+        }
+    }
+}
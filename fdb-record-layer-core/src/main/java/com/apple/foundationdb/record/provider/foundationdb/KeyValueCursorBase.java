@@ -28,10 +28,12 @@ import com.apple.foundationdb.StreamingMode;
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.annotation.SpotBugsSuppressWarnings;
 import com.apple.foundationdb.async.AsyncIterator;
+import com.apple.foundationdb.async.AsyncUtil;
 import com.apple.foundationdb.record.CursorStreamingMode;
 import com.apple.foundationdb.record.EndpointType;
 import com.apple.foundationdb.record.KeyRange;
 import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.RecordCursorBatch;
 import com.apple.foundationdb.record.RecordCursorContinuation;
 import com.apple.foundationdb.record.RecordCursorProto;
 import com.apple.foundationdb.record.RecordCursorResult;
@@ -48,6 +50,9 @@ import com.google.protobuf.ZeroCopyByteString;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -99,36 +104,105 @@ public abstract class KeyValueCursorBase<K extends KeyValue> extends AsyncIterat
         } else if (limitManager.tryRecordScan()) {
             return iterator.onHasNext().thenApply(hasNext -> {
                 if (hasNext) {
-                    K kv = iterator.next();
-                    if (context != null) {
-                        context.increment(FDBStoreTimer.Counts.LOAD_SCAN_ENTRY);
-                        context.increment(FDBStoreTimer.Counts.LOAD_KEY_VALUE);
-                    }
-                    limitManager.reportScannedBytes((long)kv.getKey().length + (long)kv.getValue().length);
-                    // Note that this mutates the pointer and NOT the array.
-                    // If the value of lastKey is mutated, the Continuation class will break.
-                    lastKey = kv.getKey();
-                    valuesSeen++;
+                    K kv = nextKeyValue();
                     nextResult = RecordCursorResult.withNextValue(kv, continuationHelper());
-                } else if (valuesSeen >= valuesLimit) {
-                    // Source iterator hit limit that we passed down.
-                    nextResult = RecordCursorResult.withoutNextValue(continuationHelper(), NoNextReason.RETURN_LIMIT_REACHED);
                 } else {
-                    // Source iterator is exhausted.
-                    nextResult = RecordCursorResult.exhausted();
+                    nextResult = endOfRangeResult();
                 }
                 return nextResult;
             });
         } else { // a limit must have been exceeded
-            final Optional<NoNextReason> stoppedReason = limitManager.getStoppedReason();
-            if (!stoppedReason.isPresent()) {
-                throw new RecordCoreException("limit manager stopped KeyValueCursor but did not report a reason");
-            }
-            nextResult = RecordCursorResult.withoutNextValue(continuationHelper(), stoppedReason.get());
+            nextResult = limitReachedResult();
             return CompletableFuture.completedFuture(nextResult);
         }
     }
 
+    /**
+     * Return a batch of key-values from the underlying range read. Key-values that the range read has already
+     * buffered are consumed in a loop, so a future is only chained when the scan actually needs to wait for more
+     * data, and only one result and continuation are created for the whole batch. Limits are checked for each
+     * key-value, exactly as by {@link #onNext()}.
+     * @param maxBatchSize the maximum number of key-values to return
+     * @return a future for the next batch of key-values
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorBatch<K>> onNextBatch(int maxBatchSize) {
+        RecordCursorBatch.checkBatchSize(maxBatchSize);
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(RecordCursorBatch.terminal(Collections.emptyList(), nextResult));
+        }
+        final List<K> values = new ArrayList<>(Math.min(maxBatchSize, 256));
+        return AsyncUtil.whileTrue(() -> {
+            while (values.size() < maxBatchSize) {
+                if (!limitManager.tryRecordScan()) {
+                    nextResult = limitReachedResult();
+                    return AsyncUtil.READY_FALSE;
+                }
+                final CompletableFuture<Boolean> hasNextFuture = iterator.onHasNext();
+                if (!hasNextFuture.isDone() || hasNextFuture.isCompletedExceptionally()) {
+                    return hasNextFuture.thenApply(hasNext -> addToBatch(hasNext, values, maxBatchSize));
+                }
+                if (!addToBatch(hasNextFuture.join(), values, maxBatchSize)) {
+                    return AsyncUtil.READY_FALSE;
+                }
+            }
+            return AsyncUtil.READY_FALSE;
+        }, getExecutor()).thenApply(vignore -> {
+            if (nextResult != null && !nextResult.hasNext()) {
+                return RecordCursorBatch.terminal(values, nextResult);
+            }
+            final RecordCursorContinuation continuation = continuationHelper();
+            nextResult = RecordCursorResult.withNextValue(values.get(values.size() - 1), continuation);
+            return RecordCursorBatch.open(values, continuation);
+        });
+    }
+
+    private boolean addToBatch(boolean hasNext, @Nonnull List<K> values, int maxBatchSize) {
+        if (hasNext) {
+            values.add(nextKeyValue());
+            return values.size() < maxBatchSize;
+        } else {
+            nextResult = endOfRangeResult();
+            return false;
+        }
+    }
+
+    @Nonnull
+    private K nextKeyValue() {
+        K kv = iterator.next();
+        if (context != null) {
+            context.increment(FDBStoreTimer.Counts.LOAD_SCAN_ENTRY);
+            context.increment(FDBStoreTimer.Counts.LOAD_KEY_VALUE);
+        }
+        limitManager.reportScannedBytes((long)kv.getKey().length + (long)kv.getValue().length);
+        // Note that this mutates the pointer and NOT the array.
+        // If the value of lastKey is mutated, the Continuation class will break.
+        lastKey = kv.getKey();
+        valuesSeen++;
+        return kv;
+    }
+
+    @Nonnull
+    private RecordCursorResult<K> endOfRangeResult() {
+        if (valuesSeen >= valuesLimit) {
+            // Source iterator hit limit that we passed down.
+            return RecordCursorResult.withoutNextValue(continuationHelper(), NoNextReason.RETURN_LIMIT_REACHED);
+        } else {
+            // Source iterator is exhausted.
+            return RecordCursorResult.exhausted();
+        }
+    }
+
+    @Nonnull
+    private RecordCursorResult<K> limitReachedResult() {
+        final Optional<NoNextReason> stoppedReason = limitManager.getStoppedReason();
+        if (!stoppedReason.isPresent()) {
+            throw new RecordCoreException("limit manager stopped KeyValueCursor but did not report a reason");
+        }
+        return RecordCursorResult.withoutNextValue(continuationHelper(), stoppedReason.get());
+    }
+
     @Override
     @Nonnull
     public RecordCursorResult<K> getNext() {
@@ -920,6 +920,7 @@ public class OnlineIndexer implements AutoCloseable {
         private final boolean reverseScanOrder;
         private final Set<Index> pendingWriteQueueIndexes;
         private final long pendingWriteQueueIndexesMaxDrainAttempts;
+        private final int sortedBatchMaxEntries;
 
         /**
          * Possible actions when an index is already partially built.
@@ -969,6 +970,7 @@ public class OnlineIndexer implements AutoCloseable {
          * @param reverseScanOrder if true, scan records in reverse order
          * @param pendingWriteQueueIndexes the subset of target indexes that should be built with a pending write queue
          * @param pendingWriteQueueIndexesMaxDrainAttempts the maximum number of times to re-drain the pending write queue while attempting to mark a queued index readable
+         * @param sortedBatchMaxEntries if positive, the maximum number of index entries to sort by key before writing them
          */
         @SuppressWarnings("squid:S00107") // too many parameters
         private IndexingPolicy(@Nullable String sourceIndex, @Nullable Object sourceIndexSubspaceKey, boolean forbidRecordScan,
@@ -979,7 +981,8 @@ public class OnlineIndexer implements AutoCloseable {
                                long initialMergesCountLimit,
                                boolean reverseScanOrder,
                                Set<Index> pendingWriteQueueIndexes,
-                               long pendingWriteQueueIndexesMaxDrainAttempts) {
+                               long pendingWriteQueueIndexesMaxDrainAttempts,
+                               int sortedBatchMaxEntries) {
             this.sourceIndex = sourceIndex;
             this.forbidRecordScan = forbidRecordScan;
             this.sourceIndexSubspaceKey = sourceIndexSubspaceKey;
@@ -997,6 +1000,7 @@ public class OnlineIndexer implements AutoCloseable {
             this.reverseScanOrder = reverseScanOrder;
             this.pendingWriteQueueIndexes = pendingWriteQueueIndexes;
             this.pendingWriteQueueIndexesMaxDrainAttempts = pendingWriteQueueIndexesMaxDrainAttempts;
+            this.sortedBatchMaxEntries = sortedBatchMaxEntries;
         }
 
         /**
@@ -1037,6 +1041,16 @@ public class OnlineIndexer implements AutoCloseable {
             return mutualIndexing;
         }
 
+        /**
+         * If mutual, get the preset boundaries that split the records space to fragments.
+         * @return the boundaries or {@code null} if the fragments are split by shard boundaries
+         */
+        @API(API.Status.EXPERIMENTAL)
+        @Nullable
+        public List<Tuple> getMutualIndexingBoundaries() {
+            return mutualIndexingBoundaries;
+        }
+
         /**
          * Create an indexing policy builder.
          * @return a new {@link IndexingPolicy} builder
@@ -1069,6 +1083,7 @@ public class OnlineIndexer implements AutoCloseable {
                     .setReverseScanOrder(reverseScanOrder)
                     .setUsePendingWriteQueue(pendingWriteQueueIndexes.stream().toList())
                     .setPendingWriteQueueIndexesMaxDrainAttempts(pendingWriteQueueIndexesMaxDrainAttempts)
+                    .setSortedBatchMaxEntries(sortedBatchMaxEntries)
                     ;
         }
 
@@ -1229,6 +1244,17 @@ public class OnlineIndexer implements AutoCloseable {
             return pendingWriteQueueIndexesMaxDrainAttempts;
         }
 
+        /**
+         * Get the maximum number of index entries that are sorted by key before being written, when building
+         * by records. The default is 0 - which means that entries are written record by record, in scan order.
+         * @return the maximum number of index entries in a sorted batch
+         * @see Builder#setSortedBatchMaxEntries(int)
+         */
+        @API(API.Status.EXPERIMENTAL)
+        public int getSortedBatchMaxEntries() {
+            return sortedBatchMaxEntries;
+        }
+
         /**
          * Builder for {@link IndexingPolicy}.
          *
@@ -1261,6 +1287,7 @@ public class OnlineIndexer implements AutoCloseable {
             private boolean reverseScanOrder = false;
             private Set<Index> pendingWriteQueueIndexes = new HashSet<>();
             private long pendingWriteQueueIndexesMaxDrainAttempts = 100;
+            private int sortedBatchMaxEntries = 0;
 
             protected Builder() {
             }
@@ -1563,6 +1590,24 @@ public class OnlineIndexer implements AutoCloseable {
                 return this;
             }
 
+            /**
+             * Buffer the index entries for the records scanned in each transaction, sort them by key, and only then
+             * write them. Entries written in key order touch a few contiguous key ranges instead of being scattered
+             * over the whole index, which makes for smaller commits and less work for the storage servers when
+             * building a large index. If a transaction produces more than the given number of entries, each batch of
+             * that many is sorted and written separately. The buffered entries count towards the
+             * {@linkplain OnlineIndexOperationConfig#getMaxWriteLimitBytes() write limit} of the transaction.
+             * Only indexes whose maintainer supports it, such as plain {@code VALUE} indexes, are built this way;
+             * any others are still updated record by record. The default is 0 - which means disabled.
+             * @param sortedBatchMaxEntries the maximum number of index entries in a sorted batch, or 0 to disable
+             * @return this builder
+             */
+            @API(API.Status.EXPERIMENTAL)
+            public Builder setSortedBatchMaxEntries(final int sortedBatchMaxEntries) {
+                this.sortedBatchMaxEntries = sortedBatchMaxEntries;
+                return this;
+            }
+
             public IndexingPolicy build() {
                 if (useMutualIndexingBoundaries != null) {
                     useMutualIndexing = true;
@@ -1572,7 +1617,8 @@ public class OnlineIndexer implements AutoCloseable {
                         doAllowUniquePendingState, allowedTakeoverSet,
                         useMutualIndexing, useMutualIndexingBoundaries, allowUnblock, allowUnblockId,
                         initialMergesCountLimit, reverseScanOrder,
-                        pendingWriteQueueIndexes, pendingWriteQueueIndexesMaxDrainAttempts);
+                        pendingWriteQueueIndexes, pendingWriteQueueIndexesMaxDrainAttempts,
+                        sortedBatchMaxEntries);
             }
         }
     }
@@ -0,0 +1,312 @@
+/*
+ * ParallelOnlineIndexer.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.IndexBuildProto;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.record.logging.KeyValueLogMessage;
+import com.apple.foundationdb.record.logging.LogMessageKeys;
+import com.apple.foundationdb.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build indexes with several {@link OnlineIndexer}s working in parallel within a single process.
+ *
+ * <p>
+ * Each worker is an {@link OnlineIndexer} using {@linkplain OnlineIndexer.IndexingPolicy#isMutual() mutual indexing},
+ * so they cooperate through the database exactly as indexers in separate processes would, and other processes can
+ * still join in. Before the workers start, the records are divided into fragments at the approximate shard boundaries
+ * of the store, once, so that all the workers agree on them. Each worker first builds fragments that no one has
+ * started, and then goes through the remaining fragments taking any ranges that are still missing from the built
+ * ranges, so workers that finish early take over work from those that are behind.
+ * </p>
+ *
+ * <p>
+ * While the build is running, {@link #getRecordsScanned()} and {@link #getRecordsScannedPerSecond()} give the
+ * progress of all the workers together, and {@link #getIndexingHeartbeats(int)} lists the heartbeat of each one.
+ * </p>
+ *
+ * <pre><code>
+ * try (ParallelOnlineIndexer indexer = ParallelOnlineIndexer.newBuilder()
+ *         .setIndexerBuilder(OnlineIndexer.newBuilder().setRecordStoreBuilder(storeBuilder).setIndex(index))
+ *         .setWorkerCount(16)
+ *         .build()) {
+ *     indexer.buildIndex();
+ * }
+ * </code></pre>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class ParallelOnlineIndexer implements AutoCloseable {
+    @Nonnull
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelOnlineIndexer.class);
+
+    @Nonnull
+    private final OnlineIndexer.Builder indexerBuilder;
+    @Nonnull
+    private final OnlineIndexer.IndexingPolicy indexingPolicy;
+    private final int workerCount;
+    @Nonnull
+    private final FDBDatabaseRunner runner;
+    @Nonnull
+    private final List<OnlineIndexer> workers = Collections.synchronizedList(new ArrayList<>());
+    private volatile long startNanos;
+
+    private ParallelOnlineIndexer(@Nonnull OnlineIndexer.Builder indexerBuilder,
+                                  @Nonnull OnlineIndexer.IndexingPolicy indexingPolicy,
+                                  int workerCount) {
+        this.indexerBuilder = indexerBuilder;
+        this.indexingPolicy = indexingPolicy;
+        this.workerCount = workerCount;
+        this.runner = indexerBuilder.getRunner();
+    }
+
+    /**
+     * Build the indexes with all the workers, marking them readable at the end.
+     * @return a future that will be ready when the build has completed
+     */
+    @Nonnull
+    public CompletableFuture<Void> buildIndexAsync() {
+        if (!workers.isEmpty()) {
+            throw new RecordCoreArgumentException("parallel index build has already been started");
+        }
+        return getFragmentBoundaries().thenCompose(boundaries -> {
+            final OnlineIndexer.IndexingPolicy workerPolicy = indexingPolicy.toBuilder()
+                    .setMutualIndexingBoundaries(boundaries)
+                    .build();
+            for (int i = 0; i < workerCount; i++) {
+                // Each worker closes its runner when done, so give each one its own. This changes the builder,
+                // which is documented as consumed by setIndexerBuilder.
+                workers.add(indexerBuilder
+                        .setRunner(runner.getDatabase().newRunner(runner.getContextConfigBuilder().copyBuilder()))
+                        .setIndexingPolicy(workerPolicy)
+                        .build());
+            }
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info(KeyValueLogMessage.of("starting parallel index build",
+                        LogMessageKeys.INDEXING_FRAGMENTATION_COUNT, boundaries.size() - 1,
+                        LogMessageKeys.LIMIT, workerCount));
+            }
+            startNanos = System.nanoTime();
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(workerCount);
+            synchronized (workers) {
+                for (OnlineIndexer worker : workers) {
+                    futures.add(worker.buildIndexAsync());
+                }
+            }
+            return AsyncUtil.whenAll(futures);
+        }).whenComplete((vignore, ex) -> {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info(KeyValueLogMessage.build("parallel index build " + (ex == null ? "done" : "failed"),
+                                LogMessageKeys.RECORDS_SCANNED, getRecordsScanned(),
+                                LogMessageKeys.RECORDS_PER_SECOND, getRecordsScannedPerSecond())
+                        .toString(), ex);
+            }
+        });
+    }
+
+    /**
+     * Build the indexes with all the workers, marking them readable at the end.
+     * Synchronous version of {@link #buildIndexAsync}.
+     */
+    public void buildIndex() {
+        runner.asyncToSync(FDBStoreTimer.Waits.WAIT_ONLINE_BUILD_INDEX, buildIndexAsync());
+    }
+
+    @Nonnull
+    private CompletableFuture<List<Tuple>> getFragmentBoundaries() {
+        final List<Tuple> presetBoundaries = indexingPolicy.getMutualIndexingBoundaries();
+        if (presetBoundaries != null && !presetBoundaries.isEmpty()) {
+            return CompletableFuture.completedFuture(presetBoundaries);
+        }
+        return runner.runAsync(context -> indexerBuilder.getRecordStoreBuilder().copyBuilder().setContext(context).openAsync()
+                .thenCompose(store -> {
+                    final RecordCursor<Tuple> cursor = store.getPrimaryKeyBoundaries((TupleRange)null);
+                    return cursor.asList().whenComplete((list, ex) -> cursor.close());
+                }))
+                .thenApply(shardBoundaries -> {
+                    // Add the two endpoints, making sure that the fragments cover everything
+                    final List<Tuple> boundaries = new ArrayList<>(shardBoundaries.size() + 2);
+                    boundaries.add(null);
+                    boundaries.addAll(shardBoundaries);
+                    boundaries.add(null);
+                    return boundaries;
+                });
+    }
+
+    /**
+     * Get the number of workers building the indexes.
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Get the total number of records scanned so far by all the workers.
+     * @return the number of records scanned
+     */
+    public long getRecordsScanned() {
+        synchronized (workers) {
+            return workers.stream().mapToLong(OnlineIndexer::getTotalRecordsScanned).sum();
+        }
+    }
+
+    /**
+     * Get the rate at which all the workers together have scanned records since the build started.
+     * @return the number of records scanned per second, or zero if the build has not started
+     */
+    public double getRecordsScannedPerSecond() {
+        final long start = startNanos;
+        if (start == 0) {
+            return 0.0;
+        }
+        final long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        return elapsedMicros == 0 ? 0.0 : getRecordsScanned() * 1_000_000.0 / elapsedMicros;
+    }
+
+    /**
+     * Get the current indexing heartbeats for the primary target index. While the build is running, there is one
+     * for each worker, as well as for any indexers in other processes.
+     * @param maxCount safety valve to limit number items to read. Typically set to zero to keep unlimited.
+     * @return map of session ids to {@link IndexBuildProto.IndexBuildHeartbeat}
+     * @see OnlineIndexer#getIndexingHeartbeats(int)
+     */
+    @Nonnull
+    public Map<UUID, IndexBuildProto.IndexBuildHeartbeat> getIndexingHeartbeats(int maxCount) {
+        final OnlineIndexer worker;
+        synchronized (workers) {
+            if (workers.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            worker = workers.get(0);
+        }
+        return worker.getIndexingHeartbeats(maxCount);
+    }
+
+    @Override
+    public void close() {
+        synchronized (workers) {
+            for (OnlineIndexer worker : workers) {
+                worker.close();
+            }
+        }
+        runner.close();
+    }
+
+    /**
+     * Create a parallel indexer builder.
+     * @return a new parallel indexer builder
+     */
+    @Nonnull
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link ParallelOnlineIndexer}.
+     */
+    @API(API.Status.EXPERIMENTAL)
+    public static class Builder {
+        @Nullable
+        private OnlineIndexer.Builder indexerBuilder;
+        @Nonnull
+        private OnlineIndexer.IndexingPolicy indexingPolicy = OnlineIndexer.IndexingPolicy.DEFAULT;
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+
+        protected Builder() {
+        }
+
+        /**
+         * Set the builder for the workers. It must have the database or record store, the target indexes and any
+         * limits set, and is then used to build each of the workers, with a runner of its own that is like the one
+         * set here.
+         *
+         * <p>
+         * The builder is consumed by the parallel indexer: when the build starts, its runner and indexing policy are
+         * replaced for each worker in turn, and the runner left in it is closed when the last worker is done. So it
+         * should not be used for anything else once it has been set here. The runner set on it originally is
+         * the one used by the parallel indexer itself and closed by {@link ParallelOnlineIndexer#close()}.
+         * </p>
+         * @param indexerBuilder a builder for the indexer used by each worker, which is consumed
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setIndexerBuilder(@Nonnull OnlineIndexer.Builder indexerBuilder) {
+            this.indexerBuilder = indexerBuilder;
+            return this;
+        }
+
+        /**
+         * Set the indexing policy for the workers, which is made mutual. If the policy has
+         * {@linkplain OnlineIndexer.IndexingPolicy.Builder#setMutualIndexingBoundaries(List) boundaries}, they are
+         * used instead of the shard boundaries.
+         * @param indexingPolicy the indexing policy
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setIndexingPolicy(@Nonnull OnlineIndexer.IndexingPolicy indexingPolicy) {
+            this.indexingPolicy = indexingPolicy;
+            return this;
+        }
+
+        /**
+         * Set the number of workers. The default is the number of available processors.
+         * @param workerCount the number of workers
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setWorkerCount(int workerCount) {
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        @Nonnull
+        public ParallelOnlineIndexer build() {
+            if (indexerBuilder == null || indexerBuilder.getRunner() == null || indexerBuilder.getRecordStoreBuilder() == null) {
+                throw new RecordCoreArgumentException("indexer builder with a database and record store must be set");
+            }
+            if (workerCount <= 0) {
+                throw new RecordCoreArgumentException("worker count must be positive")
+                        .addLogInfo(LogMessageKeys.LIMIT, workerCount);
+            }
+            if (indexingPolicy.isByIndex() || indexingPolicy.isReverseScanOrder()) {
+                throw new IndexingBase.ValidationException("Parallel indexing only supports a forward scan by records");
+            }
+            return new ParallelOnlineIndexer(indexerBuilder,
+                    indexingPolicy.toBuilder().setMutualIndexing(true).build(), workerCount);
+        }
+    }
+}
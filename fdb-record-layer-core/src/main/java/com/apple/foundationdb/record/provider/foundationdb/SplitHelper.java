@@ -48,6 +48,8 @@ import com.apple.foundationdb.subspace.Subspace;
 import com.apple.foundationdb.tuple.ByteArrayUtil;
 import com.apple.foundationdb.tuple.ByteArrayUtil2;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.ZeroCopyByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +63,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -464,8 +467,7 @@ public class SplitHelper {
                 storedSizes.setSplit(true);
                 storedSizes.add(startSplitKey, startSplitValue);
                 final AsyncIterable<KeyValue> iterable = scanSingleRecord(tr, recordSubspace.pack(START_SPLIT_RECORD + 1L), recordRange.end);
-                List<byte[]> values = new ArrayList<>();
-                values.add(startSplitValue);
+                final AtomicReference<ByteString> values = new AtomicReference<>(ZeroCopyByteString.wrap(startSplitValue));
 
                 AtomicLong lastSplit = new AtomicLong(START_SPLIT_RECORD);
                 return AsyncUtil.forEach(iterable, keyValue -> {
@@ -479,11 +481,8 @@ public class SplitHelper {
                                 .addLogInfo(LogMessageKeys.SUBSPACE, ByteArrayUtil2.loggable(subspace.pack()));
                     }
                     storedSizes.add(keyValue);
-                    values.add(keyValue.getValue());
-                }, context.getExecutor()).thenApply(vignore -> {
-                    byte[] rawRecord = ByteArrayUtil.join(values.toArray(new byte[0][0]));
-                    return new FDBRawRecord(key, rawRecord, version, storedSizes);
-                });
+                    values.set(values.get().concat(ZeroCopyByteString.wrap(keyValue.getValue())));
+                }, context.getExecutor()).thenApply(vignore -> new FDBRawRecord(key, values.get(), version, storedSizes));
             }
         })).thenCompose(Function.identity());
     }
@@ -665,6 +664,14 @@ public class SplitHelper {
             valueSize = valueBytes.length;
         }
 
+        public void set(@Nonnull final FDBStoredSizes sizes) {
+            keyCount = sizes.getKeyCount();
+            keySize = sizes.getKeySize();
+            valueSize = sizes.getValueSize();
+            split = sizes.isSplit();
+            versionedInline = sizes.isVersionedInline();
+        }
+
         public void add(@Nonnull final KeyValue keyValue) {
             add(keyValue.getKey(), keyValue.getValue());
         }
@@ -719,8 +726,8 @@ public class SplitHelper {
     /**
      * Unsplit a single record from a given range scan.
      */
-    // TODO: The alternative is to use streams throughout the serialization pipeline, from
-    //  a range scan through to decryption and Protobuf coded input.
+    // The pieces of a split record are concatenated as a ByteString rope, so they are not
+    // copied until something needs them in a single array.
     public static class SingleKeyUnsplitter {
         @Nonnull
         private final FDBRecordContext context;
@@ -734,7 +741,7 @@ public class SplitHelper {
         private final AsyncIterator<KeyValue> iter;
         private long lastIndex;
         @Nullable
-        private byte[] result;
+        private ByteString result;
         @Nullable
         private FDBRecordVersion version;
 
@@ -798,7 +805,7 @@ public class SplitHelper {
                             .addLogInfo(LogMessageKeys.KEY_TUPLE, key)
                             .addLogInfo(LogMessageKeys.SUBSPACE, ByteArrayUtil2.loggable(keySplitSubspace.pack()));
                 }
-                result = kv.getValue();
+                result = ZeroCopyByteString.wrap(kv.getValue());
                 sizeInfo.add(kv);
                 sizeInfo.setSplit(false);
             } else if (index == lastIndex + 1 || (lastIndex == RECORD_VERSION && index == START_SPLIT_RECORD)) {
@@ -808,12 +815,11 @@ public class SplitHelper {
                                 .addLogInfo(LogMessageKeys.KEY_TUPLE, key)
                                 .addLogInfo(LogMessageKeys.SUBSPACE, ByteArrayUtil2.loggable(keySplitSubspace.pack()));
                     }
-                    result = kv.getValue();
+                    result = ZeroCopyByteString.wrap(kv.getValue());
                     sizeInfo.add(kv);
                     sizeInfo.setSplit(true);
                 } else {
-                    // TODO: ByteArrayOutputStream would grow better?
-                    result = ByteArrayUtil.join(result, kv.getValue());
+                    result = result.concat(ZeroCopyByteString.wrap(kv.getValue()));
                     sizeInfo.add(kv);
                 }
                 lastIndex = index;
@@ -853,7 +859,7 @@ public class SplitHelper {
         @Nonnull
         private final Subspace subspace;
         @Nullable
-        private KeyValue next;
+        private ByteString next;
         @Nullable
         private Tuple nextKey;
         @Nullable
@@ -942,7 +948,7 @@ public class SplitHelper {
                         }
                     } else { // has next result
                         sizeInfo.setVersionedInline(nextVersion != null);
-                        final FDBRawRecord result = new FDBRawRecord(nextKey, next.getValue(), nextVersion, sizeInfo);
+                        final FDBRawRecord result = new FDBRawRecord(nextKey, next, nextVersion, sizeInfo);
                         next = null;
                         nextKey = null;
                         nextVersion = null;
@@ -1072,7 +1078,7 @@ public class SplitHelper {
             nextKey = keyTuple.popBack(); // Remove index item
             nextSubspace = subspace.subspace(nextKey);
             nextPrefix = nextSubspace.pack();
-            next = new KeyValue(nextPrefix, kv.getValue());
+            next = ZeroCopyByteString.wrap(kv.getValue());
             nextIndex = keyTuple.getLong(keyTuple.size() - 1);
             sizeInfo.set(kv);
             boolean done;
@@ -1121,7 +1127,7 @@ public class SplitHelper {
                 // just what has been read from this key. If it is the beginning of
                 // a split record, we have more to do. Otherwise, we know this is the
                 // end of the record.
-                next = new KeyValue(nextPrefix, kv.getValue());
+                next = ZeroCopyByteString.wrap(kv.getValue());
                 nextIndex = index;
                 sizeInfo.setSplit(index == START_SPLIT_RECORD);
                 done = nextIndex == UNSPLIT_RECORD;
@@ -1130,7 +1136,7 @@ public class SplitHelper {
                 // in the forward scan. Append its value to the end of the current
                 // key-value pair being accumulated. Return false because there is
                 // no way to know if this is the last key or not.
-                next = new KeyValue(nextPrefix, ByteArrayUtil.join(next.getValue(), kv.getValue()));
+                next = next.concat(ZeroCopyByteString.wrap(kv.getValue()));
                 nextIndex = index;
                 done = false;
             } else if (reverse && index == RECORD_VERSION && (nextIndex == START_SPLIT_RECORD || nextIndex == UNSPLIT_RECORD)) {
@@ -1152,7 +1158,7 @@ public class SplitHelper {
                 // accumulated. Return false because there is no way to know if this is the
                 // last key or not (in particular, even if index == START_SPLIT_RECORD, it's
                 // possible that there is a record version before it).
-                next = new KeyValue(nextPrefix, ByteArrayUtil.join(kv.getValue(), next.getValue()));
+                next = ZeroCopyByteString.wrap(kv.getValue()).concat(next);
                 nextIndex = index;
                 done = false;
             } else {
@@ -21,14 +21,18 @@
 package com.apple.foundationdb.record.provider.foundationdb;
 
 import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.linear.RealVector;
 import com.apple.foundationdb.record.IndexScanType;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.TupleRange;
 import com.apple.foundationdb.record.query.expressions.Comparisons;
+import com.apple.foundationdb.tuple.TupleHelpers;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 
 /**
  * The scan bounds of a {@link IndexScanType#BY_DISTANCE by-distance} scan of a
@@ -42,7 +46,9 @@ import javax.annotation.Nullable;
  *     <li>a {@link #getComparisonType() comparison type} and {@link #getLimit() limit} that together express the
  *         top-{@code k} predicate (see {@link #getAdjustedLimit()}), and</li>
  *     <li>per-query {@link #getVectorIndexScanOptions() scan options} that tune the search without changing which
- *         results are correct.</li>
+ *         results are correct, and</li>
+ *     <li>optional {@link #getPrimaryKeyRanges() primary key ranges} the returned neighbors must lie in, which the
+ *         search evaluates while it traverses the index (see {@link #getSearchFilter()}).</li>
  * </ul>
  * Instances are produced by the query planner (from a distance-rank comparison) and consumed by the maintainer's scan.
  */
@@ -57,17 +63,29 @@ public class VectorIndexScanBounds implements IndexScanBounds {
     private final RealVector queryVector;
     private final int limit;
     @Nonnull final VectorIndexScanOptions vectorIndexScanOptions;
+    @Nonnull
+    private final List<TupleRange> primaryKeyRanges;
 
     public VectorIndexScanBounds(@Nonnull final TupleRange prefixRange,
                                  @Nonnull final Comparisons.Type comparisonType,
                                  @Nullable final RealVector queryVector,
                                  final int limit,
                                  @Nonnull final VectorIndexScanOptions vectorIndexScanOptions) {
+        this(prefixRange, comparisonType, queryVector, limit, vectorIndexScanOptions, ImmutableList.of());
+    }
+
+    public VectorIndexScanBounds(@Nonnull final TupleRange prefixRange,
+                                 @Nonnull final Comparisons.Type comparisonType,
+                                 @Nullable final RealVector queryVector,
+                                 final int limit,
+                                 @Nonnull final VectorIndexScanOptions vectorIndexScanOptions,
+                                 @Nonnull final List<TupleRange> primaryKeyRanges) {
         this.prefixRange = prefixRange;
         this.comparisonType = comparisonType;
         this.queryVector = queryVector;
         this.limit = limit;
         this.vectorIndexScanOptions = vectorIndexScanOptions;
+        this.primaryKeyRanges = ImmutableList.copyOf(primaryKeyRanges);
     }
 
     @Nonnull
@@ -100,6 +118,43 @@ public class VectorIndexScanBounds implements IndexScanBounds {
         return vectorIndexScanOptions;
     }
 
+    /**
+     * The ranges the columns of the primary keys of the returned neighbors must lie in, one per column of the primary
+     * key. A column that is not constrained has the range {@link TupleRange#ALL}, and columns after the last
+     * constrained one are omitted.
+     *
+     * @return the primary key ranges of this scan
+     */
+    @Nonnull
+    public List<TupleRange> getPrimaryKeyRanges() {
+        return primaryKeyRanges;
+    }
+
+    /**
+     * A {@link SearchFilter} that only lets items pass whose primary keys lie in the
+     * {@link #getPrimaryKeyRanges() primary key ranges} of this scan. Handing it to the search instead of filtering
+     * its results makes the search return the {@code k} nearest neighbors that match, rather than the subset of the
+     * {@code k} nearest neighbors that happens to match.
+     *
+     * @return a filter on the primary key, or {@code null} if this scan does not constrain the primary key
+     */
+    @Nullable
+    public SearchFilter getSearchFilter() {
+        if (primaryKeyRanges.stream().allMatch(TupleRange.ALL::equals)) {
+            return null;
+        }
+        return (primaryKey, additionalValues) -> {
+            for (int i = 0; i < primaryKeyRanges.size(); i++) {
+                final TupleRange primaryKeyRange = primaryKeyRanges.get(i);
+                if (!TupleRange.ALL.equals(primaryKeyRange) &&
+                        !primaryKeyRange.contains(TupleHelpers.subTuple(primaryKey, i, i + 1))) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     /**
      * The number of nearest neighbors ({@code k}) the scan should actually return, derived from the raw
      * {@link #getLimit() limit} and the comparison type. A {@code DISTANCE_RANK_LESS_THAN_OR_EQUAL} predicate keeps the
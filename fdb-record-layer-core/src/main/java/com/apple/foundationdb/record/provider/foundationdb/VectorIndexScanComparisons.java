@@ -48,6 +48,7 @@ import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -65,13 +66,17 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
     private final DistanceRankValueComparison distanceRankValueComparison;
     @Nonnull
     private final VectorIndexScanOptions vectorIndexScanOptions;
+    @Nonnull
+    private final List<ScanComparisons> primaryKeyComparisons;
 
     private VectorIndexScanComparisons(@Nonnull final ScanComparisons prefixScanComparisons,
                                        @Nonnull final DistanceRankValueComparison distanceRankValueComparison,
-                                       @Nonnull final VectorIndexScanOptions vectorIndexScanOptions) {
+                                       @Nonnull final VectorIndexScanOptions vectorIndexScanOptions,
+                                       @Nonnull final List<ScanComparisons> primaryKeyComparisons) {
         this.prefixScanComparisons = prefixScanComparisons;
         this.distanceRankValueComparison = distanceRankValueComparison;
         this.vectorIndexScanOptions = vectorIndexScanOptions;
+        this.primaryKeyComparisons = ImmutableList.copyOf(primaryKeyComparisons);
     }
 
     @Nonnull
@@ -95,6 +100,17 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         return vectorIndexScanOptions;
     }
 
+    /**
+     * Get the comparisons on the primary key of the records that are evaluated while the index is searched. There is
+     * one {@link ScanComparisons} per column of the primary key, which is {@link ScanComparisons#EMPTY} if the column
+     * is not constrained. Columns after the last constrained one are omitted.
+     * @return the comparisons on the primary key columns
+     */
+    @Nonnull
+    public List<ScanComparisons> getPrimaryKeyComparisons() {
+        return primaryKeyComparisons;
+    }
+
     @Override
     public boolean hasScanComparisons() {
         return true;
@@ -112,13 +128,21 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
                                       @Nonnull final EvaluationContext context) {
         return new VectorIndexScanBounds(prefixScanComparisons.toTupleRange(store, context),
                 distanceRankValueComparison.getType(), distanceRankValueComparison.getVector(store, context),
-                distanceRankValueComparison.getLimit(store, context), vectorIndexScanOptions);
+                distanceRankValueComparison.getLimit(store, context), vectorIndexScanOptions,
+                primaryKeyComparisons.stream()
+                        .map(scanComparisons -> scanComparisons.toTupleRange(store, context))
+                        .collect(ImmutableList.toImmutableList()));
     }
 
     @Override
     public int planHash(@Nonnull PlanHashMode mode) {
+        // only hash the primary key comparisons if there are any to keep the hashes of existing plans stable
+        if (primaryKeyComparisons.isEmpty()) {
+            return PlanHashable.objectsPlanHash(mode, prefixScanComparisons, distanceRankValueComparison,
+                    vectorIndexScanOptions);
+        }
         return PlanHashable.objectsPlanHash(mode, prefixScanComparisons, distanceRankValueComparison,
-                vectorIndexScanOptions);
+                vectorIndexScanOptions, primaryKeyComparisons);
     }
 
     @Override
@@ -155,9 +179,17 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
                     new ExplainTokens().addNested(distanceRankValueComparison.explain().getExplainTokens());
         }
 
-        return ExplainTokensWithPrecedence.of(prefix.addOptionalWhitespace().addToString(":{").addOptionalWhitespace()
+        final var explainTokens = prefix.addOptionalWhitespace().addToString(":{").addOptionalWhitespace()
                 .addNested(distanceRank).addOptionalWhitespace().addToString("}:")
-                .addOptionalWhitespace().addNested(vectorIndexScanOptions.explain().getExplainTokens()));
+                .addOptionalWhitespace().addNested(vectorIndexScanOptions.explain().getExplainTokens());
+        if (!primaryKeyComparisons.isEmpty()) {
+            explainTokens.addOptionalWhitespace().addToString(":").addOptionalWhitespace().addKeyword("PK")
+                    .addWhitespace().addSequence(() -> new ExplainTokens().addCommaAndWhiteSpace(),
+                            primaryKeyComparisons.stream()
+                                    .map(scanComparisons -> scanComparisons.explain().getExplainTokens())
+                                    .collect(ImmutableList.toImmutableList()));
+        }
+        return ExplainTokensWithPrecedence.of(explainTokens);
     }
 
     @SuppressWarnings("checkstyle:VariableDeclarationUsageDistance")
@@ -188,6 +220,11 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
 
         detailsBuilder.add("scan options: {{scanoptions}}");
         attributeMapBuilder.put("scanoptions", Attribute.gml(vectorIndexScanOptions.toString()));
+
+        if (!primaryKeyComparisons.isEmpty()) {
+            detailsBuilder.add("primary key comparisons: {{pkcomparisons}}");
+            attributeMapBuilder.put("pkcomparisons", Attribute.gml(primaryKeyComparisons.toString()));
+        }
     }
 
     @Nonnull
@@ -196,6 +233,7 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         final ImmutableSet.Builder<CorrelationIdentifier> correlatedToBuilder = ImmutableSet.builder();
         correlatedToBuilder.addAll(prefixScanComparisons.getCorrelatedTo());
         correlatedToBuilder.addAll(distanceRankValueComparison.getCorrelatedTo());
+        primaryKeyComparisons.forEach(scanComparisons -> correlatedToBuilder.addAll(scanComparisons.getCorrelatedTo()));
         return correlatedToBuilder.build();
     }
 
@@ -224,6 +262,15 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         if (!distanceRankValueComparison.semanticEquals(that.distanceRankValueComparison, aliasMap)) {
             return false;
         }
+
+        if (primaryKeyComparisons.size() != that.primaryKeyComparisons.size()) {
+            return false;
+        }
+        for (int i = 0; i < primaryKeyComparisons.size(); i++) {
+            if (!primaryKeyComparisons.get(i).semanticEquals(that.primaryKeyComparisons.get(i), aliasMap)) {
+                return false;
+            }
+        }
         return vectorIndexScanOptions.equals(that.vectorIndexScanOptions);
     }
 
@@ -231,6 +278,9 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
     public int semanticHashCode() {
         int hashCode = prefixScanComparisons.semanticHashCode();
         hashCode = 31 * hashCode + distanceRankValueComparison.semanticHashCode();
+        for (final ScanComparisons scanComparisons : primaryKeyComparisons) {
+            hashCode = 31 * hashCode + scanComparisons.semanticHashCode();
+        }
         return 31 * hashCode + vectorIndexScanOptions.hashCode();
     }
 
@@ -245,10 +295,21 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         final DistanceRankValueComparison translatedDistanceRankValueComparison =
                 distanceRankValueComparison.translateCorrelations(translationMap, shouldSimplifyValues);
 
+        boolean primaryKeyComparisonsChanged = false;
+        final var translatedPrimaryKeyComparisonsBuilder = ImmutableList.<ScanComparisons>builder();
+        for (final ScanComparisons scanComparisons : primaryKeyComparisons) {
+            final ScanComparisons translatedScanComparisons =
+                    scanComparisons.translateCorrelations(translationMap, shouldSimplifyValues);
+            primaryKeyComparisonsChanged |= translatedScanComparisons != scanComparisons;
+            translatedPrimaryKeyComparisonsBuilder.add(translatedScanComparisons);
+        }
+
         if (translatedPrefixScanComparisons != prefixScanComparisons ||
-                translatedDistanceRankValueComparison != distanceRankValueComparison) {
-            return withComparisonsAndOptions(translatedPrefixScanComparisons, translatedDistanceRankValueComparison,
-                    vectorIndexScanOptions);
+                translatedDistanceRankValueComparison != distanceRankValueComparison ||
+                primaryKeyComparisonsChanged) {
+            return new VectorIndexScanComparisons(translatedPrefixScanComparisons,
+                    translatedDistanceRankValueComparison, vectorIndexScanOptions,
+                    translatedPrimaryKeyComparisonsBuilder.build());
         }
         return this;
     }
@@ -258,12 +319,13 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
                                                          @Nonnull final DistanceRankValueComparison distanceRankValueComparison,
                                                          @Nonnull final VectorIndexScanOptions vectorIndexScanOptions) {
         return new VectorIndexScanComparisons(prefixScanComparisons, distanceRankValueComparison,
-                vectorIndexScanOptions);
+                vectorIndexScanOptions, primaryKeyComparisons);
     }
 
     @Override
     public String toString() {
-        return "BY_VALUE(VECTOR):" + prefixScanComparisons + ":" + distanceRankValueComparison + ":" + vectorIndexScanOptions;
+        return "BY_VALUE(VECTOR):" + prefixScanComparisons + ":" + distanceRankValueComparison + ":" + vectorIndexScanOptions +
+                (primaryKeyComparisons.isEmpty() ? "" : ":" + primaryKeyComparisons);
     }
 
     @Override
@@ -285,6 +347,9 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         builder.setPrefixScanComparisons(prefixScanComparisons.toProto(serializationContext));
         builder.setDistanceRankValueComparison(distanceRankValueComparison.toProto(serializationContext));
         builder.setVectorIndexScanOptions(vectorIndexScanOptions.toProto(serializationContext));
+        for (final ScanComparisons scanComparisons : primaryKeyComparisons) {
+            builder.addPrimaryKeyComparisons(scanComparisons.toProto(serializationContext));
+        }
         return builder.build();
     }
 
@@ -300,12 +365,22 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         return new VectorIndexScanComparisons(ScanComparisons.fromProto(serializationContext,
                 Objects.requireNonNull(vectorIndexScanComparisonsProto.getPrefixScanComparisons())),
                 DistanceRankValueComparison.fromProto(serializationContext, Objects.requireNonNull(vectorIndexScanComparisonsProto.getDistanceRankValueComparison())),
-                VectorIndexScanOptions.fromProto(Objects.requireNonNull(vectorIndexScanComparisonsProto.getVectorIndexScanOptions())));
+                VectorIndexScanOptions.fromProto(Objects.requireNonNull(vectorIndexScanComparisonsProto.getVectorIndexScanOptions())),
+                vectorIndexScanComparisonsProto.getPrimaryKeyComparisonsList().stream()
+                        .map(scanComparisonsProto -> ScanComparisons.fromProto(serializationContext, scanComparisonsProto))
+                        .collect(ImmutableList.toImmutableList()));
     }
 
     @Nonnull
     public static VectorIndexScanComparisons byDistance(@Nullable ScanComparisons prefixScanComparisons,
                                                         @Nonnull final DistanceRankValueComparison distanceRankValueComparison) {
+        return byDistance(prefixScanComparisons, distanceRankValueComparison, ImmutableList.of());
+    }
+
+    @Nonnull
+    public static VectorIndexScanComparisons byDistance(@Nullable ScanComparisons prefixScanComparisons,
+                                                        @Nonnull final DistanceRankValueComparison distanceRankValueComparison,
+                                                        @Nonnull final List<ScanComparisons> primaryKeyComparisons) {
         if (prefixScanComparisons == null) {
             prefixScanComparisons = ScanComparisons.EMPTY;
         }
@@ -317,7 +392,8 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
         if (distanceRankValueComparison.getEfSearch() != null) {
             vectorIndexScanOptionsBuilder.putOption(HNSW_EF_SEARCH, distanceRankValueComparison.getEfSearch());
         }
-        return byDistance(prefixScanComparisons, distanceRankValueComparison, vectorIndexScanOptionsBuilder.build());
+        return new VectorIndexScanComparisons(prefixScanComparisons, distanceRankValueComparison,
+                vectorIndexScanOptionsBuilder.build(), primaryKeyComparisons);
     }
 
     @Nonnull
@@ -325,7 +401,8 @@ public final class VectorIndexScanComparisons implements IndexScanParameters {
     public static VectorIndexScanComparisons byDistance(@Nonnull final ScanComparisons prefixScanComparisons,
                                                         @Nonnull final DistanceRankValueComparison distanceRankValueComparison,
                                                         @Nonnull final VectorIndexScanOptions vectorIndexScanOptions) {
-        return new VectorIndexScanComparisons(prefixScanComparisons, distanceRankValueComparison, vectorIndexScanOptions);
+        return new VectorIndexScanComparisons(prefixScanComparisons, distanceRankValueComparison, vectorIndexScanOptions,
+                ImmutableList.of());
     }
 
     /**
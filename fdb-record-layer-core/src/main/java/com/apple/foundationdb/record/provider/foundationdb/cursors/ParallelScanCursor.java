@@ -0,0 +1,576 @@
+/*
+ * ParallelScanCursor.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.cursors;
+
+import com.apple.foundationdb.Range;
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.EndpointType;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorContinuation;
+import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.RecordCursorVisitor;
+import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.record.logging.LogMessageKeys;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
+import com.apple.foundationdb.tuple.ByteArrayUtil2;
+import com.apple.foundationdb.tuple.Tuple;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A cursor that scans a {@link TupleRange} by splitting it into segments and reading several of them concurrently.
+ *
+ * <p>
+ * The range is split at the given split points, which are usually the first keys of the shards storing the range
+ * (see {@link com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore#getPrimaryKeyBoundaries(TupleRange)}),
+ * so that each segment is served by a different storage server. Up to {@code parallelism} segments are open at
+ * a time, and each of them reads ahead up to {@code prefetch} results into a buffer.
+ * </p>
+ *
+ * <p>
+ * If {@code ordered}, results are returned in the order of the scan: the first open segment is returned in full
+ * while the following ones fill their buffers. Otherwise, results are returned from whichever open segment has one
+ * available, and a new segment is opened whenever one is exhausted.
+ * </p>
+ *
+ * <p>
+ * The continuation records the remaining segments and the position reached in each of them, so the split is
+ * stable across continuations even when the shard boundaries move. Since it includes every segment not yet
+ * exhausted, the continuation grows with the number of split points.
+ * If a segment stops early because of a scan limit, this cursor stops once it has nothing else buffered.
+ * </p>
+ *
+ * <p>
+ * The continuation is tagged, so that it can be told apart from the continuation of a serial scan of the same range
+ * (see {@link #isParallelContinuation(byte[])}). A serial scan continuation given to this cursor resumes the scan as a
+ * single segment covering the rest of the range.
+ * </p>
+ *
+ * @param <T> the type of elements of the cursor
+ */
+@API(API.Status.EXPERIMENTAL)
+public class ParallelScanCursor<T> implements RecordCursor<T> {
+    /**
+     * The default number of results that each open segment reads ahead.
+     */
+    public static final int DEFAULT_PREFETCH = 100;
+
+    /*
+    As with KeyValueCursorBase.Continuation, the magic number is chosen so that a serial scan continuation, which is
+    a tuple-encoded key suffix, is never parsed as a parallel one. A non-empty parallel continuation begins with the tag
+    of the segment field, \x0A, which is not a Tuple type code. An empty one begins with the tag of the magic_number
+    field, \x11, which is the type code of a three-byte negative integer, but it is then followed by \xAC\xCD\x73\x99,
+    and \x99 is not a Tuple type code either. The number also differs from the KeyValueCursorBase one, so that a
+    serial continuation in that format is not taken for a parallel one.
+     */
+    private static final long MAGIC_NUMBER = 6_845_544_953_132_862_892L;
+
+    @Nonnull
+    private final TupleRange range;
+    @Nonnull
+    private final BiFunction<TupleRange, byte[], RecordCursor<T>> segmentCursorFunction;
+    @Nonnull
+    private final Function<TupleRange, CompletableFuture<List<Tuple>>> splitPointsFunction;
+    private final boolean reverse;
+    private final boolean ordered;
+    private final int parallelism;
+    private final int prefetch;
+    @Nonnull
+    private final Executor executor;
+    @Nullable
+    private final byte[] startContinuation;
+
+    // Segments not yet exhausted, in scan order. Replaced rather than modified, so that it can be shared by continuations.
+    @Nullable
+    private ImmutableList<SegmentBounds> remaining;
+    // Open segments, in the same order as the corresponding prefix of remaining.
+    @Nonnull
+    private final List<Segment> open;
+    @Nullable
+    private CompletableFuture<Void> initFuture;
+    @Nullable
+    private RecordCursorResult<T> nextResult;
+    private boolean closed;
+
+    @SuppressWarnings("squid:S00107")
+    public ParallelScanCursor(@Nonnull TupleRange range,
+                              @Nonnull BiFunction<TupleRange, byte[], RecordCursor<T>> segmentCursorFunction,
+                              @Nonnull Function<TupleRange, CompletableFuture<List<Tuple>>> splitPointsFunction,
+                              boolean reverse, boolean ordered, int parallelism, int prefetch,
+                              @Nonnull Executor executor, @Nullable byte[] continuation) {
+        if (parallelism < 1 || prefetch < 1) {
+            throw new RecordCoreArgumentException("parallel scan needs a positive parallelism and prefetch")
+                    .addLogInfo("parallelism", parallelism)
+                    .addLogInfo("prefetch", prefetch);
+        }
+        this.range = range;
+        this.segmentCursorFunction = segmentCursorFunction;
+        this.splitPointsFunction = splitPointsFunction;
+        this.reverse = reverse;
+        this.ordered = ordered;
+        this.parallelism = parallelism;
+        this.prefetch = prefetch;
+        this.executor = executor;
+        this.startContinuation = continuation;
+        this.open = new ArrayList<>(parallelism);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<RecordCursorResult<T>> onNext() {
+        if (nextResult != null && !nextResult.hasNext()) {
+            return CompletableFuture.completedFuture(nextResult);
+        }
+        if (initFuture == null) {
+            initFuture = initialize();
+        }
+        return initFuture.thenCompose(vignore -> AsyncUtil.whileTrue(this::computeNext, executor))
+                .thenApply(vignore -> nextResult);
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> initialize() {
+        if (startContinuation != null) {
+            remaining = parseContinuation(startContinuation);
+            return AsyncUtil.DONE;
+        }
+        if (!isSplittable(range)) {
+            remaining = ImmutableList.of(new SegmentBounds(null, null, null));
+            return AsyncUtil.DONE;
+        }
+        return splitPointsFunction.apply(range).thenAccept(splitPoints -> remaining = splitRange(range, splitPoints, reverse));
+    }
+
+    /**
+     * Try to produce the next result from the open segments.
+     * @return a future that is {@code true} if the state changed but no result was produced yet
+     */
+    @Nonnull
+    private CompletableFuture<Boolean> computeNext() {
+        openSegments();
+        if (open.isEmpty()) {
+            nextResult = RecordCursorResult.exhausted();
+            return AsyncUtil.READY_FALSE;
+        }
+        final int candidates = ordered ? 1 : open.size();
+        // Prefer buffered results over anything else.
+        for (int i = 0; i < candidates; i++) {
+            final Segment segment = open.get(i);
+            final RecordCursorResult<T> buffered = segment.poll();
+            if (buffered != null) {
+                segment.continuation = buffered.getContinuation();
+                segment.fill();
+                nextResult = RecordCursorResult.withNextValue(buffered.get(), snapshotContinuation());
+                return AsyncUtil.READY_FALSE;
+            }
+        }
+        // Then drop exhausted segments, so that others can be opened in their place.
+        for (int i = 0; i < candidates; i++) {
+            final Segment segment = open.get(i);
+            final Throwable failure = segment.getFailure();
+            if (failure != null) {
+                final CompletableFuture<Boolean> failed = new CompletableFuture<>();
+                failed.completeExceptionally(failure);
+                return failed;
+            }
+            final RecordCursorResult<T> stopped = segment.getStopped();
+            if (stopped != null && stopped.getNoNextReason().isSourceExhausted()) {
+                segment.cursor.close();
+                open.remove(i);
+                remaining = ImmutableList.<SegmentBounds>builder()
+                        .addAll(remaining.subList(0, i))
+                        .addAll(remaining.subList(i + 1, remaining.size()))
+                        .build();
+                return AsyncUtil.READY_TRUE;
+            }
+        }
+        // A segment that stopped for any other reason stops this cursor, once nothing else is buffered.
+        for (int i = 0; i < candidates; i++) {
+            final RecordCursorResult<T> stopped = open.get(i).getStopped();
+            if (stopped != null) {
+                nextResult = RecordCursorResult.withoutNextValue(snapshotContinuation(), stopped.getNoNextReason());
+                return AsyncUtil.READY_FALSE;
+            }
+        }
+        final List<CompletableFuture<Void>> changes = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            changes.add(open.get(i).onChange());
+        }
+        return CompletableFuture.anyOf(changes.toArray(new CompletableFuture<?>[0])).thenApply(vignore -> true);
+    }
+
+    private void openSegments() {
+        final List<SegmentBounds> segments = remaining;
+        while (open.size() < parallelism && open.size() < segments.size()) {
+            final SegmentBounds bounds = segments.get(open.size());
+            final Segment segment = new Segment(segmentCursorFunction.apply(bounds.toTupleRange(range), bounds.continuation));
+            open.add(segment);
+            segment.fill();
+        }
+    }
+
+    @Nonnull
+    private RecordCursorContinuation snapshotContinuation() {
+        final List<RecordCursorContinuation> continuations = new ArrayList<>(open.size());
+        for (Segment segment : open) {
+            continuations.add(segment.continuation);
+        }
+        return new ParallelScanContinuation(remaining, continuations);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : open) {
+            segment.cursor.close();
+        }
+        if (initFuture != null) {
+            initFuture.cancel(false);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Nonnull
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public boolean accept(@Nonnull RecordCursorVisitor visitor) {
+        if (visitor.visitEnter(this)) {
+            for (Segment segment : open) {
+                if (!segment.cursor.accept(visitor)) {
+                    break;
+                }
+            }
+        }
+        return visitor.visitLeave(this);
+    }
+
+    /**
+     * Check whether a range can be split at tuple keys. Ranges with prefix string or continuation endpoints are
+     * scanned as a single segment.
+     * @param range the range to check
+     * @return {@code true} if the range can be split
+     */
+    static boolean isSplittable(@Nonnull TupleRange range) {
+        return isTupleEndpoint(range.getLowEndpoint()) && isTupleEndpoint(range.getHighEndpoint());
+    }
+
+    private static boolean isTupleEndpoint(@Nonnull EndpointType endpointType) {
+        return endpointType == EndpointType.TREE_START || endpointType == EndpointType.TREE_END ||
+               endpointType == EndpointType.RANGE_INCLUSIVE || endpointType == EndpointType.RANGE_EXCLUSIVE;
+    }
+
+    /**
+     * Divide a range into segments at those of the given points that fall strictly inside it.
+     * @param range the range to divide
+     * @param splitPoints sorted points at which to divide the range
+     * @param reverse whether the segments are to be returned in reverse order
+     * @return the segments in scan order
+     */
+    @Nonnull
+    static ImmutableList<SegmentBounds> splitRange(@Nonnull TupleRange range, @Nonnull List<Tuple> splitPoints, boolean reverse) {
+        final Range byteRange = range.toRange();
+        final List<Tuple> points = new ArrayList<>(splitPoints.size());
+        byte[] previous = byteRange.begin;
+        for (Tuple splitPoint : splitPoints) {
+            final byte[] packed = splitPoint.pack();
+            if (ByteArrayUtil.compareUnsigned(previous, packed) < 0 && ByteArrayUtil.compareUnsigned(packed, byteRange.end) < 0) {
+                points.add(splitPoint);
+                previous = packed;
+            }
+        }
+        final List<SegmentBounds> segments = new ArrayList<>(points.size() + 1);
+        Tuple low = null;
+        for (Tuple point : points) {
+            segments.add(new SegmentBounds(low, point, null));
+            low = point;
+        }
+        segments.add(new SegmentBounds(low, null, null));
+        if (reverse) {
+            Collections.reverse(segments);
+        }
+        return ImmutableList.copyOf(segments);
+    }
+
+    /**
+     * Check whether a continuation was returned by a {@link ParallelScanCursor}, as opposed to a serial scan.
+     * @param continuation the continuation to check
+     * @return {@code true} if the continuation is that of a parallel scan
+     */
+    public static boolean isParallelContinuation(@Nullable byte[] continuation) {
+        return continuation != null && parseParallelContinuation(continuation) != null;
+    }
+
+    /**
+     * Check that a continuation can be resumed by a serial scan, that is, that it was not returned by a
+     * {@link ParallelScanCursor}.
+     * @param continuation the continuation to check
+     * @throws RecordCoreArgumentException if the continuation is that of a parallel scan
+     */
+    public static void checkSerialContinuation(@Nullable byte[] continuation) {
+        if (isParallelContinuation(continuation)) {
+            throw new RecordCoreArgumentException("continuation of a parallel scan cannot be resumed by a serial scan")
+                    .addLogInfo(LogMessageKeys.RAW_BYTES, ByteArrayUtil2.loggable(continuation));
+        }
+    }
+
+    @Nullable
+    private static RecordCursorProto.ParallelScanContinuation parseParallelContinuation(@Nonnull byte[] continuation) {
+        try {
+            final RecordCursorProto.ParallelScanContinuation parsed = RecordCursorProto.ParallelScanContinuation.parseFrom(continuation);
+            return parsed.getMagicNumber() == MAGIC_NUMBER ? parsed : null;
+        } catch (InvalidProtocolBufferException ex) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("PMD.PreserveStackTrace")
+    @Nonnull
+    private static ImmutableList<SegmentBounds> parseContinuation(@Nonnull byte[] continuation) {
+        final RecordCursorProto.ParallelScanContinuation parsed = parseParallelContinuation(continuation);
+        if (parsed == null) {
+            // A serial scan continuation, which is resumed as a single segment over the rest of the range.
+            return ImmutableList.of(new SegmentBounds(null, null, continuation));
+        }
+        try {
+            final ImmutableList.Builder<SegmentBounds> segments = ImmutableList.builder();
+            for (RecordCursorProto.ParallelScanContinuation.Segment segment : parsed.getSegmentList()) {
+                segments.add(new SegmentBounds(
+                        segment.hasLow() ? Tuple.fromBytes(segment.getLow().toByteArray()) : null,
+                        segment.hasHigh() ? Tuple.fromBytes(segment.getHigh().toByteArray()) : null,
+                        segment.hasContinuation() ? segment.getContinuation().toByteArray() : null));
+            }
+            return segments.build();
+        } catch (IllegalArgumentException ex) {
+            throw new RecordCoreException("invalid continuation", ex)
+                    .addLogInfo(LogMessageKeys.RAW_BYTES, ByteArrayUtil2.loggable(continuation));
+        }
+    }
+
+    /**
+     * The extent of a segment, as split points, and where to resume it.
+     */
+    static final class SegmentBounds {
+        @Nullable
+        private final Tuple low;
+        @Nullable
+        private final Tuple high;
+        @Nullable
+        private final byte[] continuation;
+
+        SegmentBounds(@Nullable Tuple low, @Nullable Tuple high, @Nullable byte[] continuation) {
+            this.low = low;
+            this.high = high;
+            this.continuation = continuation;
+        }
+
+        @Nullable
+        Tuple getLow() {
+            return low;
+        }
+
+        @Nullable
+        Tuple getHigh() {
+            return high;
+        }
+
+        @Nonnull
+        TupleRange toTupleRange(@Nonnull TupleRange range) {
+            return new TupleRange(
+                    low == null ? range.getLow() : low,
+                    high == null ? range.getHigh() : high,
+                    low == null ? range.getLowEndpoint() : EndpointType.RANGE_INCLUSIVE,
+                    high == null ? range.getHighEndpoint() : EndpointType.RANGE_EXCLUSIVE);
+        }
+    }
+
+    /**
+     * An open segment, whose cursor reads ahead into a buffer while the segment is not the one being returned.
+     * The buffer is filled from the executor, so it is guarded by the segment's monitor.
+     */
+    private final class Segment {
+        @Nonnull
+        private final RecordCursor<T> cursor;
+        @Nonnull
+        private final ArrayDeque<RecordCursorResult<T>> buffer;
+        @Nonnull
+        private CompletableFuture<Void> changed;
+        @Nullable
+        private RecordCursorResult<T> stopped;
+        @Nullable
+        private Throwable failure;
+        private boolean filling;
+        // The continuation after the last result returned from this segment, which is only accessed by the consumer.
+        @Nullable
+        private RecordCursorContinuation continuation;
+
+        private Segment(@Nonnull RecordCursor<T> cursor) {
+            this.cursor = cursor;
+            this.buffer = new ArrayDeque<>(prefetch);
+            this.changed = new CompletableFuture<>();
+        }
+
+        private void fill() {
+            synchronized (this) {
+                if (filling || stopped != null || failure != null || buffer.size() >= prefetch) {
+                    return;
+                }
+                filling = true;
+            }
+            AsyncUtil.whileTrue(() -> cursor.onNext().thenApply(this::add), executor)
+                    .whenComplete((vignore, err) -> {
+                        if (err != null) {
+                            signal(() -> failure = err);
+                        }
+                    });
+        }
+
+        private boolean add(@Nonnull RecordCursorResult<T> result) {
+            final boolean[] more = new boolean[1];
+            signal(() -> {
+                if (result.hasNext()) {
+                    buffer.add(result);
+                    more[0] = buffer.size() < prefetch;
+                } else {
+                    stopped = result;
+                }
+                filling = more[0];
+            });
+            return more[0];
+        }
+
+        private void signal(@Nonnull Runnable update) {
+            final CompletableFuture<Void> toComplete;
+            synchronized (this) {
+                update.run();
+                toComplete = changed;
+                changed = new CompletableFuture<>();
+            }
+            toComplete.complete(null);
+        }
+
+        @Nullable
+        private synchronized RecordCursorResult<T> poll() {
+            return buffer.poll();
+        }
+
+        @Nullable
+        private synchronized RecordCursorResult<T> getStopped() {
+            return buffer.isEmpty() ? stopped : null;
+        }
+
+        @Nullable
+        private synchronized Throwable getFailure() {
+            return failure;
+        }
+
+        @Nonnull
+        private synchronized CompletableFuture<Void> onChange() {
+            if (!buffer.isEmpty() || stopped != null || failure != null) {
+                return AsyncUtil.DONE;
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * The continuation of a {@link ParallelScanCursor}: the remaining segments, along with the continuations
+     * of those that are open.
+     */
+    private static final class ParallelScanContinuation implements RecordCursorContinuation {
+        @Nonnull
+        private final List<SegmentBounds> segments;
+        @Nonnull
+        private final List<RecordCursorContinuation> continuations;
+        @Nullable
+        private ByteString cachedByteString;
+
+        private ParallelScanContinuation(@Nonnull List<SegmentBounds> segments, @Nonnull List<RecordCursorContinuation> continuations) {
+            this.segments = segments;
+            this.continuations = continuations;
+        }
+
+        @Nonnull
+        @Override
+        public ByteString toByteString() {
+            if (cachedByteString == null) {
+                final RecordCursorProto.ParallelScanContinuation.Builder builder = RecordCursorProto.ParallelScanContinuation.newBuilder()
+                        .setMagicNumber(MAGIC_NUMBER);
+                for (int i = 0; i < segments.size(); i++) {
+                    final SegmentBounds bounds = segments.get(i);
+                    final RecordCursorProto.ParallelScanContinuation.Segment.Builder segment = builder.addSegmentBuilder();
+                    if (bounds.low != null) {
+                        segment.setLow(ByteString.copyFrom(bounds.low.pack()));
+                    }
+                    if (bounds.high != null) {
+                        segment.setHigh(ByteString.copyFrom(bounds.high.pack()));
+                    }
+                    // Only open segments can have advanced; the others resume where they were opened from.
+                    final RecordCursorContinuation continuation = i < continuations.size() ? continuations.get(i) : null;
+                    if (continuation != null) {
+                        segment.setContinuation(continuation.toByteString());
+                    } else if (bounds.continuation != null) {
+                        segment.setContinuation(ByteString.copyFrom(bounds.continuation));
+                    }
+                }
+                cachedByteString = builder.build().toByteString();
+            }
+            return cachedByteString;
+        }
+
+        @Nullable
+        @Override
+        public byte[] toBytes() {
+            return toByteString().toByteArray();
+        }
+
+        @Override
+        public boolean isEnd() {
+            return false;
+        }
+    }
+}
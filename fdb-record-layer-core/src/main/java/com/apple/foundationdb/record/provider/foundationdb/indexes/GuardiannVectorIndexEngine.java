@@ -106,7 +106,7 @@ final class GuardiannVectorIndexEngine implements VectorIndexEngine {
                         OnRead.fromTimer(context.getTimer()));
         return guardiann.kNearestNeighborsSearch(context.readTransaction(snapshot), scanBounds.getAdjustedLimit(),
                 searchConfig(scanBounds), VectorIndexOptionsHelper.returnVectors(scanBounds, config.useRaBitQ()),
-                Objects.requireNonNull(scanBounds.getQueryVector()));
+                Objects.requireNonNull(scanBounds.getQueryVector()), scanBounds.getSearchFilter());
     }
 
     @Nonnull
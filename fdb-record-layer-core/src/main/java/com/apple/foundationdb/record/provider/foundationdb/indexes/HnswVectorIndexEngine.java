@@ -88,7 +88,7 @@ final class HnswVectorIndexEngine implements VectorIndexEngine {
                 OnRead.fromTimer(context.getTimer()));
         return hnsw.kNearestNeighborsSearch(context.readTransaction(snapshot), scanBounds.getAdjustedLimit(),
                 efSearch(scanBounds), VectorIndexOptionsHelper.returnVectors(scanBounds, config.useRaBitQ()),
-                Objects.requireNonNull(scanBounds.getQueryVector()));
+                Objects.requireNonNull(scanBounds.getQueryVector()), scanBounds.getSearchFilter());
     }
 
     @Nonnull
@@ -485,6 +485,31 @@ public abstract class StandardIndexMaintainer extends IndexMaintainer {
         }
     }
 
+    /**
+     * Get whether the entries for a record can be saved one at a time with {@link #saveIndexEntryAsync}, interleaved
+     * with the entries of other records. This allows an index build to sort the entries for many records by key
+     * before writing them. It is only the case if saving a record's entries has no effect other than
+     * {@link #updateOneKeyAsync} for each one, so it is {@code false} unless an index maintainer says otherwise.
+     * @return {@code true} if index entries can be saved in any order
+     */
+    public boolean canSaveIndexEntriesInAnyOrder() {
+        return false;
+    }
+
+    /**
+     * Save a single entry for a record that is being added to the index.
+     * Only valid if {@link #canSaveIndexEntriesInAnyOrder()}.
+     * @param <M> the message type of the record
+     * @param savedRecord the record being indexed
+     * @param indexEntry one of the entries returned by {@link #filteredIndexEntries} for the record
+     * @return a future completed when the key is saved
+     */
+    @Nonnull
+    public <M extends Message> CompletableFuture<Void> saveIndexEntryAsync(@Nonnull final FDBIndexableRecord<M> savedRecord,
+                                                                           @Nonnull final IndexEntry indexEntry) {
+        return updateOneKeyAsync(savedRecord, false, indexEntry);
+    }
+
     protected <M extends Message> void checkUniqueness(@Nonnull FDBIndexableRecord<M> savedRecord, @Nonnull IndexEntry indexEntry) {
         Tuple valueKey = indexEntry.getKey();
         AsyncIterable<KeyValue> kvs = state.transaction.getRange(state.indexSubspace.range(valueKey));
@@ -132,6 +132,12 @@ public class ValueIndexMaintainer extends StandardIndexMaintainer {
                 .thenApply(kvo -> kvo.map(kv -> TupleHelpers.subTuple(kv.getKey(), groupSize, totalSize)).orElse(null));
     }
 
+    @Override
+    public boolean canSaveIndexEntriesInAnyOrder() {
+        // Each entry is a single key with no other state.
+        return true;
+    }
+
     @Nonnull
     @Override
     public RecordCursor<FDBIndexedRawRecord> scanRemoteFetch(@Nonnull final IndexScanBounds scanBounds,
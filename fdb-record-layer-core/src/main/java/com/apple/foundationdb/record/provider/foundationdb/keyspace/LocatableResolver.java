@@ -136,6 +136,8 @@ public abstract class LocatableResolver {
                                                                   @Nonnull Function<FDBRecordContext, CompletableFuture<T>> retriable,
                                                                   Object... additionalLogMessageKeyValues) {
         final FDBDatabaseRunner runner = parentContext.newRunner();
+        // The child context is given the parent's read version, so it must not get a shared one first
+        runner.getContextConfigBuilder().setShareReadVersion(false);
         boolean started = false;
         try {
             final AtomicBoolean first = new AtomicBoolean(true);
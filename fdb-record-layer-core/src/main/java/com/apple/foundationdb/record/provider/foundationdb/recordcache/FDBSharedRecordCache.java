@@ -0,0 +1,92 @@
+/*
+ * FDBSharedRecordCache.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseFactory;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRawRecord;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore;
+import com.apple.foundationdb.tuple.Tuple;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A cache of raw records that is shared by all transactions using the same
+ * {@link FDBDatabase FDBDatabase}. Unlike the per-transaction preload cache, entries in this cache survive
+ * the transaction that loaded them, so a record that is read by many transactions only needs to be read from the
+ * database once for as long as it is not modified. Implementations must only serve a record from memory if the
+ * cached value is guaranteed to be the same as the value the transaction would have read from the database.
+ *
+ * <p>
+ * Only record stores that have opted in by calling {@link FDBRecordStore#setRecordsCacheability(boolean)} use this
+ * cache, as every record update in such a store must also update the store's version-stamp key
+ * (see {@link FDBRecordStore#getRecordCacheVersionStampKey()}).
+ * </p>
+ *
+ * <p>
+ * Clients should generally not call methods defined on this interface, as they are intended mainly for internal use
+ * within the Record Layer.
+ * </p>
+ *
+ * @see FDBDatabaseFactory#setSharedRecordCacheFactory(FDBSharedRecordCacheFactory)
+ */
+@API(API.Status.EXPERIMENTAL)
+public interface FDBSharedRecordCache {
+
+    /**
+     * Load the raw record with the given primary key from the given record store. If a current copy of the record
+     * is available in the cache, it will be served from memory. Otherwise, the provided loader will be used to read
+     * the record from the database, and the result may be added to the cache. If the record is served from memory and
+     * {@code snapshot} is {@code false}, a read conflict is added for the record so that the transaction has the same
+     * conflicts as if it had read the record from the database.
+     *
+     * <p>
+     * This method should generally not be called by clients importing the Record Layer.
+     * </p>
+     *
+     * @param recordStore the record store to load the record from
+     * @param primaryKey the primary key of the record
+     * @param snapshot whether the record is being read at snapshot isolation
+     * @param loader a supplier of a future that reads the record from the database
+     * @return a future that will complete with the raw record or {@code null} if there is no record with the given key
+     */
+    @API(API.Status.INTERNAL)
+    @Nonnull
+    CompletableFuture<FDBRawRecord> load(@Nonnull FDBRecordStore recordStore, @Nonnull Tuple primaryKey, boolean snapshot,
+                                         @Nonnull Supplier<CompletableFuture<FDBRawRecord>> loader);
+
+    @API(API.Status.INTERNAL)
+    void validateDatabase(@Nonnull FDBDatabase database);
+
+    @API(API.Status.INTERNAL)
+    default void validateContext(@Nonnull FDBRecordContext context) {
+        validateDatabase(context.getDatabase());
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    void clear();
+}
@@ -0,0 +1,48 @@
+/*
+ * FDBSharedRecordCacheFactory.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseFactory;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A factory interface for {@link FDBSharedRecordCache}s. This can be given to the
+ * {@link FDBDatabaseFactory FDBDatabaseFactory} singleton to ensure that each
+ * {@link FDBDatabase FDBDatabase} is provided with its own cache instance.
+ *
+ * @see FDBSharedRecordCache
+ * @see FDBDatabaseFactory#setSharedRecordCacheFactory(FDBSharedRecordCacheFactory)
+ */
+@API(API.Status.EXPERIMENTAL)
+public interface FDBSharedRecordCacheFactory {
+    /**
+     * Produce a {@link FDBSharedRecordCache}. Two instances produced by this factory should not
+     * share any common state as they should not be assumed to cache records from the same database.
+     *
+     * @param database the database that the produced cache will be used with
+     * @return a {@link FDBSharedRecordCache}
+     */
+    @Nonnull
+    FDBSharedRecordCache getCache(@Nonnull FDBDatabase database);
+}
@@ -0,0 +1,73 @@
+/*
+ * PassThroughSharedRecordCache.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.annotation.SpotBugsSuppressWarnings;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRawRecord;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore;
+import com.apple.foundationdb.tuple.Tuple;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of the {@link FDBSharedRecordCache} interface that does not actually cache anything. Every record
+ * is read from the database. This is the default implementation.
+ *
+ * <p>
+ * Note that this class is a singleton as it requires no state.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class PassThroughSharedRecordCache implements FDBSharedRecordCache {
+    @Nonnull
+    private static final PassThroughSharedRecordCache INSTANCE = new PassThroughSharedRecordCache();
+
+    private PassThroughSharedRecordCache() {
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<FDBRawRecord> load(@Nonnull FDBRecordStore recordStore, @Nonnull Tuple primaryKey, boolean snapshot,
+                                                @Nonnull Supplier<CompletableFuture<FDBRawRecord>> loader) {
+        // No cache to check. Always go to the database.
+        return loader.get();
+    }
+
+    @Override
+    public void validateDatabase(@Nonnull FDBDatabase database) {
+        // All databases are valid with this cache.
+    }
+
+    @Override
+    public void clear() {
+        // Do nothing.
+    }
+
+    @SpotBugsSuppressWarnings(value = "MS_EXPOSE_REP", justification = "Object is not actually mutable")
+    @Nonnull
+    public static PassThroughSharedRecordCache instance() {
+        return INSTANCE;
+    }
+}
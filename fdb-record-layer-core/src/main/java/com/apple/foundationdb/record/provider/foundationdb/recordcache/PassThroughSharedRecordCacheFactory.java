@@ -0,0 +1,58 @@
+/*
+ * PassThroughSharedRecordCacheFactory.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseFactory;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A factory for creating {@link PassThroughSharedRecordCache}s. That class is a singleton, but it is useful
+ * to have a factory nonetheless so that one can be provided to the
+ * {@link FDBDatabaseFactory FDBDatabaseFactory}.
+ */
+@API(API.Status.EXPERIMENTAL)
+public class PassThroughSharedRecordCacheFactory implements FDBSharedRecordCacheFactory {
+    private static final PassThroughSharedRecordCacheFactory INSTANCE = new PassThroughSharedRecordCacheFactory();
+
+    private PassThroughSharedRecordCacheFactory() {
+    }
+
+    @Nonnull
+    @Override
+    public PassThroughSharedRecordCache getCache(@Nonnull FDBDatabase database) {
+        // Parameter purposefully ignored. All databases can share the same instance.
+        return PassThroughSharedRecordCache.instance();
+    }
+
+    /**
+     * Get the factory singleton. Note that neither this factory nor the {@link PassThroughSharedRecordCache}
+     * that it produces have any state.
+     *
+     * @return the factory's singleton
+     */
+    @Nonnull
+    public static PassThroughSharedRecordCacheFactory instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * VersionStampSharedRecordCache.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRawRecord;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
+import com.apple.foundationdb.tuple.Tuple;
+import com.google.common.cache.Cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of the {@link FDBSharedRecordCache} that uses a per-store version-stamp key as the cache
+ * invalidation key. Every transaction that saves or deletes a record in a store that has been marked as
+ * {@linkplain FDBRecordStore#setRecordsCacheability(boolean) records cacheable} sets that key to its commit
+ * version-stamp. Each cache entry remembers the value of the key at the time the record was read, and a cached
+ * record is only returned if the key has the same value at the reading transaction's read version, which means
+ * that no record in the store has been modified in between.
+ *
+ * <p>
+ * Like the {@link com.apple.foundationdb.record.provider.foundationdb.storestate.MetaDataVersionStampStoreStateCache},
+ * the cache itself is process-local, and it is the version-stamp key that makes it safe to use across processes.
+ * Reading the key is a single snapshot point read, so it does not add any read conflicts, but it is still a round
+ * trip to the database; the saving comes from not having to read (and possibly reassemble) the record itself, and
+ * from many transactions reading a handful of popular records all being served by the same small key. Note that any
+ * update to the store invalidates all of its cached records, so this cache is only beneficial for stores that are
+ * read much more often than they are written.
+ * </p>
+ *
+ * @see FDBRecordStore#setRecordsCacheabilityAsync(boolean)
+ * @see VersionStampSharedRecordCacheFactory
+ */
+@API(API.Status.EXPERIMENTAL)
+public class VersionStampSharedRecordCache implements FDBSharedRecordCache {
+    @Nonnull
+    private final FDBDatabase database;
+    @Nonnull
+    private final Cache<RecordKey, Entry> cache;
+
+    VersionStampSharedRecordCache(@Nonnull FDBDatabase database, @Nonnull Cache<RecordKey, Entry> cache) {
+        this.database = database;
+        this.cache = cache;
+    }
+
+    private void addToCache(@Nonnull RecordKey key, @Nonnull Entry cacheEntry) {
+        cache.asMap().merge(key, cacheEntry, (entry1, entry2) ->
+                ByteArrayUtil.compareUnsigned(entry1.versionStamp, entry2.versionStamp) >= 0 ? entry1 : entry2);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("PMD.CloseResource")
+    public CompletableFuture<FDBRawRecord> load(@Nonnull FDBRecordStore recordStore, @Nonnull Tuple primaryKey, boolean snapshot,
+                                                @Nonnull Supplier<CompletableFuture<FDBRawRecord>> loader) {
+        final FDBRecordContext context = recordStore.getContext();
+        validateContext(context);
+        final byte[] storeKey = recordStore.getRecordCacheVersionStampKey();
+        return context.getRecordCacheVersionStampAsync(storeKey).thenCompose(versionStamp -> {
+            if (versionStamp == null) {
+                // Either no record has been written since the store became cacheable, or this transaction has modified
+                // records in the store itself. In both cases, there is nothing to compare cached entries with.
+                recordStore.increment(FDBStoreTimer.Counts.SHARED_RECORD_CACHE_MISS);
+                return loader.get();
+            }
+            final RecordKey key = new RecordKey(storeKey, primaryKey);
+            final Entry existingEntry = cache.getIfPresent(key);
+            if (existingEntry != null && Arrays.equals(existingEntry.versionStamp, versionStamp)) {
+                recordStore.increment(FDBStoreTimer.Counts.SHARED_RECORD_CACHE_HIT);
+                if (!snapshot) {
+                    recordStore.addRecordReadConflict(primaryKey);
+                }
+                return CompletableFuture.completedFuture(existingEntry.rawRecord);
+            }
+            recordStore.increment(FDBStoreTimer.Counts.SHARED_RECORD_CACHE_MISS);
+            return loader.get().thenApply(rawRecord -> {
+                // If this transaction has started modifying the store while the record was being read, the value
+                // read might include those uncommitted changes, so it must not be shared with other transactions.
+                if (!context.hasDirtyRecordCacheVersionStamp(storeKey)) {
+                    addToCache(key, new Entry(versionStamp, rawRecord));
+                }
+                return rawRecord;
+            });
+        });
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public void validateDatabase(@Nonnull FDBDatabase database) {
+        if (database != this.database) {
+            throw new RecordCoreArgumentException("shared record cache used with different database than the one it was initialized with");
+        }
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get the approximate number of records in the cache.
+     *
+     * @return the approximate number of cached records
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * The estimated number of bytes that a cache entry occupies. This is the size of the record's keys and values
+     * as stored in the database, plus a fixed allowance for the cache's own bookkeeping.
+     *
+     * @param key the key of the cache entry
+     * @param entry the cache entry
+     * @return the estimated size of the entry in bytes
+     */
+    static long estimateSize(@Nonnull RecordKey key, @Nonnull Entry entry) {
+        long size = 64L + key.storeKey.length + entry.versionStamp.length;
+        if (entry.rawRecord != null) {
+            size += (long)entry.rawRecord.getKeySize() + entry.rawRecord.getValueSize();
+        }
+        return size;
+    }
+
+    /**
+     * The key of a cache entry, which is the version-stamp key of the record's store and the record's primary key.
+     */
+    static final class RecordKey {
+        @Nonnull
+        private final byte[] storeKey;
+        @Nonnull
+        private final Tuple primaryKey;
+
+        RecordKey(@Nonnull byte[] storeKey, @Nonnull Tuple primaryKey) {
+            this.storeKey = storeKey;
+            this.primaryKey = primaryKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RecordKey that = (RecordKey)o;
+            return Arrays.equals(storeKey, that.storeKey) && primaryKey.equals(that.primaryKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(storeKey) + primaryKey.hashCode();
+        }
+    }
+
+    /**
+     * A cached record (or its absence) together with the value of the store's version-stamp key it was read at.
+     */
+    static final class Entry {
+        @Nonnull
+        private final byte[] versionStamp;
+        @Nullable
+        private final FDBRawRecord rawRecord;
+
+        Entry(@Nonnull byte[] versionStamp, @Nullable FDBRawRecord rawRecord) {
+            this.versionStamp = versionStamp;
+            this.rawRecord = rawRecord;
+        }
+    }
+}
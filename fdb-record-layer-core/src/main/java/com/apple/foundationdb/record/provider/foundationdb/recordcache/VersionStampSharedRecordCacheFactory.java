@@ -0,0 +1,162 @@
+/*
+ * VersionStampSharedRecordCacheFactory.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A factory for creating {@link VersionStampSharedRecordCache}s. The produced caches can be bounded both by the
+ * number of records and by the estimated number of bytes that the records occupy, whichever limit is hit first.
+ */
+@API(API.Status.EXPERIMENTAL)
+public class VersionStampSharedRecordCacheFactory implements FDBSharedRecordCacheFactory {
+    /**
+     * A constant indicating that the cache should be of unlimited size or keep items for an unlimited time.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    /**
+     * The default maximum number of records to include in the cache.
+     */
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+    /**
+     * The default maximum number of bytes of records to include in the cache.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    /**
+     * The default amount of time in milliseconds after last access that cache entries should start to be expired.
+     */
+    public static final long DEFAULT_EXPIRE_AFTER_ACCESS_MILLIS = TimeUnit.MINUTES.toMillis(1L);
+
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long expireAfterAccessMillis = DEFAULT_EXPIRE_AFTER_ACCESS_MILLIS;
+
+    @Nonnull
+    @Override
+    public FDBSharedRecordCache getCache(@Nonnull FDBDatabase database) {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        if (maxBytes != UNLIMITED) {
+            // Guava does not allow both a maximum size and a maximum weight, so the count limit is enforced
+            // by giving every entry a weight of at least its share of the byte limit.
+            final long minWeight = maxSize == UNLIMITED ? 1L : Math.max(1L, (maxBytes + maxSize - 1) / maxSize);
+            cacheBuilder.maximumWeight(maxBytes)
+                    .<VersionStampSharedRecordCache.RecordKey, VersionStampSharedRecordCache.Entry>weigher((key, entry) ->
+                            (int)Math.min(Integer.MAX_VALUE, Math.max(minWeight, VersionStampSharedRecordCache.estimateSize(key, entry))));
+        } else if (maxSize != UNLIMITED) {
+            cacheBuilder.maximumSize(maxSize);
+        }
+        if (expireAfterAccessMillis != UNLIMITED) {
+            cacheBuilder.expireAfterAccess(expireAfterAccessMillis, TimeUnit.MILLISECONDS);
+        }
+        Cache<VersionStampSharedRecordCache.RecordKey, VersionStampSharedRecordCache.Entry> cache = cacheBuilder.build();
+        return new VersionStampSharedRecordCache(database, cache);
+    }
+
+    /**
+     * Set the number of milliseconds to keep an item in produced caches after it has been accessed.
+     * This value can be set to {@link #UNLIMITED} to indicate that the items in caches produced
+     * by this factory should not be limited by time.
+     *
+     * @param expireAfterAccessMillis the amount of time to keep the item in each cache after last access
+     * @return this factory
+     */
+    @Nonnull
+    public VersionStampSharedRecordCacheFactory setExpireAfterAccessMillis(long expireAfterAccessMillis) {
+        this.expireAfterAccessMillis = expireAfterAccessMillis;
+        return this;
+    }
+
+    /**
+     * Get the amount of time in milliseconds that each entry is kept in each cache after its last access.
+     *
+     * @return the amount of time to keep the item in each cache after last access
+     */
+    public long getExpireAfterAccessMillis() {
+        return expireAfterAccessMillis;
+    }
+
+    /**
+     * Set the maximum number of records to keep in produced caches. This value can be set to {@link #UNLIMITED} to
+     * indicate that no maximum size should be imposed on the number of records in each cache.
+     *
+     * @param maxSize the maximum number of records to keep in each cache
+     * @return this factory
+     */
+    @Nonnull
+    public VersionStampSharedRecordCacheFactory setMaxSize(long maxSize) {
+        if (maxSize <= 0) {
+            throw new RecordCoreArgumentException("maximum size of shared record cache must be positive");
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Get the maximum number of records to keep in produced caches.
+     *
+     * @return the maximum number of records to keep in each cache
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Set the maximum estimated number of bytes of records to keep in produced caches. This value can be set to
+     * {@link #UNLIMITED} to indicate that no maximum should be imposed on the size of the records in each cache.
+     *
+     * @param maxBytes the maximum number of bytes to keep in each cache
+     * @return this factory
+     */
+    @Nonnull
+    public VersionStampSharedRecordCacheFactory setMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new RecordCoreArgumentException("maximum bytes of shared record cache must be positive");
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Get the maximum estimated number of bytes of records to keep in produced caches.
+     *
+     * @return the maximum number of bytes to keep in each cache
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Create a new factory.
+     *
+     * @return a new factory of {@link VersionStampSharedRecordCache}s
+     */
+    @Nonnull
+    public static VersionStampSharedRecordCacheFactory newInstance() {
+        return new VersionStampSharedRecordCacheFactory();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * package-info.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Classes for caching records across transactions. Within a single transaction, records that have been
+ * {@linkplain com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore#preloadRecordAsync preloaded}
+ * are served from a per-transaction cache, but every new transaction has to go back to the database. For
+ * read-mostly record stores (configuration, lookup tables, and the like), that can be a large fraction of the read
+ * traffic. The classes in this package allow raw records to be cached by the
+ * {@link com.apple.foundationdb.record.provider.foundationdb.FDBDatabase FDBDatabase} and served from memory whenever
+ * the cached copy can be proven to be current, which is tracked by a per-store version-stamp key that is updated by
+ * every transaction that modifies a record in the store.
+ */
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
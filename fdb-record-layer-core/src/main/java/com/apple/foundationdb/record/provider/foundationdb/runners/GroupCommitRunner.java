@@ -0,0 +1,385 @@
+/*
+ * GroupCommitRunner.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.runners;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.async.MoreAsyncUtil;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.logging.CompletionExceptionLogHelper;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseRunner;
+import com.apple.foundationdb.record.provider.foundationdb.FDBExceptions;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A runner that commits the work of many concurrent callers together in shared transactions.
+ *
+ * <p>
+ * Each small write in a transaction of its own pays for getting a read version and for a commit. When there are
+ * many independent small writes at once, such as a service saving thousands of tiny records a second, this runner
+ * gathers them into groups and runs each group in a single transaction. A group is started once
+ * {@link #setMaxBatchSize(int)} callers are waiting, or {@link #setMaxDelayMillis(long)} after the first of them
+ * arrived, and stops taking in work once its transaction is {@link #setMaxBatchBytes(long)} in size; whatever is
+ * left goes into the next group.
+ * </p>
+ *
+ * <p>
+ * Within a group, each caller's function is run in turn, after the previous one's future completes, against the
+ * same {@link FDBRecordContext}, so the result is as if they had been committed one after another. Each caller's
+ * future completes with its own result once the group commits. If a caller's function fails, the group's transaction
+ * is abandoned, that caller gets the error and the others are run again in a new group. If the group fails to
+ * commit, for example because of a conflict, each of its callers is retried in a transaction of its own by the
+ * underlying {@link FDBDatabaseRunner}, with its usual retry policy. So, as with {@link FDBDatabaseRunner#runAsync},
+ * functions must be safe to run more than once, and should not conflict with each other, or there is no gain.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class GroupCommitRunner implements AutoCloseable {
+    /**
+     * The default maximum number of callers in a group.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    /**
+     * The default maximum size of a group's transaction, after which no more callers are added to it.
+     */
+    public static final long DEFAULT_MAX_BATCH_BYTES = 1_000_000L;
+    /**
+     * The default maximum time that a caller waits for others to join its group.
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2L;
+
+    @Nonnull
+    private final FDBDatabaseRunner runner;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+    @Nonnull
+    private List<Pending<?>> waiting = new ArrayList<>();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * Create a new runner that groups the work of callers into transactions run by the given runner.
+     * @param runner the runner used to open, commit and retry transactions, which is closed when this one is
+     */
+    public GroupCommitRunner(@Nonnull FDBDatabaseRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Get the underlying runner.
+     * @return the runner used to open, commit and retry transactions
+     */
+    @Nonnull
+    public FDBDatabaseRunner getRunner() {
+        return runner;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Set the maximum number of callers in a group. A group is started as soon as this many are waiting.
+     * @param maxBatchSize the maximum number of callers
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new RecordCoreArgumentException("max batch size must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Set the approximate transaction size after which no more callers are added to a group.
+     * @param maxBatchBytes the maximum size in bytes
+     */
+    public void setMaxBatchBytes(long maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    /**
+     * Set the longest time that a caller waits for others before its group is started. This bounds the latency
+     * added to each caller when the rate of calls is low.
+     * @param maxDelayMillis the maximum delay in milliseconds
+     */
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Run a function in a transaction shared with other callers.
+     * @param retriable the function to run, which may be run more than once
+     * @param <T> the type of the result
+     * @return a future that completes with the result of the function once it has been committed
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> runAsync(@Nonnull Function<? super FDBRecordContext, CompletableFuture<? extends T>> retriable) {
+        final Pending<T> pending = new Pending<>(retriable);
+        List<Pending<?>> batch = null;
+        boolean scheduleFlush = false;
+        synchronized (this) {
+            if (closed) {
+                throw new FDBDatabaseRunner.RunnerClosed();
+            }
+            waiting.add(pending);
+            if (waiting.size() >= maxBatchSize) {
+                batch = takeWaiting();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduleFlush = true;
+            }
+        }
+        if (batch != null) {
+            runBatch(batch);
+        } else if (scheduleFlush) {
+            MoreAsyncUtil.delayedFuture(maxDelayMillis, TimeUnit.MILLISECONDS, runner.getScheduledExecutor())
+                    .thenRunAsync(this::flush, runner.getExecutor());
+        }
+        return pending.future;
+    }
+
+    private void flush() {
+        final List<Pending<?>> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (waiting.isEmpty()) {
+                return;
+            }
+            batch = takeWaiting();
+        }
+        runBatch(batch);
+    }
+
+    @Nonnull
+    private List<Pending<?>> takeWaiting() {
+        final List<Pending<?>> batch = waiting;
+        waiting = new ArrayList<>();
+        return batch;
+    }
+
+    @SuppressWarnings("PMD.CloseResource")
+    private void runBatch(@Nonnull List<Pending<?>> batch) {
+        if (batch.size() == 1) {
+            // No one to share with.
+            batch.get(0).runAlone(runner, null);
+            return;
+        }
+        final FDBRecordContext context;
+        try {
+            context = runner.openContext();
+        } catch (RuntimeException ex) {
+            for (Pending<?> pending : batch) {
+                pending.future.completeExceptionally(ex);
+            }
+            return;
+        }
+        applyFrom(context, batch, 0).whenComplete((applied, ex) -> {
+            if (ex != null) {
+                context.close();
+                runAlone(batch, null);
+            } else if (applied.failure != null) {
+                // The transaction may include some of the failed function's writes, so it cannot be committed.
+                context.close();
+                final Pending<?> failed = batch.get(applied.count);
+                if (FDBExceptions.isRetriable(applied.failure)) {
+                    failed.runAlone(runner, getTimer());
+                } else {
+                    failed.future.completeExceptionally(applied.failure);
+                }
+                final List<Pending<?>> others = new ArrayList<>(batch.subList(0, applied.count));
+                others.addAll(batch.subList(applied.count + 1, batch.size()));
+                if (!others.isEmpty()) {
+                    runBatch(others);
+                }
+            } else {
+                final List<Pending<?>> committed = batch.subList(0, applied.count);
+                final List<Pending<?>> deferred = batch.subList(applied.count, batch.size());
+                commit(context, committed);
+                if (!deferred.isEmpty()) {
+                    runBatch(new ArrayList<>(deferred));
+                }
+            }
+        });
+    }
+
+    private void commit(@Nonnull FDBRecordContext context, @Nonnull List<Pending<?>> committed) {
+        context.commitAsync().whenComplete((vignore, ex) -> {
+            context.close();
+            if (ex == null) {
+                final FDBStoreTimer timer = getTimer();
+                if (timer != null) {
+                    timer.increment(FDBStoreTimer.Counts.GROUP_COMMIT_TRANSACTIONS);
+                    timer.increment(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS, committed.size());
+                }
+                for (Pending<?> pending : committed) {
+                    pending.complete();
+                }
+            } else {
+                runAlone(committed, ex);
+            }
+        });
+    }
+
+    private void runAlone(@Nonnull List<Pending<?>> batch, @Nullable Throwable ex) {
+        if (batch.size() == 1 && ex != null && !FDBExceptions.isRetriable(ex)) {
+            batch.get(0).future.completeExceptionally(ex);
+            return;
+        }
+        for (Pending<?> pending : batch) {
+            pending.runAlone(runner, getTimer());
+        }
+    }
+
+    /**
+     * Run the functions one after another, starting with the given one, until one fails or the transaction is large
+     * enough.
+     */
+    @Nonnull
+    private CompletableFuture<Applied> applyFrom(@Nonnull FDBRecordContext context, @Nonnull List<Pending<?>> batch, int index) {
+        if (index >= batch.size()) {
+            return CompletableFuture.completedFuture(new Applied(index, null));
+        }
+        final Pending<?> pending = batch.get(index);
+        return pending.apply(context).handle((vignore, ex) -> ex).thenCompose(ex -> {
+            if (ex != null) {
+                return CompletableFuture.completedFuture(new Applied(index, unwrap(ex)));
+            }
+            if (index + 1 >= batch.size() || maxBatchBytes <= 0) {
+                return applyFrom(context, batch, index + 1);
+            }
+            return context.getApproximateTransactionSize().thenCompose(size -> {
+                if (size >= maxBatchBytes) {
+                    return CompletableFuture.completedFuture(new Applied(index + 1, null));
+                }
+                return applyFrom(context, batch, index + 1);
+            });
+        });
+    }
+
+    @Nonnull
+    private static Throwable unwrap(@Nonnull Throwable ex) {
+        return ex instanceof CompletionException ? CompletionExceptionLogHelper.asCause((CompletionException)ex) : ex;
+    }
+
+    @Nullable
+    private FDBStoreTimer getTimer() {
+        return runner.getTimer();
+    }
+
+    /**
+     * Fail any callers still waiting for a group and close the underlying runner.
+     */
+    @Override
+    public void close() {
+        final List<Pending<?>> batch;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batch = takeWaiting();
+        }
+        for (Pending<?> pending : batch) {
+            pending.future.completeExceptionally(new FDBDatabaseRunner.RunnerClosed());
+        }
+        runner.close();
+    }
+
+    /**
+     * How many functions of a group were run, and the error from the next one, if that is why it stopped.
+     */
+    private static class Applied {
+        private final int count;
+        @Nullable
+        private final Throwable failure;
+
+        Applied(int count, @Nullable Throwable failure) {
+            this.count = count;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * A caller's function and the future for its result.
+     * @param <T> the type of the result
+     */
+    private static class Pending<T> {
+        @Nonnull
+        private final Function<? super FDBRecordContext, CompletableFuture<? extends T>> retriable;
+        @Nonnull
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        @Nullable
+        private T result;
+
+        Pending(@Nonnull Function<? super FDBRecordContext, CompletableFuture<? extends T>> retriable) {
+            this.retriable = retriable;
+        }
+
+        @Nonnull
+        CompletableFuture<Void> apply(@Nonnull FDBRecordContext context) {
+            final CompletableFuture<? extends T> applied;
+            try {
+                applied = retriable.apply(context);
+            } catch (RuntimeException ex) {
+                final CompletableFuture<Void> failed = new CompletableFuture<>();
+                failed.completeExceptionally(ex);
+                return failed;
+            }
+            return applied.thenAccept(value -> result = value);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+
+        void runAlone(@Nonnull FDBDatabaseRunner runner, @Nullable FDBStoreTimer timer) {
+            if (timer != null) {
+                timer.increment(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS_RUN_ALONE);
+            }
+            runner.runAsync(retriable).whenComplete((value, ex) -> {
+                if (ex == null) {
+                    future.complete(value);
+                } else {
+                    future.completeExceptionally(ex);
+                }
+            });
+        }
+    }
+}
@@ -118,10 +118,15 @@ public class TransactionalRunner implements AutoCloseable {
     public <T> CompletableFuture<T> runAsync(final boolean clearWeakReadSemantics,
                                               boolean commitWhenDone,
                                               @Nonnull Function<? super FDBRecordContext, CompletableFuture<? extends T>> runnable) {
-        FDBRecordContext context = openContext(clearWeakReadSemantics);
+        final boolean shareReadVersion = database.getReadVersionBatcher() != null && contextConfigBuilder.isShareReadVersion();
+        FDBRecordContext context = openContext(clearWeakReadSemantics, shareReadVersion);
         boolean returnedFuture = false;
         try {
-            CompletableFuture<T> future = runnable.apply(context)
+            // With a read version batcher, get the read version before the runnable reads anything, so it can be shared.
+            final CompletableFuture<? extends T> applied = !shareReadVersion || context.hasReadVersion() ?
+                    runnable.apply(context) :
+                    context.getReadVersionAsync().thenCompose(vignore -> runnable.apply(context));
+            CompletableFuture<T> future = applied
                     .thenCompose((T val) -> {
                         if (commitWhenDone) {
                             return context.commitAsync().thenApply(vignore -> val);
@@ -157,7 +162,11 @@ public class TransactionalRunner implements AutoCloseable {
     public <T> T run(final boolean clearWeakReadSemantics,
                      @Nonnull Function<? super FDBRecordContext, ? extends T> runnable) {
         final T result;
-        try (FDBRecordContext context = openContext(clearWeakReadSemantics)) {
+        final boolean shareReadVersion = database.getReadVersionBatcher() != null && contextConfigBuilder.isShareReadVersion();
+        try (FDBRecordContext context = openContext(clearWeakReadSemantics, shareReadVersion)) {
+            if (shareReadVersion) {
+                context.getReadVersion();
+            }
             result = runnable.apply(context);
             context.commit();
         }
@@ -169,25 +178,38 @@ public class TransactionalRunner implements AutoCloseable {
      * <p>
      *     It is probably preferable to use {@link #run(boolean, Function)} or {@link #runAsync(boolean, Function)}
      *     over opening transactions directly, but this is exposed because {@link FDBDatabaseRunner} exposes it.
+     *     Since the caller may read before getting the read version, the context does not
+     *     {@linkplain FDBRecordContextConfig#isShareReadVersion() share its read version}, even if the config attached
+     *     to this runner says that contexts should.
      * </p>
      * @return a new context
      */
     @Nonnull
     public FDBRecordContext openContext() {
-        return openContext(true);
+        return openContext(true, false);
     }
 
     @Nonnull
-    private FDBRecordContext openContext(boolean clearWeakReadSemantics) {
+    private FDBRecordContext openContext(boolean clearWeakReadSemantics, boolean shareReadVersion) {
         if (closed) {
             throw new FDBDatabaseRunner.RunnerClosed();
         }
+        final boolean clearWeakReadSemanticsNeeded = clearWeakReadSemantics && contextConfigBuilder.getWeakReadSemantics() != null;
+        final boolean clearShareReadVersionNeeded = !shareReadVersion && contextConfigBuilder.isShareReadVersion();
         FDBRecordContextConfig contextConfig;
-        if (!clearWeakReadSemantics || contextConfigBuilder.getWeakReadSemantics() == null) {
+        if (!clearWeakReadSemanticsNeeded && !clearShareReadVersionNeeded) {
             contextConfig = contextConfigBuilder.build();
         } else {
-            // Clear any weak semantics to avoid reusing old read versions
-            contextConfig = contextConfigBuilder.copyBuilder().setWeakReadSemantics(null).build();
+            final FDBRecordContextConfig.Builder builder = contextConfigBuilder.copyBuilder();
+            if (clearWeakReadSemanticsNeeded) {
+                // Clear any weak semantics to avoid reusing old read versions
+                builder.setWeakReadSemantics(null);
+            }
+            if (clearShareReadVersionNeeded) {
+                // Only share the read version if it is gotten before anything else is done with the context
+                builder.setShareReadVersion(false);
+            }
+            contextConfig = builder.build();
         }
         FDBRecordContext context = database.openContext(contextConfig);
         addContextToClose(context);
@@ -381,6 +381,46 @@ public class RecordQueryPlannerConfiguration {
         return proto.hasOrToUnionMaxNumConjuncts() ? proto.getOrToUnionMaxNumConjuncts() : PredicateToLogicalUnionRule.DEFAULT_MAX_NUM_CONJUNCTS;
     }
 
+    /**
+     * Get whether the {@link com.apple.foundationdb.record.query.plan.cascades.CascadesPlanner} should consider
+     * implementing joins as a {@link com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan}.
+     * @return whether the planner will plan hash joins
+     * @see #getHashJoinMaxBuildSideRows()
+     */
+    public boolean shouldPlanHashJoins() {
+        return getHashJoinMaxBuildSideRows() > 0;
+    }
+
+    /**
+     * Get the maximum number of rows of the build side of a
+     * {@link com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan} that are held in memory.
+     * If the build side has more rows than that, the join falls back to a nested loop join at execution time.
+     * @return the maximum number of rows of the build side held in memory or {@code 0} if hash joins are not planned
+     */
+    public int getHashJoinMaxBuildSideRows() {
+        return proto.getHashJoinMaxBuildSideRows();
+    }
+
+    /**
+     * Get whether the {@link com.apple.foundationdb.record.query.plan.cascades.CascadesPlanner} should consider
+     * implementing aggregations over inputs that are not ordered by their grouping values as a
+     * {@link com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan}.
+     * @return whether the planner will plan hash aggregations
+     * @see #getHashAggregationMaxGroups()
+     */
+    public boolean shouldPlanHashAggregations() {
+        return getHashAggregationMaxGroups() > 0;
+    }
+
+    /**
+     * Get the maximum number of groups a {@link com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan}
+     * holds in memory. The records of any further groups are spilled to a sort and aggregated from there.
+     * @return the maximum number of groups held in memory or {@code 0} if hash aggregations are not planned
+     */
+    public int getHashAggregationMaxGroups() {
+        return proto.getHashAggregationMaxGroups();
+    }
+
     public boolean shouldNormalizeNestedFields() {
         return flagSet(NORMALIZE_NESTED_FIELDS_MASK);
     }
@@ -784,6 +824,35 @@ public class RecordQueryPlannerConfiguration {
             return this;
         }
 
+        /**
+         * Set the maximum number of rows of the build side of a hash join that are held in memory. This option only
+         * applies to {@link com.apple.foundationdb.record.query.plan.cascades.CascadesPlanner}.
+         * @param hashJoinMaxBuildSideRows the maximum number of rows; defaults to {@code 0} for not planning hash joins
+         * @return this builder
+         * @see #getHashJoinMaxBuildSideRows()
+         */
+        @CanIgnoreReturnValue
+        @Nonnull
+        public Builder setHashJoinMaxBuildSideRows(final int hashJoinMaxBuildSideRows) {
+            protoBuilder.setHashJoinMaxBuildSideRows(hashJoinMaxBuildSideRows);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of groups of a hash aggregation that are held in memory. This option only
+         * applies to {@link com.apple.foundationdb.record.query.plan.cascades.CascadesPlanner}.
+         * @param hashAggregationMaxGroups the maximum number of groups; defaults to {@code 0} for not planning hash
+         *        aggregations
+         * @return this builder
+         * @see #getHashAggregationMaxGroups()
+         */
+        @CanIgnoreReturnValue
+        @Nonnull
+        public Builder setHashAggregationMaxGroups(final int hashAggregationMaxGroups) {
+            protoBuilder.setHashAggregationMaxGroups(hashAggregationMaxGroups);
+            return this;
+        }
+
         /**
          * Set the maximum number of conjuncts whose combinations are enumerated when {@link PredicateToLogicalUnionRule} is
          * applied. This option only applies to {@link com.apple.foundationdb.record.query.plan.cascades.CascadesPlanner}.
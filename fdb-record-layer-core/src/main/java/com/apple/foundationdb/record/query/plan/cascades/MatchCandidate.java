@@ -245,11 +245,42 @@ public interface MatchCandidate {
      * @param reverseScanOrder {@code true} if and only if a reverse scan is to be built
      * @return a new {@link RecordQueryPlan}
      */
-    @SuppressWarnings("java:S135")
     default RecordQueryPlan toEquivalentPlan(@Nonnull final PartialMatch partialMatch,
                                              @Nonnull final PlanContext planContext,
                                              @Nonnull final Memoizer memoizer,
                                              final boolean reverseScanOrder) {
+        return toEquivalentPlan(partialMatch, planContext, memoizer, computeComparisonRangesForScan(partialMatch), reverseScanOrder);
+    }
+
+    /**
+     * Creates a {@link RecordQueryPlan} that represents a scan over the materialized candidate data, which only needs
+     * to fully decode the given top-level fields of the records it reads. Candidates whose scans do not decode
+     * records ignore the projected fields.
+     * @param partialMatch the match to be used
+     * @param planContext the plan context
+     * @param memoizer the memoizer
+     * @param reverseScanOrder {@code true} if and only if a reverse scan is to be built
+     * @param projectedFields the names of the only top-level fields that the consumers of the scan look at or
+     *        {@code null} if they may look at any field
+     * @return a new {@link RecordQueryPlan}
+     */
+    default RecordQueryPlan toEquivalentPlan(@Nonnull final PartialMatch partialMatch,
+                                             @Nonnull final PlanContext planContext,
+                                             @Nonnull final Memoizer memoizer,
+                                             final boolean reverseScanOrder,
+                                             @Nullable final Set<String> projectedFields) {
+        return toEquivalentPlan(partialMatch, planContext, memoizer, reverseScanOrder);
+    }
+
+    /**
+     * Computes the {@link ComparisonRange}s for a scan over the materialized candidate data from the bound parameters
+     * of a match.
+     * @param partialMatch the match to be used
+     * @return the comparison ranges for the sargable aliases of this candidate, in order
+     */
+    @Nonnull
+    @SuppressWarnings("java:S135")
+    default List<ComparisonRange> computeComparisonRangesForScan(@Nonnull final PartialMatch partialMatch) {
         final var matchInfo = partialMatch.getMatchInfo();
         final var prefixMap = computeBoundParameterPrefixMap(matchInfo);
 
@@ -267,7 +298,7 @@ public interface MatchCandidate {
             comparisonRangesForScanBuilder.add(prefixMap.get(parameterAlias));
         }
 
-        return toEquivalentPlan(partialMatch, planContext, memoizer, comparisonRangesForScanBuilder.build(), reverseScanOrder);
+        return comparisonRangesForScanBuilder.build();
     }
 
     /**
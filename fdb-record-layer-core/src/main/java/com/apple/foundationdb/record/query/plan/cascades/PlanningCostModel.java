@@ -35,6 +35,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryCoveringIndexPl
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryDefaultOnEmptyPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartialRecordPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInUnionPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryMapPlan;
@@ -44,6 +46,7 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryRecursiveDfsJoi
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryRecursiveLevelUnionPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPredicatesFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryScanPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryStreamingAggregationPlan;
 import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
@@ -172,6 +175,24 @@ public class PlanningCostModel implements CascadesCostModel {
             return dfsVsLevelOptional.getAsInt();
         }
 
+        // special case
+        // if one plan is a hash join and the other one is a flat map over the same legs, prefer the hash join unless
+        // the flat map can use an index to look up the matches of each outer record
+        final OptionalInt hashJoinVsFlatMapOptional =
+                flipFlop(() -> compareHashJoinOperator(a, b), () -> compareHashJoinOperator(b, a));
+        if (hashJoinVsFlatMapOptional.isPresent() && hashJoinVsFlatMapOptional.getAsInt() != 0) {
+            return hashJoinVsFlatMapOptional.getAsInt();
+        }
+
+        // special case
+        // if one plan is a streaming aggregation and the other one is a hash aggregation, prefer the streaming one as
+        // it does not need to hold all groups in memory
+        final OptionalInt streamingVsHashAggregationOptional =
+                flipFlop(() -> compareAggregationOperator(a, b), () -> compareAggregationOperator(b, a));
+        if (streamingVsHashAggregationOptional.isPresent() && streamingVsHashAggregationOptional.getAsInt() != 0) {
+            return streamingVsHashAggregationOptional.getAsInt();
+        }
+
         // special case
         // if one plan is a inUnion plan
         final OptionalInt inPlanVsOtherOptional =
@@ -498,6 +519,56 @@ public class PlanningCostModel implements CascadesCostModel {
         return OptionalInt.empty();
     }
 
+    /**
+     * Compares a hash join plan to a flat map plan. The left expression is assumed to be a hash join and the right
+     * expression is assumed to be a flat map. Returns {@link OptionalInt#empty()} if the assumption does not hold.
+     * The hash join is preferred, as it reads its inner only once, unless the inner of the flat map is correlated to
+     * its outer and uses an index, i.e. it looks up the matches of each outer record rather than scanning for them.
+     * This method is meant to be called using {@link #flipFlop(Supplier, Supplier)} so the reversed case is also
+     * checked.
+     *
+     * @param leftExpression this expression (expected to be a hash join plan)
+     * @param rightExpression other expression (expected to be a flat map plan)
+     * @return {@code OptionalInt.of(-1)} to prefer the hash join (left), {@code OptionalInt.of(1)} to prefer the flat
+     *         map (right), or {@code OptionalInt.empty()} if the expressions are not a hash join vs flat map pair
+     */
+    private static OptionalInt compareHashJoinOperator(@Nonnull final RelationalExpression leftExpression,
+                                                       @Nonnull final RelationalExpression rightExpression) {
+        if (!(leftExpression instanceof RecordQueryHashJoinPlan) || !(rightExpression instanceof RecordQueryFlatMapPlan)) {
+            return OptionalInt.empty();
+        }
+        final var flatMapPlan = (RecordQueryFlatMapPlan)rightExpression;
+        final var innerPlan = flatMapPlan.getInnerQuantifier().getRangesOverPlan();
+        if (innerPlan.isCorrelatedTo(flatMapPlan.getOuterQuantifier().getAlias())) {
+            final var innerPlanOpsMap =
+                    FindExpressionVisitor.evaluate(ImmutableSet.of(RecordQueryPlanWithIndex.class, RecordQueryCoveringIndexPlan.class), innerPlan);
+            if (count(innerPlanOpsMap, RecordQueryPlanWithIndex.class, RecordQueryCoveringIndexPlan.class) > 0) {
+                return OptionalInt.of(1);
+            }
+        }
+        return OptionalInt.of(-1);
+    }
+
+    /**
+     * Compares a streaming aggregation plan to a hash aggregation plan, preferring the streaming aggregation. The left
+     * expression is assumed to be a streaming aggregation and the right expression is assumed to be a hash
+     * aggregation. Returns {@link OptionalInt#empty()} if the assumption does not hold. This method is meant to be
+     * called using {@link #flipFlop(Supplier, Supplier)} so the reversed case is also checked.
+     *
+     * @param leftExpression this expression (expected to be a streaming aggregation plan)
+     * @param rightExpression other expression (expected to be a hash aggregation plan)
+     * @return {@code OptionalInt.of(-1)} to prefer the streaming aggregation (left), or {@code OptionalInt.empty()}
+     *         if the expressions are not a streaming vs hash aggregation pair
+     */
+    private static OptionalInt compareAggregationOperator(@Nonnull final RelationalExpression leftExpression,
+                                                          @Nonnull final RelationalExpression rightExpression) {
+        if (leftExpression instanceof RecordQueryStreamingAggregationPlan &&
+                rightExpression instanceof RecordQueryHashAggregationPlan) {
+            return OptionalInt.of(-1);
+        }
+        return OptionalInt.empty();
+    }
+
     /** First evaluates {@code variantA} which compares
      * {@code (a, b)} in some specific way. If that yields a result, it is returned directly. Otherwise, evaluates
      * {@code variantB} which compares {@code (b, a)} in the same way; if that yields a result, its sign is negated
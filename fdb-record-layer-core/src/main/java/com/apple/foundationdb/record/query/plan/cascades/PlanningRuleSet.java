@@ -30,6 +30,8 @@ import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementDistinct
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementDistinctUnionRule;
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementExplodeRule;
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementFilterRule;
+import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementHashAggregationRule;
+import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementHashJoinRule;
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementInJoinRule;
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementInUnionRule;
 import com.apple.foundationdb.record.query.plan.cascades.rules.ImplementInsertRule;
@@ -164,7 +166,9 @@ public class PlanningRuleSet extends CascadesRuleSet {
             new ImplementSimpleSelectRule(),
             new ImplementExplodeRule(),
             new ImplementNestedLoopJoinRule(),
+            new ImplementHashJoinRule(),
             new ImplementStreamingAggregationRule(),
+            new ImplementHashAggregationRule(),
             new ImplementDeleteRule(),
             new ImplementInsertRule(),
             new ImplementTempTableInsertRule(),
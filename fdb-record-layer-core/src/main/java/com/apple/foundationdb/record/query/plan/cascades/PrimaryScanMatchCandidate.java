@@ -35,6 +35,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -184,12 +185,33 @@ public class PrimaryScanMatchCandidate implements MatchCandidate, ValueIndexLike
 
     @Nonnull
     @Override
-    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public RecordQueryPlan toEquivalentPlan(@Nonnull final PartialMatch partialMatch,
+                                            @Nonnull final PlanContext planContext,
+                                            @Nonnull final Memoizer memoizer,
+                                            final boolean reverseScanOrder,
+                                            @Nullable final Set<String> projectedFields) {
+        return toEquivalentPlan(partialMatch, planContext, memoizer, computeComparisonRangesForScan(partialMatch),
+                reverseScanOrder, projectedFields);
+    }
+
+    @Nonnull
+    @Override
     public RecordQueryPlan toEquivalentPlan(@Nonnull PartialMatch partialMatch,
                                             @Nonnull final PlanContext planContext,
                                             @Nonnull final Memoizer memoizer,
                                             @Nonnull final List<ComparisonRange> comparisonRanges,
                                             final boolean reverseScanOrder) {
+        return toEquivalentPlan(partialMatch, planContext, memoizer, comparisonRanges, reverseScanOrder, null);
+    }
+
+    @Nonnull
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private RecordQueryPlan toEquivalentPlan(@Nonnull PartialMatch partialMatch,
+                                             @Nonnull final PlanContext planContext,
+                                             @Nonnull final Memoizer memoizer,
+                                             @Nonnull final List<ComparisonRange> comparisonRanges,
+                                             final boolean reverseScanOrder,
+                                             @Nullable final Set<String> projectedFields) {
         final var availableRecordTypeNames = getAvailableRecordTypeNames();
         final var queriedRecordTypeNames = getQueriedRecordTypeNames();
         Verify.verify(availableRecordTypeNames.containsAll(queriedRecordTypeNames));
@@ -202,7 +224,8 @@ public class PrimaryScanMatchCandidate implements MatchCandidate, ValueIndexLike
                 toScanComparisons(comparisonRanges),
                 reverseScanOrder,
                 false,
-                this);
+                Optional.of(this),
+                projectedFields);
 
         if (hasAndOrderedByRecordTypeKey()) {
             return scanPlan;
@@ -24,9 +24,11 @@ import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.metadata.Index;
 import com.apple.foundationdb.record.metadata.IndexTypes;
 import com.apple.foundationdb.record.metadata.RecordType;
+import com.apple.foundationdb.record.metadata.expressions.FieldKeyExpression;
 import com.apple.foundationdb.record.metadata.expressions.GroupingKeyExpression;
 import com.apple.foundationdb.record.metadata.expressions.KeyExpression;
 import com.apple.foundationdb.record.metadata.expressions.KeyWithValueExpression;
+import com.apple.foundationdb.record.metadata.expressions.NestingKeyExpression;
 import com.apple.foundationdb.record.provider.foundationdb.indexes.VectorIndexHelper;
 import com.apple.foundationdb.record.query.plan.cascades.debug.Debugger;
 import com.apple.foundationdb.record.query.plan.cascades.expressions.MatchableSortExpression;
@@ -40,6 +42,7 @@ import com.apple.foundationdb.record.query.plan.cascades.values.EuclideanSquareD
 import com.apple.foundationdb.record.query.plan.cascades.values.Value;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 
@@ -157,6 +160,51 @@ public class VectorIndexExpansionVisitor extends KeyExpressionExpansionVisitor i
             }
         }
 
+        //
+        // Create placeholders for the fields of the primary key that are not already part of the index key. The search
+        // can evaluate predicates on them while it traverses the index, as the primary key is stored with each vector.
+        //
+        final var primaryKeyParametersBuilder = ImmutableMap.<CorrelationIdentifier, Integer>builder();
+        if (primaryKey != null) {
+            final var primaryKeyParts = primaryKey.normalizeKeyForPositions();
+            for (int i = 0; i < primaryKeyParts.size(); i++) {
+                final KeyExpression primaryKeyPart = primaryKeyParts.get(i);
+                if (!(primaryKeyPart instanceof FieldKeyExpression || primaryKeyPart instanceof NestingKeyExpression) ||
+                        primaryKeyPart.createsDuplicates()) {
+                    continue;
+                }
+
+                final var initialStateForKeyPart =
+                        VisitorState.of(Lists.newArrayList(),
+                                Lists.newArrayList(),
+                                baseQuantifier,
+                                ImmutableList.of(),
+                                -1,
+                                0,
+                                false,
+                                true);
+                final var primaryKeyPartExpansion =
+                        pop(primaryKeyPart.expand(push(initialStateForKeyPart)))
+                                .toBuilder()
+                                .removeAllResultColumns()
+                                .build();
+                final var primaryKeyPartPlaceholders = primaryKeyPartExpansion.getPlaceholders();
+                if (primaryKeyPartPlaceholders.size() != 1) {
+                    continue;
+                }
+                final var primaryKeyPartPlaceholder = primaryKeyPartPlaceholders.get(0);
+                if (keyValueExpansion.getPlaceholders()
+                        .stream()
+                        .anyMatch(keyPlaceholder -> keyPlaceholder.getValue()
+                                .semanticEquals(primaryKeyPartPlaceholder.getValue(), AliasMap.emptyMap()))) {
+                    // already part of the prefix
+                    continue;
+                }
+                allExpansionsBuilder.add(primaryKeyPartExpansion);
+                primaryKeyParametersBuilder.put(primaryKeyPartPlaceholder.getParameterAlias(), i);
+            }
+        }
+
         final var completeExpansion = GraphExpansion.ofOthers(allExpansionsBuilder.build());
         final var sealedExpansion = completeExpansion.seal();
         final var parameters = sealedExpansion.getPlaceholders()
@@ -182,7 +230,9 @@ public class VectorIndexExpansionVisitor extends KeyExpressionExpansionVisitor i
                 baseQuantifier.getFlowedObjectType().narrowRecordMaybe().orElseThrow(() -> new RecordCoreException("cannot create match candidate with non-record type")),
                 baseQuantifier.getAlias(),
                 ValueIndexExpansionVisitor.fullKey(index, primaryKey),
-                primaryKey);
+                primaryKey,
+                distanceValuePlaceholder.getParameterAlias(),
+                primaryKeyParametersBuilder.build());
     }
 
     @Nonnull
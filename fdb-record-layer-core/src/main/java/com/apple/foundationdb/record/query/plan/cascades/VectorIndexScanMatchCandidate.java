@@ -36,14 +36,18 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
 import com.google.common.base.Suppliers;
 import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -83,6 +87,10 @@ import java.util.function.Supplier;
  *       on partition keys and other indexed fields (e.g., {@code zone = 'us-west'})</li>
  *   <li><strong>Distance Rank Comparisons:</strong> Specialized {@link Comparisons.DistanceRankValueComparison}
  *       predicates that specify the K-nearest neighbor constraint and query vector</li>
+ *   <li><strong>Primary Key Comparisons:</strong> Equality and inequality comparisons on fields of the primary key
+ *       (e.g., {@code id > 100}). As the primary key is stored with each vector, these are evaluated while the
+ *       index is searched, so that the search returns the K nearest neighbors satisfying them rather than
+ *       filtering the K nearest neighbors afterwards (see {@link #computeBoundParameterPrefixMap})</li>
  * </ul>
  * The {@link #toVectorIndexScanComparisons} method separates these comparison types and constructs
  * appropriate {@link VectorIndexScanComparisons} that the execution engine can process.
@@ -150,6 +158,18 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
     @Nonnull
     private final Supplier<Optional<List<Value>>> primaryKeyValuesOptionalSupplier;
 
+    /**
+     * Alias of the placeholder for the distance rank, if known.
+     */
+    @Nullable
+    private final CorrelationIdentifier distanceRankParameter;
+
+    /**
+     * Aliases of the placeholders for fields of the primary key, mapped to their positions in the primary key.
+     */
+    @Nonnull
+    private final Map<CorrelationIdentifier, Integer> primaryKeyParameters;
+
     public VectorIndexScanMatchCandidate(@Nonnull final Index index,
                                          @Nonnull final Collection<RecordType> queriedRecordTypes,
                                          @Nonnull final Traversal traversal,
@@ -160,6 +180,22 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
                                          @Nonnull final CorrelationIdentifier baseAlias,
                                          @Nonnull final KeyExpression fullKeyExpression,
                                          @Nullable final KeyExpression primaryKey) {
+        this(index, queriedRecordTypes, traversal, parameters, orderingAliases, parametersRequiredForBinding, baseType,
+                baseAlias, fullKeyExpression, primaryKey, null, ImmutableMap.of());
+    }
+
+    public VectorIndexScanMatchCandidate(@Nonnull final Index index,
+                                         @Nonnull final Collection<RecordType> queriedRecordTypes,
+                                         @Nonnull final Traversal traversal,
+                                         @Nonnull final List<CorrelationIdentifier> parameters,
+                                         @Nonnull final List<CorrelationIdentifier> orderingAliases,
+                                         @Nonnull final Set<CorrelationIdentifier> parametersRequiredForBinding,
+                                         @Nonnull final Type.Record baseType,
+                                         @Nonnull final CorrelationIdentifier baseAlias,
+                                         @Nonnull final KeyExpression fullKeyExpression,
+                                         @Nullable final KeyExpression primaryKey,
+                                         @Nullable final CorrelationIdentifier distanceRankParameter,
+                                         @Nonnull final Map<CorrelationIdentifier, Integer> primaryKeyParameters) {
         this.index = index;
         this.queriedRecordTypes = ImmutableList.copyOf(queriedRecordTypes);
         this.traversal = traversal;
@@ -172,6 +208,8 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
         this.primaryKey = primaryKey;
         this.primaryKeyValuesOptionalSupplier =
                 Suppliers.memoize(() -> MatchCandidate.computePrimaryKeyValuesMaybe(primaryKey, baseType));
+        this.distanceRankParameter = distanceRankParameter;
+        this.primaryKeyParameters = ImmutableMap.copyOf(primaryKeyParameters);
     }
 
     @Override
@@ -383,6 +421,54 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
         return primaryKeyValuesOptionalSupplier.get();
     }
 
+    /**
+     * Computes the bound parameter prefix map like {@link MatchCandidate#computeBoundParameterPrefixMap} does, and
+     * adds the bindings of the placeholders for fields of the primary key if the distance rank is bound as well. These
+     * bindings are evaluated by the search of the index, so the predicates binding them need no compensation.
+     * Only plain equality and inequality comparisons are pushed into the search this way.
+     * @param matchInfo a pre-existing match info structure
+     * @return the map of bound parameters for the prefix of the index followed by the bound primary key parameters
+     */
+    @Nonnull
+    @Override
+    public Map<CorrelationIdentifier, ComparisonRange> computeBoundParameterPrefixMap(@Nonnull final MatchInfo matchInfo) {
+        final var boundParameterPrefixMap = WithPrimaryKeyMatchCandidate.super.computeBoundParameterPrefixMap(matchInfo);
+        final var prefixMap = Maps.<CorrelationIdentifier, ComparisonRange>newHashMap();
+        boundParameterPrefixMap.forEach((parameter, comparisonRange) -> {
+            if (!primaryKeyParameters.containsKey(parameter)) {
+                prefixMap.put(parameter, comparisonRange);
+            }
+        });
+        if (distanceRankParameter == null || !prefixMap.containsKey(distanceRankParameter)) {
+            return ImmutableMap.copyOf(prefixMap);
+        }
+
+        final var parameterBindingMap =
+                matchInfo.getRegularMatchInfo().getParameterBindingMap();
+        for (final var parameter : primaryKeyParameters.keySet()) {
+            @Nullable final var comparisonRange = parameterBindingMap.get(parameter);
+            if (comparisonRange != null && isPushableToSearch(comparisonRange)) {
+                prefixMap.put(parameter, comparisonRange);
+            }
+        }
+        return ImmutableMap.copyOf(prefixMap);
+    }
+
+    @Nonnull
+    @Override
+    public List<ComparisonRange> computeComparisonRangesForScan(@Nonnull final PartialMatch partialMatch) {
+        // the ranges of the primary key parameters are not part of the scanned prefix
+        final var prefixMap = partialMatch.getBoundParameterPrefixMap();
+        final var comparisonRangesForScanBuilder = ImmutableList.<ComparisonRange>builder();
+        for (final var parameterAlias : getSargableAliases()) {
+            if (primaryKeyParameters.containsKey(parameterAlias) || !prefixMap.containsKey(parameterAlias)) {
+                break;
+            }
+            comparisonRangesForScanBuilder.add(prefixMap.get(parameterAlias));
+        }
+        return comparisonRangesForScanBuilder.build();
+    }
+
     @Nonnull
     @Override
     public RecordQueryPlan toEquivalentPlan(@Nonnull final PartialMatch partialMatch,
@@ -391,7 +477,8 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
                                             @Nonnull final List<ComparisonRange> comparisonRanges,
                                             final boolean reverseScanOrder) {
         final var matchInfo = partialMatch.getRegularMatchInfo();
-        final var vectorIndexScanComparison = toVectorIndexScanComparisons(comparisonRanges);
+        final var vectorIndexScanComparison = toVectorIndexScanComparisons(comparisonRanges,
+                computePrimaryKeyComparisons(partialMatch.getBoundParameterPrefixMap()));
         return new RecordQueryIndexPlan(index.getName(),
                 primaryKey,
                 vectorIndexScanComparison,
@@ -405,7 +492,53 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
     }
 
     @Nonnull
-    private static VectorIndexScanComparisons toVectorIndexScanComparisons(@Nonnull final List<ComparisonRange> comparisonRanges) {
+    private List<ScanComparisons> computePrimaryKeyComparisons(@Nonnull final Map<CorrelationIdentifier, ComparisonRange> boundParameterPrefixMap) {
+        final var primaryKeyComparisons = Lists.<ScanComparisons>newArrayList();
+        primaryKeyParameters.forEach((parameter, position) -> {
+            @Nullable final var comparisonRange = boundParameterPrefixMap.get(parameter);
+            if (comparisonRange == null) {
+                return;
+            }
+            while (primaryKeyComparisons.size() <= position) {
+                primaryKeyComparisons.add(ScanComparisons.EMPTY);
+            }
+            primaryKeyComparisons.set(position, comparisonRange.toScanComparisons());
+        });
+        return primaryKeyComparisons;
+    }
+
+    private static boolean isPushableToSearch(@Nonnull final ComparisonRange comparisonRange) {
+        switch (comparisonRange.getRangeType()) {
+            case EQUALITY:
+                return isPushableToSearch(comparisonRange.getEqualityComparison());
+            case INEQUALITY:
+                return comparisonRange.getInequalityComparisons().stream()
+                        .allMatch(VectorIndexScanMatchCandidate::isPushableToSearch);
+            case EMPTY:
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isPushableToSearch(@Nonnull final Comparisons.Comparison comparison) {
+        if (comparison.hasMultiColumnComparand()) {
+            return false;
+        }
+        switch (comparison.getType()) {
+            case EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUALS:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUALS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Nonnull
+    private static VectorIndexScanComparisons toVectorIndexScanComparisons(@Nonnull final List<ComparisonRange> comparisonRanges,
+                                                                           @Nonnull final List<ScanComparisons> primaryKeyComparisons) {
         final var scanRangesBuilder = ImmutableList.<ComparisonRange>builder();
         final var distanceRankComparisonsBuilder = ImmutableList.<Comparisons.DistanceRankValueComparison>builder();
 
@@ -428,7 +561,7 @@ public class VectorIndexScanMatchCandidate implements WithPrimaryKeyMatchCandida
         Verify.verify(rankComparisons.size() == 1, "attempt to create vector scan comparison without any rank comparison");
 
         return VectorIndexScanComparisons.byDistance(toScanComparisons(scanRangesBuilder.build()),
-                distanceRankComparisonsBuilder.build().get(0));
+                distanceRankComparisonsBuilder.build().get(0), primaryKeyComparisons);
     }
 
     @Nonnull
@@ -47,6 +47,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartia
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFirstOrDefaultPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInComparandJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInParameterJoinPlan;
@@ -319,6 +321,33 @@ public class ExplainPlanVisitor extends ExplainTokens implements RecordQueryPlan
                 .addWhitespace().addClosingBrace();
     }
 
+    @Nonnull
+    @Override
+    public ExplainTokens visitHashJoinPlan(@Nonnull final RecordQueryHashJoinPlan hashJoinPlan) {
+        final var outerQuantifier = hashJoinPlan.getOuterQuantifier();
+        visit(outerQuantifier.getRangesOverPlan());
+        pipe().addKeyword("HASH").addWhitespace().addKeyword("JOIN").addWhitespace()
+                .addAliasDefinition(outerQuantifier.getAlias()).addWhitespace()
+                .addToString("->").addWhitespace().addOpeningBrace().addLinebreakOrWhitespace();
+        final var innerQuantifier = hashJoinPlan.getInnerQuantifier();
+        visit(innerQuantifier.getRangesOverPlan())
+                .addWhitespace().addKeyword("AS").addWhitespace().addAliasDefinition(innerQuantifier.getAlias())
+                .addLinebreakOrWhitespace().addKeyword("ON").addWhitespace();
+        final var probeKeyValues = hashJoinPlan.getProbeKeyValues();
+        final var buildKeyValues = hashJoinPlan.getBuildKeyValues();
+        for (int i = 0; i < probeKeyValues.size(); i++) {
+            if (i > 0) {
+                addWhitespace().addKeyword("AND").addWhitespace();
+            }
+            addNested(probeKeyValues.get(i).explain().getExplainTokens()).addWhitespace()
+                    .addToString("=").addWhitespace()
+                    .addNested(buildKeyValues.get(i).explain().getExplainTokens());
+        }
+        return addLinebreakOrWhitespace().addKeyword("RETURN").addWhitespace()
+                .addNested(hashJoinPlan.getResultValue().explain().getExplainTokens())
+                .addWhitespace().addClosingBrace();
+    }
+
     @Nonnull
     private ExplainTokens visitInJoinPlan(@Nonnull final RecordQueryInJoinPlan inJoinPlan) {
         final var inSource = inJoinPlan.getInSource();
@@ -573,6 +602,17 @@ public class ExplainPlanVisitor extends ExplainTokens implements RecordQueryPlan
         return this;
     }
 
+    @Nonnull
+    @Override
+    public ExplainTokens visitHashAggregationPlan(@Nonnull final RecordQueryHashAggregationPlan hashAggregationPlan) {
+        visit(hashAggregationPlan.getChild());
+        return pipe().addKeyword("HASH").addWhitespace().addKeyword("AGG").addWhitespace().addPush()
+                .addCurrentAliasDefinition(hashAggregationPlan.getInner().getAlias())
+                .addNested(hashAggregationPlan.getAggregateValue().explain().getExplainTokens())
+                .addWhitespace().addKeyword("GROUP").addWhitespace().addKeyword("BY").addWhitespace()
+                .addNested(hashAggregationPlan.getGroupingValue().explain().getExplainTokens()).addPop();
+    }
+
     @Nonnull
     @Override
     public ExplainTokens visitTextIndexPlan(@Nonnull final RecordQueryTextIndexPlan textIndexPlan) {
@@ -84,6 +84,11 @@ public class NodeInfo {
             NodeIcon.COMPUTATION_OPERATOR,
             "Nested Loop Join",
             "A nested loop join operator performs a relational join between its two input operands by reevaluating the right (inner) side for each left (outer) record.");
+    public static final NodeInfo HASH_JOIN_OPERATOR = new NodeInfo(
+            "HashJoinOperator",
+            NodeIcon.COMPUTATION_OPERATOR,
+            "Hash Join",
+            "A hash join operator performs a relational equi-join between its two input operands by reading the right (inner) side into an in-memory hash table once and looking up each left (outer) record in it.");
     public static final NodeInfo LOAD_BY_KEYS_OPERATOR = new NodeInfo(
             "LoadByKeysOperator",
             NodeIcon.DATA_ACCESS_OPERATOR,
@@ -189,6 +194,11 @@ public class NodeInfo {
             NodeIcon.COMPUTATION_OPERATOR,
             "Streaming Aggregate",
             "A streaming aggregate operator accumulates values from its input and applies a function to produce new values (e.g. SUM, MAX). It also groups the inputs by its grouping parameters.");
+    public static final NodeInfo HASH_AGGREGATE_OPERATOR = new NodeInfo(
+            "HashAggregateOperator",
+            NodeIcon.COMPUTATION_OPERATOR,
+            "Hash Aggregate",
+            "A hash aggregate operator accumulates values from its input and applies a function to produce new values (e.g. SUM, MAX). It groups the inputs by its grouping parameters in memory and does not require them to be ordered.");
     public static final NodeInfo COMPARATOR_OPERATOR = new NodeInfo(
             "ComparatorOperator",
             NodeIcon.COMPUTATION_OPERATOR,
@@ -247,6 +257,7 @@ public class NodeInfo {
                 INDEX_SCAN_OPERATOR,
                 INTERSECTION_OPERATOR,
                 NESTED_LOOP_JOIN_OPERATOR,
+                HASH_JOIN_OPERATOR,
                 LOAD_BY_KEYS_OPERATOR,
                 PREDICATE_FILTER_OPERATOR,
                 SCAN_OPERATOR,
@@ -49,6 +49,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartia
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFirstOrDefaultPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInComparandJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInParameterJoinPlan;
@@ -695,6 +697,12 @@ public class RecordQueryPlanMatchers {
         return childrenPlans(RecordQueryMapPlan.class, downstream);
     }
 
+    @Nonnull
+    public static BindingMatcher<RecordQueryHashJoinPlan> hashJoinPlan(@Nonnull final BindingMatcher<? extends RecordQueryPlan> downstream1,
+                                                                       @Nonnull final BindingMatcher<? extends RecordQueryPlan> downstream2) {
+        return childrenPlans(RecordQueryHashJoinPlan.class, exactly(downstream1, downstream2));
+    }
+
     @Nonnull
     public static BindingMatcher<RecordQueryFlatMapPlan> flatMapResult(@Nonnull BindingMatcher<? extends Value> downstream) {
         return typedWithDownstream(RecordQueryFlatMapPlan.class,
@@ -729,6 +737,11 @@ public class RecordQueryPlanMatchers {
         return childrenPlans(RecordQueryStreamingAggregationPlan.class, all(downstream));
     }
 
+    @Nonnull
+    public static BindingMatcher<RecordQueryHashAggregationPlan> hashAggregationPlan(@Nonnull final BindingMatcher<? extends RecordQueryPlan> downstream) {
+        return childrenPlans(RecordQueryHashAggregationPlan.class, all(downstream));
+    }
+
     @Nonnull
     public static BindingMatcher<RecordQueryStreamingAggregationPlan> aggregations(@Nonnull BindingMatcher<? extends Value> downstream) {
         return typedWithDownstream(RecordQueryStreamingAggregationPlan.class,
@@ -743,6 +756,13 @@ public class RecordQueryPlanMatchers {
                 downstream);
     }
 
+    @Nonnull
+    public static BindingMatcher<RecordQueryHashAggregationPlan> hashAggregations(@Nonnull BindingMatcher<? extends Value> downstream) {
+        return typedWithDownstream(RecordQueryHashAggregationPlan.class,
+                Extractor.of(RecordQueryHashAggregationPlan::getAggregateValue, name -> "aggregation(" + name + ")"),
+                downstream);
+    }
+
     @Nonnull
     public static BindingMatcher<RecordQueryAggregateIndexPlan> aggregateIndexPlan() {
         return ofTypeOwning(RecordQueryAggregateIndexPlan.class, CollectionMatcher.empty());
@@ -69,6 +69,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartia
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFirstOrDefaultPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInComparandJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInParameterJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInUnionOnKeyExpressionPlan;
@@ -480,6 +482,18 @@ public class CardinalitiesProperty implements ExpressionProperty<CardinalitiesPr
             return outerCardinalities.times(innerCardinalities);
         }
 
+        @Nonnull
+        @Override
+        public Cardinalities visitRecordQueryHashJoinPlan(@Nonnull final RecordQueryHashJoinPlan hashJoinPlan) {
+            final var fromChildren = fromChildren(hashJoinPlan);
+            final var outerCardinalities = fromChildren.get(0);
+            final var innerCardinalities = fromChildren.get(1);
+
+            // an equi-join may not find a match for any outer row
+            return new Cardinalities(Cardinality.ofCardinality(0L),
+                    outerCardinalities.times(innerCardinalities).getMaxCardinality());
+        }
+
         @Nonnull
         @Override
         public Cardinalities visitRecordQueryStreamingAggregationPlan(@Nonnull final RecordQueryStreamingAggregationPlan element) {
@@ -495,6 +509,15 @@ public class CardinalitiesProperty implements ExpressionProperty<CardinalitiesPr
             return Cardinalities.unknownMaxCardinality();
         }
 
+        @Nonnull
+        @Override
+        public Cardinalities visitRecordQueryHashAggregationPlan(@Nonnull final RecordQueryHashAggregationPlan element) {
+            if (element.getGroupingValue().isConstant()) {
+                return new Cardinalities(Cardinality.ofCardinality(0L), Cardinality.ofCardinality(1L));
+            }
+            return Cardinalities.unknownMaxCardinality();
+        }
+
         @Nonnull
         @Override
         public Cardinalities visitRecordQueryUnionOnValuesPlan(@Nonnull final RecordQueryUnionOnValuesPlan unionOnValuesPlan) {
@@ -22,6 +22,7 @@ package com.apple.foundationdb.record.query.plan.cascades.properties;
 
 import com.apple.foundationdb.record.query.plan.cascades.ExpressionProperty;
 import com.apple.foundationdb.record.query.plan.cascades.expressions.RelationalExpressionVisitor;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlanVisitorWithDefaults;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryUnorderedDistinctPlan;
@@ -118,6 +119,20 @@ public final class ContinuableWithoutDuplicatesProperty implements ExpressionPro
             return false;
         }
 
+        /**
+         * {@link RecordQueryHashJoinPlan} plans continue within the matches of the current outer record by position
+         * in the in-memory hash table, which is rebuilt from scratch when continued and could lead to duplicate records
+         * if the build side changed in the meantime.
+         *
+         * @param hashJoinPlan the plan to visit
+         * @return {@code false} always
+         */
+        @Nonnull
+        @Override
+        public Boolean visitHashJoinPlan(@Nonnull final RecordQueryHashJoinPlan hashJoinPlan) {
+            return false;
+        }
+
         /**
          * {@link RecordQueryUnorderedDistinctPlan} plans maintain an in-memory hash set of seen records based on a
          * comparison key, which is lost across continuations and could lead to duplicate records when continued.
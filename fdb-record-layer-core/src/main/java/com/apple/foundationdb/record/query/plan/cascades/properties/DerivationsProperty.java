@@ -28,6 +28,7 @@ import com.apple.foundationdb.record.query.combinatorics.CrossProduct;
 import com.apple.foundationdb.record.query.expressions.Comparisons;
 import com.apple.foundationdb.record.query.plan.bitmap.ComposedBitmapIndexQueryPlan;
 import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
+import com.apple.foundationdb.record.query.plan.cascades.CorrelationIdentifier;
 import com.apple.foundationdb.record.query.plan.cascades.Column;
 import com.apple.foundationdb.record.query.plan.cascades.ExpressionProperty;
 import com.apple.foundationdb.record.query.plan.cascades.Reference;
@@ -57,6 +58,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartia
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFirstOrDefaultPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInComparandJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInParameterJoinPlan;
@@ -73,6 +76,7 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryMapPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryMultiIntersectionOnValuesPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlanVisitor;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlanWithChild;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlanWithComparisonKeyValues;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlanWithComparisons;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPredicatesFilterPlan;
@@ -104,6 +108,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -626,8 +631,19 @@ public class DerivationsProperty implements ExpressionProperty<DerivationsProper
         @Nonnull
         @Override
         public Derivations visitFlatMapPlan(@Nonnull final RecordQueryFlatMapPlan flatMapPlan) {
-            final var outerQuantifier = flatMapPlan.getOuterQuantifier();
-            final var innerQuantifier = flatMapPlan.getInnerQuantifier();
+            return visitJoinPlan(flatMapPlan.getOuterQuantifier(), flatMapPlan.getInnerQuantifier(), flatMapPlan.getResultValue());
+        }
+
+        @Nonnull
+        @Override
+        public Derivations visitHashJoinPlan(@Nonnull final RecordQueryHashJoinPlan hashJoinPlan) {
+            return visitJoinPlan(hashJoinPlan.getOuterQuantifier(), hashJoinPlan.getInnerQuantifier(), hashJoinPlan.getResultValue());
+        }
+
+        @Nonnull
+        private Derivations visitJoinPlan(@Nonnull final Quantifier.Physical outerQuantifier,
+                                          @Nonnull final Quantifier.Physical innerQuantifier,
+                                          @Nonnull final Value resultValue) {
             final var outerDerivations = derivationsFromQuantifier(outerQuantifier);
             final var innerDerivations = derivationsFromQuantifier(innerQuantifier);
 
@@ -649,7 +665,6 @@ public class DerivationsProperty implements ExpressionProperty<DerivationsProper
                 }
             }
 
-            final var resultValue = flatMapPlan.getResultValue();
             final var decorrelatedResultValuesBuilder = ImmutableList.<Value>builder();
             for (final var outerResultValue : outerDerivations.getResultValues()) {
                 for (final var innerResultValue : innerDerivations.getResultValues()) {
@@ -690,25 +705,43 @@ public class DerivationsProperty implements ExpressionProperty<DerivationsProper
         @Nonnull
         @Override
         public Derivations visitStreamingAggregationPlan(@Nonnull final RecordQueryStreamingAggregationPlan streamingAggregationPlan) {
+            return visitAggregationPlan(streamingAggregationPlan, streamingAggregationPlan.getInner(),
+                    streamingAggregationPlan.getGroupingValue(), streamingAggregationPlan.getGroupingKeyAlias(),
+                    streamingAggregationPlan.getAggregateValue(), streamingAggregationPlan.getAggregateAlias());
+        }
+
+        @Nonnull
+        @Override
+        public Derivations visitHashAggregationPlan(@Nonnull final RecordQueryHashAggregationPlan hashAggregationPlan) {
+            return visitAggregationPlan(hashAggregationPlan, hashAggregationPlan.getInner(),
+                    hashAggregationPlan.getGroupingValue(), hashAggregationPlan.getGroupingKeyAlias(),
+                    hashAggregationPlan.getAggregateValue(), hashAggregationPlan.getAggregateAlias());
+        }
+
+        @Nonnull
+        private Derivations visitAggregationPlan(@Nonnull final RecordQueryPlanWithChild aggregationPlan,
+                                                 @Nonnull final Quantifier.Physical innerQuantifier,
+                                                 @Nullable final Value groupingValue,
+                                                 @Nonnull final CorrelationIdentifier groupingKeyAlias,
+                                                 @Nonnull final Value aggregateValue,
+                                                 @Nonnull final CorrelationIdentifier aggregateAlias) {
             //
             // get the result value and translate the groupings and aggregations into it
             //
-            final var resultValue = streamingAggregationPlan.getResultValue();
+            final var resultValue = aggregationPlan.getResultValue();
             final var resultTranslationMap = TranslationMap.regularBuilder();
 
-            final var groupingValue = streamingAggregationPlan.getGroupingValue();
             if (groupingValue != null) {
                 resultTranslationMap
-                        .when(streamingAggregationPlan.getGroupingKeyAlias())
-                        .then((sourceAlias, leafValue) -> streamingAggregationPlan.getGroupingValue());
+                        .when(groupingKeyAlias)
+                        .then((sourceAlias, leafValue) -> groupingValue);
             }
 
-            resultTranslationMap.when(streamingAggregationPlan.getAggregateAlias())
-                    .then((sourceAlias, leafValue) -> streamingAggregationPlan.getAggregateValue());
+            resultTranslationMap.when(aggregateAlias)
+                    .then((sourceAlias, leafValue) -> aggregateValue);
 
             final var expandedResultValue = resultValue.translateCorrelations(resultTranslationMap.build(), true);
-            final var childDerivations = derivationsFromSingleChild(streamingAggregationPlan);
-            final var innerQuantifier = streamingAggregationPlan.getInner();
+            final var childDerivations = derivationsFromSingleChild(aggregationPlan);
             final var decorrelatedResultValuesBuilder = ImmutableList.<Value>builder();
             for (final var childResultValue : childDerivations.getResultValues()) {
                 final var translationMap = TranslationMap.regularBuilder()
@@ -717,7 +750,6 @@ public class DerivationsProperty implements ExpressionProperty<DerivationsProper
                 final var decorrelatedExpandedResultValue = expandedResultValue.translateCorrelations(translationMap, true);
                 decorrelatedResultValuesBuilder.add(decorrelatedExpandedResultValue);
             }
-
             final var decorrelatedResultValues = decorrelatedResultValuesBuilder.build();
 
             return new Derivations(decorrelatedResultValues,
@@ -55,6 +55,8 @@ import com.apple.foundationdb.record.query.plan.plans.RecordQueryFetchFromPartia
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFilterPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFirstOrDefaultPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInComparandJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInJoinPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryInParameterJoinPlan;
@@ -573,20 +575,34 @@ public class OrderingProperty implements ExpressionProperty<Ordering> {
         @Nonnull
         @Override
         public Ordering visitFlatMapPlan(@Nonnull final RecordQueryFlatMapPlan flatMapPlan) {
-            final var orderingsFromChildren = orderingsFromChildren(flatMapPlan);
-            final var correlatedTo = flatMapPlan.getCorrelatedTo();
-            final var resultValue = flatMapPlan.getResultValue();
+            return joinOrdering(flatMapPlan, flatMapPlan.getOuterQuantifier(), flatMapPlan.getInnerQuantifier());
+        }
+
+        @Nonnull
+        @Override
+        public Ordering visitHashJoinPlan(@Nonnull final RecordQueryHashJoinPlan hashJoinPlan) {
+            // the matches for each outer row are returned in the order of the inner, just like a flat map would
+            return joinOrdering(hashJoinPlan, hashJoinPlan.getOuterQuantifier(), hashJoinPlan.getInnerQuantifier());
+        }
+
+        @Nonnull
+        private Ordering joinOrdering(@Nonnull final RecordQueryPlan joinPlan,
+                                      @Nonnull final Quantifier.Physical outerQuantifier,
+                                      @Nonnull final Quantifier.Physical innerQuantifier) {
+            final var orderingsFromChildren = orderingsFromChildren(joinPlan);
+            final var correlatedTo = joinPlan.getCorrelatedTo();
+            final var resultValue = joinPlan.getResultValue();
 
             final var outerOrdering = orderingsFromChildren.get(0)
-                    .pullUp(resultValue, EvaluationContext.empty(), AliasMap.ofAliases(flatMapPlan.getOuterQuantifier().getAlias(), Quantifier.current()), correlatedTo);
+                    .pullUp(resultValue, EvaluationContext.empty(), AliasMap.ofAliases(outerQuantifier.getAlias(), Quantifier.current()), correlatedTo);
             final var innerOrdering = orderingsFromChildren.get(1)
-                    .pullUp(resultValue, EvaluationContext.empty(), AliasMap.ofAliases(flatMapPlan.getInnerQuantifier().getAlias(), Quantifier.current()), correlatedTo);
+                    .pullUp(resultValue, EvaluationContext.empty(), AliasMap.ofAliases(innerQuantifier.getAlias(), Quantifier.current()), correlatedTo);
 
             //
             // For now, we special-case where we can find exactly one _regular_ quantifier and only
             // another quantifier with a max cardinality of 1.
             //
-            final var outerCardinalities = cardinalities().evaluate(flatMapPlan.getOuterQuantifier().getRangesOver());
+            final var outerCardinalities = cardinalities().evaluate(outerQuantifier.getRangesOver());
             final var outerMaxCardinality = outerCardinalities.getMaxCardinality();
             if (!outerMaxCardinality.isUnknown() && outerMaxCardinality.getCardinality() == 1L) {
                 // outer max cardinality is proven to be 1 row
@@ -647,6 +663,13 @@ public class OrderingProperty implements ExpressionProperty<Ordering> {
                     streamingAggregationPlan.getCorrelatedTo());
         }
 
+        @Nonnull
+        @Override
+        public Ordering visitHashAggregationPlan(@Nonnull final RecordQueryHashAggregationPlan hashAggregationPlan) {
+            // groups are returned in the order in which they were first seen
+            return Ordering.empty();
+        }
+
         @Nonnull
         @Override
         public Ordering visitUnionOnValuesPlan(@Nonnull final RecordQueryUnionOnValuesPlan unionOnValuesPlan) {
@@ -52,9 +52,12 @@ import com.apple.foundationdb.record.query.plan.cascades.events.PlannerEvent.Loc
 import com.apple.foundationdb.record.query.plan.cascades.expressions.LogicalDistinctExpression;
 import com.apple.foundationdb.record.query.plan.cascades.expressions.LogicalIntersectionExpression;
 import com.apple.foundationdb.record.query.plan.cascades.expressions.RelationalExpression;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.RelationalExpressionWithPredicates;
 import com.apple.foundationdb.record.query.plan.cascades.matching.structure.BindingMatcher;
 import com.apple.foundationdb.record.query.plan.cascades.properties.CardinalitiesProperty.Cardinality;
 
+import com.apple.foundationdb.record.query.plan.cascades.values.FieldValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.QuantifiedValue;
 import com.apple.foundationdb.record.query.plan.cascades.values.Value;
 import com.apple.foundationdb.record.query.plan.cascades.values.translation.RegularTranslationMap;
 import com.apple.foundationdb.record.query.plan.cascades.values.translation.TranslationMap;
@@ -185,6 +188,8 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
         for (final var matchPartitionByMatchAliasEntry : matchPartitionByMatchAliasMap.entrySet()) {
             final var matchPartitionForMatchedAlias =
                     matchPartitionByMatchAliasEntry.getValue();
+            final var projectedFields =
+                    projectedFieldsMaybe(expression, matchPartitionByMatchAliasEntry.getKey()).orElse(null);
 
             //
             // We do know that local predicates (which includes predicates only using the matchedAlias quantifier)
@@ -219,7 +224,8 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
                 final var dataAccessExpressions =
                         dataAccessForMatchPartition(call,
                                 requestedOrderings,
-                                matchPartition);
+                                matchPartition,
+                                projectedFields);
                 call.yieldMixedUnknownExpressions(dataAccessExpressions);
             }
         }
@@ -301,13 +307,16 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
      * @param call the {@link CascadesRuleCall} that this invocation is a part of
      * @param requestedOrderings a set of requested orderings
      * @param matchPartition a match partition of compatibly-matching {@link PartialMatch}es
+     * @param projectedFields the names of the only top-level fields of the matched records that the expression
+     *        being planned looks at or {@code null} if it may look at any field
      * @return an expression reference that contains all compensated data access plans for the given match partition.
      *         Note that the reference can also include index-ANDed plans for match intersections and that other matches
      *         contained in the match partition passed in may not be planned at all.
      */
     protected Set<? extends RelationalExpression> dataAccessForMatchPartition(@Nonnull CascadesRuleCall call,
                                                                               @Nonnull Set<RequestedOrdering> requestedOrderings,
-                                                                              @Nonnull Collection<? extends PartialMatch> matchPartition) {
+                                                                              @Nonnull Collection<? extends PartialMatch> matchPartition,
+                                                                              @Nullable Set<String> projectedFields) {
         //
         // return if there are no complete matches
         //
@@ -328,7 +337,7 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
 
         // create scans for all best matches
         final var bestMatchToPlanMap =
-                createScansForMatches(call.getContext(), call, bestMaximumCoverageMatches);
+                createScansForMatches(call.getContext(), call, bestMaximumCoverageMatches, projectedFields);
 
         //
         // Map data structure that we build and refine to keep already planned intersections together with the
@@ -851,12 +860,15 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
      * @param planContext plan context
      * @param memoizer the memoizer for {@link Reference}s
      * @param matches a collection of matches
+     * @param projectedFields the names of the only top-level fields that the scanned records are looked at for or
+     *        {@code null} if any may be
      * @return a map of the matches where a match is associated with a scan expression created based on that match
      */
     @Nonnull
     private static Map<PartialMatch, RecordQueryPlan> createScansForMatches(@Nonnull final PlanContext planContext,
                                                                             @Nonnull final Memoizer memoizer,
-                                                                            @Nonnull final Collection<Vectored<SingleMatchedAccess>> matches) {
+                                                                            @Nonnull final Collection<Vectored<SingleMatchedAccess>> matches,
+                                                                            @Nullable final Set<String> projectedFields) {
         return matches
                 .stream()
                 .collect(ImmutableMap.toImmutableMap(
@@ -866,10 +878,58 @@ public abstract class AbstractDataAccessRule extends AbstractCascadesRule<MatchP
                             final var partialMatch = singleMatchedAccess.getPartialMatch();
                             return partialMatch.getMatchCandidate()
                                     .toEquivalentPlan(partialMatch, planContext, memoizer,
-                                            singleMatchedAccess.isReverseScanOrder());
+                                            singleMatchedAccess.isReverseScanOrder(), projectedFields);
                         }));
     }
 
+    /**
+     * Private helper method to compute the top-level fields of the records bound to a matched quantifier that the
+     * expression being planned looks at, which are all that a scan producing those records has to decode up front.
+     * These are the fields that the predicates and the result value of the expression reference, as they are pushed
+     * down as a {@link ReferencedFieldsConstraint} to the quantifier. That is only the case if the expression does not
+     * flow the records themselves, in which case their consumers could look at any field.
+     * @param expression the expression being planned
+     * @param matchedAlias the alias of the matched for-each quantifier
+     * @return the names of the top-level fields or {@code Optional.empty()} if any field may be looked at
+     */
+    @Nonnull
+    private static Optional<Set<String>> projectedFieldsMaybe(@Nonnull final RelationalExpression expression,
+                                                              @Nonnull final CorrelationIdentifier matchedAlias) {
+        final Value resultValue = expression.getResultValue();
+        if (referencesWholeRecord(resultValue, matchedAlias)) {
+            return Optional.empty();
+        }
+        final var fieldValuesBuilder = ImmutableSet.<FieldValue>builder();
+        if (expression instanceof RelationalExpressionWithPredicates) {
+            fieldValuesBuilder.addAll(((RelationalExpressionWithPredicates)expression).fieldValuesFromPredicates());
+        }
+        resultValue.preOrderStream()
+                .filter(FieldValue.class::isInstance)
+                .forEach(value -> fieldValuesBuilder.add((FieldValue)value));
+        final var referencedFieldValues =
+                fieldValuesBuilder.build()
+                        .stream()
+                        .filter(fieldValue -> fieldValue.getChild() instanceof QuantifiedValue &&
+                                matchedAlias.equals(((QuantifiedValue)fieldValue.getChild()).getAlias()))
+                        .collect(ImmutableSet.toImmutableSet());
+        return new ReferencedFieldsConstraint.ReferencedFields(referencedFieldValues).getReferencedTopLevelFieldNames();
+    }
+
+    private static boolean referencesWholeRecord(@Nonnull final Value value, @Nonnull final CorrelationIdentifier alias) {
+        if (value instanceof QuantifiedValue) {
+            return alias.equals(((QuantifiedValue)value).getAlias());
+        }
+        if (value instanceof FieldValue && ((FieldValue)value).getChild() instanceof QuantifiedValue) {
+            return false;
+        }
+        for (final Value child : value.getChildren()) {
+            if (referencesWholeRecord(child, alias)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Private helper method to compute a new match to scan map by applying a {@link LogicalDistinctExpression} on each
      * scan.
@@ -0,0 +1,156 @@
+/*
+ * ImplementHashAggregationRule.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.query.plan.cascades.rules;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.query.plan.cascades.AbstractCascadesRule;
+import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
+import com.apple.foundationdb.record.query.plan.cascades.ImplementationCascadesRule;
+import com.apple.foundationdb.record.query.plan.cascades.ImplementationCascadesRuleCall;
+import com.apple.foundationdb.record.query.plan.cascades.PlanPartition;
+import com.apple.foundationdb.record.query.plan.cascades.PlanPartitions;
+import com.apple.foundationdb.record.query.plan.cascades.Quantifier;
+import com.apple.foundationdb.record.query.plan.cascades.Reference;
+import com.apple.foundationdb.record.query.plan.cascades.RequestedOrderingConstraint;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.GroupByExpression;
+import com.apple.foundationdb.record.query.plan.cascades.matching.structure.BindingMatcher;
+import com.apple.foundationdb.record.query.plan.cascades.properties.ContinuableWithoutDuplicatesProperty;
+import com.apple.foundationdb.record.query.plan.cascades.properties.OrderingProperty;
+import com.apple.foundationdb.record.query.plan.cascades.values.AggregateValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.Values;
+import com.apple.foundationdb.record.query.plan.cascades.values.simplification.DefaultValueSimplificationRuleSet;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.AnyMatcher.any;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.MultiMatcher.all;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.MultiMatcher.atLeastOne;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.anyPlanPartition;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.filterPlanPartitions;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.planPartitions;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.rollUpPartitionsTo;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.QuantifierMatchers.forEachQuantifierOverRef;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RelationalExpressionMatchers.groupByExpression;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.ValueMatchers.recordConstructorValue;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.ValueMatchers.streamableAggregateValue;
+
+/**
+ * Rule for implementing logical {@code GROUP BY} into a physical hash aggregate operator {@link RecordQueryHashAggregationPlan}.
+ * The rule only yields plans for inputs that are not ordered by the grouping values, as those are implemented by
+ * {@link ImplementStreamingAggregationRule}. It is only active if
+ * {@link com.apple.foundationdb.record.query.plan.RecordQueryPlannerConfiguration#shouldPlanHashAggregations()} is set.
+ */
+@API(API.Status.EXPERIMENTAL)
+@SuppressWarnings("PMD.TooManyStaticImports")
+public class ImplementHashAggregationRule extends AbstractCascadesRule<GroupByExpression> implements ImplementationCascadesRule<GroupByExpression> {
+    @Nonnull
+    private static final BindingMatcher<PlanPartition> innerPlanPartitions = anyPlanPartition();
+
+    @Nonnull
+    private static final BindingMatcher<Collection<PlanPartition>> rolledUpPlanPartitions =
+            rollUpPartitionsTo(
+                    // Partial aggregates are carried in the continuation, so the underlying plan must not return
+                    // the same record multiple times across continuations (see ImplementStreamingAggregationRule).
+                    filterPlanPartitions(
+                            p -> p.getPartitionPropertyValue(
+                                    ContinuableWithoutDuplicatesProperty.continuableWithoutDuplicates()),
+                    atLeastOne(innerPlanPartitions)),
+                    Set.of(
+                            ContinuableWithoutDuplicatesProperty.continuableWithoutDuplicates(),
+                            OrderingProperty.ordering()));
+
+    @Nonnull
+    private static final BindingMatcher<Reference> lowerRefMatcher = planPartitions(rolledUpPlanPartitions);
+
+    @Nonnull
+    private static final BindingMatcher<Quantifier.ForEach> innerQuantifierMatcher = forEachQuantifierOverRef(lowerRefMatcher);
+    @Nonnull
+    private static final BindingMatcher<GroupByExpression> root =
+            groupByExpression(recordConstructorValue(all(streamableAggregateValue())), any(innerQuantifierMatcher));
+
+    public ImplementHashAggregationRule() {
+        super(root, ImmutableSet.of(RequestedOrderingConstraint.REQUESTED_ORDERING));
+    }
+
+    @Override
+    public void onMatch(@Nonnull final ImplementationCascadesRuleCall call) {
+        final var plannerConfiguration = call.getContext().getPlannerConfiguration();
+        if (!plannerConfiguration.shouldPlanHashAggregations()) {
+            return;
+        }
+
+        final var bindings = call.getBindings();
+
+        final var groupByExpression = bindings.get(root);
+        final var groupingValue = groupByExpression.getGroupingValue();
+        if (groupingValue == null || !groupingValue.getResultType().isRecord()) {
+            // without grouping values there is a single group which can always be streamed
+            return;
+        }
+
+        final var correlatedTo = groupByExpression.getCorrelatedTo();
+        final var innerQuantifier = Iterables.getOnlyElement(groupByExpression.getQuantifiers());
+        final var currentGroupingValue = groupingValue.rebase(AliasMap.ofAliases(innerQuantifier.getAlias(), Quantifier.current()));
+        final var requiredOrderingKeyValues =
+                ImmutableSet.copyOf(
+                        Values.simplify(Values.primitiveAccessorsForType(currentGroupingValue.getResultType(),
+                                () -> currentGroupingValue),
+                                DefaultValueSimplificationRuleSet.instance(),
+                                call.getEvaluationContext(), AliasMap.emptyMap(), correlatedTo));
+
+        final var unorderedPlanPartitions = ImmutableList.<PlanPartition>builder();
+        for (final var planPartition : bindings.getAll(innerPlanPartitions)) {
+            final var providedOrdering = planPartition.getPartitionPropertyValue(OrderingProperty.ordering());
+            if (!providedOrdering.satisfiesGroupingValues(requiredOrderingKeyValues)) {
+                unorderedPlanPartitions.add(planPartition);
+            }
+        }
+
+        // the result of a hash aggregation is unordered, so there is no need to keep the partitions apart
+        for (final var planPartition : PlanPartitions.rollUpTo(unorderedPlanPartitions.build(), ImmutableSet.of())) {
+            call.yieldPlan(implementGroupBy(call, planPartition, groupByExpression, plannerConfiguration.getHashAggregationMaxGroups()));
+        }
+    }
+
+    @Nonnull
+    private RecordQueryHashAggregationPlan implementGroupBy(@Nonnull final ImplementationCascadesRuleCall call,
+                                                           @Nonnull final PlanPartition planPartition,
+                                                           @Nonnull final GroupByExpression groupByExpression,
+                                                           final int maxGroups) {
+        final var innerQuantifier = Iterables.getOnlyElement(groupByExpression.getQuantifiers());
+        final var newInnerPlanReference = call.memoizeMemberPlansFromOther(innerQuantifier.getRangesOver(), planPartition.getPlans());
+        final var newPlanQuantifier = Quantifier.physical(newInnerPlanReference);
+        final var aliasMap = AliasMap.ofAliases(innerQuantifier.getAlias(), newPlanQuantifier.getAlias());
+        final var rebasedAggregatedValue = groupByExpression.getAggregateValue().rebase(aliasMap);
+        final var rebasedGroupingValue = Objects.requireNonNull(groupByExpression.getGroupingValue()).rebase(aliasMap);
+        return RecordQueryHashAggregationPlan.of(newPlanQuantifier, rebasedGroupingValue,
+                (AggregateValue)rebasedAggregatedValue,
+                groupByExpression.getResultValueFunction(),
+                maxGroups);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * ImplementHashJoinRule.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.query.plan.cascades.rules;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.query.expressions.Comparisons;
+import com.apple.foundationdb.record.query.plan.cascades.AbstractCascadesRule;
+import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
+import com.apple.foundationdb.record.query.plan.cascades.CorrelationIdentifier;
+import com.apple.foundationdb.record.query.plan.cascades.ImplementationCascadesRule;
+import com.apple.foundationdb.record.query.plan.cascades.ImplementationCascadesRuleCall;
+import com.apple.foundationdb.record.query.plan.cascades.Ordering;
+import com.apple.foundationdb.record.query.plan.cascades.PlanPartition;
+import com.apple.foundationdb.record.query.plan.cascades.PlanPartitions;
+import com.apple.foundationdb.record.query.plan.cascades.Quantifier;
+import com.apple.foundationdb.record.query.plan.cascades.Reference;
+import com.apple.foundationdb.record.query.plan.cascades.RequestedOrdering;
+import com.apple.foundationdb.record.query.plan.cascades.RequestedOrderingConstraint;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.SelectExpression;
+import com.apple.foundationdb.record.query.plan.cascades.matching.structure.BindingMatcher;
+import com.apple.foundationdb.record.query.plan.cascades.predicates.QueryPredicate;
+import com.apple.foundationdb.record.query.plan.cascades.predicates.ValuePredicate;
+import com.apple.foundationdb.record.query.plan.cascades.properties.OrderingProperty;
+import com.apple.foundationdb.record.query.plan.cascades.values.Value;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryPredicatesFilterPlan;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Set;
+
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.MultiMatcher.all;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.anyPlanPartition;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.planPartitions;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.PlanPartitionMatchers.rollUpPartitionsTo;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.QuantifierMatchers.forEachQuantifierWithoutDefaultOnEmptyOverRef;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RelationalExpressionMatchers.canBeImplemented;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RelationalExpressionMatchers.selectExpression;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.SetMatcher.exactlyInAnyOrder;
+
+/**
+ * A rule that implements an inner equi-join of its (already implemented) children as a {@link RecordQueryHashJoinPlan}.
+ * The rule only applies if the inner is not correlated to the outer and at least one of the predicates of the
+ * {@link SelectExpression} is an equality between a value over the outer and a value over the inner. All other
+ * predicates must only refer to one of the two sides, as they are applied before the join.
+ * <p>
+ * This rule is only active if {@link com.apple.foundationdb.record.query.plan.RecordQueryPlannerConfiguration#shouldPlanHashJoins()}
+ * is set. It yields plans alongside those of {@link ImplementNestedLoopJoinRule}; it is up to the cost model to pick
+ * between them.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+@SuppressWarnings("PMD.TooManyStaticImports")
+public class ImplementHashJoinRule extends AbstractCascadesRule<SelectExpression> implements ImplementationCascadesRule<SelectExpression> {
+    @Nonnull
+    private static final BindingMatcher<PlanPartition> outerPlanPartitionsMatcher = anyPlanPartition();
+
+    @Nonnull
+    private static final BindingMatcher<Reference> outerReferenceMatcher =
+            planPartitions(rollUpPartitionsTo(all(outerPlanPartitionsMatcher), ImmutableSet.of(OrderingProperty.ordering())));
+    @Nonnull
+    private static final BindingMatcher<Quantifier.ForEach> outerQuantifierMatcher = forEachQuantifierWithoutDefaultOnEmptyOverRef(outerReferenceMatcher);
+    @Nonnull
+    private static final BindingMatcher<PlanPartition> innerPlanPartitionsMatcher = anyPlanPartition();
+
+    @Nonnull
+    private static final BindingMatcher<Reference> innerReferenceMatcher =
+            planPartitions(rollUpPartitionsTo(all(innerPlanPartitionsMatcher), ImmutableSet.of()));
+    @Nonnull
+    private static final BindingMatcher<Quantifier.ForEach> innerQuantifierMatcher = forEachQuantifierWithoutDefaultOnEmptyOverRef(innerReferenceMatcher);
+    @Nonnull
+    private static final BindingMatcher<SelectExpression> root =
+            selectExpression(exactlyInAnyOrder(outerQuantifierMatcher, innerQuantifierMatcher)).where(canBeImplemented());
+
+    public ImplementHashJoinRule() {
+        super(root, ImmutableSet.of(RequestedOrderingConstraint.REQUESTED_ORDERING));
+    }
+
+    @Override
+    public void onMatch(@Nonnull final ImplementationCascadesRuleCall call) {
+        final var plannerConfiguration = call.getContext().getPlannerConfiguration();
+        if (!plannerConfiguration.shouldPlanHashJoins()) {
+            return;
+        }
+        final var requestedOrderingsOptional = call.getPlannerConstraintMaybe(RequestedOrderingConstraint.REQUESTED_ORDERING);
+        if (requestedOrderingsOptional.isEmpty()) {
+            return;
+        }
+        final var bindings = call.getBindings();
+        final var selectExpression = bindings.get(root);
+
+        final var outerQuantifier = bindings.get(outerQuantifierMatcher);
+        final var innerQuantifier = bindings.get(innerQuantifierMatcher);
+        final var outerAlias = outerQuantifier.getAlias();
+        final var innerAlias = innerQuantifier.getAlias();
+
+        final var fullCorrelationOrder =
+                selectExpression.getCorrelationOrder().getTransitiveClosure();
+        if (fullCorrelationOrder.get(outerAlias).contains(innerAlias) ||
+                fullCorrelationOrder.get(innerAlias).contains(outerAlias)) {
+            // the build side has to be computed exactly once, so neither side may depend on the other
+            return;
+        }
+
+        //
+        // Classify predicates: equalities between the outer and the inner become the join keys, predicates over only
+        // one side are applied to that side before the join. Any other predicate prevents a hash join.
+        //
+        final var aliasToQuantifierMap = selectExpression.getAliasToQuantifierMap();
+        final var outerPredicatesBuilder = ImmutableList.<QueryPredicate>builder();
+        final var innerPredicatesBuilder = ImmutableList.<QueryPredicate>builder();
+        final var probeKeyValuesBuilder = ImmutableList.<Value>builder();
+        final var buildKeyValuesBuilder = ImmutableList.<Value>builder();
+
+        for (final QueryPredicate predicate : selectExpression.getPredicates()) {
+            if (predicate.isIndexOnly()) {
+                return;
+            }
+            final var correlatedToInExpression =
+                    Sets.intersection(predicate.getCorrelatedTo(), aliasToQuantifierMap.keySet());
+            if (!correlatedToInExpression.contains(innerAlias)) {
+                outerPredicatesBuilder.add(predicate.toResidualPredicate());
+            } else if (!correlatedToInExpression.contains(outerAlias)) {
+                innerPredicatesBuilder.add(predicate.toResidualPredicate());
+            } else {
+                final Value[] keyValues = equiJoinKeyValues(predicate, aliasToQuantifierMap.keySet(), outerAlias, innerAlias);
+                if (keyValues == null) {
+                    return;
+                }
+                probeKeyValuesBuilder.add(keyValues[0]);
+                buildKeyValuesBuilder.add(keyValues[1]);
+            }
+        }
+
+        final List<Value> probeKeyValues = probeKeyValuesBuilder.build();
+        if (probeKeyValues.isEmpty()) {
+            // a cross product, there is nothing to hash on
+            return;
+        }
+        final List<Value> buildKeyValues = buildKeyValuesBuilder.build();
+        final List<QueryPredicate> outerPredicates = outerPredicatesBuilder.build();
+        final List<QueryPredicate> innerPredicates = innerPredicatesBuilder.build();
+
+        final var outerReference = bindings.get(outerReferenceMatcher);
+        final var innerReference = bindings.get(innerReferenceMatcher);
+
+        //
+        // The build side is consumed completely before the first row is returned, so its ordering does not matter. The
+        // join returns rows in the order of the outer, so only outers whose ordering satisfies the requested ordering
+        // are of interest.
+        //
+        for (final RequestedOrdering requestedOrdering : requestedOrderingsOptional.get()) {
+            final var satisfyingOuterPlanPartitions = ImmutableList.<PlanPartition>builder();
+            for (final PlanPartition outerPlanPartition : bindings.getAll(outerPlanPartitionsMatcher)) {
+                final Ordering outerOrdering = outerPlanPartition.getPartitionPropertyValue(OrderingProperty.ordering());
+                final Ordering pulledUpOrdering =
+                        outerOrdering.pullUp(selectExpression.getResultValue(), EvaluationContext.empty(),
+                                AliasMap.ofAliases(outerAlias, Quantifier.current()), selectExpression.getResultValue().getCorrelatedTo());
+                if (pulledUpOrdering.satisfies(requestedOrdering)) {
+                    satisfyingOuterPlanPartitions.add(outerPlanPartition);
+                }
+            }
+
+            for (final PlanPartition outerPlanPartition : PlanPartitions.rollUpTo(satisfyingOuterPlanPartitions.build(), ImmutableSet.of())) {
+                final Quantifier.Physical newOuterQuantifier = planPartitionToPhysical(call, outerQuantifier, outerReference, outerPredicates, outerPlanPartition);
+                for (final PlanPartition innerPlanPartition : bindings.getAll(innerPlanPartitionsMatcher)) {
+                    final Quantifier.Physical newInnerQuantifier = planPartitionToPhysical(call, innerQuantifier, innerReference, innerPredicates, innerPlanPartition);
+                    call.yieldPlan(new RecordQueryHashJoinPlan(newOuterQuantifier, newInnerQuantifier,
+                            probeKeyValues, buildKeyValues, selectExpression.getResultValue(),
+                            plannerConfiguration.getHashJoinMaxBuildSideRows()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Extract the join keys from a predicate of the form {@code outerValue = innerValue} (or the other way around).
+     * Both values need to be of the same primitive type, so that comparing them for equality after evaluation has the
+     * same semantics as the predicate.
+     *
+     * @param predicate the predicate
+     * @param aliasesInExpression the aliases of all the quantifiers owned by the select expression
+     * @param outerAlias the alias of the outer quantifier
+     * @param innerAlias the alias of the inner quantifier
+     * @return a pair consisting of the value over the outer and the value over the inner or {@code null} if the
+     * predicate is not a suitable equality
+     */
+    @Nullable
+    private static Value[] equiJoinKeyValues(@Nonnull final QueryPredicate predicate,
+                                             @Nonnull final Set<CorrelationIdentifier> aliasesInExpression,
+                                             @Nonnull final CorrelationIdentifier outerAlias,
+                                             @Nonnull final CorrelationIdentifier innerAlias) {
+        if (!(predicate instanceof ValuePredicate)) {
+            return null;
+        }
+        final var valuePredicate = (ValuePredicate)predicate;
+        if (!(valuePredicate.getComparison() instanceof Comparisons.ValueComparison)) {
+            return null;
+        }
+        final var comparison = (Comparisons.ValueComparison)valuePredicate.getComparison();
+        if (comparison.getType() != Comparisons.Type.EQUALS) {
+            return null;
+        }
+        final Value lhs = valuePredicate.getValue();
+        final Value rhs = comparison.getComparandValue();
+        if (!lhs.getResultType().isPrimitive() ||
+                lhs.getResultType().getTypeCode() != rhs.getResultType().getTypeCode()) {
+            return null;
+        }
+        final var lhsCorrelatedTo = Sets.intersection(lhs.getCorrelatedTo(), aliasesInExpression);
+        final var rhsCorrelatedTo = Sets.intersection(rhs.getCorrelatedTo(), aliasesInExpression);
+        if (lhsCorrelatedTo.equals(ImmutableSet.of(outerAlias)) && rhsCorrelatedTo.equals(ImmutableSet.of(innerAlias))) {
+            return new Value[] {lhs, rhs};
+        }
+        if (lhsCorrelatedTo.equals(ImmutableSet.of(innerAlias)) && rhsCorrelatedTo.equals(ImmutableSet.of(outerAlias))) {
+            return new Value[] {rhs, lhs};
+        }
+        return null;
+    }
+
+    @Nonnull
+    private static Quantifier.Physical planPartitionToPhysical(@Nonnull final ImplementationCascadesRuleCall call,
+                                                               @Nonnull final Quantifier quantifier,
+                                                               @Nonnull final Reference reference,
+                                                               @Nonnull final List<QueryPredicate> predicates,
+                                                               @Nonnull final PlanPartition planPartition) {
+        var ref = call.memoizeMemberPlansFromOther(reference, planPartition.getPlans());
+        if (!predicates.isEmpty()) {
+            final var newLowerQuantifier = Quantifier.physicalBuilder().withAlias(quantifier.getAlias()).build(ref);
+            ref = call.memoizePlan(new RecordQueryPredicatesFilterPlan(newLowerQuantifier, predicates));
+        }
+        return Quantifier.physicalBuilder().withAlias(quantifier.getAlias()).build(ref);
+    }
+}
@@ -69,18 +69,31 @@ public enum PseudoField {
         return valueExtractor.apply(queriedRecord);
     }
 
-    public void fillInIfApplicable(@Nonnull Type.Record desiredType, @Nullable FDBQueriedRecord<?> queriedRecord, @Nonnull Message.Builder targetBuilder) {
-        if (queriedRecord == null) {
-            return;
-        }
+    public boolean isApplicable(@Nonnull Type.Record desiredType, @Nonnull Descriptors.Descriptor recordDescriptor) {
+        return getApplicableField(desiredType, recordDescriptor) != null;
+    }
+
+    @Nullable
+    private Type.Record.Field getApplicableField(@Nonnull Type.Record desiredType, @Nonnull Descriptors.Descriptor recordDescriptor) {
         final Map<String, Type.Record.Field> fieldNameMap = desiredType.getFieldNameFieldMap();
         @Nullable Type.Record.Field field = fieldNameMap.get(fieldName);
         if (field == null || !field.getFieldType().equals(type)) {
             // Field not in desired type
-            return;
+            return null;
         }
-        if (queriedRecord.getRecord().getDescriptorForType().findFieldByName(field.getFieldStorageName()) != null) {
+        if (recordDescriptor.findFieldByName(field.getFieldStorageName()) != null) {
             // Field is already defined in the record. Do not overwrite
+            return null;
+        }
+        return field;
+    }
+
+    public void fillInIfApplicable(@Nonnull Type.Record desiredType, @Nullable FDBQueriedRecord<?> queriedRecord, @Nonnull Message.Builder targetBuilder) {
+        if (queriedRecord == null) {
+            return;
+        }
+        @Nullable Type.Record.Field field = getApplicableField(desiredType, queriedRecord.getRecord().getDescriptorForType());
+        if (field == null) {
             return;
         }
         @Nullable Object value = extractProtoValue(queriedRecord);
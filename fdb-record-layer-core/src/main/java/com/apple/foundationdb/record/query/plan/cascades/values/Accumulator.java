@@ -32,6 +32,26 @@ import java.util.List;
 public interface Accumulator {
     void accumulate(@Nullable Object currentObject);
 
+    /**
+     * Accumulate an unboxed integral value. Accumulators over primitive types override this to avoid allocating a
+     * boxed value per accumulated row; the default implementation boxes the value and calls {@link #accumulate}.
+     * The value must be representable in the type that is being accumulated.
+     * @param value the value to accumulate
+     */
+    default void accumulateLong(long value) {
+        accumulate(value);
+    }
+
+    /**
+     * Accumulate an unboxed floating point value. Accumulators over primitive types override this to avoid
+     * allocating a boxed value per accumulated row; the default implementation boxes the value and calls
+     * {@link #accumulate}. The value must be representable in the type that is being accumulated.
+     * @param value the value to accumulate
+     */
+    default void accumulateDouble(double value) {
+        accumulate(value);
+    }
+
     @Nullable Object finish();
 
     @Nonnull
@@ -52,4 +52,20 @@ public interface AggregateValue extends Value {
 
     @Nullable
     <M extends Message> Object evalToPartial(@Nonnull FDBRecordStoreBase<M> store, @Nonnull EvaluationContext context);
+
+    /**
+     * Evaluate this value against the current record and add the result to an accumulator that was created by
+     * {@link #createAccumulatorWithInitialState} of this value. Aggregates over primitive types override this to feed
+     * the accumulator through {@link Accumulator#accumulateLong} or {@link Accumulator#accumulateDouble}; the default
+     * implementation accumulates the result of {@link #evalToPartial}.
+     *
+     * @param store record store from which to fetch records
+     * @param context evaluation context binding the current record
+     * @param accumulator the accumulator to add the result to
+     * @param <M> the type of records in the store
+     */
+    default <M extends Message> void evalAndAccumulate(@Nonnull FDBRecordStoreBase<M> store, @Nonnull EvaluationContext context,
+                                                       @Nonnull Accumulator accumulator) {
+        accumulator.accumulate(evalToPartial(store, context));
+    }
 }
@@ -29,6 +29,8 @@ import com.apple.foundationdb.record.PlanHashable;
 import com.apple.foundationdb.record.PlanSerializationContext;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.cursors.aggregate.LongState;
+import com.apple.foundationdb.record.cursors.aggregate.PrimitiveAccumulatorOperation;
 import com.apple.foundationdb.record.metadata.IndexTypes;
 import com.apple.foundationdb.record.planprotos.PCountValue;
 import com.apple.foundationdb.record.planprotos.PCountValue.PPhysicalOperator;
@@ -113,6 +115,14 @@ public class CountValue extends AbstractValue implements AggregateValue, Streama
         }
     }
 
+    @Override
+    public <M extends Message> void evalAndAccumulate(@Nonnull final FDBRecordStoreBase<M> store, @Nonnull final EvaluationContext context,
+                                                      @Nonnull final Accumulator accumulator) {
+        // the partial count of a single record is zero or one, same as in SumAccumulator.accumulate
+        final Object partial = evalToPartial(store, context);
+        accumulator.accumulateLong(partial == null ? 0L : (Long)partial);
+    }
+
     @Nonnull
     @Override
     public Accumulator createAccumulatorWithInitialState(final @Nonnull TypeRepository typeRepository, @Nullable List<RecordCursorProto.AccumulatorState> initialState) {
@@ -333,11 +343,11 @@ public class CountValue extends AbstractValue implements AggregateValue, Streama
     }
 
     /**
-     * Sum partial counts in the appropriate mode.
+     * Sum partial counts in the appropriate mode. The running count is kept unboxed in a {@link LongState}.
      */
     public static class SumAccumulator implements Accumulator {
         private final PhysicalOperator physicalOperator;
-        Object state = null;
+        private final LongState state = new LongState(PrimitiveAccumulatorOperation.SUM);
 
         public SumAccumulator(@Nonnull final PhysicalOperator physicalOperator) {
             this.physicalOperator = physicalOperator;
@@ -347,28 +357,33 @@ public class CountValue extends AbstractValue implements AggregateValue, Streama
             this.physicalOperator = physicalOperator;
             Verify.verify(initialState.getStateList().size() == 1);
             Verify.verify(initialState.getState(0).hasInt64State());
-            this.state = initialState.getState(0).getInt64State();
+            this.state.accumulateLong(initialState.getState(0).getInt64State());
         }
 
         @Override
         public void accumulate(@Nullable final Object currentObject) {
-            this.state = physicalOperator.evalPartialToPartial(state, currentObject);
+            state.accumulateLong(currentObject == null ? 0L : (Long)currentObject);
+        }
+
+        @Override
+        public void accumulateLong(final long value) {
+            state.accumulateLong(value);
         }
 
         @Nullable
         @Override
         public Object finish() {
-            return physicalOperator.evalPartialToFinal(state);
+            return physicalOperator.evalPartialToFinal(state.finish());
         }
 
         @Nonnull
         @Override
         public List<RecordCursorProto.AccumulatorState> getAccumulatorStates() {
-            if (state ==  null) {
+            if (!state.hasValue()) {
                 return List.of();
             }
             return List.of(RecordCursorProto.AccumulatorState.newBuilder()
-                    .addState(RecordCursorProto.OneOfTypedState.newBuilder().setInt64State((long)state))
+                    .addState(RecordCursorProto.OneOfTypedState.newBuilder().setInt64State(state.getLong()))
                     .build());
         }
     }
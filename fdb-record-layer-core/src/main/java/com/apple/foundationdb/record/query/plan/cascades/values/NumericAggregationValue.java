@@ -30,6 +30,12 @@ import com.apple.foundationdb.record.PlanSerializationContext;
 import com.apple.foundationdb.record.RecordCoreArgumentException;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.RecordCursorProto;
+import com.apple.foundationdb.record.cursors.aggregate.AccumulatorState;
+import com.apple.foundationdb.record.cursors.aggregate.DoubleState;
+import com.apple.foundationdb.record.cursors.aggregate.FloatState;
+import com.apple.foundationdb.record.cursors.aggregate.IntegerState;
+import com.apple.foundationdb.record.cursors.aggregate.LongState;
+import com.apple.foundationdb.record.cursors.aggregate.PrimitiveAccumulatorOperation;
 import com.apple.foundationdb.record.metadata.IndexTypes;
 import com.apple.foundationdb.record.planprotos.PNumericAggregationValue;
 import com.apple.foundationdb.record.planprotos.PNumericAggregationValue.PAvg;
@@ -120,6 +126,33 @@ public abstract class NumericAggregationValue extends AbstractValue implements V
         return operator.evalInitialToPartial(child.eval(store, context));
     }
 
+    @Override
+    public <M extends Message> void evalAndAccumulate(@Nonnull final FDBRecordStoreBase<M> store, @Nonnull final EvaluationContext context,
+                                                      @Nonnull final Accumulator accumulator) {
+        if (!(accumulator instanceof NumericAccumulator) || !((NumericAccumulator)accumulator).hasPrimitiveState()) {
+            AggregateValue.super.evalAndAccumulate(store, context, accumulator);
+            return;
+        }
+        // SUM, MIN and MAX take their input as is, and ignore nulls
+        final Object value = child.eval(store, context);
+        if (value == null) {
+            return;
+        }
+        switch (operator.getArgType()) {
+            case INT:
+            case LONG:
+                accumulator.accumulateLong(((Number)value).longValue());
+                break;
+            case FLOAT:
+            case DOUBLE:
+                accumulator.accumulateDouble(((Number)value).doubleValue());
+                break;
+            default:
+                accumulator.accumulate(value);
+                break;
+        }
+    }
+
     @Nonnull
     @Override
     public Accumulator createAccumulatorWithInitialState(final @Nonnull TypeRepository typeRepository, @Nullable List<RecordCursorProto.AccumulatorState> initialState) {
@@ -857,45 +890,51 @@ public abstract class NumericAggregationValue extends AbstractValue implements V
 
     /**
      * Accumulator for aggregation using a type- and function-specific operator.
+     * {@code SUM}, {@code MIN} and {@code MAX} keep their state in one of the primitive state classes of
+     * {@link com.apple.foundationdb.record.cursors.aggregate}, so that accumulating a value does not allocate.
      */
     public static class NumericAccumulator implements Accumulator {
         private final PhysicalOperator physicalOperator;
+        // unboxed state of SUM, MIN and MAX; null for all other operators
+        @Nullable
+        private final AccumulatorState<?, ?> primitiveState;
         Object state = null;
 
         public NumericAccumulator(@Nonnull final PhysicalOperator physicalOperator) {
             this.physicalOperator = physicalOperator;
+            this.primitiveState = createPrimitiveState(physicalOperator);
         }
 
         public NumericAccumulator(@Nonnull final PhysicalOperator physicalOperator, @Nonnull final RecordCursorProto.AccumulatorState initialState) {
-            this.physicalOperator = physicalOperator;
+            this(physicalOperator);
             switch (physicalOperator) {
                 case SUM_I:
                 case MAX_I:
                 case MIN_I:
                     Verify.verify(initialState.getStateList().size() == 1);
                     Verify.verify(initialState.getState(0).hasInt32State());
-                    state = initialState.getState(0).getInt32State();
+                    ((IntegerState)Objects.requireNonNull(primitiveState)).accumulateInt(initialState.getState(0).getInt32State());
                     break;
                 case SUM_L:
                 case MAX_L:
                 case MIN_L:
                     Verify.verify(initialState.getStateList().size() == 1);
                     Verify.verify(initialState.getState(0).hasInt64State());
-                    state = initialState.getState(0).getInt64State();
+                    ((LongState)Objects.requireNonNull(primitiveState)).accumulateLong(initialState.getState(0).getInt64State());
                     break;
                 case SUM_D:
                 case MAX_D:
                 case MIN_D:
                     Verify.verify(initialState.getStateList().size() == 1);
                     Verify.verify(initialState.getState(0).hasDoubleState());
-                    state = initialState.getState(0).getDoubleState();
+                    ((DoubleState)Objects.requireNonNull(primitiveState)).accumulateDouble(initialState.getState(0).getDoubleState());
                     break;
                 case SUM_F:
                 case MAX_F:
                 case MIN_F:
                     Verify.verify(initialState.getStateList().size() == 1);
                     Verify.verify(initialState.getState(0).hasFloatState());
-                    state = initialState.getState(0).getFloatState();
+                    ((FloatState)Objects.requireNonNull(primitiveState)).accumulateFloat(initialState.getState(0).getFloatState());
                     break;
                 case AVG_I:
                     Verify.verify(initialState.getStateList().size() == 2);
@@ -932,46 +971,105 @@ public abstract class NumericAggregationValue extends AbstractValue implements V
             }
         }
 
+        @Nullable
+        private static AccumulatorState<?, ?> createPrimitiveState(@Nonnull final PhysicalOperator physicalOperator) {
+            final PrimitiveAccumulatorOperation operation;
+            switch (physicalOperator.getLogicalOperator()) {
+                case SUM:
+                    operation = PrimitiveAccumulatorOperation.SUM;
+                    break;
+                case MIN:
+                    operation = PrimitiveAccumulatorOperation.MIN;
+                    break;
+                case MAX:
+                    operation = PrimitiveAccumulatorOperation.MAX;
+                    break;
+                default:
+                    return null;
+            }
+            switch (physicalOperator.getArgType()) {
+                case INT:
+                    return new IntegerState(operation);
+                case LONG:
+                    return new LongState(operation);
+                case FLOAT:
+                    return new FloatState(operation);
+                case DOUBLE:
+                    return new DoubleState(operation);
+                default:
+                    return null;
+            }
+        }
+
         @Override
         public void accumulate(@Nullable final Object currentObject) {
-            this.state = physicalOperator.evalPartialToPartial(state, currentObject);
+            if (primitiveState == null) {
+                this.state = physicalOperator.evalPartialToPartial(state, currentObject);
+            } else if (currentObject != null) {
+                if (primitiveState instanceof IntegerState) {
+                    ((IntegerState)primitiveState).accumulateInt((Integer)currentObject);
+                } else if (primitiveState instanceof LongState) {
+                    ((LongState)primitiveState).accumulateLong((Long)currentObject);
+                } else if (primitiveState instanceof FloatState) {
+                    ((FloatState)primitiveState).accumulateFloat((Float)currentObject);
+                } else {
+                    ((DoubleState)primitiveState).accumulateDouble((Double)currentObject);
+                }
+            }
+        }
+
+        /**
+         * Get whether this accumulator keeps its state unboxed, which is the case for SUM, MIN and MAX over
+         * primitive types. Such an accumulator takes the values of its input as they are.
+         * @return {@code true} if the state of this accumulator is unboxed
+         */
+        public boolean hasPrimitiveState() {
+            return primitiveState != null;
+        }
+
+        @Override
+        public void accumulateLong(final long value) {
+            if (primitiveState instanceof LongState) {
+                ((LongState)primitiveState).accumulateLong(value);
+            } else if (primitiveState instanceof IntegerState) {
+                ((IntegerState)primitiveState).accumulateInt(Math.toIntExact(value));
+            } else {
+                Accumulator.super.accumulateLong(value);
+            }
+        }
+
+        @Override
+        public void accumulateDouble(final double value) {
+            if (primitiveState instanceof DoubleState) {
+                ((DoubleState)primitiveState).accumulateDouble(value);
+            } else if (primitiveState instanceof FloatState) {
+                ((FloatState)primitiveState).accumulateFloat((float)value);
+            } else {
+                Accumulator.super.accumulateDouble(value);
+            }
         }
 
         @Nullable
         @Override
         public Object finish() {
+            if (primitiveState != null) {
+                return primitiveState.finish();
+            }
             return physicalOperator.evalPartialToFinal(state);
         }
 
         @Nonnull
         @Override
         public List<RecordCursorProto.AccumulatorState> getAccumulatorStates() {
+            if (primitiveState != null) {
+                return getPrimitiveAccumulatorStates(primitiveState);
+            }
             if (state ==  null) {
                 return List.of();
             }
             RecordCursorProto.AccumulatorState.Builder builder = RecordCursorProto.AccumulatorState.newBuilder();
             Pair<?, ?> pair;
             switch (physicalOperator) {
-                case SUM_I:
-                case MAX_I:
-                case MIN_I:
-                    builder.addState(RecordCursorProto.OneOfTypedState.newBuilder().setInt32State((int)state));
-                    break;
-                case SUM_L:
-                case MAX_L:
-                case MIN_L:
-                    builder.addState(RecordCursorProto.OneOfTypedState.newBuilder().setInt64State((long)state));
-                    break;
-                case SUM_D:
-                case MAX_D:
-                case MIN_D:
-                    builder.addState(RecordCursorProto.OneOfTypedState.newBuilder().setDoubleState((double)state));
-                    break;
-                case SUM_F:
-                case MAX_F:
-                case MIN_F:
-                    builder.addState(RecordCursorProto.OneOfTypedState.newBuilder().setFloatState((float)state));
-                    break;
                 case AVG_I:
                     pair = (Pair<?, ?>) state;
                     builder.addState(RecordCursorProto.OneOfTypedState.newBuilder().setInt32State((int)pair.getLeft()))
@@ -1002,5 +1100,36 @@ public abstract class NumericAggregationValue extends AbstractValue implements V
             }
             return List.of(builder.build());
         }
+
+        @Nonnull
+        private static List<RecordCursorProto.AccumulatorState> getPrimitiveAccumulatorStates(@Nonnull final AccumulatorState<?, ?> primitiveState) {
+            final RecordCursorProto.OneOfTypedState.Builder typedState = RecordCursorProto.OneOfTypedState.newBuilder();
+            if (primitiveState instanceof IntegerState) {
+                final IntegerState intState = (IntegerState)primitiveState;
+                if (!intState.hasValue()) {
+                    return List.of();
+                }
+                typedState.setInt32State(intState.getInt());
+            } else if (primitiveState instanceof LongState) {
+                final LongState longState = (LongState)primitiveState;
+                if (!longState.hasValue()) {
+                    return List.of();
+                }
+                typedState.setInt64State(longState.getLong());
+            } else if (primitiveState instanceof FloatState) {
+                final FloatState floatState = (FloatState)primitiveState;
+                if (!floatState.hasValue()) {
+                    return List.of();
+                }
+                typedState.setFloatState(floatState.getFloat());
+            } else {
+                final DoubleState doubleState = (DoubleState)primitiveState;
+                if (!doubleState.hasValue()) {
+                    return List.of();
+                }
+                typedState.setDoubleState(doubleState.getDouble());
+            }
+            return List.of(RecordCursorProto.AccumulatorState.newBuilder().addState(typedState).build());
+        }
     }
 }
@@ -338,80 +338,109 @@ public class RecordConstructorValue extends AbstractValue implements AggregateVa
         return Collections.unmodifiableList(listOfPartials);
     }
 
+    @Override
+    public <M extends Message> void evalAndAccumulate(@Nonnull final FDBRecordStoreBase<M> store, @Nonnull final EvaluationContext context,
+                                                      @Nonnull final Accumulator accumulator) {
+        if (!(accumulator instanceof RecordConstructorAccumulator)) {
+            AggregateValue.super.evalAndAccumulate(store, context, accumulator);
+            return;
+        }
+        // let each child feed its own accumulator rather than collecting all partials into a list first
+        final List<Accumulator> childAccumulators = ((RecordConstructorAccumulator)accumulator).childAccumulators;
+        var i = 0;
+        for (final var child : getChildren()) {
+            Verify.verify(child instanceof AggregateValue);
+            ((AggregateValue)child).evalAndAccumulate(store, context, childAccumulators.get(i));
+            i++;
+        }
+    }
+
     @Nonnull
     @Override
     public Accumulator createAccumulatorWithInitialState(final @Nonnull TypeRepository typeRepository, final @Nullable List<RecordCursorProto.AccumulatorState> initialState) {
-        return new Accumulator() {
+        return new RecordConstructorAccumulator(typeRepository, initialState);
+    }
 
-            @Nonnull
-            private final List<Accumulator> childAccumulators = buildAccumulators(initialState);
+    /**
+     * Accumulator of a record of aggregates, which keeps an accumulator for each of its children.
+     */
+    private class RecordConstructorAccumulator implements Accumulator {
+        @Nonnull
+        private final TypeRepository typeRepository;
+        @Nonnull
+        private final List<Accumulator> childAccumulators;
 
-            @Override
-            public void accumulate(@Nullable final Object currentObject) {
-                if (currentObject == null) {
-                    childAccumulators.forEach(childAccumulator -> childAccumulator.accumulate(null));
-                } else {
-                    Verify.verify(currentObject instanceof Collection);
-                    final var currentObjectAsList = (List<?>)currentObject;
-                    var i = 0;
-                    for (final var o : currentObjectAsList) {
-                        childAccumulators.get(i).accumulate(o);
-                        i++;
-                    }
+        private RecordConstructorAccumulator(@Nonnull final TypeRepository typeRepository,
+                                             @Nullable final List<RecordCursorProto.AccumulatorState> initialState) {
+            this.typeRepository = typeRepository;
+            this.childAccumulators = buildAccumulators(initialState);
+        }
+
+        @Override
+        public void accumulate(@Nullable final Object currentObject) {
+            if (currentObject == null) {
+                childAccumulators.forEach(childAccumulator -> childAccumulator.accumulate(null));
+            } else {
+                Verify.verify(currentObject instanceof Collection);
+                final var currentObjectAsList = (List<?>)currentObject;
+                var i = 0;
+                for (final var o : currentObjectAsList) {
+                    childAccumulators.get(i).accumulate(o);
+                    i++;
                 }
             }
+        }
 
-            @Nonnull
-            @Override
-            public Object finish() {
-                final var resultMessageBuilder = newMessageBuilderForType(typeRepository);
-                final var descriptorForType = resultMessageBuilder.getDescriptorForType();
+        @Nonnull
+        @Override
+        public Object finish() {
+            final var resultMessageBuilder = newMessageBuilderForType(typeRepository);
+            final var descriptorForType = resultMessageBuilder.getDescriptorForType();
 
-                var i = 0;
-                final var fields = Objects.requireNonNull(getResultType().getFields());
+            var i = 0;
+            final var fields = Objects.requireNonNull(getResultType().getFields());
 
-                for (final var childAccumulator : childAccumulators) {
-                    final var finalResult = childAccumulator.finish();
-                    if (finalResult != null) {
-                        resultMessageBuilder.setField(descriptorForType.findFieldByNumber(fields.get(i).getFieldIndex()), finalResult);
-                    }
-                    i ++;
+            for (final var childAccumulator : childAccumulators) {
+                final var finalResult = childAccumulator.finish();
+                if (finalResult != null) {
+                    resultMessageBuilder.setField(descriptorForType.findFieldByNumber(fields.get(i).getFieldIndex()), finalResult);
                 }
-
-                return resultMessageBuilder.build();
+                i ++;
             }
 
-            @Nonnull
-            private List<Accumulator> buildAccumulators(@Nullable List<RecordCursorProto.AccumulatorState> initialState) {
-                List<Value> childrenAsList = new ArrayList<>();
-                getChildren().forEach(childrenAsList::add);
-                final ImmutableList.Builder<Accumulator> childAccumulatorsBuilder = ImmutableList.builder();
+            return resultMessageBuilder.build();
+        }
 
-                if (initialState != null) {
-                    Verify.verify(initialState.size() == childrenAsList.size());
-                }
+        @Nonnull
+        private List<Accumulator> buildAccumulators(@Nullable List<RecordCursorProto.AccumulatorState> initialState) {
+            List<Value> childrenAsList = new ArrayList<>();
+            getChildren().forEach(childrenAsList::add);
+            final ImmutableList.Builder<Accumulator> childAccumulatorsBuilder = ImmutableList.builder();
 
-                for (int i = 0; i < childrenAsList.size(); i++) {
-                    Verify.verify(childrenAsList.get(i) instanceof AggregateValue);
-                    if (initialState == null) {
-                        childAccumulatorsBuilder.add(((AggregateValue)childrenAsList.get(i)).createAccumulatorWithInitialState(typeRepository, null));
-                    } else {
-                        childAccumulatorsBuilder.add(((AggregateValue)childrenAsList.get(i)).createAccumulatorWithInitialState(typeRepository, List.of(initialState.get(i))));
-                    }
-                }
-                return childAccumulatorsBuilder.build();
+            if (initialState != null) {
+                Verify.verify(initialState.size() == childrenAsList.size());
             }
 
-            @Nonnull
-            @Override
-            public List<RecordCursorProto.AccumulatorState> getAccumulatorStates() {
-                List<RecordCursorProto.AccumulatorState> accumulatorStates = new ArrayList<>();
-                for (Accumulator accumulator: childAccumulators) {
-                    accumulatorStates.addAll(accumulator.getAccumulatorStates());
+            for (int i = 0; i < childrenAsList.size(); i++) {
+                Verify.verify(childrenAsList.get(i) instanceof AggregateValue);
+                if (initialState == null) {
+                    childAccumulatorsBuilder.add(((AggregateValue)childrenAsList.get(i)).createAccumulatorWithInitialState(typeRepository, null));
+                } else {
+                    childAccumulatorsBuilder.add(((AggregateValue)childrenAsList.get(i)).createAccumulatorWithInitialState(typeRepository, List.of(initialState.get(i))));
                 }
-                return accumulatorStates;
             }
-        };
+            return childAccumulatorsBuilder.build();
+        }
+
+        @Nonnull
+        @Override
+        public List<RecordCursorProto.AccumulatorState> getAccumulatorStates() {
+            List<RecordCursorProto.AccumulatorState> accumulatorStates = new ArrayList<>();
+            for (Accumulator accumulator: childAccumulators) {
+                accumulatorStates.addAll(accumulator.getAccumulatorStates());
+            }
+            return accumulatorStates;
+        }
     }
 
     @Nonnull
@@ -28,6 +28,7 @@ import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.logging.LogMessageKeys;
 import com.apple.foundationdb.record.metadata.RecordType;
 import com.apple.foundationdb.record.planprotos.PQueryResult;
+import com.apple.foundationdb.record.provider.common.LazyDynamicMessage;
 import com.apple.foundationdb.record.provider.foundationdb.FDBQueriedRecord;
 import com.apple.foundationdb.record.query.plan.cascades.typing.PseudoField;
 import com.apple.foundationdb.record.query.plan.cascades.typing.Type;
@@ -259,10 +260,14 @@ public class QueryResult implements ProtoSerializable {
         }
 
         final TypeRepository typeRepository = evaluationContext.getTypeRepository();
+        final Message record = queriedRecord.getRecord();
         final Message datum;
         if (!typeRepository.containsType(resultType) || !(resultType instanceof Type.Record)) {
             // Type not in repository. Just return underlying queriedRecord
-            datum = queriedRecord.getRecord();
+            datum = record;
+        } else if (record instanceof LazyDynamicMessage && !hasApplicablePseudoField((Type.Record)resultType, record)) {
+            // Copying would decode all fields of a record that was only partially decoded, so just change its type
+            datum = ((LazyDynamicMessage)record).asType(Objects.requireNonNull(typeRepository.getMessageDescriptor(resultType)));
         } else {
             // Copy over data from the underlying message
             final Message.Builder builder = Objects.requireNonNull(typeRepository.newMessageBuilder(resultType));
@@ -280,6 +285,15 @@ public class QueryResult implements ProtoSerializable {
         return new QueryResult(datum, queriedRecord, queriedRecord.getPrimaryKey());
     }
 
+    private static boolean hasApplicablePseudoField(@Nonnull Type.Record resultType, @Nonnull Message record) {
+        for (PseudoField pseudoField : PseudoField.values()) {
+            if (pseudoField.isApplicable(resultType, record.getDescriptorForType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Nonnull
     @Override
     public PQueryResult toProto() {
@@ -319,10 +319,10 @@ public class RecordQueryFetchFromPartialRecordPlan extends AbstractRelationalExp
             public <M extends Message> RecordCursor<FDBQueriedRecord<M>> fetchIndexRecords(@Nonnull final FDBRecordStoreBase<M> store,
                                                                                            @Nonnull final RecordCursor<IndexEntry> entryRecordCursor,
                                                                                            @Nonnull final ExecuteProperties executeProperties) {
-                return entryRecordCursor.mapPipelined(
+                return store.mapPipelined(entryRecordCursor,
                         indexEntry -> store.loadSyntheticRecord(indexEntry.getPrimaryKey())
                                 .thenApply(syntheticRecord -> FDBQueriedRecord.synthetic(indexEntry.getIndex(), indexEntry, syntheticRecord)),
-                        store.getPipelineSize(PipelineOperation.INDEX_TO_RECORD));
+                        PipelineOperation.INDEX_TO_RECORD);
             }
         });
 
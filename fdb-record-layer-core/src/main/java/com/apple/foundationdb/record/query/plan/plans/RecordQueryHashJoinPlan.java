@@ -0,0 +1,432 @@
+/*
+ * RecordQueryHashJoinPlan.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.query.plan.plans;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.Bindings;
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.ObjectPlanHash;
+import com.apple.foundationdb.record.PlanDeserializer;
+import com.apple.foundationdb.record.PlanHashable;
+import com.apple.foundationdb.record.PlanSerializationContext;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.cursors.HashJoinCursor;
+import com.apple.foundationdb.record.planprotos.PRecordQueryHashJoinPlan;
+import com.apple.foundationdb.record.planprotos.PRecordQueryPlan;
+import com.apple.foundationdb.record.planprotos.PValue;
+import com.apple.foundationdb.record.provider.common.StoreTimer;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStoreBase;
+import com.apple.foundationdb.record.query.plan.AvailableFields;
+import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
+import com.apple.foundationdb.record.query.plan.cascades.CorrelationIdentifier;
+import com.apple.foundationdb.record.query.plan.cascades.FinalMemoizer;
+import com.apple.foundationdb.record.query.plan.cascades.Quantifier;
+import com.apple.foundationdb.record.query.plan.cascades.Quantifiers;
+import com.apple.foundationdb.record.query.plan.cascades.explain.Attribute;
+import com.apple.foundationdb.record.query.plan.cascades.explain.ExplainPlanVisitor;
+import com.apple.foundationdb.record.query.plan.cascades.explain.NodeInfo;
+import com.apple.foundationdb.record.query.plan.cascades.explain.PlannerGraph;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.AbstractRelationalExpressionWithChildren;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.RelationalExpression;
+import com.apple.foundationdb.record.query.plan.cascades.values.Value;
+import com.apple.foundationdb.record.query.plan.cascades.values.translation.TranslationMap;
+import com.google.auto.service.AutoService;
+import com.google.common.base.Verify;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Streams;
+import com.google.protobuf.Message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@code HASH JOIN} plan node. {@code HASH JOIN} implements inner equi-joins between a “driving” outer plan and an
+ * inner plan that is not correlated to the outer plan. The inner plan is executed once and its rows are put into an
+ * in-memory hash table keyed by the {@link #buildKeyValues}. Each row of the outer plan is then matched against that
+ * table using the {@link #probeKeyValues}, and the outer and inner rows are combined by applying the
+ * {@link #resultValue} expression. Rows whose key contains a {@code null} do not match any row.
+ *
+ * <p>
+ * If the inner plan produces more than {@link #maxBuildSideRows} rows, the plan reverts to executing the inner plan
+ * once per outer row, like a {@link RecordQueryFlatMapPlan} with the join predicates applied to the inner, so memory
+ * use stays bounded. See {@link HashJoinCursor} for details.
+ * </p>
+ */
+@API(API.Status.EXPERIMENTAL)
+public class RecordQueryHashJoinPlan extends AbstractRelationalExpressionWithChildren implements RecordQueryPlanWithChildren {
+    private static final ObjectPlanHash BASE_HASH = new ObjectPlanHash("Record-Query-Hash-Join-Plan");
+
+    /**
+     * The number of outer rows to work ahead.
+     */
+    private static final int PIPELINE_SIZE = 5;
+
+    /**
+     * The outer (probe side) plan.
+     */
+    @Nonnull
+    private final Quantifier.Physical outerQuantifier;
+
+    /**
+     * The inner (build side) plan that is executed once.
+     */
+    @Nonnull
+    private final Quantifier.Physical innerQuantifier;
+
+    /**
+     * The join key of an outer row. It is evaluated in a context where the outer quantifier alias is bound.
+     */
+    @Nonnull
+    private final List<Value> probeKeyValues;
+
+    /**
+     * The join key of an inner row. It is evaluated in a context where the inner quantifier alias is bound.
+     */
+    @Nonnull
+    private final List<Value> buildKeyValues;
+
+    /**
+     * A value expression that produces the final output tuple. It is evaluated in a context where both the outer and
+     * inner quantifier aliases are bound.
+     */
+    @Nonnull
+    private final Value resultValue;
+
+    /**
+     * The maximum number of inner rows to hold in memory.
+     */
+    private final int maxBuildSideRows;
+
+    public RecordQueryHashJoinPlan(@Nonnull final Quantifier.Physical outerQuantifier,
+                                   @Nonnull final Quantifier.Physical innerQuantifier,
+                                   @Nonnull final List<? extends Value> probeKeyValues,
+                                   @Nonnull final List<? extends Value> buildKeyValues,
+                                   @Nonnull final Value resultValue,
+                                   final int maxBuildSideRows) {
+        Verify.verify(probeKeyValues.size() == buildKeyValues.size());
+        this.outerQuantifier = outerQuantifier;
+        this.innerQuantifier = innerQuantifier;
+        this.probeKeyValues = ImmutableList.copyOf(probeKeyValues);
+        this.buildKeyValues = ImmutableList.copyOf(buildKeyValues);
+        this.resultValue = resultValue;
+        this.maxBuildSideRows = maxBuildSideRows;
+    }
+
+    @Nonnull
+    public Quantifier.Physical getOuterQuantifier() {
+        return outerQuantifier;
+    }
+
+    @Nonnull
+    public Quantifier.Physical getInnerQuantifier() {
+        return innerQuantifier;
+    }
+
+    @Nonnull
+    public List<Value> getProbeKeyValues() {
+        return probeKeyValues;
+    }
+
+    @Nonnull
+    public List<Value> getBuildKeyValues() {
+        return buildKeyValues;
+    }
+
+    public int getMaxBuildSideRows() {
+        return maxBuildSideRows;
+    }
+
+    @SuppressWarnings("resource")
+    @Nonnull
+    @Override
+    public <M extends Message> RecordCursor<QueryResult> executePlan(@Nonnull final FDBRecordStoreBase<M> store,
+                                                                     @Nonnull final EvaluationContext context,
+                                                                     @Nullable final byte[] continuation,
+                                                                     @Nonnull final ExecuteProperties executeProperties) {
+        final var nestedExecuteProperties = executeProperties.clearSkipAndLimit();
+        return new HashJoinCursor<QueryResult, QueryResult, List<Object>, QueryResult>(
+                outerContinuation ->
+                        outerQuantifier.getRangesOverPlan().executePlan(store, context, outerContinuation, nestedExecuteProperties),
+                innerContinuation ->
+                        innerQuantifier.getRangesOverPlan().executePlan(store, context, innerContinuation, nestedExecuteProperties),
+                outerResult -> evaluateJoinKey(store,
+                        context.withBinding(Bindings.Internal.CORRELATION, outerQuantifier.getAlias(), outerResult), probeKeyValues),
+                innerResult -> evaluateJoinKey(store,
+                        context.withBinding(Bindings.Internal.CORRELATION, innerQuantifier.getAlias(), innerResult), buildKeyValues),
+                (outerResult, innerResult) -> {
+                    final EvaluationContext nestedContext = context
+                            .withBinding(Bindings.Internal.CORRELATION, outerQuantifier.getAlias(), outerResult)
+                            .withBinding(Bindings.Internal.CORRELATION, innerQuantifier.getAlias(), innerResult);
+                    return QueryResult.ofComputed(resultValue.eval(store, nestedContext));
+                },
+                maxBuildSideRows,
+                PIPELINE_SIZE,
+                store.getExecutor(),
+                continuation).skipThenLimit(executeProperties.getSkip(), executeProperties.getReturnedRowLimit());
+    }
+
+    @Nullable
+    private static <M extends Message> List<Object> evaluateJoinKey(@Nonnull final FDBRecordStoreBase<M> store,
+                                                                    @Nonnull final EvaluationContext context,
+                                                                    @Nonnull final List<Value> keyValues) {
+        final List<Object> key = new ArrayList<>(keyValues.size());
+        for (final Value keyValue : keyValues) {
+            final Object keyComponent = keyValue.eval(store, context);
+            if (keyComponent == null) {
+                // null is not equal to anything, including null
+                return null;
+            }
+            key.add(keyComponent);
+        }
+        return key;
+    }
+
+    @Override
+    public int getRelationalChildCount() {
+        return 2;
+    }
+
+    @Override
+    public boolean canCorrelate() {
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public List<RecordQueryPlan> getChildren() {
+        return ImmutableList.of(outerQuantifier.getRangesOverPlan(), innerQuantifier.getRangesOverPlan());
+    }
+
+    @Nonnull
+    @Override
+    public AvailableFields getAvailableFields() {
+        return AvailableFields.NO_FIELDS;
+    }
+
+    @Nonnull
+    @Override
+    public Set<CorrelationIdentifier> computeCorrelatedToWithoutChildren() {
+        final ImmutableSet.Builder<CorrelationIdentifier> builder = ImmutableSet.builder();
+        probeKeyValues.forEach(value -> builder.addAll(value.getCorrelatedTo()));
+        buildKeyValues.forEach(value -> builder.addAll(value.getCorrelatedTo()));
+        builder.addAll(resultValue.getCorrelatedTo());
+        return builder.build();
+    }
+
+    @Nonnull
+    @Override
+    public RecordQueryHashJoinPlan translateCorrelations(@Nonnull final TranslationMap translationMap,
+                                                        final boolean shouldSimplifyValues,
+                                                        @Nonnull final List<? extends Quantifier> translatedQuantifiers) {
+        Verify.verify(translatedQuantifiers.size() == 2);
+        return new RecordQueryHashJoinPlan(translatedQuantifiers.get(0).narrow(Quantifier.Physical.class),
+                translatedQuantifiers.get(1).narrow(Quantifier.Physical.class),
+                translateKeyValues(probeKeyValues, translationMap, shouldSimplifyValues),
+                translateKeyValues(buildKeyValues, translationMap, shouldSimplifyValues),
+                resultValue.translateCorrelations(translationMap, shouldSimplifyValues),
+                maxBuildSideRows);
+    }
+
+    @Nonnull
+    private static List<Value> translateKeyValues(@Nonnull final List<Value> keyValues,
+                                                  @Nonnull final TranslationMap translationMap,
+                                                  final boolean shouldSimplifyValues) {
+        return keyValues.stream()
+                .map(keyValue -> keyValue.translateCorrelations(translationMap, shouldSimplifyValues))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public boolean isReverse() {
+        return Quantifiers.isReversed(Quantifiers.narrow(Quantifier.Physical.class, getQuantifiers()));
+    }
+
+    @Override
+    public RecordQueryHashJoinPlan strictlySorted(@Nonnull FinalMemoizer memoizer) {
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Value getResultValue() {
+        return resultValue;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        return ExplainPlanVisitor.toStringForDebugging(this);
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public boolean equalsWithoutChildren(@Nonnull RelationalExpression otherExpression,
+                                         @Nonnull final AliasMap aliasMap) {
+        if (this == otherExpression) {
+            return true;
+        }
+        if (getClass() != otherExpression.getClass()) {
+            return false;
+        }
+        final var otherHashJoinPlan = (RecordQueryHashJoinPlan)otherExpression;
+        if (maxBuildSideRows != otherHashJoinPlan.getMaxBuildSideRows() ||
+                probeKeyValues.size() != otherHashJoinPlan.getProbeKeyValues().size()) {
+            return false;
+        }
+        if (!Streams.zip(probeKeyValues.stream(), otherHashJoinPlan.getProbeKeyValues().stream(),
+                (value, otherValue) -> value.semanticEquals(otherValue, aliasMap)).allMatch(isSame -> isSame)) {
+            return false;
+        }
+        if (!Streams.zip(buildKeyValues.stream(), otherHashJoinPlan.getBuildKeyValues().stream(),
+                (value, otherValue) -> value.semanticEquals(otherValue, aliasMap)).allMatch(isSame -> isSame)) {
+            return false;
+        }
+        return semanticEqualsForResults(otherExpression, aliasMap);
+    }
+
+    @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+    @Override
+    public boolean equals(final Object other) {
+        return structuralEquals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return structuralHashCode();
+    }
+
+    @Override
+    public int computeHashCodeWithoutChildren() {
+        return Objects.hash(probeKeyValues, buildKeyValues, getResultValue(), maxBuildSideRows);
+    }
+
+    @Override
+    public void logPlanStructure(StoreTimer timer) {
+        // nothing to increment
+    }
+
+    @Override
+    public int getComplexity() {
+        return outerQuantifier.getRangesOverPlan().getComplexity() + innerQuantifier.getRangesOverPlan().getComplexity();
+    }
+
+    @Override
+    public int planHash(@Nonnull final PlanHashMode mode) {
+        switch (mode.getKind()) {
+            case LEGACY:
+            case FOR_CONTINUATION:
+                return PlanHashable.objectsPlanHash(mode, BASE_HASH, getChildren(), probeKeyValues, buildKeyValues, getResultValue(),
+                        maxBuildSideRows);
+            default:
+                throw new UnsupportedOperationException("Hash kind " + mode.name() + " is not supported");
+        }
+    }
+
+    @Nonnull
+    @Override
+    public List<? extends Quantifier> getQuantifiers() {
+        return ImmutableList.of(outerQuantifier, innerQuantifier);
+    }
+
+    @Nonnull
+    @Override
+    public PlannerGraph rewritePlannerGraph(@Nonnull final List<? extends PlannerGraph> childGraphs) {
+        return PlannerGraph.fromNodeAndChildGraphs(
+                new PlannerGraph.OperatorNodeWithInfo(this,
+                        NodeInfo.HASH_JOIN_OPERATOR,
+                        ImmutableList.of("HASH JOIN ON {{probeKey}} = {{buildKey}}", "RETURN {{expr}}"),
+                        ImmutableMap.of("probeKey", Attribute.gml(probeKeyValues.toString()),
+                                "buildKey", Attribute.gml(buildKeyValues.toString()),
+                                "expr", Attribute.gml(getResultValue().toString()))),
+                childGraphs,
+                getQuantifiers());
+    }
+
+    @Nonnull
+    @Override
+    public PRecordQueryHashJoinPlan toProto(@Nonnull final PlanSerializationContext serializationContext) {
+        final PRecordQueryHashJoinPlan.Builder builder = PRecordQueryHashJoinPlan.newBuilder()
+                .setOuterQuantifier(outerQuantifier.toProto(serializationContext))
+                .setInnerQuantifier(innerQuantifier.toProto(serializationContext));
+        for (final Value probeKeyValue : probeKeyValues) {
+            builder.addProbeKeyValues(probeKeyValue.toValueProto(serializationContext));
+        }
+        for (final Value buildKeyValue : buildKeyValues) {
+            builder.addBuildKeyValues(buildKeyValue.toValueProto(serializationContext));
+        }
+        return builder.setResultValue(resultValue.toValueProto(serializationContext))
+                .setMaxBuildSideRows(maxBuildSideRows)
+                .build();
+    }
+
+    @Nonnull
+    @Override
+    public PRecordQueryPlan toRecordQueryPlanProto(@Nonnull final PlanSerializationContext serializationContext) {
+        return PRecordQueryPlan.newBuilder().setHashJoinPlan(toProto(serializationContext)).build();
+    }
+
+    @Nonnull
+    public static RecordQueryHashJoinPlan fromProto(@Nonnull final PlanSerializationContext serializationContext,
+                                                    @Nonnull final PRecordQueryHashJoinPlan recordQueryHashJoinPlanProto) {
+        final Quantifier.Physical outerQuantifier = Quantifier.Physical.fromProto(serializationContext, Objects.requireNonNull(recordQueryHashJoinPlanProto.getOuterQuantifier()));
+        final Quantifier.Physical innerQuantifier = Quantifier.Physical.fromProto(serializationContext, Objects.requireNonNull(recordQueryHashJoinPlanProto.getInnerQuantifier()));
+        final ImmutableList.Builder<Value> probeKeyValuesBuilder = ImmutableList.builder();
+        for (final PValue probeKeyValueProto : recordQueryHashJoinPlanProto.getProbeKeyValuesList()) {
+            probeKeyValuesBuilder.add(Value.fromValueProto(serializationContext, probeKeyValueProto));
+        }
+        final ImmutableList.Builder<Value> buildKeyValuesBuilder = ImmutableList.builder();
+        for (final PValue buildKeyValueProto : recordQueryHashJoinPlanProto.getBuildKeyValuesList()) {
+            buildKeyValuesBuilder.add(Value.fromValueProto(serializationContext, buildKeyValueProto));
+        }
+        return new RecordQueryHashJoinPlan(outerQuantifier,
+                innerQuantifier,
+                probeKeyValuesBuilder.build(),
+                buildKeyValuesBuilder.build(),
+                Value.fromValueProto(serializationContext, Objects.requireNonNull(recordQueryHashJoinPlanProto.getResultValue())),
+                recordQueryHashJoinPlanProto.getMaxBuildSideRows());
+    }
+
+    /**
+     * Deserializer.
+     */
+    @AutoService(PlanDeserializer.class)
+    public static class Deserializer implements PlanDeserializer<PRecordQueryHashJoinPlan, RecordQueryHashJoinPlan> {
+        @Nonnull
+        @Override
+        public Class<PRecordQueryHashJoinPlan> getProtoMessageClass() {
+            return PRecordQueryHashJoinPlan.class;
+        }
+
+        @Nonnull
+        @Override
+        public RecordQueryHashJoinPlan fromProto(@Nonnull final PlanSerializationContext serializationContext,
+                                                 @Nonnull final PRecordQueryHashJoinPlan recordQueryHashJoinPlanProto) {
+            return RecordQueryHashJoinPlan.fromProto(serializationContext, recordQueryHashJoinPlanProto);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import com.apple.foundationdb.record.cursors.FallbackCursor;
 import com.apple.foundationdb.record.logging.KeyValueLogMessage;
 import com.apple.foundationdb.record.logging.LogMessageKeys;
 import com.apple.foundationdb.record.metadata.Index;
+import com.apple.foundationdb.record.metadata.IndexTypes;
 import com.apple.foundationdb.record.metadata.expressions.KeyExpression;
 import com.apple.foundationdb.record.planprotos.PRecordQueryIndexPlan;
 import com.apple.foundationdb.record.planprotos.PRecordQueryPlan;
@@ -60,6 +61,7 @@ import com.apple.foundationdb.record.provider.foundationdb.IndexScanRange;
 import com.apple.foundationdb.record.provider.foundationdb.KeyValueCursorBase;
 import com.apple.foundationdb.record.provider.foundationdb.MultidimensionalIndexScanComparisons;
 import com.apple.foundationdb.record.provider.foundationdb.UnsupportedRemoteFetchIndexException;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor;
 import com.apple.foundationdb.record.query.plan.AvailableFields;
 import com.apple.foundationdb.record.query.plan.QueryPlanConstraint;
 import com.apple.foundationdb.record.query.plan.ScanComparisons;
@@ -324,6 +326,13 @@ public class RecordQueryIndexPlan extends AbstractRelationalExpressionWithoutChi
         final RecordMetaData metaData = store.getRecordMetaData();
         final Index index = metaData.getIndex(indexName);
         final IndexScanBounds scanBounds = scanParameters.bind(store, index, context);
+        if (executeProperties.getScanParallelism() > 1 && IndexScanType.BY_VALUE.equals(getScanType())
+                && IndexTypes.VALUE.equals(index.getType()) && scanBounds instanceof IndexScanRange) {
+            // parents may depend on the index order, so the segments are returned in order
+            return store.scanIndexInParallel(index, ((IndexScanRange)scanBounds).getScanRange(), continuation,
+                    executeProperties.asScanProperties(reverse), executeProperties.getScanParallelism(), true);
+        }
+        ParallelScanCursor.checkSerialContinuation(continuation);
         if (!IndexScanType.BY_VALUE_OVER_SCAN.equals(getScanType())) {
             return store.scanIndex(index, scanBounds, continuation, executeProperties.asScanProperties(reverse));
         }
@@ -29,13 +29,16 @@ import com.apple.foundationdb.record.PlanHashable;
 import com.apple.foundationdb.record.PlanSerializationContext;
 import com.apple.foundationdb.record.RecordCursor;
 import com.apple.foundationdb.record.RecordMetaData;
+import com.apple.foundationdb.record.ScanProperties;
 import com.apple.foundationdb.record.TupleRange;
 import com.apple.foundationdb.record.metadata.expressions.KeyExpression;
 import com.apple.foundationdb.record.planprotos.PRecordQueryPlan;
 import com.apple.foundationdb.record.planprotos.PRecordQueryScanPlan;
 import com.apple.foundationdb.record.provider.common.StoreTimer;
 import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStoreBase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecord;
 import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor;
 import com.apple.foundationdb.record.query.plan.AvailableFields;
 import com.apple.foundationdb.record.query.plan.ScanComparisons;
 import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
@@ -100,6 +103,8 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
     private final boolean strictlySorted;
     @Nonnull
     private final Optional<? extends WithPrimaryKeyMatchCandidate> matchCandidateOptional;
+    @Nullable
+    private final Set<String> projectedFields;
     @Nonnull
     private final Supplier<ComparisonRanges> comparisonRangesSupplier;
 
@@ -170,6 +175,30 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
                                boolean reverse,
                                boolean strictlySorted,
                                @Nonnull final Optional<? extends WithPrimaryKeyMatchCandidate> matchCandidateOptional) {
+        this(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse, strictlySorted, matchCandidateOptional, null);
+    }
+
+    /**
+     * Overloaded constructor.
+     * @param recordTypes a super set of record types of the records that this scan operator can produce
+     * @param flowedType type of scan elements
+     * @param commonPrimaryKey primary key of scanned records
+     * @param comparisons comparisons to be applied by the operator
+     * @param reverse indicator whether this scan is reverse
+     * @param strictlySorted whether scan is strictly sorted for original query
+     * @param matchCandidateOptional a match candidate optional that if not empty contains the match candidate that was
+     *        matched and resulted in this scan plan
+     * @param projectedFields the names of the only top-level fields that the consumers of this scan look at or
+     *        {@code null} if they may look at any field, see {@link ScanProperties#setProjectedFields(Set)}
+     */
+    public RecordQueryScanPlan(@Nullable Set<String> recordTypes,
+                               @Nonnull Type flowedType,
+                               @Nullable KeyExpression commonPrimaryKey,
+                               @Nonnull ScanComparisons comparisons,
+                               boolean reverse,
+                               boolean strictlySorted,
+                               @Nonnull final Optional<? extends WithPrimaryKeyMatchCandidate> matchCandidateOptional,
+                               @Nullable final Set<String> projectedFields) {
         this.recordTypes = recordTypes == null ? null : ImmutableSet.copyOf(recordTypes);
         this.flowedType = flowedType;
         this.commonPrimaryKey = commonPrimaryKey;
@@ -177,6 +206,7 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
         this.reverse = reverse;
         this.strictlySorted = strictlySorted;
         this.matchCandidateOptional = matchCandidateOptional;
+        this.projectedFields = projectedFields == null ? null : ImmutableSet.copyOf(projectedFields);
         this.comparisonRangesSupplier = Suppliers.memoize(this::computeComparisonRanges);
     }
 
@@ -188,9 +218,19 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
                                                                      @Nullable final byte[] continuation,
                                                                      @Nonnull final ExecuteProperties executeProperties) {
         final TupleRange range = comparisons.toTupleRange(store, context);
-        return store.scanRecords(
-                range.getLow(), range.getHigh(), range.getLowEndpoint(), range.getHighEndpoint(), continuation,
-                executeProperties.asScanProperties(reverse))
+        final ScanProperties scanProperties = executeProperties.asScanProperties(reverse).setProjectedFields(projectedFields);
+        final RecordCursor<FDBStoredRecord<M>> records;
+        if (executeProperties.getScanParallelism() > 1) {
+            // parents may depend on the primary key order, so the segments are returned in order
+            records = store.scanRecordsInParallel(range, continuation, scanProperties,
+                    executeProperties.getScanParallelism(), true);
+        } else {
+            ParallelScanCursor.checkSerialContinuation(continuation);
+            records = store.scanRecords(
+                    range.getLow(), range.getHigh(), range.getLowEndpoint(), range.getHighEndpoint(), continuation,
+                    scanProperties);
+        }
+        return records
                 .map(store::queriedRecord)
                 // Copy the queried record into a query result. This _may_ enrich the type with pseudo-fields if there
                 // is a single returned record type. Otherwise, the flowedType will be an AnyRecord, and it is up to
@@ -208,6 +248,16 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
         return commonPrimaryKey;
     }
 
+    /**
+     * Get the top-level fields of the scanned records that the consumers of this scan look at. Only these are
+     * decoded up front, if the record serializer of the store supports that.
+     * @return the names of the projected fields or {@code null} if all fields may be looked at
+     */
+    @Nullable
+    public Set<String> getProjectedFields() {
+        return projectedFields;
+    }
+
     @Nonnull
     @Override
     public ScanComparisons getScanComparisons() {
@@ -269,7 +319,8 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
 
     @Override
     public RecordQueryScanPlan strictlySorted(@Nonnull FinalMemoizer memoizer) {
-        return new RecordQueryScanPlan(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse, true, matchCandidateOptional);
+        return new RecordQueryScanPlan(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse, true, matchCandidateOptional,
+                projectedFields);
     }
 
     @Nonnull
@@ -323,7 +374,8 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
                 translatedComparisons,
                 reverse,
                 strictlySorted,
-                matchCandidateOptional);
+                matchCandidateOptional,
+                projectedFields);
     }
 
     @Override
@@ -336,7 +388,7 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
     public RecordQueryPlan minimize(@Nonnull final List<Quantifier.Physical> newQuantifiers) {
         Verify.verify(newQuantifiers.isEmpty());
         return new RecordQueryScanPlan(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse, strictlySorted,
-                Optional.empty());
+                Optional.empty(), projectedFields);
     }
 
     @Nonnull
@@ -360,7 +412,8 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
                flowedType.equals(otherExpression.getResultValue().getResultType()) &&
                Objects.equals(commonPrimaryKey, that.commonPrimaryKey) &&
                reverse == that.reverse &&
-               Objects.equals(comparisons, that.comparisons);
+               Objects.equals(comparisons, that.comparisons) &&
+               Objects.equals(projectedFields, that.projectedFields);
     }
 
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
@@ -376,7 +429,7 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
 
     @Override
     public int computeHashCodeWithoutChildren() {
-        return Objects.hash(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse);
+        return Objects.hash(recordTypes, flowedType, commonPrimaryKey, comparisons, reverse, projectedFields);
     }
 
     @Override
@@ -535,6 +588,10 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
         builder.setComparisons(comparisons.toProto(serializationContext));
         builder.setReverse(reverse);
         builder.setStrictlySorted(strictlySorted);
+        builder.setHasProjectedFields(projectedFields != null);
+        if (projectedFields != null) {
+            builder.addAllProjectedFields(projectedFields);
+        }
         return builder.build();
     }
 
@@ -566,13 +623,20 @@ public class RecordQueryScanPlan extends AbstractRelationalExpressionWithoutChil
         } else {
             commonPrimaryKey = null;
         }
+        final Set<String> projectedFields;
+        if (recordQueryScanPlanProto.getHasProjectedFields()) {
+            projectedFields = ImmutableSet.copyOf(recordQueryScanPlanProto.getProjectedFieldsList());
+        } else {
+            projectedFields = null;
+        }
         return new RecordQueryScanPlan(recordTypes,
                 Type.fromTypeProto(serializationContext, Objects.requireNonNull(recordQueryScanPlanProto.getFlowedType())),
                 commonPrimaryKey,
                 ScanComparisons.fromProto(serializationContext, Objects.requireNonNull(recordQueryScanPlanProto.getComparisons())),
                 recordQueryScanPlanProto.getReverse(),
                 recordQueryScanPlanProto.getStrictlySorted(),
-                Optional.empty());
+                Optional.empty(),
+                projectedFields);
     }
 
     /**
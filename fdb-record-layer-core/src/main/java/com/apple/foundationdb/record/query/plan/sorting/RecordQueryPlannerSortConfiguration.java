@@ -61,6 +61,21 @@ public class RecordQueryPlannerSortConfiguration {
         return proto.getShouldAllowNonIndexSort();
     }
 
+    /**
+     * Get whether sorts that do not fit in memory should write their files in a format that is read through
+     * memory-mapped windows. Such files are merged without decoding every record through a stream, which is much
+     * faster for large sorts, but they are neither compressed nor encrypted.
+     *
+     * This method returns {@code false} unless set in the configuration proto.
+     *
+     * A subclass can override this method to use more complex criteria to decide.
+     * @return whether to use memory-mapped sort files
+     * @see com.apple.foundationdb.record.sorting.FileSortAdapter#isMemoryMapped
+     */
+    public boolean shouldUseMemoryMappedFiles() {
+        return proto.getShouldUseMemoryMappedFiles();
+    }
+
     @Nonnull
     public RecordPlannerConfigurationProto.PlannerConfiguration.SortConfiguration toProto() {
         return proto;
@@ -78,7 +93,7 @@ public class RecordQueryPlannerSortConfiguration {
      */
     @Nonnull
     public RecordQuerySortKey getSortKey(@Nonnull KeyExpression key, boolean reverse) {
-        return new RecordQuerySortKey(key, reverse);
+        return new RecordQuerySortKey(key, reverse, shouldUseMemoryMappedFiles());
     }
 
     @Nonnull
@@ -181,20 +181,28 @@ public class RecordQuerySortAdapter<M extends Message> implements FileSortAdapte
         return DEFAULT_RECORD_COUNT_PER_SECTION;
     }
 
+    @Override
+    public boolean isMemoryMapped() {
+        return key.isMemoryMapped();
+    }
+
     @Override
     public boolean isCompressed() {
-        return true;
+        return !isMemoryMapped();
     }
 
     @Nullable
     @Override
     public String getEncryptionCipherName() {
-        return CipherPool.DEFAULT_CIPHER;
+        return isMemoryMapped() ? null : CipherPool.DEFAULT_CIPHER;
     }
 
     @Nullable
     @Override
     public synchronized Key getEncryptionKey() {
+        if (isMemoryMapped()) {
+            return null;
+        }
         if (encryptionKey == null) {
             try {
                 final KeyGenerator keyGen = KeyGenerator.getInstance("AES");
@@ -46,10 +46,16 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
     @Nonnull
     private final KeyExpression key;
     private final boolean reverse;
+    private final boolean memoryMapped;
 
     public RecordQuerySortKey(@Nonnull final KeyExpression key, final boolean reverse) {
+        this(key, reverse, false);
+    }
+
+    public RecordQuerySortKey(@Nonnull final KeyExpression key, final boolean reverse, final boolean memoryMapped) {
         this.key = key;
         this.reverse = reverse;
+        this.memoryMapped = memoryMapped;
     }
 
     @Nonnull
@@ -61,6 +67,15 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
         return reverse;
     }
 
+    /**
+     * Get whether a sort that does not fit in memory should use memory-mapped files.
+     * @return {@code true} if sort files are memory-mapped
+     * @see RecordQueryPlannerSortConfiguration#shouldUseMemoryMappedFiles()
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
     /**
      * Get a sort adapter used for a single invocation of a plan using this key.
      * The adapter will have a unique encryption key.
@@ -93,6 +108,10 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
 
     @Override
     public int planHash(@Nonnull final PlanHashMode mode) {
+        if (memoryMapped) {
+            // The files referenced by a continuation must be read in the format in which they were written.
+            return PlanHashable.objectsPlanHash(mode, BASE_HASH, key, reverse, memoryMapped);
+        }
         return PlanHashable.objectsPlanHash(mode, BASE_HASH, key, reverse);
     }
 
@@ -112,7 +131,7 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
 
         final RecordQuerySortKey that = (RecordQuerySortKey)o;
 
-        if (reverse != that.reverse) {
+        if (reverse != that.reverse || memoryMapped != that.memoryMapped) {
             return false;
         }
         return key.equals(that.key);
@@ -122,13 +141,18 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
     public int hashCode() {
         int result = key.hashCode();
         result = 31 * result + (reverse ? 1 : 0);
+        result = 31 * result + (memoryMapped ? 1 : 0);
         return result;
     }
 
     @Nonnull
     @Override
     public PRecordQuerySortKey toProto(@Nonnull final PlanSerializationContext serializationContext) {
-        return PRecordQuerySortKey.newBuilder().setKey(key.toKeyExpression()).setReverse(reverse).build();
+        final PRecordQuerySortKey.Builder builder = PRecordQuerySortKey.newBuilder().setKey(key.toKeyExpression()).setReverse(reverse);
+        if (memoryMapped) {
+            builder.setMemoryMapped(true);
+        }
+        return builder.build();
     }
 
     @Nonnull
@@ -137,6 +161,6 @@ public class RecordQuerySortKey implements PlanHashable, PlanSerializable {
                                                @Nonnull final PRecordQuerySortKey recordQuerySortKeyProto) {
         Verify.verify(recordQuerySortKeyProto.hasReverse());
         return new RecordQuerySortKey(KeyExpression.fromProto(Objects.requireNonNull(recordQuerySortKeyProto.getKey())),
-                recordQuerySortKeyProto.getReverse());
+                recordQuerySortKeyProto.getReverse(), recordQuerySortKeyProto.getMemoryMapped());
     }
 }
@@ -94,6 +94,17 @@ public interface FileSortAdapter<K, V> extends MemorySortAdapter<K, V> {
 
     // TODO: Limit on number of records total?
 
+    /**
+     * Get whether files should be written in the format that is read through memory-mapped windows, rather than
+     * through streams. This is faster for large sorts, especially when many files need to be merged, but the files
+     * cannot be compressed or encrypted, so {@link #isCompressed()} must be {@code false} and
+     * {@link #getEncryptionKey()} must be {@code null} when this is {@code true}.
+     * @return {@code true} if files are memory-mapped
+     */
+    default boolean isMemoryMapped() {
+        return false;
+    }
+
     /**
      * Get whether files should be compressed.
      * @return {@code true} if files are compressed
@@ -64,7 +64,7 @@ public class FileSortCursor<K, V> implements RecordCursor<V> {
     private int inMemoryPosition;
     @Nullable
     private K minimumKey;
-    private SortedFileReader<V> fileReader;
+    private SortedValueReader<V> fileReader;
     private boolean closed;
 
     private FileSortCursor(@Nonnull FileSortAdapter<K, V> adapter, @Nonnull FileSorter<K, V> sorter,
@@ -111,7 +111,11 @@ public class FileSortCursor<K, V> implements RecordCursor<V> {
                 throw new RecordCoreException("sort loading did not produce exactly one file");
             }
             try {
-                fileReader = new SortedFileReader<>(sorter.getFiles().get(0), adapter, timer, skip, limit);
+                if (adapter.isMemoryMapped()) {
+                    fileReader = new MappedSortedFileReader<>(sorter.getFiles().get(0), adapter, timer, skip, limit);
+                } else {
+                    fileReader = new SortedFileReader<>(sorter.getFiles().get(0), adapter, timer, skip, limit);
+                }
             } catch (IOException | GeneralSecurityException ex) {
                 throw new RecordCoreException(ex);
             }
@@ -160,6 +164,9 @@ public class FileSortCursor<K, V> implements RecordCursor<V> {
         // TODO: For now, delete the sort file.
         //  In the future, it should be possible to save a query result to a file and open multiple cursors on that same file to page through the results.
         try {
+            if (fileReader != null) {
+                fileReader.close();
+            }
             sorter.deleteFiles();
         } catch (IOException ex) {
             throw new RecordCoreException(ex);
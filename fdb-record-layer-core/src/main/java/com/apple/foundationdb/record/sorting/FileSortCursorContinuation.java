@@ -90,7 +90,7 @@ class FileSortCursorContinuation<K, V> implements RecordCursorContinuation {
                 builder.addFiles(file.getPath());
             }
             ByteString childBytes = childContinuation.toByteString();
-            if (childBytes.isEmpty()) {
+            if (!childBytes.isEmpty()) {
                 builder.setContinuation(childBytes);
             }
             if (recordPosition > 0) {
@@ -22,6 +22,7 @@ package com.apple.foundationdb.record.sorting;
 
 import com.apple.foundationdb.annotation.API;
 import com.apple.foundationdb.async.AsyncUtil;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.RecordCursor;
 import com.apple.foundationdb.record.RecordCursorContinuation;
@@ -48,6 +49,7 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.security.GeneralSecurityException;
@@ -76,6 +78,11 @@ import java.util.zip.InflaterInputStream;
  * Files can be optionally compressed and encrypted. This applies at the section level: the section
  * headers are cleartext and the keys and records are not individually compressed / encrypted.
  *
+ * If {@link FileSortAdapter#isMemoryMapped()}, files are instead written in a format meant to be read through
+ * memory-mapped windows, with a fixed-width key prefix in front of every record (see {@link MappedSortFile}).
+ * Merging these compares keys and copies records directly between the mapped input files and a reused direct
+ * buffer, picking the next record from a {@link LoserTree}. Such files cannot be compressed or encrypted.
+ *
  * If the input set is small enough, it can remain in memory in the tree map
  * and can be returned directly from there.
  * @param <K> type of key
@@ -95,11 +102,16 @@ public class FileSorter<K, V>  {
     private final Executor executor;
     @Nonnull
     private final List<File> files;
+    @Nullable
+    private ByteBuffer writeBuffer;
 
     private LoadResult loadResult;
 
     public FileSorter(@Nonnull FileSortAdapter<K, V> adapter, @Nullable StoreTimer timer,
                       @Nonnull Executor executor) {
+        if (adapter.isMemoryMapped() && (adapter.isCompressed() || adapter.getEncryptionKey() != null)) {
+            throw new RecordCoreArgumentException("memory-mapped sort files cannot be compressed or encrypted");
+        }
         this.adapter = adapter;
         this.timer = timer;
         this.executor = executor;
@@ -173,8 +185,31 @@ public class FileSorter<K, V>  {
         }), executor).thenApply(vignore -> loadResult);
     }
 
-    @SuppressWarnings({"PMD.CompareObjectsWithEquals", "PMD.CloseResource"})
     private void saveToNextFile(int maxNumFiles) {
+        if (adapter.isMemoryMapped()) {
+            saveToNextMappedFile();
+        } else {
+            saveToNextStreamFile();
+        }
+        if (files.size() > maxNumFiles) {
+            File file;
+            try {
+                file = adapter.generateFilename();
+                if (adapter.isMemoryMapped()) {
+                    mergeMapped(files, file);
+                } else {
+                    merge(files, file);
+                }
+            } catch (IOException | GeneralSecurityException ex) {
+                throw new RecordCoreException(ex);
+            }
+            files.clear();
+            files.add(file);
+        }
+    }
+
+    @SuppressWarnings({"PMD.CompareObjectsWithEquals", "PMD.CloseResource"})
+    private void saveToNextStreamFile() {
         final long startTime = System.nanoTime();
         final boolean compress = adapter.isCompressed();
         final java.security.Key encryptionKey = adapter.getEncryptionKey();
@@ -257,17 +292,47 @@ public class FileSorter<K, V>  {
             files.add(file);
             mapSorter.getMap().clear();
         }
-        if (files.size() > maxNumFiles) {
-            File file;
-            try {
-                file = adapter.generateFilename();
-                merge(files, file);
-            } catch (IOException | GeneralSecurityException ex) {
-                throw new RecordCoreException(ex);
+    }
+
+    private void saveToNextMappedFile() {
+        if (mapSorter.getMap().isEmpty()) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        final File file;
+        try {
+            file = adapter.generateFilename();
+            try (MappedSortFile.Writer writer = new MappedSortFile.Writer(file, getWriteBuffer(), adapter.getMetaDataVersion(), adapter.getRecordCountPerSection())) {
+                if (timer != null) {
+                    timer.recordSinceNanoTime(SortEvents.Events.FILE_SORT_OPEN_FILE, startTime);
+                }
+                for (Map.Entry<K, V> keyAndValue : mapSorter.getMap().entrySet()) {
+                    final long recordStartTime = System.nanoTime();
+                    writer.write(adapter.serializeKey(keyAndValue.getKey()), adapter.serializeValue(keyAndValue.getValue()));
+                    if (timer != null) {
+                        timer.recordSinceNanoTime(SortEvents.Events.FILE_SORT_SAVE_RECORD, recordStartTime);
+                    }
+                }
+                final long fileLength = writer.finish();
+                if (timer != null) {
+                    timer.increment(SortEvents.Counts.FILE_SORT_FILE_BYTES, (int)fileLength);
+                }
             }
-            files.clear();
-            files.add(file);
+        } catch (IOException ex) {
+            throw new RecordCoreException(ex);
         }
+        files.add(file);
+        mapSorter.getMap().clear();
+    }
+
+    // A single direct buffer is used for writing all the memory-mapped files of this sorter, which are only
+    // written one at a time.
+    @Nonnull
+    private ByteBuffer getWriteBuffer() {
+        if (writeBuffer == null) {
+            writeBuffer = ByteBuffer.allocateDirect(MappedSortFile.WRITE_BUFFER_SIZE);
+        }
+        return writeBuffer;
     }
 
     static void initCipherEncrypt(@Nonnull Cipher cipher,
@@ -630,6 +695,51 @@ public class FileSorter<K, V>  {
         }
     }
 
+    @SuppressWarnings({"PMD.EmptyCatchBlock", "PMD.CloseResource"})
+    private void mergeMapped(@Nonnull Collection<File> inputFiles, @Nonnull File outputFile) throws IOException {
+        final long startTime = System.nanoTime();
+        final List<MappedSortFile.Reader> inputs = new ArrayList<>(inputFiles.size());
+        boolean success = false;
+        try {
+            for (File file : inputFiles) {
+                MappedSortFile.Reader input = new MappedSortFile.Reader(file, adapter.getMetaDataVersion());
+                inputs.add(input);
+                input.next();
+            }
+            final LoserTree tree = new LoserTree(inputs, adapter.isSerializedOrderReversed());
+            try (MappedSortFile.Writer output = new MappedSortFile.Writer(outputFile, getWriteBuffer(), adapter.getMetaDataVersion(), adapter.getRecordCountPerSection())) {
+                MappedSortFile.Reader winner;
+                while ((winner = tree.winner()) != null) {
+                    output.write(winner);
+                    tree.advance();
+                }
+                output.finish();
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                try {
+                    deleteFile(outputFile);
+                } catch (IOException ex) {
+                    // swallow cleanup error
+                }
+            }
+            for (MappedSortFile.Reader input : inputs) {
+                try {
+                    input.close();
+                    if (success) {
+                        deleteFile(input.getFile());
+                    }
+                } catch (IOException ex) {
+                    // swallow cleanup error
+                }
+            }
+            if (timer != null) {
+                timer.recordSinceNanoTime(SortEvents.Events.FILE_SORT_MERGE_FILES, startTime);
+            }
+        }
+    }
+
     public void deleteFiles() throws IOException {
         for (File file : files) {
             deleteFile(file);
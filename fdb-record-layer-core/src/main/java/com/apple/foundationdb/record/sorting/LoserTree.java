@@ -0,0 +1,114 @@
+/*
+ * LoserTree.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.sorting;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A tournament tree of losers for merging sorted {@link MappedSortFile.Reader}s. Each internal node remembers the
+ * input that lost the match played there, so replacing the winner with its input's next record only replays the
+ * matches on the path from that input's leaf to the root: {@code log2(k)} comparisons, as opposed to the {@code k}
+ * of a linear scan for the minimum.
+ *
+ * <p>
+ * Ties are broken by input order, so that the merge is stable.
+ * </p>
+ */
+class LoserTree {
+    @Nonnull
+    private final MappedSortFile.Reader[] inputs;
+    private final boolean reversed;
+    // tree[0] is the overall winner; tree[1..k-1] are the losers of the internal nodes.
+    @Nonnull
+    private final int[] tree;
+
+    /**
+     * Create a new tree over the given inputs, each of which must already have been advanced to its first record.
+     * @param inputs the readers to merge
+     * @param reversed whether the keys are to be merged in descending order
+     */
+    LoserTree(@Nonnull List<MappedSortFile.Reader> inputs, boolean reversed) {
+        this.inputs = inputs.toArray(new MappedSortFile.Reader[0]);
+        this.reversed = reversed;
+        tree = new int[Math.max(1, this.inputs.length)];
+        // -1 stands for a sentinel that beats everything, which is pushed out of the tree as the leaves are added.
+        Arrays.fill(tree, -1);
+        for (int i = this.inputs.length - 1; i >= 0; i--) {
+            replay(i);
+        }
+    }
+
+    /**
+     * Get the input with the least current record.
+     * @return the winning reader, or {@code null} if all inputs are exhausted
+     */
+    @Nullable
+    MappedSortFile.Reader winner() {
+        final int winner = tree[0];
+        if (winner < 0 || inputs[winner].isExhausted()) {
+            return null;
+        }
+        return inputs[winner];
+    }
+
+    /**
+     * Advance the winning input to its next record and find the new winner.
+     */
+    void advance() {
+        final int winner = tree[0];
+        inputs[winner].next();
+        replay(winner);
+    }
+
+    private void replay(int leaf) {
+        int winner = leaf;
+        for (int node = (leaf + inputs.length) >> 1; node > 0; node >>= 1) {
+            if (beats(tree[node], winner)) {
+                final int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    private boolean beats(int input1, int input2) {
+        if (input1 < 0) {
+            return true;
+        }
+        if (input2 < 0) {
+            return false;
+        }
+        final MappedSortFile.Reader reader1 = inputs[input1];
+        final MappedSortFile.Reader reader2 = inputs[input2];
+        if (reader1.isExhausted()) {
+            return false;
+        }
+        if (reader2.isExhausted()) {
+            return true;
+        }
+        final int comparison = reversed ? reader2.compareKeyTo(reader1) : reader1.compareKeyTo(reader2);
+        return comparison < 0 || (comparison == 0 && input1 < input2);
+    }
+}
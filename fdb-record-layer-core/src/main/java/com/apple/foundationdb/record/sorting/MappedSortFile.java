@@ -0,0 +1,423 @@
+/*
+ * MappedSortFile.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.sorting;
+
+import com.apple.foundationdb.record.RecordCoreException;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The memory-mapped format of files written by {@link FileSorter} when {@link FileSortAdapter#isMemoryMapped()}.
+ *
+ * <p>
+ * A file starts with a fixed-size header, followed by the records and then by an index of the file offset of every
+ * {@link FileSortAdapter#getRecordCountPerSection()}-th record, which allows skipping ahead without reading every
+ * record. Each record has a fixed-size header of its own, holding the first {@value #KEY_PREFIX_SIZE} bytes of the
+ * serialized key (zero padded) and the lengths of the key and value, followed by the key and value bytes. Since
+ * zero is the smallest byte and a shorter key sorts before a longer one with the same prefix, comparing the
+ * prefixes as unsigned longs agrees with the order of the full keys whenever the prefixes differ, so most
+ * comparisons during a merge never look past the record header.
+ * </p>
+ *
+ * <p>
+ * Files are read through windows mapped with {@link FileChannel#map}, so records are compared and copied from one
+ * file to another without being copied onto the heap. Since the whole point is to avoid passing the data through
+ * streams, these files are neither compressed nor encrypted.
+ * </p>
+ */
+final class MappedSortFile {
+    static final int MAGIC = 0x46444253; // FDBS
+    static final int VERSION = 1;
+    static final int KEY_PREFIX_SIZE = Long.BYTES;
+    static final int RECORD_HEADER_SIZE = KEY_PREFIX_SIZE + 2 * Integer.BYTES;
+    static final int FILE_HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+    static final int WRITE_BUFFER_SIZE = 1 << 20;
+    static final int MAP_WINDOW_SIZE = 1 << 24;
+
+    private MappedSortFile() {
+    }
+
+    static long keyPrefix(@Nonnull byte[] key) {
+        long prefix = 0;
+        for (int i = 0; i < KEY_PREFIX_SIZE; i++) {
+            prefix <<= 8;
+            if (i < key.length) {
+                prefix |= key[i] & 0xFF;
+            }
+        }
+        return prefix;
+    }
+
+    /**
+     * Write a file in the memory-mapped format. The buffer through which records are written is supplied by the
+     * caller, so that a single direct buffer can be reused for all the files written by a sorter.
+     */
+    static class Writer implements Closeable {
+        @Nonnull
+        private final FileChannel channel;
+        @Nonnull
+        private final ByteBuffer buffer;
+        private final int metaDataVersion;
+        private final int recordsPerSection;
+
+        private long position;
+        private int numberOfRecords;
+        @Nonnull
+        private long[] sectionOffsets;
+        private int numberOfSections;
+
+        Writer(@Nonnull File file, @Nonnull ByteBuffer buffer, int metaDataVersion, int recordsPerSection) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = buffer;
+            this.metaDataVersion = metaDataVersion;
+            this.recordsPerSection = Math.max(1, recordsPerSection);
+            this.sectionOffsets = new long[16];
+            buffer.clear();
+            // Leave room for the header, which is only written by finish().
+            buffer.position(FILE_HEADER_SIZE);
+            position = FILE_HEADER_SIZE;
+        }
+
+        void write(@Nonnull byte[] key, @Nonnull byte[] value) throws IOException {
+            startRecord(RECORD_HEADER_SIZE + key.length + value.length);
+            buffer.putLong(keyPrefix(key)).putInt(key.length).putInt(value.length);
+            put(ByteBuffer.wrap(key));
+            put(ByteBuffer.wrap(value));
+        }
+
+        /**
+         * Copy the record on which a reader is positioned.
+         * @param reader the reader
+         * @throws IOException if something fails writing the file
+         */
+        void write(@Nonnull Reader reader) throws IOException {
+            final int recordLength = reader.getRecordLength();
+            startRecord(recordLength);
+            put(reader.recordView());
+        }
+
+        private void startRecord(int recordLength) throws IOException {
+            if (numberOfRecords % recordsPerSection == 0) {
+                if (numberOfSections == sectionOffsets.length) {
+                    sectionOffsets = Arrays.copyOf(sectionOffsets, numberOfSections * 2);
+                }
+                sectionOffsets[numberOfSections++] = position;
+            }
+            if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                flush();
+            }
+            numberOfRecords++;
+            position += recordLength;
+        }
+
+        private void put(@Nonnull ByteBuffer source) throws IOException {
+            if (source.remaining() > buffer.remaining()) {
+                flush();
+                if (source.remaining() > buffer.remaining()) {
+                    // Too large to be worth buffering.
+                    while (source.hasRemaining()) {
+                        channel.write(source);
+                    }
+                    return;
+                }
+            }
+            buffer.put(source);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Write the section index and the file header.
+         * @return the length of the file
+         * @throws IOException if something fails writing the file
+         */
+        long finish() throws IOException {
+            final long indexOffset = position;
+            for (int i = 0; i < numberOfSections; i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush();
+                }
+                buffer.putLong(sectionOffsets[i]);
+            }
+            flush();
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(metaDataVersion)
+                    .putInt(numberOfRecords).putInt(recordsPerSection).putInt(numberOfSections)
+                    .putLong(indexOffset);
+            buffer.flip();
+            long headerPosition = 0;
+            while (buffer.hasRemaining()) {
+                headerPosition += channel.write(buffer, headerPosition);
+            }
+            buffer.clear();
+            return indexOffset + (long)numberOfSections * Long.BYTES;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Read a file in the memory-mapped format. The reader is positioned on one record at a time, whose key can be
+     * compared with that of another reader and which can be copied to a {@link Writer} or deserialized.
+     */
+    static class Reader implements Closeable {
+        @Nonnull
+        private final File file;
+        @Nonnull
+        private final FileChannel channel;
+        private final long fileSize;
+        private final int numberOfRecords;
+        private final int recordsPerSection;
+        private final int numberOfSections;
+        private final long indexOffset;
+
+        @Nonnull
+        private MappedByteBuffer window;
+        // A view of the window whose position and limit are moved around, so that the window itself is only used
+        // with absolute accessors.
+        @Nonnull
+        private ByteBuffer view;
+        private long windowStart;
+        private long windowEnd;
+
+        private int recordNumber = -1;
+        private long sectionStart;
+        private long recordStart;
+        private long nextRecordStart;
+        private long keyPrefix;
+        private int keyLength;
+        private int valueLength;
+
+        Reader(@Nonnull File file, int metaDataVersion) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            boolean success = false;
+            try {
+                fileSize = channel.size();
+                if (fileSize < FILE_HEADER_SIZE) {
+                    throw new RecordCoreException("file header missing");
+                }
+                map(0, FILE_HEADER_SIZE);
+                if (window.getInt(0) != MAGIC || window.getInt(Integer.BYTES) != VERSION) {
+                    throw new RecordCoreException("file header version mismatch");
+                }
+                if (window.getInt(2 * Integer.BYTES) != metaDataVersion) {
+                    throw new RecordCoreException("file meta-data version mismatch");
+                }
+                numberOfRecords = window.getInt(3 * Integer.BYTES);
+                recordsPerSection = window.getInt(4 * Integer.BYTES);
+                numberOfSections = window.getInt(5 * Integer.BYTES);
+                indexOffset = window.getLong(6 * Integer.BYTES);
+                nextRecordStart = FILE_HEADER_SIZE;
+                success = true;
+            } finally {
+                if (!success) {
+                    channel.close();
+                }
+            }
+        }
+
+        @Nonnull
+        File getFile() {
+            return file;
+        }
+
+        int getNumberOfRecords() {
+            return numberOfRecords;
+        }
+
+        /**
+         * Get the number of the record on which the reader is positioned.
+         * @return the current record number, which is {@code -1} before the first call to {@link #next()}
+         */
+        int getRecordNumber() {
+            return recordNumber;
+        }
+
+        /**
+         * Get the file offset of the section containing the current record.
+         * @return the offset of the section in the file
+         */
+        long getSectionStart() {
+            return sectionStart;
+        }
+
+        boolean isExhausted() {
+            return recordNumber >= numberOfRecords;
+        }
+
+        /**
+         * Advance to the next record.
+         * @return {@code true} if there is a next record
+         */
+        boolean next() {
+            if (recordNumber >= numberOfRecords) {
+                return false;
+            }
+            recordNumber++;
+            if (recordNumber >= numberOfRecords) {
+                return false;
+            }
+            readRecordHeader(nextRecordStart);
+            return true;
+        }
+
+        /**
+         * Position a new reader so that the next call to {@link #next()} advances to the given record. Whole sections
+         * are skipped using the section index, so only the records within the last section are stepped through.
+         * @param skip the number of records to skip
+         */
+        void skip(int skip) {
+            if (skip <= 0) {
+                return;
+            }
+            if (skip >= numberOfRecords) {
+                recordNumber = numberOfRecords;
+                return;
+            }
+            final int section = skip / recordsPerSection;
+            if (section > 0 && section < numberOfSections) {
+                nextRecordStart = readLong(indexOffset + (long)section * Long.BYTES);
+                recordNumber = section * recordsPerSection - 1;
+            }
+            while (recordNumber + 1 < skip) {
+                recordNumber++;
+                readRecordHeader(nextRecordStart);
+            }
+        }
+
+        private void readRecordHeader(long start) {
+            if (recordNumber % recordsPerSection == 0) {
+                sectionStart = start;
+            }
+            ensureMapped(start, RECORD_HEADER_SIZE);
+            final int offset = (int)(start - windowStart);
+            recordStart = start;
+            keyPrefix = window.getLong(offset);
+            keyLength = window.getInt(offset + KEY_PREFIX_SIZE);
+            valueLength = window.getInt(offset + KEY_PREFIX_SIZE + Integer.BYTES);
+            nextRecordStart = start + RECORD_HEADER_SIZE + keyLength + valueLength;
+        }
+
+        int getRecordLength() {
+            return RECORD_HEADER_SIZE + keyLength + valueLength;
+        }
+
+        /**
+         * Compare the key of the current record with that of another reader, as unsigned bytes.
+         * @param other the other reader
+         * @return a negative number, zero or a positive number as this reader's key is less than, equal to or
+         * greater than the other's
+         */
+        int compareKeyTo(@Nonnull Reader other) {
+            final int prefixCompare = Long.compareUnsigned(keyPrefix, other.keyPrefix);
+            if (prefixCompare != 0) {
+                return prefixCompare;
+            }
+            final int minLength = Math.min(keyLength, other.keyLength);
+            if (minLength > KEY_PREFIX_SIZE) {
+                ensureMapped(recordStart, RECORD_HEADER_SIZE + keyLength);
+                other.ensureMapped(other.recordStart, RECORD_HEADER_SIZE + other.keyLength);
+                final int offset = (int)(recordStart - windowStart) + RECORD_HEADER_SIZE;
+                final int otherOffset = (int)(other.recordStart - other.windowStart) + RECORD_HEADER_SIZE;
+                for (int i = KEY_PREFIX_SIZE; i < minLength; i++) {
+                    final int byteCompare = Integer.compare(window.get(offset + i) & 0xFF, other.window.get(otherOffset + i) & 0xFF);
+                    if (byteCompare != 0) {
+                        return byteCompare;
+                    }
+                }
+            }
+            return Integer.compare(keyLength, other.keyLength);
+        }
+
+        /**
+         * Get the current record, with its header, as a view of the mapped file. The view is only valid until the
+         * reader is advanced.
+         * @return a buffer positioned on the current record
+         */
+        @Nonnull
+        ByteBuffer recordView() {
+            final int recordLength = getRecordLength();
+            ensureMapped(recordStart, recordLength);
+            final int offset = (int)(recordStart - windowStart);
+            view.limit(offset + recordLength).position(offset);
+            return view;
+        }
+
+        @Nonnull
+        byte[] readValue() {
+            ensureMapped(recordStart, getRecordLength());
+            final int offset = (int)(recordStart - windowStart) + RECORD_HEADER_SIZE + keyLength;
+            final byte[] value = new byte[valueLength];
+            view.limit(offset + valueLength).position(offset);
+            view.get(value);
+            return value;
+        }
+
+        private long readLong(long position) {
+            ensureMapped(position, Long.BYTES);
+            return window.getLong((int)(position - windowStart));
+        }
+
+        private void ensureMapped(long start, int length) {
+            if (start < windowStart || start + length > windowEnd) {
+                try {
+                    map(start, length);
+                } catch (IOException ex) {
+                    throw new RecordCoreException(ex);
+                }
+            }
+        }
+
+        private void map(long start, int length) throws IOException {
+            if (start + length > fileSize) {
+                throw new RecordCoreException("record extends past end of file")
+                        .addLogInfo("file", file.getPath());
+            }
+            final long size = Math.min(fileSize - start, Math.max(MAP_WINDOW_SIZE, length));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            view = window.duplicate();
+            windowStart = start;
+            windowEnd = start + size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MappedSortedFileReader.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.sorting;
+
+import com.apple.foundationdb.annotation.API;
+import com.apple.foundationdb.record.provider.common.StoreTimer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Read values from memory-mapped files written by {@link FileSorter}. Keys are skipped.
+ * @param <V> type of value
+ * @see FileSortAdapter#isMemoryMapped()
+ */
+@API(API.Status.EXPERIMENTAL)
+public class MappedSortedFileReader<V> implements SortedValueReader<V> {
+    @Nonnull
+    private final MappedSortFile.Reader reader;
+    @Nonnull
+    private final FileSortAdapter<?, V> adapter;
+    @Nullable
+    private final StoreTimer timer;
+
+    private final int fileRecordEnd;
+    private int recordPosition;
+
+    public MappedSortedFileReader(@Nonnull File file, @Nonnull FileSortAdapter<?, V> adapter, @Nullable StoreTimer timer,
+                                  int skip, int limit) throws IOException {
+        reader = new MappedSortFile.Reader(file, adapter.getMetaDataVersion());
+        this.adapter = adapter;
+        this.timer = timer;
+        final int numberOfRecords = reader.getNumberOfRecords();
+        if (skip > 0) {
+            final long startTime = System.nanoTime();
+            reader.skip(skip);
+            if (timer != null) {
+                timer.recordSinceNanoTime(SortEvents.Events.FILE_SORT_SKIP_SECTION, startTime);
+            }
+        }
+        recordPosition = Math.min(Math.max(skip, 0), numberOfRecords);
+        fileRecordEnd = (int)Math.min((long)recordPosition + limit, numberOfRecords);
+    }
+
+    @Nullable
+    @Override
+    public V read() {
+        if (recordPosition >= fileRecordEnd) {
+            return null;
+        }
+        final long startTime = System.nanoTime();
+        reader.next();
+        final V record = adapter.deserializeValue(reader.readValue());
+        recordPosition++;
+        if (timer != null) {
+            timer.recordSinceNanoTime(SortEvents.Events.FILE_SORT_LOAD_RECORD, startTime);
+        }
+        return record;
+    }
+
+    @Override
+    public int getRecordPosition() {
+        return recordPosition;
+    }
+
+    @Override
+    public long getFilePosition() {
+        return reader.getSectionStart();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -43,7 +43,7 @@ import java.security.GeneralSecurityException;
  * @param <V> type of value
  */
 @API(API.Status.EXPERIMENTAL)
-public class SortedFileReader<V> implements AutoCloseable {
+public class SortedFileReader<V> implements SortedValueReader<V> {
     @Nonnull
     private final FileInputStream fileStream;
     @Nonnull
@@ -159,6 +159,7 @@ public class SortedFileReader<V> implements AutoCloseable {
     }
 
     @Nullable
+    @Override
     @SuppressWarnings("PMD.CloseResource")
     public V read() throws IOException, GeneralSecurityException {
         if (recordPosition >= fileRecordEnd) {
@@ -202,10 +203,12 @@ public class SortedFileReader<V> implements AutoCloseable {
         return record;
     }
 
+    @Override
     public int getRecordPosition() {
         return recordPosition;
     }
 
+    @Override
     public long getFilePosition() {
         return sectionFileStart;
     }
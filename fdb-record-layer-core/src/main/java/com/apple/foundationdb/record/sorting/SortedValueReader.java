@@ -0,0 +1,57 @@
+/*
+ * SortedValueReader.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.sorting;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Read the values from a file written by {@link FileSorter}, in order.
+ * @param <V> type of value
+ * @see SortedFileReader
+ * @see MappedSortedFileReader
+ */
+interface SortedValueReader<V> extends AutoCloseable {
+    /**
+     * Read the next value.
+     * @return the next value or {@code null} if there are no more values within the limit
+     * @throws IOException if something fails reading the file
+     * @throws GeneralSecurityException if something fails decrypting the file
+     */
+    @Nullable
+    V read() throws IOException, GeneralSecurityException;
+
+    /**
+     * Get the number of the next record to be read.
+     * @return the record position
+     */
+    int getRecordPosition();
+
+    /**
+     * Get the file position of the section containing the last record read.
+     * @return the file position
+     */
+    long getFilePosition();
+
+    @Override
+    void close() throws IOException;
+}
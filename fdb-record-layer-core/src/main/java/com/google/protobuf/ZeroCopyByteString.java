@@ -21,6 +21,9 @@
 package com.google.protobuf;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Use this as a way to use existing byte arrays when converting to ByteString for
@@ -38,4 +41,65 @@ public class ZeroCopyByteString {
         return UnsafeByteOperations.unsafeWrap(bytes, offset, length);
     }
 
+    /**
+     * Get the contents of a {@link ByteString} as a byte array, which is the array backing it if there is exactly one
+     * such array and the {@code ByteString} covers all of it, as is the case for one returned by {@link #wrap(byte[])}.
+     * Otherwise, such as for a concatenation or a substring, the contents are copied into a new array. Critical to
+     * remember that if the returned array is not a copy, then mutating it mutates the {@code ByteString}.
+     *
+     * @param byteString the bytes to get
+     * @return an array with the same contents as {@code byteString}
+     */
+    @Nonnull
+    public static byte[] getBytes(@Nonnull ByteString byteString) {
+        final SingleArrayOutput output = new SingleArrayOutput();
+        try {
+            UnsafeByteOperations.unsafeWriteTo(byteString, output);
+        } catch (IOException ex) {
+            // Not possible, since the output does no I/O.
+            return byteString.toByteArray();
+        }
+        final byte[] array = output.getArray();
+        return array != null && array.length == byteString.size() ? array : byteString.toByteArray();
+    }
+
+    /**
+     * Remembers the array it is given if it is the only one and is given whole.
+     */
+    private static final class SingleArrayOutput extends ByteOutput {
+        @Nullable
+        private byte[] array;
+        private int writes;
+
+        @Nullable
+        byte[] getArray() {
+            return writes == 1 ? array : null;
+        }
+
+        @Override
+        public void write(byte value) {
+            writes++;
+        }
+
+        @Override
+        public void write(byte[] value, int offset, int length) {
+            writeLazy(value, offset, length);
+        }
+
+        @Override
+        public void writeLazy(byte[] value, int offset, int length) {
+            writes++;
+            array = offset == 0 && length == value.length ? value : null;
+        }
+
+        @Override
+        public void write(ByteBuffer value) {
+            writes++;
+        }
+
+        @Override
+        public void writeLazy(ByteBuffer value) {
+            writes++;
+        }
+    }
 }
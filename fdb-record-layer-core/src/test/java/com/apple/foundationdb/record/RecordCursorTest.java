@@ -331,6 +331,79 @@ public class RecordCursorTest {
         assertEquals(Arrays.asList(2, 4, 6), newInts);
     }
 
+    @Test
+    void onNextBatchTest() {
+        final List<Integer> ints = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+        final List<Integer> read = new ArrayList<>();
+        byte[] continuation = null;
+        RecordCursorBatch<Integer> batch;
+        do {
+            batch = RecordCursor.fromList(EXECUTOR, ints, continuation).onNextBatch(3).join();
+            assertThat(batch.size(), Matchers.lessThanOrEqualTo(3));
+            read.addAll(batch.getValues());
+            continuation = batch.getContinuation().toBytes();
+        } while (!batch.isTerminal());
+        assertEquals(ints, read);
+        assertEquals(RecordCursor.NoNextReason.SOURCE_EXHAUSTED, batch.getNoNextReason());
+
+        // AsyncCountdown completes each result asynchronously, so this exercises the per-row adapter across futures.
+        final RecordCursor<Integer> countdown = new AsyncCountdown(5);
+        batch = countdown.onNextBatch(3).join();
+        assertFalse(batch.isTerminal());
+        assertEquals(Arrays.asList(5, 4, 3), batch.getValues());
+        assertEquals(2, countdown.getNext().get());
+        batch = countdown.onNextBatch(3).join();
+        assertTrue(batch.isTerminal());
+        assertEquals(Collections.singletonList(1), batch.getValues());
+        batch = countdown.onNextBatch(3).join();
+        assertTrue(batch.isTerminal());
+        assertTrue(batch.isEmpty());
+
+        assertThrows(RecordCoreArgumentException.class, () -> RecordCursor.fromList(ints).onNextBatch(0));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation") // MapCursor is deprecated, but it still supports batches
+    void filterAndMapBatchTest() {
+        final List<Integer> ints = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        final List<String> read = new ArrayList<>();
+        byte[] continuation = null;
+        RecordCursorBatch<String> batch;
+        do {
+            RecordCursor<String> cursor = new com.apple.foundationdb.record.cursors.MapCursor<>(
+                    new FilterCursor<>(RecordCursor.fromList(ints, continuation), i -> i % 3 == 0),
+                    i -> "v" + i);
+            batch = cursor.onNextBatch(2).join();
+            assertThat(batch.size(), Matchers.lessThanOrEqualTo(2));
+            read.addAll(batch.getValues());
+            continuation = batch.getContinuation().toBytes();
+        } while (!batch.isTerminal());
+        assertEquals(Arrays.asList("v0", "v3", "v6", "v9", "v12", "v15", "v18"), read);
+
+        // A filter that rejects everything consumes the whole input in a single batch request.
+        final FilterCursor<Integer> rejectAll = new FilterCursor<>(RecordCursor.fromList(ints), i -> false);
+        batch = rejectAll.onNextBatch(5).thenApply(b -> b.map(i -> "v" + i)).join();
+        assertTrue(batch.isTerminal());
+        assertTrue(batch.isEmpty());
+        assertEquals(RecordCursor.NoNextReason.SOURCE_EXHAUSTED, rejectAll.getNext().getNoNextReason());
+
+        // Returned row limits stop the filtered batch with the limit's continuation.
+        final RecordCursor<Integer> limited = new FilterCursor<>(RecordCursor.fromList(ints).limitRowsTo(7), i -> i % 2 == 0);
+        final RecordCursorBatch<Integer> limitedBatch = limited.onNextBatch(10).join();
+        assertTrue(limitedBatch.isTerminal());
+        assertEquals(Arrays.asList(0, 2, 4, 6), limitedBatch.getValues());
+        assertEquals(RecordCursor.NoNextReason.RETURN_LIMIT_REACHED, limitedBatch.getNoNextReason());
+        assertEquals(Arrays.asList(7, 8, 9), RecordCursor.fromList(ints, limitedBatch.getContinuation().toBytes()).limitRowsTo(3).asList().join());
+
+        // Batch sizes are checked before anything is read from the inner cursor.
+        for (int maxBatchSize : new int[] {0, -1}) {
+            assertThrows(RecordCoreArgumentException.class,
+                    () -> new FilterCursor<>(RecordCursor.fromList(ints), i -> true).onNextBatch(maxBatchSize));
+            assertThrows(RecordCoreArgumentException.class,
+                    () -> new com.apple.foundationdb.record.cursors.MapCursor<>(RecordCursor.fromList(ints), i -> i).onNextBatch(maxBatchSize));
+        }
+    }
+
     private static class PrefixAddingContinuationConvertor implements RecordCursor.ContinuationConvertor {
         private final ByteString prefix;
 
@@ -0,0 +1,142 @@
+/*
+ * AdaptivePipelineSizeTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors;
+
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link AdaptivePipelineSize}.
+ */
+public class AdaptivePipelineSizeTest {
+    private static final AdaptivePipelineSize.Config CONFIG = AdaptivePipelineSize.Config.newBuilder()
+            .setInitialPipelineSize(4)
+            .setMinPipelineSize(2)
+            .setMaxPipelineSize(64)
+            .build();
+
+    /**
+     * Complete a whole window of operations, each having taken the given time.
+     */
+    private static void completeWindow(@Nonnull AdaptivePipelineSize pipelineSize, long latencyMillis,
+                                       @Nullable FDBStoreTimer timer, int bytesPerOperation) {
+        final int operations = pipelineSize.getPipelineSize();
+        for (int i = 0; i < operations; i++) {
+            if (timer != null) {
+                timer.increment(FDBStoreTimer.Counts.BYTES_READ, bytesPerOperation);
+            }
+            pipelineSize.complete(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+
+    @Test
+    public void growsWhileLatencyIsSteady() {
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final AdaptivePipelineSize pipelineSize = new AdaptivePipelineSize(CONFIG, timer);
+        assertEquals(4, pipelineSize.getPipelineSize());
+        completeWindow(pipelineSize, 10, null, 0);
+        assertEquals(8, pipelineSize.getPipelineSize());
+        for (int i = 0; i < 5; i++) {
+            completeWindow(pipelineSize, 10, null, 0);
+        }
+        assertEquals(64, pipelineSize.getPipelineSize());
+        assertEquals(4, timer.getCount(FDBStoreTimer.Counts.ADAPTIVE_PIPELINE_GROW));
+        assertEquals(0, timer.getCount(FDBStoreTimer.Counts.ADAPTIVE_PIPELINE_SHRINK));
+        assertTrue(pipelineSize.getBaselineLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void shrinksWhenLatencyRises() {
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final AdaptivePipelineSize pipelineSize = new AdaptivePipelineSize(CONFIG, timer);
+        completeWindow(pipelineSize, 10, null, 0);
+        completeWindow(pipelineSize, 10, null, 0);
+        assertEquals(16, pipelineSize.getPipelineSize());
+        completeWindow(pipelineSize, 100, null, 0);
+        assertEquals(12, pipelineSize.getPipelineSize());
+        for (int i = 0; i < 10; i++) {
+            completeWindow(pipelineSize, 100, null, 0);
+        }
+        assertEquals(2, pipelineSize.getPipelineSize());
+        assertTrue(timer.getCount(FDBStoreTimer.Counts.ADAPTIVE_PIPELINE_SHRINK) > 0);
+
+        // Once latency recovers, growth is additive rather than doubling.
+        completeWindow(pipelineSize, 10, null, 0);
+        assertEquals(3, pipelineSize.getPipelineSize());
+    }
+
+    @Test
+    public void limitedByBytesInFlight() {
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final AdaptivePipelineSize pipelineSize = new AdaptivePipelineSize(CONFIG.toBuilder().setMaxBytesInFlight(10_000).build(), timer);
+        for (int i = 0; i < 5; i++) {
+            completeWindow(pipelineSize, 10, timer, 1000);
+        }
+        assertEquals(10, pipelineSize.getPipelineSize());
+        assertEquals(1000, pipelineSize.getBytesPerOperation());
+
+        // Larger records shrink the pipeline even though latency is unchanged.
+        completeWindow(pipelineSize, 10, timer, 4000);
+        assertEquals(2, pipelineSize.getPipelineSize());
+    }
+
+    @Test
+    public void invalidConfig() {
+        assertThrows(RecordCoreArgumentException.class, () -> AdaptivePipelineSize.Config.newBuilder().setMinPipelineSize(0).build());
+        assertThrows(RecordCoreArgumentException.class, () -> AdaptivePipelineSize.Config.newBuilder().setInitialPipelineSize(200).build());
+        assertThrows(RecordCoreArgumentException.class, () -> AdaptivePipelineSize.Config.newBuilder().setLatencyTolerance(0.5).build());
+    }
+
+    @Test
+    public void mapPipelined() {
+        final List<Integer> ints = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+        final AdaptivePipelineSize pipelineSize = new AdaptivePipelineSize(CONFIG, null);
+        final List<Integer> results = RecordCursor.fromList(ints)
+                .mapPipelined(i -> CompletableFuture.supplyAsync(() -> i * 2), pipelineSize)
+                .asList().join();
+        assertEquals(ints.stream().map(i -> i * 2).collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void flatMapPipelined() {
+        final List<Integer> ints = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        final AdaptivePipelineSize pipelineSize = new AdaptivePipelineSize(CONFIG, null);
+        final List<Integer> results = new FlatMapPipelinedCursor<>(RecordCursor.fromList(ints),
+                (i, continuation) -> RecordCursor.fromList(List.of(i, -i), continuation),
+                null, null, null, null, pipelineSize)
+                .asList().join();
+        assertEquals(ints.stream().flatMap(i -> List.of(i, -i).stream()).collect(Collectors.toList()), results);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * HashJoinCursorTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.cursors;
+
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link HashJoinCursor}.
+ */
+public class HashJoinCursorTest {
+    static final List<Integer> outer = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7);
+    static final List<Integer> inner = Arrays.asList(0, 1, 2, 3, 4, 5);
+
+    @Nonnull
+    private static List<Integer> expected() {
+        final List<Integer> expected = new ArrayList<>();
+        for (Integer o : outer) {
+            for (Integer i : inner) {
+                if (outerKey(o) == innerKey(i)) {
+                    expected.add(o * 10 + i);
+                }
+            }
+        }
+        return expected;
+    }
+
+    private static int outerKey(int o) {
+        return o % 4;
+    }
+
+    private static int innerKey(int i) {
+        return i % 3;
+    }
+
+    @Nonnull
+    private static HashJoinCursor<Integer, Integer, Integer, Integer> newCursor(int maxBuildSideRows, @Nullable byte[] continuation) {
+        return new HashJoinCursor<>(
+                outerContinuation -> RecordCursor.fromList(outer, outerContinuation),
+                innerContinuation -> RecordCursor.fromList(inner, innerContinuation),
+                HashJoinCursorTest::outerKey,
+                HashJoinCursorTest::innerKey,
+                (o, i) -> o * 10 + i,
+                maxBuildSideRows,
+                2,
+                ForkJoinPool.commonPool(),
+                continuation);
+    }
+
+    @Nonnull
+    private static List<Integer> collectWithContinuations(int maxBuildSideRows, int rowLimit, @Nullable byte[] startContinuation) {
+        final List<Integer> results = new ArrayList<>();
+        byte[] continuation = startContinuation;
+        do {
+            try (RecordCursor<Integer> cursor = newCursor(maxBuildSideRows, continuation).limitRowsTo(rowLimit)) {
+                RecordCursorResult<Integer> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(result.get());
+                }
+                continuation = result.getContinuation().toBytes();
+            }
+        } while (continuation != null);
+        return results;
+    }
+
+    @Test
+    public void hashJoin() {
+        try (HashJoinCursor<Integer, Integer, Integer, Integer> cursor = newCursor(100, null)) {
+            assertEquals(expected(), cursor.asList().join());
+            assertFalse(cursor.isNestedLoop());
+        }
+    }
+
+    @Test
+    public void fallBackToNestedLoop() {
+        try (HashJoinCursor<Integer, Integer, Integer, Integer> cursor = newCursor(inner.size() - 1, null)) {
+            assertEquals(expected(), cursor.asList().join());
+            assertTrue(cursor.isNestedLoop());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5})
+    public void continuations(int rowLimit) {
+        assertEquals(expected(), collectWithContinuations(100, rowLimit, null));
+        assertEquals(expected(), collectWithContinuations(inner.size() - 1, rowLimit, null));
+    }
+
+    @Test
+    public void resumeHashJoinAsNestedLoop() {
+        final List<Integer> results = new ArrayList<>();
+        final byte[] continuation;
+        try (RecordCursor<Integer> cursor = newCursor(100, null).limitRowsTo(3)) {
+            RecordCursorResult<Integer> result;
+            while ((result = cursor.getNext()).hasNext()) {
+                results.add(result.get());
+            }
+            continuation = result.getContinuation().toBytes();
+        }
+        // the build side no longer fits, so the positional continuation within the matches has to be translated
+        results.addAll(collectWithContinuations(1, 2, continuation));
+        assertEquals(expected(), results);
+    }
+
+    @Test
+    public void invalidBudget() {
+        assertThrows(RecordCoreArgumentException.class, () -> newCursor(0, null));
+    }
+}
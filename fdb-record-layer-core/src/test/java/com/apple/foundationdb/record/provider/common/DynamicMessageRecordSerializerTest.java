@@ -23,22 +23,30 @@ package com.apple.foundationdb.record.provider.common;
 import com.apple.foundationdb.record.RecordMetaData;
 import com.apple.foundationdb.record.TestRecords1Proto;
 import com.apple.foundationdb.tuple.Tuple;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.DescriptorProtos;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
+import java.util.Set;
 import java.util.function.UnaryOperator;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for {@link DynamicMessageRecordSerializer}.
@@ -147,4 +155,126 @@ public class DynamicMessageRecordSerializerTest {
         assertThat(ex.getMessage(), containsString("there are no fields"));
         assertThat((Collection<?>)ex.getLogInfo().get("fields"), empty());
     }
+
+    @Test
+    public void deserializeProjected() throws InvalidProtocolBufferException {
+        final TestRecords1Proto.MySimpleRecord simpleRecord = TestRecords1Proto.MySimpleRecord.newBuilder()
+                .setRecNo(1066L)
+                .setStrValueIndexed("a string that is not projected")
+                .setNumValue2(42)
+                .addRepeater(1).addRepeater(2)
+                .build();
+        final byte[] serialized = serializer.serialize(metaData, metaData.getRecordType("MySimpleRecord"), simpleRecord, null);
+        final Message deserialized = serializer.deserialize(metaData, Tuple.from(1066L), ByteString.copyFrom(serialized),
+                Set.of("num_value_2", "repeater", "no_such_field"), null);
+        assertThat(deserialized, instanceOf(LazyDynamicMessage.class));
+        final LazyDynamicMessage lazy = (LazyDynamicMessage)deserialized;
+        final Descriptors.Descriptor descriptor = simpleRecord.getDescriptorForType();
+
+        assertTrue(lazy.isProjected(descriptor.findFieldByName("num_value_2")));
+        assertEquals(42, lazy.getField(descriptor.findFieldByName("num_value_2")));
+        assertEquals(2, lazy.getRepeatedFieldCount(descriptor.findFieldByName("repeater")));
+        assertFalse(lazy.hasField(descriptor.findFieldByName("num_value_unique")));
+
+        assertFalse(lazy.isProjected(descriptor.findFieldByName("str_value_indexed")));
+        assertEquals("a string that is not projected", lazy.getField(descriptor.findFieldByName("str_value_indexed")));
+        assertEquals(simpleRecord, lazy.getFullMessage());
+        assertEquals(lazy.getFullMessage(), lazy);
+        assertEquals(lazy.getFullMessage().hashCode(), lazy.hashCode());
+        assertEquals(simpleRecord.toByteString(), lazy.toByteString());
+        assertEquals(simpleRecord, TestRecords1Proto.MySimpleRecord.parseFrom(lazy.toByteArray()));
+    }
+
+    @Test
+    public void deserializeProjectedWithRequiredField() {
+        final TestRecords1Proto.MyOtherRecord otherRecord = TestRecords1Proto.MyOtherRecord.newBuilder()
+                .setRecNo(1413L)
+                .setNumValue2(7)
+                .build();
+        final byte[] serialized = serializer.serialize(metaData, metaData.getRecordType("MyOtherRecord"), otherRecord, null);
+        final Message deserialized = serializer.deserialize(metaData, Tuple.from(1413L), ByteString.copyFrom(serialized),
+                Set.of("num_value_2"), null);
+        // The required rec_no field is not projected, which must not make the projected parse fail.
+        assertEquals(7, deserialized.getField(otherRecord.getDescriptorForType().findFieldByName("num_value_2")));
+        assertEquals(1413L, deserialized.getField(otherRecord.getDescriptorForType().findFieldByName("rec_no")));
+        assertEquals(otherRecord, TestRecords1Proto.MyOtherRecord.newBuilder().mergeFrom(deserialized).build());
+    }
+
+    @Test
+    public void deserializeProjectedUnionWithMultipleFields() {
+        final Message message = TestRecords1Proto.RecordTypeUnion.newBuilder()
+                .setMySimpleRecord(TestRecords1Proto.MySimpleRecord.newBuilder().setRecNo(1066L).build())
+                .setMyOtherRecord(TestRecords1Proto.MyOtherRecord.newBuilder().setRecNo(1413L).build())
+                .build();
+        // An invalid union is still validated, rather than the first record in it being returned.
+        RecordSerializationException ex = assertThrows(RecordSerializationException.class,
+                () -> serializer.deserialize(metaData, Tuple.from(1066L), message.toByteString(), Set.of("rec_no"), null));
+        assertThat(ex.getMessage(), containsString("there are extra known fields"));
+    }
+
+    @Test
+    public void deserializeProjectedUnionWithUnknownFields() throws Descriptors.DescriptorValidationException {
+        final Descriptors.Descriptor biggerUnionDescriptor = addFieldToUnionDescriptor("dummy_field", DescriptorProtos.FieldDescriptorProto.Type.TYPE_BOOL);
+        final DynamicMessage message = DynamicMessage.newBuilder(biggerUnionDescriptor)
+                .setField(biggerUnionDescriptor.findFieldByName("_MySimpleRecord"), TestRecords1Proto.MySimpleRecord.newBuilder().setRecNo(1066L).build())
+                .setField(biggerUnionDescriptor.findFieldByName("dummy_field"), Boolean.TRUE)
+                .build();
+        // The union is validated as by a full parse, with the same error.
+        RecordSerializationException ex = assertThrows(RecordSerializationException.class,
+                () -> serializer.deserialize(metaData, Tuple.from(1066L), message.toByteString(), Set.of("rec_no"), null));
+        assertThat(ex.getMessage(), containsString("there are unknown fields"));
+        assertThat((Collection<?>)ex.getLogInfo().get("unknownFields"), not(empty()));
+
+        RecordSerializationException noFields = assertThrows(RecordSerializationException.class,
+                () -> serializer.deserialize(metaData, Tuple.from(1066L), ByteString.EMPTY, Set.of("rec_no"), null));
+        assertThat(noFields.getMessage(), containsString("there are no fields"));
+    }
+
+    @Test
+    public void deserializeProjectedRecordWithUnknownFields() {
+        final ByteString recordBytes = TestRecords1Proto.MySimpleRecord.newBuilder().setRecNo(1066L).setNumValue2(3).build().toByteString()
+                .concat(UnknownFieldSet.newBuilder()
+                        .addField(1000, UnknownFieldSet.Field.newBuilder().addVarint(1L).build())
+                        .build()
+                        .toByteString());
+        final ByteString serialized = DynamicMessage.newBuilder(metaData.getUnionDescriptor())
+                .setUnknownFields(UnknownFieldSet.newBuilder()
+                        .addField(TestRecords1Proto.RecordTypeUnion._MYSIMPLERECORD_FIELD_NUMBER,
+                                UnknownFieldSet.Field.newBuilder().addLengthDelimited(recordBytes).build())
+                        .build())
+                .build()
+                .toByteString();
+        final Message deserialized = serializer.deserialize(metaData, Tuple.from(1066L), serialized, Set.of("num_value_2"), null);
+        assertThat(deserialized, instanceOf(LazyDynamicMessage.class));
+        // Known without parsing the whole record, so that they can be reported as they are by a full parse.
+        assertEquals(Set.of(1000), ((LazyDynamicMessage)deserialized).getUnknownFieldNumbers());
+        assertEquals(Set.of(1000), deserialized.getUnknownFields().asMap().keySet());
+    }
+
+    @Test
+    public void deserializeProjectedIsInitialized() {
+        final Descriptors.Descriptor otherDescriptor = TestRecords1Proto.MyOtherRecord.getDescriptor();
+        final Descriptors.FieldDescriptor unionField = metaData.getUnionFieldForRecordType(metaData.getRecordType("MyOtherRecord"));
+
+        final DynamicMessage complete = DynamicMessage.newBuilder(otherDescriptor)
+                .setField(otherDescriptor.findFieldByName("rec_no"), 1413L)
+                .setField(otherDescriptor.findFieldByName("num_value_2"), 7)
+                .build();
+        final Message completeDeserialized = serializer.deserialize(metaData, Tuple.from(1413L),
+                DynamicMessage.newBuilder(metaData.getUnionDescriptor()).setField(unionField, complete).build().toByteString(),
+                Set.of("num_value_2"), null);
+        assertThat(completeDeserialized, instanceOf(LazyDynamicMessage.class));
+        assertTrue(completeDeserialized.isInitialized());
+
+        // The required rec_no field is missing, which the projected fields alone cannot tell.
+        final DynamicMessage missingRequired = DynamicMessage.newBuilder(otherDescriptor)
+                .setField(otherDescriptor.findFieldByName("num_value_2"), 7)
+                .buildPartial();
+        final Message missingDeserialized = serializer.deserialize(metaData, Tuple.from(1413L),
+                DynamicMessage.newBuilder(metaData.getUnionDescriptor()).setField(unionField, missingRequired).buildPartial().toByteString(),
+                Set.of("num_value_2"), null);
+        assertThat(missingDeserialized, instanceOf(LazyDynamicMessage.class));
+        assertEquals(7, missingDeserialized.getField(otherDescriptor.findFieldByName("num_value_2")));
+        assertFalse(missingDeserialized.isInitialized());
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * LatencyHistogramTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.common;
+
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    private static void assertWithinBucket(long expected, long actual) {
+        // Each bucket covers an eighth of its power of two, and the midpoint is reported.
+        assertTrue(Math.abs(expected - actual) <= Math.max(1L, expected / 8),
+                () -> "expected about " + expected + " but was " + actual);
+    }
+
+    @Test
+    public void bucketBounds() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            final long lower = LatencyHistogram.bucketLowerBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(lower));
+            if (i > 0) {
+                assertEquals(i - 1, LatencyHistogram.bucketIndex(lower - 1));
+            }
+        }
+        assertEquals(0, LatencyHistogram.bucketIndex(-5));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(10_000L, histogram.getCount());
+        assertWithinBucket(5_000_000L, histogram.getValueAtPercentile(50.0));
+        assertWithinBucket(9_900_000L, histogram.getValueAtPercentile(99.0));
+        assertWithinBucket(10_000_000L, histogram.getMaxValue());
+        assertWithinBucket(1_000L, histogram.getValueAtPercentile(0.0));
+        assertEquals(0L, new LatencyHistogram().getValueAtPercentile(99.0));
+    }
+
+    @Test
+    public void addAndSubtract() {
+        final LatencyHistogram fast = new LatencyHistogram();
+        final LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            fast.record(1_000L);
+        }
+        slow.record(1_000_000L);
+
+        final LatencyHistogram merged = fast.copy();
+        merged.add(slow);
+        assertEquals(100L, merged.getCount());
+        assertWithinBucket(1_000L, merged.getValueAtPercentile(99.0));
+        assertWithinBucket(1_000_000L, merged.getValueAtPercentile(99.5));
+
+        merged.subtract(fast);
+        assertEquals(1L, merged.getCount());
+        assertWithinBucket(1_000_000L, merged.getValueAtPercentile(50.0));
+
+        final LatencyHistogram immutable = merged.immutableCopy();
+        assertThrows(RecordCoreException.class, () -> immutable.record(1L));
+    }
+
+    @Test
+    public void timerHistograms() {
+        final StoreTimer timer = new FDBStoreTimer(false, true);
+        for (long i = 1; i <= 100; i++) {
+            timer.record(FDBStoreTimer.Events.COMMIT, i * 1_000_000L);
+        }
+        timer.increment(FDBStoreTimer.Counts.BYTES_READ, 10);
+        assertNull(timer.getCounter(FDBStoreTimer.Counts.BYTES_READ).getHistogram());
+        final LatencyHistogram histogram = timer.getCounter(FDBStoreTimer.Events.COMMIT).getHistogram();
+        assertNotNull(histogram);
+        assertWithinBucket(99_000_000L, histogram.getValueAtPercentile(99.0));
+
+        final Map<String, Number> keysAndValues = timer.getKeysAndValues();
+        assertWithinBucket(50_000L, keysAndValues.get("commit_p50_micros").longValue());
+        assertWithinBucket(99_000L, keysAndValues.get("commit_p99_micros").longValue());
+        assertWithinBucket(100_000L, keysAndValues.get("commit_max_micros").longValue());
+        assertFalse(keysAndValues.containsKey("bytes_read_p50_micros"));
+
+        final StoreTimerSnapshot snapshot = StoreTimerSnapshot.from(timer);
+        assertEquals(100L, snapshot.getCounterSnapshot(FDBStoreTimer.Events.COMMIT).getHistogram().getCount());
+        timer.record(FDBStoreTimer.Events.COMMIT, 500_000_000L);
+        final StoreTimer difference = StoreTimer.getDifference(timer, snapshot);
+        final LatencyHistogram differenceHistogram = difference.getCounter(FDBStoreTimer.Events.COMMIT).getHistogram();
+        assertEquals(1L, differenceHistogram.getCount());
+        assertWithinBucket(500_000_000L, differenceHistogram.getValueAtPercentile(50.0));
+
+        final StoreTimer total = new FDBStoreTimer(false, true);
+        total.add(timer);
+        total.add(timer);
+        assertEquals(202L, total.getCounter(FDBStoreTimer.Events.COMMIT).getHistogram().getCount());
+
+        // Without histograms, nothing extra is kept or reported.
+        final StoreTimer plain = new FDBStoreTimer();
+        plain.record(FDBStoreTimer.Events.COMMIT, 1_000_000L);
+        assertNull(plain.getCounter(FDBStoreTimer.Events.COMMIT).getHistogram());
+        assertFalse(plain.getKeysAndValues().containsKey("commit_p99_micros"));
+    }
+}
@@ -36,7 +36,9 @@ import com.apple.test.RandomSeedSource;
 import com.apple.test.RandomizedTestUtils;
 import com.google.common.base.Strings;
 import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import com.google.protobuf.ZeroCopyByteString;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,13 +54,16 @@ import javax.annotation.Nullable;
 import javax.crypto.SecretKey;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.stream.Stream;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
@@ -71,12 +76,15 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -802,6 +810,187 @@ public class TransformedRecordSerializerTest {
         });
     }
 
+    @ParameterizedTest
+    @MethodSource("longRecords")
+    void compressWithLz4(@Nonnull final MySimpleRecord longRecord, @Nonnull final Tuple primaryKey) {
+        TransformedRecordSerializer<Message> serializer = TransformedRecordSerializer.newDefaultBuilder()
+                .setCompressWhenSerializing(true)
+                .setCompressionCodec(Lz4RecordCompressionCodec.INSTANCE)
+                .setWriteValidationRatio(1.0)
+                .build();
+        byte[] serialized = serialize(serializer, longRecord);
+        assertTrue(isCompressed(serialized));
+        assertEquals(RecordCompressionCodec.LZ4_VERSION, serialized[1]);
+        assertEquals(RecordTypeUnion.newBuilder().setMySimpleRecord(longRecord).build().getSerializedSize(), getUncompressedSize(serialized));
+        assertEquals(longRecord, deserialize(serializer, primaryKey, serialized));
+
+        // Records written with LZ4 need a serializer that knows about it.
+        TransformedRecordSerializer<Message> defaultSerializer = TransformedRecordSerializer.newDefaultBuilder().build();
+        RecordSerializationException e = assertThrows(RecordSerializationException.class,
+                () -> deserialize(defaultSerializer, primaryKey, serialized));
+        assertThat(e.getMessage(), containsString("unknown compression version"));
+        TransformedRecordSerializer<Message> readingSerializer = TransformedRecordSerializer.newDefaultBuilder()
+                .addDecompressionCodec(Lz4RecordCompressionCodec.INSTANCE)
+                .build();
+        assertEquals(longRecord, deserialize(readingSerializer, primaryKey, serialized));
+
+        // But Deflate records can always be read.
+        byte[] deflated = serialize(TransformedRecordSerializer.newDefaultBuilder().setCompressWhenSerializing(true).build(), longRecord);
+        assertEquals(RecordCompressionCodec.DEFLATE_VERSION, deflated[1]);
+        assertEquals(longRecord, deserialize(serializer, primaryKey, deflated));
+    }
+
+    @Test
+    void lz4DecompressionError() {
+        TransformedRecordSerializer<Message> serializer = TransformedRecordSerializerJCE.newDefaultBuilder()
+                .setCompressWhenSerializing(true)
+                .setCompressionCodec(Lz4RecordCompressionCodec.INSTANCE)
+                .build();
+        MySimpleRecord simpleRecord = MySimpleRecord.newBuilder().setRecNo(PRIMARY_KEY_REC_NO).setStrValueIndexed(Strings.repeat("foo", 100)).build();
+        byte[] serialized = serialize(serializer, simpleRecord);
+        assertTrue(isCompressed(serialized));
+        assertEquals(simpleRecord, deserialize(serializer.widen(), PRIMARY_KEY, serialized));
+
+        // Corrupt the first match offset, which follows the first token and its literals.
+        final int tokenPos = 6;
+        final int literalLength = (serialized[tokenPos] & 0xF0) >>> 4;
+        assertThat(literalLength, lessThan(15));
+        serialized[tokenPos + 1 + literalLength] = (byte)0xFF;
+        serialized[tokenPos + 2 + literalLength] = (byte)0xFF;
+        RecordSerializationException e = assertThrows(RecordSerializationException.class,
+                () -> deserialize(serializer, PRIMARY_KEY, serialized));
+        assertThat(e.getMessage(), containsString("decompression error"));
+        assertThat(e.getCause(), instanceOf(DataFormatException.class));
+
+        byte[] tooSmall = serialize(serializer, simpleRecord);
+        updateSize(tooSmall, getUncompressedSize(tooSmall) + 1);
+        e = assertThrows(RecordSerializationException.class, () -> deserialize(serializer, PRIMARY_KEY, tooSmall));
+        assertThat(e.getMessage(), containsString("decompressed record too small"));
+        byte[] tooLarge = serialize(serializer, simpleRecord);
+        updateSize(tooLarge, getUncompressedSize(tooLarge) - 1);
+        e = assertThrows(RecordSerializationException.class, () -> deserialize(serializer, PRIMARY_KEY, tooLarge));
+        assertThat(e.getMessage(), containsString("decompressed record too large"));
+    }
+
+    @Test
+    void compressWithDictionary() {
+        final RecordType recordType = metaData.getRecordType("MySimpleRecord");
+        final Random random = new Random(0x5eed);
+        final List<MySimpleRecord> records = new ArrayList<>();
+        final List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MySimpleRecord rec = MySimpleRecord.newBuilder()
+                    .setRecNo(random.nextLong())
+                    .setStrValueIndexed(SONNET_108.substring(0, 40 + random.nextInt(40)))
+                    .setNumValue2(random.nextInt())
+                    .build();
+            records.add(rec);
+            samples.add(RecordTypeUnion.newBuilder().setMySimpleRecord(rec).build().toByteArray());
+        }
+        final byte[] dictionary = RecordCompressionDictionaries.train(samples, 4096);
+        assertThat(dictionary.length, greaterThan(0));
+        final RecordCompressionDictionaries dictionaries = RecordCompressionDictionaries.fromByteString(
+                new RecordCompressionDictionaries(Map.of(recordType.getName(), dictionary)).toByteString());
+        assertArrayEquals(dictionary, dictionaries.getDictionary(recordType.getName()));
+
+        TransformedRecordSerializer<Message> plain = TransformedRecordSerializer.newDefaultBuilder()
+                .setCompressWhenSerializing(true)
+                .build();
+        TransformedRecordSerializer<Message> withDictionary = TransformedRecordSerializer.newDefaultBuilder()
+                .setCompressWhenSerializing(true)
+                .setCompressionCodec(new DeflateRecordCompressionCodec(Deflater.BEST_COMPRESSION, dictionaries))
+                .setWriteValidationRatio(1.0)
+                .build();
+        int plainTotal = 0;
+        int dictionaryTotal = 0;
+        for (MySimpleRecord rec : records) {
+            plainTotal += serialize(plain, rec).length;
+            byte[] serialized = serialize(withDictionary, rec);
+            assertTrue(isCompressed(serialized));
+            assertEquals(RecordCompressionCodec.DEFLATE_DICTIONARY_VERSION, serialized[1]);
+            assertEquals(rec, deserialize(withDictionary, Tuple.from(rec.getRecNo()), serialized));
+            dictionaryTotal += serialized.length;
+        }
+        assertThat(dictionaryTotal, lessThan(plainTotal));
+        logMetrics("metrics with dictionary compression", "plain_length", plainTotal, "dictionary_length", dictionaryTotal);
+
+        // Retiring the dictionary keeps old records readable, but losing it does not.
+        final MySimpleRecord rec = records.get(0);
+        final byte[] serialized = serialize(withDictionary, rec);
+        final RecordCompressionDictionaries replaced = new RecordCompressionDictionaries(
+                Map.of(recordType.getName(), RecordCompressionDictionaries.train(samples.subList(50, 100), 1024)));
+        TransformedRecordSerializer<Message> retired = TransformedRecordSerializer.newDefaultBuilder()
+                .setCompressionCodec(new DeflateRecordCompressionCodec(Deflater.BEST_COMPRESSION, replaced.withRetired(List.of(dictionary))))
+                .build();
+        assertEquals(rec, deserialize(retired, Tuple.from(rec.getRecNo()), serialized));
+        TransformedRecordSerializer<Message> lost = TransformedRecordSerializer.newDefaultBuilder()
+                .setCompressionCodec(new DeflateRecordCompressionCodec(Deflater.BEST_COMPRESSION, replaced))
+                .build();
+        RecordSerializationException e = assertThrows(RecordSerializationException.class,
+                () -> deserialize(lost, Tuple.from(rec.getRecNo()), serialized));
+        assertThat(e.getMessage(), containsString("missing compression dictionary"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("deserializeFromPiecesArgs")
+    void deserializeFromPieces(long seed, boolean compressed, boolean encrypted) {
+        final SecretKey key = RandomSecretUtil.randomSecretKey(seed);
+        final TransformedRecordSerializer<Message> serializer = TransformedRecordSerializerJCE.newDefaultBuilder()
+                .setCompressWhenSerializing(compressed)
+                .setEncryptWhenSerializing(encrypted)
+                .setEncryptionKey(key)
+                .build();
+        final MySimpleRecord simpleRecord = MySimpleRecord.newBuilder()
+                .setRecNo(PRIMARY_KEY_REC_NO)
+                .setStrValueIndexed(SONNET_108 + "\n" + SONNET_108)
+                .build();
+        final byte[] serialized = serialize(serializer, simpleRecord);
+
+        // Split the serialized bytes the way a split record would be.
+        final Random random = new Random(seed);
+        ByteString pieces = ByteString.EMPTY;
+        int offset = 0;
+        while (offset < serialized.length) {
+            final int length = Math.min(serialized.length - offset, 1 + random.nextInt(200));
+            pieces = pieces.concat(ByteString.copyFrom(serialized, offset, length));
+            offset += length;
+        }
+        assertEquals(simpleRecord, serializer.deserialize(metaData, PRIMARY_KEY, pieces, storeTimer));
+        assertEquals(simpleRecord, serializer.deserialize(metaData, PRIMARY_KEY, ZeroCopyByteString.wrap(serialized), storeTimer));
+        final Message projected = serializer.deserialize(metaData, PRIMARY_KEY, pieces, Set.of("rec_no"), storeTimer);
+        assertThat(projected, instanceOf(LazyDynamicMessage.class));
+        assertEquals(simpleRecord, projected);
+
+        final ByteString unionBytes = RecordTypeUnion.newBuilder().setMySimpleRecord(simpleRecord).build().toByteString();
+        final ByteString unionPieces = unionBytes.substring(0, 10).concat(unionBytes.substring(10));
+        assertEquals(simpleRecord, serializer.untransformed().deserialize(metaData, PRIMARY_KEY, unionPieces, storeTimer));
+        final TypedRecordSerializer<MySimpleRecord, RecordTypeUnion, RecordTypeUnion.Builder> typedSerializer = new TypedRecordSerializer<>(
+                RecordTypeUnion.getDescriptor().findFieldByName("_MySimpleRecord"),
+                RecordTypeUnion::newBuilder,
+                RecordTypeUnion::hasMySimpleRecord,
+                RecordTypeUnion::getMySimpleRecord,
+                RecordTypeUnion.Builder::setMySimpleRecord);
+        assertEquals(simpleRecord, typedSerializer.deserialize(metaData, PRIMARY_KEY, unionPieces, storeTimer));
+    }
+
+    static Stream<Arguments> deserializeFromPiecesArgs() {
+        return ParameterizedTestUtils.cartesianProduct(
+                RandomizedTestUtils.randomSeeds(),
+                ParameterizedTestUtils.booleans("compressed"),
+                ParameterizedTestUtils.booleans("encrypted"));
+    }
+
+    @Test
+    void zeroCopyGetBytes() {
+        final byte[] bytes = SONNET_108.getBytes(StandardCharsets.UTF_8);
+        assertSame(bytes, ZeroCopyByteString.getBytes(ZeroCopyByteString.wrap(bytes)));
+        final ByteString pieces = ZeroCopyByteString.wrap(bytes, 0, 100).concat(ZeroCopyByteString.wrap(bytes, 100, bytes.length - 100));
+        final byte[] joined = ZeroCopyByteString.getBytes(pieces);
+        assertNotSame(bytes, joined);
+        assertArrayEquals(bytes, joined);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 1, 11), ZeroCopyByteString.getBytes(ZeroCopyByteString.wrap(bytes).substring(1, 11)));
+    }
+
     private boolean isCompressed(byte[] serialized) {
         byte headerByte = serialized[0];
         return headerByte == TransformedRecordSerializerPrefix.PREFIX_COMPRESSED ||
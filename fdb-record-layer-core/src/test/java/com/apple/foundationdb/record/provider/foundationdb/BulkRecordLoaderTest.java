@@ -0,0 +1,152 @@
+/*
+ * BulkRecordLoaderTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.record.IndexScanType;
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.ScanProperties;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.record.metadata.Index;
+import com.apple.foundationdb.record.metadata.Key;
+import com.apple.foundationdb.record.metadata.RecordType;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.BooleanSource;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BulkRecordLoader}.
+ */
+class BulkRecordLoaderTest extends FDBRecordStoreTestBase {
+
+    private static List<Message> simpleRecords(long count) {
+        return LongStream.range(0, count)
+                .mapToObj(recNo -> TestRecords1Proto.MySimpleRecord.newBuilder()
+                        .setRecNo(recNo)
+                        .setStrValueIndexed(recNo % 2 == 0 ? "even" : "odd")
+                        .setNumValueUnique((int)recNo)
+                        .setNumValue3Indexed((int)(recNo % 5))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @ParameterizedTest(name = "loadAndBuildIndexes [recordCountKey = {0}]")
+    @BooleanSource
+    @SuppressWarnings("deprecation") // setRecordCountKey is deprecated but older RecordMetaData objects can have it
+    void loadAndBuildIndexes(boolean recordCountKey) {
+        final RecordMetaDataHook hook = md -> {
+            md.setSplitLongRecords(true);
+            if (recordCountKey) {
+                md.setRecordCountKey(Key.Expressions.empty());
+            }
+        };
+        final FDBRecordStore.Builder storeBuilder;
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context, hook);
+            // A record that is replaced by the load, long enough to be split.
+            recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                    .setRecNo(7L)
+                    .addAllRepeater(Collections.nCopies(SplitHelper.SPLIT_RECORD_SIZE / 2, Integer.MAX_VALUE))
+                    .build());
+            storeBuilder = recordStore.asBuilder();
+            context.commit();
+        }
+
+        final List<Message> records = simpleRecords(250);
+        final long loaded;
+        try (BulkRecordLoader loader = BulkRecordLoader.newBuilder()
+                .setDatabase(fdb)
+                .setRecordStoreBuilder(storeBuilder)
+                .setMaxRecordsPerTransaction(40)
+                .build()) {
+            loaded = loader.loadRecords(records.iterator());
+        }
+        assertEquals(records.size(), loaded);
+
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context, hook);
+            for (Index index : recordStore.getRecordMetaData().getRecordType("MySimpleRecord").getAllIndexes()) {
+                assertTrue(recordStore.isIndexReadable(index), index.getName());
+            }
+            for (Message rec : records) {
+                final FDBStoredRecord<Message> stored = recordStore.loadRecord(Tuple.from(((TestRecords1Proto.MySimpleRecord)rec).getRecNo()));
+                assertNotNull(stored);
+                assertEquals(rec, TestRecords1Proto.MySimpleRecord.newBuilder().mergeFrom(stored.getRecord()).build());
+                assertFalse(stored.isSplit());
+            }
+            assertEquals(125, recordStore.scanIndexRecords("MySimpleRecord$str_value_indexed", IndexScanType.BY_VALUE,
+                    TupleRange.allOf(Tuple.from("even")), null, ScanProperties.FORWARD_SCAN).getCount().join());
+            assertEquals(records.size(), recordStore.scanIndexRecords("MySimpleRecord$num_value_unique").getCount().join());
+            // the replaced record is only counted once, whether by the record count key or by the rebuilt count index
+            assertEquals(records.size(), recordStore.getSnapshotRecordCount().join());
+        }
+    }
+
+    @Test
+    void onlyDeclaredRecordTypes() {
+        final FDBRecordStore.Builder storeBuilder;
+        final RecordType otherType;
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            storeBuilder = recordStore.asBuilder();
+            otherType = recordStore.getRecordMetaData().getRecordType("MyOtherRecord");
+            context.commit();
+        }
+
+        try (BulkRecordLoader loader = BulkRecordLoader.newBuilder()
+                .setDatabase(fdb)
+                .setRecordStoreBuilder(storeBuilder)
+                .setRecordTypes(Collections.singletonList(otherType))
+                .build()) {
+            final List<Index> indexes = loader.prepareAsync().join();
+            // Only the indexes on the declared record type are rebuilt.
+            assertEquals(otherType.getAllIndexes().size(), indexes.size());
+            RecordCoreException e = assertThrows(RecordCoreException.class,
+                    () -> fdb.asyncToSync(null, FDBStoreTimer.Waits.WAIT_BULK_LOAD_RECORDS,
+                            loader.saveRecordsAsync(simpleRecords(1).iterator())));
+            assertThat(e.getMessage(), containsString("record type is not being bulk loaded"));
+            loader.buildIndexesAsync(indexes).join();
+        }
+
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (Index index : recordStore.getRecordMetaData().getAllIndexes()) {
+                assertTrue(recordStore.isIndexReadable(index), index.getName());
+            }
+            assertEquals(0, recordStore.scanRecords(null, ScanProperties.FORWARD_SCAN).getCount().join());
+        }
+    }
+}
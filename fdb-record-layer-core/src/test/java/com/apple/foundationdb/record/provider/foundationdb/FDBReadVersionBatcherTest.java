@@ -0,0 +1,171 @@
+/*
+ * FDBReadVersionBatcherTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.record.provider.foundationdb.keyspace.KeySpacePath;
+import com.apple.foundationdb.record.test.FDBDatabaseExtension;
+import com.apple.foundationdb.record.test.TestKeySpace;
+import com.apple.foundationdb.record.test.TestKeySpacePathManagerExtension;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.Tags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link FDBReadVersionBatcher}.
+ */
+@Tag(Tags.RequiresFDB)
+class FDBReadVersionBatcherTest {
+    @RegisterExtension
+    final FDBDatabaseExtension dbExtension = new FDBDatabaseExtension();
+    @RegisterExtension
+    final TestKeySpacePathManagerExtension pathManager = new TestKeySpacePathManagerExtension(dbExtension);
+
+    private FDBDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = dbExtension.getDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.setReadVersionBatcher(null);
+    }
+
+    @Test
+    void concurrentContextsShareReadVersion() {
+        database.setReadVersionBatcher(new FDBReadVersionBatcher(database, 50L, 0L));
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final List<FDBRecordContext> contexts = new ArrayList<>();
+        try {
+            final List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final FDBRecordContext context = openSharingContext(timer);
+                contexts.add(context);
+                futures.add(context.getReadVersionAsync());
+            }
+            final long version = futures.get(0).join();
+            for (CompletableFuture<Long> future : futures) {
+                assertEquals(version, future.join());
+            }
+            for (FDBRecordContext context : contexts) {
+                assertEquals(version, context.ensureActive().getReadVersion().join());
+            }
+        } finally {
+            contexts.forEach(FDBRecordContext::close);
+        }
+        assertEquals(1, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_REQUESTS));
+        assertEquals(9, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_JOINED));
+    }
+
+    @Test
+    void sharedReadVersionSeesEarlierCommits() {
+        database.setReadVersionBatcher(new FDBReadVersionBatcher(database, 0L, 0L));
+        final KeySpacePath path = pathManager.createPath(TestKeySpace.RAW_DATA);
+        final byte[] key = database.run(path::toSubspace).pack(Tuple.from("key"));
+        try (FDBDatabaseRunner runner = database.newRunner(FDBRecordContextConfig.newBuilder().setShareReadVersion(true))) {
+            for (int i = 0; i < 3; i++) {
+                final byte[] value = Tuple.from(i).pack();
+                runner.runAsync(context -> {
+                    context.ensureActive().set(key, value);
+                    return CompletableFuture.completedFuture(null);
+                }).join();
+                final byte[] read = runner.runAsync(context -> context.ensureActive().get(key)).join();
+                assertArrayEquals(value, read);
+            }
+        }
+    }
+
+    @Test
+    void readBeforeGettingReadVersion() {
+        database.setReadVersionBatcher(new FDBReadVersionBatcher(database, 0L, 60_000L));
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final KeySpacePath path = pathManager.createPath(TestKeySpace.RAW_DATA);
+        final byte[] key = database.run(path::toSubspace).pack(Tuple.from("key"));
+        // contexts that are not opened to share their read version get their own, even if they read first
+        try (FDBRecordContext context = database.openContext(null, timer)) {
+            context.ensureActive().get(key).join();
+            assertTrue(context.getReadVersion() > 0);
+        }
+        try (FDBDatabaseRunner runner = database.newRunner(timer, null)) {
+            runner.run(context -> {
+                context.ensureActive().get(key).join();
+                return context.getReadVersion();
+            });
+        }
+        final FDBRecordContextConfig.Builder sharingConfig = FDBRecordContextConfig.newBuilder()
+                .setTimer(timer)
+                .setShareReadVersion(true);
+        try (FDBDatabaseRunner runner = database.newRunner(sharingConfig)) {
+            // contexts opened directly from a sharing runner do not share either
+            try (FDBRecordContext context = runner.openContext()) {
+                context.ensureActive().get(key).join();
+                assertTrue(context.getReadVersion() > 0);
+            }
+            assertEquals(0, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_REQUESTS));
+
+            // the runner gets the shared read version before the function reads anything
+            final long version = runner.runAsync(context -> context.ensureActive().get(key)
+                    .thenCompose(vignore -> context.getReadVersionAsync())).join();
+            assertTrue(version > 0);
+            assertEquals(1, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_REQUESTS));
+        }
+    }
+
+    @Test
+    void reusesRecentReadVersion() {
+        database.setReadVersionBatcher(new FDBReadVersionBatcher(database, 0L, 60_000L));
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final long version1;
+        try (FDBRecordContext context = openSharingContext(timer)) {
+            version1 = context.getReadVersion();
+        }
+        try (FDBRecordContext context = openSharingContext(timer)) {
+            assertEquals(version1, context.getReadVersion());
+        }
+        assertEquals(1, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_REQUESTS));
+        assertEquals(1, timer.getCount(FDBStoreTimer.Counts.SHARED_READ_VERSION_REUSED));
+
+        database.setReadVersionBatcher(null);
+        try (FDBRecordContext context = openSharingContext(timer)) {
+            assertTrue(context.getReadVersion() >= version1);
+        }
+    }
+
+    private FDBRecordContext openSharingContext(FDBStoreTimer timer) {
+        return database.openContext(FDBRecordContextConfig.newBuilder()
+                .setTimer(timer)
+                .setShareReadVersion(true)
+                .build());
+    }
+}
@@ -78,6 +78,7 @@ class FDBRecordStoreClearIndexDataTest extends FDBRecordStoreTestBase {
             FDBRecordStoreKeyspace.RECORD,                 // record data
             FDBRecordStoreKeyspace.RECORD_COUNT,           // global record counts
             FDBRecordStoreKeyspace.RECORD_VERSION_SPACE,   // per-record versions
+            FDBRecordStoreKeyspace.RECORD_CACHE_VERSION,   // store-wide record cache version-stamp
             FDBRecordStoreKeyspace.INDEX_STATE_SPACE       // keyed by index NAME, not subspace tuple key
     );
 
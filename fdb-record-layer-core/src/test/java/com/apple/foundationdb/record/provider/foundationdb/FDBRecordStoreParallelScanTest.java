@@ -0,0 +1,228 @@
+/*
+ * FDBRecordStoreParallelScanTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.record.EndpointType;
+import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.IndexEntry;
+import com.apple.foundationdb.record.IndexScanType;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.ScanProperties;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.record.metadata.Index;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.BooleanSource;
+import com.apple.test.Tags;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link FDBRecordStoreBase#scanRecordsInParallel}, {@link FDBRecordStoreBase#scanIndexInParallel} and
+ * {@link FDBRecordStore#getIndexKeyBoundaries}.
+ */
+@Tag(Tags.RequiresFDB)
+public class FDBRecordStoreParallelScanTest extends FDBRecordStoreTestBase {
+    private static final int RECORD_COUNT = 50;
+    private static final String INDEX_NAME = "MySimpleRecord$num_value_3_indexed";
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                        .setRecNo(i)
+                        .setNumValue3Indexed(i % 7)
+                        .build());
+            }
+            commit(context);
+        }
+    }
+
+    @ParameterizedTest(name = "scanRecordsInParallel [reverse = {0}]")
+    @BooleanSource
+    void scanRecordsInParallel(boolean reverse) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final List<Tuple> expected = collect(null, Integer.MAX_VALUE,
+                    (continuation, props) -> recordStore.scanRecords(TupleRange.ALL, continuation, props.setReverse(reverse)),
+                    FDBStoredRecord::getPrimaryKey);
+            assertEquals(RECORD_COUNT, expected.size());
+            for (int parallelism : new int[] {1, 2, 4}) {
+                for (int rowLimit : new int[] {Integer.MAX_VALUE, 7}) {
+                    assertEquals(expected, collect(null, rowLimit,
+                            (continuation, props) -> recordStore.scanRecordsInParallel(TupleRange.ALL, continuation, props.setReverse(reverse), parallelism, true),
+                            FDBStoredRecord::getPrimaryKey));
+                    final List<Tuple> unordered = collect(null, rowLimit,
+                            (continuation, props) -> recordStore.scanRecordsInParallel(TupleRange.ALL, continuation, props.setReverse(reverse), parallelism, false),
+                            FDBStoredRecord::getPrimaryKey);
+                    assertEquals(expected.size(), unordered.size());
+                    assertEquals(new HashSet<>(expected), new HashSet<>(unordered));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "scanIndexInParallel [reverse = {0}]")
+    @BooleanSource
+    void scanIndexInParallel(boolean reverse) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final Index index = recordStore.getRecordMetaData().getIndex(INDEX_NAME);
+            final TupleRange range = new TupleRange(Tuple.from(2), Tuple.from(5), EndpointType.RANGE_INCLUSIVE, EndpointType.RANGE_EXCLUSIVE);
+            final List<Tuple> expected = collect(null, Integer.MAX_VALUE,
+                    (continuation, props) -> recordStore.scanIndex(index, IndexScanType.BY_VALUE, range, continuation, props.setReverse(reverse)),
+                    IndexEntry::getKey);
+            assertEquals(21, expected.size());
+            for (int parallelism : new int[] {1, 3}) {
+                for (int rowLimit : new int[] {Integer.MAX_VALUE, 4}) {
+                    assertEquals(expected, collect(null, rowLimit,
+                            (continuation, props) -> recordStore.scanIndexInParallel(index, range, continuation, props.setReverse(reverse), parallelism, true),
+                            IndexEntry::getKey));
+                }
+            }
+        }
+    }
+
+    @Test
+    void scanIndexInParallelRejectsOtherIndexTypes() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            assertThrows(RecordCoreArgumentException.class,
+                    () -> recordStore.scanIndexInParallel(globalCountIndex(), TupleRange.ALL, null, ScanProperties.FORWARD_SCAN, 2, true));
+        }
+    }
+
+    @Test
+    void resumeSerialScanInParallel() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final List<Tuple> expected = collect(null, Integer.MAX_VALUE,
+                    (continuation, props) -> recordStore.scanRecords(TupleRange.ALL, continuation, props),
+                    FDBStoredRecord::getPrimaryKey);
+
+            final List<Tuple> results = new ArrayList<>();
+            final byte[] serialContinuation;
+            try (RecordCursor<FDBStoredRecord<Message>> cursor = recordStore.scanRecords(TupleRange.ALL, null,
+                    new ScanProperties(ExecuteProperties.newBuilder().setReturnedRowLimit(10).build()))) {
+                RecordCursorResult<FDBStoredRecord<Message>> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(result.get().getPrimaryKey());
+                }
+                serialContinuation = result.getContinuation().toBytes();
+            }
+            assertFalse(ParallelScanCursor.isParallelContinuation(serialContinuation));
+            // the rest of the range is resumed as a single segment, whose continuations are then those of a parallel scan
+            results.addAll(collect(serialContinuation, 15,
+                    (continuation, props) -> recordStore.scanRecordsInParallel(TupleRange.ALL, continuation, props, 3, true),
+                    FDBStoredRecord::getPrimaryKey));
+            assertEquals(expected, results);
+        }
+    }
+
+    @Test
+    void parallelContinuationIsTagged() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            try (RecordCursor<FDBStoredRecord<Message>> cursor = recordStore.scanRecordsInParallel(TupleRange.ALL, null,
+                    new ScanProperties(ExecuteProperties.newBuilder().setReturnedRowLimit(10).build()), 3, true)) {
+                RecordCursorResult<FDBStoredRecord<Message>> result;
+                do {
+                    result = cursor.getNext();
+                } while (result.hasNext());
+                assertTrue(ParallelScanCursor.isParallelContinuation(result.getContinuation().toBytes()));
+            }
+        }
+    }
+
+    @Test
+    void getIndexKeyBoundaries() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final Index index = recordStore.getRecordMetaData().getIndex(INDEX_NAME);
+            final List<Tuple> entries = collect(null, Integer.MAX_VALUE,
+                    (continuation, props) -> recordStore.scanIndex(index, IndexScanType.BY_VALUE, TupleRange.ALL, continuation, props),
+                    IndexEntry::getKey);
+            final TupleRange range = TupleRange.allOf(Tuple.from(3));
+
+            // the boundaries are only an estimate, but they must be distinct index entries, in order, within the range
+            for (TupleRange boundariesRange : new TupleRange[] {null, range}) {
+                final List<Tuple> boundaries = recordStore.getIndexKeyBoundaries(index, boundariesRange).asList().get();
+                for (int i = 0; i < boundaries.size(); i++) {
+                    final Tuple boundary = boundaries.get(i);
+                    assertTrue(entries.contains(boundary), () -> "boundary " + boundary + " should be an index entry");
+                    if (i > 0) {
+                        assertTrue(boundaries.get(i - 1).compareTo(boundary) < 0);
+                    }
+                    if (boundariesRange != null) {
+                        assertEquals(3L, boundary.getLong(0));
+                    }
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    private static <T> List<Tuple> collect(@Nullable byte[] startContinuation, int rowLimit,
+                                           @Nonnull ScanFunction<T> scanFunction,
+                                           @Nonnull Function<T, Tuple> keyFunction) {
+        final List<Tuple> results = new ArrayList<>();
+        byte[] continuation = startContinuation;
+        do {
+            final ScanProperties scanProperties = new ScanProperties(ExecuteProperties.newBuilder()
+                    .setReturnedRowLimit(rowLimit)
+                    .build());
+            try (RecordCursor<T> cursor = scanFunction.scan(continuation, scanProperties)) {
+                RecordCursorResult<T> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(keyFunction.apply(result.get()));
+                }
+                continuation = result.getContinuation().toBytes();
+            }
+        } while (continuation != null);
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ScanFunction<T> {
+        @Nonnull
+        RecordCursor<T> scan(@Nullable byte[] continuation, @Nonnull ScanProperties scanProperties);
+    }
+}
@@ -56,6 +56,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
@@ -304,6 +305,67 @@ public class FDBStoreTimerTest {
         assertThat(timer.getCounter(DummySizeEvents.SIZE_EVENT_1), Matchers.nullValue());
     }
 
+    @Test
+    void slottedTimerMatchesHashedTimer() {
+        StoreTimer hashed = new FDBStoreTimer();
+        StoreTimer slotted = new FDBStoreTimer(true);
+        for (StoreTimer timer : List.of(hashed, slotted)) {
+            timer.increment(FDBStoreTimer.Counts.CREATE_RECORD_STORE);
+            timer.increment(FDBStoreTimer.Counts.DELETE_RECORD_KEY, 3);
+            timer.record(FDBStoreTimer.Events.CHECK_VERSION, 2L);
+            timer.recordSize(DummySizeEvents.SIZE_EVENT_1, 10L);
+            timer.record(TestEvent.EVENT_WITH_SHORT_NAME, 5L);
+        }
+        assertEquals(hashed.getKeysAndValues(), slotted.getKeysAndValues());
+        assertEquals(3, slotted.getCount(FDBStoreTimer.Counts.DELETE_RECORD_KEY));
+        assertEquals(10L, slotted.getSize(DummySizeEvents.SIZE_EVENT_1));
+
+        StoreTimerSnapshot snapshot = StoreTimerSnapshot.from(slotted);
+        slotted.increment(FDBStoreTimer.Counts.DELETE_RECORD_KEY);
+        StoreTimer diff = StoreTimer.getDifference(slotted, snapshot);
+        assertThat(diff.getCounter(FDBStoreTimer.Counts.DELETE_RECORD_KEY).getCount(), Matchers.is(1));
+        assertThat(diff.getCounter(FDBStoreTimer.Counts.CREATE_RECORD_STORE), Matchers.nullValue());
+
+        slotted.reset();
+        assertThat(slotted.getCounter(FDBStoreTimer.Counts.DELETE_RECORD_KEY), Matchers.nullValue());
+        assertThat(slotted.getCounter(TestEvent.EVENT_WITH_SHORT_NAME), Matchers.nullValue());
+        slotted.increment(FDBStoreTimer.Counts.DELETE_RECORD_KEY);
+        assertEquals(1, slotted.getCount(FDBStoreTimer.Counts.DELETE_RECORD_KEY));
+    }
+
+    @Test
+    void concurrentRecording() {
+        for (StoreTimer timer : List.of(new FDBStoreTimer(), new FDBStoreTimer(true))) {
+            IntStream.range(0, 100_000).parallel().forEach(i -> {
+                timer.increment(FDBStoreTimer.Counts.BYTES_READ, 2);
+                timer.record(FDBStoreTimer.Events.CHECK_VERSION, 3L);
+            });
+            assertEquals(200_000, timer.getCount(FDBStoreTimer.Counts.BYTES_READ));
+            assertEquals(100_000, timer.getCount(FDBStoreTimer.Events.CHECK_VERSION));
+            assertEquals(300_000L, timer.getTimeNanos(FDBStoreTimer.Events.CHECK_VERSION));
+        }
+    }
+
+    @Test
+    void concurrentRecordingAndReset() {
+        final StoreTimer timer = new FDBStoreTimer(true);
+        final String countKey = FDBStoreTimer.Counts.BYTES_READ.logKeyWithSuffix("_count");
+        for (int round = 0; round < 20; round++) {
+            IntStream.range(0, 10_000).parallel().forEach(i -> {
+                if (i % 1_000 == 0) {
+                    timer.reset();
+                } else {
+                    timer.increment(FDBStoreTimer.Counts.BYTES_READ);
+                }
+            });
+            // a slot must never be left holding a counter that a reset removed from the map
+            final Number before = timer.getKeysAndValues().getOrDefault(countKey, 0);
+            timer.increment(FDBStoreTimer.Counts.BYTES_READ);
+            assertEquals(before.intValue() + 1, timer.getKeysAndValues().get(countKey).intValue());
+            assertEquals(timer.getKeysAndValues().get(countKey).intValue(), timer.getCount(FDBStoreTimer.Counts.BYTES_READ));
+        }
+    }
+
     private enum TestEvent implements StoreTimer.Event {
 
         EVENT_WITH_LONG_NAME("An event with a very long name", "ShorterName"),
@@ -24,8 +24,10 @@ import com.apple.foundationdb.KeyValue;
 import com.apple.foundationdb.record.EndpointType;
 import com.apple.foundationdb.record.ExecuteProperties;
 import com.apple.foundationdb.record.ExecuteState;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
 import com.apple.foundationdb.record.RecordCoreException;
 import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorBatch;
 import com.apple.foundationdb.record.RecordCursorContinuation;
 import com.apple.foundationdb.record.RecordCursorIterator;
 import com.apple.foundationdb.record.RecordCursorProto;
@@ -53,13 +55,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -484,6 +490,95 @@ public class KeyValueCursorTest {
         });
     }
 
+    @ParameterizedTest
+    @EnumSource(KeyValueCursorBase.SerializationMode.class)
+    public void batches(KeyValueCursorBase.SerializationMode serializationMode) {
+        fdb.run(context -> {
+            byte[] continuation = null;
+            List<Tuple> values = new ArrayList<>();
+            RecordCursorBatch<KeyValue> batch;
+            do {
+                KeyValueCursor cursor = KeyValueCursor.Builder.withSubspace(subspace)
+                        .setContext(context)
+                        .setRange(TupleRange.ALL)
+                        .setContinuation(continuation)
+                        .setScanProperties(ScanProperties.FORWARD_SCAN)
+                        .setSerializationMode(serializationMode)
+                        .build();
+                batch = cursor.onNextBatch(7).join();
+                assertThat(batch.size(), lessThanOrEqualTo(7));
+                batch.getValues().forEach(kv -> values.add(Tuple.fromBytes(kv.getValue())));
+                continuation = batch.getContinuation().toBytes();
+            } while (!batch.isTerminal());
+            assertEquals(RecordCursor.NoNextReason.SOURCE_EXHAUSTED, batch.getNoNextReason());
+            assertNull(continuation);
+            assertEquals(25, values.size());
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 5; j++) {
+                    assertEquals(Tuple.from((long)i, (long)j), values.get(i * 5 + j));
+                }
+            }
+
+            // Mixing batches with single results resumes at the right place.
+            KeyValueCursor cursor = KeyValueCursor.Builder.withSubspace(subspace)
+                    .setContext(context)
+                    .setRange(TupleRange.allOf(Tuple.from(3)))
+                    .setContinuation(null)
+                    .setScanProperties(ScanProperties.FORWARD_SCAN.with(props -> props.setReturnedRowLimit(4)))
+                    .setSerializationMode(serializationMode)
+                    .build();
+            batch = cursor.onNextBatch(2).join();
+            assertFalse(batch.isTerminal());
+            assertEquals(Arrays.asList(Tuple.from(3L, 0L), Tuple.from(3L, 1L)),
+                    batch.getValues().stream().map(kv -> Tuple.fromBytes(kv.getValue())).collect(Collectors.toList()));
+            RecordCursorResult<KeyValue> result = cursor.getNext();
+            assertEquals(Tuple.from(3L, 2L), Tuple.fromBytes(result.get().getValue()));
+            batch = cursor.onNextBatch(5).join();
+            assertTrue(batch.isTerminal());
+            assertEquals(1, batch.size());
+            assertEquals(RecordCursor.NoNextReason.RETURN_LIMIT_REACHED, batch.getNoNextReason());
+            assertEquals(RecordCursor.NoNextReason.RETURN_LIMIT_REACHED, cursor.getNext().getNoNextReason());
+
+            KeyValueCursor unread = KeyValueCursor.Builder.withSubspace(subspace)
+                    .setContext(context)
+                    .setRange(TupleRange.ALL)
+                    .setScanProperties(ScanProperties.FORWARD_SCAN)
+                    .setSerializationMode(serializationMode)
+                    .build();
+            assertThrows(RecordCoreArgumentException.class, () -> unread.onNextBatch(0));
+            assertThrows(RecordCoreArgumentException.class, () -> unread.onNextBatch(-1));
+            return null;
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(KeyValueCursorBase.SerializationMode.class)
+    public void batchScanLimit(KeyValueCursorBase.SerializationMode serializationMode) {
+        fdb.run(context -> {
+            RecordScanLimiter limiter = RecordScanLimiterFactory.enforce(3);
+            KeyValueCursor cursor = KeyValueCursor.Builder.withSubspace(subspace)
+                    .setContext(context)
+                    .setRange(TupleRange.ALL)
+                    .setScanProperties(forwardScanWithLimiter(limiter))
+                    .setSerializationMode(serializationMode)
+                    .build();
+            RecordCursorBatch<KeyValue> batch = cursor.onNextBatch(10).join();
+            assertTrue(batch.isTerminal());
+            assertEquals(3, batch.size());
+            assertThat("no next reason should be SCAN_LIMIT_REACHED", batch.getNoNextReason(),
+                    equalTo(RecordCursor.NoNextReason.SCAN_LIMIT_REACHED));
+            assertEquals(Tuple.from(0L, 3L), Tuple.fromBytes(KeyValueCursor.Builder.withSubspace(subspace)
+                    .setContext(context)
+                    .setRange(TupleRange.ALL)
+                    .setContinuation(batch.getContinuation().toBytes())
+                    .setScanProperties(ScanProperties.FORWARD_SCAN)
+                    .setSerializationMode(serializationMode)
+                    .build()
+                    .getNext().get().getValue()));
+            return null;
+        });
+    }
+
     private ScanProperties forwardScanWithLimiter(RecordScanLimiter limiter) {
         return new ScanProperties(ExecuteProperties.SERIAL_EXECUTE.setState(new ExecuteState(limiter, null)));
     }
@@ -198,6 +198,46 @@ class OnlineIndexerMultiTargetTest extends OnlineIndexerTest {
         scrubAndValidate(indexes);
     }
 
+    @ParameterizedTest
+    @BooleanSource
+    void testMultiTargetSortedBatch(boolean reverseScan) {
+        // Build the index in small chunks, writing value index entries in sorted batches
+
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final int numRecords = 107;
+        final int chunkSize  = 17;
+        final int numChunks  = 1 + (numRecords / chunkSize);
+
+        List<Index> indexes = new ArrayList<>();
+        indexes.add(new Index("indexD", new GroupingKeyExpression(EmptyKeyExpression.EMPTY, 0), IndexTypes.COUNT));
+        indexes.add(new Index("indexA", field("num_value_2"), EmptyKeyExpression.EMPTY, IndexTypes.VALUE, IndexOptions.UNIQUE_OPTIONS));
+        indexes.add(new Index("indexB", field("num_value_3_indexed"), IndexTypes.VALUE));
+        indexes.add(new Index("indexC", field("num_value_unique"), EmptyKeyExpression.EMPTY, IndexTypes.VALUE, IndexOptions.UNIQUE_OPTIONS));
+
+        populateData(numRecords);
+
+        FDBRecordStoreTestBase.RecordMetaDataHook hook = allIndexesHook(indexes);
+        openSimpleMetaData(hook);
+        disableAll(indexes);
+        try (OnlineIndexer indexBuilder = newIndexerBuilder(indexes, timer)
+                .setIndexingPolicy(OnlineIndexer.IndexingPolicy.newBuilder()
+                        .setReverseScanOrder(reverseScan)
+                        .setSortedBatchMaxEntries(10))
+                .setLimit(chunkSize)
+                .build()) {
+            indexBuilder.buildIndex(true);
+        }
+
+        assertEquals(numRecords, timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RECORDS_SCANNED));
+        assertEquals(numRecords, timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RECORDS_INDEXED));
+        assertEquals(numChunks , timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RANGES_BY_COUNT));
+        // The count index is still updated record by record
+        assertEquals(3 * numRecords, timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_SORTED_ENTRIES));
+        assertTrue(numChunks < timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_SORTED_BATCHES));
+        assertReadable(indexes);
+        scrubAndValidate(indexes);
+    }
+
     @ParameterizedTest
     @BooleanSource
     void testMultiTargetWithTimeQuota(boolean reverseScan) {
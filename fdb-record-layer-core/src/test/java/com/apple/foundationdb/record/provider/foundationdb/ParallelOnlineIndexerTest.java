@@ -0,0 +1,116 @@
+/*
+ * ParallelOnlineIndexerTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb;
+
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.metadata.Index;
+import com.apple.foundationdb.record.metadata.IndexOptions;
+import com.apple.foundationdb.record.metadata.IndexTypes;
+import com.apple.foundationdb.record.metadata.expressions.EmptyKeyExpression;
+import com.apple.test.Tags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.apple.foundationdb.record.metadata.Key.Expressions.field;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ParallelOnlineIndexer}.
+ */
+@Tag(Tags.Slow)
+class ParallelOnlineIndexerTest extends OnlineIndexerTest {
+
+    private static List<Index> valueIndexes() {
+        List<Index> indexes = new ArrayList<>();
+        indexes.add(new Index("indexA", field("num_value_2"), EmptyKeyExpression.EMPTY, IndexTypes.VALUE, IndexOptions.UNIQUE_OPTIONS));
+        indexes.add(new Index("indexB", field("num_value_3_indexed"), IndexTypes.VALUE));
+        indexes.add(new Index("indexC", field("num_value_unique"), EmptyKeyExpression.EMPTY, IndexTypes.VALUE, IndexOptions.UNIQUE_OPTIONS));
+        return indexes;
+    }
+
+    @Test
+    void testParallelShardBoundaries() {
+        // The data set is too small to have multiple shards, so there is a single fragment for all the workers
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final long numRecords = 200;
+        final List<Index> indexes = valueIndexes();
+
+        populateData(numRecords);
+
+        FDBRecordStoreTestBase.RecordMetaDataHook hook = allIndexesHook(indexes);
+        openSimpleMetaData(hook);
+        disableAll(indexes);
+        try (ParallelOnlineIndexer indexer = ParallelOnlineIndexer.newBuilder()
+                .setIndexerBuilder(newIndexerBuilder(indexes, timer).setLimit(20))
+                .setWorkerCount(4)
+                .build()) {
+            indexer.buildIndex();
+            assertTrue(numRecords <= indexer.getRecordsScanned());
+        }
+        assertTrue(numRecords <= timer.getCount(FDBStoreTimer.Counts.ONLINE_INDEX_BUILDER_RECORDS_INDEXED));
+        assertReadable(indexes);
+        scrubAndValidate(indexes);
+    }
+
+    @Test
+    void testParallelPresetBoundaries() {
+        final FDBStoreTimer timer = new FDBStoreTimer();
+        final long numRecords = 500;
+        final List<Index> indexes = valueIndexes();
+
+        populateData(numRecords);
+
+        FDBRecordStoreTestBase.RecordMetaDataHook hook = allIndexesHook(indexes);
+        openSimpleMetaData(hook);
+        disableAll(indexes);
+        try (ParallelOnlineIndexer indexer = ParallelOnlineIndexer.newBuilder()
+                .setIndexerBuilder(newIndexerBuilder(indexes, timer).setLimit(20))
+                .setIndexingPolicy(OnlineIndexer.IndexingPolicy.newBuilder()
+                        .setMutualIndexingBoundaries(getBoundariesList(numRecords, 30))
+                        .build())
+                .setWorkerCount(5)
+                .build()) {
+            assertEquals(5, indexer.getWorkerCount());
+            indexer.buildIndex();
+            assertTrue(numRecords <= indexer.getRecordsScanned());
+            assertThrows(RecordCoreException.class, indexer::buildIndexAsync);
+        }
+        assertReadable(indexes);
+        scrubAndValidate(indexes);
+    }
+
+    @Test
+    void testParallelForbidsReverseScan() {
+        final List<Index> indexes = valueIndexes();
+        openSimpleMetaData(allIndexesHook(indexes));
+        assertThrows(IndexingBase.ValidationException.class, () -> ParallelOnlineIndexer.newBuilder()
+                .setIndexerBuilder(newIndexerBuilder(indexes))
+                .setIndexingPolicy(OnlineIndexer.IndexingPolicy.newBuilder()
+                        .setReverseScanOrder(true)
+                        .build())
+                .build());
+    }
+}
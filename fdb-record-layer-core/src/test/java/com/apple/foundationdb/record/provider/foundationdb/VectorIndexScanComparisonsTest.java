@@ -20,7 +20,10 @@
 
 package com.apple.foundationdb.record.provider.foundationdb;
 
+import com.apple.foundationdb.async.common.SearchFilter;
 import com.apple.foundationdb.linear.DoubleRealVector;
+import com.apple.foundationdb.record.PlanHashable;
+import com.apple.foundationdb.record.TupleRange;
 import com.apple.foundationdb.record.query.expressions.Comparisons;
 import com.apple.foundationdb.record.query.plan.ScanComparisons;
 import com.apple.foundationdb.record.query.plan.cascades.AliasMap;
@@ -31,6 +34,7 @@ import com.apple.foundationdb.record.query.plan.cascades.values.LiteralValue;
 import com.apple.foundationdb.record.query.plan.cascades.values.QuantifiedObjectValue;
 import com.apple.foundationdb.record.query.plan.cascades.values.translation.TranslationMap;
 import com.apple.foundationdb.record.query.plan.explain.DefaultExplainFormatter;
+import com.apple.foundationdb.tuple.Tuple;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -208,6 +212,48 @@ class VectorIndexScanComparisonsTest {
         assertThat(scanComparisons.getInequalityComparisons()).isEmpty();
     }
 
+    @Test
+    void primaryKeyComparisonsTest() {
+        final ScanComparisons prefixScanComparisons = correlatedPrefixScanComparisons();
+        final Comparisons.DistanceRankValueComparison distanceRankComparison = correlatedDistanceRankComparison();
+        final ScanComparisons primaryKeyScanComparisons = new ScanComparisons.Builder()
+                .addInequalityComparison(
+                        new Comparisons.ValueComparison(Comparisons.Type.GREATER_THAN, new LiteralValue<>(5L)))
+                .build();
+
+        final VectorIndexScanComparisons withoutPrimaryKeyComparisons =
+                VectorIndexScanComparisons.byDistance(prefixScanComparisons, distanceRankComparison);
+        final VectorIndexScanComparisons withPrimaryKeyComparisons =
+                VectorIndexScanComparisons.byDistance(prefixScanComparisons, distanceRankComparison,
+                        ImmutableList.of(ScanComparisons.EMPTY, primaryKeyScanComparisons));
+        assertThat(withoutPrimaryKeyComparisons.getPrimaryKeyComparisons()).isEmpty();
+        assertThat(withPrimaryKeyComparisons.getPrimaryKeyComparisons())
+                .containsExactly(ScanComparisons.EMPTY, primaryKeyScanComparisons);
+        assertThat(withPrimaryKeyComparisons).isNotEqualTo(withoutPrimaryKeyComparisons);
+        assertThat(withPrimaryKeyComparisons.planHash(PlanHashable.CURRENT_FOR_CONTINUATION))
+                .isNotEqualTo(withoutPrimaryKeyComparisons.planHash(PlanHashable.CURRENT_FOR_CONTINUATION));
+        assertThat(renderExplain(withPrimaryKeyComparisons)).isNotEqualTo(renderExplain(withoutPrimaryKeyComparisons));
+
+        final IndexScanParameters rebased = withPrimaryKeyComparisons.rebase(AliasMap.ofAliases(q1(), q5()));
+        assertThat(((VectorIndexScanComparisons)rebased).getPrimaryKeyComparisons())
+                .containsExactly(ScanComparisons.EMPTY, primaryKeyScanComparisons);
+
+        final VectorIndexScanBounds scanBounds =
+                new VectorIndexScanBounds(TupleRange.ALL, distanceRankComparison.getType(), null, 10,
+                        VectorIndexScanOptions.empty(),
+                        ImmutableList.of(ScanComparisons.EMPTY.toTupleRange(), primaryKeyScanComparisons.toTupleRange()));
+        final SearchFilter searchFilter = scanBounds.getSearchFilter();
+        assertThat(searchFilter).isNotNull();
+        assertThat(searchFilter.matches(Tuple.from("a", 6L), null)).isTrue();
+        assertThat(searchFilter.matches(Tuple.from("b", 5L), null)).isFalse();
+        assertThat(searchFilter.matches(Tuple.from("c", 4L), null)).isFalse();
+
+        final VectorIndexScanBounds unconstrainedScanBounds =
+                new VectorIndexScanBounds(TupleRange.ALL, distanceRankComparison.getType(), null, 10,
+                        VectorIndexScanOptions.empty());
+        assertThat(unconstrainedScanBounds.getSearchFilter()).isNull();
+    }
+
     @Nonnull
     protected static String renderExplain(@Nonnull final IndexScanParameters vectorIndexScanComparisons) {
         return vectorIndexScanComparisons.explain()
@@ -0,0 +1,208 @@
+/*
+ * ParallelScanCursorTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.cursors;
+
+import com.apple.foundationdb.Range;
+import com.apple.foundationdb.record.EndpointType;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.TupleRange;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
+import com.apple.foundationdb.tuple.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ParallelScanCursor}.
+ */
+public class ParallelScanCursorTest {
+    private static final List<Tuple> keys = IntStream.range(0, 100).mapToObj(Tuple::from).collect(Collectors.toList());
+    private static final List<Tuple> splitPoints = Arrays.asList(Tuple.from(-5), Tuple.from(10), Tuple.from(25),
+            Tuple.from(25), Tuple.from(50), Tuple.from(200));
+
+    private final AtomicInteger splitCalls = new AtomicInteger();
+
+    @Nonnull
+    private static RecordCursor<Tuple> segmentCursor(@Nonnull TupleRange segment, @Nullable byte[] continuation,
+                                                     boolean reverse, int segmentLimit) {
+        final Range range = segment.toRange();
+        final List<Tuple> inSegment = new ArrayList<>();
+        for (Tuple key : keys) {
+            final byte[] packed = key.pack();
+            if (ByteArrayUtil.compareUnsigned(range.begin, packed) <= 0 && ByteArrayUtil.compareUnsigned(packed, range.end) < 0) {
+                inSegment.add(key);
+            }
+        }
+        if (reverse) {
+            Collections.reverse(inSegment);
+        }
+        return RecordCursor.fromList(ForkJoinPool.commonPool(), inSegment, continuation).limitRowsTo(segmentLimit);
+    }
+
+    @Nonnull
+    private ParallelScanCursor<Tuple> newCursor(@Nonnull TupleRange range, boolean reverse, boolean ordered, int parallelism,
+                                                int segmentLimit, @Nullable byte[] continuation) {
+        return new ParallelScanCursor<>(range,
+                (segment, segmentContinuation) -> segmentCursor(segment, segmentContinuation, reverse, segmentLimit),
+                ignore -> {
+                    splitCalls.incrementAndGet();
+                    return CompletableFuture.completedFuture(splitPoints);
+                },
+                reverse, ordered, parallelism, 3, ForkJoinPool.commonPool(), continuation);
+    }
+
+    @Nonnull
+    private List<Tuple> collect(@Nonnull TupleRange range, boolean reverse, boolean ordered, int parallelism,
+                                int segmentLimit, int rowLimit) {
+        final List<Tuple> results = new ArrayList<>();
+        byte[] continuation = null;
+        do {
+            try (RecordCursor<Tuple> cursor = newCursor(range, reverse, ordered, parallelism, segmentLimit, continuation).limitRowsTo(rowLimit)) {
+                RecordCursorResult<Tuple> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(result.get());
+                }
+                continuation = result.getContinuation().toBytes();
+            }
+        } while (continuation != null);
+        return results;
+    }
+
+    @Nonnull
+    private static List<Tuple> expected(int low, int high, boolean reverse) {
+        final List<Tuple> expected = new ArrayList<>(keys.subList(low, high));
+        if (reverse) {
+            Collections.reverse(expected);
+        }
+        return expected;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void ordered(boolean reverse) {
+        for (int parallelism : new int[] {1, 2, 8}) {
+            assertEquals(expected(0, 100, reverse), collect(TupleRange.ALL, reverse, true, parallelism, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void unordered(boolean reverse) {
+        for (int parallelism : new int[] {1, 2, 8}) {
+            final List<Tuple> results = collect(TupleRange.ALL, reverse, false, parallelism, Integer.MAX_VALUE, Integer.MAX_VALUE);
+            assertEquals(100, results.size());
+            assertEquals(new HashSet<>(keys), new HashSet<>(results));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 7, 30})
+    public void resumeOrdered(int rowLimit) {
+        assertEquals(expected(0, 100, false), collect(TupleRange.ALL, false, true, 3, Integer.MAX_VALUE, rowLimit));
+        // the split is only computed when starting from the beginning
+        assertEquals(1, splitCalls.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 7, 30})
+    public void resumeUnordered(int rowLimit) {
+        final List<Tuple> results = collect(TupleRange.ALL, false, false, 3, Integer.MAX_VALUE, rowLimit);
+        assertEquals(100, results.size());
+        assertEquals(new HashSet<>(keys), new HashSet<>(results));
+    }
+
+    @Test
+    public void segmentLimits() {
+        // segments stopping early stop the whole cursor, which then resumes where they left off
+        assertEquals(expected(0, 100, false), collect(TupleRange.ALL, false, true, 2, 4, Integer.MAX_VALUE));
+        final List<Tuple> results = collect(TupleRange.ALL, false, false, 2, 4, Integer.MAX_VALUE);
+        assertEquals(100, results.size());
+        assertEquals(new HashSet<>(keys), new HashSet<>(results));
+    }
+
+    @Test
+    public void resumeSerialContinuation() {
+        final List<Tuple> results = new ArrayList<>();
+        final byte[] serialContinuation;
+        try (RecordCursor<Tuple> cursor = segmentCursor(TupleRange.ALL, null, false, 10)) {
+            RecordCursorResult<Tuple> result;
+            while ((result = cursor.getNext()).hasNext()) {
+                results.add(result.get());
+            }
+            serialContinuation = result.getContinuation().toBytes();
+        }
+        assertFalse(ParallelScanCursor.isParallelContinuation(serialContinuation));
+        byte[] continuation = serialContinuation;
+        do {
+            try (RecordCursor<Tuple> cursor = newCursor(TupleRange.ALL, false, true, 3, Integer.MAX_VALUE, continuation).limitRowsTo(25)) {
+                RecordCursorResult<Tuple> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(result.get());
+                }
+                continuation = result.getContinuation().toBytes();
+                assertTrue(continuation == null || ParallelScanCursor.isParallelContinuation(continuation));
+            }
+        } while (continuation != null);
+        assertEquals(expected(0, 100, false), results);
+        // the serial scan is resumed as a single segment, without splitting the rest of the range
+        assertEquals(0, splitCalls.get());
+    }
+
+    @Test
+    public void subRange() {
+        final TupleRange range = new TupleRange(Tuple.from(5), Tuple.from(60), EndpointType.RANGE_EXCLUSIVE,
+                EndpointType.RANGE_INCLUSIVE);
+        assertEquals(expected(6, 61, false), collect(range, false, true, 4, Integer.MAX_VALUE, 6));
+        assertEquals(expected(6, 61, true), collect(range, true, true, 4, Integer.MAX_VALUE, 6));
+    }
+
+    @Test
+    public void splitRange() {
+        final List<ParallelScanCursor.SegmentBounds> segments = ParallelScanCursor.splitRange(TupleRange.ALL, splitPoints, false);
+        // duplicate points are ignored, and points outside the keys present just make empty segments
+        assertEquals(Arrays.asList(null, Tuple.from(-5), Tuple.from(10), Tuple.from(25), Tuple.from(50), Tuple.from(200)),
+                segments.stream().map(ParallelScanCursor.SegmentBounds::getLow).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(Tuple.from(-5), Tuple.from(10), Tuple.from(25), Tuple.from(50), Tuple.from(200), null),
+                segments.stream().map(ParallelScanCursor.SegmentBounds::getHigh).collect(Collectors.toList()));
+
+        final List<ParallelScanCursor.SegmentBounds> prefixed = ParallelScanCursor.splitRange(TupleRange.allOf(Tuple.from(25)), splitPoints, true);
+        // only points strictly inside the range divide it
+        assertEquals(1, prefixed.size());
+    }
+}
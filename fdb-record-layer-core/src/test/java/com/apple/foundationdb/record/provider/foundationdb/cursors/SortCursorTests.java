@@ -23,6 +23,7 @@ package com.apple.foundationdb.record.provider.foundationdb.cursors;
 import com.apple.foundationdb.record.EndpointType;
 import com.apple.foundationdb.record.EvaluationContext;
 import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
 import com.apple.foundationdb.record.RecordCursor;
 import com.apple.foundationdb.record.RecordCursorResult;
 import com.apple.foundationdb.record.ScanProperties;
@@ -42,6 +43,7 @@ import com.apple.foundationdb.record.query.plan.sorting.RecordQuerySortKey;
 import com.apple.foundationdb.record.query.plan.sorting.RecordQuerySortPlan;
 import com.apple.foundationdb.record.sorting.FileSortAdapter;
 import com.apple.foundationdb.record.sorting.FileSortCursor;
+import com.apple.foundationdb.record.sorting.FileSorter;
 import com.apple.foundationdb.record.sorting.MemorySortAdapter;
 import com.apple.foundationdb.record.sorting.MemorySortCursor;
 import com.apple.foundationdb.record.sorting.MemorySorter;
@@ -66,9 +68,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Tests for {@link MemorySortCursor} and {@link FileSortCursor}.
@@ -471,6 +475,35 @@ public class SortCursorTests extends FDBRecordStoreTestBase {
         };
     }
 
+    private FileSortAdapterBase fileSortMemoryMappedAdapter() {
+        return new FileSortAdapterBase() {
+            @Override
+            public int getMinFileRecordCount() {
+                return 10;
+            }
+
+            @Override
+            public int getMaxFileCount() {
+                return 5;
+            }
+
+            @Override
+            public int getRecordCountPerSection() {
+                return 3;
+            }
+
+            @Override
+            public int getMaxRecordCountInMemory() {
+                return 10;
+            }
+
+            @Override
+            public boolean isMemoryMapped() {
+                return true;
+            }
+        };
+    }
+
     @Test
     public void fileSortMemory() throws Exception {
         final Function<byte[], RecordCursor<FDBQueriedRecord<Message>>> scanRecords =
@@ -527,4 +560,67 @@ public class SortCursorTests extends FDBRecordStoreTestBase {
         assertEquals(sortedNums, resultNums);
     }
 
+    @Test
+    public void fileSortMemoryMapped() throws Exception {
+        final Function<byte[], RecordCursor<FDBQueriedRecord<Message>>> scanRecords =
+                continuation -> recordStore.scanRecords(null, null, EndpointType.TREE_START, EndpointType.TREE_END, continuation, ScanProperties.FORWARD_SCAN).map(FDBQueriedRecord::stored);
+        List<Integer> resultNums;
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            try (RecordCursor<FDBQueriedRecord<Message>> cursor = FileSortCursor.create(fileSortMemoryMappedAdapter(), scanRecords, timer, null, 0, Integer.MAX_VALUE)) {
+                resultNums = cursor.map(r -> TestRecords1Proto.MySimpleRecord.newBuilder().mergeFrom(r.getRecord()).getNumValue2()).asList().get();
+            }
+        }
+        assertEquals(sortedNums, resultNums);
+    }
+
+    @Test
+    public void fileSortMemoryMappedSkip() throws Exception {
+        final Function<byte[], RecordCursor<FDBQueriedRecord<Message>>> scanRecords =
+                continuation -> recordStore.scanRecords(null, null, EndpointType.TREE_START, EndpointType.TREE_END, continuation, ScanProperties.FORWARD_SCAN).map(FDBQueriedRecord::stored);
+        List<Integer> resultNums;
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            try (RecordCursor<FDBQueriedRecord<Message>> cursor = FileSortCursor.create(fileSortMemoryMappedAdapter(), scanRecords, timer, null, 13, 8)) {
+                resultNums = cursor.map(r -> TestRecords1Proto.MySimpleRecord.newBuilder().mergeFrom(r.getRecord()).getNumValue2()).asList().get();
+            }
+        }
+        assertEquals(sortedNums.subList(13, 21), resultNums);
+    }
+
+    @Test
+    public void fileSortMemoryMappedCannotBeCompressed() {
+        final FileSortAdapterBase adapter = new FileSortAdapterBase() {
+            @Override
+            public int getMinFileRecordCount() {
+                return 10;
+            }
+
+            @Override
+            public int getMaxFileCount() {
+                return 5;
+            }
+
+            @Override
+            public int getRecordCountPerSection() {
+                return 3;
+            }
+
+            @Override
+            public int getMaxRecordCountInMemory() {
+                return 10;
+            }
+
+            @Override
+            public boolean isCompressed() {
+                return true;
+            }
+
+            @Override
+            public boolean isMemoryMapped() {
+                return true;
+            }
+        };
+        assertThrows(RecordCoreArgumentException.class, () -> new FileSorter<>(adapter, timer, ForkJoinPool.commonPool()));
+    }
 }
@@ -62,6 +62,7 @@ class KeySpaceTreeResolverTest {
             FDBRecordStoreKeyspace.RECORD,                 // record data — has its own resolution branch
             FDBRecordStoreKeyspace.RECORD_COUNT,           // global record counts
             FDBRecordStoreKeyspace.RECORD_VERSION_SPACE,   // per-record versions
+            FDBRecordStoreKeyspace.RECORD_CACHE_VERSION,   // store-wide record cache version-stamp
             FDBRecordStoreKeyspace.INDEX_STATE_SPACE       // keyed by index NAME, not subspace key (see TODO in resolveNonDirectory)
     );
 
@@ -0,0 +1,234 @@
+/*
+ * FDBHashAggregationTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.query;
+
+import com.apple.foundationdb.record.ByteScanLimiterFactory;
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.ExecuteState;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.RecordScanLimiterFactory;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.query.plan.ScanComparisons;
+import com.apple.foundationdb.record.query.plan.cascades.Quantifier;
+import com.apple.foundationdb.record.query.plan.cascades.Reference;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.GroupByExpression;
+import com.apple.foundationdb.record.query.plan.cascades.typing.Type;
+import com.apple.foundationdb.record.query.plan.cascades.typing.TypeRepository;
+import com.apple.foundationdb.record.query.plan.cascades.values.FieldValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.NumericAggregationValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.RecordConstructorValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.Value;
+import com.apple.foundationdb.record.query.plan.plans.QueryResult;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashAggregationPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryScanPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryTypeFilterPlan;
+import com.apple.test.Tags;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of executing {@link RecordQueryHashAggregationPlan}s.
+ */
+@Tag(Tags.RequiresFDB)
+class FDBHashAggregationTest extends FDBRecordStoreQueryTestBase {
+    /*
+     * The database contains:
+     *
+     * MySimpleRecord:
+     * -----------------------------------------------------
+     * | recno | NumValue2 | NumValue3Indexed | StrValueIndexed |
+     * -----------------------------------------------------
+     * |     0 |         0 |                0 |          "even" |
+     * |     1 |         1 |                1 |           "odd" |
+     * |     2 |         2 |                2 |          "even" |
+     * |     3 |         3 |                0 |           "odd" |
+     * |     4 |         4 |                1 |          "even" |
+     * |     5 |         5 |                2 |           "odd" |
+     * |     6 |         6 |                0 |          "even" |
+     * |     7 |         7 |                1 |           "odd" |
+     * |     8 |         8 |                2 |          "even" |
+     * -----------------------------------------------------
+     *
+     * The scan returns the records in primary key order, so the groups are not contiguous.
+     */
+    @BeforeEach
+    void setup() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (int i = 0; i <= 8; i++) {
+                recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                        .setRecNo(i)
+                        .setNumValue2(i)
+                        .setNumValue3Indexed(i % 3)
+                        .setStrValueIndexed(i % 2 == 0 ? "even" : "odd")
+                        .setNumValueUnique(i)
+                        .build());
+            }
+            commit(context);
+        }
+    }
+
+    @ParameterizedTest(name = "aggregateOneGroupByOne[rowLimit={0}]")
+    @ValueSource(ints = {0, 1, 2, 3})
+    void aggregateOneGroupByOne(int rowLimit) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = hashAggregationPlan(List.of("num_value_3_indexed"), 10);
+            // groups are returned in the order in which they were first seen
+            assertEquals(List.of(List.of(0, 9), List.of(1, 12), List.of(2, 15)),
+                    executeWithLimits(plan, rowLimit, 0));
+        }
+    }
+
+    @ParameterizedTest(name = "aggregateOneGroupByTwo[rowLimit={0}]")
+    @ValueSource(ints = {0, 1, 4})
+    void aggregateOneGroupByTwo(int rowLimit) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = hashAggregationPlan(List.of("num_value_3_indexed", "str_value_indexed"), 10);
+            assertEquals(List.of(
+                    List.of(0, "even", 6), List.of(1, "odd", 8), List.of(2, "even", 10),
+                    List.of(0, "odd", 3), List.of(1, "even", 4), List.of(2, "odd", 5)),
+                    executeWithLimits(plan, rowLimit, 0));
+        }
+    }
+
+    @ParameterizedTest(name = "partialAggregates[recordScanLimit={0}]")
+    @ValueSource(ints = {1, 2, 5})
+    void partialAggregates(int recordScanLimit) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = hashAggregationPlan(List.of("num_value_3_indexed"), 10);
+            // the partial aggregates of all groups are carried in the continuation until the scan is done
+            assertEquals(List.of(List.of(0, 9), List.of(1, 12), List.of(2, 15)),
+                    executeWithLimits(plan, 0, recordScanLimit));
+        }
+    }
+
+    @Test
+    void noRecords() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = hashAggregationPlan("MyOtherRecord", List.of("num_value_3_indexed"), 10);
+            assertEquals(Collections.emptyList(), executeWithLimits(plan, 0, 0));
+        }
+    }
+
+    @ParameterizedTest(name = "spillGroups[rowLimit={0}, recordScanLimit={1}]")
+    @CsvSource({"0, 0", "1, 0", "0, 1", "0, 2", "2, 5"})
+    void spillGroups(int rowLimit, int recordScanLimit) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = hashAggregationPlan(List.of("num_value_3_indexed", "str_value_indexed"), 2);
+            final List<List<Object>> results = executeWithLimits(plan, rowLimit, recordScanLimit);
+            assertEquals(Set.of(
+                    List.of(0, "even", 6), List.of(1, "odd", 8), List.of(2, "even", 10),
+                    List.of(0, "odd", 3), List.of(1, "even", 4), List.of(2, "odd", 5)),
+                    new HashSet<>(results));
+            assertEquals(6, results.size());
+            // the spilled groups are returned first, in sort order, followed by the two groups held in memory
+            assertEquals(List.of(List.of(0, "even", 6), List.of(1, "odd", 8)), results.subList(4, 6));
+        }
+    }
+
+    @Nonnull
+    private RecordQueryPlan hashAggregationPlan(@Nonnull List<String> groupFieldNames, int maxGroups) {
+        return hashAggregationPlan("MySimpleRecord", groupFieldNames, maxGroups);
+    }
+
+    @Nonnull
+    private RecordQueryPlan hashAggregationPlan(@Nonnull String recordTypeName, @Nonnull List<String> groupFieldNames, int maxGroups) {
+        final var scanPlan = new RecordQueryScanPlan(ImmutableSet.of(recordTypeName), new Type.AnyRecord(false), null, ScanComparisons.EMPTY, false, false);
+        final var filterPlan =
+                new RecordQueryTypeFilterPlan(Quantifier.physical(Reference.plannedOf(scanPlan)),
+                        Collections.singleton(recordTypeName),
+                        recordStore.getRecordMetaData().getPlannerType(recordTypeName));
+        final var quantifier = Quantifier.physical(Reference.plannedOf(filterPlan));
+
+        final List<Value> groupValues = new ArrayList<>();
+        for (String groupFieldName : groupFieldNames) {
+            groupValues.add(FieldValue.ofFieldName(quantifier.getFlowedObjectValue(), groupFieldName));
+        }
+        final var aggregateValue = new NumericAggregationValue.Sum(NumericAggregationValue.PhysicalOperator.SUM_I,
+                FieldValue.ofFieldName(quantifier.getFlowedObjectValue(), "num_value_2"));
+        // the round trip through the serialized form is part of every test
+        return verifySerialization(RecordQueryHashAggregationPlan.of(quantifier,
+                RecordConstructorValue.ofUnnamed(groupValues),
+                RecordConstructorValue.ofUnnamed(ImmutableList.of(aggregateValue)),
+                GroupByExpression::flattenedResults,
+                maxGroups));
+    }
+
+    @Nonnull
+    private List<List<Object>> executeWithLimits(@Nonnull RecordQueryPlan plan, int rowLimit, int recordScanLimit) {
+        final var typeRepository = TypeRepository.newBuilder().addAllTypes(plan.getDynamicTypes()).build();
+        final List<List<Object>> results = new ArrayList<>();
+        byte[] continuation = null;
+        do {
+            final ExecuteState executeState = recordScanLimit > 0
+                                              ? new ExecuteState(RecordScanLimiterFactory.enforce(recordScanLimit), ByteScanLimiterFactory.tracking())
+                                              : ExecuteState.NO_LIMITS;
+            final ExecuteProperties executeProperties = ExecuteProperties.SERIAL_EXECUTE
+                    .setReturnedRowLimit(rowLimit)
+                    .setState(executeState);
+            try (RecordCursor<QueryResult> cursor = plan.executePlan(recordStore, EvaluationContext.forTypeRepository(typeRepository), continuation, executeProperties)) {
+                RecordCursorResult<QueryResult> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    results.add(fieldsOf(Objects.requireNonNull(result.get()).getMessage()));
+                }
+                continuation = result.getContinuation().toBytes();
+            }
+        } while (continuation != null);
+        return results;
+    }
+
+    @Nonnull
+    private static List<Object> fieldsOf(@Nullable Message message) {
+        final Message resultMessage = Objects.requireNonNull(message);
+        final Object[] fields = resultMessage.getDescriptorForType().getFields().stream()
+                .map(resultMessage::getField)
+                .toArray();
+        return Arrays.asList(fields);
+    }
+}
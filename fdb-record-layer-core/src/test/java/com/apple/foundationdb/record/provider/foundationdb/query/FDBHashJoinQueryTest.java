@@ -0,0 +1,253 @@
+/*
+ * FDBHashJoinQueryTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.query;
+
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.PlanHashable;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.query.expressions.Comparisons;
+import com.apple.foundationdb.record.query.plan.cascades.GraphExpansion;
+import com.apple.foundationdb.record.query.plan.cascades.Reference;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.LogicalSortExpression;
+import com.apple.foundationdb.record.query.plan.cascades.typing.TypeRepository;
+import com.apple.foundationdb.record.query.plan.plans.QueryResult;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryHashJoinPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
+import com.apple.test.Tags;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.Tag;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.apple.foundationdb.record.provider.foundationdb.query.FDBQueryGraphTestHelpers.column;
+import static com.apple.foundationdb.record.provider.foundationdb.query.FDBQueryGraphTestHelpers.fieldPredicate;
+import static com.apple.foundationdb.record.provider.foundationdb.query.FDBQueryGraphTestHelpers.fieldValue;
+import static com.apple.foundationdb.record.provider.foundationdb.query.FDBQueryGraphTestHelpers.forEach;
+import static com.apple.foundationdb.record.provider.foundationdb.query.FDBQueryGraphTestHelpers.fullTypeScan;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.anyPlan;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.descendantPlans;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.flatMapPlan;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.hashJoinPlan;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.indexName;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.indexPlan;
+import static com.apple.foundationdb.record.query.plan.cascades.properties.UsedTypesProperty.usedTypes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests of planning and executing joins as {@link RecordQueryHashJoinPlan}s.
+ */
+@Tag(Tags.RequiresFDB)
+public class FDBHashJoinQueryTest extends FDBRecordStoreQueryTestBase {
+    private static final int NUM_RECORDS = 12;
+
+    private static long numValue2(int recNo) {
+        return recNo % 4;
+    }
+
+    private static long numValue3(int recNo) {
+        return recNo % 3;
+    }
+
+    private void populateDB() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (int i = 0; i < NUM_RECORDS; i++) {
+                recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                        .setRecNo(i)
+                        .setNumValue2((int)numValue2(i))
+                        .setNumValue3Indexed((int)numValue3(i))
+                        .setNumValueUnique(i)
+                        .build());
+            }
+            commit(context);
+        }
+    }
+
+    private void enableHashJoins(int maxBuildSideRows) {
+        planner.setConfiguration(planner.getConfiguration().asBuilder()
+                .setHashJoinMaxBuildSideRows(maxBuildSideRows)
+                .build());
+    }
+
+    /**
+     * Plan the query.
+     * <pre>
+     *     SELECT a.rec_no AS a_rec_no, b.rec_no AS b_rec_no
+     *       FROM MySimpleRecord a, MySimpleRecord b
+     *       WHERE a.num_value_2 = b.{innerFieldName} AND a.num_value_unique >= 2
+     * </pre>
+     */
+    @Nonnull
+    private RecordQueryPlan planSelfJoin(@Nonnull String innerFieldName) {
+        return planGraph(
+                () -> {
+                    final var outerQun = fullTypeScan(recordStore.getRecordMetaData(), "MySimpleRecord");
+                    final var innerQun = fullTypeScan(recordStore.getRecordMetaData(), "MySimpleRecord");
+
+                    final var graphExpansionBuilder = GraphExpansion.builder();
+                    graphExpansionBuilder.addQuantifier(outerQun);
+                    graphExpansionBuilder.addQuantifier(innerQun);
+                    graphExpansionBuilder.addPredicate(fieldPredicate(innerQun, innerFieldName,
+                            new Comparisons.ValueComparison(Comparisons.Type.EQUALS, fieldValue(outerQun, "num_value_2"))));
+                    graphExpansionBuilder.addPredicate(fieldPredicate(outerQun, "num_value_unique",
+                            new Comparisons.SimpleComparison(Comparisons.Type.GREATER_THAN_OR_EQUALS, 2)));
+                    graphExpansionBuilder.addResultColumn(column(outerQun, "rec_no", "a_rec_no"));
+                    graphExpansionBuilder.addResultColumn(column(innerQun, "rec_no", "b_rec_no"));
+
+                    final var qun = forEach(graphExpansionBuilder.build().buildSelect());
+                    return Reference.initialOf(LogicalSortExpression.unsorted(qun));
+                });
+    }
+
+    @Nonnull
+    private static List<List<Long>> expectedSelfJoin(boolean onNumValue3) {
+        final List<List<Long>> expected = new ArrayList<>();
+        for (int a = 2; a < NUM_RECORDS; a++) {
+            for (int b = 0; b < NUM_RECORDS; b++) {
+                if (numValue2(a) == (onNumValue3 ? numValue3(b) : numValue2(b))) {
+                    expected.add(List.of((long)a, (long)b));
+                }
+            }
+        }
+        expected.sort(FDBHashJoinQueryTest::comparePairs);
+        return expected;
+    }
+
+    private static int comparePairs(@Nonnull List<Long> left, @Nonnull List<Long> right) {
+        final int compare = Long.compare(left.get(0), right.get(0));
+        return compare != 0 ? compare : Long.compare(left.get(1), right.get(1));
+    }
+
+    @Nonnull
+    private List<List<Long>> executeWithRowLimit(@Nonnull RecordQueryPlan plan, int rowLimit) {
+        final TypeRepository typeRepository = TypeRepository.newBuilder().addAllTypes(usedTypes().evaluate(plan)).build();
+        final EvaluationContext evaluationContext = EvaluationContext.forTypeRepository(typeRepository);
+        final ExecuteProperties executeProperties = ExecuteProperties.newBuilder().setReturnedRowLimit(rowLimit).build();
+        final List<List<Long>> results = new ArrayList<>();
+        byte[] continuation = null;
+        do {
+            try (RecordCursor<QueryResult> cursor = plan.executePlan(recordStore, evaluationContext, continuation, executeProperties)) {
+                RecordCursorResult<QueryResult> result;
+                while ((result = cursor.getNext()).hasNext()) {
+                    final Message message = Objects.requireNonNull(Objects.requireNonNull(result.get()).getMessage());
+                    results.add(List.of(
+                            (Long)message.getField(message.getDescriptorForType().findFieldByName("a_rec_no")),
+                            (Long)message.getField(message.getDescriptorForType().findFieldByName("b_rec_no"))));
+                }
+                continuation = result.getContinuation().toBytes();
+            }
+        } while (continuation != null);
+        results.sort(FDBHashJoinQueryTest::comparePairs);
+        return results;
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void hashJoinOfUnindexedFields() throws Exception {
+        populateDB();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan nestedLoopPlan = planSelfJoin("num_value_2");
+            assertMatchesExactly(nestedLoopPlan, flatMapPlan(anyPlan(), anyPlan()));
+
+            enableHashJoins(100);
+            final RecordQueryPlan hashJoinPlan = planSelfJoin("num_value_2");
+            assertMatchesExactly(hashJoinPlan, hashJoinPlan(anyPlan(), anyPlan()));
+            assertNotEquals(nestedLoopPlan.planHash(PlanHashable.CURRENT_FOR_CONTINUATION),
+                    hashJoinPlan.planHash(PlanHashable.CURRENT_FOR_CONTINUATION));
+
+            final List<List<Long>> expected = expectedSelfJoin(false);
+            assertEquals(expected, executeWithRowLimit(nestedLoopPlan, 0));
+            assertEquals(expected, executeWithRowLimit(hashJoinPlan, 0));
+        }
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void hashJoinWithContinuations() throws Exception {
+        populateDB();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            enableHashJoins(100);
+            final RecordQueryPlan plan = planSelfJoin("num_value_2");
+            assertMatchesExactly(plan, hashJoinPlan(anyPlan(), anyPlan()));
+
+            final List<List<Long>> expected = expectedSelfJoin(false);
+            for (int rowLimit : new int[] {1, 2, 5}) {
+                assertEquals(expected, executeWithRowLimit(plan, rowLimit));
+            }
+        }
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void hashJoinFallsBackToNestedLoop() throws Exception {
+        populateDB();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            // the build side has more rows than that, so the join is executed as a nested loop
+            enableHashJoins(NUM_RECORDS / 2);
+            final RecordQueryPlan plan = planSelfJoin("num_value_2");
+            assertMatchesExactly(plan, hashJoinPlan(anyPlan(), anyPlan()));
+            assertEquals(NUM_RECORDS / 2, ((RecordQueryHashJoinPlan)plan).getMaxBuildSideRows());
+
+            final List<List<Long>> expected = expectedSelfJoin(false);
+            assertEquals(expected, executeWithRowLimit(plan, 0));
+            assertEquals(expected, executeWithRowLimit(plan, 3));
+        }
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void maxBuildSideRowsIsPartOfPlanHash() throws Exception {
+        populateDB();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            enableHashJoins(100);
+            final RecordQueryPlan plan1 = planSelfJoin("num_value_2");
+            enableHashJoins(5);
+            final RecordQueryPlan plan2 = planSelfJoin("num_value_2");
+            assertMatchesExactly(plan1, hashJoinPlan(anyPlan(), anyPlan()));
+            assertMatchesExactly(plan2, hashJoinPlan(anyPlan(), anyPlan()));
+            // a continuation of one of them cannot be used with the other
+            assertNotEquals(plan1.planHash(PlanHashable.CURRENT_FOR_CONTINUATION),
+                    plan2.planHash(PlanHashable.CURRENT_FOR_CONTINUATION));
+        }
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void indexLookupPreferredOverHashJoin() throws Exception {
+        populateDB();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            enableHashJoins(100);
+            // the inner can look up the matches of each outer record using an index
+            final RecordQueryPlan plan = planSelfJoin("num_value_3_indexed");
+            assertMatchesExactly(plan,
+                    flatMapPlan(anyPlan(), descendantPlans(indexPlan().where(indexName("MySimpleRecord$num_value_3_indexed")))));
+            assertEquals(expectedSelfJoin(true), executeWithRowLimit(plan, 0));
+        }
+    }
+}
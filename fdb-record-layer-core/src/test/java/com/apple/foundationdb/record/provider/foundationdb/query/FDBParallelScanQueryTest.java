@@ -0,0 +1,183 @@
+/*
+ * FDBParallelScanQueryTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.query;
+
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.ExecuteProperties;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.provider.foundationdb.FDBQueriedRecord;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ParallelScanCursor;
+import com.apple.foundationdb.record.query.RecordQuery;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.BooleanSource;
+import com.apple.test.Tags;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.apple.foundationdb.record.metadata.Key.Expressions.field;
+import static com.apple.foundationdb.record.query.plan.match.PlanMatchers.indexName;
+import static com.apple.foundationdb.record.query.plan.match.PlanMatchers.indexScan;
+import static com.apple.foundationdb.record.query.plan.match.PlanMatchers.scan;
+import static com.apple.foundationdb.record.query.plan.match.PlanMatchers.typeFilter;
+import static com.apple.foundationdb.record.query.plan.match.PlanMatchers.unbounded;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of executing record scan and index scan plans with {@link ExecuteProperties#getScanParallelism()} greater
+ * than one.
+ */
+@Tag(Tags.RequiresFDB)
+class FDBParallelScanQueryTest extends FDBRecordStoreQueryTestBase {
+    private static final int RECORD_COUNT = 40;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                        .setRecNo(i)
+                        .setNumValue3Indexed((i * 7) % 11)
+                        .build());
+            }
+            commit(context);
+        }
+    }
+
+    @Nonnull
+    private RecordQueryPlan scanPlan() {
+        final RecordQueryPlan plan = planQuery(RecordQuery.newBuilder()
+                .setRecordType("MySimpleRecord")
+                .build());
+        assertThat(plan, typeFilter(contains("MySimpleRecord"), scan(unbounded())));
+        return plan;
+    }
+
+    @Nonnull
+    private RecordQueryPlan indexPlan(boolean reverse) {
+        final RecordQueryPlan plan = planQuery(RecordQuery.newBuilder()
+                .setRecordType("MySimpleRecord")
+                .setSort(field("num_value_3_indexed"), reverse)
+                .build());
+        assertThat(plan, indexScan(allOf(indexName("MySimpleRecord$num_value_3_indexed"), unbounded())));
+        return plan;
+    }
+
+    @ParameterizedTest(name = "scanPlan [resume = {0}]")
+    @BooleanSource
+    void scanPlanInParallel(boolean resume) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = scanPlan();
+            final int rowLimit = resume ? 6 : Integer.MAX_VALUE;
+            final List<Tuple> expected = execute(plan, null, Integer.MAX_VALUE, 1);
+            assertEquals(RECORD_COUNT, expected.size());
+            assertEquals(expected, execute(plan, null, rowLimit, 3));
+        }
+    }
+
+    @ParameterizedTest(name = "indexPlan [reverse = {0}]")
+    @BooleanSource
+    void indexPlanInParallel(boolean reverse) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            final RecordQueryPlan plan = indexPlan(reverse);
+            final List<Tuple> expected = execute(plan, null, Integer.MAX_VALUE, 1);
+            assertEquals(RECORD_COUNT, expected.size());
+            for (int rowLimit : new int[] {Integer.MAX_VALUE, 1, 6}) {
+                assertEquals(expected, execute(plan, null, rowLimit, 3));
+            }
+        }
+    }
+
+    @Test
+    void resumeSerialPlanInParallel() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (RecordQueryPlan plan : List.of(scanPlan(), indexPlan(false))) {
+                final List<Tuple> expected = execute(plan, null, Integer.MAX_VALUE, 1);
+                final List<Tuple> results = new ArrayList<>();
+                final byte[] serialContinuation = executeOnce(plan, null, 10, 1, results);
+                assertFalse(ParallelScanCursor.isParallelContinuation(serialContinuation));
+                results.addAll(execute(plan, serialContinuation, 10, 3));
+                assertEquals(expected, results);
+            }
+        }
+    }
+
+    @Test
+    void resumeParallelPlanSerially() throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            for (RecordQueryPlan plan : List.of(scanPlan(), indexPlan(false))) {
+                final byte[] parallelContinuation = executeOnce(plan, null, 10, 3, new ArrayList<>());
+                assertTrue(ParallelScanCursor.isParallelContinuation(parallelContinuation));
+                // the parallel continuation does not say where to resume in a single scan
+                assertThrows(RecordCoreArgumentException.class, () -> execute(plan, parallelContinuation, 10, 1));
+            }
+        }
+    }
+
+    @Nonnull
+    private List<Tuple> execute(@Nonnull RecordQueryPlan plan, @Nullable byte[] startContinuation, int rowLimit, int scanParallelism) {
+        final List<Tuple> results = new ArrayList<>();
+        byte[] continuation = startContinuation;
+        do {
+            continuation = executeOnce(plan, continuation, rowLimit, scanParallelism, results);
+        } while (continuation != null);
+        return results;
+    }
+
+    @Nullable
+    private byte[] executeOnce(@Nonnull RecordQueryPlan plan, @Nullable byte[] continuation, int rowLimit, int scanParallelism,
+                               @Nonnull List<Tuple> results) {
+        final ExecuteProperties executeProperties = ExecuteProperties.newBuilder()
+                .setReturnedRowLimit(rowLimit)
+                .setScanParallelism(scanParallelism)
+                .build();
+        try (RecordCursor<FDBQueriedRecord<Message>> cursor = plan.execute(recordStore, EvaluationContext.EMPTY, continuation, executeProperties)) {
+            RecordCursorResult<FDBQueriedRecord<Message>> result;
+            while ((result = cursor.getNext()).hasNext()) {
+                results.add(result.get().getPrimaryKey());
+            }
+            return result.getContinuation().toBytes();
+        }
+    }
+}
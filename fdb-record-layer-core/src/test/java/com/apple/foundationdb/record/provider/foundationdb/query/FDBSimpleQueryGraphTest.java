@@ -30,6 +30,7 @@ import com.apple.foundationdb.record.logging.KeyValueLogMessage;
 import com.apple.foundationdb.record.metadata.Index;
 import com.apple.foundationdb.record.metadata.Key;
 import com.apple.foundationdb.record.metadata.expressions.KeyExpression;
+import com.apple.foundationdb.record.provider.common.LazyDynamicMessage;
 import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
 import com.apple.foundationdb.test.RootLogLevelExtension;
 import com.apple.foundationdb.record.query.IndexQueryabilityFilter;
@@ -59,11 +60,15 @@ import com.apple.foundationdb.record.query.plan.cascades.values.QuantifiedObject
 import com.apple.foundationdb.record.query.plan.plans.QueryResult;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryFlatMapPlan;
 import com.apple.foundationdb.record.query.plan.plans.RecordQueryPlan;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryScanPlan;
 import com.apple.test.BooleanSource;
 import com.apple.test.Tags;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
 import org.apache.logging.log4j.Level;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
@@ -232,6 +237,61 @@ public class FDBSimpleQueryGraphTest extends FDBRecordStoreQueryTestBase {
                         .where(mapResult(recordConstructorValue(exactly(fieldValueWithFieldNames("name"), fieldValueWithFieldNames("rest_no"))))));
     }
 
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    void testScanDecodesOnlyReferencedFields() {
+        CascadesPlanner cascadesPlanner = setUp();
+        final var plan = planGraph(
+                () -> {
+                    var qun = fullTypeScan(cascadesPlanner.getRecordMetaData(), "RestaurantRecord");
+
+                    qun = forEach(selectWithPredicates(qun,
+                            ImmutableList.of("name"),
+                            fieldPredicate(qun, "rest_no", new Comparisons.SimpleComparison(Comparisons.Type.GREATER_THAN, 1_000L))
+                    ));
+                    return Reference.initialOf(LogicalSortExpression.unsorted(qun));
+                });
+        assertMatchesExactly(plan,
+                mapPlan(
+                        typeFilterPlan(
+                                scanPlan()
+                                        .where(scanComparisons(range("([1000],>")))))
+                        .where(mapResult(recordConstructorValue(exactly(fieldValueWithFieldNames("name"))))));
+
+        // the scan only has to decode the fields that the select looks at
+        final RecordQueryScanPlan scanPlan = onlyScanPlan(plan);
+        assertEquals(ImmutableSet.of("rest_no", "name"), scanPlan.getProjectedFields());
+
+        try (FDBRecordContext context = openContext()) {
+            openNestedRecordStore(context);
+            try (RecordCursor<QueryResult> cursor = executeCascades(recordStore, scanPlan)) {
+                final List<QueryResult> results = cursor.asList().join();
+                assertEquals(1, results.size());
+                final Message message = results.get(0).getMessage();
+                assertThat(message, Matchers.instanceOf(LazyDynamicMessage.class));
+                final LazyDynamicMessage lazyMessage = (LazyDynamicMessage)message;
+                final Descriptors.Descriptor descriptor = message.getDescriptorForType();
+                Assertions.assertTrue(lazyMessage.isProjected(descriptor.findFieldByName("name")));
+                Assertions.assertFalse(lazyMessage.isProjected(descriptor.findFieldByName("reviews")));
+                Assertions.assertFalse(lazyMessage.isProjected(descriptor.findFieldByName("customer")));
+                // fields that were not decoded up front are still there when asked for
+                assertEquals(List.of("gavroche", "enjolras", "éponine"), message.getField(descriptor.findFieldByName("customer")));
+                assertEquals(2, message.getRepeatedFieldCount(descriptor.findFieldByName("reviews")));
+            }
+            try (RecordCursor<QueryResult> cursor = executeCascades(recordStore, plan)) {
+                final List<String> names = cursor.map(result -> FDBQueryGraphTestHelpers.getField(result, String.class, "name")).asList().join();
+                assertEquals(List.of("ABC"), names);
+            }
+        }
+    }
+
+    @Nonnull
+    private static RecordQueryScanPlan onlyScanPlan(@Nonnull RecordQueryPlan plan) {
+        if (plan instanceof RecordQueryScanPlan) {
+            return (RecordQueryScanPlan)plan;
+        }
+        return onlyScanPlan(Iterables.getOnlyElement(plan.getChildren()));
+    }
+
     @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
     @Disabled(value = "Null-on-empty quantifiers must be below selects until we address: https://github.com/FoundationDB/fdb-record-layer/issues/3431")
     void testPlanQueryOnRestNoWithNullOnEmpty() {
@@ -86,7 +86,10 @@ import static com.apple.foundationdb.record.query.plan.cascades.matching.structu
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.aggregateIndexPlan;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.aggregateIndexPlanOf;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.aggregations;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.anyPlan;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.groupings;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.hashAggregationPlan;
+import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.hashAggregations;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.indexName;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.indexPlan;
 import static com.apple.foundationdb.record.query.plan.cascades.matching.structure.RecordQueryPlanMatchers.mapPlan;
@@ -137,6 +140,79 @@ public class GroupByTest extends FDBRecordStoreQueryTestBase {
                 EvaluationContext.empty()), "Cascades planner could not plan query");
     }
 
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    public void testHashGroupByWithoutCompatiblySortedIndex() {
+        final RecordMetaDataHook hook = setupHookAndAddData(false, false);
+        final var cascadesPlanner = (CascadesPlanner)planner;
+        cascadesPlanner.setConfiguration(cascadesPlanner.getConfiguration().asBuilder()
+                .setHashAggregationMaxGroups(100)
+                .build());
+        final var plan = verifySerialization(cascadesPlanner.planGraph(
+                () -> constructGroupByPlan(false, false, GroupingKind.REGULAR_GROUPING),
+                Optional.empty(),
+                IndexQueryabilityFilter.TRUE,
+                EvaluationContext.empty()).getPlan());
+
+        assertMatchesExactly(plan,
+                mapPlan(
+                        hashAggregationPlan(anyPlan())
+                                .where(hashAggregations(recordConstructorValue(exactly(sumAggregationValue()))))));
+
+        final Map<Pair<Integer, String>, Integer> sums = new HashMap<>();
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context, hook);
+            try (RecordCursor<QueryResult> cursor = FDBQueryGraphTestHelpers.executeCascades(recordStore, plan, Bindings.EMPTY_BINDINGS)) {
+                cursor.forEach(queryResult -> {
+                    final Message message = Objects.requireNonNull(queryResult.getMessage());
+                    final Descriptors.Descriptor descriptor = message.getDescriptorForType();
+                    sums.put(Pair.of((Integer)message.getField(descriptor.findFieldByName("num_value_2")),
+                                    (String)message.getField(descriptor.findFieldByName("str_value_indexed"))),
+                            (Integer)message.getField(descriptor.getFields().get(2)));
+                }).join();
+            }
+        }
+        final Map<Pair<Integer, String>, Integer> expectedSums = new HashMap<>();
+        expectedSums.put(Pair.of(1, "1"), 10);
+        expectedSums.put(Pair.of(7, "1"), 10);
+        expectedSums.put(Pair.of(1, "2"), 20);
+        expectedSums.put(Pair.of(1, "3"), 30);
+        expectedSums.put(Pair.of(2, "4"), 5);
+        expectedSums.put(Pair.of(5, "4"), 5);
+        expectedSums.put(Pair.of(2, "5"), 5);
+        expectedSums.put(Pair.of(2, "6"), 5);
+        expectedSums.put(Pair.of(3, "7"), -10);
+        expectedSums.put(Pair.of(6, "7"), -10);
+        expectedSums.put(Pair.of(3, "8"), -20);
+        expectedSums.put(Pair.of(3, "9"), -30);
+        expectedSums.put(Pair.of(4, "10"), 100);
+        expectedSums.put(Pair.of(4, "11"), 2000);
+        assertEquals(expectedSums, sums);
+    }
+
+    @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
+    public void testStreamingGroupByPreferredOverHashGroupBy() {
+        setupHookAndAddData(true, false);
+        final var cascadesPlanner = (CascadesPlanner)planner;
+        cascadesPlanner.setConfiguration(cascadesPlanner.getConfiguration().asBuilder()
+                .setHashAggregationMaxGroups(100)
+                .build());
+        final var plan = cascadesPlanner.planGraph(
+                () -> constructGroupByPlan(false, false, GroupingKind.REGULAR_GROUPING),
+                Optional.empty(),
+                IndexQueryabilityFilter.TRUE,
+                EvaluationContext.empty()).getPlan();
+
+        // the index provides the records in grouping order, so the groups do not need to be held in memory
+        assertMatchesExactly(plan,
+                mapPlan(
+                        streamingAggregationPlan(
+                                mapPlan(
+                                        indexPlan()
+                                                .where(scanComparisons(range("<,>")))
+                                )).where(aggregations(recordConstructorValue(exactly(sumAggregationValue())))
+                                .and(groupings(ValueMatchers.anyValue())))));
+    }
+
     @DualPlannerTest(planner = DualPlannerTest.Planner.CASCADES)
     public void testAggregateIndexPlanning() {
         setupHookAndAddData(false, true);
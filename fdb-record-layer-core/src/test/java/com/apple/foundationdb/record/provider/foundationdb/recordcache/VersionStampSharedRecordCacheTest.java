@@ -0,0 +1,228 @@
+/*
+ * VersionStampSharedRecordCacheTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.recordcache;
+
+import com.apple.foundationdb.record.ByteScanLimiter;
+import com.apple.foundationdb.record.ByteScanLimiterFactory;
+import com.apple.foundationdb.record.ExecuteState;
+import com.apple.foundationdb.record.RecordCoreArgumentException;
+import com.apple.foundationdb.record.TestRecords1Proto;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseFactory;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStoreTestBase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoredRecord;
+import com.apple.foundationdb.record.test.FakeClusterFileUtil;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.Tags;
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link VersionStampSharedRecordCache}.
+ */
+@Tag(Tags.RequiresFDB)
+public class VersionStampSharedRecordCacheTest extends FDBRecordStoreTestBase {
+
+    @BeforeEach
+    void setUpCache() {
+        fdb.setSharedRecordCache(VersionStampSharedRecordCacheFactory.newInstance().getCache(fdb));
+    }
+
+    @AfterEach
+    void resetCache() {
+        fdb.setSharedRecordCache(PassThroughSharedRecordCache.instance());
+    }
+
+    private void saveRecord(long recNo, @Nonnull String value) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                    .setRecNo(recNo)
+                    .setStrValueIndexed(value)
+                    .build());
+            commit(context);
+        }
+    }
+
+    private void setRecordsCacheable(boolean cacheable) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            assertTrue(recordStore.setRecordsCacheability(cacheable));
+            commit(context);
+        }
+    }
+
+    @Nullable
+    private String loadValue(long recNo) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            timer.reset();
+            final FDBStoredRecord<Message> rec = recordStore.loadRecord(Tuple.from(recNo));
+            return rec == null ? null : TestRecords1Proto.MySimpleRecord.newBuilder().mergeFrom(rec.getRecord()).getStrValueIndexed();
+        }
+    }
+
+    private long loadScannedBytes(long recNo) throws Exception {
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            timer.reset();
+            final ByteScanLimiter byteScanLimiter = ByteScanLimiterFactory.tracking();
+            final FDBStoredRecord<Message> rec = context.asyncToSync(FDBStoreTimer.Waits.WAIT_LOAD_RECORD,
+                    recordStore.loadRecordInternal(Tuple.from(recNo), new ExecuteState(null, byteScanLimiter), false));
+            assertNotNull(rec);
+            assertEquals(rec.getKeySize() + rec.getValueSize(), byteScanLimiter.getBytesScanned());
+            return byteScanLimiter.getBytesScanned();
+        }
+    }
+
+    private void assertCacheMissAndHit(int expectedMissCount, int expectedHitCount) {
+        assertEquals(expectedMissCount, timer.getCount(FDBStoreTimer.Counts.SHARED_RECORD_CACHE_MISS));
+        assertEquals(expectedHitCount, timer.getCount(FDBStoreTimer.Counts.SHARED_RECORD_CACHE_HIT));
+    }
+
+    @Test
+    void notCachedByDefault() throws Exception {
+        saveRecord(1066L, "first");
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 0);
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 0);
+    }
+
+    @Test
+    void cachedAcrossTransactions() throws Exception {
+        saveRecord(1066L, "first");
+        setRecordsCacheable(true);
+
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(1, 0);
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 1);
+
+        // Missing records are cached, too
+        assertNull(loadValue(1415L));
+        assertCacheMissAndHit(1, 0);
+        assertNull(loadValue(1415L));
+        assertCacheMissAndHit(0, 1);
+    }
+
+    @Test
+    void cacheHitsChargeScannedBytes() throws Exception {
+        saveRecord(1066L, "first");
+        setRecordsCacheable(true);
+
+        final long scannedBytes = loadScannedBytes(1066L);
+        assertCacheMissAndHit(1, 0);
+        assertTrue(scannedBytes > 0);
+        // a hit is charged just like the read that populated the cache
+        assertEquals(scannedBytes, loadScannedBytes(1066L));
+        assertCacheMissAndHit(0, 1);
+    }
+
+    @Test
+    void invalidatedByUpdate() throws Exception {
+        saveRecord(1066L, "first");
+        setRecordsCacheable(true);
+        assertEquals("first", loadValue(1066L));
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 1);
+
+        // Updating any record in the store invalidates all of its cached records
+        saveRecord(1415L, "other");
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(1, 0);
+
+        saveRecord(1066L, "second");
+        assertEquals("second", loadValue(1066L));
+        assertCacheMissAndHit(1, 0);
+        assertEquals("second", loadValue(1066L));
+        assertCacheMissAndHit(0, 1);
+
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            recordStore.deleteRecord(Tuple.from(1066L));
+            commit(context);
+        }
+        assertNull(loadValue(1066L));
+        assertCacheMissAndHit(1, 0);
+    }
+
+    @Test
+    void uncommittedChangesNotCached() throws Exception {
+        saveRecord(1066L, "first");
+        setRecordsCacheable(true);
+        assertEquals("first", loadValue(1066L));
+
+        try (FDBRecordContext context = openContext()) {
+            openSimpleRecordStore(context);
+            recordStore.saveRecord(TestRecords1Proto.MySimpleRecord.newBuilder()
+                    .setRecNo(1066L)
+                    .setStrValueIndexed("uncommitted")
+                    .build());
+            timer.reset();
+            final FDBStoredRecord<Message> rec = recordStore.loadRecord(Tuple.from(1066L));
+            assertNotNull(rec);
+            assertEquals("uncommitted", TestRecords1Proto.MySimpleRecord.newBuilder().mergeFrom(rec.getRecord()).getStrValueIndexed());
+            assertCacheMissAndHit(1, 0);
+            // do not commit
+        }
+
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 1);
+    }
+
+    @Test
+    void notCachedAfterDisabling() throws Exception {
+        saveRecord(1066L, "first");
+        setRecordsCacheable(true);
+        assertEquals("first", loadValue(1066L));
+        setRecordsCacheable(false);
+        assertEquals("first", loadValue(1066L));
+        assertCacheMissAndHit(0, 0);
+
+        // Re-enabling must not revive entries from before the store was disabled
+        saveRecord(1066L, "second");
+        setRecordsCacheable(true);
+        assertEquals("second", loadValue(1066L));
+        assertCacheMissAndHit(1, 0);
+    }
+
+    @Test
+    void useWithDifferentDatabase() {
+        FDBDatabase secondDatabase = FDBDatabaseFactory.instance().getDatabase(FakeClusterFileUtil.createFakeClusterFile("shared_record_cache_"));
+        FDBSharedRecordCache cache = VersionStampSharedRecordCacheFactory.newInstance().getCache(fdb);
+        assertThrows(RecordCoreArgumentException.class, () -> secondDatabase.setSharedRecordCache(cache));
+    }
+}
@@ -81,7 +81,7 @@ public class ScanRecordKeysTest extends FDBRecordStoreTestBase {
      */
     @Test
     void monitorFormatVersion() {
-        assertEquals(FormatVersion.WRITE_ONLY_WITH_QUEUE, FormatVersion.getMaximumSupportedVersion(),
+        assertEquals(FormatVersion.RECORDS_CACHEABLE, FormatVersion.getMaximumSupportedVersion(),
                 "New format version found. Please review the key scanner to ensure they still catch corruptions");
     }
 
@@ -0,0 +1,182 @@
+/*
+ * GroupCommitRunnerTest.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.provider.foundationdb.runners;
+
+import com.apple.foundationdb.record.RecordCoreException;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseRunner;
+import com.apple.foundationdb.record.provider.foundationdb.FDBStoreTimer;
+import com.apple.foundationdb.record.provider.foundationdb.keyspace.KeySpacePath;
+import com.apple.foundationdb.record.test.FDBDatabaseExtension;
+import com.apple.foundationdb.record.test.TestKeySpace;
+import com.apple.foundationdb.record.test.TestKeySpacePathManagerExtension;
+import com.apple.foundationdb.subspace.Subspace;
+import com.apple.foundationdb.tuple.Tuple;
+import com.apple.test.Tags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link GroupCommitRunner}.
+ */
+@Tag(Tags.RequiresFDB)
+class GroupCommitRunnerTest {
+    @RegisterExtension
+    final FDBDatabaseExtension dbExtension = new FDBDatabaseExtension();
+    @RegisterExtension
+    final TestKeySpacePathManagerExtension pathManager = new TestKeySpacePathManagerExtension(dbExtension);
+
+    private FDBDatabase database;
+    private FDBStoreTimer timer;
+    private Subspace subspace;
+
+    @BeforeEach
+    public void setUp() {
+        database = dbExtension.getDatabase();
+        final KeySpacePath path = pathManager.createPath(TestKeySpace.RAW_DATA);
+        subspace = database.run(path::toSubspace);
+        timer = new FDBStoreTimer();
+    }
+
+    private GroupCommitRunner newGroupCommitRunner() {
+        final FDBDatabaseRunner runner = database.newRunner(timer, null);
+        final GroupCommitRunner groupRunner = new GroupCommitRunner(runner);
+        // Long enough that all the callers below arrive before the first group is started.
+        groupRunner.setMaxDelayMillis(100);
+        return groupRunner;
+    }
+
+    @Test
+    void commitsCallersTogether() {
+        final int callers = 50;
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(callers);
+        try (GroupCommitRunner runner = newGroupCommitRunner()) {
+            runner.setMaxBatchSize(20);
+            for (int i = 0; i < callers; i++) {
+                final int n = i;
+                futures.add(runner.runAsync(context -> {
+                    context.ensureActive().set(subspace.pack(Tuple.from(n)), Tuple.from(n).pack());
+                    return CompletableFuture.completedFuture(n);
+                }));
+            }
+            for (int i = 0; i < callers; i++) {
+                assertEquals(i, futures.get(i).join());
+            }
+        }
+        database.run(context -> {
+            for (int i = 0; i < callers; i++) {
+                assertArrayEquals(Tuple.from(i).pack(), context.ensureActive().get(subspace.pack(Tuple.from(i))).join());
+            }
+            return null;
+        });
+        assertEquals(callers, timer.getCount(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS));
+        final int transactions = timer.getCount(FDBStoreTimer.Counts.GROUP_COMMIT_TRANSACTIONS);
+        assertTrue(transactions >= 3 && transactions < callers, "callers should share transactions: " + transactions);
+    }
+
+    @Test
+    void failingCallerDoesNotFailOthers() {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (GroupCommitRunner runner = newGroupCommitRunner()) {
+            for (int i = 0; i < 10; i++) {
+                final int n = i;
+                futures.add(runner.runAsync(context -> {
+                    context.ensureActive().set(subspace.pack(Tuple.from(n)), Tuple.from(n).pack());
+                    if (n == 4) {
+                        throw new RecordCoreException("failing caller");
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }));
+            }
+            for (int i = 0; i < 10; i++) {
+                if (i == 4) {
+                    final CompletionException ex = assertThrows(CompletionException.class, futures.get(i)::join);
+                    assertInstanceOf(RecordCoreException.class, ex.getCause());
+                } else {
+                    futures.get(i).join();
+                }
+            }
+        }
+        database.run(context -> {
+            for (int i = 0; i < 10; i++) {
+                final byte[] value = context.ensureActive().get(subspace.pack(Tuple.from(i))).join();
+                if (i == 4) {
+                    assertNull(value);
+                } else {
+                    assertArrayEquals(Tuple.from(i).pack(), value);
+                }
+            }
+            return null;
+        });
+        assertEquals(9, timer.getCount(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS));
+    }
+
+    @Test
+    void conflictingCallersRunAlone() {
+        final byte[] counterKey = subspace.pack(Tuple.from("counter"));
+        final int callers = 10;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(callers);
+        // Another transaction reads and then writes the key after the group has read it, so the group conflicts.
+        try (GroupCommitRunner runner = newGroupCommitRunner()) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(runner.runAsync(context -> context.ensureActive().get(counterKey).thenAccept(value -> {
+                    final long current = value == null ? 0L : Tuple.fromBytes(value).getLong(0);
+                    context.ensureActive().set(counterKey, Tuple.from(current + 1).pack());
+                    if (timer.getCount(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS_RUN_ALONE) == 0) {
+                        database.run(other -> {
+                            other.ensureActive().set(counterKey, Tuple.from(100L).pack());
+                            return null;
+                        });
+                    }
+                })));
+            }
+            futures.forEach(CompletableFuture::join);
+        }
+        final long counter = database.run(context -> Tuple.fromBytes(context.ensureActive().get(counterKey).join()).getLong(0));
+        assertEquals(100L + callers, counter);
+        assertEquals(callers, timer.getCount(FDBStoreTimer.Counts.GROUP_COMMIT_CALLERS_RUN_ALONE));
+    }
+
+    @Test
+    void closeFailsWaitingCallers() {
+        final CompletableFuture<Void> future;
+        try (GroupCommitRunner runner = newGroupCommitRunner()) {
+            runner.setMaxDelayMillis(60_000);
+            future = runner.runAsync(context -> CompletableFuture.completedFuture(null));
+        }
+        final CompletionException ex = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(FDBDatabaseRunner.RunnerClosed.class, ex.getCause());
+    }
+}
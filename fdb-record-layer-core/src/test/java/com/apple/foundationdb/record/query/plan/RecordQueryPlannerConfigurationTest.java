@@ -81,6 +81,24 @@ class RecordQueryPlannerConfigurationTest {
         assertEquals(QueryPlanner.IndexScanPreference.PREFER_PRIMARY_KEY_INDEX, configuration.getIndexScanPreference());
     }
 
+    @Test
+    void hashOperatorsAreOptIn() {
+        final RecordQueryPlannerConfiguration defaultConfiguration = RecordQueryPlannerConfiguration.defaultPlannerConfiguration();
+        assertFalse(defaultConfiguration.shouldPlanHashJoins());
+        assertFalse(defaultConfiguration.shouldPlanHashAggregations());
+
+        final RecordQueryPlannerConfiguration configuration = RecordQueryPlannerConfiguration.builder()
+                .setHashJoinMaxBuildSideRows(1000)
+                .setHashAggregationMaxGroups(50)
+                .build()
+                .asBuilder()
+                .build();
+        assertTrue(configuration.shouldPlanHashJoins());
+        assertEquals(1000, configuration.getHashJoinMaxBuildSideRows());
+        assertTrue(configuration.shouldPlanHashAggregations());
+        assertEquals(50, configuration.getHashAggregationMaxGroups());
+    }
+
     enum PlannerConfigurationFlag {
         ATTEMPT_FAILED_IN_JOIN_AS_OR(RecordQueryPlannerConfiguration.Builder::setAttemptFailedInJoinAsOr, RecordQueryPlannerConfiguration::shouldAttemptFailedInJoinAsOr),
         CHECK_FOR_DUPLICATE_CONDITIONS(RecordQueryPlannerConfiguration.Builder::setCheckForDuplicateConditions, RecordQueryPlannerConfiguration::shouldCheckForDuplicateConditions),
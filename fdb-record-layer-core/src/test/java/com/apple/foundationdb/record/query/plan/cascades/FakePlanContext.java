@@ -30,10 +30,21 @@ import java.util.Set;
  * A mock implementation of a {@link PlanContext} used to test certain planner rules that don't need a full plan context.
  */
 public class FakePlanContext implements PlanContext {
+    @Nonnull
+    private final RecordQueryPlannerConfiguration plannerConfiguration;
+
+    public FakePlanContext() {
+        this(RecordQueryPlannerConfiguration.builder().build());
+    }
+
+    public FakePlanContext(@Nonnull RecordQueryPlannerConfiguration plannerConfiguration) {
+        this.plannerConfiguration = plannerConfiguration;
+    }
+
     @Nonnull
     @Override
     public RecordQueryPlannerConfiguration getPlannerConfiguration() {
-        return RecordQueryPlannerConfiguration.builder().build();
+        return plannerConfiguration;
     }
 
     @Nonnull
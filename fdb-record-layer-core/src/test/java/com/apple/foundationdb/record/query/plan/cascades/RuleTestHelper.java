@@ -143,9 +143,18 @@ public class RuleTestHelper {
     @Nonnull
     private final PlannerPhase plannerPhase;
 
+    @Nonnull
+    private final RecordQueryPlannerConfiguration plannerConfiguration;
+
     public RuleTestHelper(@Nonnull AbstractCascadesRule<? extends RelationalExpression> rule, @Nonnull PlannerPhase plannerPhase) {
+        this(rule, plannerPhase, RecordQueryPlannerConfiguration.builder().build());
+    }
+
+    public RuleTestHelper(@Nonnull AbstractCascadesRule<? extends RelationalExpression> rule, @Nonnull PlannerPhase plannerPhase,
+                          @Nonnull RecordQueryPlannerConfiguration plannerConfiguration) {
         this.rule = rule;
         this.plannerPhase = plannerPhase;
+        this.plannerConfiguration = plannerConfiguration;
     }
 
     private Memoizer memoizer() {
@@ -181,7 +190,7 @@ public class RuleTestHelper {
         Reference ref = rule instanceof ImplementationCascadesRule ?
                         Reference.ofFinalExpression(PlannerStage.CANONICAL, copiedOriginal) :
                         Reference.ofExploratoryExpression(PlannerStage.CANONICAL, copiedOriginal);
-        PlanContext planContext = new FakePlanContext();
+        PlanContext planContext = new FakePlanContext(plannerConfiguration);
         return TestRuleExecution.applyRule(planContext, rule, ref, evaluationContext, plannerPhase);
     }
 
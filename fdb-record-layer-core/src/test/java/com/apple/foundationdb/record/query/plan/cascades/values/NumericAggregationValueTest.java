@@ -20,9 +20,15 @@
 
 package com.apple.foundationdb.record.query.plan.cascades.values;
 
+import com.apple.foundationdb.record.RecordCursorProto;
 import com.apple.foundationdb.record.query.plan.cascades.typing.Type;
+import com.google.common.collect.Iterables;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
 
 /**
  * Tests for {@link NumericAggregationValue}.
@@ -56,4 +62,74 @@ class NumericAggregationValueTest {
         Assertions.assertNotEquals(max.hashCode(), avg.hashCode(),
                 "MAX and AVG over the same child must not collide on hashCode");
     }
+
+    @ParameterizedTest
+    @EnumSource(value = NumericAggregationValue.PhysicalOperator.class, names = {"SUM_L", "MIN_L", "MAX_L", "SUM_I", "MIN_I", "MAX_I"})
+    void unboxedIntegralAccumulation(NumericAggregationValue.PhysicalOperator operator) {
+        final List<Long> values = List.of(-5L, 17L, 3L, -200L, 42L);
+        final Accumulator boxed = new NumericAggregationValue.NumericAccumulator(operator);
+        final Accumulator unboxed = new NumericAggregationValue.NumericAccumulator(operator);
+        Object expected = null;
+        for (long value : values) {
+            final Object typedValue = operator.getArgType() == Type.TypeCode.INT ? (Object)Math.toIntExact(value) : (Object)value;
+            expected = operator.evalPartialToPartial(expected, typedValue);
+            boxed.accumulate(typedValue);
+            unboxed.accumulateLong(value);
+        }
+        Assertions.assertEquals(expected, boxed.finish());
+        Assertions.assertEquals(expected, unboxed.finish());
+        Assertions.assertEquals(boxed.getAccumulatorStates(), unboxed.getAccumulatorStates());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = NumericAggregationValue.PhysicalOperator.class, names = {"SUM_D", "MIN_D", "MAX_D", "SUM_F", "MIN_F", "MAX_F"})
+    void unboxedFloatingPointAccumulation(NumericAggregationValue.PhysicalOperator operator) {
+        final List<Double> values = List.of(-5.5, -17.25, -3.0, -200.0);
+        final Accumulator boxed = new NumericAggregationValue.NumericAccumulator(operator);
+        final Accumulator unboxed = new NumericAggregationValue.NumericAccumulator(operator);
+        Object expected = null;
+        for (double value : values) {
+            final Object typedValue = operator.getArgType() == Type.TypeCode.FLOAT ? (Object)(float)value : (Object)value;
+            expected = operator.evalPartialToPartial(expected, typedValue);
+            boxed.accumulate(typedValue);
+            unboxed.accumulateDouble(value);
+        }
+        Assertions.assertEquals(expected, boxed.finish());
+        Assertions.assertEquals(expected, unboxed.finish());
+        Assertions.assertEquals(boxed.getAccumulatorStates(), unboxed.getAccumulatorStates());
+    }
+
+    @Test
+    void resumeFromAccumulatorState() {
+        final Accumulator accumulator = new NumericAggregationValue.NumericAccumulator(NumericAggregationValue.PhysicalOperator.MAX_L);
+        Assertions.assertEquals(List.of(), accumulator.getAccumulatorStates());
+        accumulator.accumulate(null);
+        Assertions.assertNull(accumulator.finish());
+        Assertions.assertEquals(List.of(), accumulator.getAccumulatorStates());
+
+        accumulator.accumulateLong(-10L);
+        accumulator.accumulateLong(-3L);
+        final RecordCursorProto.AccumulatorState state = Iterables.getOnlyElement(accumulator.getAccumulatorStates());
+
+        final Accumulator resumed = new NumericAggregationValue.NumericAccumulator(NumericAggregationValue.PhysicalOperator.MAX_L, state);
+        Assertions.assertEquals(-3L, resumed.finish());
+        resumed.accumulateLong(-1L);
+        Assertions.assertEquals(-1L, resumed.finish());
+    }
+
+    @Test
+    void countAccumulator() {
+        final Accumulator count = new CountValue.SumAccumulator(CountValue.PhysicalOperator.COUNT);
+        Assertions.assertEquals(0L, count.finish());
+        Assertions.assertEquals(List.of(), count.getAccumulatorStates());
+        count.accumulate(null);
+        count.accumulate(1L);
+        count.accumulateLong(1L);
+        Assertions.assertEquals(2L, count.finish());
+
+        final Accumulator resumed = new CountValue.SumAccumulator(CountValue.PhysicalOperator.COUNT,
+                Iterables.getOnlyElement(count.getAccumulatorStates()));
+        resumed.accumulate(1L);
+        Assertions.assertEquals(3L, resumed.finish());
+    }
 }
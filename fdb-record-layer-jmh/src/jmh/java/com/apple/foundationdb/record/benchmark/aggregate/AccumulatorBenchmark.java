@@ -0,0 +1,225 @@
+/*
+ * AccumulatorBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.aggregate;
+
+import com.apple.foundationdb.record.EvaluationContext;
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import com.apple.foundationdb.record.RecordCursorStartContinuation;
+import com.apple.foundationdb.record.benchmark.BenchmarkRecordStores;
+import com.apple.foundationdb.record.cursors.aggregate.AggregateCursor;
+import com.apple.foundationdb.record.cursors.aggregate.HashAggregateCursor;
+import com.apple.foundationdb.record.cursors.aggregate.HashAggregateSpillAdapter;
+import com.apple.foundationdb.record.cursors.aggregate.HashGrouping;
+import com.apple.foundationdb.record.cursors.aggregate.StreamGrouping;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordContext;
+import com.apple.foundationdb.record.provider.foundationdb.FDBRecordStore;
+import com.apple.foundationdb.record.query.plan.cascades.CorrelationIdentifier;
+import com.apple.foundationdb.record.query.plan.cascades.expressions.GroupByExpression;
+import com.apple.foundationdb.record.query.plan.cascades.typing.Type;
+import com.apple.foundationdb.record.query.plan.cascades.typing.TypeRepository;
+import com.apple.foundationdb.record.query.plan.cascades.values.AggregateValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.CountValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.FieldValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.NumericAggregationValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.ObjectValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.QuantifiedObjectValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.RecordConstructorValue;
+import com.apple.foundationdb.record.query.plan.cascades.values.Value;
+import com.apple.foundationdb.record.query.plan.plans.QueryResult;
+import com.apple.foundationdb.record.query.plan.plans.RecordQueryStreamingAggregationPlan;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of aggregating rows through {@link AggregateCursor} and {@link HashAggregateCursor}, the way the
+ * streaming and hash aggregation plans execute. Each operation is one row, so with the GC profiler
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per row by grouping and accumulating, which for SUM,
+ * MIN, MAX and COUNT over primitive fields no longer includes a boxed running value.
+ * <p>
+ * The rows are computed in memory, so the record store is only needed to satisfy the cursors and is never read.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AccumulatorBenchmark.ROWS)
+public class AccumulatorBenchmark {
+    static final int ROWS = 100_000;
+    static final int ROWS_PER_GROUP = 1000;
+
+    @Param({"SUM", "MIN", "MAX", "COUNT"})
+    public String aggregate;
+
+    @Param({"L", "D"})
+    public String type;
+
+    private FDBRecordContext context;
+    private FDBRecordStore recordStore;
+    private EvaluationContext evaluationContext;
+    private CorrelationIdentifier alias;
+    private Value groupingKeyValue;
+    private AggregateValue aggregateValue;
+    private CorrelationIdentifier groupingKeyAlias;
+    private CorrelationIdentifier aggregateAlias;
+    private Value completeResultValue;
+    private List<QueryResult> rows;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkRecordStores.Simple fdb) {
+        final boolean floatingPoint = "D".equals(type);
+        final Type.TypeCode valueType = floatingPoint ? Type.TypeCode.DOUBLE : Type.TypeCode.LONG;
+        final Type.Record rowType = Type.Record.fromFields(false, List.of(
+                Type.Record.Field.of(Type.primitiveType(Type.TypeCode.LONG, false), Optional.of("group")),
+                Type.Record.Field.of(Type.primitiveType(valueType, false), Optional.of("value"))));
+
+        alias = CorrelationIdentifier.uniqueId();
+        final QuantifiedObjectValue row = QuantifiedObjectValue.of(alias, rowType);
+        groupingKeyValue = RecordConstructorValue.ofUnnamed(List.of(FieldValue.ofFieldName(row, "group")));
+        final Value fieldValue = FieldValue.ofFieldName(row, "value");
+        final AggregateValue childAggregateValue;
+        if ("COUNT".equals(aggregate)) {
+            childAggregateValue = new CountValue(CountValue.PhysicalOperator.COUNT, fieldValue);
+        } else {
+            final NumericAggregationValue.PhysicalOperator operator = NumericAggregationValue.PhysicalOperator.valueOf(aggregate + "_" + type);
+            switch (aggregate) {
+                case "SUM":
+                    childAggregateValue = new NumericAggregationValue.Sum(operator, fieldValue);
+                    break;
+                case "MIN":
+                    childAggregateValue = new NumericAggregationValue.Min(operator, fieldValue);
+                    break;
+                default:
+                    childAggregateValue = new NumericAggregationValue.Max(operator, fieldValue);
+                    break;
+            }
+        }
+        aggregateValue = RecordConstructorValue.ofUnnamed(List.of(childAggregateValue));
+        groupingKeyAlias = CorrelationIdentifier.uniqueId();
+        aggregateAlias = CorrelationIdentifier.uniqueId();
+        completeResultValue = GroupByExpression.flattenedResults(
+                ObjectValue.of(groupingKeyAlias, groupingKeyValue.getResultType()),
+                ObjectValue.of(aggregateAlias, aggregateValue.getResultType()));
+
+        final TypeRepository typeRepository = TypeRepository.newBuilder()
+                .addTypeIfNeeded(rowType)
+                .addAllTypes(groupingKeyValue.getDynamicTypes())
+                .addAllTypes(aggregateValue.getDynamicTypes())
+                .addAllTypes(completeResultValue.getDynamicTypes())
+                .build();
+        evaluationContext = EvaluationContext.forTypeRepository(typeRepository);
+
+        final Descriptors.Descriptor rowDescriptor = typeRepository.newMessageBuilder(rowType).getDescriptorForType();
+        final Random random = new Random(ROWS);
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            final long value = random.nextInt(1_000_000);
+            rows.add(QueryResult.ofComputed(DynamicMessage.newBuilder(rowDescriptor)
+                    .setField(rowDescriptor.findFieldByName("group"), (long)(i / ROWS_PER_GROUP))
+                    .setField(rowDescriptor.findFieldByName("value"), floatingPoint ? (Object)(value / 100.0) : (Object)value)
+                    .build()));
+        }
+
+        context = fdb.getDatabase().openContext();
+        recordStore = fdb.openRecordStore(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Aggregate the rows, which are ordered by group, as a streaming aggregation does.
+     * @param blackhole sink for the groups
+     * @return the final result
+     */
+    @Benchmark
+    public RecordCursorResult<QueryResult> streaming(Blackhole blackhole) {
+        final StreamGrouping<Message> streamGrouping = new StreamGrouping<>(groupingKeyValue, aggregateValue,
+                completeResultValue, groupingKeyAlias, aggregateAlias, recordStore, evaluationContext, alias, null);
+        return drain(new AggregateCursor<>(RecordCursor.fromList(rows), streamGrouping,
+                RecordCursorStartContinuation.START, RecordQueryStreamingAggregationPlan.SerializationMode.TO_NEW), blackhole);
+    }
+
+    /**
+     * Aggregate the rows with all groups held in memory, as a hash aggregation does.
+     * @param blackhole sink for the groups
+     * @return the final result
+     */
+    @Benchmark
+    public RecordCursorResult<QueryResult> hash(Blackhole blackhole) {
+        return drain(new HashAggregateCursor<>(continuation -> RecordCursor.fromList(rows),
+                hashGrouping(), hashGrouping(), ROWS / ROWS_PER_GROUP,
+                new HashAggregateSpillAdapter(null, 0), null, null), blackhole);
+    }
+
+    @Nonnull
+    private HashGrouping<Message> hashGrouping() {
+        return new HashGrouping<>(groupingKeyValue, aggregateValue, completeResultValue, groupingKeyAlias,
+                aggregateAlias, recordStore, evaluationContext, alias, List.of());
+    }
+
+    @Nonnull
+    private static RecordCursorResult<QueryResult> drain(@Nonnull RecordCursor<QueryResult> cursor, @Nonnull Blackhole blackhole) {
+        try (RecordCursor<QueryResult> closing = cursor) {
+            RecordCursorResult<QueryResult> result;
+            while ((result = closing.getNext()).hasNext()) {
+                blackhole.consume(result.get());
+            }
+            return result;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(AccumulatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
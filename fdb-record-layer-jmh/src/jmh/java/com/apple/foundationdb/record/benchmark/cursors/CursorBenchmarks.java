@@ -0,0 +1,145 @@
+/*
+ * CursorBenchmarks.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.cursors;
+
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.RecordCursorResult;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers shared by the cursor benchmarks.
+ */
+final class CursorBenchmarks {
+    private CursorBenchmarks() {
+    }
+
+    /**
+     * Read all elements from a cursor.
+     * @param cursor the cursor to read
+     * @param blackhole sink for the elements
+     * @param <T> the type of elements of the cursor
+     * @return the final result, which has no next value
+     */
+    @Nonnull
+    static <T> RecordCursorResult<T> drain(@Nonnull RecordCursor<T> cursor, @Nonnull Blackhole blackhole) {
+        try (RecordCursor<T> closing = cursor) {
+            RecordCursorResult<T> result;
+            while ((result = closing.getNext()).hasNext()) {
+                blackhole.consume(result.get());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Read all elements from a cursor, stopping after every {@code rowLimit} elements and resuming from the
+     * serialized continuation, as a client paging through results would.
+     * @param cursorFunction function to create the cursor from a continuation
+     * @param rowLimit the number of elements to read before stopping
+     * @param blackhole sink for the elements and continuations
+     * @param <T> the type of elements of the cursor
+     */
+    static <T> void drainWithContinuations(@Nonnull Function<byte[], RecordCursor<T>> cursorFunction, int rowLimit,
+                                           @Nonnull Blackhole blackhole) {
+        byte[] continuation = null;
+        do {
+            final RecordCursorResult<T> result = drain(cursorFunction.apply(continuation).limitRowsTo(rowLimit), blackhole);
+            continuation = result.getContinuation().toBytes();
+            blackhole.consume(continuation);
+        } while (continuation != null);
+    }
+
+    /**
+     * Get the continuation after reading the given number of elements.
+     * @param cursorFunction function to create the cursor from a continuation
+     * @param rowLimit the number of elements to read
+     * @param <T> the type of elements of the cursor
+     * @return the serialized continuation
+     */
+    @Nullable
+    static <T> byte[] continuationAfter(@Nonnull Function<byte[], RecordCursor<T>> cursorFunction, int rowLimit) {
+        return continuationAfter(cursorFunction, null, rowLimit);
+    }
+
+    /**
+     * Get the continuation after resuming from a continuation and reading the given number of elements.
+     * @param cursorFunction function to create the cursor from a continuation
+     * @param continuation the continuation from which to resume
+     * @param rowLimit the number of elements to read
+     * @param <T> the type of elements of the cursor
+     * @return the serialized continuation
+     */
+    @Nullable
+    static <T> byte[] continuationAfter(@Nonnull Function<byte[], RecordCursor<T>> cursorFunction,
+                                        @Nullable byte[] continuation, int rowLimit) {
+        try (RecordCursor<T> cursor = cursorFunction.apply(continuation).limitRowsTo(rowLimit)) {
+            RecordCursorResult<T> result;
+            do {
+                result = cursor.getNext();
+            } while (result.hasNext());
+            return result.getContinuation().toBytes();
+        }
+    }
+
+    /**
+     * Build a sorted list of values in {@code [0, range)}, keeping about three quarters of them. The values kept
+     * depend on the {@code seed}, so that different children of a merge overlap only partially.
+     * @param range the exclusive upper bound of the values
+     * @param seed the seed selecting which values are kept
+     * @return a sorted list of values
+     */
+    @Nonnull
+    static List<Long> sortedValues(int range, int seed) {
+        final List<Long> values = new ArrayList<>(range);
+        for (long v = 0; v < range; v++) {
+            if (Long.hashCode(v * 0x9E3779B97F4A7C15L + seed) % 4 != 0) {
+                values.add(v);
+            }
+        }
+        return values;
+    }
+
+    @Nonnull
+    static List<Object> comparisonKey(@Nonnull Long value) {
+        return Collections.singletonList(value);
+    }
+
+    static void run(@Nonnull Class<?> benchmarkClass) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(benchmarkClass.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MergeCursorBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.cursors;
+
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.IntersectionCursor;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.ProbableIntersectionCursor;
+import com.apple.foundationdb.record.provider.foundationdb.cursors.UnionCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks of the merge cursors ({@link UnionCursor}, {@link IntersectionCursor} and
+ * {@link ProbableIntersectionCursor}) over in-memory children.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MergeCursorBenchmark {
+    @Param({"2", "4", "8"})
+    public int childCount;
+
+    @Param({"1000"})
+    public int rowsPerChild;
+
+    @Param({"10", "100"})
+    public int rowLimit;
+
+    private List<Function<byte[], RecordCursor<Long>>> children;
+    @Nullable
+    private byte[] unionContinuation;
+    @Nullable
+    private byte[] intersectionContinuation;
+    @Nullable
+    private byte[] probableIntersectionContinuation;
+
+    @Setup
+    public void setup() {
+        children = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            final List<Long> values = CursorBenchmarks.sortedValues(rowsPerChild, i);
+            children.add(continuation -> RecordCursor.fromList(values, continuation));
+        }
+        unionContinuation = CursorBenchmarks.continuationAfter(this::unionCursor, rowLimit);
+        intersectionContinuation = CursorBenchmarks.continuationAfter(this::intersectionCursor, rowLimit);
+        probableIntersectionContinuation = CursorBenchmarks.continuationAfter(this::probableIntersectionCursor, rowLimit);
+    }
+
+    @Nonnull
+    private RecordCursor<Long> unionCursor(@Nullable byte[] continuation) {
+        return UnionCursor.create(CursorBenchmarks::comparisonKey, false, children, continuation, null);
+    }
+
+    @Nonnull
+    private RecordCursor<Long> intersectionCursor(@Nullable byte[] continuation) {
+        return IntersectionCursor.create(CursorBenchmarks::comparisonKey, false, children, continuation, null);
+    }
+
+    @Nonnull
+    private RecordCursor<Long> probableIntersectionCursor(@Nullable byte[] continuation) {
+        return ProbableIntersectionCursor.create(CursorBenchmarks::comparisonKey, children, continuation, null);
+    }
+
+    @Benchmark
+    public void union(Blackhole blackhole) {
+        CursorBenchmarks.drain(unionCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void unionWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::unionCursor, rowLimit, blackhole);
+    }
+
+    /**
+     * Resume from a continuation, read one element and serialize the new continuation. This isolates the cost
+     * of parsing and producing continuations from the cost of merging.
+     * @return the new continuation
+     */
+    @Benchmark
+    public byte[] unionContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::unionCursor, unionContinuation, 1);
+    }
+
+    @Benchmark
+    public void intersection(Blackhole blackhole) {
+        CursorBenchmarks.drain(intersectionCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void intersectionWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::intersectionCursor, rowLimit, blackhole);
+    }
+
+    @Benchmark
+    public byte[] intersectionContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::intersectionCursor, intersectionContinuation, 1);
+    }
+
+    @Benchmark
+    public void probableIntersection(Blackhole blackhole) {
+        CursorBenchmarks.drain(probableIntersectionCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void probableIntersectionWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::probableIntersectionCursor, rowLimit, blackhole);
+    }
+
+    @Benchmark
+    public byte[] probableIntersectionContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::probableIntersectionCursor, probableIntersectionContinuation, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        CursorBenchmarks.run(MergeCursorBenchmark.class);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * PipelinedCursorBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.cursors;
+
+import com.apple.foundationdb.record.RecordCursor;
+import com.apple.foundationdb.record.cursors.DedupCursor;
+import com.apple.foundationdb.record.cursors.FlatMapPipelinedCursor;
+import com.apple.foundationdb.record.cursors.MapPipelinedCursor;
+import com.apple.foundationdb.tuple.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the pipelined cursors ({@link MapPipelinedCursor} and {@link FlatMapPipelinedCursor}) and of
+ * {@link DedupCursor} over in-memory inputs.
+ *
+ * <p>
+ * With {@code async} set, the mapping functions complete on another thread, so that the pipeline actually has
+ * to wait for outstanding futures; otherwise every future is already complete when it is added to the pipeline.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PipelinedCursorBenchmark {
+    private static final int INNER_SIZE = 10;
+
+    @Param({"1", "4", "16", "64"})
+    public int pipelineSize;
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"100"})
+    public int rowLimit;
+
+    private List<Long> values;
+    private List<Long> outerValues;
+    private List<Long> innerValues;
+    private List<Long> duplicatedValues;
+    @Nullable
+    private byte[] mapPipelinedContinuation;
+    @Nullable
+    private byte[] flatMapPipelinedContinuation;
+    @Nullable
+    private byte[] dedupContinuation;
+
+    @Setup
+    public void setup() {
+        values = new ArrayList<>(rows);
+        duplicatedValues = new ArrayList<>(rows * 2);
+        for (long v = 0; v < rows; v++) {
+            values.add(v);
+            duplicatedValues.add(v);
+            duplicatedValues.add(v);
+        }
+        outerValues = values.subList(0, Math.max(1, rows / INNER_SIZE));
+        innerValues = values.subList(0, Math.min(rows, INNER_SIZE));
+        mapPipelinedContinuation = CursorBenchmarks.continuationAfter(this::mapPipelinedCursor, rowLimit);
+        flatMapPipelinedContinuation = CursorBenchmarks.continuationAfter(this::flatMapPipelinedCursor, rowLimit);
+        dedupContinuation = CursorBenchmarks.continuationAfter(this::dedupCursor, rowLimit);
+    }
+
+    @Nonnull
+    private CompletableFuture<Long> map(@Nonnull Long value) {
+        if (async) {
+            return CompletableFuture.supplyAsync(() -> value + 1, ForkJoinPool.commonPool());
+        } else {
+            return CompletableFuture.completedFuture(value + 1);
+        }
+    }
+
+    @Nonnull
+    private RecordCursor<Long> mapPipelinedCursor(@Nullable byte[] continuation) {
+        return new MapPipelinedCursor<>(RecordCursor.fromList(values, continuation), this::map, pipelineSize);
+    }
+
+    @Nonnull
+    private RecordCursor<Long> flatMapPipelinedCursor(@Nullable byte[] continuation) {
+        return RecordCursor.flatMapPipelined(
+                outerContinuation -> RecordCursor.fromList(outerValues, outerContinuation),
+                (outer, innerContinuation) -> RecordCursor.fromList(innerValues, innerContinuation)
+                        .mapPipelined(inner -> map(outer * INNER_SIZE + inner), 1),
+                continuation, pipelineSize);
+    }
+
+    @Nonnull
+    private RecordCursor<Long> dedupCursor(@Nullable byte[] continuation) {
+        return new DedupCursor<>(
+                innerContinuation -> RecordCursor.fromList(duplicatedValues, innerContinuation),
+                packed -> Tuple.fromBytes(packed).getLong(0),
+                value -> Tuple.from(value).pack(),
+                continuation);
+    }
+
+    @Benchmark
+    public void mapPipelined(Blackhole blackhole) {
+        CursorBenchmarks.drain(mapPipelinedCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void mapPipelinedWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::mapPipelinedCursor, rowLimit, blackhole);
+    }
+
+    /**
+     * Resume from a continuation, read one element and serialize the new continuation. This isolates the cost
+     * of parsing and producing continuations from the cost of the pipeline itself.
+     * @return the new continuation
+     */
+    @Benchmark
+    public byte[] mapPipelinedContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::mapPipelinedCursor, mapPipelinedContinuation, 1);
+    }
+
+    @Benchmark
+    public void flatMapPipelined(Blackhole blackhole) {
+        CursorBenchmarks.drain(flatMapPipelinedCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void flatMapPipelinedWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::flatMapPipelinedCursor, rowLimit, blackhole);
+    }
+
+    @Benchmark
+    public byte[] flatMapPipelinedContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::flatMapPipelinedCursor, flatMapPipelinedContinuation, 1);
+    }
+
+    @Benchmark
+    public void dedup(Blackhole blackhole) {
+        CursorBenchmarks.drain(dedupCursor(null), blackhole);
+    }
+
+    @Benchmark
+    public void dedupWithContinuations(Blackhole blackhole) {
+        CursorBenchmarks.drainWithContinuations(this::dedupCursor, rowLimit, blackhole);
+    }
+
+    @Benchmark
+    public byte[] dedupContinuationRoundTrip() {
+        return CursorBenchmarks.continuationAfter(this::dedupCursor, dedupContinuation, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        CursorBenchmarks.run(PipelinedCursorBenchmark.class);
+    }
+}
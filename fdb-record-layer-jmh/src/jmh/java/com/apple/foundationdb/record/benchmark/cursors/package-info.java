@@ -0,0 +1,27 @@
+/*
+ * package-info.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JMH benchmarks of {@link com.apple.foundationdb.record.RecordCursor} combinators. Unlike the other benchmarks
+ * in this project, these run entirely in memory over {@link com.apple.foundationdb.record.cursors.ListCursor}
+ * inputs, so they do not need a FoundationDB cluster. They are intended to be run with the GC profiler
+ * ({@code -prof gc}) to also track allocation rates.
+ */
+package com.apple.foundationdb.record.benchmark.cursors;
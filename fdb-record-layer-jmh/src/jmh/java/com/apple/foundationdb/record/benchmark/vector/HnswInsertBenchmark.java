@@ -0,0 +1,142 @@
+/*
+ * HnswInsertBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.vector;
+
+import com.apple.foundationdb.Database;
+import com.apple.foundationdb.async.hnsw.Config;
+import com.apple.foundationdb.async.hnsw.HNSW;
+import com.apple.foundationdb.async.hnsw.InsertEntry;
+import com.apple.foundationdb.async.hnsw.OnReadListener;
+import com.apple.foundationdb.async.hnsw.OnWriteListener;
+import com.apple.foundationdb.linear.DoubleRealVector;
+import com.apple.foundationdb.linear.Metric;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabase;
+import com.apple.foundationdb.record.provider.foundationdb.FDBDatabaseFactory;
+import com.apple.foundationdb.subspace.Subspace;
+import com.apple.foundationdb.tuple.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of bulk loading vectors into an HNSW, comparing one {@link HNSW#insert} per vector with
+ * {@link HNSW#insertBatch}. Each operation is one vector, and each invocation inserts {@value #BATCH_SIZE} new
+ * vectors in one transaction into a graph that has been loaded with {@code initialSize} vectors. This needs a
+ * FoundationDB cluster; the graph is stored under its own subspace, which is cleared when a trial begins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(HnswInsertBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HnswInsertBenchmark {
+    static final int BATCH_SIZE = 100;
+
+    private static final Subspace SUBSPACE = new Subspace(Tuple.from("record-layer-benchmark", "hnsw-insert"));
+
+    @Param({"128", "768"})
+    public int numDimensions;
+
+    @Param("10000")
+    public int initialSize;
+
+    private Database database;
+    private HNSW hnsw;
+    private Random random;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final FDBDatabase fdbDatabase = FDBDatabaseFactory.instance().getDatabase();
+        database = fdbDatabase.database();
+        database.run(tr -> {
+            tr.clear(SUBSPACE.range());
+            return null;
+        });
+        final Config config = HNSW.newConfigBuilder()
+                .setMetric(Metric.EUCLIDEAN_METRIC)
+                .build(numDimensions);
+        hnsw = new HNSW(SUBSPACE, fdbDatabase.getExecutor(), config, OnWriteListener.NOOP, OnReadListener.NOOP);
+        random = new Random(numDimensions);
+        nextId = 0L;
+        while (nextId < initialSize) {
+            final List<InsertEntry> entries = nextBatch();
+            database.run(tr -> hnsw.insertBatch(tr, entries).join());
+        }
+    }
+
+    private List<InsertEntry> nextBatch() {
+        final List<InsertEntry> entries = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final double[] components = new double[numDimensions];
+            for (int j = 0; j < numDimensions; j++) {
+                components[j] = random.nextGaussian();
+            }
+            entries.add(new InsertEntry(Tuple.from(nextId++), new DoubleRealVector(components), null));
+        }
+        return entries;
+    }
+
+    @Benchmark
+    public void insertOneByOne() {
+        final List<InsertEntry> entries = nextBatch();
+        database.run(tr -> {
+            CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+            for (final InsertEntry entry : entries) {
+                future = future.thenCompose(ignored ->
+                        hnsw.insert(tr, entry.primaryKey(), entry.vector(), entry.additionalValues()));
+            }
+            return future.join();
+        });
+    }
+
+    @Benchmark
+    public void insertBatch() {
+        final List<InsertEntry> entries = nextBatch();
+        database.run(tr -> hnsw.insertBatch(tr, entries).join());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HnswInsertBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * RaBitQEstimatorBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.vector;
+
+import com.apple.foundationdb.linear.DoubleRealVector;
+import com.apple.foundationdb.linear.Metric;
+import com.apple.foundationdb.linear.RealVector;
+import com.apple.foundationdb.rabitq.EncodedRealVector;
+import com.apple.foundationdb.rabitq.RaBitDistanceEstimator;
+import com.apple.foundationdb.rabitq.RaBitQuantizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of estimating the distance from a query vector to RaBitQ-encoded vectors, one vector at a time and in
+ * batches the size of a neighborhood in an HNSW. Each operation is one vector. The batches are estimated against a
+ * threshold that only a tenth of the vectors are closer than, as a search that already has a full set of nearest
+ * neighbors would use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(RaBitQEstimatorBenchmark.VECTORS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class RaBitQEstimatorBenchmark {
+    static final int VECTORS = 4096;
+    static final int BATCH_SIZE = 32;
+
+    @Param({"128", "768"})
+    public int numDimensions;
+
+    @Param({"4"})
+    public int numExBits;
+
+    private RaBitDistanceEstimator estimator;
+    private RealVector query;
+    private RaBitDistanceEstimator.QuantizedQuery quantizedQuery;
+    private EncodedRealVector[] encodedVectors;
+    private List<List<EncodedRealVector>> batches;
+    private double threshold;
+
+    @Setup
+    public void setup() {
+        final RaBitQuantizer quantizer = new RaBitQuantizer(Metric.EUCLIDEAN_SQUARE_METRIC, numExBits);
+        estimator = quantizer.estimator();
+        final Random random = new Random(numDimensions);
+        query = randomVector(random);
+        quantizedQuery = estimator.quantizeQuery(query);
+        encodedVectors = new EncodedRealVector[VECTORS];
+        final double[] distances = new double[VECTORS];
+        for (int i = 0; i < VECTORS; i++) {
+            encodedVectors[i] = quantizer.encode(randomVector(random));
+            distances[i] = estimator.distance(query, encodedVectors[i]);
+        }
+        Arrays.sort(distances);
+        threshold = distances[VECTORS / 10];
+
+        batches = new ArrayList<>();
+        for (int i = 0; i < VECTORS; i += BATCH_SIZE) {
+            batches.add(new ArrayList<>(Arrays.asList(encodedVectors).subList(i, i + BATCH_SIZE)));
+        }
+    }
+
+    private RealVector randomVector(final Random random) {
+        final double[] components = new double[numDimensions];
+        for (int i = 0; i < numDimensions; i++) {
+            components[i] = random.nextGaussian();
+        }
+        return new DoubleRealVector(components);
+    }
+
+    @Benchmark
+    public double oneByOne() {
+        double sum = 0.0d;
+        for (EncodedRealVector encodedVector : encodedVectors) {
+            sum += estimator.distance(query, encodedVector);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double batched() {
+        double sum = 0.0d;
+        for (List<EncodedRealVector> batch : batches) {
+            for (double distance : estimator.estimateDistances(quantizedQuery, batch, threshold)) {
+                sum += distance;
+            }
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RaBitQEstimatorBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
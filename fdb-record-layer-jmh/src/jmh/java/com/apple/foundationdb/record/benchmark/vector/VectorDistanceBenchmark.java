@@ -0,0 +1,137 @@
+/*
+ * VectorDistanceBenchmark.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.record.benchmark.vector;
+
+import com.apple.foundationdb.linear.DoubleRealVector;
+import com.apple.foundationdb.linear.FloatRealVector;
+import com.apple.foundationdb.linear.HalfRealVector;
+import com.apple.foundationdb.linear.Metric;
+import com.apple.foundationdb.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of computing the distance from a query vector to a set of stored vectors, as a nearest neighbor
+ * search does, with the vectors in {@code double}, {@code float} and half precision. The stored vectors are kept
+ * serialized, and every operation decodes one of them and computes one distance, so the cost of decoding into the
+ * in-memory representation is measured along with the distance kernel. The query is built once per invocation, as
+ * it is once per search. The set of vectors is large enough not to fit in the L2 cache, so that the bytes read per
+ * component matter as they do in a real search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(VectorDistanceBenchmark.VECTORS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorDistanceBenchmark {
+    static final int VECTORS = 4096;
+
+    @Param({"EUCLIDEAN_SQUARE_METRIC", "COSINE_METRIC", "DOT_PRODUCT_METRIC"})
+    public String metricName;
+
+    @Param({"128", "768"})
+    public int numDimensions;
+
+    private Metric metric;
+    private double[] queryComponents;
+    private byte[][] doubleVectors;
+    private byte[][] floatVectors;
+    private byte[][] halfVectors;
+
+    @Setup
+    public void setup() {
+        metric = Metric.valueOf(metricName);
+        final Random random = new Random(numDimensions);
+        queryComponents = randomComponents(random);
+        doubleVectors = new byte[VECTORS][];
+        floatVectors = new byte[VECTORS][];
+        halfVectors = new byte[VECTORS][];
+        for (int i = 0; i < VECTORS; i++) {
+            final double[] components = randomComponents(random);
+            doubleVectors[i] = new DoubleRealVector(components).getRawData();
+            floatVectors[i] = new FloatRealVector(components).getRawData();
+            halfVectors[i] = new HalfRealVector(components).getRawData();
+        }
+    }
+
+    private double[] randomComponents(final Random random) {
+        final double[] components = new double[numDimensions];
+        for (int i = 0; i < numDimensions; i++) {
+            components[i] = random.nextGaussian();
+        }
+        return components;
+    }
+
+    private double sumOfDistances(final RealVector query, final byte[][] vectors) {
+        double sum = 0.0d;
+        for (byte[] vector : vectors) {
+            sum += metric.distance(query, RealVector.fromBytes(vector));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double doublePrecision() {
+        return sumOfDistances(new DoubleRealVector(queryComponents), doubleVectors);
+    }
+
+    @Benchmark
+    public double singlePrecision() {
+        return sumOfDistances(new FloatRealVector(queryComponents), floatVectors);
+    }
+
+    /**
+     * A {@code double} query against stored single-precision vectors, which is converted to single precision once
+     * and then compared on the compact storage.
+     */
+    @Benchmark
+    public double doubleQuerySinglePrecision() {
+        return sumOfDistances(new DoubleRealVector(queryComponents), floatVectors);
+    }
+
+    @Benchmark
+    public double halfPrecision() {
+        return sumOfDistances(new HalfRealVector(queryComponents), halfVectors);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(VectorDistanceBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
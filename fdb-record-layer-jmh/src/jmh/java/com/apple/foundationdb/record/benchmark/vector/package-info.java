@@ -0,0 +1,29 @@
+/*
+ * package-info.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JMH benchmarks of vector operations. The distance benchmarks compare the {@code double}, {@code float} and half-precision
+ * kernels and the RaBitQ benchmarks compare per-vector and batched distance estimates; they run in memory and do not
+ * need a FoundationDB cluster. The HNSW insert benchmarks compare single and
+ * batched inserts and need a cluster. The benchmarks fork with
+ * {@code --add-modules jdk.incubator.vector} so that the SIMD backend is used; pass
+ * {@code -jvmArgsAppend -Dfdb.vector.simd=scalar} to measure the scalar fallback instead.
+ */
+package com.apple.foundationdb.record.benchmark.vector;
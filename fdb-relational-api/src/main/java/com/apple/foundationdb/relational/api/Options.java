@@ -61,6 +61,13 @@ public final class Options {
          * Scope: Connection, Direct Access API.
          */
         MAX_ROWS,
+        /**
+         * Limit the approximate total size in bytes of the rows to return before prompting for continuation.
+         * A query stops after the row that reaches the limit, so that a page of a large result does not have
+         * to be held in memory all at once, for instance when it is sent to a JDBC client.
+         * Scope: Connection, Query
+         */
+        MAX_RESULT_BYTES,
         /**
          * When set, only tables which were created at or before the specified version can be opened.
          * If this is set to -1, then it only requires that a version number exists.
@@ -278,6 +285,7 @@ public final class Options {
     static {
         final var builder = ImmutableMap.<Name, Object>builder();
         builder.put(Name.MAX_ROWS, Integer.MAX_VALUE);
+        builder.put(Name.MAX_RESULT_BYTES, Long.MAX_VALUE);
         builder.put(Name.INDEX_FETCH_METHOD, IndexFetchMethod.USE_REMOTE_FETCH_WITH_FALLBACK);
         builder.put(Name.DISABLE_PLANNER_REWRITING, false);
         builder.put(Name.DISABLED_PLANNER_RULES, ImmutableSet.of());
@@ -530,6 +538,7 @@ public final class Options {
         EnumMap<Name, List<OptionContract>> data = new EnumMap<>(Name.class);
         data.put(Name.CONTINUATION, List.of(TypeContract.of(Continuation.class, ignored -> { throw new UnsupportedOperationException(); })));
         data.put(Name.MAX_ROWS, List.of(TypeContract.intType(), RangeContract.of(0, Integer.MAX_VALUE)));
+        data.put(Name.MAX_RESULT_BYTES, List.of(TypeContract.longType(), RangeContract.of(1L, Long.MAX_VALUE)));
         data.put(Name.INDEX_FETCH_METHOD, List.of(TypeContract.of(IndexFetchMethod.class, IndexFetchMethod::valueOf)));
         data.put(Name.DISABLE_PLANNER_REWRITING, List.of(TypeContract.booleanType()));
         data.put(Name.DISABLED_PLANNER_RULES, List.of(new CollectionContract<>(TypeContract.stringType())));
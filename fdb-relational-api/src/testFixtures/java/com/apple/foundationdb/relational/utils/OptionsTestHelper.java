@@ -36,6 +36,7 @@ public class OptionsTestHelper {
         // Cannot do CONTINUATION, since the Impl class is in -core and not -api.
         builder = builder.withOption(Options.Name.INDEX_HINT, "thisIndex");
         builder = builder.withOption(Options.Name.MAX_ROWS, 5);
+        builder = builder.withOption(Options.Name.MAX_RESULT_BYTES, 1_000_000L);
         builder = builder.withOption(Options.Name.REQUIRED_METADATA_TABLE_VERSION, 123);
         builder = builder.withOption(Options.Name.TRANSACTION_TIMEOUT, 5000L);
         builder = builder.withOption(Options.Name.INDEX_FETCH_METHOD, Options.IndexFetchMethod.USE_REMOTE_FETCH);
@@ -34,18 +34,27 @@ import com.apple.foundationdb.relational.recordlayer.util.ExceptionUtil;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 @API(API.Status.EXPERIMENTAL)
 public final class RecordLayerIterator<T> implements ResumableIterator<Row> {
     private final RecordCursor<T> recordCursor;
     private final Function<T, Row> transform;
+    @Nullable
+    private final ToLongFunction<T> resultSize;
+    private final long maxBytes;
+    private long returnedBytes;
+    private boolean byteLimitReached;
     private RecordCursorResult<T> result;
     private Continuation continuation;
     private RecordCursor.NoNextReason noNextReason = null;
 
-    private RecordLayerIterator(@Nonnull RecordCursor<T> cursor, @Nonnull Function<T, Row> transform) throws RelationalException {
+    private RecordLayerIterator(@Nonnull RecordCursor<T> cursor, @Nonnull Function<T, Row> transform,
+                                @Nullable ToLongFunction<T> resultSize, long maxBytes) throws RelationalException {
         this.recordCursor = cursor;
         this.transform = transform;
+        this.resultSize = resultSize;
+        this.maxBytes = maxBytes;
         // TODO(sfines,yhatem) perform this in a non-blocking manner for more efficiency.
         this.continuation = ContinuationImpl.BEGIN;
         fetchNextResult();
@@ -53,7 +62,27 @@ public final class RecordLayerIterator<T> implements ResumableIterator<Row> {
 
     public static <T> RecordLayerIterator<T> create(RecordCursor<T> cursor,
                                                     Function<T, Row> transform) throws RelationalException {
-        return new RecordLayerIterator<>(cursor, transform);
+        return new RecordLayerIterator<>(cursor, transform, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Create an iterator that stops once the rows it has returned add up to at least {@code maxBytes}, as if it had
+     * reached a row limit. This bounds how much of a result is held at once by callers that gather all the rows, such
+     * as the server sending a page to a client, which can then resume from the continuation.
+     *
+     * @param cursor the underlying cursor
+     * @param transform function for turning cursor results into rows
+     * @param resultSize function giving the approximate size in bytes of a cursor result
+     * @param maxBytes the approximate maximum number of bytes in the rows returned
+     * @param <T> the type of the cursor results
+     * @return a new iterator
+     * @throws RelationalException if the first result cannot be fetched
+     */
+    public static <T> RecordLayerIterator<T> create(RecordCursor<T> cursor,
+                                                    Function<T, Row> transform,
+                                                    ToLongFunction<T> resultSize,
+                                                    long maxBytes) throws RelationalException {
+        return new RecordLayerIterator<>(cursor, transform, maxBytes == Long.MAX_VALUE ? null : resultSize, maxBytes);
     }
 
     @Override
@@ -67,6 +96,10 @@ public final class RecordLayerIterator<T> implements ResumableIterator<Row> {
 
     @Override
     public Continuation getContinuation() throws RelationalException {
+        if (byteLimitReached) {
+            // Resume after the last row returned.
+            return ContinuationImpl.copyOf(continuation);
+        }
         // If the result is already consumed, we check if there are more rows in the cursor. This is important to
         // update the continuation in case we reach the end of results.
         fetchNextResult();
@@ -77,6 +110,9 @@ public final class RecordLayerIterator<T> implements ResumableIterator<Row> {
 
     @Override
     public boolean hasNext() {
+        if (byteLimitReached) {
+            return false;
+        }
         fetchNextResult();
         return result.hasNext();
     }
@@ -105,6 +141,13 @@ public final class RecordLayerIterator<T> implements ResumableIterator<Row> {
                 final var row = transform.apply(result.get());
                 // TODO(sfines,yhatem) pass the Record-Layer Continuation object as-is to avoid copying bytes around.
                 this.continuation = ContinuationImpl.fromUnderlyingBytes(result.getContinuation().toBytes());
+                if (resultSize != null) {
+                    returnedBytes += resultSize.applyAsLong(result.get());
+                    if (returnedBytes >= maxBytes && !result.getContinuation().isEnd()) {
+                        byteLimitReached = true;
+                        noNextReason = RecordCursor.NoNextReason.RETURN_LIMIT_REACHED;
+                    }
+                }
                 return row;
             } catch (RecordCoreException exception) {
                 throw ExceptionUtil.toRelationalException(exception).toUncheckedWrappedException();
@@ -441,7 +441,10 @@ public abstract class QueryPlan extends Plan<RelationalResultSet> implements Typ
             final var currentPlanHashMode = OptionsUtils.getCurrentPlanHashMode(options);
 
             return executionContext.metricCollector.clock(RelationalMetric.RelationalEvent.CREATE_RESULT_SET_ITERATOR, () -> {
-                final ResumableIterator<Row> iterator = RecordLayerIterator.create(cursor, messageFDBQueriedRecord -> new MessageTuple(messageFDBQueriedRecord.getMessage()));
+                final ResumableIterator<Row> iterator = RecordLayerIterator.create(cursor,
+                        messageFDBQueriedRecord -> new MessageTuple(messageFDBQueriedRecord.getMessage()),
+                        messageFDBQueriedRecord -> messageFDBQueriedRecord.getMessage().getSerializedSize(),
+                        options.getOption(Options.Name.MAX_RESULT_BYTES));
                 return new RecordLayerResultSet(RelationalStructMetaData.of(semanticStructType), iterator, connection,
                         (continuation, reason) -> enrichContinuation(continuation,
                                 currentPlanHashMode, reason));
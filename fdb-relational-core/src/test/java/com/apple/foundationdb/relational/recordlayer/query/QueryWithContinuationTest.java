@@ -139,6 +139,33 @@ public class QueryWithContinuationTest {
         }
     }
 
+    @Test
+    void preparedStatementWithMaxResultBytes() throws Exception {
+        try (var ddl = Ddl.builder().database(URI.create("/TEST/QT")).relationalExtension(relationalExtension).schemaTemplate(schemaTemplate).build()) {
+            executeInsert(ddl);
+            Continuation continuation;
+            try (final var connection = ddl.setSchemaAndGetConnection()) {
+                // Every row is larger than the limit, so each page stops after one row
+                connection.setOption(Options.Name.MAX_RESULT_BYTES, 1L);
+                try (var statement = connection.prepareStatement("SELECT * FROM RestaurantComplexRecord")) {
+                    continuation = assertResult(statement, 10L);
+                    assertContinuation(continuation, false, false);
+                }
+                try (var statement = connection.prepareStatement("EXECUTE CONTINUATION ?continuation")) {
+                    statement.setBytes("continuation", continuation.serialize());
+                    continuation = assertResult(statement, 11L);
+                    assertContinuation(continuation, false, false);
+                }
+                connection.setOption(Options.Name.MAX_RESULT_BYTES, Long.MAX_VALUE);
+                try (var statement = connection.prepareStatement("EXECUTE CONTINUATION ?continuation")) {
+                    statement.setBytes("continuation", continuation.serialize());
+                    continuation = assertResult(statement, 12L, 13L, 14L);
+                    assertContinuation(continuation, false, true);
+                }
+            }
+        }
+    }
+
     @Test
     void preparedStatementWithParam() throws Exception {
         try (var ddl = Ddl.builder().database(URI.create("/TEST/QT")).relationalExtension(relationalExtension).schemaTemplate(schemaTemplate).build()) {
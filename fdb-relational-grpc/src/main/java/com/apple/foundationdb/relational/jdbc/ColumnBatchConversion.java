@@ -0,0 +1,278 @@
+/*
+ * ColumnBatchConversion.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2015-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.relational.jdbc;
+
+import com.apple.foundationdb.relational.api.RelationalResultSet;
+import com.apple.foundationdb.relational.api.metadata.DataType;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.BooleanVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.BytesVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnBatch;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.DoubleVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.FloatVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.IntVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.LongVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.StringVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Column;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.column.ListColumn;
+import com.google.protobuf.ByteString;
+
+import javax.annotation.Nonnull;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion of result set rows to and from a {@link ColumnBatch}, which stores them column by column.
+ *
+ * <p>
+ * Scalar columns are sent as vectors of their values, with strings dictionary encoded, so a result set takes fewer
+ * bytes on the wire and fewer objects to build and parse than one {@link Column} message per value. Other columns,
+ * such as structs and arrays, are sent as a list of {@link Column}s as in the row format.
+ * {@link RelationalResultSetFacade} reads scalar values straight from the vectors, and only uses
+ * {@link #getColumn(ColumnBatch, int, int)} for the other columns.
+ * </p>
+ */
+final class ColumnBatchConversion {
+
+    private ColumnBatchConversion() {
+    }
+
+    /**
+     * Read all the rows of a result set into a column batch.
+     * @param relationalResultSet the result set to read
+     * @return a new column batch with the values of the non-phantom columns
+     * @throws SQLException if reading the result set fails
+     */
+    @Nonnull
+    static ColumnBatch toColumnBatch(@Nonnull RelationalResultSet relationalResultSet) throws SQLException {
+        final var metaData = relationalResultSet.getMetaData();
+        final int leadingPhantomCount = metaData.getLeadingPhantomColumnCount();
+        final List<DataType.StructType.Field> fields = metaData.getRelationalDataType().getFields();
+        final List<VectorBuilder> vectors = new ArrayList<>(fields.size() - leadingPhantomCount);
+        for (int i = leadingPhantomCount; i < fields.size(); i++) {
+            vectors.add(new VectorBuilder(fields.get(i), i + 1));
+        }
+        int rowCount = 0;
+        while (relationalResultSet.next()) {
+            for (VectorBuilder vector : vectors) {
+                vector.add(relationalResultSet, rowCount);
+            }
+            rowCount++;
+        }
+        final ColumnBatch.Builder batchBuilder = ColumnBatch.newBuilder().setRowCount(rowCount);
+        for (VectorBuilder vector : vectors) {
+            batchBuilder.addColumn(vector.build());
+        }
+        return batchBuilder.build();
+    }
+
+    /**
+     * Get the value in one row of a column batch, in the same form as in the row format.
+     * @param columnBatch the column batch
+     * @param rowIndex the zero-based row
+     * @param columnIndex the zero-based column
+     * @return the value as a column, which has no value set if it is null
+     */
+    @Nonnull
+    static Column getColumn(@Nonnull ColumnBatch columnBatch, int rowIndex, int columnIndex) {
+        final ColumnVector vector = columnBatch.getColumn(columnIndex);
+        if (isNull(vector, rowIndex)) {
+            return Column.getDefaultInstance();
+        }
+        switch (vector.getValuesCase()) {
+            case INTEGERS:
+                return Column.newBuilder().setInteger(vector.getIntegers().getValue(rowIndex)).build();
+            case LONGS:
+                return Column.newBuilder().setLong(vector.getLongs().getValue(rowIndex)).build();
+            case FLOATS:
+                return Column.newBuilder().setFloat(vector.getFloats().getValue(rowIndex)).build();
+            case DOUBLES:
+                return Column.newBuilder().setDouble(vector.getDoubles().getValue(rowIndex)).build();
+            case BOOLEANS:
+                return Column.newBuilder().setBoolean(vector.getBooleans().getValue(rowIndex)).build();
+            case STRINGS:
+                final StringVector strings = vector.getStrings();
+                return Column.newBuilder().setString(strings.getDictionary(strings.getIndex(rowIndex))).build();
+            case BINARIES:
+                return Column.newBuilder().setBinary(vector.getBinaries().getValue(rowIndex)).build();
+            case COLUMNS:
+                return vector.getColumns().getColumn(rowIndex);
+            default:
+                return Column.getDefaultInstance();
+        }
+    }
+
+    /**
+     * Get whether the value in one row of a column vector is null.
+     * @param vector the column vector
+     * @param rowIndex the zero-based row
+     * @return {@code true} if the value is null
+     */
+    static boolean isNull(@Nonnull ColumnVector vector, int rowIndex) {
+        final ByteString nulls = vector.getNulls();
+        final int byteIndex = rowIndex / 8;
+        return byteIndex < nulls.size() && (nulls.byteAt(byteIndex) & (1 << (rowIndex % 8))) != 0;
+    }
+
+    /**
+     * Builds the vector for one column as rows are read.
+     */
+    private static final class VectorBuilder {
+        @Nonnull
+        private final DataType.StructType.Field field;
+        private final int oneBasedColumn;
+        @Nonnull
+        private final DataType.Code code;
+        private byte[] nulls = new byte[0];
+        private boolean hasNulls;
+
+        private IntVector.Builder integers;
+        private LongVector.Builder longs;
+        private FloatVector.Builder floats;
+        private DoubleVector.Builder doubles;
+        private BooleanVector.Builder booleans;
+        private StringVector.Builder strings;
+        private Map<String, Integer> dictionary;
+        private BytesVector.Builder binaries;
+        private ListColumn.Builder columns;
+
+        VectorBuilder(@Nonnull DataType.StructType.Field field, int oneBasedColumn) {
+            this.field = field;
+            this.oneBasedColumn = oneBasedColumn;
+            this.code = field.getType().getCode();
+            switch (code) {
+                case INTEGER:
+                    integers = IntVector.newBuilder();
+                    break;
+                case LONG:
+                    longs = LongVector.newBuilder();
+                    break;
+                case FLOAT:
+                    floats = FloatVector.newBuilder();
+                    break;
+                case DOUBLE:
+                    doubles = DoubleVector.newBuilder();
+                    break;
+                case BOOLEAN:
+                    booleans = BooleanVector.newBuilder();
+                    break;
+                case STRING:
+                case ENUM:
+                    strings = StringVector.newBuilder();
+                    dictionary = new HashMap<>();
+                    break;
+                case BYTES:
+                case VERSION:
+                    binaries = BytesVector.newBuilder();
+                    break;
+                default:
+                    columns = ListColumn.newBuilder();
+                    break;
+            }
+        }
+
+        void add(@Nonnull RelationalResultSet resultSet, int rowIndex) throws SQLException {
+            switch (code) {
+                case INTEGER:
+                    integers.addValue(resultSet.getInt(oneBasedColumn));
+                    break;
+                case LONG:
+                    longs.addValue(resultSet.getLong(oneBasedColumn));
+                    break;
+                case FLOAT:
+                    floats.addValue(resultSet.getFloat(oneBasedColumn));
+                    break;
+                case DOUBLE:
+                    doubles.addValue(resultSet.getDouble(oneBasedColumn));
+                    break;
+                case BOOLEAN:
+                    booleans.addValue(resultSet.getBoolean(oneBasedColumn));
+                    break;
+                case STRING:
+                case ENUM:
+                    final String string = (String) resultSet.getObject(oneBasedColumn);
+                    strings.addIndex(string == null ? 0 : dictionary.computeIfAbsent(string, s -> {
+                        strings.addDictionary(s);
+                        return dictionary.size();
+                    }));
+                    break;
+                case BYTES:
+                case VERSION:
+                    final byte[] bytes = (byte[]) resultSet.getObject(oneBasedColumn);
+                    binaries.addValue(bytes == null ? ByteString.EMPTY : ByteString.copyFrom(bytes));
+                    break;
+                default:
+                    final Object value = resultSet.getObject(oneBasedColumn);
+                    columns.addColumn(TypeConversion.toColumn(field, value, resultSet.wasNull()));
+                    return;
+            }
+            if (resultSet.wasNull()) {
+                setNull(rowIndex);
+            }
+        }
+
+        private void setNull(int rowIndex) {
+            final int byteIndex = rowIndex / 8;
+            if (byteIndex >= nulls.length) {
+                final byte[] newNulls = new byte[Math.max(byteIndex + 1, nulls.length * 2)];
+                System.arraycopy(nulls, 0, newNulls, 0, nulls.length);
+                nulls = newNulls;
+            }
+            nulls[byteIndex] |= (byte)(1 << (rowIndex % 8));
+            hasNulls = true;
+        }
+
+        @Nonnull
+        ColumnVector build() {
+            final ColumnVector.Builder builder = ColumnVector.newBuilder();
+            if (hasNulls) {
+                builder.setNulls(ByteString.copyFrom(nulls));
+            }
+            switch (code) {
+                case INTEGER:
+                    return builder.setIntegers(integers).build();
+                case LONG:
+                    return builder.setLongs(longs).build();
+                case FLOAT:
+                    return builder.setFloats(floats).build();
+                case DOUBLE:
+                    return builder.setDoubles(doubles).build();
+                case BOOLEAN:
+                    return builder.setBooleans(booleans).build();
+                case STRING:
+                case ENUM:
+                    if (strings.getDictionaryCount() == 0) {
+                        // Every value is null, but the index 0 written for them must still be valid.
+                        strings.addDictionary("");
+                    }
+                    return builder.setStrings(strings).build();
+                case BYTES:
+                case VERSION:
+                    return builder.setBinaries(binaries).build();
+                default:
+                    return builder.setColumns(columns).build();
+            }
+        }
+    }
+}
@@ -28,7 +28,10 @@ import com.apple.foundationdb.relational.api.RelationalStruct;
 import com.apple.foundationdb.relational.api.RelationalStructMetaData;
 import com.apple.foundationdb.relational.api.StructResultSetMetaData;
 import com.apple.foundationdb.relational.api.metadata.DataType;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnBatch;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnVector;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.ResultSet;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.StringVector;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Column;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.column.ColumnMetadata;
 import com.apple.foundationdb.relational.util.ExcludeFromJacocoGeneratedReport;
@@ -36,6 +39,7 @@ import com.apple.foundationdb.relational.util.PositionalIndex;
 import com.google.common.base.Suppliers;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Types;
@@ -51,6 +55,12 @@ class RelationalResultSetFacade implements RelationalResultSet {
     private final Supplier<DataType.StructType> type;
 
     private final ResultSet delegate;
+    /**
+     * The values of the result set if they are stored column by column, in which case scalar values are read straight
+     * from their vectors.
+     */
+    @Nullable
+    private final ColumnBatch columnBatch;
     private final int rows;
     /**
      * The ResultSet index starts before '1'... you have to call 'next' to get to first ResultSet.
@@ -71,7 +81,8 @@ class RelationalResultSetFacade implements RelationalResultSet {
     RelationalResultSetFacade(ResultSet delegate) {
         this.delegate = delegate;
         this.type = Suppliers.memoize(() -> TypeConversion.getStructDataType(delegate.getMetadata().getColumnMetadata(), false));
-        this.rows = delegate.getRowCount();
+        this.columnBatch = delegate.hasColumnBatch() ? delegate.getColumnBatch() : null;
+        this.rows = TypeConversion.getRowCount(delegate);
     }
 
     @Override
@@ -105,12 +116,36 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     private <R> R get(int oneBasedIndex, Function<Column, R> s) {
         int index = PositionalIndex.toProtobuf(oneBasedIndex);
-        Column column = this.delegate.getRow(rowIndex).getColumns().getColumn(index);
+        Column column = TypeConversion.getColumn(this.delegate, rowIndex, index);
         return s.apply(column);
     }
 
+    /**
+     * Get the vector of a column if the values are stored column by column, and set {@link #wasNull} from its null
+     * bitmap. Values of the expected type can then be read from the vector without building a {@link Column}.
+     * @param oneBasedColumn the column
+     * @return the vector with the values of the column, or {@code null} if the values are stored in rows
+     */
+    @Nullable
+    private ColumnVector getVector(int oneBasedColumn) {
+        if (columnBatch == null) {
+            return null;
+        }
+        final ColumnVector vector = columnBatch.getColumn(PositionalIndex.toProtobuf(oneBasedColumn));
+        this.wasNull = ColumnBatchConversion.isNull(vector, rowIndex);
+        return vector;
+    }
+
     @Override
     public String getString(final int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasStrings()) {
+            if (this.wasNull) {
+                return null;
+            }
+            final StringVector strings = vector.getStrings();
+            return strings.getDictionary(strings.getIndex(rowIndex));
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasString()) {
                 // Do I need to update lastColumnReadWasNull for String type?
@@ -125,6 +160,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public boolean getBoolean(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasBooleans()) {
+            return !this.wasNull && vector.getBooleans().getValue(rowIndex);
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasBoolean()) {
                 this.wasNull = false;
@@ -137,6 +176,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public int getInt(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasIntegers()) {
+            return this.wasNull ? NUMERIC_VALUE_WHEN_NULL : vector.getIntegers().getValue(rowIndex);
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasInteger()) {
                 this.wasNull = false;
@@ -149,6 +192,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public long getLong(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasLongs()) {
+            return this.wasNull ? NUMERIC_VALUE_WHEN_NULL : vector.getLongs().getValue(rowIndex);
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasLong()) {
                 this.wasNull = false;
@@ -161,6 +208,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public float getFloat(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasFloats()) {
+            return this.wasNull ? NUMERIC_VALUE_WHEN_NULL : vector.getFloats().getValue(rowIndex);
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasFloat()) {
                 this.wasNull = false;
@@ -173,6 +224,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public double getDouble(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasDoubles()) {
+            return this.wasNull ? NUMERIC_VALUE_WHEN_NULL : vector.getDoubles().getValue(rowIndex);
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasDouble()) {
                 this.wasNull = false;
@@ -185,6 +240,10 @@ class RelationalResultSetFacade implements RelationalResultSet {
 
     @Override
     public byte[] getBytes(int oneBasedColumn) throws SQLException {
+        final ColumnVector vector = getVector(oneBasedColumn);
+        if (vector != null && vector.hasBinaries()) {
+            return this.wasNull ? null : vector.getBinaries().getValue(rowIndex).toByteArray();
+        }
         return get(oneBasedColumn, column -> {
             if (column.hasBinary()) {
                 this.wasNull = false;
@@ -388,7 +447,7 @@ class RelationalResultSetFacade implements RelationalResultSet {
     public RelationalArray getArray(int oneBasedColumn) throws SQLException {
         int index = PositionalIndex.toProtobuf(oneBasedColumn);
         ColumnMetadata columnMetadata = this.delegate.getMetadata().getColumnMetadata().getColumnMetadata(index);
-        Column column = this.delegate.getRow(rowIndex).getColumns().getColumn(index);
+        Column column = TypeConversion.getColumn(this.delegate, rowIndex, index);
         RelationalArrayFacade array = column == null || !column.hasArray() ? null :
                 new RelationalArrayFacade(columnMetadata.getArrayMetadata(), column.getArray());
         wasNull = array == null;
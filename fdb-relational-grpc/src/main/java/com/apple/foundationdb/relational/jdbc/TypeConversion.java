@@ -86,16 +86,40 @@ public class TypeConversion {
         int index = PositionalIndex.toProtobuf(oneBasedColumn);
         var metadata =
                 resultSet.getMetadata().getColumnMetadata().getColumnMetadata(index).getStructMetadata();
-        Column column = resultSet.getRow(rowIndex).getColumns().getColumn(index);
+        Column column = getColumn(resultSet, rowIndex, index);
         return column.hasStruct() ? new RelationalStructFacade(metadata, column.getStruct()) : null;
     }
 
     static UUID getUUID(ResultSet resultSet, int rowIndex, int oneBasedColumn) {
         int index = PositionalIndex.toProtobuf(oneBasedColumn);
-        Column column = resultSet.getRow(rowIndex).getColumns().getColumn(index);
+        Column column = getColumn(resultSet, rowIndex, index);
         return column.hasUuid() ? new UUID(column.getUuid().getMostSignificantBits(), column.getUuid().getLeastSignificantBits()) : null;
     }
 
+    /**
+     * Return the {@link Column} found at <code>rowIndex</code> and <code>index</code> offsets, whether
+     * <code>resultSet</code> has its values in rows or in a column batch.
+     * @param resultSet Protobuf ResultSet to fetch the {@link Column} from.
+     * @param rowIndex Current 'row' offset into <code>resultSet</code>
+     * @param index Zero-based column index.
+     * @return {@link Column} instance pulled from <code>resultSet</code>, which has no value set if it is null
+     */
+    static Column getColumn(ResultSet resultSet, int rowIndex, int index) {
+        if (resultSet.hasColumnBatch()) {
+            return ColumnBatchConversion.getColumn(resultSet.getColumnBatch(), rowIndex, index);
+        }
+        return resultSet.getRow(rowIndex).getColumns().getColumn(index);
+    }
+
+    /**
+     * Return the number of rows in <code>resultSet</code>, whether it has its values in rows or in a column batch.
+     * @param resultSet Protobuf ResultSet to count the rows of.
+     * @return the number of rows
+     */
+    public static int getRowCount(ResultSet resultSet) {
+        return resultSet.hasColumnBatch() ? resultSet.getColumnBatch().getRowCount() : resultSet.getRowCount();
+    }
+
     /**
      * Convert list of {@link RelationalStruct} to {@link ResultSet}.
      * @param structs List of {@link RelationalStruct} which are expected to be of type {@link RelationalStructFacade}.
@@ -454,7 +478,7 @@ public class TypeConversion {
         return builder.build();
     }
 
-    private static Column toColumn(@Nonnull DataType.StructType.Field field, @Nonnull Object value, boolean wasNull) throws SQLException {
+    static Column toColumn(@Nonnull DataType.StructType.Field field, @Nonnull Object value, boolean wasNull) throws SQLException {
         Column column;
         switch (field.getType().getCode()) {
             case STRUCT:
@@ -538,13 +562,29 @@ public class TypeConversion {
     }
 
     public static ResultSet toProtobuf(RelationalResultSet relationalResultSet) throws SQLException {
+        return toProtobuf(relationalResultSet, false);
+    }
+
+    /**
+     * Convert a {@link RelationalResultSet} to a protobuf {@link ResultSet}.
+     * @param relationalResultSet the result set to convert (can be null)
+     * @param columnBatch whether to store the rows column by column in a
+     * {@link com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnBatch} rather than as a list of rows
+     * @return the protobuf result set, or null if <code>relationalResultSet</code> is null
+     * @throws SQLException if reading <code>relationalResultSet</code> fails
+     */
+    public static ResultSet toProtobuf(RelationalResultSet relationalResultSet, boolean columnBatch) throws SQLException {
         if (relationalResultSet == null) {
             return null;
         }
         var resultSetBuilder = ResultSet.newBuilder();
         resultSetBuilder.setMetadata(toResultSetMetaData(relationalResultSet));
-        while (relationalResultSet.next()) {
-            resultSetBuilder.addRow(toStruct(relationalResultSet));
+        if (columnBatch) {
+            resultSetBuilder.setColumnBatch(ColumnBatchConversion.toColumnBatch(relationalResultSet));
+        } else {
+            while (relationalResultSet.next()) {
+                resultSetBuilder.addRow(toStruct(relationalResultSet));
+            }
         }
         // Set the continuation after all the rows have been traversed
         Continuation existingContinuation = relationalResultSet.getContinuation();
@@ -613,6 +653,9 @@ public class TypeConversion {
                 case MAX_ROWS:
                     builder.setMaxRows((Integer)entry.getValue());
                     break;
+                case MAX_RESULT_BYTES:
+                    builder.setMaxResultBytes((Long)entry.getValue());
+                    break;
                 case CONTINUATION:
                     builder.setContinuation(ByteString.copyFrom(((Continuation)entry.getValue()).serialize()));
                     break;
@@ -746,6 +789,9 @@ public class TypeConversion {
         if (protoOptions.hasMaxRows()) {
             builder.withOption(Options.Name.MAX_ROWS, protoOptions.getMaxRows());
         }
+        if (protoOptions.hasMaxResultBytes()) {
+            builder.withOption(Options.Name.MAX_RESULT_BYTES, protoOptions.getMaxResultBytes());
+        }
         if (protoOptions.hasContinuation()) {
             // TODO: The Impl class lives in relational-core.
             builder.withOption(Options.Name.CONTINUATION, protoOptions.getContinuation().toByteArray());
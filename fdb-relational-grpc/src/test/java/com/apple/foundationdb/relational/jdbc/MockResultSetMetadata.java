@@ -22,6 +22,7 @@ package com.apple.foundationdb.relational.jdbc;
 
 import com.apple.foundationdb.relational.api.ArrayMetaData;
 import com.apple.foundationdb.relational.api.RelationalResultSetMetaData;
+import com.apple.foundationdb.relational.api.RelationalStructMetaData;
 import com.apple.foundationdb.relational.api.StructMetaData;
 import com.apple.foundationdb.relational.api.exceptions.ErrorCode;
 import com.apple.foundationdb.relational.api.metadata.DataType;
@@ -32,17 +33,23 @@ import java.sql.SQLException;
 import java.util.List;
 
 /**
- * A testing implementation of an result set metadata. The columns are all assumed to be integers.
+ * A testing implementation of an result set metadata. By default, the columns are all assumed to be integers.
  */
 public class MockResultSetMetadata implements RelationalResultSetMetaData {
     private final DataType.StructType type;
+    private final int leadingPhantomColumnCount;
 
     public MockResultSetMetadata() {
-        this.type = DataType.StructType.from("testType", List.of(
+        this(DataType.StructType.from("testType", List.of(
                 DataType.StructType.Field.from("f1", DataType.Primitives.INTEGER.type(), 0),
                 DataType.StructType.Field.from("f2", DataType.Primitives.INTEGER.type(), 1),
                 DataType.StructType.Field.from("f2", DataType.Primitives.INTEGER.type(), 2)
-        ), false);
+        ), false), 0);
+    }
+
+    public MockResultSetMetadata(@Nonnull DataType.StructType type, int leadingPhantomColumnCount) {
+        this.type = type;
+        this.leadingPhantomColumnCount = leadingPhantomColumnCount;
     }
 
     @Override
@@ -52,6 +59,10 @@ public class MockResultSetMetadata implements RelationalResultSetMetaData {
 
     @Override
     public StructMetaData getStructMetaData(int oneBasedColumn) throws SQLException {
+        final DataType fieldType = getField(oneBasedColumn).getType();
+        if (fieldType.getCode() == DataType.Code.STRUCT) {
+            return RelationalStructMetaData.of((DataType.StructType) fieldType);
+        }
         throw new SQLException("Unsupported operation", ErrorCode.UNSUPPORTED_OPERATION.getErrorCode());
     }
 
@@ -66,9 +77,14 @@ public class MockResultSetMetadata implements RelationalResultSetMetaData {
         return type;
     }
 
+    @Override
+    public int getLeadingPhantomColumnCount() {
+        return leadingPhantomColumnCount;
+    }
+
     @Override
     public int getColumnCount() throws SQLException {
-        return type.getFields().size();
+        return type.getFields().size() - leadingPhantomColumnCount;
     }
 
     @Override
@@ -78,11 +94,16 @@ public class MockResultSetMetadata implements RelationalResultSetMetaData {
 
     @Override
     public int getColumnType(int column) throws SQLException {
-        return type.getFields().get(column - 1).getType().getJdbcSqlCode();
+        return getField(column).getType().getJdbcSqlCode();
     }
 
     @Override
     public int isNullable(int column) {
-        return type.getFields().get(column - 1).getType().isNullable() ? ResultSetMetaData.columnNullable : ResultSetMetaData.columnNoNulls;
+        return getField(column).getType().isNullable() ? ResultSetMetaData.columnNullable : ResultSetMetaData.columnNoNulls;
+    }
+
+    @Nonnull
+    private DataType.StructType.Field getField(int oneBasedColumn) {
+        return type.getFields().get(oneBasedColumn - 1 + leadingPhantomColumnCount);
     }
 }
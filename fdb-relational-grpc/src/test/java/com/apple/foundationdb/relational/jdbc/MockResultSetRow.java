@@ -24,6 +24,7 @@ import com.apple.foundationdb.relational.api.RelationalArray;
 import com.apple.foundationdb.relational.api.RelationalStruct;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,61 +32,74 @@ import java.util.UUID;
  * A testing implementation of a result set row.
  * This class assumes nothing about the content, which means that trying to get a wrong type from
  * a column will throw ClassCastException, and trying to get a column beyond the index will
- * throw IndexOutOfBoundsException
+ * throw IndexOutOfBoundsException. A column may be {@code null}, which is then reported by {@link #wasNull()}.
  */
 public class MockResultSetRow {
     @Nonnull
     private final List<?> row;
+    private boolean wasNull;
 
     public MockResultSetRow(@Nonnull List<?> row) {
         this.row = row;
     }
 
     public boolean wasNull() {
-        return false;
+        return wasNull;
     }
 
     public String getString(int columnIndex) {
-        return (String) row.get(columnIndex - 1);
+        return (String) get(columnIndex);
     }
 
     public boolean getBoolean(int columnIndex) {
-        return (boolean) row.get(columnIndex - 1);
+        final Object value = get(columnIndex);
+        return value != null && (boolean) value;
     }
 
     public int getInt(int columnIndex) {
-        return (int) row.get(columnIndex - 1);
+        final Object value = get(columnIndex);
+        return value == null ? 0 : (int) value;
     }
 
     public long getLong(int columnIndex) {
-        return (long) row.get(columnIndex - 1);
+        final Object value = get(columnIndex);
+        return value == null ? 0L : (long) value;
     }
 
     public float getFloat(int columnIndex) {
-        return (float) row.get(columnIndex - 1);
+        final Object value = get(columnIndex);
+        return value == null ? 0.0f : (float) value;
     }
 
     public double getDouble(int columnIndex) {
-        return (double) row.get(columnIndex - 1);
+        final Object value = get(columnIndex);
+        return value == null ? 0.0 : (double) value;
     }
 
     public byte[] getBytes(int columnIndex) {
-        return (byte[]) row.get(columnIndex - 1);
+        return (byte[]) get(columnIndex);
     }
 
     public Object getObject(int columnIndex) {
-        return row.get(columnIndex - 1);
+        return get(columnIndex);
     }
 
     public RelationalStruct getStruct(int oneBasedPosition) {
-        return (RelationalStruct) row.get(oneBasedPosition - 1);
+        return (RelationalStruct) get(oneBasedPosition);
     }
 
     public RelationalArray getArray(int oneBasedPosition) {
-        return (RelationalArray) row.get(oneBasedPosition - 1);
+        return (RelationalArray) get(oneBasedPosition);
     }
 
     public UUID getUUID(int oneBasedPosition) {
-        return (UUID) row.get(oneBasedPosition - 1);
+        return (UUID) get(oneBasedPosition);
+    }
+
+    @Nullable
+    private Object get(int oneBasedPosition) {
+        final Object value = row.get(oneBasedPosition - 1);
+        wasNull = value == null;
+        return value;
     }
 }
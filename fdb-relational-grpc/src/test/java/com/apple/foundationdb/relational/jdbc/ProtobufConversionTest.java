@@ -23,9 +23,15 @@ package com.apple.foundationdb.relational.jdbc;
 import com.apple.foundationdb.relational.api.Continuation;
 import com.apple.foundationdb.relational.api.Options;
 import com.apple.foundationdb.relational.api.RelationalResultSet;
+import com.apple.foundationdb.relational.api.RelationalStruct;
+import com.apple.foundationdb.relational.api.metadata.DataType;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnBatch;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ColumnVector;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.LongVector;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.ResultSet;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.RpcContinuation;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.RpcContinuationReason;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.StringVector;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Column;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Struct;
 import com.apple.foundationdb.relational.utils.OptionsTestHelper;
@@ -33,6 +39,8 @@ import com.google.protobuf.ByteString;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -95,6 +103,127 @@ public class ProtobufConversionTest {
         assertContinuation(continuation.serialize(), RpcContinuationReason.TRANSACTION_LIMIT_REACHED, converted.getContinuation());
     }
 
+    @Test
+    void testResultSetWithColumnBatch() throws Exception {
+        MockContinuation continuation = new MockContinuation(Continuation.Reason.TRANSACTION_LIMIT_REACHED, null, false, false);
+        RelationalResultSet resultSet = TestUtils.resultSet(
+                continuation,
+                TestUtils.row(1, 2, 3), TestUtils.row(4, 5, 6));
+        ResultSet converted = TypeConversion.toProtobuf(resultSet, true);
+
+        Assertions.assertEquals(0, converted.getRowCount());
+        Assertions.assertEquals(2, TypeConversion.getRowCount(converted));
+        Assertions.assertEquals(3, converted.getColumnBatch().getColumnCount());
+        assertContinuation(continuation.serialize(), RpcContinuationReason.TRANSACTION_LIMIT_REACHED, converted.getContinuation());
+
+        RelationalResultSet facade = new RelationalResultSetFacade(converted);
+        Assertions.assertTrue(facade.next());
+        Assertions.assertEquals(List.of(1, 2, 3), List.of(facade.getInt(1), facade.getInt(2), facade.getInt(3)));
+        Assertions.assertTrue(facade.next());
+        Assertions.assertEquals(List.of(4, 5, 6), List.of(facade.getInt(1), facade.getInt(2), facade.getInt(3)));
+        Assertions.assertFalse(facade.next());
+    }
+
+    @Test
+    void testColumnBatchNullsAndStrings() {
+        ColumnBatch batch = ColumnBatch.newBuilder()
+                .setRowCount(10)
+                .addColumn(ColumnVector.newBuilder()
+                        // Rows 1 and 9 are null
+                        .setNulls(ByteString.copyFrom(new byte[] {0b10, 0b10}))
+                        .setStrings(StringVector.newBuilder()
+                                .addAllDictionary(List.of("a", "b"))
+                                .addAllIndex(List.of(0, 0, 1, 0, 1, 1, 0, 0, 1, 0))))
+                .addColumn(ColumnVector.newBuilder()
+                        .setLongs(LongVector.newBuilder()
+                                .addAllValue(List.of(0L, -1L, 2L, -3L, 4L, -5L, 6L, -7L, 8L, -9L))))
+                .build();
+
+        Assertions.assertEquals("a", ColumnBatchConversion.getColumn(batch, 0, 0).getString());
+        Assertions.assertFalse(ColumnBatchConversion.getColumn(batch, 1, 0).hasString());
+        Assertions.assertEquals("b", ColumnBatchConversion.getColumn(batch, 2, 0).getString());
+        Assertions.assertEquals("b", ColumnBatchConversion.getColumn(batch, 8, 0).getString());
+        Assertions.assertFalse(ColumnBatchConversion.getColumn(batch, 9, 0).hasString());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(i % 2 == 0 ? i : -i, ColumnBatchConversion.getColumn(batch, i, 1).getLong());
+        }
+    }
+
+    @Test
+    void testColumnBatchRoundTrip() throws Exception {
+        final DataType.StructType innerType = DataType.StructType.from("inner", List.of(
+                DataType.StructType.Field.from("a", DataType.Primitives.INTEGER.type(), 0)), true);
+        final DataType.StructType type = DataType.StructType.from("testType", List.of(
+                DataType.StructType.Field.from("phantom", DataType.Primitives.INTEGER.type(), 0),
+                DataType.StructType.Field.from("i", DataType.Primitives.NULLABLE_INTEGER.type(), 1),
+                DataType.StructType.Field.from("l", DataType.Primitives.LONG.type(), 2),
+                DataType.StructType.Field.from("d", DataType.Primitives.NULLABLE_DOUBLE.type(), 3),
+                DataType.StructType.Field.from("b", DataType.Primitives.NULLABLE_BOOLEAN.type(), 4),
+                DataType.StructType.Field.from("s", DataType.Primitives.NULLABLE_STRING.type(), 5),
+                DataType.StructType.Field.from("n", DataType.Primitives.NULLABLE_STRING.type(), 6),
+                DataType.StructType.Field.from("bytes", DataType.Primitives.NULLABLE_BYTES.type(), 7),
+                DataType.StructType.Field.from("struct", innerType, 8)
+        ), false);
+        // Ten rows, so that the null bitmaps take more than one byte
+        final List<MockResultSetRow> rows = new ArrayList<>();
+        for (int r = 0; r < 10; r++) {
+            rows.add(TestUtils.row(
+                    -1,
+                    r % 3 == 0 ? null : r,
+                    r * 1_000_000_000_000L,
+                    r % 4 == 1 ? null : r / 2.0,
+                    r % 5 == 2 ? null : r % 2 == 0,
+                    r % 4 == 3 ? null : (r % 2 == 0 ? "even" : "odd"),
+                    null,
+                    r == 8 ? null : new byte[] {(byte) r, 1},
+                    r == 9 ? null : RelationalStructFacade.newBuilder().addInt("a", r).build()));
+        }
+        final MockContinuation continuation = new MockContinuation(Continuation.Reason.TRANSACTION_LIMIT_REACHED, null, false, false);
+
+        final ResultSet converted = TypeConversion.toProtobuf(TestUtils.resultSet(
+                new MockResultSetMetadata(type, 1), continuation, rows.toArray(new MockResultSetRow[0])), true);
+        final ColumnBatch batch = converted.getColumnBatch();
+        Assertions.assertEquals(10, batch.getRowCount());
+        // The phantom column is not sent
+        Assertions.assertEquals(8, batch.getColumnCount());
+        Assertions.assertEquals(8, converted.getMetadata().getColumnMetadata().getColumnMetadataCount());
+        Assertions.assertTrue(batch.getColumn(0).hasIntegers());
+        Assertions.assertTrue(batch.getColumn(1).getNulls().isEmpty());
+        Assertions.assertEquals(List.of("even", "odd"), batch.getColumn(4).getStrings().getDictionaryList());
+        Assertions.assertTrue(batch.getColumn(5).hasStrings());
+        Assertions.assertTrue(batch.getColumn(6).hasBinaries());
+        Assertions.assertTrue(batch.getColumn(7).hasColumns());
+
+        final ResultSet convertedRows = TypeConversion.toProtobuf(TestUtils.resultSet(
+                new MockResultSetMetadata(type, 1), continuation, rows.toArray(new MockResultSetRow[0])), false);
+        for (ResultSet resultSet : List.of(converted, convertedRows)) {
+            final RelationalResultSet facade = new RelationalResultSetFacade(resultSet);
+            for (int r = 0; r < 10; r++) {
+                Assertions.assertTrue(facade.next());
+                final List<?> expected = Arrays.asList(rows.get(r).getObject(2), rows.get(r).getObject(3), rows.get(r).getObject(4),
+                        rows.get(r).getObject(5), rows.get(r).getObject(6), rows.get(r).getObject(7));
+                for (int column = 1; column <= expected.size(); column++) {
+                    Assertions.assertEquals(expected.get(column - 1), facade.getObject(column));
+                    Assertions.assertEquals(expected.get(column - 1) == null, facade.wasNull());
+                }
+                final byte[] bytes = facade.getBytes(7);
+                Assertions.assertEquals(r == 8, facade.wasNull());
+                Assertions.assertArrayEquals(r == 8 ? null : new byte[] {(byte) r, 1}, bytes);
+                final RelationalStruct struct = facade.getStruct(8);
+                Assertions.assertEquals(r == 9, facade.wasNull());
+                if (r != 9) {
+                    Assertions.assertEquals(r, struct.getInt(1));
+                }
+                // The primitive getters report nulls too
+                Assertions.assertEquals(r % 3 == 0 ? -1 : r, facade.getInt(1));
+                Assertions.assertEquals(r % 3 == 0, facade.wasNull());
+                Assertions.assertEquals(r * 1_000_000_000_000L, facade.getLong(2));
+                Assertions.assertFalse(facade.wasNull());
+            }
+            Assertions.assertFalse(facade.next());
+        }
+    }
+
     private void assertContinuation(byte[] state, RpcContinuationReason reason, RpcContinuation actual) {
         Assertions.assertArrayEquals(state, actual.getInternalState().toByteArray());
         Assertions.assertEquals(reason, actual.getReason());
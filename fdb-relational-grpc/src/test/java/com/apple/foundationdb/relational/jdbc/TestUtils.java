@@ -24,7 +24,6 @@ import com.apple.foundationdb.relational.api.Continuation;
 import com.apple.foundationdb.relational.api.RelationalResultSet;
 
 import java.util.Arrays;
-import java.util.List;
 
 public class TestUtils {
     public static RelationalResultSet resultSet(Continuation continuation, MockResultSetRow... rows) {
@@ -34,7 +33,15 @@ public class TestUtils {
                 continuation);
     }
 
+    public static RelationalResultSet resultSet(MockResultSetMetadata metadata, Continuation continuation, MockResultSetRow... rows) {
+        return new MockResultSet(
+                metadata,
+                Arrays.stream(rows).iterator(),
+                continuation);
+    }
+
     public static MockResultSetRow row(Object... columns) {
-        return new MockResultSetRow(List.of(columns));
+        // Arrays.asList rather than List.of, so that columns can be null
+        return new MockResultSetRow(Arrays.asList(columns));
     }
 }
@@ -195,7 +195,9 @@ class JDBCRelationalConnection implements RelationalConnection {
                 .setSql(sql)
                 .setDatabase(getDatabase()) // TODO: for transactional execution these are not required
                 .setSchema(getSchema())
-                .setOptions(TypeConversion.toProtobuf(options));
+                .setOptions(TypeConversion.toProtobuf(options))
+                // Result sets are read through RelationalResultSetFacade, which handles either form
+                .setAcceptColumnBatch(true);
         if (parameters != null) {
             builder.setParameters(Parameters.newBuilder().addAllParameter(parameters).build());
         }
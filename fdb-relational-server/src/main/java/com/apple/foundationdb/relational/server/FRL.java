@@ -200,6 +200,23 @@ public class FRL implements AutoCloseable {
     @Nonnull
     public Response execute(String database, String schema, String sql, List<Parameter> parameters, Options options)
             throws SQLException {
+        return execute(database, schema, sql, parameters, options, false);
+    }
+
+    /**
+     * Execute <code>sql</code>.
+     * @param database Database to run the <code>sql</code> against.
+     * @param schema Schema to use on <code>database</code>
+     * @param sql SQL to execute.
+     * @param parameters If non-null, then these are parameters and 'sql' is text of a prepared statement.
+     * @param options Options for the connection.
+     * @param columnBatch Whether a query's ResultSet should have its rows stored in a column batch.
+     * @return Returns A Response with either a ResultSet or a Row count, depending on the type of query issued
+     * @throws SQLException For all sorts of reasons.
+     */
+    @Nonnull
+    public Response execute(String database, String schema, String sql, List<Parameter> parameters, Options options,
+                            boolean columnBatch) throws SQLException {
         // Down inside connect, it calls RecordLayerStorageCluster.loadDatabase which internally creates a Transaction
         // to RecordLayerStorageCluster.loadDatabase and which, internal to loadDatabase, it then closes.
         // We used to explicitly set schema up here but this was provoking a new, separate, transaction; just let
@@ -209,7 +226,7 @@ public class FRL implements AutoCloseable {
         // to read the ResultSet after the transaction has closed will get a 'transactions is not active'.
         try (var connection = connect(database, schema, options)) {
             // Options are given to the connection, don't override them in the statement
-            return executeInternal(connection, sql, parameters, null);
+            return executeInternal(connection, sql, parameters, null, columnBatch);
         }
     }
 
@@ -220,7 +237,8 @@ public class FRL implements AutoCloseable {
     private Response executeInternal(@Nonnull RelationalConnection connection,
                                      @Nonnull String sql,
                                      @Nullable List<Parameter> parameters,
-                                     @Nullable Options options) throws SQLException {
+                                     @Nullable Options options,
+                                     boolean columnBatch) throws SQLException {
         ResultSet resultSet;
         if (parameters == null) {
             try (Statement statement = connection.createStatement()) {
@@ -228,7 +246,7 @@ public class FRL implements AutoCloseable {
                     setStatementOptions(options, statement);
                     if (relationalStatement.execute(sql)) {
                         try (RelationalResultSet rs = relationalStatement.getResultSet()) {
-                            resultSet = TypeConversion.toProtobuf(rs);
+                            resultSet = TypeConversion.toProtobuf(rs, columnBatch);
                             return Response.query(resultSet);
                         }
                     } else {
@@ -246,7 +264,7 @@ public class FRL implements AutoCloseable {
             setStatementOptions(options, statement);
             if (statement.execute()) {
                 try (RelationalResultSet rs = statement.getResultSet()) {
-                    resultSet = TypeConversion.toProtobuf(rs);
+                    resultSet = TypeConversion.toProtobuf(rs, columnBatch);
                     return Response.query(resultSet);
                 }
             } else {
@@ -348,8 +366,14 @@ public class FRL implements AutoCloseable {
     @Nonnull
     public Response transactionalExecute(TransactionalToken token, String sql, List<Parameter> parameters, @Nullable Options options)
             throws SQLException {
+        return transactionalExecute(token, sql, parameters, options, false);
+    }
+
+    @Nonnull
+    public Response transactionalExecute(TransactionalToken token, String sql, List<Parameter> parameters, @Nullable Options options,
+                                         boolean columnBatch) throws SQLException {
         assertValidToken(token);
-        return executeInternal(token.getConnection(), sql, parameters, options);
+        return executeInternal(token.getConnection(), sql, parameters, options, columnBatch);
     }
 
     public int transactionalInsert(TransactionalToken token, String tableName, List<RelationalStruct> data)
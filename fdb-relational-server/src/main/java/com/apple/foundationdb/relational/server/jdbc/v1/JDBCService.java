@@ -44,6 +44,7 @@ import com.google.common.annotations.VisibleForTesting;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.protobuf.StatusProto;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 import java.sql.SQLException;
@@ -86,12 +87,13 @@ public class JDBCService extends JDBCServiceGrpc.JDBCServiceImplBase {
         try {
             StatementResponse.Builder statementResponseBuilder = StatementResponse.newBuilder();
             FRL.Response response = this.frl.execute(request.getDatabase(), request.getSchema(), request.getSql(),
-                    request.hasParameters() ? request.getParameters().getParameterList() : null, TypeConversion.fromProtobuf(request.getOptions()));
+                    request.hasParameters() ? request.getParameters().getParameterList() : null, TypeConversion.fromProtobuf(request.getOptions()),
+                    request.getAcceptColumnBatch());
             if (response.isQuery()) {
                 // Setting row count like this might not be right... It is for updates. Might have to do something
                 // better than this count.
                 ResultSet rs = response.getResultSet();
-                statementResponseBuilder.setRowCount(rs.getRowCount());
+                statementResponseBuilder.setRowCount(TypeConversion.getRowCount(rs));
                 statementResponseBuilder.setResultSet(rs);
             } else {
                 //this is an update statement, so just set the row count directly and leave off the result set
@@ -106,6 +108,18 @@ public class JDBCService extends JDBCServiceGrpc.JDBCServiceImplBase {
         }
     }
 
+    /**
+     * Like {@link #execute(StatementRequest, StreamObserver)}, but sends the result of a query as a stream of pages
+     * with flow control. See {@link StatementResponseStreamer}.
+     */
+    @Override
+    public void executeStream(StatementRequest request, StreamObserver<StatementResponse> responseObserver) {
+        if (!checkStatementRequest(request, responseObserver)) {
+            return;
+        }
+        new StatementResponseStreamer(request, (ServerCallStreamObserver<StatementResponse>)responseObserver, frl).start();
+    }
+
     /**
      * This is called when the client connection enters "autoCommit=off" state.
      * Requests coming in after that point will be accepted through the returned TransactionRequestHandler,
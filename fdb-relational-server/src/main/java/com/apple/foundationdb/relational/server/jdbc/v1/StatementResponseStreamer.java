@@ -0,0 +1,134 @@
+/*
+ * StatementResponseStreamer.java
+ *
+ * This source file is part of the FoundationDB open source project
+ *
+ * Copyright 2021-2026 Apple Inc. and the FoundationDB project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.apple.foundationdb.relational.server.jdbc.v1;
+
+import com.apple.foundationdb.relational.jdbc.TypeConversion;
+import com.apple.foundationdb.relational.jdbc.grpc.GrpcSQLExceptionUtil;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.Parameter;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ParameterMetadata;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.ResultSet;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.RpcContinuation;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.StatementRequest;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.StatementResponse;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Column;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.column.Type;
+import com.apple.foundationdb.relational.server.FRL;
+import com.google.protobuf.ByteString;
+import io.grpc.protobuf.StatusProto;
+import io.grpc.stub.ServerCallStreamObserver;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Sends the result of a {@link StatementRequest} to the client as a stream of {@link StatementResponse} pages.
+ * Each page is bounded by the limits in the request options, such as {@code max_rows} and {@code max_result_bytes},
+ * and is read in its own transaction. The next page resumes the query from the continuation of the previous one,
+ * and it is only read once the transport is ready to take it. A client that reads slowly therefore holds the server
+ * to a single page in memory, instead of the whole result. A statement that is not a query is answered with a
+ * single response carrying its row count.
+ * <p>
+ * All callbacks of a call are serialized by gRPC, so the state here needs no further synchronization.
+ */
+class StatementResponseStreamer {
+    private static final String EXECUTE_CONTINUATION = "EXECUTE CONTINUATION ?";
+
+    @Nonnull
+    private final StatementRequest request;
+    @Nonnull
+    private final ServerCallStreamObserver<StatementResponse> responseObserver;
+    @Nonnull
+    private final FRL frl;
+    @Nullable
+    private ByteString continuation;
+    private boolean done;
+
+    StatementResponseStreamer(@Nonnull StatementRequest request,
+                              @Nonnull ServerCallStreamObserver<StatementResponse> responseObserver,
+                              @Nonnull FRL frl) {
+        this.request = request;
+        this.responseObserver = responseObserver;
+        this.frl = frl;
+    }
+
+    /**
+     * Start streaming. The first page is read as soon as the call is ready to send.
+     */
+    void start() {
+        responseObserver.setOnCancelHandler(() -> done = true);
+        responseObserver.setOnReadyHandler(this::sendPages);
+    }
+
+    private void sendPages() {
+        try {
+            while (!done && responseObserver.isReady()) {
+                final StatementResponse page = nextPage();
+                responseObserver.onNext(page);
+                if (done) {
+                    responseObserver.onCompleted();
+                }
+            }
+        } catch (SQLException e) {
+            done = true;
+            responseObserver.onError(StatusProto.toStatusRuntimeException(GrpcSQLExceptionUtil.create(e)));
+        } catch (RuntimeException e) {
+            done = true;
+            responseObserver.onError(JDBCService.handleUncaughtException(e));
+        }
+    }
+
+    @Nonnull
+    private StatementResponse nextPage() throws SQLException {
+        final FRL.Response response;
+        if (continuation == null) {
+            response = frl.execute(request.getDatabase(), request.getSchema(), request.getSql(),
+                    request.hasParameters() ? request.getParameters().getParameterList() : null,
+                    TypeConversion.fromProtobuf(request.getOptions()), request.getAcceptColumnBatch());
+        } else {
+            response = frl.execute(request.getDatabase(), request.getSchema(), EXECUTE_CONTINUATION,
+                    List.of(continuationParameter(continuation)), TypeConversion.fromProtobuf(request.getOptions()),
+                    request.getAcceptColumnBatch());
+        }
+        final StatementResponse.Builder statementResponseBuilder = StatementResponse.newBuilder();
+        if (!response.isQuery()) {
+            done = true;
+            return statementResponseBuilder.setRowCount(response.getRowCount()).build();
+        }
+        final ResultSet rs = response.getResultSet();
+        final RpcContinuation rpcContinuation = rs.getContinuation();
+        if (!rs.hasContinuation() || rpcContinuation.getAtEnd() || !rpcContinuation.hasInternalState()) {
+            done = true;
+        } else {
+            continuation = rpcContinuation.getInternalState();
+        }
+        return statementResponseBuilder.setRowCount(TypeConversion.getRowCount(rs)).setResultSet(rs).build();
+    }
+
+    @Nonnull
+    private static Parameter continuationParameter(@Nonnull ByteString continuation) {
+        return Parameter.newBuilder()
+                .setMetadata(ParameterMetadata.newBuilder().setType(Type.BYTES))
+                .setParameter(Column.newBuilder().setBinary(continuation))
+                .build();
+    }
+}
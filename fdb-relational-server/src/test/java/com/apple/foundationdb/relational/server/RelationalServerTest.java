@@ -23,6 +23,7 @@ package com.apple.foundationdb.relational.server;
 import com.apple.foundationdb.record.RecordCoreInterruptedException;
 import com.apple.foundationdb.relational.jdbc.grpc.GrpcConstants;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.JDBCServiceGrpc;
+import com.apple.foundationdb.relational.jdbc.grpc.v1.Options;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.ResultSet;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.StatementRequest;
 import com.apple.foundationdb.relational.jdbc.grpc.v1.StatementResponse;
@@ -60,6 +61,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -116,6 +119,30 @@ public class RelationalServerTest {
         return statementResponse.hasResultSet() ? statementResponse.getResultSet() : null;
     }
 
+    /**
+     * Read a table one row per page through the streaming RPC; every page after the first resumes from the
+     * continuation of the one before.
+     */
+    private static void executeStream(JDBCServiceGrpc.JDBCServiceBlockingStub stub, String testdb) {
+        execute(stub, testdb, "test_schema", "insert into test_table values (1, 'a'), (2, 'b'), (3, 'c')");
+        StatementRequest statementRequest = StatementRequest.newBuilder().setSql("select * from test_table")
+                .setDatabase(testdb).setSchema("test_schema")
+                .setOptions(Options.newBuilder().setMaxRows(1)).build();
+        Iterator<StatementResponse> pages = stub.executeStream(statementRequest);
+        List<Long> restNos = new ArrayList<>();
+        int pageCount = 0;
+        while (pages.hasNext()) {
+            ResultSet page = pages.next().getResultSet();
+            Assertions.assertTrue(page.getRowCount() <= 1);
+            for (int i = 0; i < page.getRowCount(); i++) {
+                restNos.add(page.getRow(i).getColumns().getColumn(0).getLong());
+            }
+            pageCount++;
+        }
+        Assertions.assertEquals(List.of(1L, 2L, 3L), restNos);
+        Assertions.assertTrue(pageCount >= 3);
+    }
+
     static void simpleJDBCServiceClientOperation(ManagedChannel managedChannel) {
         String sysDbPath = "/" + RelationalKeyspaceProvider.SYS;
         String testdb = "/FRL/server_test_db";
@@ -136,6 +163,7 @@ public class RelationalServerTest {
             Assertions.assertTrue(resultSet.getRow(1).getColumns().getColumn(0).hasString());
             Assertions.assertEquals(testdb, resultSet.getRow(0).getColumns().getColumn(0).getString());
             Assertions.assertEquals(sysDbPath, resultSet.getRow(1).getColumns().getColumn(0).getString());
+            executeStream(stub, testdb);
         } catch (Throwable t) {
             com.google.rpc.Status status = StatusProto.fromThrowable(t);
             if (status != null) {